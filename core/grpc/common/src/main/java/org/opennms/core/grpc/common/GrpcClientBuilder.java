@@ -47,24 +47,24 @@ public class GrpcClientBuilder {
     private static final String TLS_ENABLED = "tls.enabled";
 
     public static ManagedChannel getChannel(String host, int port, Map<String, String> properties) throws IOException {
-
-        NettyChannelBuilder channelBuilder = NettyChannelBuilder.forAddress(host, port)
-                .keepAliveWithoutCalls(true);
-        boolean tlsEnabled = Boolean.parseBoolean(properties.get(TLS_ENABLED));
-        if (tlsEnabled) {
-            return channelBuilder
-                    .negotiationType(NegotiationType.TLS)
-                    .sslContext(buildSslContext(properties).build())
-                    .build();
-        } else {
-            return channelBuilder.usePlaintext().build();
-        }
+        return getChannelBuilder(host, port, properties).build();
     }
 
     public static ManagedChannel getChannelWithInterceptor(String host, int port,
                                                            Map<String, String> properties,
                                                            ClientInterceptor clientInterceptor) throws IOException {
+        return getChannelBuilder(host, port, properties)
+                .intercept(clientInterceptor)
+                .build();
+    }
 
+    /**
+     * Returns a channel builder with the transport security configured from the given properties.
+     *
+     * Callers can further customize the builder before building the channel, i.e. to share
+     * an event loop group or executor between many channels.
+     */
+    public static NettyChannelBuilder getChannelBuilder(String host, int port, Map<String, String> properties) throws IOException {
         NettyChannelBuilder channelBuilder = NettyChannelBuilder.forAddress(host, port)
                 .keepAliveWithoutCalls(true);
         boolean tlsEnabled = Boolean.parseBoolean(properties.get(TLS_ENABLED));
@@ -72,15 +72,9 @@ public class GrpcClientBuilder {
             LOG.info("TLS Enabled for gRPC on {}:{}", host, port);
             return channelBuilder
                     .negotiationType(NegotiationType.TLS)
-                    .intercept(clientInterceptor)
-                    .sslContext(buildSslContext(properties).build())
-                    .build();
-
+                    .sslContext(buildSslContext(properties).build());
         } else {
-            return channelBuilder
-                    .usePlaintext()
-                    .intercept(clientInterceptor)
-                    .build();
+            return channelBuilder.usePlaintext();
         }
     }
 
@@ -34,4 +34,5 @@ public interface GrpcClientConstants {
     String CLIENT_CERTIFICATE_FILE_PATH = "client.cert.filepath";
     String CLIENT_PRIVATE_KEY_FILE_PATH = "client.private.key.filepath";
     String TRUST_CERTIFICATE_FILE_PATH = "trust.cert.filepath";
+    String SINK_STREAM_PER_MODULE = "sink.stream.per.module";
 }
@@ -30,6 +30,7 @@ import static org.opennms.core.ipc.grpc.client.GrpcClientConstants.GRPC_CLIENT_P
 import static org.opennms.core.ipc.grpc.client.GrpcClientConstants.GRPC_HOST;
 import static org.opennms.core.ipc.grpc.client.GrpcClientConstants.GRPC_MAX_INBOUND_SIZE;
 import static org.opennms.core.ipc.grpc.client.GrpcClientConstants.GRPC_PORT;
+import static org.opennms.core.ipc.grpc.client.GrpcClientConstants.SINK_STREAM_PER_MODULE;
 import static org.opennms.core.ipc.grpc.client.GrpcClientConstants.TLS_ENABLED;
 import static org.opennms.core.ipc.grpc.client.GrpcClientConstants.TRUST_CERTIFICATE_FILE_PATH;
 import static org.opennms.core.ipc.sink.api.Message.SINK_METRIC_PRODUCER_DOMAIN;
@@ -91,6 +92,7 @@ import io.grpc.ManagedChannel;
 import io.grpc.netty.shaded.io.grpc.netty.GrpcSslContexts;
 import io.grpc.netty.shaded.io.grpc.netty.NegotiationType;
 import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.handler.ssl.SslContext;
 import io.grpc.netty.shaded.io.netty.handler.ssl.SslContextBuilder;
 import io.grpc.stub.StreamObserver;
 import io.opentracing.Span;
@@ -111,20 +113,29 @@ import io.opentracing.util.GlobalTracer;
  * <p>
  * Sink: Sink runs in uni-directional streaming mode. If the sink module is async and OpenNMS Server is not active, the
  * messages are buffered and blocked till minion is able to connect to OpenNMS.
+ * Each sink module gets its own stream on its own connection, so a module flooding the server does not delay the
+ * messages of other modules or the RPCs.
+ * Async modules wait for their stream to be ready, which pushes back on the dispatcher when the server falls behind.
  */
 public class MinionGrpcClient extends AbstractMessageDispatcherFactory<String> {
 
     private static final Logger LOG = LoggerFactory.getLogger(MinionGrpcClient.class);
     private static final long SINK_BLOCKING_TIMEOUT = 1000;
     private static final int SINK_BLOCKING_THREAD_POOL_SIZE = 100;
+    private static final String SHARED_SINK_STREAM = "sink";
+    private static final String SINK_STREAM_WAIT_TIME = "streamWaitTime";
     private ManagedChannel channel;
+    private String host;
+    private int port;
+    private int maxInboundMessageSize;
+    private SslContext sslContext;
     private OpenNMSIpcGrpc.OpenNMSIpcStub asyncStub;
     private Properties properties;
     private BundleContext bundleContext;
     private MinionIdentity minionIdentity;
     private ConfigurationAdmin configAdmin;
     private StreamObserver<RpcResponseProto> rpcStream;
-    private StreamObserver<SinkMessage> sinkStream;
+    private boolean perModuleSinkStreams;
     private ConnectivityState currentChannelState;
     private MetricRegistry metrics;
     private TracerRegistry tracerRegistry;
@@ -138,6 +149,10 @@ public class MinionGrpcClient extends AbstractMessageDispatcherFactory<String> {
     private final ExecutorService requestHandlerExecutor = Executors.newCachedThreadPool(requestHandlerThreadFactory);
     // Maintain the map of RPC modules and their ID.
     private final Map<String, RpcModule<RpcRequest, RpcResponse>> registerdModules = new ConcurrentHashMap<>();
+    // Maintain the sink streams by module ID, or a single shared stream if per module streams are disabled.
+    private final Map<String, SinkStream> sinkStreams = new ConcurrentHashMap<>();
+    // Maintain a separate channel for each sink module if per module streams are enabled.
+    private final Map<String, ManagedChannel> sinkChannels = new ConcurrentHashMap<>();
     // This maintains a blocking thread for each dispatch module when OpenNMS is not in active state.
     private final ScheduledExecutorService blockingSinkMessageScheduler = Executors.newScheduledThreadPool(SINK_BLOCKING_THREAD_POOL_SIZE,
             blockingSinkMessageThreadFactory);
@@ -151,24 +166,17 @@ public class MinionGrpcClient extends AbstractMessageDispatcherFactory<String> {
 
     public void start() throws IOException {
         properties = ConfigUtils.getPropertiesFromConfig(configAdmin, GRPC_CLIENT_PID);
-        String host = PropertiesUtils.getProperty(properties, GRPC_HOST, DEFAULT_GRPC_HOST);
-        int port = PropertiesUtils.getProperty(properties, GRPC_PORT, DEFAULT_GRPC_PORT);
+        host = PropertiesUtils.getProperty(properties, GRPC_HOST, DEFAULT_GRPC_HOST);
+        port = PropertiesUtils.getProperty(properties, GRPC_PORT, DEFAULT_GRPC_PORT);
         boolean tlsEnabled = PropertiesUtils.getProperty(properties, TLS_ENABLED, false);
-        int maxInboundMessageSize = PropertiesUtils.getProperty(properties, GRPC_MAX_INBOUND_SIZE, DEFAULT_MESSAGE_SIZE);
-
-        NettyChannelBuilder channelBuilder = NettyChannelBuilder.forAddress(host, port)
-                .keepAliveWithoutCalls(true)
-                .maxInboundMessageSize(maxInboundMessageSize);
+        maxInboundMessageSize = PropertiesUtils.getProperty(properties, GRPC_MAX_INBOUND_SIZE, DEFAULT_MESSAGE_SIZE);
+        perModuleSinkStreams = PropertiesUtils.getProperty(properties, SINK_STREAM_PER_MODULE, true);
 
         if (tlsEnabled) {
-            channel = channelBuilder
-                    .negotiationType(NegotiationType.TLS)
-                    .sslContext(buildSslContext().build())
-                    .build();
+            sslContext = buildSslContext().build();
             LOG.info("TLS enabled for gRPC");
-        } else {
-            channel = channelBuilder.usePlaintext().build();
         }
+        channel = buildChannel();
 
         asyncStub = OpenNMSIpcGrpc.newStub(channel);
         initializeRpcStub();
@@ -180,6 +188,20 @@ public class MinionGrpcClient extends AbstractMessageDispatcherFactory<String> {
 
     }
 
+    private ManagedChannel buildChannel() {
+        NettyChannelBuilder channelBuilder = NettyChannelBuilder.forAddress(host, port)
+                .keepAliveWithoutCalls(true)
+                .maxInboundMessageSize(maxInboundMessageSize);
+
+        if (sslContext != null) {
+            return channelBuilder
+                    .negotiationType(NegotiationType.TLS)
+                    .sslContext(sslContext)
+                    .build();
+        }
+        return channelBuilder.usePlaintext().build();
+    }
+
     private SslContextBuilder buildSslContext() throws SSLException {
         SslContextBuilder builder = GrpcSslContexts.forClient();
         String clientCertChainFilePath = properties.getProperty(CLIENT_CERTIFICATE_FILE_PATH);
@@ -207,14 +229,47 @@ public class MinionGrpcClient extends AbstractMessageDispatcherFactory<String> {
     }
 
     private void initializeSinkStub() {
-        if (getChannelState().equals(ConnectivityState.READY)) {
-            sinkStream = asyncStub.sinkStreaming(new EmptyMessageReceiver());
-            LOG.info("Initialized Sink stream");
-        } else {
+        // Streams are opened on demand, close the ones from the previous connection
+        closeSinkStreams();
+        if (!getChannelState().equals(ConnectivityState.READY)) {
             LOG.warn("gRPC IPC server is not in ready state");
         }
     }
 
+    private SinkStream getSinkStream(String moduleId) {
+        final String streamName = perModuleSinkStreams ? moduleId : SHARED_SINK_STREAM;
+        SinkStream sinkStream = sinkStreams.get(streamName);
+        if (sinkStream != null && !sinkStream.isClosed()) {
+            return sinkStream;
+        }
+        synchronized (sinkStreams) {
+            sinkStream = sinkStreams.get(streamName);
+            if (sinkStream == null || sinkStream.isClosed()) {
+                sinkStream = new SinkStream(streamName, getMetrics().timer(MetricRegistry.name(streamName, SINK_STREAM_WAIT_TIME)),
+                        stream -> sinkStreams.remove(stream.getName(), stream));
+                getSinkStub(moduleId).sinkStreaming(sinkStream);
+                sinkStreams.put(streamName, sinkStream);
+                LOG.info("Initialized Sink stream {}", streamName);
+            }
+            return sinkStream;
+        }
+    }
+
+    private OpenNMSIpcGrpc.OpenNMSIpcStub getSinkStub(String moduleId) {
+        if (!perModuleSinkStreams) {
+            return asyncStub;
+        }
+        // Messages which are not yet requested by the server hold the flow control window of the connection, too.
+        // Each module gets its own connection, so a module the server can not keep up with does not hold back the
+        // other modules or the RPCs.
+        return OpenNMSIpcGrpc.newStub(sinkChannels.computeIfAbsent(moduleId, id -> buildChannel()));
+    }
+
+    private void closeSinkStreams() {
+        sinkStreams.values().forEach(SinkStream::close);
+        sinkStreams.clear();
+    }
+
 
     @SuppressWarnings({"rawtypes", "unchecked"})
     public void bind(RpcModule module) throws Exception {
@@ -247,9 +302,12 @@ public class MinionGrpcClient extends AbstractMessageDispatcherFactory<String> {
         requestHandlerExecutor.shutdown();
         blockingSinkMessageScheduler.shutdown();
         registerdModules.clear();
+        closeSinkStreams();
         if (rpcStream != null) {
             rpcStream.onCompleted();
         }
+        sinkChannels.values().forEach(ManagedChannel::shutdown);
+        sinkChannels.clear();
         channel.shutdown();
         LOG.info("Minion at location {} with systemId {} stopped", minionIdentity.getLocation(), minionIdentity.getId());
     }
@@ -306,7 +364,7 @@ public class MinionGrpcClient extends AbstractMessageDispatcherFactory<String> {
     public <S extends Message, T extends Message> void dispatch(SinkModule<S, T> module, String metadata, T message) {
 
         try (Logging.MDCCloseable mdc = Logging.withPrefixCloseable(MessageConsumerManager.LOG_PREFIX)) {
-            byte[] sinkMessageContent = module.marshal(message);
+            byte[] sinkMessageContent = marshal(module, message);
             String messageId = UUID.randomUUID().toString();
             SinkMessage.Builder sinkMessageBuilder = SinkMessage.newBuilder()
                     .setMessageId(messageId)
@@ -315,7 +373,7 @@ public class MinionGrpcClient extends AbstractMessageDispatcherFactory<String> {
                     .setContent(ByteString.copyFrom(sinkMessageContent));
 
             if (module.getId().equals(HEARTBEAT_MODULE_ID)) {
-                if (rpcStream == null || sinkStream == null || hasChangedToReadyState()) {
+                if (rpcStream == null || hasChangedToReadyState()) {
                     initializeSinkStub();
                     initializeRpcStub();
                 }
@@ -325,13 +383,13 @@ public class MinionGrpcClient extends AbstractMessageDispatcherFactory<String> {
             if (module.getAsyncPolicy() != null) {
                 sendBlockingSinkMessage(sinkMessageBuilder.build());
             } else {
-                sendSinkMessage(sinkMessageBuilder.build());
+                sendSinkMessage(sinkMessageBuilder.build(), false);
             }
         }
     }
 
     private void sendBlockingSinkMessage(SinkMessage sinkMessage) {
-        boolean succeeded = sendSinkMessage(sinkMessage);
+        boolean succeeded = sendSinkMessage(sinkMessage, true);
         if (succeeded) {
             return;
         }
@@ -341,7 +399,7 @@ public class MinionGrpcClient extends AbstractMessageDispatcherFactory<String> {
 
     private boolean scheduleSinkMessageAfterDelay(SinkMessage sinkMessage) {
         ScheduledFuture<Boolean> future = blockingSinkMessageScheduler.schedule(
-                () -> sendSinkMessage(sinkMessage), SINK_BLOCKING_TIMEOUT, TimeUnit.MILLISECONDS);
+                () -> sendSinkMessage(sinkMessage, true), SINK_BLOCKING_TIMEOUT, TimeUnit.MILLISECONDS);
         try {
             boolean succeeded = future.get();
             if (succeeded) {
@@ -355,15 +413,15 @@ public class MinionGrpcClient extends AbstractMessageDispatcherFactory<String> {
     }
 
 
-    private synchronized boolean sendSinkMessage(SinkMessage sinkMessage) {
+    private boolean sendSinkMessage(SinkMessage sinkMessage, boolean waitForReady) {
         if (getChannelState().equals(ConnectivityState.READY)) {
-            if (sinkStream != null) {
-                try {
-                    sinkStream.onNext(sinkMessage);
-                    return true;
-                } catch (Throwable e) {
-                    LOG.error("Exception while sending sinkMessage to gRPC IPC server", e);
-                }
+            try {
+                // Only wait for flow control if the message can be retried, else leave it to the channel to buffer it
+                return getSinkStream(sinkMessage.getModuleId()).send(sinkMessage, waitForReady ? SINK_BLOCKING_TIMEOUT : 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                LOG.error("Exception while sending sinkMessage to gRPC IPC server", e);
             }
         } else {
             LOG.info("gRPC IPC server is not in ready state");
@@ -0,0 +1,152 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.grpc.client;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.opennms.core.ipc.grpc.common.Empty;
+import org.opennms.core.ipc.grpc.common.SinkMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Timer;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+
+/**
+ * A single Sink stream to the gRPC IPC server.
+ * <p>
+ * Every stream is a separate HTTP/2 stream with its own flow control window. The server only requests further messages
+ * once the previous ones are dispatched, so a module sending faster than the server consumes only exhausts the window
+ * of its own stream. Senders can wait for the stream to become ready again, which pushes back on the dispatcher of the
+ * module instead of buffering the messages in the channel.
+ */
+class SinkStream implements ClientResponseObserver<SinkMessage, Empty> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SinkStream.class);
+
+    private final String name;
+    private final Timer waitTimer;
+    private final Consumer<SinkStream> onClose;
+    private ClientCallStreamObserver<SinkMessage> requestStream;
+    private boolean closed = false;
+
+    SinkStream(String name, Timer waitTimer, Consumer<SinkStream> onClose) {
+        this.name = Objects.requireNonNull(name);
+        this.waitTimer = Objects.requireNonNull(waitTimer);
+        this.onClose = Objects.requireNonNull(onClose);
+    }
+
+    @Override
+    public void beforeStart(ClientCallStreamObserver<SinkMessage> requestStream) {
+        this.requestStream = requestStream;
+        requestStream.setOnReadyHandler(this::onReady);
+    }
+
+    private synchronized void onReady() {
+        notifyAll();
+    }
+
+    /**
+     * Sends a message on this stream.
+     *
+     * @param sinkMessage the message to send
+     * @param timeoutMs time to wait for the stream to become ready, or 0 to send without waiting
+     * @return true if the message was sent, false if the stream did not become ready in time or is closed
+     */
+    synchronized boolean send(SinkMessage sinkMessage, long timeoutMs) throws InterruptedException {
+        if (timeoutMs > 0) {
+            final long start = System.nanoTime();
+            final long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (!closed && !requestStream.isReady()) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    waitTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            waitTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (closed) {
+            return false;
+        }
+        requestStream.onNext(sinkMessage);
+        return true;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            // Mark the stream closed before completing it, so no sender gets to call onNext on the half-closed call
+            closed = true;
+            notifyAll();
+            try {
+                requestStream.onCompleted();
+            } catch (Exception e) {
+                LOG.debug("Failed to complete Sink stream {}", name, e);
+            }
+        }
+        onClose.accept(this);
+    }
+
+    private void closed() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        onClose.accept(this);
+    }
+
+    @Override
+    public void onNext(Empty empty) {
+
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        LOG.warn("Error in Sink stream {}", name, throwable);
+        closed();
+    }
+
+    @Override
+    public void onCompleted() {
+        LOG.info("Sink stream {} closed", name);
+        closed();
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.grpc;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.opennms.core.ipc.grpc.GrpcIpcRpcIT.getAvailablePort;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opennms.core.grpc.common.GrpcIpcServer;
+import org.opennms.core.grpc.common.GrpcIpcServerBuilder;
+import org.opennms.core.ipc.grpc.client.GrpcClientConstants;
+import org.opennms.core.ipc.grpc.client.MinionGrpcClient;
+import org.opennms.core.ipc.grpc.server.GrpcServerConstants;
+import org.opennms.core.ipc.grpc.server.OpennmsGrpcServer;
+import org.opennms.core.ipc.sink.api.AggregationPolicy;
+import org.opennms.core.ipc.sink.api.AsyncDispatcher;
+import org.opennms.core.ipc.sink.api.AsyncPolicy;
+import org.opennms.core.ipc.sink.api.Message;
+import org.opennms.core.ipc.sink.api.MessageConsumer;
+import org.opennms.core.ipc.sink.api.SinkModule;
+import org.opennms.core.ipc.sink.xml.AbstractXmlSinkModule;
+import org.opennms.core.rpc.echo.EchoRequest;
+import org.opennms.core.rpc.echo.EchoResponse;
+import org.opennms.core.rpc.echo.EchoRpcModule;
+import org.opennms.distributed.core.api.MinionIdentity;
+import org.osgi.service.cm.ConfigurationAdmin;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * This test verifies that a sink module whose consumer is stuck does not hold back the messages of other modules or
+ * the RPCs, even once its messages exceed the HTTP/2 flow control window, and that it pushes back on the dispatcher
+ * of the stuck module instead.
+ */
+public class GrpcIpcSinkFlowControlIT {
+
+    private static final String REMOTE_LOCATION_NAME = "remote";
+    // Larger than the default HTTP/2 flow control window of 1MB
+    private static final int PAYLOAD_SIZE = 1536 * 1024;
+    private static final int NUM_PAYLOADS = 5;
+    private MinionGrpcClient grpcClient;
+    private OpennmsGrpcServer server;
+    private MockEchoClient echoClient;
+    private final MetricRegistry clientMetrics = new MetricRegistry();
+    private final CountDownLatch blockingLatch = new CountDownLatch(1);
+
+    @XmlRootElement(name = "payload")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Payload implements Message {
+        @XmlElement(name = "data")
+        private byte[] data;
+
+        public Payload() {
+        }
+
+        public Payload(byte[] data) {
+            this.data = data;
+        }
+    }
+
+    public static class PayloadModule extends AbstractXmlSinkModule<Payload, Payload> {
+
+        public PayloadModule() {
+            super(Payload.class);
+        }
+
+        @Override
+        public String getId() {
+            return "Payload";
+        }
+
+        @Override
+        public int getNumConsumerThreads() {
+            return 1;
+        }
+
+        @Override
+        public AggregationPolicy<Payload, Payload, ?> getAggregationPolicy() {
+            return null;
+        }
+
+        @Override
+        public AsyncPolicy getAsyncPolicy() {
+            return new AsyncPolicy() {
+                @Override
+                public int getQueueSize() {
+                    return NUM_PAYLOADS;
+                }
+
+                @Override
+                public int getNumThreads() {
+                    return 1;
+                }
+
+                @Override
+                public boolean isBlockWhenFull() {
+                    return true;
+                }
+            };
+        }
+    }
+
+    @Before
+    public void setup() throws Exception {
+        Hashtable<String, Object> serverConfig = new Hashtable<>();
+        int port = getAvailablePort(new AtomicInteger(GrpcServerConstants.DEFAULT_GRPC_PORT), 9090);
+        serverConfig.put(GrpcServerConstants.GRPC_SERVER_PORT, String.valueOf(port));
+        serverConfig.put(GrpcServerConstants.TLS_ENABLED, false);
+        // Only allow a single message per stream that is not yet dispatched.
+        serverConfig.put(GrpcServerConstants.SINK_STREAM_WINDOW, "1");
+        Hashtable<String, Object> clientConfig = new Hashtable<>();
+        clientConfig.put(GrpcClientConstants.GRPC_PORT, String.valueOf(port));
+        clientConfig.put(GrpcClientConstants.GRPC_HOST, "localhost");
+        clientConfig.put(GrpcClientConstants.TLS_ENABLED, false);
+        ConfigurationAdmin configAdmin = mock(ConfigurationAdmin.class, RETURNS_DEEP_STUBS);
+        when(configAdmin.getConfiguration(GrpcServerConstants.GRPC_SERVER_PID).getProperties()).thenReturn(serverConfig);
+        when(configAdmin.getConfiguration(GrpcClientConstants.GRPC_CLIENT_PID).getProperties()).thenReturn(clientConfig);
+
+        MinionIdentity minionIdentity = new MockMinionIdentity(REMOTE_LOCATION_NAME);
+
+        GrpcIpcServer grpcIpcServer = new GrpcIpcServerBuilder(configAdmin, port, "PT0S");
+        server = new OpennmsGrpcServer(grpcIpcServer);
+        echoClient = new MockEchoClient(server);
+        server.start();
+        grpcClient = new MinionGrpcClient(minionIdentity, configAdmin);
+        grpcClient.setMetrics(clientMetrics);
+        grpcClient.bind(new EchoRpcModule());
+        grpcClient.start();
+    }
+
+    @Test(timeout = 60000)
+    public void testBlockedModuleDoesNotDelayOtherModules() throws Exception {
+        PayloadModule payloadModule = new PayloadModule();
+        Meter payloadMeter = new Meter();
+        server.registerConsumer(new MessageConsumer<Payload, Payload>() {
+            @Override
+            public SinkModule<Payload, Payload> getModule() {
+                return payloadModule;
+            }
+
+            @Override
+            public void handleMessage(Payload message) {
+                payloadMeter.mark();
+                try {
+                    blockingLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        HeartbeatModule heartbeatModule = new HeartbeatModule();
+        Meter heartbeatMeter = new Meter();
+        server.registerConsumer(new HeartbeatConsumer(heartbeatModule, heartbeatMeter));
+
+        // Connect and register the Minion for RPCs
+        await().atMost(20, TimeUnit.SECONDS).pollInterval(1, TimeUnit.SECONDS)
+                .until(() -> {
+                    grpcClient.dispatch(heartbeatModule, null, new Heartbeat());
+                    return heartbeatMeter.getCount();
+                }, Matchers.greaterThan(0L));
+        await().atMost(20, TimeUnit.SECONDS).pollInterval(1, TimeUnit.SECONDS)
+                .until(() -> {
+                    grpcClient.dispatch(heartbeatModule, null, new Heartbeat());
+                    return server.getRpcHandlerByLocation().size();
+                }, Matchers.greaterThan(0));
+
+        // Push more than the flow control window through the module whose consumer is stuck
+        AsyncDispatcher<Payload> dispatcher = grpcClient.createAsyncDispatcher(payloadModule);
+        List<CompletableFuture<AsyncDispatcher.DispatchStatus>> futures = new ArrayList<>();
+        Random random = new Random(0);
+        for (int i = 0; i < NUM_PAYLOADS; i++) {
+            byte[] data = new byte[PAYLOAD_SIZE];
+            random.nextBytes(data);
+            futures.add(dispatcher.send(new Payload(data)));
+        }
+
+        // The consumer gets the first message and blocks, the dispatcher of the module then waits for its stream
+        await().atMost(20, TimeUnit.SECONDS).until(payloadMeter::getCount, Matchers.equalTo(1L));
+        Timer streamWaitTime = clientMetrics.getTimers().get(MetricRegistry.name(payloadModule.getId(), "streamWaitTime"));
+        assertNotNull(streamWaitTime);
+        await().atMost(20, TimeUnit.SECONDS).until(streamWaitTime::getCount, Matchers.greaterThan(0L));
+        assertFalse(futures.get(NUM_PAYLOADS - 1).isDone());
+
+        // Heartbeats are still delivered while the blocking module is stuck
+        long heartbeats = heartbeatMeter.getCount();
+        await().atMost(10, TimeUnit.SECONDS).pollInterval(1, TimeUnit.SECONDS)
+                .until(() -> {
+                    grpcClient.dispatch(heartbeatModule, null, new Heartbeat());
+                    return heartbeatMeter.getCount();
+                }, Matchers.greaterThan(heartbeats));
+
+        // And so are RPCs
+        EchoRequest request = new EchoRequest("gRPC-RPC-Request");
+        request.setLocation(REMOTE_LOCATION_NAME);
+        assertEquals(new EchoResponse("gRPC-RPC-Request"), echoClient.execute(request).get(10, TimeUnit.SECONDS));
+
+        assertEquals(1L, payloadMeter.getCount());
+        assertFalse(futures.get(NUM_PAYLOADS - 1).isDone());
+
+        // All messages are delivered once the consumer continues
+        blockingLatch.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        await().atMost(10, TimeUnit.SECONDS).until(payloadMeter::getCount, Matchers.equalTo((long) NUM_PAYLOADS));
+        dispatcher.close();
+    }
+
+    @After
+    public void shutdown() throws Exception {
+        blockingLatch.countDown();
+        grpcClient.shutdown();
+        server.shutdown();
+    }
+}
@@ -34,4 +34,6 @@ public interface GrpcServerConstants {
     String SERVER_CERTIFICATE_FILE_PATH = "server.cert.filepath";
     String PRIVATE_KEY_FILE_PATH = "server.private.key.filepath";
     String TRUST_CERTIFICATE_FILE_PATH = "trust.cert.filepath";
+    String SINK_STREAM_WINDOW = "sink.stream.window";
+    int DEFAULT_SINK_STREAM_WINDOW = 1000;
 }
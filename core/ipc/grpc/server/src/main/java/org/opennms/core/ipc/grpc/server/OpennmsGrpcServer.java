@@ -22,7 +22,9 @@
 package org.opennms.core.ipc.grpc.server;
 
 import static org.opennms.core.ipc.grpc.server.GrpcServerConstants.DEFAULT_GRPC_TTL;
+import static org.opennms.core.ipc.grpc.server.GrpcServerConstants.DEFAULT_SINK_STREAM_WINDOW;
 import static org.opennms.core.ipc.grpc.server.GrpcServerConstants.GRPC_TTL_PROPERTY;
+import static org.opennms.core.ipc.grpc.server.GrpcServerConstants.SINK_STREAM_WINDOW;
 import static org.opennms.core.ipc.sink.api.Message.SINK_METRIC_CONSUMER_DOMAIN;
 import static org.opennms.core.rpc.api.RpcModule.MINION_HEADERS_MODULE;
 import static org.opennms.core.tracing.api.TracerConstants.TAG_LOCATION;
@@ -42,6 +44,7 @@ import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -57,7 +60,9 @@ import org.opennms.core.ipc.sink.api.Message;
 import org.opennms.core.ipc.sink.api.MessageConsumerManager;
 import org.opennms.core.ipc.sink.api.SinkModule;
 import org.opennms.core.ipc.sink.common.AbstractMessageConsumerManager;
+import org.opennms.core.ipc.sink.common.SinkMessageCompression;
 import org.opennms.core.logging.Logging;
+import org.opennms.core.rpc.api.CoalescingRpcClient;
 import org.opennms.core.rpc.api.RemoteExecutionException;
 import org.opennms.core.rpc.api.RequestTimedOutException;
 import org.opennms.core.rpc.api.RpcClient;
@@ -74,6 +79,7 @@ import org.opennms.distributed.core.api.Identity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.jmx.JmxReporter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
@@ -85,6 +91,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.ByteString;
 
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.opentracing.References;
 import io.opentracing.Scope;
@@ -110,17 +117,22 @@ import io.opentracing.util.GlobalTracer;
  * separate thread which may be used by rpc module to process the response.
  * <p>
  * Sink: Sink runs in uni-directional streaming mode. OpenNMS receives sink messages from client and they are dispatched
- * in the consumer threads that are initialized at start.
+ * in the consumer threads that are initialized at start. Each sink stream only requests as many messages as fit in its
+ * window, and requests more as they are dispatched, so a client sending faster than its modules consume is pushed back by
+ * gRPC flow control.
  */
 
 public class OpennmsGrpcServer extends AbstractMessageConsumerManager implements RpcClientFactory {
 
     private static final Logger LOG = LoggerFactory.getLogger(OpennmsGrpcServer.class);
+    private static final String METRIC_SINK_QUEUED = "queued";
+    private static final String METRIC_SINK_QUEUE_TIME = "queueTime";
     private final GrpcIpcServer grpcIpcServer;
     private String location;
     private Identity identity;
     private Properties properties;
     private long ttl;
+    private int sinkStreamWindow;
     private MetricRegistry rpcMetrics;
     private MetricRegistry sinkMetrics;
     private JmxReporter rpcMetricsReporter;
@@ -171,6 +183,7 @@ public class OpennmsGrpcServer extends AbstractMessageConsumerManager implements
 
             properties = grpcIpcServer.getProperties();
             ttl = PropertiesUtils.getProperty(properties, GRPC_TTL_PROPERTY, DEFAULT_GRPC_TTL);
+            sinkStreamWindow = PropertiesUtils.getProperty(properties, SINK_STREAM_WINDOW, DEFAULT_SINK_STREAM_WINDOW);
             rpcTimeoutExecutor.execute(this::handleRpcTimeouts);
             rpcMetricsReporter = JmxReporter.forRegistry(getRpcMetrics())
                     .inDomain(JMX_DOMAIN_RPC)
@@ -212,7 +225,7 @@ public class OpennmsGrpcServer extends AbstractMessageConsumerManager implements
     @Override
     public <S extends RpcRequest, T extends RpcResponse> RpcClient<S, T> getClient(RpcModule<S, T> module) {
 
-        return new RpcClient<S, T>() {
+        final RpcClient<S, T> client = new RpcClient<S, T>() {
             @Override
             public CompletableFuture<T> execute(S request) {
                 if (request.getLocation() == null || request.getLocation().equals(getLocation())) {
@@ -275,6 +288,7 @@ public class OpennmsGrpcServer extends AbstractMessageConsumerManager implements
                 request.getTracingInfo().forEach(builder::putTracingInfo);
             }
         };
+        return CoalescingRpcClient.wrap(module, client, getRpcMetrics());
     }
 
 
@@ -506,6 +520,10 @@ public class OpennmsGrpcServer extends AbstractMessageConsumerManager implements
         public io.grpc.stub.StreamObserver<SinkMessage> sinkStreaming(
                 io.grpc.stub.StreamObserver<Empty> responseObserver) {
 
+            // Take over flow control, a message is only requested from the client when one from the window is dispatched.
+            final ServerCallStreamObserver<Empty> sinkStream = (ServerCallStreamObserver<Empty>) responseObserver;
+            sinkStream.disableAutoRequest();
+            sinkStream.request(Math.max(sinkStreamWindow, 1));
 
             return new StreamObserver<SinkMessage>() {
 
@@ -515,9 +533,30 @@ public class OpennmsGrpcServer extends AbstractMessageConsumerManager implements
                     if (!Strings.isNullOrEmpty(sinkMessage.getModuleId())) {
                         ExecutorService sinkModuleExecutor = sinkConsumersByModuleId.get(sinkMessage.getModuleId());
                         if(sinkModuleExecutor != null) {
-                            sinkModuleExecutor.execute(() -> dispatchSinkMessage(sinkMessage));
+                            final Counter queued = getSinkMetrics().counter(MetricRegistry.name(sinkMessage.getLocation(),
+                                    sinkMessage.getModuleId(), METRIC_SINK_QUEUED));
+                            final Timer queueTime = getSinkMetrics().timer(MetricRegistry.name(sinkMessage.getLocation(),
+                                    sinkMessage.getModuleId(), METRIC_SINK_QUEUE_TIME));
+                            final long receivedAt = System.nanoTime();
+                            queued.inc();
+                            try {
+                                sinkModuleExecutor.execute(() -> {
+                                    queued.dec();
+                                    queueTime.update(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+                                    try {
+                                        dispatchSinkMessage(sinkMessage);
+                                    } finally {
+                                        sinkStream.request(1);
+                                    }
+                                });
+                                return;
+                            } catch (RejectedExecutionException e) {
+                                queued.dec();
+                                LOG.warn("Dropping sink message for stopped module {}", sinkMessage.getModuleId());
+                            }
                         }
                     }
+                    sinkStream.request(1);
                 }
 
 
@@ -537,7 +576,7 @@ public class OpennmsGrpcServer extends AbstractMessageConsumerManager implements
     private void dispatchSinkMessage(SinkMessage sinkMessage) {
         SinkModule<?, Message> sinkModule = sinkModulesById.get(sinkMessage.getModuleId());
         if (sinkModule != null && sinkMessage.getContent() != null) {
-            Message message = sinkModule.unmarshal(sinkMessage.getContent().toByteArray());
+            Message message = sinkModule.unmarshal(SinkMessageCompression.decompress(sinkMessage.getContent().toByteArray()));
 
             MessageConsumerManager.updateMessageSize(getSinkMetrics(), sinkMessage.getLocation(),
                     sinkMessage.getModuleId(), sinkMessage.getSerializedSize());
@@ -0,0 +1,202 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.rpc.api;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+
+/**
+ * A {@link RpcClient} that shares a single RPC, and its response, between identical requests.
+ *
+ * Requests are identical when the module returns equal keys for them from {@link RpcModule#getCoalescingKey(RpcRequest)}.
+ * While a request is in-flight, identical requests wait for its response instead of issuing another RPC.
+ * Successful responses can additionally be cached for a short time.
+ *
+ * Coalescing is enabled per module with the {@code org.opennms.core.ipc.rpc.coalescing.<module-id>} system property,
+ * or for all modules with {@code org.opennms.core.ipc.rpc.coalescing}, and is disabled by default.
+ * The responses are cached for {@code org.opennms.core.ipc.rpc.coalescing.cacheTtlMs.<module-id>}
+ * or {@code org.opennms.core.ipc.rpc.coalescing.cacheTtlMs} milliseconds, and are not cached by default.
+ *
+ * Since the responses are shared, callers must not modify them.
+ *
+ * @param <S> type of request
+ * @param <T> type of response
+ */
+public class CoalescingRpcClient<S extends RpcRequest, T extends RpcResponse> implements RpcClient<S, T> {
+
+    public static final String COALESCING_SYS_PROP = "org.opennms.core.ipc.rpc.coalescing";
+
+    public static final String CACHE_TTL_MS_SYS_PROP = COALESCING_SYS_PROP + ".cacheTtlMs";
+
+    public static final String MAX_CACHE_ENTRIES_SYS_PROP = COALESCING_SYS_PROP + ".maxCacheEntries";
+
+    public static final int DEFAULT_MAX_CACHE_ENTRIES = 10000;
+
+    private final RpcModule<S, T> module;
+
+    private final RpcClient<S, T> delegate;
+
+    private final long cacheTtlMs;
+
+    private final int maxCacheEntries;
+
+    private final MetricRegistry metrics;
+
+    private final Map<Object, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<Object, CachedResponse<T>> cache = new ConcurrentHashMap<>();
+
+    private final Set<String> locationsWithGauge = ConcurrentHashMap.newKeySet();
+
+    public CoalescingRpcClient(RpcModule<S, T> module, RpcClient<S, T> delegate, long cacheTtlMs, int maxCacheEntries, MetricRegistry metrics) {
+        this.module = Objects.requireNonNull(module);
+        this.delegate = Objects.requireNonNull(delegate);
+        this.cacheTtlMs = cacheTtlMs;
+        this.maxCacheEntries = maxCacheEntries;
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Wraps the given client if coalescing is enabled for the module.
+     *
+     * @return the wrapped client, or the given client if coalescing is disabled
+     */
+    public static <S extends RpcRequest, T extends RpcResponse> RpcClient<S, T> wrap(RpcModule<S, T> module, RpcClient<S, T> client, MetricRegistry metrics) {
+        final String enabled = System.getProperty(COALESCING_SYS_PROP + "." + module.getId(), System.getProperty(COALESCING_SYS_PROP));
+        if (!Boolean.parseBoolean(enabled)) {
+            return client;
+        }
+        final long cacheTtlMs = Long.getLong(CACHE_TTL_MS_SYS_PROP + "." + module.getId(), Long.getLong(CACHE_TTL_MS_SYS_PROP, 0L));
+        final int maxCacheEntries = Integer.getInteger(MAX_CACHE_ENTRIES_SYS_PROP, DEFAULT_MAX_CACHE_ENTRIES);
+        return new CoalescingRpcClient<>(module, client, cacheTtlMs, maxCacheEntries, metrics);
+    }
+
+    @Override
+    public CompletableFuture<T> execute(S request) {
+        final Object key = module.getCoalescingKey(request);
+        if (key == null) {
+            return delegate.execute(request);
+        }
+        registerHitRateGauge(request.getLocation());
+
+        // Answer from the cache if possible
+        if (cacheTtlMs > 0) {
+            final CachedResponse<T> cached = cache.get(key);
+            if (cached != null) {
+                if (cached.expiresAt > System.currentTimeMillis()) {
+                    metrics.meter(MetricRegistry.name(request.getLocation(), module.getId(), RpcClientFactory.RPC_CACHE_HIT)).mark();
+                    return CompletableFuture.completedFuture(cached.response);
+                }
+                cache.remove(key, cached);
+            }
+        }
+
+        // Wait for an identical request that is already in-flight
+        final CompletableFuture<T> shared = new CompletableFuture<>();
+        final CompletableFuture<T> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            metrics.meter(MetricRegistry.name(request.getLocation(), module.getId(), RpcClientFactory.RPC_COALESCED)).mark();
+            return copyOf(existing);
+        }
+
+        metrics.meter(MetricRegistry.name(request.getLocation(), module.getId(), RpcClientFactory.RPC_COALESCING_MISS)).mark();
+        CompletableFuture<T> future;
+        try {
+            future = delegate.execute(request);
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((response, ex) -> {
+            if (ex == null && cacheTtlMs > 0 && response != null && response.getErrorMessage() == null) {
+                cacheResponse(key, response);
+            }
+            inFlight.remove(key, shared);
+            if (ex != null) {
+                shared.completeExceptionally(ex);
+            } else {
+                shared.complete(response);
+            }
+        });
+        return copyOf(shared);
+    }
+
+    private void cacheResponse(Object key, T response) {
+        final long now = System.currentTimeMillis();
+        if (cache.size() >= maxCacheEntries) {
+            cache.values().removeIf(cached -> cached.expiresAt <= now);
+            if (cache.size() >= maxCacheEntries) {
+                return;
+            }
+        }
+        cache.put(key, new CachedResponse<>(response, now + cacheTtlMs));
+    }
+
+    private void registerHitRateGauge(String location) {
+        if (!locationsWithGauge.add(Objects.toString(location))) {
+            return;
+        }
+        final String hits = MetricRegistry.name(location, module.getId(), RpcClientFactory.RPC_CACHE_HIT);
+        final String coalesced = MetricRegistry.name(location, module.getId(), RpcClientFactory.RPC_COALESCED);
+        final String misses = MetricRegistry.name(location, module.getId(), RpcClientFactory.RPC_COALESCING_MISS);
+        metrics.gauge(MetricRegistry.name(location, module.getId(), RpcClientFactory.RPC_COALESCING_HIT_RATE), () -> (Gauge<Double>) new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                final long saved = metrics.meter(hits).getCount() + metrics.meter(coalesced).getCount();
+                return Ratio.of(saved, saved + metrics.meter(misses).getCount());
+            }
+        });
+    }
+
+    /**
+     * Every caller gets its own future, so that completing or cancelling it does
+     * not affect the other callers. Exceptions are passed on as-is.
+     */
+    private static <T> CompletableFuture<T> copyOf(CompletableFuture<T> future) {
+        final CompletableFuture<T> copy = new CompletableFuture<>();
+        future.whenComplete((response, ex) -> {
+            if (ex != null) {
+                copy.completeExceptionally(ex);
+            } else {
+                copy.complete(response);
+            }
+        });
+        return copy;
+    }
+
+    private static class CachedResponse<T> {
+        private final T response;
+        private final long expiresAt;
+
+        private CachedResponse(T response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -41,6 +41,10 @@ public interface RpcClientFactory {
     String RPC_DURATION = "duration";
     String RPC_REQUEST_SIZE = "requestSize";
     String RPC_RESPONSE_SIZE = "responseSize";
+    String RPC_COALESCED = "requestCoalesced";
+    String RPC_CACHE_HIT = "responseCacheHit";
+    String RPC_COALESCING_MISS = "coalescingMiss";
+    String RPC_COALESCING_HIT_RATE = "coalescingHitRate";
 
     <R extends RpcRequest, S extends RpcResponse> RpcClient<R, S> getClient(RpcModule<R, S> module);
 
@@ -70,4 +70,18 @@ public interface RpcModule<S extends RpcRequest, T extends RpcResponse> extends
      */
     T createResponseWithException(Throwable ex);
 
+    /**
+     * Computes the key used to coalesce identical requests, see {@link CoalescingRpcClient}.
+     *
+     * Requests with equal keys must be safe to answer with the same response. The key
+     * should only be derived from the fields that affect the response and must not
+     * change once computed.
+     *
+     * @param request the request
+     * @return the key, or <code>null</code> if the request should never be coalesced
+     */
+    default Object getCoalescingKey(S request) {
+        return null;
+    }
+
 }
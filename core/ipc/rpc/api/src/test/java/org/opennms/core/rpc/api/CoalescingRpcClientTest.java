@@ -0,0 +1,223 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.rpc.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import io.opentracing.Span;
+
+public class CoalescingRpcClientTest {
+
+    private final MetricRegistry metrics = new MetricRegistry();
+
+    private final List<CompletableFuture<TestResponse>> pending = new ArrayList<>();
+
+    private final RpcClient<TestRequest, TestResponse> delegate = request -> {
+        final CompletableFuture<TestResponse> future = new CompletableFuture<>();
+        pending.add(future);
+        return future;
+    };
+
+    @Test
+    public void canCoalesceInFlightRequests() throws Exception {
+        final CoalescingRpcClient<TestRequest, TestResponse> client = new CoalescingRpcClient<>(new TestModule(), delegate, 0, 10, metrics);
+
+        final CompletableFuture<TestResponse> first = client.execute(new TestRequest("a"));
+        final CompletableFuture<TestResponse> second = client.execute(new TestRequest("a"));
+        final CompletableFuture<TestResponse> other = client.execute(new TestRequest("b"));
+        assertEquals(2, pending.size());
+        assertNotSame(first, second);
+
+        final TestResponse response = new TestResponse(null);
+        pending.get(0).complete(response);
+        assertSame(response, first.get());
+        assertSame(response, second.get());
+        assertFalse(other.isDone());
+
+        // Without a cache, the next request is sent again
+        client.execute(new TestRequest("a"));
+        assertEquals(3, pending.size());
+
+        assertEquals(1, metrics.meter("loc.test." + RpcClientFactory.RPC_COALESCED).getCount());
+        assertEquals(3, metrics.meter("loc.test." + RpcClientFactory.RPC_COALESCING_MISS).getCount());
+        assertEquals(0.25, (Double)getGauge("loc.test." + RpcClientFactory.RPC_COALESCING_HIT_RATE).getValue(), 0.001);
+    }
+
+    @Test
+    public void canCacheResponses() throws Exception {
+        final CoalescingRpcClient<TestRequest, TestResponse> client = new CoalescingRpcClient<>(new TestModule(), delegate, 60000, 10, metrics);
+
+        final CompletableFuture<TestResponse> first = client.execute(new TestRequest("a"));
+        final TestResponse response = new TestResponse(null);
+        pending.get(0).complete(response);
+        assertSame(response, first.get());
+
+        assertSame(response, client.execute(new TestRequest("a")).get());
+        assertEquals(1, pending.size());
+        assertEquals(1, metrics.meter("loc.test." + RpcClientFactory.RPC_CACHE_HIT).getCount());
+
+        // Errors are shared with the in-flight requests, but not cached
+        final CompletableFuture<TestResponse> failed = client.execute(new TestRequest("b"));
+        final CompletableFuture<TestResponse> coalesced = client.execute(new TestRequest("b"));
+        final RequestTimedOutException timeout = new RequestTimedOutException(new Exception());
+        pending.get(1).completeExceptionally(timeout);
+        assertSame(timeout, getCause(failed));
+        assertSame(timeout, getCause(coalesced));
+        client.execute(new TestRequest("b"));
+        assertEquals(3, pending.size());
+    }
+
+    @Test
+    public void canSkipRequestsWithoutKey() {
+        final CoalescingRpcClient<TestRequest, TestResponse> client = new CoalescingRpcClient<>(new TestModule(), delegate, 60000, 10, metrics);
+        client.execute(new TestRequest(null));
+        client.execute(new TestRequest(null));
+        assertEquals(2, pending.size());
+    }
+
+    @Test
+    public void isDisabledByDefault() {
+        assertSame(delegate, CoalescingRpcClient.wrap(new TestModule(), delegate, metrics));
+        System.setProperty(CoalescingRpcClient.COALESCING_SYS_PROP + ".test", "true");
+        try {
+            assertTrue(CoalescingRpcClient.wrap(new TestModule(), delegate, metrics) instanceof CoalescingRpcClient);
+        } finally {
+            System.clearProperty(CoalescingRpcClient.COALESCING_SYS_PROP + ".test");
+        }
+    }
+
+    private Gauge<?> getGauge(String name) {
+        return metrics.getGauges().get(name);
+    }
+
+    private static Throwable getCause(CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        return null;
+    }
+
+    private static class TestRequest implements RpcRequest {
+        private final String key;
+
+        private TestRequest(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getLocation() {
+            return "loc";
+        }
+
+        @Override
+        public String getSystemId() {
+            return null;
+        }
+
+        @Override
+        public Long getTimeToLiveMs() {
+            return null;
+        }
+
+        @Override
+        public Map<String, String> getTracingInfo() {
+            return null;
+        }
+
+        @Override
+        public Span getSpan() {
+            return null;
+        }
+    }
+
+    private static class TestResponse implements RpcResponse {
+        private final String errorMessage;
+
+        private TestResponse(String errorMessage) {
+            this.errorMessage = errorMessage;
+        }
+
+        @Override
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+    }
+
+    private static class TestModule implements RpcModule<TestRequest, TestResponse> {
+        @Override
+        public String getId() {
+            return "test";
+        }
+
+        @Override
+        public Object getCoalescingKey(TestRequest request) {
+            return request.key;
+        }
+
+        @Override
+        public CompletableFuture<TestResponse> execute(TestRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String marshalRequest(TestRequest request) {
+            return null;
+        }
+
+        @Override
+        public TestRequest unmarshalRequest(String request) {
+            return null;
+        }
+
+        @Override
+        public String marshalResponse(TestResponse response) {
+            return null;
+        }
+
+        @Override
+        public TestResponse unmarshalResponse(String response) {
+            return null;
+        }
+
+        @Override
+        public TestResponse createResponseWithException(Throwable ex) {
+            return null;
+        }
+    }
+}
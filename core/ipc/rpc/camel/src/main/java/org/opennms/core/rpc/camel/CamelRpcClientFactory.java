@@ -44,6 +44,7 @@ import org.apache.camel.component.direct.DirectConsumerNotAvailableException;
 import org.apache.camel.spi.Synchronization;
 import org.opennms.core.logging.Logging;
 import org.opennms.core.logging.Logging.MDCCloseable;
+import org.opennms.core.rpc.api.CoalescingRpcClient;
 import org.opennms.core.rpc.api.RemoteExecutionException;
 import org.opennms.core.rpc.api.RequestRejectedException;
 import org.opennms.core.rpc.api.RequestTimedOutException;
@@ -109,7 +110,7 @@ public class CamelRpcClientFactory implements RpcClientFactory {
 
     @Override
     public <S extends RpcRequest, T extends RpcResponse> RpcClient<S,T> getClient(RpcModule<S,T> module) {
-        return new RpcClient<S,T>() {
+        final RpcClient<S,T> client = new RpcClient<S,T>() {
             @Override
             public CompletableFuture<T> execute(S request) {
 
@@ -237,6 +238,7 @@ public class CamelRpcClientFactory implements RpcClientFactory {
                 return tracingInfoCarrier;
             }
         };
+        return CoalescingRpcClient.wrap(module, client, getMetrics());
     }
 
     public TracerRegistry getTracerRegistry() {
@@ -71,6 +71,7 @@ import org.opennms.core.ipc.common.kafka.OnmsKafkaConfigProvider;
 import org.opennms.core.ipc.rpc.kafka.model.RpcMessageProto;
 import org.opennms.core.logging.Logging;
 import org.opennms.core.logging.Logging.MDCCloseable;
+import org.opennms.core.rpc.api.CoalescingRpcClient;
 import org.opennms.core.rpc.api.RemoteExecutionException;
 import org.opennms.core.rpc.api.RequestTimedOutException;
 import org.opennms.core.rpc.api.RpcClient;
@@ -156,7 +157,7 @@ public class KafkaRpcClientFactory implements RpcClientFactory {
 
     @Override
     public <S extends RpcRequest, T extends RpcResponse> RpcClient<S, T> getClient(RpcModule<S, T> module) {
-        return new RpcClient<S, T>() {
+        final RpcClient<S, T> client = new RpcClient<S, T>() {
 
             @Override
             public CompletableFuture<T> execute(S request) {
@@ -280,6 +281,7 @@ public class KafkaRpcClientFactory implements RpcClientFactory {
             }
 
         };
+        return CoalescingRpcClient.wrap(module, client, getMetrics());
 
     }
 
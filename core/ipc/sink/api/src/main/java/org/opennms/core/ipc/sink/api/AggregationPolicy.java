@@ -31,8 +31,8 @@ package org.opennms.core.ipc.sink.api;
  * The aggregation function {@link #aggregate(Object, Object)} is called to
  * create accumulators and add messages to existing accumulators.
  *
- * The completion size and completion interval options determine the conditions
- * under which the buckets will be dispatched.
+ * The completion size, completion bytes and completion interval options determine
+ * the conditions under which the buckets will be dispatched.
  *
  * @author jwhite
  *
@@ -66,6 +66,48 @@ public interface AggregationPolicy<S, T, U> {
      */
     int getCompletionIntervalMs();
 
+    /**
+     * Maximum number of bytes to be added to a bucket before dispatching,
+     * as estimated by {@link #getSizeInBytes(Object)}.
+     *
+     * This is used to keep the aggregated messages below the message size
+     * limits of the brokers. The bucket is dispatched once the budget is reached,
+     * so it may exceed the budget by the size of one message.
+     *
+     * Values <= 0 disable the byte budget.
+     *
+     * @return maximum number of bytes per bucket
+     */
+    default int getCompletionBytes() {
+        return 0;
+    }
+
+    /**
+     * Estimate the number of bytes the given message adds to the aggregated message.
+     *
+     * Only used when {@link #getCompletionBytes()} is > 0.
+     *
+     * @param message the message
+     * @return the estimated size of the message in bytes
+     */
+    default int getSizeInBytes(S message) {
+        return 0;
+    }
+
+    /**
+     * Whether the completion size should be adapted to the observed message rate.
+     *
+     * When enabled, the {@link #getCompletionSize()} is used as an upper bound and
+     * buckets are dispatched as soon as they hold the number of messages that are
+     * expected to arrive within a short linger time. Messages are then dispatched
+     * with little delay when the rate is low, and in large batches when it is high.
+     *
+     * @return <code>true</code> if the completion size should be adapted
+     */
+    default boolean isAdaptive() {
+        return false;
+    }
+
     /**
      * Calculate a key for the given message.
      *
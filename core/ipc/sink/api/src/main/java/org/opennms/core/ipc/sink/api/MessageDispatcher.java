@@ -21,6 +21,8 @@
  */
 package org.opennms.core.ipc.sink.api;
 
+import java.util.Collection;
+
 /**
  * Used to synchronously dispatch messages.
  *
@@ -32,4 +34,18 @@ public interface MessageDispatcher<S> extends AutoCloseable {
 
     void send(S message);
 
+    /**
+     * Sends all of the given messages.
+     *
+     * Implementations can override this to amortize their per-message
+     * overhead over the whole batch.
+     *
+     * @param messages the messages to send
+     */
+    default void sendAll(Collection<S> messages) {
+        for (S message : messages) {
+            send(message);
+        }
+    }
+
 }
@@ -84,7 +84,7 @@ public class CamelRemoteMessageDispatcherFactory extends AbstractMessageDispatch
         final Map<String, Object> messageHeaders = new HashMap<>(headers);
         module.getRoutingKey(message).ifPresent(id -> messageHeaders.put(CamelSinkConstants.JMS_XGROUP_ID, id));
 
-        byte[] sinkMessageBytes = module.marshal(message);
+        byte[] sinkMessageBytes = marshal(module, message);
         // Add tracing info to jms headers
         final Tracer tracer = tracerRegistry.getTracer();
         if (tracer.activeSpan() != null) {
@@ -34,6 +34,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 import org.opennms.core.ipc.sink.api.Message;
 import org.opennms.core.ipc.sink.api.SinkModule;
+import org.opennms.core.ipc.sink.common.SinkMessageCompression;
 import org.opennms.core.tracing.api.TracerConstants;
 import org.opennms.core.tracing.api.TracerRegistry;
 import org.opennms.core.tracing.util.TracingInfoCarrier;
@@ -84,7 +85,7 @@ public class CamelSinkServerProcessor implements Processor {
                 String topic = exchange.getIn().getHeader(JMS_QUEUE_NAME_HEADER, String.class);
                 scope.span().setTag(TracerConstants.TAG_TOPIC, topic);
             }
-            final Message message = module.unmarshal(messageBytes);
+            final Message message = module.unmarshal(SinkMessageCompression.decompress(messageBytes));
             consumerManager.dispatch(module, message);
         }
     }
@@ -21,10 +21,14 @@
  */
 package org.opennms.core.ipc.sink.aggregation;
 
+import java.util.Collection;
+
 import org.opennms.core.ipc.sink.api.AggregationPolicy;
 import org.opennms.core.ipc.sink.api.MessageDispatcher;
 import org.opennms.core.ipc.sink.api.SinkModule;
 
+import com.codahale.metrics.MetricRegistry;
+
 /**
  * A {@link MessageDispatcher} that applies the {@link SinkModule}'s {@link AggregationPolicy}
  * using the {@link Aggregator}.
@@ -36,7 +40,11 @@ public abstract class AggregatingMessageProducer<S, T> implements MessageDispatc
     private final Aggregator<S,T> aggregator;
 
     public AggregatingMessageProducer(String id, AggregationPolicy<S,T,?> policy) {
-        aggregator = new Aggregator<S,T>(id, policy, this);
+        this(id, policy, null);
+    }
+
+    public AggregatingMessageProducer(String id, AggregationPolicy<S,T,?> policy, MetricRegistry metrics) {
+        aggregator = new Aggregator<S,T>(id, policy, this, metrics);
     }
 
     @Override
@@ -48,6 +56,13 @@ public abstract class AggregatingMessageProducer<S, T> implements MessageDispatc
         }
     }
 
+    @Override
+    public void sendAll(Collection<S> messages) {
+        for (final T log : aggregator.aggregateAll(messages)) {
+            dispatch(log);
+        }
+    }
+
     public abstract void dispatch(T message);
 
     @Override
@@ -21,14 +21,21 @@
  */
 package org.opennms.core.ipc.sink.aggregation;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Locale;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 
 import org.opennms.core.ipc.sink.api.AggregationPolicy;
@@ -36,6 +43,8 @@ import org.opennms.core.sysprops.SystemProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.util.concurrent.Striped;
 
 /**
@@ -44,6 +53,11 @@ import com.google.common.util.concurrent.Striped;
  * This class is designed to delegate dispatching to the calling threads as much
  * as possible (those which make calls to {@link #aggregate(Message).}
  *
+ * Buckets are dispatched once they reach the completion size, the byte budget, or
+ * the completion interval. When a {@link MetricRegistry} is given, the number of
+ * dispatched buckets is recorded for each of these reasons in the
+ * {@code <id>.flush.size}, {@code <id>.flush.bytes} and {@code <id>.flush.interval} meters.
+ *
  * @author jwhite
  *
  * @param <S> individual message
@@ -68,6 +82,43 @@ public class Aggregator<S, T> implements AutoCloseable, Runnable {
      */
     private static final int NUM_STRIPE_LOCKS = SystemProperties.getInteger(NUM_STRIPE_LOCKS_SYS_PROP, DEFAULT_NUM_STRIPE_LOCKS);
 
+    /**
+     * System property used to override the byte budget of the buckets, see {@link AggregationPolicy#getCompletionBytes()}.
+     *
+     * The value can be set for a specific module by suffixing the property name with the module id.
+     */
+    public static final String COMPLETION_BYTES_SYS_PROP = "org.opennms.ipc.sink.aggregation.completionBytes";
+
+    /**
+     * System property used to enable the adaptive completion size, see {@link AggregationPolicy#isAdaptive()}.
+     *
+     * The value can be set for a specific module by suffixing the property name with the module id.
+     */
+    public static final String ADAPTIVE_SYS_PROP = "org.opennms.ipc.sink.aggregation.adaptive";
+
+    /**
+     * System property used to override the time within which the adaptive buckets are expected to fill up.
+     */
+    public static final String ADAPTIVE_LINGER_MS_SYS_PROP = "org.opennms.ipc.sink.aggregation.adaptive.lingerMs";
+
+    public static final int DEFAULT_ADAPTIVE_LINGER_MS = 100;
+
+    /**
+     * Length of the window over which the message rate is measured.
+     */
+    private static final long RATE_WINDOW_MS = 1000;
+
+    /**
+     * Weight given to the latest window when smoothing the message rate.
+     */
+    private static final double RATE_SMOOTHING = 0.5;
+
+    public enum FlushReason {
+        SIZE,
+        BYTES,
+        INTERVAL
+    }
+
     private final AggregationPolicy<S,T,Object> aggregationPolicy;
 
     private final AggregatingMessageProducer<S,T> messageProducer;
@@ -76,6 +127,22 @@ public class Aggregator<S, T> implements AutoCloseable, Runnable {
 
     private final long completionIntervalMs;
 
+    private final int completionBytes;
+
+    private final boolean adaptive;
+
+    private final long adaptiveLingerMs;
+
+    private final LongAdder messagesInWindow = new LongAdder();
+
+    private final AtomicLong rateWindowStartMillis = new AtomicLong(System.currentTimeMillis());
+
+    private volatile double messagesPerMs = Double.NaN;
+
+    private volatile int adaptiveCompletionSize;
+
+    private final Meter[] flushMeters;
+
     private final Timer flushTimer;
 
     private final ConcurrentHashMap<Object, Bucket> buckets = new ConcurrentHashMap<>();
@@ -83,10 +150,30 @@ public class Aggregator<S, T> implements AutoCloseable, Runnable {
     private final Striped<Lock> lockStripes = Striped.lock(NUM_STRIPE_LOCKS);
 
     public Aggregator(String id, AggregationPolicy<S,T,?> policy, AggregatingMessageProducer<S,T> messageProducer) {
+        this(id, policy, messageProducer, null);
+    }
+
+    public Aggregator(String id, AggregationPolicy<S,T,?> policy, AggregatingMessageProducer<S,T> messageProducer, MetricRegistry metrics) {
         aggregationPolicy = (AggregationPolicy<S,T,Object>)Objects.requireNonNull(policy);
         this.messageProducer = Objects.requireNonNull(messageProducer);
         completionSize = aggregationPolicy.getCompletionSize();
         completionIntervalMs = aggregationPolicy.getCompletionIntervalMs();
+        completionBytes = SystemProperties.getInteger(COMPLETION_BYTES_SYS_PROP + "." + id,
+                SystemProperties.getInteger(COMPLETION_BYTES_SYS_PROP, aggregationPolicy.getCompletionBytes()));
+        adaptive = Boolean.parseBoolean(System.getProperty(ADAPTIVE_SYS_PROP + "." + id,
+                System.getProperty(ADAPTIVE_SYS_PROP, Boolean.toString(aggregationPolicy.isAdaptive()))));
+        final long lingerMs = SystemProperties.getInteger(ADAPTIVE_LINGER_MS_SYS_PROP, DEFAULT_ADAPTIVE_LINGER_MS);
+        adaptiveLingerMs = completionIntervalMs > 0 ? Math.min(lingerMs, completionIntervalMs) : lingerMs;
+        adaptiveCompletionSize = completionSize;
+
+        if (metrics != null) {
+            flushMeters = new Meter[FlushReason.values().length];
+            for (FlushReason reason : FlushReason.values()) {
+                flushMeters[reason.ordinal()] = metrics.meter(MetricRegistry.name(id, "flush", reason.name().toLowerCase(Locale.ROOT)));
+            }
+        } else {
+            flushMeters = null;
+        }
 
         if (completionIntervalMs > 0) {
             // Periodically verify the buckets, and flush those that are older than completionIntervalMs
@@ -117,6 +204,9 @@ public class Aggregator<S, T> implements AutoCloseable, Runnable {
      * if nothing is ready to be dispatched
      */
     public T aggregate(S message) {
+        if (adaptive) {
+            updateRate(1);
+        }
         // Compute the key
         final Object key = aggregationPolicy.key(message);
         // Lock the bucket
@@ -145,8 +235,90 @@ public class Aggregator<S, T> implements AutoCloseable, Runnable {
         }
     }
 
+    /**
+     * Aggregates all of the given messages and returns the buckets
+     * which are ready to be dispatched.
+     *
+     * Messages are grouped by their key first, so that every bucket
+     * is only locked once per batch.
+     *
+     * @param messages the messages to aggregate
+     * @return the buckets that are ready to be dispatched, possibly empty
+     */
+    public List<T> aggregateAll(Collection<S> messages) {
+        if (adaptive) {
+            updateRate(messages.size());
+        }
+        final Map<Object, List<S>> messagesByKey = new LinkedHashMap<>();
+        for (S message : messages) {
+            messagesByKey.computeIfAbsent(aggregationPolicy.key(message), k -> new ArrayList<>()).add(message);
+        }
+
+        final List<T> messagesReadyForDispatch = new ArrayList<>();
+        for (Map.Entry<Object, List<S>> entry : messagesByKey.entrySet()) {
+            final Object key = entry.getKey();
+            final Lock lock = lockStripes.get(key);
+            try {
+                lock.lock();
+                for (S message : entry.getValue()) {
+                    final Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+                    final T accumulator = bucket.accumulate(message);
+                    if (accumulator != null) {
+                        // The bucket is ready to be dispatched, following messages start a new one
+                        buckets.remove(key);
+                        messagesReadyForDispatch.add(accumulator);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return messagesReadyForDispatch;
+    }
+
+    /**
+     * Returns the completion size currently used for new buckets.
+     */
+    public int getCompletionSize() {
+        return adaptive ? adaptiveCompletionSize : completionSize;
+    }
+
+    /**
+     * Counts the given number of messages towards the observed rate and, once
+     * per window, derives the adaptive completion size from the smoothed rate.
+     */
+    private void updateRate(int numMessages) {
+        messagesInWindow.add(numMessages);
+        final long now = System.currentTimeMillis();
+        final long windowStart = rateWindowStartMillis.get();
+        final long elapsed = now - windowStart;
+        if (elapsed < RATE_WINDOW_MS || !rateWindowStartMillis.compareAndSet(windowStart, now)) {
+            return;
+        }
+
+        // Only the thread that closed the window gets here
+        final double rate = (double)messagesInWindow.sumThenReset() / elapsed;
+        final double smoothedRate = Double.isNaN(messagesPerMs) ? rate : RATE_SMOOTHING * rate + (1 - RATE_SMOOTHING) * messagesPerMs;
+        messagesPerMs = smoothedRate;
+
+        // The messages are spread over the active buckets
+        final double ratePerBucket = smoothedRate / Math.max(1, buckets.size());
+        final long expectedMessages = (long)Math.ceil(ratePerBucket * adaptiveLingerMs);
+        adaptiveCompletionSize = (int)Math.max(1, Math.min(completionSize, expectedMessages));
+    }
+
+    private void markFlush(FlushReason reason) {
+        if (flushMeters != null) {
+            flushMeters[reason.ordinal()].mark();
+        }
+    }
+
     @Override
     public void run() {
+        if (adaptive) {
+            // Keep the rate up-to-date when no messages are received
+            updateRate(0);
+        }
         final List<T> messagesReadyForDispatch = new LinkedList<>();
         // Grab a copy of all the current bucket keys
         final Set<Object> keys = new HashSet<>(buckets.keySet());
@@ -172,6 +344,7 @@ public class Aggregator<S, T> implements AutoCloseable, Runnable {
                 if (bucket != null && bucket.getFirstTimeMillis() != null && bucket.getFirstTimeMillis() <= cutOff) {
                     messagesReadyForDispatch.add(bucket.getValue());
                     buckets.remove(key);
+                    markFlush(FlushReason.INTERVAL);
                 }
             }
         } finally {
@@ -194,20 +367,32 @@ public class Aggregator<S, T> implements AutoCloseable, Runnable {
     protected class Bucket {
         private Object accumulator;
         private int count = 0;
+        private long bytes = 0;
         private Long firstTimeMillis;
 
         public T accumulate(S message) {
             accumulator = aggregationPolicy.aggregate(accumulator, message);
             count++;
-            if (count >= completionSize) {
+            if (count >= getCompletionSize()) {
                 // We're ready!
+                markFlush(FlushReason.SIZE);
                 return aggregationPolicy.build(accumulator);
-            } else if (completionIntervalMs > 0) {
+            }
+            if (completionBytes > 0) {
+                bytes += aggregationPolicy.getSizeInBytes(message);
+                if (bytes >= completionBytes) {
+                    // We're ready!
+                    markFlush(FlushReason.BYTES);
+                    return aggregationPolicy.build(accumulator);
+                }
+            }
+            if (completionIntervalMs > 0) {
                 final long now = System.currentTimeMillis();
                 if (firstTimeMillis == null) {
                     firstTimeMillis = now;
                 } else if (now - firstTimeMillis >= completionIntervalMs) {
                     // We're ready!
+                    markFlush(FlushReason.INTERVAL);
                     return aggregationPolicy.build(accumulator);
                 }
             }
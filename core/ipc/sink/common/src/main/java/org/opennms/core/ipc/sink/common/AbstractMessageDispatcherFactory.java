@@ -23,7 +23,9 @@ package org.opennms.core.ipc.sink.common;
 
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.opennms.core.ipc.sink.aggregation.AggregatingSinkMessageProducer;
 import org.opennms.core.ipc.sink.api.AsyncDispatcher;
@@ -49,6 +51,11 @@ import io.opentracing.Tracer;
  * Different types of dispatchers are created based on whether or not the module is using aggregation.
  *
  * Asynchronous dispatchers use a queue and a thread pool to delegate to a suitable synchronous dispatcher.
+ * When the {@link RingBufferAsyncDispatcherImpl#ENABLED_SYS_PROP} system property is set, lock-free ring buffers
+ * drained in batches are used instead of the queue.
+ *
+ * Implementations should use {@link #marshal(SinkModule, Message)} to marshal the messages, so that
+ * the content is compressed as configured by {@link SinkMessageCompression}.
  *
  * @author jwhite
  *
@@ -60,6 +67,8 @@ public abstract class AbstractMessageDispatcherFactory<W> implements MessageDisp
 
     private ServiceRegistration<MetricSet> metricsServiceRegistration = null;
 
+    private final Map<String, SinkMessageCompression.Codec> compressionCodecs = new ConcurrentHashMap<>();
+
     public abstract <S extends Message, T extends Message> void dispatch(SinkModule<S, T> module, W metadata, T message);
 
     public abstract String getMetricDomain();
@@ -80,6 +89,24 @@ public abstract class AbstractMessageDispatcherFactory<W> implements MessageDisp
         }
     }
 
+    /**
+     * Marshals the given message and compresses the content using the codec configured
+     * for the module.
+     *
+     * The compression ratio, in percent, is recorded in the module's
+     * {@code compression-ratio} histogram.
+     */
+    protected <S extends Message, T extends Message> byte[] marshal(SinkModule<S, T> module, T message) {
+        final byte[] content = module.marshal(message);
+        final SinkMessageCompression.Codec codec = compressionCodecs.computeIfAbsent(module.getId(), SinkMessageCompression::getCodec);
+        if (codec == SinkMessageCompression.Codec.NONE) {
+            return content;
+        }
+        final byte[] compressed = SinkMessageCompression.compress(codec, content);
+        getMetrics().histogram(MetricRegistry.name(module.getId(), "compression-ratio")).update(compressed.length > 0 ? content.length * 100L / compressed.length : 100L);
+        return compressed;
+    }
+
     /**
      * Optionally build meta-data or state information for the module which will
      * be passed on all the calls to {@link #dispatch}.
@@ -107,6 +134,9 @@ public abstract class AbstractMessageDispatcherFactory<W> implements MessageDisp
         Objects.requireNonNull(module.getAsyncPolicy(), "module must have an AsyncPolicy");
         final DispatcherState<W,S,T> state = new DispatcherState<>(this, module);
         final SyncDispatcher<S> syncDispatcher = createSyncDispatcher(state);
+        if (RingBufferAsyncDispatcherImpl.isEnabled()) {
+            return new RingBufferAsyncDispatcherImpl<>(state, module.getAsyncPolicy(), syncDispatcher);
+        }
         return new AsyncDispatcherImpl<>(state, module.getAsyncPolicy(), syncDispatcher);
     }
 
@@ -114,7 +144,7 @@ public abstract class AbstractMessageDispatcherFactory<W> implements MessageDisp
         final SinkModule<S,T> module = state.getModule();
         if (module.getAggregationPolicy() != null) {
             // Aggregate the message before dispatching them
-            return new AggregatingSinkMessageProducer<S,T>(module) {
+            return new AggregatingSinkMessageProducer<S,T>(module, state.getMetrics()) {
                 @Override
                 public void dispatch(T message) {
                     AbstractMessageDispatcherFactory.this.timedDispatch(state, message);
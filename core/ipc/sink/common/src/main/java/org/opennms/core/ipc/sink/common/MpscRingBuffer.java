@@ -0,0 +1,144 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.sink.common;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded, lock-free queue for many producers and a single consumer backed by a preallocated array.
+ *
+ * Producers claim a slot by advancing the producer index and publish their element into it afterwards. The
+ * consumer takes elements in batches and only advances its index once per batch. No nodes are allocated on
+ * either side.
+ *
+ * The consumer parks while the buffer is empty and is woken up by the next producer.
+ *
+ * @param <E> type of elements
+ */
+public class MpscRingBuffer<E> {
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final AtomicLong producerIndex = new AtomicLong(0);
+
+    // Only written by the consumer thread
+    private final AtomicLong consumerIndex = new AtomicLong(0);
+
+    private volatile Thread parkedConsumer = null;
+
+    public MpscRingBuffer(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Appends the element to the buffer.
+     *
+     * @return <code>false</code> if the buffer is full
+     */
+    public boolean offer(final E element) {
+        final long capacity = this.mask + 1;
+
+        long index;
+        do {
+            index = this.producerIndex.get();
+            if (index - this.consumerIndex.get() >= capacity) {
+                return false;
+            }
+        } while (!this.producerIndex.compareAndSet(index, index + 1));
+
+        this.buffer.lazySet((int) index & this.mask, element);
+
+        final Thread consumer = this.parkedConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+
+        return true;
+    }
+
+    /**
+     * Moves up to <code>limit</code> elements into the given list, waiting up to the given timeout for the first
+     * one to become available. Must only be called from the single consumer thread.
+     *
+     * @return the number of elements drained
+     */
+    public int drain(final List<E> batch, final int limit, final long timeout, final TimeUnit unit) {
+        long index = this.consumerIndex.get();
+
+        if (index == this.producerIndex.get()) {
+            this.parkedConsumer = Thread.currentThread();
+            try {
+                // Re-check after announcing ourselves, as a producer may have missed the announcement
+                if (index == this.producerIndex.get()) {
+                    LockSupport.parkNanos(this, unit.toNanos(timeout));
+                }
+            } finally {
+                this.parkedConsumer = null;
+            }
+        }
+
+        int count = 0;
+        while (count < limit) {
+            final int offset = (int) index & this.mask;
+            final E element = this.buffer.get(offset);
+            if (element == null) {
+                // Either empty, or the slot was claimed but is not yet published - pick it up next time
+                break;
+            }
+
+            this.buffer.lazySet(offset, null);
+            batch.add(element);
+            index++;
+            count++;
+        }
+
+        if (count > 0) {
+            this.consumerIndex.lazySet(index);
+        }
+
+        return count;
+    }
+
+    public int size() {
+        return (int) Math.max(0, this.producerIndex.get() - this.consumerIndex.get());
+    }
+
+    public boolean isFull() {
+        return this.size() > this.mask;
+    }
+
+    public int capacity() {
+        return this.mask + 1;
+    }
+}
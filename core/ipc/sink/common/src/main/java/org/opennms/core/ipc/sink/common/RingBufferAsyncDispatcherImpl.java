@@ -0,0 +1,244 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.sink.common;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.opennms.core.concurrent.LogPreservingThreadFactory;
+import org.opennms.core.ipc.sink.api.AsyncDispatcher;
+import org.opennms.core.ipc.sink.api.AsyncPolicy;
+import org.opennms.core.ipc.sink.api.Message;
+import org.opennms.core.ipc.sink.api.SyncDispatcher;
+import org.opennms.core.ipc.sink.api.WriteFailedException;
+import org.opennms.core.sysprops.SystemProperties;
+import org.opennms.core.utils.SystemInfoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.swrve.ratelimitedlogger.RateLimitedLog;
+
+/**
+ * An {@link AsyncDispatcher} backed by preallocated, lock-free ring buffers instead of a
+ * {@link org.opennms.core.ipc.sink.api.DispatchQueue}.
+ *
+ * Every dispatch thread owns a {@link MpscRingBuffer} which all sending threads can write to. The dispatch threads
+ * drain their buffers in batches and hand each batch to the synchronous dispatcher at once, allowing the
+ * aggregator to lock each of its buckets only once per batch.
+ *
+ * Messages are only ever queued on the heap, so the off-heap {@link org.opennms.core.ipc.sink.api.DispatchQueueFactory}
+ * is not used by this dispatcher.
+ */
+public class RingBufferAsyncDispatcherImpl<W, S extends Message, T extends Message> implements AsyncDispatcher<S> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RingBufferAsyncDispatcherImpl.class);
+
+    /**
+     * System property used to enable this dispatcher in place of the {@link AsyncDispatcherImpl}.
+     */
+    public static final String ENABLED_SYS_PROP = "org.opennms.core.ipc.sink.ringBuffer";
+
+    /**
+     * System property used to override the maximum number of messages drained from a buffer at once.
+     */
+    public static final String BATCH_SIZE_SYS_PROP = "org.opennms.core.ipc.sink.ringBuffer.batchSize";
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private static final int BATCH_SIZE = SystemProperties.getInteger(BATCH_SIZE_SYS_PROP, DEFAULT_BATCH_SIZE);
+
+    private static final long IDLE_PARK_MS = 100;
+
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final RateLimitedLog RATE_LIMITED_LOGGER = RateLimitedLog
+            .withRateLimit(LOG)
+            .maxRate(5).every(Duration.ofSeconds(30))
+            .build();
+
+    private final DispatcherState<W, S, T> state;
+    private final AsyncPolicy asyncPolicy;
+    private final SyncDispatcher<S> syncDispatcher;
+    private final Counter droppedCounter;
+    private final AtomicInteger activeDispatchers = new AtomicInteger(0);
+
+    private final List<MpscRingBuffer<Pending<S>>> buffers;
+
+    private final ExecutorService executor;
+
+    private volatile boolean closed = false;
+
+    public RingBufferAsyncDispatcherImpl(DispatcherState<W, S, T> state, AsyncPolicy asyncPolicy,
+                                         SyncDispatcher<S> syncDispatcher) {
+        this.state = Objects.requireNonNull(state);
+        this.asyncPolicy = Objects.requireNonNull(asyncPolicy);
+        this.syncDispatcher = Objects.requireNonNull(syncDispatcher);
+
+        final int numThreads = Math.max(1, asyncPolicy.getNumThreads());
+        final int capacity = Math.max(1, (asyncPolicy.getQueueSize() + numThreads - 1) / numThreads);
+        LOG.debug("Using {} ring buffers with a capacity of {} each", numThreads, capacity);
+
+        buffers = new ArrayList<>(numThreads);
+        for (int i = 0; i < numThreads; i++) {
+            buffers.add(new MpscRingBuffer<>(capacity));
+        }
+
+        state.getMetrics().register(queueSizeMetricName(), (Gauge<Integer>) activeDispatchers::get);
+
+        droppedCounter = state.getMetrics().counter(MetricRegistry.name(state.getModule().getId(), "dropped"));
+
+        executor = Executors.newFixedThreadPool(numThreads,
+                new LogPreservingThreadFactory(SystemInfoUtils.DEFAULT_INSTANCE_ID + ".Sink.AsyncDispatcher." +
+                        state.getModule().getId(), Integer.MAX_VALUE));
+        for (final MpscRingBuffer<Pending<S>> buffer : buffers) {
+            executor.execute(() -> dispatchFromBuffer(buffer));
+        }
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_SYS_PROP);
+    }
+
+    private String queueSizeMetricName() {
+        return MetricRegistry.name(state.getModule().getId(), "queue-size");
+    }
+
+    private void dispatchFromBuffer(MpscRingBuffer<Pending<S>> buffer) {
+        final List<Pending<S>> batch = new ArrayList<>(BATCH_SIZE);
+        final List<S> messages = new ArrayList<>(BATCH_SIZE);
+
+        // Keep going until closed and everything that was accepted has been dispatched
+        while (!closed || buffer.size() > 0) {
+            batch.clear();
+            messages.clear();
+
+            final int count = buffer.drain(batch, BATCH_SIZE, IDLE_PARK_MS, TimeUnit.MILLISECONDS);
+            if (count == 0) {
+                continue;
+            }
+
+            for (final Pending<S> pending : batch) {
+                messages.add(pending.message);
+            }
+
+            activeDispatchers.addAndGet(count);
+            try {
+                LOG.trace("Sending batch of {} messages via sync dispatcher", count);
+                syncDispatcher.sendAll(messages);
+                for (final Pending<S> pending : batch) {
+                    pending.future.complete(DispatchStatus.DISPATCHED);
+                }
+            } catch (Exception e) {
+                RATE_LIMITED_LOGGER.warn("Encountered exception while dispatching batch of {} messages", count, e);
+                for (final Pending<S> pending : batch) {
+                    pending.future.completeExceptionally(e);
+                }
+            } finally {
+                activeDispatchers.addAndGet(-count);
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<DispatchStatus> send(S message) {
+        final CompletableFuture<DispatchStatus> sendFuture = new CompletableFuture<>();
+        final Pending<S> pending = new Pending<>(message, sendFuture);
+
+        if (offer(pending)) {
+            return sendFuture;
+        }
+
+        if (!asyncPolicy.isBlockWhenFull()) {
+            droppedCounter.inc();
+            sendFuture.completeExceptionally(new RuntimeException("Dispatch queue full"));
+            return sendFuture;
+        }
+
+        // Wait for any of the buffers to free up a slot
+        do {
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                sendFuture.completeExceptionally(new WriteFailedException(new InterruptedException()));
+                return sendFuture;
+            }
+            LockSupport.parkNanos(this, FULL_PARK_NANOS);
+        } while (!offer(pending));
+
+        return sendFuture;
+    }
+
+    /**
+     * Offers the message to the buffer of the calling thread first, so that messages sent from the same thread are
+     * usually dispatched in order, and falls back to the other buffers if it is full.
+     */
+    private boolean offer(Pending<S> pending) {
+        final int n = buffers.size();
+        final int start = (int) (Thread.currentThread().getId() % n);
+        for (int i = 0; i < n; i++) {
+            if (buffers.get((start + i) % n).offer(pending)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getQueueSize() {
+        int size = 0;
+        for (final MpscRingBuffer<Pending<S>> buffer : buffers) {
+            size += buffer.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void close() throws Exception {
+        closed = true;
+        state.getMetrics().remove(queueSizeMetricName());
+        executor.shutdown();
+        if (!executor.awaitTermination(IDLE_PARK_MS * 10, TimeUnit.MILLISECONDS)) {
+            LOG.warn("Dispatch threads for module {} did not finish in time", state.getModule().getId());
+        }
+        syncDispatcher.close();
+    }
+
+    private static final class Pending<S> {
+        private final S message;
+        private final CompletableFuture<DispatchStatus> future;
+
+        private Pending(S message, CompletableFuture<DispatchStatus> future) {
+            this.message = message;
+            this.future = future;
+        }
+    }
+}
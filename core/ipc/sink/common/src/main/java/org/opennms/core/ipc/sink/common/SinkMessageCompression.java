@@ -0,0 +1,217 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.sink.common;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.opennms.core.sysprops.SystemProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.luben.zstd.Zstd;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+
+/**
+ * Optional compression of the marshaled content of the messages sent over the Sink.
+ *
+ * The codec used by the producers is selected per module with the
+ * {@code org.opennms.core.ipc.sink.compression.<module-id>} system property, or for all modules
+ * with {@code org.opennms.core.ipc.sink.compression}, and defaults to {@link Codec#NONE}.
+ *
+ * Compressed payloads start with a header byte that can neither start an XML document nor
+ * a protobuf message, followed by the codec and the uncompressed length, so the consumers detect
+ * compressed payloads on their own and accept both. Upgrade the consumers first and enable
+ * compression on the producers once all of them understand it.
+ */
+public class SinkMessageCompression {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SinkMessageCompression.class);
+
+    public static final String COMPRESSION_SYS_PROP = "org.opennms.core.ipc.sink.compression";
+
+    /**
+     * Payloads smaller than this number of bytes are sent uncompressed.
+     */
+    public static final String THRESHOLD_SYS_PROP = COMPRESSION_SYS_PROP + ".threshold";
+
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    public static final String ZSTD_LEVEL_SYS_PROP = COMPRESSION_SYS_PROP + ".zstd.level";
+
+    public static final int DEFAULT_ZSTD_LEVEL = 3;
+
+    /**
+     * Compressed payloads claiming to decompress to more than this number of bytes are rejected.
+     */
+    public static final String MAX_SIZE_SYS_PROP = COMPRESSION_SYS_PROP + ".maxSize";
+
+    public static final int DEFAULT_MAX_SIZE = 100 * 1024 * 1024;
+
+    // Wire type 7 is invalid in protobuf and the byte is not allowed at the start of an XML document
+    private static final byte MAGIC = 0x07;
+    private static final int HEADER_SIZE = 6;
+
+    private static final int THRESHOLD = SystemProperties.getInteger(THRESHOLD_SYS_PROP, DEFAULT_THRESHOLD);
+
+    private static final int ZSTD_LEVEL = SystemProperties.getInteger(ZSTD_LEVEL_SYS_PROP, DEFAULT_ZSTD_LEVEL);
+
+    private static final int MAX_SIZE = SystemProperties.getInteger(MAX_SIZE_SYS_PROP, DEFAULT_MAX_SIZE);
+
+    public enum Codec {
+        NONE((byte)0x00),
+        LZ4((byte)0x01),
+        ZSTD((byte)0x02);
+
+        private final byte id;
+
+        Codec(byte id) {
+            this.id = id;
+        }
+
+        public static Codec parse(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return NONE;
+            }
+            try {
+                return Codec.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Unknown sink compression codec '{}'. Using {}.", value, NONE);
+                return NONE;
+            }
+        }
+
+        private static Codec fromId(byte id) {
+            for (Codec codec : values()) {
+                if (codec.id == id) {
+                    return codec;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Determines the codec used to compress the messages of the given module.
+     */
+    public static Codec getCodec(String moduleId) {
+        return Codec.parse(System.getProperty(COMPRESSION_SYS_PROP + "." + moduleId, System.getProperty(COMPRESSION_SYS_PROP)));
+    }
+
+    /**
+     * Compresses the given content with the given codec.
+     *
+     * The content is returned as-is if the codec is {@link Codec#NONE}, if it is smaller
+     * than the threshold, or if compressing it would not make it any smaller.
+     */
+    public static byte[] compress(Codec codec, byte[] content) {
+        if (codec == Codec.NONE || content.length < THRESHOLD) {
+            return content;
+        }
+
+        final byte[] compressed;
+        final int compressedSize;
+        switch (codec) {
+        case LZ4: {
+            final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+            compressed = new byte[HEADER_SIZE + compressor.maxCompressedLength(content.length)];
+            compressedSize = compressor.compress(content, 0, content.length, compressed, HEADER_SIZE, compressed.length - HEADER_SIZE);
+            break;
+        }
+        case ZSTD: {
+            compressed = new byte[HEADER_SIZE + (int)Zstd.compressBound(content.length)];
+            final long result = Zstd.compressByteArray(compressed, HEADER_SIZE, compressed.length - HEADER_SIZE, content, 0, content.length, ZSTD_LEVEL);
+            if (Zstd.isError(result)) {
+                LOG.warn("Failed to compress sink message: {}. Sending it uncompressed.", Zstd.getErrorName(result));
+                return content;
+            }
+            compressedSize = (int)result;
+            break;
+        }
+        default:
+            return content;
+        }
+
+        if (HEADER_SIZE + compressedSize >= content.length) {
+            return content;
+        }
+        compressed[0] = MAGIC;
+        compressed[1] = codec.id;
+        ByteBuffer.wrap(compressed, 2, 4).putInt(content.length);
+        return Arrays.copyOf(compressed, HEADER_SIZE + compressedSize);
+    }
+
+    /**
+     * Whether the given payload was compressed by {@link #compress(Codec, byte[])}.
+     */
+    public static boolean isCompressed(byte[] bytes) {
+        return bytes.length >= HEADER_SIZE && bytes[0] == MAGIC;
+    }
+
+    /**
+     * Decompresses the given payload, or returns it as-is if it is not compressed.
+     *
+     * The uncompressed length is taken from the header and allocated up front, so payloads
+     * claiming to be larger than {@link #MAX_SIZE_SYS_PROP} bytes are rejected.
+     */
+    public static byte[] decompress(byte[] bytes) {
+        if (!isCompressed(bytes)) {
+            return bytes;
+        }
+        final Codec codec = Codec.fromId(bytes[1]);
+        final int length = ByteBuffer.wrap(bytes, 2, 4).getInt();
+        if (codec == null || codec == Codec.NONE || length < 0) {
+            throw new IllegalArgumentException("Unsupported compressed sink message with codec " + bytes[1]);
+        }
+        if (length > MAX_SIZE) {
+            throw new IllegalArgumentException("Compressed sink message of " + length + " bytes exceeds the maximum size of " + MAX_SIZE + " bytes");
+        }
+
+        final byte[] content = new byte[length];
+        switch (codec) {
+        case LZ4:
+            final int decompressed;
+            try {
+                decompressed = LZ4Factory.fastestInstance().safeDecompressor().decompress(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE, content, 0, length);
+            } catch (final LZ4Exception e) {
+                throw new IllegalArgumentException("Failed to decompress sink message: " + e.getMessage(), e);
+            }
+            if (decompressed != length) {
+                throw new IllegalArgumentException("Failed to decompress sink message: length mismatch");
+            }
+            break;
+        case ZSTD:
+            final long result = Zstd.decompressByteArray(content, 0, length, bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+            if (Zstd.isError(result) || result != length) {
+                throw new IllegalArgumentException("Failed to decompress sink message: " + (Zstd.isError(result) ? Zstd.getErrorName(result) : "length mismatch"));
+            }
+            break;
+        default:
+            break;
+        }
+        return content;
+    }
+}
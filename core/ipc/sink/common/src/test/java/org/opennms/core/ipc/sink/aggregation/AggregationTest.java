@@ -59,6 +59,7 @@ public class AggregationTest {
 
     private static final int COMPLETION_SIZE = 10;
     private static final int COMPLETION_INTERVAL_MS = 500;
+    private static final int BYTE_BUDGET = 8;
 
     private final InetAddress localhost = InetAddress.getLoopbackAddress();
 
@@ -144,6 +145,20 @@ public class AggregationTest {
         }
     }
 
+    @Test
+    public void aggregateBatchWithoutInterval() throws Exception {
+        SinkModuleWithAggregateNoInterval aggregatingSinkModule = new SinkModuleWithAggregateNoInterval();
+        try(SyncDispatcher<UDPPacket> dispatcher = capturingMessageDispatcherFactory.createSyncDispatcher(aggregatingSinkModule)) {
+            final List<UDPPacket> batch = new ArrayList<>();
+            for (byte i = 0; i < 10 * COMPLETION_SIZE + 1; i++) {
+                batch.add(new UDPPacket(localhost, ByteBuffer.wrap(new byte[]{(byte)i})));
+            }
+            dispatcher.sendAll(batch);
+            // A single batch can complete multiple aggregates, the remaining packet stays in the bucket
+            assertEquals(10, dispatchedMessages.size());
+        }
+    }
+
     @Test
     public void aggregateWithInterval() throws Exception {
         SinkModuleWithAggregateAndInterval aggregatingSinkModule = new SinkModuleWithAggregateAndInterval();
@@ -201,6 +216,79 @@ public class AggregationTest {
         }
     }
 
+    @Test
+    public void aggregateWithByteBudget() throws Exception {
+        SinkModuleWithAggregateAndByteBudget aggregatingSinkModule = new SinkModuleWithAggregateAndByteBudget();
+        try(SyncDispatcher<UDPPacket> dispatcher = capturingMessageDispatcherFactory.createSyncDispatcher(aggregatingSinkModule)) {
+            for (byte i = 0; i < 10; i++) {
+                // 4 bytes per packet, the budget is reached after every 2 packets
+                UDPPacket packet = new UDPPacket(localhost, ByteBuffer.wrap(new byte[]{i, i, i, i}));
+                dispatcher.send(packet);
+            }
+            assertEquals(5, dispatchedMessages.size());
+            for (Object message : dispatchedMessages) {
+                assertThat(((UDPPacketLog)message).getPackets(), hasSize(2));
+            }
+        }
+    }
+
+    @Test
+    public void recordsFlushReasons() throws Exception {
+        final MetricRegistry metrics = new MetricRegistry();
+        final AggregatingMessageProducer<UDPPacket, UDPPacketLog> producer = new AggregatingMessageProducer<UDPPacket, UDPPacketLog>("test",
+                new SinkModuleWithAggregateAndByteBudget().getAggregationPolicy(), metrics) {
+            @Override
+            public void dispatch(UDPPacketLog message) {
+                dispatchedMessages.add(message);
+            }
+        };
+        try {
+            // Flushed by the byte budget
+            producer.send(new UDPPacket(localhost, ByteBuffer.wrap(new byte[BYTE_BUDGET])));
+            // Flushed by the completion size
+            for (byte i = 0; i < COMPLETION_SIZE; i++) {
+                producer.send(new UDPPacket(localhost, ByteBuffer.wrap(new byte[0])));
+            }
+            // Flushed by the completion interval
+            producer.send(new UDPPacket(localhost, ByteBuffer.wrap(new byte[1])));
+            await().atMost(4 * COMPLETION_INTERVAL_MS, MILLISECONDS)
+                .pollDelay(50, MILLISECONDS)
+                .until(() -> dispatchedMessages, hasSize(3));
+        } finally {
+            producer.close();
+        }
+        assertEquals(1, metrics.meter("test.flush.bytes").getCount());
+        assertEquals(1, metrics.meter("test.flush.size").getCount());
+        assertEquals(1, metrics.meter("test.flush.interval").getCount());
+    }
+
+    @Test
+    public void adaptCompletionSizeToRate() throws Exception {
+        final AggregatingMessageProducer<UDPPacket, UDPPacketLog> producer = new AggregatingMessageProducer<UDPPacket, UDPPacketLog>("test",
+                new SinkModuleWithAggregateNoInterval().getAggregationPolicy()) {
+            @Override
+            public void dispatch(UDPPacketLog message) {
+                dispatchedMessages.add(message);
+            }
+        };
+        System.setProperty(Aggregator.ADAPTIVE_SYS_PROP + ".adaptive", "true");
+        try (Aggregator<UDPPacket, UDPPacketLog> aggregator = new Aggregator<>("adaptive",
+                new SinkModuleWithAggregateNoInterval().getAggregationPolicy(), producer)) {
+            // Start with the configured completion size until the rate is known
+            assertEquals(COMPLETION_SIZE, aggregator.getCompletionSize());
+
+            // A couple of messages per second are dispatched without waiting for a full bucket
+            aggregator.aggregate(new UDPPacket(localhost, ByteBuffer.wrap(new byte[]{1})));
+            Thread.sleep(1100);
+            assertThat(aggregator.aggregate(new UDPPacket(localhost, ByteBuffer.wrap(new byte[]{2}))).getPackets(), hasSize(2));
+            assertEquals(1, aggregator.getCompletionSize());
+            assertThat(aggregator.aggregate(new UDPPacket(localhost, ByteBuffer.wrap(new byte[]{3}))).getPackets(), hasSize(1));
+        } finally {
+            System.clearProperty(Aggregator.ADAPTIVE_SYS_PROP + ".adaptive");
+            producer.close();
+        }
+    }
+
     public static class UDPPacket implements Message {
         private final InetAddress source;
         private final ByteBuffer bytes;
@@ -402,6 +490,54 @@ public class AggregationTest {
         }
     }
 
+    private static class SinkModuleWithAggregateAndByteBudget extends AbstractSinkModule<UDPPacket, UDPPacketLog> {
+        @Override
+        public AggregationPolicy<UDPPacket, UDPPacketLog, UDPPacketLog> getAggregationPolicy() {
+            return new AggregationPolicy<UDPPacket, UDPPacketLog, UDPPacketLog>() {
+                @Override
+                public int getCompletionSize() {
+                    return COMPLETION_SIZE;
+                }
+
+                @Override
+                public int getCompletionIntervalMs() {
+                    return COMPLETION_INTERVAL_MS;
+                }
+
+                @Override
+                public int getCompletionBytes() {
+                    return BYTE_BUDGET;
+                }
+
+                @Override
+                public int getSizeInBytes(UDPPacket message) {
+                    return message.getBytes().remaining();
+                }
+
+                @Override
+                public Object key(UDPPacket message) {
+                    // Key by the source address
+                    return message.getSource();
+                }
+
+                @Override
+                public UDPPacketLog aggregate(UDPPacketLog oldPacketLog, UDPPacket newPacket) {
+                    if (oldPacketLog == null) {
+                        return new UDPPacketLog(newPacket);
+                    } else {
+                        oldPacketLog.getPackets().add(newPacket);
+                        return oldPacketLog;
+                    }
+                }
+
+                @Override
+                public UDPPacketLog build(UDPPacketLog accumulator) {
+                    return accumulator;
+                }
+            };
+        }
+    }
+
     private static abstract class AbstractSinkModule<S extends Message, T extends Message> implements SinkModule<S, T> {
 
         @Override
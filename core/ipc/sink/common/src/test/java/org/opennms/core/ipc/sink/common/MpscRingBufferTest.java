@@ -0,0 +1,63 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.sink.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class MpscRingBufferTest {
+
+    @Test
+    public void canDrainRingBufferInBatches() {
+        final MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(5);
+        assertEquals(8, buffer.capacity());
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertTrue(buffer.isFull());
+        assertFalse(buffer.offer(8));
+
+        final List<Integer> batch = new ArrayList<>();
+        assertEquals(3, buffer.drain(batch, 3, 0, TimeUnit.MILLISECONDS));
+        assertThat(batch, equalTo(IntStream.range(0, 3).boxed().collect(Collectors.toList())));
+        assertEquals(5, buffer.size());
+
+        // The freed slots can be reused
+        assertTrue(buffer.offer(8));
+        batch.clear();
+        assertEquals(6, buffer.drain(batch, 100, 0, TimeUnit.MILLISECONDS));
+        assertThat(batch, equalTo(IntStream.range(3, 9).boxed().collect(Collectors.toList())));
+        assertEquals(0, buffer.size());
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.sink.common;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.opennms.core.ipc.sink.api.AsyncDispatcher;
+import org.opennms.core.ipc.sink.api.AsyncPolicy;
+import org.opennms.core.ipc.sink.api.Message;
+import org.opennms.core.ipc.sink.api.SinkModule;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RingBufferAsyncDispatcherTest {
+
+    private static final class MyMessage implements Message {
+        private final int value;
+
+        private MyMessage(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MyMessage && ((MyMessage) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+    }
+
+    @Mock
+    private SinkModule<MyMessage, MyMessage> module;
+
+    private final BlockableDispatcherFactory<MyMessage> blockableDispatcherFactory = new BlockableDispatcherFactory<>();
+
+    @Before
+    public void setUp() {
+        System.setProperty(RingBufferAsyncDispatcherImpl.ENABLED_SYS_PROP, "true");
+        when(module.getId()).thenReturn("myModule");
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(RingBufferAsyncDispatcherImpl.ENABLED_SYS_PROP);
+    }
+
+    @Test(timeout=3*60*1000)
+    public void canDispatchFromManyThreads() throws Exception {
+        when(module.getAsyncPolicy()).thenReturn(policy(1024, 4, true));
+
+        final AsyncDispatcher<MyMessage> asyncDispatcher = blockableDispatcherFactory.createAsyncDispatcher(module);
+        assertTrue(asyncDispatcher instanceof RingBufferAsyncDispatcherImpl);
+        final BlockableSyncDispatcher<MyMessage> syncDispatcher = blockableDispatcherFactory.getBlockableSyncDispatcher();
+
+        final int count = 10_000;
+        final List<CompletableFuture<AsyncDispatcher.DispatchStatus>> futures = IntStream.range(0, count).parallel()
+                .mapToObj(i -> asyncDispatcher.send(new MyMessage(i)))
+                .collect(Collectors.toList());
+
+        for (final CompletableFuture<AsyncDispatcher.DispatchStatus> future : futures) {
+            assertEquals(AsyncDispatcher.DispatchStatus.DISPATCHED, future.get(1, TimeUnit.MINUTES));
+        }
+
+        assertThat(syncDispatcher.getDispatchedMessages(), hasSize(count));
+        assertEquals(0, asyncDispatcher.getQueueSize());
+
+        asyncDispatcher.close();
+    }
+
+    @Test(timeout=3*60*1000)
+    public void testRejectedWhenFull() throws Exception {
+        when(module.getAsyncPolicy()).thenReturn(policy(4, 1, false));
+
+        final AsyncDispatcher<MyMessage> asyncDispatcher = blockableDispatcherFactory.createAsyncDispatcher(module);
+        final BlockableSyncDispatcher<MyMessage> syncDispatcher = blockableDispatcherFactory.getBlockableSyncDispatcher();
+        final List<CompletableFuture<AsyncDispatcher.DispatchStatus>> futures = new ArrayList<>();
+
+        // Park the dispatch thread on the first message
+        syncDispatcher.block();
+        futures.add(asyncDispatcher.send(new MyMessage(0)));
+        await().atMost(1, MINUTES).until(syncDispatcher::getBlockedThreadCount, equalTo(1));
+
+        // Fill up the buffer
+        for (int i = 1; i <= 4; i++) {
+            futures.add(asyncDispatcher.send(new MyMessage(i)));
+        }
+        assertEquals(4, asyncDispatcher.getQueueSize());
+
+        // The next dispatch should return a failed future
+        assertTrue(asyncDispatcher.send(new MyMessage(5)).isCompletedExceptionally());
+
+        syncDispatcher.unblock();
+        for (final CompletableFuture<AsyncDispatcher.DispatchStatus> future : futures) {
+            assertEquals(AsyncDispatcher.DispatchStatus.DISPATCHED, future.get(1, TimeUnit.MINUTES));
+        }
+        for (int i = 0; i <= 4; i++) {
+            assertThat(syncDispatcher.getDispatchedMessages(), hasItem(new MyMessage(i)));
+        }
+
+        asyncDispatcher.close();
+    }
+
+    private static AsyncPolicy policy(int queueSize, int numThreads, boolean blockWhenFull) {
+        return new AsyncPolicy() {
+            @Override
+            public int getQueueSize() {
+                return queueSize;
+            }
+
+            @Override
+            public int getNumThreads() {
+                return numThreads;
+            }
+
+            @Override
+            public boolean isBlockWhenFull() {
+                return blockWhenFull;
+            }
+        };
+    }
+}
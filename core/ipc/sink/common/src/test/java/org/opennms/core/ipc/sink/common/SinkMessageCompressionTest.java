@@ -0,0 +1,145 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.sink.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import org.opennms.core.ipc.sink.common.SinkMessageCompression.Codec;
+
+public class SinkMessageCompressionTest {
+
+    private static byte[] getXmlPayload() {
+        final StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><syslog-message-log>");
+        for (int i = 0; i < 100; i++) {
+            sb.append("<messages timestamp=\"").append(i).append("\">PDE4OT5NYXIgMTcgMDA6MDA6MDAgaG9zdCBzc2hk</messages>");
+        }
+        return sb.append("</syslog-message-log>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void canCompressAndDecompress() {
+        final byte[] payload = getXmlPayload();
+        for (Codec codec : new Codec[]{Codec.LZ4, Codec.ZSTD}) {
+            final byte[] compressed = SinkMessageCompression.compress(codec, payload);
+            assertTrue(SinkMessageCompression.isCompressed(compressed));
+            assertThat(compressed.length, lessThan(payload.length));
+            assertArrayEquals(payload, SinkMessageCompression.decompress(compressed));
+        }
+    }
+
+    @Test
+    public void sendsUncompressedWhenNotWorthIt() {
+        // Disabled
+        final byte[] payload = getXmlPayload();
+        assertSame(payload, SinkMessageCompression.compress(Codec.NONE, payload));
+
+        // Below the threshold
+        final byte[] small = "<heartbeat/>".getBytes(StandardCharsets.UTF_8);
+        assertSame(small, SinkMessageCompression.compress(Codec.ZSTD, small));
+
+        // Incompressible
+        final byte[] random = new byte[SinkMessageCompression.DEFAULT_THRESHOLD * 4];
+        new Random(42).nextBytes(random);
+        assertSame(random, SinkMessageCompression.compress(Codec.LZ4, random));
+    }
+
+    @Test
+    public void passesUncompressedPayloadsThrough() {
+        final byte[] xml = getXmlPayload();
+        assertFalse(SinkMessageCompression.isCompressed(xml));
+        assertSame(xml, SinkMessageCompression.decompress(xml));
+
+        // Payloads of the protobuf codec start with a NUL byte
+        final byte[] protobuf = new byte[]{0x00, 0x01, 0x0a, 0x02, 0x34, 0x32};
+        assertFalse(SinkMessageCompression.isCompressed(protobuf));
+        assertSame(protobuf, SinkMessageCompression.decompress(protobuf));
+    }
+
+    @Test
+    public void rejectsOversizedPayloads() {
+        for (Codec codec : new Codec[]{Codec.LZ4, Codec.ZSTD}) {
+            final byte[] compressed = SinkMessageCompression.compress(codec, getXmlPayload());
+            for (int length : new int[]{SinkMessageCompression.DEFAULT_MAX_SIZE + 1, Integer.MAX_VALUE}) {
+                // Tamper with the uncompressed length in the header
+                ByteBuffer.wrap(compressed, 2, 4).putInt(length);
+                try {
+                    SinkMessageCompression.decompress(compressed);
+                    fail("Expected " + codec + " payload claiming " + length + " bytes to be rejected");
+                } catch (IllegalArgumentException e) {
+                    // expected
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rejectsMalformedPayloads() {
+        for (Codec codec : new Codec[]{Codec.LZ4, Codec.ZSTD}) {
+            final byte[] payload = getXmlPayload();
+            final byte[] compressed = SinkMessageCompression.compress(codec, payload);
+
+            // Truncated body
+            assertRejected(codec, "truncated", Arrays.copyOf(compressed, compressed.length - 8));
+
+            // Corrupted body behind the intact header
+            final byte[] corrupted = compressed.clone();
+            Arrays.fill(corrupted, 6, corrupted.length, (byte) 0xff);
+            assertRejected(codec, "corrupted", corrupted);
+
+            // Header claiming less or more than the body decompresses to
+            for (int length : new int[]{payload.length - 1, payload.length + 1}) {
+                final byte[] tampered = compressed.clone();
+                ByteBuffer.wrap(tampered, 2, 4).putInt(length);
+                assertRejected(codec, "claiming " + length + " bytes", tampered);
+            }
+        }
+    }
+
+    private static void assertRejected(final Codec codec, final String description, final byte[] bytes) {
+        try {
+            SinkMessageCompression.decompress(bytes);
+            fail("Expected " + description + " " + codec + " payload to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void canParseCodec() {
+        assertEquals(Codec.NONE, Codec.parse(null));
+        assertEquals(Codec.LZ4, Codec.parse("lz4"));
+        assertEquals(Codec.ZSTD, Codec.parse(" Zstd "));
+    }
+}
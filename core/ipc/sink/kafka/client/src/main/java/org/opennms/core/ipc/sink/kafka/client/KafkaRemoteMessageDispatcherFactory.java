@@ -99,7 +99,7 @@ public class KafkaRemoteMessageDispatcherFactory extends AbstractMessageDispatch
     public <S extends Message, T extends Message> void dispatch(SinkModule<S, T> module, String topic, T message) {
         try (MDCCloseable mdc = Logging.withPrefixCloseable(MessageConsumerManager.LOG_PREFIX)) {
             LOG.trace("dispatch({}): sending message {}", topic, message);
-            byte[] sinkMessageContent = module.marshal(message);
+            byte[] sinkMessageContent = marshal(module, message);
             String messageId = UUID.randomUUID().toString();
             final String messageKey = module.getRoutingKey(message).orElse(messageId);
             // Send this message to Kafka, If partition changed in between sending chunks of a larger message,
@@ -55,6 +55,7 @@ import org.opennms.core.ipc.sink.api.Message;
 import org.opennms.core.ipc.sink.api.MessageConsumerManager;
 import org.opennms.core.ipc.sink.api.SinkModule;
 import org.opennms.core.ipc.sink.common.AbstractMessageConsumerManager;
+import org.opennms.core.ipc.sink.common.SinkMessageCompression;
 import org.opennms.core.ipc.sink.model.SinkMessage;
 import org.opennms.core.logging.Logging;
 import org.opennms.core.tracing.api.TracerConstants;
@@ -209,7 +210,7 @@ public class KafkaMessageConsumerManager extends AbstractMessageConsumerManager
                                 scope.span().setTag(TracerConstants.TAG_MESSAGE_SIZE, messageInBytes.length);
                                 scope.span().setTag(TracerConstants.TAG_TOPIC, topic);
                                 scope.span().setTag(TracerConstants.TAG_THREAD, Thread.currentThread().getName());
-                                dispatch(module, module.unmarshal(messageInBytes));
+                                dispatch(module, module.unmarshal(SinkMessageCompression.decompress(messageInBytes)));
                             }
 
                         } catch (RuntimeException e) {
@@ -0,0 +1,532 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.sink.offheap;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.opennms.core.ipc.sink.api.DispatchQueue;
+import org.opennms.core.ipc.sink.api.WriteFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.swrve.ratelimitedlogger.RateLimitedLog;
+
+/**
+ * A {@link DispatchQueue} that first attempts to queue items in memory and upon overflowing the allocated in-memory
+ * queue appends items to a log of memory-mapped segment files. As with the {@link QueueFileOffHeapDispatchQueue}, the
+ * in-memory queue is volatile whereas the contents written to disk are reloaded after a restart.
+ * <p>
+ * Each serialized message is copied straight into the mapping of the current segment, prefixed by its length, so
+ * there is no intermediate batch to serialize and no write call per message. Once a segment is full, a new one is
+ * started. Segments are read sequentially, one batch at a time, and deleted as soon as the last message in them was
+ * moved to the in-memory queue. The position of the reader is kept in a small checkpoint file next to the segments.
+ * <p>
+ * The checkpoint is advanced when a batch is moved to the in-memory queue, not when the messages are dispatched. Like
+ * everything else in the in-memory queue, messages moved there are lost if the process crashes before they are
+ * dispatched.
+ * <p>
+ * Disk usage is bounded by the number of segments which fit into the maximum off-heap size. When all of them are in
+ * use, {@link #enqueue} blocks until the reader releases a segment. Released segments are unmapped before they are
+ * deleted, as the space of a deleted file is only given back once its mapping is gone.
+ * <p>
+ * This queue can be configured to only queue to memory by specifying the maximum off-heap size of 0.
+ *
+ * @param <T> the type being queued
+ */
+public class MappedSegmentDispatchQueue<T> implements DispatchQueue<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MappedSegmentDispatchQueue.class);
+    private final RateLimitedLog RATE_LIMITED_LOGGER = RateLimitedLog
+            .withRateLimit(LOG)
+            .maxRate(5)
+            .every(Duration.ofSeconds(30))
+            .build();
+
+    private static final String DIRECTORY_EXTENSION = ".segments";
+    private static final String SEGMENT_EXTENSION = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private static final int HEADER_SIZE = Integer.BYTES;
+
+    private static final Consumer<MappedByteBuffer> UNMAPPER = createUnmapper();
+
+    // Headers hold the length of the message plus one, so that the zeroed remainder of a segment never looks like a
+    // message - even an empty one
+    private static final int UNWRITTEN = 0;
+    private static final int END_OF_SEGMENT = -1;
+
+    private final Function<T, byte[]> serializer;
+    private final Function<byte[], T> deserializer;
+    private final String moduleName;
+    private final int batchSize;
+    private final BlockingQueue<Map.Entry<String, T>> inMemoryQueue;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSegments;
+
+    // Used to guard access to all of the segment state below
+    private final Lock lock = new ReentrantLock(true);
+    private final Condition segmentReleased = lock.newCondition();
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private MappedByteBuffer checkpoint;
+
+    private Segment writeSegment;
+    private int writeOffset;
+    private long nextSegmentId;
+
+    private long readSegmentId;
+    private int readOffset;
+
+    // Number of messages on disk which have not been read yet
+    private volatile int diskSize = 0;
+    private volatile boolean isFull = false;
+
+    public MappedSegmentDispatchQueue(Function<T, byte[]> serializer, Function<byte[], T> deserializer,
+                                      String moduleName, Path filePath, int inMemoryQueueSize, int batchSize,
+                                      long maxFileSizeInBytes, long segmentSizeInBytes) throws IOException {
+        this.serializer = Objects.requireNonNull(serializer);
+        this.deserializer = Objects.requireNonNull(deserializer);
+        this.moduleName = Objects.requireNonNull(moduleName);
+
+        if (inMemoryQueueSize < 1) {
+            throw new IllegalArgumentException("In memory queue size must be greater than 0");
+        }
+
+        if (batchSize < 1 || batchSize > inMemoryQueueSize) {
+            throw new IllegalArgumentException("Batch size must be between 1 and the in memory queue size");
+        }
+
+        if (maxFileSizeInBytes < 0) {
+            throw new IllegalArgumentException("Max file size must be either 0 or a positive integer");
+        }
+
+        this.batchSize = batchSize;
+        this.inMemoryQueue = new ArrayBlockingQueue<>(inMemoryQueueSize, true);
+
+        // Setting the max file size to 0 disables the off-heap portion of this queue
+        if (maxFileSizeInBytes > 0) {
+            if (segmentSizeInBytes <= HEADER_SIZE) {
+                throw new IllegalArgumentException("Segment size must be larger than " + HEADER_SIZE + " bytes");
+            }
+
+            this.directory = Paths.get(Objects.requireNonNull(filePath).toString(), moduleName + DIRECTORY_EXTENSION);
+            this.segmentSize = (int) Math.min(Math.min(segmentSizeInBytes, maxFileSizeInBytes), Integer.MAX_VALUE);
+            this.maxSegments = Math.max(1, maxFileSizeInBytes / this.segmentSize);
+
+            Files.createDirectories(this.directory);
+            recover();
+        } else {
+            this.directory = null;
+            this.segmentSize = 0;
+            this.maxSegments = 0;
+        }
+    }
+
+    /**
+     * Maps the existing segments and restores the positions of the reader and the writer.
+     */
+    private void recover() throws IOException {
+        checkpoint = map(directory.resolve(CHECKPOINT_FILE), 2 * Long.BYTES);
+        final long checkpointSegmentId = checkpoint.getLong(0);
+        final int checkpointOffset = (int) checkpoint.getLong(Long.BYTES);
+
+        final List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_EXTENSION))
+                    .forEach(name -> ids.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_EXTENSION.length()))));
+        }
+        ids.sort(Long::compare);
+
+        readSegmentId = checkpointSegmentId;
+        readOffset = checkpointOffset;
+        nextSegmentId = checkpointSegmentId;
+
+        int recovered = 0;
+        for (final long id : ids) {
+            if (id < checkpointSegmentId) {
+                // Already read completely
+                Files.deleteIfExists(segmentPath(id));
+                continue;
+            }
+
+            final Segment segment = new Segment(id, map(segmentPath(id), 0));
+            segments.put(id, segment);
+
+            int offset = id == checkpointSegmentId ? checkpointOffset : 0;
+            int header;
+            while ((header = segment.header(offset)) > UNWRITTEN) {
+                if (offset + HEADER_SIZE + header - 1 > segment.capacity()) {
+                    LOG.warn("Truncating corrupted segment {} of module {} at offset {}", id, moduleName, offset);
+                    segment.buffer.putInt(offset, END_OF_SEGMENT);
+                    header = END_OF_SEGMENT;
+                    break;
+                }
+                offset += HEADER_SIZE + header - 1;
+                recovered++;
+            }
+
+            writeSegment = segment;
+            writeOffset = header == END_OF_SEGMENT ? segment.capacity() : offset;
+            nextSegmentId = id + 1;
+        }
+
+        if (!segments.isEmpty() && segments.firstKey() > readSegmentId) {
+            readSegmentId = segments.firstKey();
+            readOffset = 0;
+        }
+
+        diskSize = recovered;
+        checkpoint();
+
+        LOG.info("Off-heap segments for module {} initialized with {} segments of {} bytes and {} queued messages",
+                moduleName, segments.size(), segmentSize, recovered);
+    }
+
+    @Override
+    public EnqueueResult enqueue(T message, String key) throws WriteFailedException {
+        final Map.Entry<String, T> msgEntry = new AbstractMap.SimpleImmutableEntry<>(key, message);
+
+        // Off-heap queueing is not enabled so queue directly to memory
+        if (directory == null) {
+            try {
+                inMemoryQueue.put(msgEntry);
+            } catch (InterruptedException e) {
+                throw new WriteFailedException(e);
+            }
+            return EnqueueResult.IMMEDIATE;
+        }
+
+        lock.lock();
+        try {
+            // Only use the in-memory queue as long as nothing is waiting on disk to preserve the order
+            if (diskSize == 0 && inMemoryQueue.offer(msgEntry)) {
+                LOG.trace("Enqueueing {} with key {} in-memory", message, key);
+                return EnqueueResult.IMMEDIATE;
+            }
+
+            LOG.trace("Appending message {} with key {} to off-heap segment", message, key);
+            append(serializer.apply(message));
+            return EnqueueResult.DEFERRED;
+        } catch (InterruptedException e) {
+            throw new WriteFailedException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(byte[] bytes) throws WriteFailedException, InterruptedException {
+        final int recordSize = HEADER_SIZE + bytes.length;
+        if (recordSize > segmentSize) {
+            throw new WriteFailedException("Message of " + bytes.length + " bytes does not fit into a segment of "
+                    + segmentSize + " bytes");
+        }
+
+        while (writeSegment == null || writeOffset + recordSize > writeSegment.capacity()) {
+            roll();
+        }
+
+        final ByteBuffer buffer = writeSegment.buffer.duplicate();
+        buffer.position(writeOffset + HEADER_SIZE);
+        buffer.put(bytes);
+        // The header is written last, so a partially written message is never picked up after a crash
+        writeSegment.buffer.putInt(writeOffset, bytes.length + 1);
+
+        writeOffset += recordSize;
+        diskSize++;
+    }
+
+    /**
+     * Seals the current segment and starts a new one. If the maximum number of segments is in use, this waits for the
+     * reader to release a segment instead and the caller has to check again, as the lock was released meanwhile.
+     */
+    private void roll() throws WriteFailedException, InterruptedException {
+        if (writeSegment != null) {
+            if (writeOffset + HEADER_SIZE <= writeSegment.capacity()) {
+                writeSegment.buffer.putInt(writeOffset, END_OF_SEGMENT);
+            }
+            writeOffset = writeSegment.capacity();
+            writeSegment = null;
+        }
+
+        if (diskSize == 0 && !segments.isEmpty()) {
+            // The reader has consumed everything, so all segments can go right away
+            for (final Long id : new ArrayList<>(segments.keySet())) {
+                try {
+                    deleteSegment(id);
+                } catch (IOException e) {
+                    throw new WriteFailedException(e);
+                }
+            }
+            // Other writers may be waiting for the segments released here
+            segmentReleased.signalAll();
+        }
+
+        if (segments.size() >= maxSegments) {
+            markFull();
+            segmentReleased.await();
+            return;
+        }
+        markNotFull();
+
+        final long id = nextSegmentId++;
+        try {
+            writeSegment = new Segment(id, map(segmentPath(id), segmentSize));
+        } catch (IOException e) {
+            throw new WriteFailedException(e);
+        }
+        writeOffset = 0;
+        segments.put(id, writeSegment);
+
+        if (diskSize == 0) {
+            readSegmentId = id;
+            readOffset = 0;
+            checkpoint();
+        }
+    }
+
+    /**
+     * On every call to dequeue we move the next batch from the segments to the in-memory queue, provided there is
+     * room, and then take from the head of the in-memory queue which ensures ordering with respect to both queues.
+     */
+    @Override
+    public Map.Entry<String, T> dequeue() throws InterruptedException {
+        if (directory != null && diskSize > 0) {
+            lock.lock();
+            try {
+                if (diskSize > 0 && inMemoryQueue.remainingCapacity() >= batchSize) {
+                    for (final byte[] bytes : readBatch()) {
+                        inMemoryQueue.add(new AbstractMap.SimpleImmutableEntry<>(null, deserializer.apply(bytes)));
+                    }
+                }
+            } catch (IOException e) {
+                RATE_LIMITED_LOGGER.warn("Exception while dequeueing", e);
+                throw new RuntimeException(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return inMemoryQueue.take();
+    }
+
+    /**
+     * Reads the next batch and advances the checkpoint past it. Segments read completely are released.
+     */
+    private List<byte[]> readBatch() throws IOException {
+        final List<byte[]> batch = new ArrayList<>(batchSize);
+        boolean released = false;
+
+        while (batch.size() < batchSize && diskSize > 0) {
+            final Segment segment = segments.get(readSegmentId);
+            if (segment == null) {
+                throw new IOException("Missing segment " + readSegmentId + " for module " + moduleName);
+            }
+
+            final int header = segment.header(readOffset);
+            if (header <= UNWRITTEN) {
+                // Everything in this segment was read - continue with the next one
+                releaseReadSegment();
+                released = true;
+                continue;
+            }
+
+            final byte[] bytes = new byte[header - 1];
+            final ByteBuffer buffer = segment.buffer.duplicate();
+            buffer.position(readOffset + HEADER_SIZE);
+            buffer.get(bytes);
+
+            readOffset += HEADER_SIZE + bytes.length;
+            diskSize--;
+            batch.add(bytes);
+
+            // A sealed segment is released as soon as its last message was read. Once nothing is left on disk, the
+            // reader does not come back to it, while a writer may be waiting for it to roll over.
+            if (segment != writeSegment && segment.header(readOffset) <= UNWRITTEN) {
+                releaseReadSegment();
+                released = true;
+            }
+        }
+
+        checkpoint();
+        if (released) {
+            segmentReleased.signalAll();
+        }
+
+        return batch;
+    }
+
+    private void releaseReadSegment() throws IOException {
+        deleteSegment(readSegmentId);
+        readSegmentId++;
+        readOffset = 0;
+    }
+
+    private void deleteSegment(long id) throws IOException {
+        final Segment segment = segments.remove(id);
+        if (segment != null) {
+            if (segment == writeSegment) {
+                writeSegment = null;
+                writeOffset = 0;
+            }
+            // The segment must not be accessed anymore once it is unmapped
+            UNMAPPER.accept(segment.buffer);
+            Files.deleteIfExists(segmentPath(id));
+        }
+    }
+
+    private void checkpoint() {
+        checkpoint.putLong(0, readSegmentId);
+        checkpoint.putLong(Long.BYTES, readOffset);
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%020d%s", id, SEGMENT_EXTENSION));
+    }
+
+    /**
+     * Maps the given file, growing it to the given size if necessary.
+     */
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+        }
+    }
+
+    /**
+     * Creates a function which releases the mapping of a buffer right away instead of waiting for it to be garbage
+     * collected. Falls back to waiting for the garbage collector if the JVM does not allow this.
+     */
+    private static Consumer<MappedByteBuffer> createUnmapper() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            final Object unsafe = theUnsafe.get(null);
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            return buffer -> {
+                try {
+                    invokeCleaner.invoke(unsafe, buffer);
+                } catch (ReflectiveOperationException e) {
+                    LOG.warn("Failed to unmap segment. It is released once garbage collected.", e);
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.warn("Segments can not be unmapped explicitly. Deleted segments are released once garbage collected.", e);
+            return buffer -> {};
+        }
+    }
+
+    private void markFull() {
+        if (!isFull) {
+            RATE_LIMITED_LOGGER.info("Off heap segments for module {} are now full", moduleName);
+            isFull = true;
+        }
+    }
+
+    private void markNotFull() {
+        if (isFull) {
+            RATE_LIMITED_LOGGER.info("Off heap segments for module {} are no longer full", moduleName);
+            isFull = false;
+        }
+    }
+
+    @Override
+    public boolean isFull() {
+        if (directory == null) {
+            return inMemoryQueue.remainingCapacity() <= 0;
+        }
+        return isFull;
+    }
+
+    @Override
+    public int getSize() {
+        return inMemoryQueue.size() + diskSize;
+    }
+
+    @VisibleForTesting
+    int getOffHeapSize() {
+        return diskSize;
+    }
+
+    @VisibleForTesting
+    int getSegmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long id, MappedByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        /**
+         * Returns the header at the given offset, treating the space too small to hold one as the end of the segment.
+         */
+        int header(int offset) {
+            if (offset + HEADER_SIZE > buffer.capacity()) {
+                return END_OF_SEGMENT;
+            }
+            return buffer.getInt(offset);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.sink.offheap;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.opennms.core.ipc.sink.api.AsyncPolicy;
+import org.opennms.core.ipc.sink.api.DispatchQueue;
+import org.opennms.core.ipc.sink.api.DispatchQueueFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class MappedSegmentDispatchQueueFactory implements DispatchQueueFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MappedSegmentDispatchQueueFactory.class);
+
+    private final int inMemoryEntrySize;
+    private final int batchSize;
+    private final long offHeapSize;
+    private final long segmentSize;
+    private final Path baseFilePath;
+
+    private final Map<String, DispatchQueue<?>> queues = new ConcurrentHashMap<>();
+
+    public MappedSegmentDispatchQueueFactory(int inMemoryEntrySize, int batchSize, String offHeapSize,
+                                             String segmentSize, String baseFilePath) {
+        this.inMemoryEntrySize = inMemoryEntrySize;
+        this.batchSize = batchSize;
+        this.offHeapSize = QueueFileOffHeapDispatchQueueFactory.convertToBytes(offHeapSize);
+        this.segmentSize = QueueFileOffHeapDispatchQueueFactory.convertToBytes(segmentSize);
+
+        if (baseFilePath == null || baseFilePath.length() == 0) {
+            this.baseFilePath = Paths.get(System.getProperty("karaf.data"));
+        } else {
+            this.baseFilePath = Paths.get(baseFilePath);
+        }
+
+        LOG.info("DispatchQueue factory initialized with on-heap size: {}, batch size: {}, off-heap size: {}, " +
+                        "segment size: {}, and file path: {}", this.inMemoryEntrySize, this.batchSize,
+                this.offHeapSize, this.segmentSize, this.baseFilePath);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> DispatchQueue<T> getQueue(AsyncPolicy asyncPolicy, String moduleName, Function<T, byte[]> serializer,
+                                         Function<byte[], T> deserializer) {
+        if (asyncPolicy.getNumThreads() > inMemoryEntrySize) {
+            throw new IllegalArgumentException("The in memory queue size must be greater than or equal to the number" +
+                    " of consuming threads");
+        }
+
+        return (DispatchQueue<T>) queues.computeIfAbsent(moduleName, (k) -> {
+            try {
+                return new MappedSegmentDispatchQueue<>(serializer, deserializer, k, baseFilePath,
+                        inMemoryEntrySize, batchSize, offHeapSize, segmentSize);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Creates the factory for the configured off-heap storage type, which is either <code>queue-file</code> or
+     * <code>segments</code>.
+     */
+    public static DispatchQueueFactory forStorage(String storage, int inMemoryEntrySize, int batchSize,
+                                                  String offHeapSize, String segmentSize, String baseFilePath) {
+        switch (storage == null ? "" : storage.trim().toLowerCase()) {
+            case "segments":
+                return new MappedSegmentDispatchQueueFactory(inMemoryEntrySize, batchSize, offHeapSize, segmentSize,
+                        baseFilePath);
+            case "":
+            case "queue-file":
+                return new QueueFileOffHeapDispatchQueueFactory(inMemoryEntrySize, batchSize, offHeapSize,
+                        baseFilePath);
+            default:
+                throw new IllegalArgumentException("Invalid off-heap storage type " + storage);
+        }
+    }
+}
@@ -81,7 +81,7 @@ public class QueueFileOffHeapDispatchQueueFactory implements DispatchQueueFactor
         });
     }
 
-    private static long convertToBytes(String sizeWithSuffix) {
+    static long convertToBytes(String sizeWithSuffix) {
         if (sizeWithSuffix == null || sizeWithSuffix.length() == 0) {
             return 0;
         }
@@ -0,0 +1,227 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.sink.offheap;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opennms.core.ipc.sink.api.DispatchQueue;
+import org.opennms.core.ipc.sink.api.WriteFailedException;
+
+public class MappedSegmentDispatchQueueTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void canQueueAndDequeue() throws IOException, WriteFailedException, InterruptedException {
+        DispatchQueue<String> queue = new MappedSegmentDispatchQueue<>(String::getBytes, String::new,
+                "canQueueAndDequeue", Paths.get(folder.newFolder().toURI()), 1, 1, 10000, 1000);
+
+        // Since size is 1, the first entry should be in-memory and the second entry should be on disk
+        assertThat(queue.enqueue("msg1", "key1"), equalTo(DispatchQueue.EnqueueResult.IMMEDIATE));
+        assertThat(queue.enqueue("msg2", "key2"), equalTo(DispatchQueue.EnqueueResult.DEFERRED));
+        assertThat(queue.getSize(), equalTo(2));
+
+        assertThat(queue.dequeue().getValue(), equalTo("msg1"));
+        assertThat(queue.dequeue().getValue(), equalTo("msg2"));
+        assertThat(queue.getSize(), equalTo(0));
+    }
+
+    @Test
+    public void dequeuesInOrderAndReleasesSegments() throws IOException, WriteFailedException, InterruptedException {
+        // Small segments to roll over many times
+        MappedSegmentDispatchQueue<String> queue = new MappedSegmentDispatchQueue<>(String::getBytes, String::new,
+                "dequeuesInOrder", Paths.get(folder.newFolder().toURI()), 1000, 100, 10_000_000, 4096);
+
+        List<String> toQueue = IntStream.range(0, 10020)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.toList());
+        for (String s : toQueue) {
+            queue.enqueue(s, "key" + s);
+        }
+        assertThat(queue.getSize(), equalTo(toQueue.size()));
+        assertThat(queue.getSegmentCount() > 1, is(true));
+
+        List<String> dequeued = new ArrayList<>();
+        while (queue.getSize() > 0) {
+            dequeued.add(queue.dequeue().getValue());
+        }
+        assertThat(dequeued, equalTo(toQueue));
+
+        // Everything was read, so at most the segment being written remains
+        assertThat(queue.getSegmentCount() <= 1, is(true));
+    }
+
+    @Test
+    public void unmapsReleasedSegments() throws IOException, WriteFailedException, InterruptedException {
+        final Path maps = Paths.get("/proc/self/maps");
+        Assume.assumeTrue(Files.isReadable(maps));
+
+        MappedSegmentDispatchQueue<String> queue = new MappedSegmentDispatchQueue<>(String::getBytes, String::new,
+                "unmapsReleasedSegments", Paths.get(folder.newFolder().toURI()), 100, 10, 1_000_000, 1024);
+
+        for (int i = 0; i < 1000; i++) {
+            queue.enqueue("message" + i, null);
+        }
+        while (queue.getSize() > 0) {
+            queue.dequeue();
+        }
+
+        // Deleted segments which are still mapped would keep using disk space
+        final long deletedButMapped = Files.readAllLines(maps).stream()
+                .filter(line -> line.contains("unmapsReleasedSegments") && line.endsWith("(deleted)"))
+                .count();
+        assertThat(deletedButMapped, equalTo(0L));
+    }
+
+    @Test
+    public void canRecoverAfterRestart() throws IOException, WriteFailedException, InterruptedException {
+        Path path = Paths.get(folder.newFolder().toURI());
+        MappedSegmentDispatchQueue<String> queue = new MappedSegmentDispatchQueue<>(String::getBytes, String::new,
+                "canRecoverAfterRestart", path, 10, 5, 1_000_000, 1024);
+
+        List<String> toQueue = IntStream.range(0, 500)
+                .mapToObj(i -> "message" + i)
+                .collect(Collectors.toList());
+        for (String s : toQueue) {
+            queue.enqueue(s, null);
+        }
+
+        // Read some of the entries from disk, the in-memory ones are lost on restart
+        for (int i = 0; i < 100; i++) {
+            queue.dequeue();
+        }
+        int remainingOnDisk = queue.getOffHeapSize();
+
+        queue = new MappedSegmentDispatchQueue<>(String::getBytes, String::new, "canRecoverAfterRestart", path, 10, 5,
+                1_000_000, 1024);
+        assertThat(queue.getSize(), equalTo(remainingOnDisk));
+
+        List<String> dequeued = new ArrayList<>();
+        while (queue.getSize() > 0) {
+            dequeued.add(queue.dequeue().getValue());
+        }
+        assertThat(dequeued, equalTo(toQueue.subList(toQueue.size() - remainingOnDisk, toQueue.size())));
+    }
+
+    @Test(timeout = 60_000)
+    public void blocksWhenFull() throws Exception {
+        // Room for two segments of 64 bytes
+        MappedSegmentDispatchQueue<String> queue = new MappedSegmentDispatchQueue<>(String::getBytes, String::new,
+                "blocksWhenFull", Paths.get(folder.newFolder().toURI()), 1, 1, 128, 64);
+
+        // One entry in memory, 2 segments with 4 entries of 4+12 bytes each
+        for (int i = 0; i < 9; i++) {
+            queue.enqueue(String.format("message%05d", i), null);
+        }
+        assertThat(queue.isFull(), is(false));
+
+        AtomicBoolean didEnqueue = new AtomicBoolean(false);
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            try {
+                queue.enqueue(String.format("message%05d", 9), null);
+                didEnqueue.set(true);
+            } catch (WriteFailedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        await().atMost(10, TimeUnit.SECONDS).until(queue::isFull);
+        assertThat(didEnqueue.get(), is(false));
+
+        // Draining the first segment releases it for the blocked writer
+        List<String> dequeued = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            dequeued.add(queue.dequeue().getValue());
+        }
+        future.get(10, TimeUnit.SECONDS);
+        assertThat(didEnqueue.get(), is(true));
+
+        while (queue.getSize() > 0) {
+            dequeued.add(queue.dequeue().getValue());
+        }
+        assertThat(dequeued, equalTo(IntStream.range(0, 10)
+                .mapToObj(i -> String.format("message%05d", i))
+                .collect(Collectors.toList())));
+    }
+
+    @Test(timeout = 60_000)
+    public void blocksWhenFullWithSingleSegment() throws Exception {
+        // Room for a single segment of 64 bytes
+        MappedSegmentDispatchQueue<String> queue = new MappedSegmentDispatchQueue<>(String::getBytes, String::new,
+                "blocksWhenFullWithSingleSegment", Paths.get(folder.newFolder().toURI()), 1, 1, 64, 64);
+
+        // One entry in memory, 1 segment with 4 entries of 4+12 bytes each
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue(String.format("message%05d", i), null);
+        }
+        assertThat(queue.isFull(), is(false));
+
+        AtomicBoolean didEnqueue = new AtomicBoolean(false);
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            try {
+                queue.enqueue(String.format("message%05d", 5), null);
+                didEnqueue.set(true);
+            } catch (WriteFailedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        await().atMost(10, TimeUnit.SECONDS).until(queue::isFull);
+        assertThat(didEnqueue.get(), is(false));
+
+        // Reading the last entry of the only segment leaves nothing on disk and must still wake up the writer
+        List<String> dequeued = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            dequeued.add(queue.dequeue().getValue());
+        }
+        future.get(10, TimeUnit.SECONDS);
+        assertThat(didEnqueue.get(), is(true));
+
+        while (queue.getSize() > 0) {
+            dequeued.add(queue.dequeue().getValue());
+        }
+        assertThat(dequeued, equalTo(IntStream.range(0, 6)
+                .mapToObj(i -> String.format("message%05d", i))
+                .collect(Collectors.toList())));
+        assertThat(queue.getSegmentCount(), equalTo(1));
+    }
+}
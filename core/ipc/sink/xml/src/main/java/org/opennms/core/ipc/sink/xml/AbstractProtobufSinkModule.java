@@ -0,0 +1,184 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.core.ipc.sink.xml;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Locale;
+
+import org.opennms.core.ipc.sink.api.Message;
+import org.opennms.core.ipc.sink.api.SinkModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+import com.google.protobuf.UnsafeByteOperations;
+
+/**
+ * A {@link SinkModule} that can marshal the aggregated messages using the protobuf
+ * wire format instead of XML.
+ *
+ * The codec used by the producers is selected per module with the
+ * {@code org.opennms.core.ipc.sink.codec.<module-id>} system property, or for all modules
+ * with {@code org.opennms.core.ipc.sink.codec}, and defaults to XML.
+ *
+ * Protobuf payloads start with a NUL byte, which can never start an XML document, so
+ * the consumers detect the codec of every message on their own and accept both.
+ * This allows Minions and the Core to be upgraded independently: upgrade the consumers
+ * first and switch the producers to protobuf once all of them understand it.
+ *
+ * The protobuf messages are generated from the schema checked in with each module
+ * (see {@code src/main/proto}), so the codec cannot drift from the schema.
+ *
+ * @param <S> type of message that will be sent by the producers
+ * @param <T> type of message that will be received by the consumers
+ * @param <P> type of the protobuf message generated for {@code T}
+ */
+public abstract class AbstractProtobufSinkModule<S extends Message, T extends Message, P extends MessageLite> extends AbstractXmlSinkModule<S, T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractProtobufSinkModule.class);
+
+    public static final String CODEC_SYS_PROP = "org.opennms.core.ipc.sink.codec";
+
+    private static final byte MAGIC = 0x00;
+    private static final byte VERSION = 0x01;
+    private static final int HEADER_SIZE = 2;
+
+    public enum Codec {
+        XML,
+        PROTOBUF;
+
+        public static Codec parse(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return XML;
+            }
+            try {
+                return Codec.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Unknown sink codec '{}'. Using {}.", value, XML);
+                return XML;
+            }
+        }
+    }
+
+    private volatile Codec codec;
+
+    public AbstractProtobufSinkModule(Class<T> messageClazz) {
+        super(messageClazz);
+    }
+
+    public Codec getCodec() {
+        if (codec == null) {
+            codec = Codec.parse(System.getProperty(CODEC_SYS_PROP + "." + getId(), System.getProperty(CODEC_SYS_PROP)));
+        }
+        return codec;
+    }
+
+    public void setCodec(Codec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] marshal(T message) {
+        if (getCodec() == Codec.PROTOBUF && isProtobufSupported(message)) {
+            return marshalProtobuf(message);
+        }
+        return super.marshal(message);
+    }
+
+    @Override
+    public T unmarshal(byte[] bytes) {
+        if (isProtobuf(bytes)) {
+            return unmarshalProtobuf(bytes);
+        }
+        return super.unmarshal(bytes);
+    }
+
+    /**
+     * Whether the given payload was marshaled as protobuf, rather than as XML.
+     */
+    public static boolean isProtobuf(byte[] bytes) {
+        return bytes.length >= HEADER_SIZE && bytes[0] == MAGIC;
+    }
+
+    private byte[] marshalProtobuf(T message) {
+        final P proto = toProto(message);
+        final int size = proto.getSerializedSize();
+        final byte[] bytes = new byte[HEADER_SIZE + size];
+        bytes[0] = MAGIC;
+        bytes[1] = VERSION;
+
+        final CodedOutputStream out = CodedOutputStream.newInstance(bytes, HEADER_SIZE, size);
+        try {
+            proto.writeTo(out);
+            out.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to marshal message for module " + getId(), e);
+        }
+        return bytes;
+    }
+
+    private T unmarshalProtobuf(byte[] bytes) {
+        if (bytes[1] != VERSION) {
+            throw new IllegalArgumentException("Unsupported protobuf payload version " + bytes[1] + " for module " + getId());
+        }
+        try {
+            return fromProto(getProtoParser().parseFrom(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE));
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException("Failed to unmarshal message for module " + getId(), e);
+        }
+    }
+
+    /**
+     * Modules can override this method to fall back to XML for messages that
+     * contain fields not covered by their protobuf schema.
+     */
+    protected boolean isProtobufSupported(T message) {
+        return true;
+    }
+
+    /**
+     * Returns the parser of the message class generated from the module's schema.
+     */
+    protected abstract Parser<P> getProtoParser();
+
+    protected abstract P toProto(T message);
+
+    protected abstract T fromProto(P proto);
+
+    protected static ByteString toByteString(InetAddress address) {
+        return UnsafeByteOperations.unsafeWrap(address.getAddress());
+    }
+
+    protected static InetAddress toInetAddress(ByteString bytes) {
+        try {
+            return InetAddress.getByAddress(bytes.toByteArray());
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Invalid address of length " + bytes.size(), e);
+        }
+    }
+}
@@ -43,7 +43,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -61,6 +60,7 @@ public abstract class AbstractTwinPublisher implements TwinPublisher {
     protected static final String TAG_SESSION_ID = "sessionId";
     protected static final String TAG_PATCH = "isPatch";
     private static final String SINK_UPDATE_SENT = "sinkUpdateSent";
+    private static final String SINK_PATCH_SENT = "sinkPatchSent";
     private static final String TWIN_RESPONSE_SENT = "twinResponseSent";
     private static final String TWIN_EMPTY_RESPONSE_SENT = "twinEmptyResponseSent";
     private final Map<SessionKey, TwinTracker> twinTrackerMap = new HashMap<>();
@@ -180,18 +180,22 @@ public abstract class AbstractTwinPublisher implements TwinPublisher {
         TwinTracker twinTracker = getTwinTracker(sessionKey.key, sessionKey.location);
         if (twinTracker == null || !Arrays.equals(twinTracker.getObj(), updatedObj)) {
             TwinUpdate twinUpdate = new TwinUpdate(sessionKey.key, sessionKey.location, updatedObj);
+            JsonNode updatedTree = readTree(updatedObj, sessionKey);
             if (twinTracker == null) {
                 twinTracker = new TwinTracker(updatedObj);
             } else {
                 // Generate patch and update response with patch.
-                byte[] patchValue = getPatchValue(twinTracker.getObj(), updatedObj, sessionKey);
-                if (patchValue != null) {
+                byte[] patchValue = getPatchValue(twinTracker, updatedTree, sessionKey);
+                // Fall back to the full object if the patch does not save anything, i.e. when most of the object changed.
+                if (patchValue != null && patchValue.length < updatedObj.length) {
                     twinUpdate.setObject(patchValue);
                     twinUpdate.setPatch(true);
                 }
                 // Update Twin tracker with updated obj.
                 twinTracker.update(updatedObj);
             }
+            // Keep the parsed object, so the next patch does not have to parse it again.
+            twinTracker.setTree(updatedTree);
             twinTrackerMap.put(sessionKey, twinTracker);
             twinUpdate.setVersion(twinTracker.getVersion());
             twinUpdate.setSessionId(twinTracker.getSessionId());
@@ -200,12 +204,23 @@ public abstract class AbstractTwinPublisher implements TwinPublisher {
         return null;
     }
 
-    private byte[] getPatchValue(byte[] originalObj, byte[] updatedObj, SessionKey sessionKey) {
+    private JsonNode readTree(byte[] obj, SessionKey sessionKey) {
         try {
-            JsonNode sourceNode = objectMapper.readTree(originalObj);
-            JsonNode targetNode = objectMapper.readTree(updatedObj);
+            return objectMapper.readTree(obj);
+        } catch (Exception e) {
+            LOG.error("Unable to parse object for SessionKey {}", sessionKey, e);
+        }
+        return null;
+    }
+
+    private byte[] getPatchValue(TwinTracker twinTracker, JsonNode targetNode, SessionKey sessionKey) {
+        if (targetNode == null) {
+            return null;
+        }
+        try {
+            JsonNode sourceNode = twinTracker.getTree() != null ? twinTracker.getTree() : objectMapper.readTree(twinTracker.getObj());
             JsonNode diffNode = JsonDiff.asJson(sourceNode, targetNode);
-            return diffNode.toString().getBytes(StandardCharsets.UTF_8);
+            return objectMapper.writeValueAsBytes(diffNode);
         } catch (Exception e) {
             LOG.error("Unable to generate patch for SessionKey {}", sessionKey, e);
         }
@@ -256,6 +271,11 @@ public abstract class AbstractTwinPublisher implements TwinPublisher {
                     localTwinSubscriber.accept(twinUpdate);
                     // JMX Metrics
                     updateCounter(sinkUpdateMetricName);
+                    if (twinUpdate.isPatch()) {
+                        updateCounter(sessionKey.location != null ?
+                                MetricRegistry.name(sessionKey.location, sessionKey.key, SINK_PATCH_SENT) :
+                                MetricRegistry.name(sessionKey.key, SINK_PATCH_SENT));
+                    }
                 }
                 span.finish();
             }
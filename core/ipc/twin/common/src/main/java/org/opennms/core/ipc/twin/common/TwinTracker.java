@@ -21,6 +21,8 @@
  */
 package org.opennms.core.ipc.twin.common;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -28,6 +30,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * This Tracks Twin Object Updates for a given SessionKey (key, location).
  * Twin Tracker consists of marshalled object( byte[]), version and sessionId.
+ * The publisher may also keep the parsed tree of the object to generate the next patch from.
  * Version is incremented whenever object updates.
  * sessionId is created only once per a SessionKey.
  * TwinTracker is created and updated by publisher and only consumed by Subscriber.
@@ -37,6 +40,7 @@ public class TwinTracker {
 
     private final AtomicInteger version;
     private byte[] obj;
+    private JsonNode tree;
     private final String sessionId;
 
     public TwinTracker(byte[] obj) {
@@ -56,6 +60,14 @@ public class TwinTracker {
         return obj;
     }
 
+    public JsonNode getTree() {
+        return tree;
+    }
+
+    public void setTree(JsonNode tree) {
+        this.tree = tree;
+    }
+
     public String getSessionId() {
         return sessionId;
     }
@@ -63,6 +75,7 @@ public class TwinTracker {
 
     public int update(byte[] obj) {
         this.obj = obj;
+        this.tree = null;
         return version.incrementAndGet();
     }
 }
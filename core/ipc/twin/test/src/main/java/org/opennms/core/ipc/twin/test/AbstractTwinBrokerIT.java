@@ -258,6 +258,37 @@ public abstract class AbstractTwinBrokerIT {
         await().until(tracker1::getLog, hasItem(updatedConfig));
     }
 
+    /**
+     * Tests that the subscriber follows a mix of small changes, sent as patches, and full rewrites of the object.
+     */
+    @Test
+    public void testPatchAndFullUpdates() throws IOException {
+        final var session = this.publisher.register(TrapListenerConfig.TWIN_KEY, TrapListenerConfig.class);
+        final var tracker = Tracker.subscribe(this.subscriber, TrapListenerConfig.TWIN_KEY, TrapListenerConfig.class);
+        final var users = new ArrayList<SnmpV3User>();
+        for (int i = 0; i < 20; i++) {
+            users.add(new SnmpV3User("opennmsUser" + i, "MD5", "0p3nNMSv" + i, "DES", "0p3nNMSv" + i));
+        }
+        final var config = new TrapListenerConfig();
+        config.setSnmpV3Users(users);
+        session.publish(config);
+        await().until(tracker::getLog, hasItem(config));
+
+        // Change a single user
+        final var changedUsers = new ArrayList<>(users);
+        changedUsers.set(10, new SnmpV3User("changedUser", "SHA", "0p3nNMSv10", "AES", "0p3nNMSv10"));
+        final var changedConfig = new TrapListenerConfig();
+        changedConfig.setSnmpV3Users(changedUsers);
+        session.publish(changedConfig);
+        await().until(tracker::getLog, hasItem(changedConfig));
+
+        // Replace all users
+        final var rewrittenConfig = new TrapListenerConfig();
+        rewrittenConfig.setSnmpV3Users(List.of(new SnmpV3User("otherUser", "SHA", "0th3rUs3r", "AES", "0th3rUs3r")));
+        session.publish(rewrittenConfig);
+        await().until(tracker::getLog, contains(config, changedConfig, rewrittenConfig));
+    }
+
     public static class Tracker<T> implements Closeable {
         private final List<T> log;
         private final Closeable subscription;
@@ -22,6 +22,7 @@
 package org.opennms.netmgt.snmp.proxy.common;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -245,6 +246,20 @@ public class SnmpProxyRpcModule extends AbstractXmlRpcModule<SnmpRequestDTO, Snm
         return RPC_MODULE_ID;
     }
 
+    /**
+     * Gets and walks are coalesced regardless of their description and time-to-live,
+     * sets are never coalesced.
+     */
+    @Override
+    public Object getCoalescingKey(SnmpRequestDTO request) {
+        if (!request.getSetRequest().isEmpty() || request.getAgent() == null) {
+            return null;
+        }
+        // Snapshot the agent configuration, since it may be modified while executing the request
+        return Arrays.asList(request.getLocation(), request.getSystemId(), request.getAgent().toMap(),
+                new ArrayList<>(request.getGetRequests()), new ArrayList<>(request.getWalkRequest()));
+    }
+
     public void setSecureCredentialsVault(SecureCredentialsVault scv) {
         this.m_scv = scv;
     }
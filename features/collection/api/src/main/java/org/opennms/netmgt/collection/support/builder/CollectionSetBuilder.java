@@ -123,6 +123,20 @@ public class CollectionSetBuilder {
         return this;
     }
 
+    /**
+     * Adds all the resources and attributes of the given builder to this one.
+     *
+     * The status, timestamp and sequence number of the other builder are ignored.
+     */
+    public CollectionSetBuilder withAttributesFrom(CollectionSetBuilder other) {
+        other.m_attributesByResource.forEach((resource, attributes) -> {
+            for (Attribute<?> attribute : attributes) {
+                withAttribute(resource, attribute);
+            }
+        });
+        return this;
+    }
+
     public CollectionSetBuilder disableCounterPersistence(boolean disableCounterPersistence) {
         m_disableCounterPersistence = disableCounterPersistence;
         return this;
@@ -24,19 +24,27 @@
  */
 package org.opennms.features.events.sink.module;
 
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 
 import org.opennms.core.ipc.sink.api.AggregationPolicy;
 import org.opennms.core.ipc.sink.api.AsyncPolicy;
-import org.opennms.core.ipc.sink.xml.AbstractXmlSinkModule;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule;
 import org.opennms.netmgt.config.api.EventdConfig;
 import org.opennms.netmgt.xml.event.Event;
 import org.opennms.netmgt.xml.event.Log;
+import org.opennms.netmgt.xml.event.Logmsg;
+import org.opennms.netmgt.xml.event.Parm;
+import org.opennms.netmgt.xml.event.Value;
+
+import com.google.protobuf.Parser;
 
 /**
  * @author Malatesh Sudarshan
  */
-public class EventSinkModule extends AbstractXmlSinkModule<Event, Log> {
+public class EventSinkModule extends AbstractProtobufSinkModule<Event, Log, EventSinkProtos.Log> {
 
     public static final String MODULE_ID = "Events";
 
@@ -119,6 +127,248 @@ public class EventSinkModule extends AbstractXmlSinkModule<Event, Log> {
         return log.getEvents().getEvent(0);
     }
 
+    /**
+     * Events sent over the Sink rarely carry the elements that are otherwise added by the
+     * event configuration. Logs containing any of them are still marshaled as XML.
+     */
+    @Override
+    protected boolean isProtobufSupported(Log log) {
+        if (log.getHeader() != null) {
+            return false;
+        }
+        for (Event event : getEvents(log)) {
+            if (event.getMask() != null
+                    || event.getSnmp() != null
+                    || event.getCorrelation() != null
+                    || event.getAutoacknowledge() != null
+                    || event.getTticket() != null
+                    || event.getAlarmData() != null
+                    || event.getAutoactionCount() > 0
+                    || event.getOperactionCount() > 0
+                    || event.getForwardCount() > 0
+                    || event.getScriptCount() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Event> getEvents(Log log) {
+        return log.getEvents() == null ? Collections.emptyList() : log.getEvents().getEventCollection();
+    }
+
+    @Override
+    protected Parser<EventSinkProtos.Log> getProtoParser() {
+        return EventSinkProtos.Log.parser();
+    }
+
+    @Override
+    protected EventSinkProtos.Log toProto(Log log) {
+        final EventSinkProtos.Log.Builder builder = EventSinkProtos.Log.newBuilder();
+        for (Event event : getEvents(log)) {
+            toProto(event, builder.addEventsBuilder());
+        }
+        return builder.build();
+    }
+
+    private static void toProto(Event event, EventSinkProtos.Event.Builder builder) {
+        if (event.getUuid() != null) {
+            builder.setUuid(event.getUuid());
+        }
+        if (event.getDbid() != null) {
+            builder.setDbid(event.getDbid());
+        }
+        if (event.getDistPoller() != null) {
+            builder.setDistPoller(event.getDistPoller());
+        }
+        if (event.getCreationTime() != null) {
+            builder.setCreationTime(event.getCreationTime().getTime());
+        }
+        if (event.getMasterStation() != null) {
+            builder.setMasterStation(event.getMasterStation());
+        }
+        if (event.getUei() != null) {
+            builder.setUei(event.getUei());
+        }
+        if (event.getSource() != null) {
+            builder.setSource(event.getSource());
+        }
+        if (event.getNodeid() != null) {
+            builder.setNodeid(event.getNodeid());
+        }
+        if (event.getTime() != null) {
+            builder.setTime(event.getTime().getTime());
+        }
+        if (event.getHost() != null) {
+            builder.setHost(event.getHost());
+        }
+        if (event.getInterfaceAddress() != null) {
+            builder.setInterface(toByteString(event.getInterfaceAddress()));
+        }
+        if (event.getSnmphost() != null) {
+            builder.setSnmphost(event.getSnmphost());
+        }
+        if (event.getService() != null) {
+            builder.setService(event.getService());
+        }
+        for (Parm parm : event.getParmCollection()) {
+            final EventSinkProtos.Parm.Builder parmBuilder = builder.addParmsBuilder();
+            if (parm.getParmName() != null) {
+                parmBuilder.setName(parm.getParmName());
+            }
+            final Value value = parm.getValue();
+            if (value != null) {
+                final EventSinkProtos.Value.Builder valueBuilder = parmBuilder.getValueBuilder();
+                if (value.getContent() != null) {
+                    valueBuilder.setContent(value.getContent());
+                }
+                if (value.getType() != null) {
+                    valueBuilder.setType(value.getType());
+                }
+                if (value.getEncoding() != null) {
+                    valueBuilder.setEncoding(value.getEncoding());
+                }
+            }
+        }
+        if (event.getDescr() != null) {
+            builder.setDescr(event.getDescr());
+        }
+        final Logmsg logmsg = event.getLogmsg();
+        if (logmsg != null) {
+            final EventSinkProtos.Logmsg.Builder logmsgBuilder = builder.getLogmsgBuilder();
+            if (logmsg.getContent() != null) {
+                logmsgBuilder.setContent(logmsg.getContent());
+            }
+            if (logmsg.hasNotify()) {
+                logmsgBuilder.setNotify(logmsg.getNotify());
+            }
+            if (logmsg.getDest() != null) {
+                logmsgBuilder.setDest(logmsg.getDest());
+            }
+        }
+        if (event.getSeverity() != null) {
+            builder.setSeverity(event.getSeverity());
+        }
+        if (event.getPathoutage() != null) {
+            builder.setPathoutage(event.getPathoutage());
+        }
+        if (event.getOperinstruct() != null) {
+            builder.setOperinstruct(event.getOperinstruct());
+        }
+        for (String loggroup : event.getLoggroupCollection()) {
+            builder.addLoggroup(loggroup);
+        }
+        if (event.getIfIndex() != null) {
+            builder.setIfIndex(event.getIfIndex());
+        }
+        if (event.getIfAlias() != null) {
+            builder.setIfAlias(event.getIfAlias());
+        }
+        if (event.getMouseovertext() != null) {
+            builder.setMouseovertext(event.getMouseovertext());
+        }
+    }
+
+    @Override
+    protected Log fromProto(EventSinkProtos.Log proto) {
+        final Log log = new Log();
+        for (EventSinkProtos.Event event : proto.getEventsList()) {
+            log.addEvent(fromProto(event));
+        }
+        return log;
+    }
+
+    private static Event fromProto(EventSinkProtos.Event proto) {
+        final Event event = new Event();
+        if (proto.hasUuid()) {
+            event.setUuid(proto.getUuid());
+        }
+        if (proto.hasDbid()) {
+            event.setDbid(proto.getDbid());
+        }
+        if (proto.hasDistPoller()) {
+            event.setDistPoller(proto.getDistPoller());
+        }
+        if (proto.hasCreationTime()) {
+            event.setCreationTime(new Date(proto.getCreationTime()));
+        }
+        if (proto.hasMasterStation()) {
+            event.setMasterStation(proto.getMasterStation());
+        }
+        if (proto.hasUei()) {
+            event.setUei(proto.getUei());
+        }
+        if (proto.hasSource()) {
+            event.setSource(proto.getSource());
+        }
+        if (proto.hasNodeid()) {
+            event.setNodeid(proto.getNodeid());
+        }
+        if (proto.hasTime()) {
+            event.setTime(new Date(proto.getTime()));
+        }
+        if (proto.hasHost()) {
+            event.setHost(proto.getHost());
+        }
+        if (proto.hasInterface()) {
+            event.setInterfaceAddress(toInetAddress(proto.getInterface()));
+        }
+        if (proto.hasSnmphost()) {
+            event.setSnmphost(proto.getSnmphost());
+        }
+        if (proto.hasService()) {
+            event.setService(proto.getService());
+        }
+        for (EventSinkProtos.Parm protoParm : proto.getParmsList()) {
+            final Parm parm = new Parm();
+            if (protoParm.hasName()) {
+                parm.setParmName(protoParm.getName());
+            }
+            if (protoParm.hasValue()) {
+                final EventSinkProtos.Value protoValue = protoParm.getValue();
+                final Value value = new Value();
+                value.setContent(protoValue.hasContent() ? protoValue.getContent() : null);
+                value.setType(protoValue.hasType() ? protoValue.getType() : null);
+                value.setEncoding(protoValue.hasEncoding() ? protoValue.getEncoding() : null);
+                parm.setValue(value);
+            }
+            event.addParm(parm);
+        }
+        if (proto.hasDescr()) {
+            event.setDescr(proto.getDescr());
+        }
+        if (proto.hasLogmsg()) {
+            final EventSinkProtos.Logmsg protoLogmsg = proto.getLogmsg();
+            final Logmsg logmsg = new Logmsg();
+            logmsg.setContent(protoLogmsg.hasContent() ? protoLogmsg.getContent() : null);
+            logmsg.setNotify(protoLogmsg.hasNotify() ? protoLogmsg.getNotify() : null);
+            logmsg.setDest(protoLogmsg.hasDest() ? protoLogmsg.getDest() : null);
+            event.setLogmsg(logmsg);
+        }
+        if (proto.hasSeverity()) {
+            event.setSeverity(proto.getSeverity());
+        }
+        if (proto.hasPathoutage()) {
+            event.setPathoutage(proto.getPathoutage());
+        }
+        if (proto.hasOperinstruct()) {
+            event.setOperinstruct(proto.getOperinstruct());
+        }
+        for (String loggroup : proto.getLoggroupList()) {
+            event.addLoggroup(loggroup);
+        }
+        if (proto.hasIfIndex()) {
+            event.setIfIndex(proto.getIfIndex());
+        }
+        if (proto.hasIfAlias()) {
+            event.setIfAlias(proto.getIfAlias());
+        }
+        if (proto.hasMouseovertext()) {
+            event.setMouseovertext(proto.getMouseovertext());
+        }
+        return event;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(MODULE_ID);
@@ -0,0 +1,7842 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+// Generated by the protocol buffer compiler.  DO NOT EDIT!
+// source: event-sink.proto
+
+package org.opennms.features.events.sink.module;
+
+public final class EventSinkProtos {
+  private EventSinkProtos() {}
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistryLite registry) {
+  }
+
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistry registry) {
+    registerAllExtensions(
+        (com.google.protobuf.ExtensionRegistryLite) registry);
+  }
+  public interface LogOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:Log)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated .Event events = 1;</code>
+     */
+    java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Event> 
+        getEventsList();
+    /**
+     * <code>repeated .Event events = 1;</code>
+     */
+    org.opennms.features.events.sink.module.EventSinkProtos.Event getEvents(int index);
+    /**
+     * <code>repeated .Event events = 1;</code>
+     */
+    int getEventsCount();
+    /**
+     * <code>repeated .Event events = 1;</code>
+     */
+    java.util.List<? extends org.opennms.features.events.sink.module.EventSinkProtos.EventOrBuilder> 
+        getEventsOrBuilderList();
+    /**
+     * <code>repeated .Event events = 1;</code>
+     */
+    org.opennms.features.events.sink.module.EventSinkProtos.EventOrBuilder getEventsOrBuilder(
+        int index);
+  }
+  /**
+   * Protobuf type {@code Log}
+   */
+  public static final class Log extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:Log)
+      LogOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use Log.newBuilder() to construct.
+    private Log(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private Log() {
+      events_ = java.util.Collections.emptyList();
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new Log();
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Log_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Log_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.opennms.features.events.sink.module.EventSinkProtos.Log.class, org.opennms.features.events.sink.module.EventSinkProtos.Log.Builder.class);
+    }
+
+    public static final int EVENTS_FIELD_NUMBER = 1;
+    @SuppressWarnings("serial")
+    private java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Event> events_;
+    /**
+     * <code>repeated .Event events = 1;</code>
+     */
+    @java.lang.Override
+    public java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Event> getEventsList() {
+      return events_;
+    }
+    /**
+     * <code>repeated .Event events = 1;</code>
+     */
+    @java.lang.Override
+    public java.util.List<? extends org.opennms.features.events.sink.module.EventSinkProtos.EventOrBuilder> 
+        getEventsOrBuilderList() {
+      return events_;
+    }
+    /**
+     * <code>repeated .Event events = 1;</code>
+     */
+    @java.lang.Override
+    public int getEventsCount() {
+      return events_.size();
+    }
+    /**
+     * <code>repeated .Event events = 1;</code>
+     */
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.Event getEvents(int index) {
+      return events_.get(index);
+    }
+    /**
+     * <code>repeated .Event events = 1;</code>
+     */
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.EventOrBuilder getEventsOrBuilder(
+        int index) {
+      return events_.get(index);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      for (int i = 0; i < events_.size(); i++) {
+        output.writeMessage(1, events_.get(i));
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (int i = 0; i < events_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, events_.get(i));
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.opennms.features.events.sink.module.EventSinkProtos.Log)) {
+        return super.equals(obj);
+      }
+      org.opennms.features.events.sink.module.EventSinkProtos.Log other = (org.opennms.features.events.sink.module.EventSinkProtos.Log) obj;
+
+      if (!getEventsList()
+          .equals(other.getEventsList())) return false;
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (getEventsCount() > 0) {
+        hash = (37 * hash) + EVENTS_FIELD_NUMBER;
+        hash = (53 * hash) + getEventsList().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.opennms.features.events.sink.module.EventSinkProtos.Log prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code Log}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:Log)
+        org.opennms.features.events.sink.module.EventSinkProtos.LogOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Log_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Log_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.opennms.features.events.sink.module.EventSinkProtos.Log.class, org.opennms.features.events.sink.module.EventSinkProtos.Log.Builder.class);
+      }
+
+      // Construct using org.opennms.features.events.sink.module.EventSinkProtos.Log.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        if (eventsBuilder_ == null) {
+          events_ = java.util.Collections.emptyList();
+        } else {
+          events_ = null;
+          eventsBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000001);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Log_descriptor;
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Log getDefaultInstanceForType() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.Log.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Log build() {
+        org.opennms.features.events.sink.module.EventSinkProtos.Log result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Log buildPartial() {
+        org.opennms.features.events.sink.module.EventSinkProtos.Log result = new org.opennms.features.events.sink.module.EventSinkProtos.Log(this);
+        buildPartialRepeatedFields(result);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartialRepeatedFields(org.opennms.features.events.sink.module.EventSinkProtos.Log result) {
+        if (eventsBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) != 0)) {
+            events_ = java.util.Collections.unmodifiableList(events_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.events_ = events_;
+        } else {
+          result.events_ = eventsBuilder_.build();
+        }
+      }
+
+      private void buildPartial0(org.opennms.features.events.sink.module.EventSinkProtos.Log result) {
+        int from_bitField0_ = bitField0_;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.opennms.features.events.sink.module.EventSinkProtos.Log) {
+          return mergeFrom((org.opennms.features.events.sink.module.EventSinkProtos.Log)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.opennms.features.events.sink.module.EventSinkProtos.Log other) {
+        if (other == org.opennms.features.events.sink.module.EventSinkProtos.Log.getDefaultInstance()) return this;
+        if (eventsBuilder_ == null) {
+          if (!other.events_.isEmpty()) {
+            if (events_.isEmpty()) {
+              events_ = other.events_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureEventsIsMutable();
+              events_.addAll(other.events_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.events_.isEmpty()) {
+            if (eventsBuilder_.isEmpty()) {
+              eventsBuilder_.dispose();
+              eventsBuilder_ = null;
+              events_ = other.events_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              eventsBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getEventsFieldBuilder() : null;
+            } else {
+              eventsBuilder_.addAllMessages(other.events_);
+            }
+          }
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 10: {
+                org.opennms.features.events.sink.module.EventSinkProtos.Event m =
+                    input.readMessage(
+                        org.opennms.features.events.sink.module.EventSinkProtos.Event.PARSER,
+                        extensionRegistry);
+                if (eventsBuilder_ == null) {
+                  ensureEventsIsMutable();
+                  events_.add(m);
+                } else {
+                  eventsBuilder_.addMessage(m);
+                }
+                break;
+              } // case 10
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Event> events_ =
+        java.util.Collections.emptyList();
+      private void ensureEventsIsMutable() {
+        if (!((bitField0_ & 0x00000001) != 0)) {
+          events_ = new java.util.ArrayList<org.opennms.features.events.sink.module.EventSinkProtos.Event>(events_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.opennms.features.events.sink.module.EventSinkProtos.Event, org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder, org.opennms.features.events.sink.module.EventSinkProtos.EventOrBuilder> eventsBuilder_;
+
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Event> getEventsList() {
+        if (eventsBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(events_);
+        } else {
+          return eventsBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public int getEventsCount() {
+        if (eventsBuilder_ == null) {
+          return events_.size();
+        } else {
+          return eventsBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Event getEvents(int index) {
+        if (eventsBuilder_ == null) {
+          return events_.get(index);
+        } else {
+          return eventsBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public Builder setEvents(
+          int index, org.opennms.features.events.sink.module.EventSinkProtos.Event value) {
+        if (eventsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEventsIsMutable();
+          events_.set(index, value);
+          onChanged();
+        } else {
+          eventsBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public Builder setEvents(
+          int index, org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder builderForValue) {
+        if (eventsBuilder_ == null) {
+          ensureEventsIsMutable();
+          events_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          eventsBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public Builder addEvents(org.opennms.features.events.sink.module.EventSinkProtos.Event value) {
+        if (eventsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEventsIsMutable();
+          events_.add(value);
+          onChanged();
+        } else {
+          eventsBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public Builder addEvents(
+          int index, org.opennms.features.events.sink.module.EventSinkProtos.Event value) {
+        if (eventsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEventsIsMutable();
+          events_.add(index, value);
+          onChanged();
+        } else {
+          eventsBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public Builder addEvents(
+          org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder builderForValue) {
+        if (eventsBuilder_ == null) {
+          ensureEventsIsMutable();
+          events_.add(builderForValue.build());
+          onChanged();
+        } else {
+          eventsBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public Builder addEvents(
+          int index, org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder builderForValue) {
+        if (eventsBuilder_ == null) {
+          ensureEventsIsMutable();
+          events_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          eventsBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public Builder addAllEvents(
+          java.lang.Iterable<? extends org.opennms.features.events.sink.module.EventSinkProtos.Event> values) {
+        if (eventsBuilder_ == null) {
+          ensureEventsIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, events_);
+          onChanged();
+        } else {
+          eventsBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public Builder clearEvents() {
+        if (eventsBuilder_ == null) {
+          events_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          eventsBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public Builder removeEvents(int index) {
+        if (eventsBuilder_ == null) {
+          ensureEventsIsMutable();
+          events_.remove(index);
+          onChanged();
+        } else {
+          eventsBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder getEventsBuilder(
+          int index) {
+        return getEventsFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.EventOrBuilder getEventsOrBuilder(
+          int index) {
+        if (eventsBuilder_ == null) {
+          return events_.get(index);  } else {
+          return eventsBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public java.util.List<? extends org.opennms.features.events.sink.module.EventSinkProtos.EventOrBuilder> 
+           getEventsOrBuilderList() {
+        if (eventsBuilder_ != null) {
+          return eventsBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(events_);
+        }
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder addEventsBuilder() {
+        return getEventsFieldBuilder().addBuilder(
+            org.opennms.features.events.sink.module.EventSinkProtos.Event.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder addEventsBuilder(
+          int index) {
+        return getEventsFieldBuilder().addBuilder(
+            index, org.opennms.features.events.sink.module.EventSinkProtos.Event.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .Event events = 1;</code>
+       */
+      public java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder> 
+           getEventsBuilderList() {
+        return getEventsFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.opennms.features.events.sink.module.EventSinkProtos.Event, org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder, org.opennms.features.events.sink.module.EventSinkProtos.EventOrBuilder> 
+          getEventsFieldBuilder() {
+        if (eventsBuilder_ == null) {
+          eventsBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              org.opennms.features.events.sink.module.EventSinkProtos.Event, org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder, org.opennms.features.events.sink.module.EventSinkProtos.EventOrBuilder>(
+                  events_,
+                  ((bitField0_ & 0x00000001) != 0),
+                  getParentForChildren(),
+                  isClean());
+          events_ = null;
+        }
+        return eventsBuilder_;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:Log)
+    }
+
+    // @@protoc_insertion_point(class_scope:Log)
+    private static final org.opennms.features.events.sink.module.EventSinkProtos.Log DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.opennms.features.events.sink.module.EventSinkProtos.Log();
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Log getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Log>
+        PARSER = new com.google.protobuf.AbstractParser<Log>() {
+      @java.lang.Override
+      public Log parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<Log> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Log> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.Log getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface EventOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:Event)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>optional string uuid = 1;</code>
+     * @return Whether the uuid field is set.
+     */
+    boolean hasUuid();
+    /**
+     * <code>optional string uuid = 1;</code>
+     * @return The uuid.
+     */
+    java.lang.String getUuid();
+    /**
+     * <code>optional string uuid = 1;</code>
+     * @return The bytes for uuid.
+     */
+    com.google.protobuf.ByteString
+        getUuidBytes();
+
+    /**
+     * <code>optional int32 dbid = 2;</code>
+     * @return Whether the dbid field is set.
+     */
+    boolean hasDbid();
+    /**
+     * <code>optional int32 dbid = 2;</code>
+     * @return The dbid.
+     */
+    int getDbid();
+
+    /**
+     * <code>optional string dist_poller = 3;</code>
+     * @return Whether the distPoller field is set.
+     */
+    boolean hasDistPoller();
+    /**
+     * <code>optional string dist_poller = 3;</code>
+     * @return The distPoller.
+     */
+    java.lang.String getDistPoller();
+    /**
+     * <code>optional string dist_poller = 3;</code>
+     * @return The bytes for distPoller.
+     */
+    com.google.protobuf.ByteString
+        getDistPollerBytes();
+
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>optional int64 creation_time = 4;</code>
+     * @return Whether the creationTime field is set.
+     */
+    boolean hasCreationTime();
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>optional int64 creation_time = 4;</code>
+     * @return The creationTime.
+     */
+    long getCreationTime();
+
+    /**
+     * <code>optional string master_station = 5;</code>
+     * @return Whether the masterStation field is set.
+     */
+    boolean hasMasterStation();
+    /**
+     * <code>optional string master_station = 5;</code>
+     * @return The masterStation.
+     */
+    java.lang.String getMasterStation();
+    /**
+     * <code>optional string master_station = 5;</code>
+     * @return The bytes for masterStation.
+     */
+    com.google.protobuf.ByteString
+        getMasterStationBytes();
+
+    /**
+     * <code>optional string uei = 6;</code>
+     * @return Whether the uei field is set.
+     */
+    boolean hasUei();
+    /**
+     * <code>optional string uei = 6;</code>
+     * @return The uei.
+     */
+    java.lang.String getUei();
+    /**
+     * <code>optional string uei = 6;</code>
+     * @return The bytes for uei.
+     */
+    com.google.protobuf.ByteString
+        getUeiBytes();
+
+    /**
+     * <code>optional string source = 7;</code>
+     * @return Whether the source field is set.
+     */
+    boolean hasSource();
+    /**
+     * <code>optional string source = 7;</code>
+     * @return The source.
+     */
+    java.lang.String getSource();
+    /**
+     * <code>optional string source = 7;</code>
+     * @return The bytes for source.
+     */
+    com.google.protobuf.ByteString
+        getSourceBytes();
+
+    /**
+     * <code>optional int64 nodeid = 8;</code>
+     * @return Whether the nodeid field is set.
+     */
+    boolean hasNodeid();
+    /**
+     * <code>optional int64 nodeid = 8;</code>
+     * @return The nodeid.
+     */
+    long getNodeid();
+
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>optional int64 time = 9;</code>
+     * @return Whether the time field is set.
+     */
+    boolean hasTime();
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>optional int64 time = 9;</code>
+     * @return The time.
+     */
+    long getTime();
+
+    /**
+     * <code>optional string host = 10;</code>
+     * @return Whether the host field is set.
+     */
+    boolean hasHost();
+    /**
+     * <code>optional string host = 10;</code>
+     * @return The host.
+     */
+    java.lang.String getHost();
+    /**
+     * <code>optional string host = 10;</code>
+     * @return The bytes for host.
+     */
+    com.google.protobuf.ByteString
+        getHostBytes();
+
+    /**
+     * <code>optional bytes interface = 11;</code>
+     * @return Whether the interface field is set.
+     */
+    boolean hasInterface();
+    /**
+     * <code>optional bytes interface = 11;</code>
+     * @return The interface.
+     */
+    com.google.protobuf.ByteString getInterface();
+
+    /**
+     * <code>optional string snmphost = 12;</code>
+     * @return Whether the snmphost field is set.
+     */
+    boolean hasSnmphost();
+    /**
+     * <code>optional string snmphost = 12;</code>
+     * @return The snmphost.
+     */
+    java.lang.String getSnmphost();
+    /**
+     * <code>optional string snmphost = 12;</code>
+     * @return The bytes for snmphost.
+     */
+    com.google.protobuf.ByteString
+        getSnmphostBytes();
+
+    /**
+     * <code>optional string service = 13;</code>
+     * @return Whether the service field is set.
+     */
+    boolean hasService();
+    /**
+     * <code>optional string service = 13;</code>
+     * @return The service.
+     */
+    java.lang.String getService();
+    /**
+     * <code>optional string service = 13;</code>
+     * @return The bytes for service.
+     */
+    com.google.protobuf.ByteString
+        getServiceBytes();
+
+    /**
+     * <code>repeated .Parm parms = 14;</code>
+     */
+    java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Parm> 
+        getParmsList();
+    /**
+     * <code>repeated .Parm parms = 14;</code>
+     */
+    org.opennms.features.events.sink.module.EventSinkProtos.Parm getParms(int index);
+    /**
+     * <code>repeated .Parm parms = 14;</code>
+     */
+    int getParmsCount();
+    /**
+     * <code>repeated .Parm parms = 14;</code>
+     */
+    java.util.List<? extends org.opennms.features.events.sink.module.EventSinkProtos.ParmOrBuilder> 
+        getParmsOrBuilderList();
+    /**
+     * <code>repeated .Parm parms = 14;</code>
+     */
+    org.opennms.features.events.sink.module.EventSinkProtos.ParmOrBuilder getParmsOrBuilder(
+        int index);
+
+    /**
+     * <code>optional string descr = 15;</code>
+     * @return Whether the descr field is set.
+     */
+    boolean hasDescr();
+    /**
+     * <code>optional string descr = 15;</code>
+     * @return The descr.
+     */
+    java.lang.String getDescr();
+    /**
+     * <code>optional string descr = 15;</code>
+     * @return The bytes for descr.
+     */
+    com.google.protobuf.ByteString
+        getDescrBytes();
+
+    /**
+     * <code>optional .Logmsg logmsg = 16;</code>
+     * @return Whether the logmsg field is set.
+     */
+    boolean hasLogmsg();
+    /**
+     * <code>optional .Logmsg logmsg = 16;</code>
+     * @return The logmsg.
+     */
+    org.opennms.features.events.sink.module.EventSinkProtos.Logmsg getLogmsg();
+    /**
+     * <code>optional .Logmsg logmsg = 16;</code>
+     */
+    org.opennms.features.events.sink.module.EventSinkProtos.LogmsgOrBuilder getLogmsgOrBuilder();
+
+    /**
+     * <code>optional string severity = 17;</code>
+     * @return Whether the severity field is set.
+     */
+    boolean hasSeverity();
+    /**
+     * <code>optional string severity = 17;</code>
+     * @return The severity.
+     */
+    java.lang.String getSeverity();
+    /**
+     * <code>optional string severity = 17;</code>
+     * @return The bytes for severity.
+     */
+    com.google.protobuf.ByteString
+        getSeverityBytes();
+
+    /**
+     * <code>optional string pathoutage = 18;</code>
+     * @return Whether the pathoutage field is set.
+     */
+    boolean hasPathoutage();
+    /**
+     * <code>optional string pathoutage = 18;</code>
+     * @return The pathoutage.
+     */
+    java.lang.String getPathoutage();
+    /**
+     * <code>optional string pathoutage = 18;</code>
+     * @return The bytes for pathoutage.
+     */
+    com.google.protobuf.ByteString
+        getPathoutageBytes();
+
+    /**
+     * <code>optional string operinstruct = 19;</code>
+     * @return Whether the operinstruct field is set.
+     */
+    boolean hasOperinstruct();
+    /**
+     * <code>optional string operinstruct = 19;</code>
+     * @return The operinstruct.
+     */
+    java.lang.String getOperinstruct();
+    /**
+     * <code>optional string operinstruct = 19;</code>
+     * @return The bytes for operinstruct.
+     */
+    com.google.protobuf.ByteString
+        getOperinstructBytes();
+
+    /**
+     * <code>repeated string loggroup = 20;</code>
+     * @return A list containing the loggroup.
+     */
+    java.util.List<java.lang.String>
+        getLoggroupList();
+    /**
+     * <code>repeated string loggroup = 20;</code>
+     * @return The count of loggroup.
+     */
+    int getLoggroupCount();
+    /**
+     * <code>repeated string loggroup = 20;</code>
+     * @param index The index of the element to return.
+     * @return The loggroup at the given index.
+     */
+    java.lang.String getLoggroup(int index);
+    /**
+     * <code>repeated string loggroup = 20;</code>
+     * @param index The index of the value to return.
+     * @return The bytes of the loggroup at the given index.
+     */
+    com.google.protobuf.ByteString
+        getLoggroupBytes(int index);
+
+    /**
+     * <code>optional int32 if_index = 21;</code>
+     * @return Whether the ifIndex field is set.
+     */
+    boolean hasIfIndex();
+    /**
+     * <code>optional int32 if_index = 21;</code>
+     * @return The ifIndex.
+     */
+    int getIfIndex();
+
+    /**
+     * <code>optional string if_alias = 22;</code>
+     * @return Whether the ifAlias field is set.
+     */
+    boolean hasIfAlias();
+    /**
+     * <code>optional string if_alias = 22;</code>
+     * @return The ifAlias.
+     */
+    java.lang.String getIfAlias();
+    /**
+     * <code>optional string if_alias = 22;</code>
+     * @return The bytes for ifAlias.
+     */
+    com.google.protobuf.ByteString
+        getIfAliasBytes();
+
+    /**
+     * <code>optional string mouseovertext = 23;</code>
+     * @return Whether the mouseovertext field is set.
+     */
+    boolean hasMouseovertext();
+    /**
+     * <code>optional string mouseovertext = 23;</code>
+     * @return The mouseovertext.
+     */
+    java.lang.String getMouseovertext();
+    /**
+     * <code>optional string mouseovertext = 23;</code>
+     * @return The bytes for mouseovertext.
+     */
+    com.google.protobuf.ByteString
+        getMouseovertextBytes();
+  }
+  /**
+   * Protobuf type {@code Event}
+   */
+  public static final class Event extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:Event)
+      EventOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use Event.newBuilder() to construct.
+    private Event(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private Event() {
+      uuid_ = "";
+      distPoller_ = "";
+      masterStation_ = "";
+      uei_ = "";
+      source_ = "";
+      host_ = "";
+      interface_ = com.google.protobuf.ByteString.EMPTY;
+      snmphost_ = "";
+      service_ = "";
+      parms_ = java.util.Collections.emptyList();
+      descr_ = "";
+      severity_ = "";
+      pathoutage_ = "";
+      operinstruct_ = "";
+      loggroup_ =
+          com.google.protobuf.LazyStringArrayList.emptyList();
+      ifAlias_ = "";
+      mouseovertext_ = "";
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new Event();
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Event_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Event_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.opennms.features.events.sink.module.EventSinkProtos.Event.class, org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int UUID_FIELD_NUMBER = 1;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object uuid_ = "";
+    /**
+     * <code>optional string uuid = 1;</code>
+     * @return Whether the uuid field is set.
+     */
+    @java.lang.Override
+    public boolean hasUuid() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <code>optional string uuid = 1;</code>
+     * @return The uuid.
+     */
+    @java.lang.Override
+    public java.lang.String getUuid() {
+      java.lang.Object ref = uuid_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          uuid_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string uuid = 1;</code>
+     * @return The bytes for uuid.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getUuidBytes() {
+      java.lang.Object ref = uuid_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        uuid_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int DBID_FIELD_NUMBER = 2;
+    private int dbid_ = 0;
+    /**
+     * <code>optional int32 dbid = 2;</code>
+     * @return Whether the dbid field is set.
+     */
+    @java.lang.Override
+    public boolean hasDbid() {
+      return ((bitField0_ & 0x00000002) != 0);
+    }
+    /**
+     * <code>optional int32 dbid = 2;</code>
+     * @return The dbid.
+     */
+    @java.lang.Override
+    public int getDbid() {
+      return dbid_;
+    }
+
+    public static final int DIST_POLLER_FIELD_NUMBER = 3;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object distPoller_ = "";
+    /**
+     * <code>optional string dist_poller = 3;</code>
+     * @return Whether the distPoller field is set.
+     */
+    @java.lang.Override
+    public boolean hasDistPoller() {
+      return ((bitField0_ & 0x00000004) != 0);
+    }
+    /**
+     * <code>optional string dist_poller = 3;</code>
+     * @return The distPoller.
+     */
+    @java.lang.Override
+    public java.lang.String getDistPoller() {
+      java.lang.Object ref = distPoller_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          distPoller_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string dist_poller = 3;</code>
+     * @return The bytes for distPoller.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getDistPollerBytes() {
+      java.lang.Object ref = distPoller_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        distPoller_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int CREATION_TIME_FIELD_NUMBER = 4;
+    private long creationTime_ = 0L;
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>optional int64 creation_time = 4;</code>
+     * @return Whether the creationTime field is set.
+     */
+    @java.lang.Override
+    public boolean hasCreationTime() {
+      return ((bitField0_ & 0x00000008) != 0);
+    }
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>optional int64 creation_time = 4;</code>
+     * @return The creationTime.
+     */
+    @java.lang.Override
+    public long getCreationTime() {
+      return creationTime_;
+    }
+
+    public static final int MASTER_STATION_FIELD_NUMBER = 5;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object masterStation_ = "";
+    /**
+     * <code>optional string master_station = 5;</code>
+     * @return Whether the masterStation field is set.
+     */
+    @java.lang.Override
+    public boolean hasMasterStation() {
+      return ((bitField0_ & 0x00000010) != 0);
+    }
+    /**
+     * <code>optional string master_station = 5;</code>
+     * @return The masterStation.
+     */
+    @java.lang.Override
+    public java.lang.String getMasterStation() {
+      java.lang.Object ref = masterStation_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          masterStation_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string master_station = 5;</code>
+     * @return The bytes for masterStation.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getMasterStationBytes() {
+      java.lang.Object ref = masterStation_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        masterStation_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int UEI_FIELD_NUMBER = 6;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object uei_ = "";
+    /**
+     * <code>optional string uei = 6;</code>
+     * @return Whether the uei field is set.
+     */
+    @java.lang.Override
+    public boolean hasUei() {
+      return ((bitField0_ & 0x00000020) != 0);
+    }
+    /**
+     * <code>optional string uei = 6;</code>
+     * @return The uei.
+     */
+    @java.lang.Override
+    public java.lang.String getUei() {
+      java.lang.Object ref = uei_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          uei_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string uei = 6;</code>
+     * @return The bytes for uei.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getUeiBytes() {
+      java.lang.Object ref = uei_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        uei_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int SOURCE_FIELD_NUMBER = 7;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object source_ = "";
+    /**
+     * <code>optional string source = 7;</code>
+     * @return Whether the source field is set.
+     */
+    @java.lang.Override
+    public boolean hasSource() {
+      return ((bitField0_ & 0x00000040) != 0);
+    }
+    /**
+     * <code>optional string source = 7;</code>
+     * @return The source.
+     */
+    @java.lang.Override
+    public java.lang.String getSource() {
+      java.lang.Object ref = source_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          source_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string source = 7;</code>
+     * @return The bytes for source.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getSourceBytes() {
+      java.lang.Object ref = source_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        source_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int NODEID_FIELD_NUMBER = 8;
+    private long nodeid_ = 0L;
+    /**
+     * <code>optional int64 nodeid = 8;</code>
+     * @return Whether the nodeid field is set.
+     */
+    @java.lang.Override
+    public boolean hasNodeid() {
+      return ((bitField0_ & 0x00000080) != 0);
+    }
+    /**
+     * <code>optional int64 nodeid = 8;</code>
+     * @return The nodeid.
+     */
+    @java.lang.Override
+    public long getNodeid() {
+      return nodeid_;
+    }
+
+    public static final int TIME_FIELD_NUMBER = 9;
+    private long time_ = 0L;
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>optional int64 time = 9;</code>
+     * @return Whether the time field is set.
+     */
+    @java.lang.Override
+    public boolean hasTime() {
+      return ((bitField0_ & 0x00000100) != 0);
+    }
+    /**
+     * <pre>
+     * Milliseconds since the epoch
+     * </pre>
+     *
+     * <code>optional int64 time = 9;</code>
+     * @return The time.
+     */
+    @java.lang.Override
+    public long getTime() {
+      return time_;
+    }
+
+    public static final int HOST_FIELD_NUMBER = 10;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object host_ = "";
+    /**
+     * <code>optional string host = 10;</code>
+     * @return Whether the host field is set.
+     */
+    @java.lang.Override
+    public boolean hasHost() {
+      return ((bitField0_ & 0x00000200) != 0);
+    }
+    /**
+     * <code>optional string host = 10;</code>
+     * @return The host.
+     */
+    @java.lang.Override
+    public java.lang.String getHost() {
+      java.lang.Object ref = host_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          host_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string host = 10;</code>
+     * @return The bytes for host.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getHostBytes() {
+      java.lang.Object ref = host_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        host_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int INTERFACE_FIELD_NUMBER = 11;
+    private com.google.protobuf.ByteString interface_ = com.google.protobuf.ByteString.EMPTY;
+    /**
+     * <code>optional bytes interface = 11;</code>
+     * @return Whether the interface field is set.
+     */
+    @java.lang.Override
+    public boolean hasInterface() {
+      return ((bitField0_ & 0x00000400) != 0);
+    }
+    /**
+     * <code>optional bytes interface = 11;</code>
+     * @return The interface.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString getInterface() {
+      return interface_;
+    }
+
+    public static final int SNMPHOST_FIELD_NUMBER = 12;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object snmphost_ = "";
+    /**
+     * <code>optional string snmphost = 12;</code>
+     * @return Whether the snmphost field is set.
+     */
+    @java.lang.Override
+    public boolean hasSnmphost() {
+      return ((bitField0_ & 0x00000800) != 0);
+    }
+    /**
+     * <code>optional string snmphost = 12;</code>
+     * @return The snmphost.
+     */
+    @java.lang.Override
+    public java.lang.String getSnmphost() {
+      java.lang.Object ref = snmphost_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          snmphost_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string snmphost = 12;</code>
+     * @return The bytes for snmphost.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getSnmphostBytes() {
+      java.lang.Object ref = snmphost_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        snmphost_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int SERVICE_FIELD_NUMBER = 13;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object service_ = "";
+    /**
+     * <code>optional string service = 13;</code>
+     * @return Whether the service field is set.
+     */
+    @java.lang.Override
+    public boolean hasService() {
+      return ((bitField0_ & 0x00001000) != 0);
+    }
+    /**
+     * <code>optional string service = 13;</code>
+     * @return The service.
+     */
+    @java.lang.Override
+    public java.lang.String getService() {
+      java.lang.Object ref = service_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          service_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string service = 13;</code>
+     * @return The bytes for service.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getServiceBytes() {
+      java.lang.Object ref = service_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        service_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int PARMS_FIELD_NUMBER = 14;
+    @SuppressWarnings("serial")
+    private java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Parm> parms_;
+    /**
+     * <code>repeated .Parm parms = 14;</code>
+     */
+    @java.lang.Override
+    public java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Parm> getParmsList() {
+      return parms_;
+    }
+    /**
+     * <code>repeated .Parm parms = 14;</code>
+     */
+    @java.lang.Override
+    public java.util.List<? extends org.opennms.features.events.sink.module.EventSinkProtos.ParmOrBuilder> 
+        getParmsOrBuilderList() {
+      return parms_;
+    }
+    /**
+     * <code>repeated .Parm parms = 14;</code>
+     */
+    @java.lang.Override
+    public int getParmsCount() {
+      return parms_.size();
+    }
+    /**
+     * <code>repeated .Parm parms = 14;</code>
+     */
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.Parm getParms(int index) {
+      return parms_.get(index);
+    }
+    /**
+     * <code>repeated .Parm parms = 14;</code>
+     */
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.ParmOrBuilder getParmsOrBuilder(
+        int index) {
+      return parms_.get(index);
+    }
+
+    public static final int DESCR_FIELD_NUMBER = 15;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object descr_ = "";
+    /**
+     * <code>optional string descr = 15;</code>
+     * @return Whether the descr field is set.
+     */
+    @java.lang.Override
+    public boolean hasDescr() {
+      return ((bitField0_ & 0x00002000) != 0);
+    }
+    /**
+     * <code>optional string descr = 15;</code>
+     * @return The descr.
+     */
+    @java.lang.Override
+    public java.lang.String getDescr() {
+      java.lang.Object ref = descr_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          descr_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string descr = 15;</code>
+     * @return The bytes for descr.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getDescrBytes() {
+      java.lang.Object ref = descr_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        descr_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int LOGMSG_FIELD_NUMBER = 16;
+    private org.opennms.features.events.sink.module.EventSinkProtos.Logmsg logmsg_;
+    /**
+     * <code>optional .Logmsg logmsg = 16;</code>
+     * @return Whether the logmsg field is set.
+     */
+    @java.lang.Override
+    public boolean hasLogmsg() {
+      return ((bitField0_ & 0x00004000) != 0);
+    }
+    /**
+     * <code>optional .Logmsg logmsg = 16;</code>
+     * @return The logmsg.
+     */
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.Logmsg getLogmsg() {
+      return logmsg_ == null ? org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.getDefaultInstance() : logmsg_;
+    }
+    /**
+     * <code>optional .Logmsg logmsg = 16;</code>
+     */
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.LogmsgOrBuilder getLogmsgOrBuilder() {
+      return logmsg_ == null ? org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.getDefaultInstance() : logmsg_;
+    }
+
+    public static final int SEVERITY_FIELD_NUMBER = 17;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object severity_ = "";
+    /**
+     * <code>optional string severity = 17;</code>
+     * @return Whether the severity field is set.
+     */
+    @java.lang.Override
+    public boolean hasSeverity() {
+      return ((bitField0_ & 0x00008000) != 0);
+    }
+    /**
+     * <code>optional string severity = 17;</code>
+     * @return The severity.
+     */
+    @java.lang.Override
+    public java.lang.String getSeverity() {
+      java.lang.Object ref = severity_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          severity_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string severity = 17;</code>
+     * @return The bytes for severity.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getSeverityBytes() {
+      java.lang.Object ref = severity_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        severity_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int PATHOUTAGE_FIELD_NUMBER = 18;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object pathoutage_ = "";
+    /**
+     * <code>optional string pathoutage = 18;</code>
+     * @return Whether the pathoutage field is set.
+     */
+    @java.lang.Override
+    public boolean hasPathoutage() {
+      return ((bitField0_ & 0x00010000) != 0);
+    }
+    /**
+     * <code>optional string pathoutage = 18;</code>
+     * @return The pathoutage.
+     */
+    @java.lang.Override
+    public java.lang.String getPathoutage() {
+      java.lang.Object ref = pathoutage_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          pathoutage_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string pathoutage = 18;</code>
+     * @return The bytes for pathoutage.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getPathoutageBytes() {
+      java.lang.Object ref = pathoutage_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        pathoutage_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int OPERINSTRUCT_FIELD_NUMBER = 19;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object operinstruct_ = "";
+    /**
+     * <code>optional string operinstruct = 19;</code>
+     * @return Whether the operinstruct field is set.
+     */
+    @java.lang.Override
+    public boolean hasOperinstruct() {
+      return ((bitField0_ & 0x00020000) != 0);
+    }
+    /**
+     * <code>optional string operinstruct = 19;</code>
+     * @return The operinstruct.
+     */
+    @java.lang.Override
+    public java.lang.String getOperinstruct() {
+      java.lang.Object ref = operinstruct_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          operinstruct_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string operinstruct = 19;</code>
+     * @return The bytes for operinstruct.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getOperinstructBytes() {
+      java.lang.Object ref = operinstruct_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        operinstruct_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int LOGGROUP_FIELD_NUMBER = 20;
+    @SuppressWarnings("serial")
+    private com.google.protobuf.LazyStringArrayList loggroup_ =
+        com.google.protobuf.LazyStringArrayList.emptyList();
+    /**
+     * <code>repeated string loggroup = 20;</code>
+     * @return A list containing the loggroup.
+     */
+    public com.google.protobuf.ProtocolStringList
+        getLoggroupList() {
+      return loggroup_;
+    }
+    /**
+     * <code>repeated string loggroup = 20;</code>
+     * @return The count of loggroup.
+     */
+    public int getLoggroupCount() {
+      return loggroup_.size();
+    }
+    /**
+     * <code>repeated string loggroup = 20;</code>
+     * @param index The index of the element to return.
+     * @return The loggroup at the given index.
+     */
+    public java.lang.String getLoggroup(int index) {
+      return loggroup_.get(index);
+    }
+    /**
+     * <code>repeated string loggroup = 20;</code>
+     * @param index The index of the value to return.
+     * @return The bytes of the loggroup at the given index.
+     */
+    public com.google.protobuf.ByteString
+        getLoggroupBytes(int index) {
+      return loggroup_.getByteString(index);
+    }
+
+    public static final int IF_INDEX_FIELD_NUMBER = 21;
+    private int ifIndex_ = 0;
+    /**
+     * <code>optional int32 if_index = 21;</code>
+     * @return Whether the ifIndex field is set.
+     */
+    @java.lang.Override
+    public boolean hasIfIndex() {
+      return ((bitField0_ & 0x00040000) != 0);
+    }
+    /**
+     * <code>optional int32 if_index = 21;</code>
+     * @return The ifIndex.
+     */
+    @java.lang.Override
+    public int getIfIndex() {
+      return ifIndex_;
+    }
+
+    public static final int IF_ALIAS_FIELD_NUMBER = 22;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object ifAlias_ = "";
+    /**
+     * <code>optional string if_alias = 22;</code>
+     * @return Whether the ifAlias field is set.
+     */
+    @java.lang.Override
+    public boolean hasIfAlias() {
+      return ((bitField0_ & 0x00080000) != 0);
+    }
+    /**
+     * <code>optional string if_alias = 22;</code>
+     * @return The ifAlias.
+     */
+    @java.lang.Override
+    public java.lang.String getIfAlias() {
+      java.lang.Object ref = ifAlias_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          ifAlias_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string if_alias = 22;</code>
+     * @return The bytes for ifAlias.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getIfAliasBytes() {
+      java.lang.Object ref = ifAlias_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        ifAlias_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int MOUSEOVERTEXT_FIELD_NUMBER = 23;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object mouseovertext_ = "";
+    /**
+     * <code>optional string mouseovertext = 23;</code>
+     * @return Whether the mouseovertext field is set.
+     */
+    @java.lang.Override
+    public boolean hasMouseovertext() {
+      return ((bitField0_ & 0x00100000) != 0);
+    }
+    /**
+     * <code>optional string mouseovertext = 23;</code>
+     * @return The mouseovertext.
+     */
+    @java.lang.Override
+    public java.lang.String getMouseovertext() {
+      java.lang.Object ref = mouseovertext_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          mouseovertext_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string mouseovertext = 23;</code>
+     * @return The bytes for mouseovertext.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getMouseovertextBytes() {
+      java.lang.Object ref = mouseovertext_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        mouseovertext_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, uuid_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        output.writeInt32(2, dbid_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, distPoller_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        output.writeInt64(4, creationTime_);
+      }
+      if (((bitField0_ & 0x00000010) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 5, masterStation_);
+      }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 6, uei_);
+      }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 7, source_);
+      }
+      if (((bitField0_ & 0x00000080) != 0)) {
+        output.writeInt64(8, nodeid_);
+      }
+      if (((bitField0_ & 0x00000100) != 0)) {
+        output.writeInt64(9, time_);
+      }
+      if (((bitField0_ & 0x00000200) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 10, host_);
+      }
+      if (((bitField0_ & 0x00000400) != 0)) {
+        output.writeBytes(11, interface_);
+      }
+      if (((bitField0_ & 0x00000800) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 12, snmphost_);
+      }
+      if (((bitField0_ & 0x00001000) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 13, service_);
+      }
+      for (int i = 0; i < parms_.size(); i++) {
+        output.writeMessage(14, parms_.get(i));
+      }
+      if (((bitField0_ & 0x00002000) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 15, descr_);
+      }
+      if (((bitField0_ & 0x00004000) != 0)) {
+        output.writeMessage(16, getLogmsg());
+      }
+      if (((bitField0_ & 0x00008000) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 17, severity_);
+      }
+      if (((bitField0_ & 0x00010000) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 18, pathoutage_);
+      }
+      if (((bitField0_ & 0x00020000) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 19, operinstruct_);
+      }
+      for (int i = 0; i < loggroup_.size(); i++) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 20, loggroup_.getRaw(i));
+      }
+      if (((bitField0_ & 0x00040000) != 0)) {
+        output.writeInt32(21, ifIndex_);
+      }
+      if (((bitField0_ & 0x00080000) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 22, ifAlias_);
+      }
+      if (((bitField0_ & 0x00100000) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 23, mouseovertext_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, uuid_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(2, dbid_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, distPoller_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(4, creationTime_);
+      }
+      if (((bitField0_ & 0x00000010) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(5, masterStation_);
+      }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(6, uei_);
+      }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(7, source_);
+      }
+      if (((bitField0_ & 0x00000080) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(8, nodeid_);
+      }
+      if (((bitField0_ & 0x00000100) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(9, time_);
+      }
+      if (((bitField0_ & 0x00000200) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(10, host_);
+      }
+      if (((bitField0_ & 0x00000400) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(11, interface_);
+      }
+      if (((bitField0_ & 0x00000800) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(12, snmphost_);
+      }
+      if (((bitField0_ & 0x00001000) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(13, service_);
+      }
+      for (int i = 0; i < parms_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(14, parms_.get(i));
+      }
+      if (((bitField0_ & 0x00002000) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(15, descr_);
+      }
+      if (((bitField0_ & 0x00004000) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(16, getLogmsg());
+      }
+      if (((bitField0_ & 0x00008000) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(17, severity_);
+      }
+      if (((bitField0_ & 0x00010000) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(18, pathoutage_);
+      }
+      if (((bitField0_ & 0x00020000) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(19, operinstruct_);
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < loggroup_.size(); i++) {
+          dataSize += computeStringSizeNoTag(loggroup_.getRaw(i));
+        }
+        size += dataSize;
+        size += 2 * getLoggroupList().size();
+      }
+      if (((bitField0_ & 0x00040000) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt32Size(21, ifIndex_);
+      }
+      if (((bitField0_ & 0x00080000) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(22, ifAlias_);
+      }
+      if (((bitField0_ & 0x00100000) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(23, mouseovertext_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.opennms.features.events.sink.module.EventSinkProtos.Event)) {
+        return super.equals(obj);
+      }
+      org.opennms.features.events.sink.module.EventSinkProtos.Event other = (org.opennms.features.events.sink.module.EventSinkProtos.Event) obj;
+
+      if (hasUuid() != other.hasUuid()) return false;
+      if (hasUuid()) {
+        if (!getUuid()
+            .equals(other.getUuid())) return false;
+      }
+      if (hasDbid() != other.hasDbid()) return false;
+      if (hasDbid()) {
+        if (getDbid()
+            != other.getDbid()) return false;
+      }
+      if (hasDistPoller() != other.hasDistPoller()) return false;
+      if (hasDistPoller()) {
+        if (!getDistPoller()
+            .equals(other.getDistPoller())) return false;
+      }
+      if (hasCreationTime() != other.hasCreationTime()) return false;
+      if (hasCreationTime()) {
+        if (getCreationTime()
+            != other.getCreationTime()) return false;
+      }
+      if (hasMasterStation() != other.hasMasterStation()) return false;
+      if (hasMasterStation()) {
+        if (!getMasterStation()
+            .equals(other.getMasterStation())) return false;
+      }
+      if (hasUei() != other.hasUei()) return false;
+      if (hasUei()) {
+        if (!getUei()
+            .equals(other.getUei())) return false;
+      }
+      if (hasSource() != other.hasSource()) return false;
+      if (hasSource()) {
+        if (!getSource()
+            .equals(other.getSource())) return false;
+      }
+      if (hasNodeid() != other.hasNodeid()) return false;
+      if (hasNodeid()) {
+        if (getNodeid()
+            != other.getNodeid()) return false;
+      }
+      if (hasTime() != other.hasTime()) return false;
+      if (hasTime()) {
+        if (getTime()
+            != other.getTime()) return false;
+      }
+      if (hasHost() != other.hasHost()) return false;
+      if (hasHost()) {
+        if (!getHost()
+            .equals(other.getHost())) return false;
+      }
+      if (hasInterface() != other.hasInterface()) return false;
+      if (hasInterface()) {
+        if (!getInterface()
+            .equals(other.getInterface())) return false;
+      }
+      if (hasSnmphost() != other.hasSnmphost()) return false;
+      if (hasSnmphost()) {
+        if (!getSnmphost()
+            .equals(other.getSnmphost())) return false;
+      }
+      if (hasService() != other.hasService()) return false;
+      if (hasService()) {
+        if (!getService()
+            .equals(other.getService())) return false;
+      }
+      if (!getParmsList()
+          .equals(other.getParmsList())) return false;
+      if (hasDescr() != other.hasDescr()) return false;
+      if (hasDescr()) {
+        if (!getDescr()
+            .equals(other.getDescr())) return false;
+      }
+      if (hasLogmsg() != other.hasLogmsg()) return false;
+      if (hasLogmsg()) {
+        if (!getLogmsg()
+            .equals(other.getLogmsg())) return false;
+      }
+      if (hasSeverity() != other.hasSeverity()) return false;
+      if (hasSeverity()) {
+        if (!getSeverity()
+            .equals(other.getSeverity())) return false;
+      }
+      if (hasPathoutage() != other.hasPathoutage()) return false;
+      if (hasPathoutage()) {
+        if (!getPathoutage()
+            .equals(other.getPathoutage())) return false;
+      }
+      if (hasOperinstruct() != other.hasOperinstruct()) return false;
+      if (hasOperinstruct()) {
+        if (!getOperinstruct()
+            .equals(other.getOperinstruct())) return false;
+      }
+      if (!getLoggroupList()
+          .equals(other.getLoggroupList())) return false;
+      if (hasIfIndex() != other.hasIfIndex()) return false;
+      if (hasIfIndex()) {
+        if (getIfIndex()
+            != other.getIfIndex()) return false;
+      }
+      if (hasIfAlias() != other.hasIfAlias()) return false;
+      if (hasIfAlias()) {
+        if (!getIfAlias()
+            .equals(other.getIfAlias())) return false;
+      }
+      if (hasMouseovertext() != other.hasMouseovertext()) return false;
+      if (hasMouseovertext()) {
+        if (!getMouseovertext()
+            .equals(other.getMouseovertext())) return false;
+      }
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasUuid()) {
+        hash = (37 * hash) + UUID_FIELD_NUMBER;
+        hash = (53 * hash) + getUuid().hashCode();
+      }
+      if (hasDbid()) {
+        hash = (37 * hash) + DBID_FIELD_NUMBER;
+        hash = (53 * hash) + getDbid();
+      }
+      if (hasDistPoller()) {
+        hash = (37 * hash) + DIST_POLLER_FIELD_NUMBER;
+        hash = (53 * hash) + getDistPoller().hashCode();
+      }
+      if (hasCreationTime()) {
+        hash = (37 * hash) + CREATION_TIME_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getCreationTime());
+      }
+      if (hasMasterStation()) {
+        hash = (37 * hash) + MASTER_STATION_FIELD_NUMBER;
+        hash = (53 * hash) + getMasterStation().hashCode();
+      }
+      if (hasUei()) {
+        hash = (37 * hash) + UEI_FIELD_NUMBER;
+        hash = (53 * hash) + getUei().hashCode();
+      }
+      if (hasSource()) {
+        hash = (37 * hash) + SOURCE_FIELD_NUMBER;
+        hash = (53 * hash) + getSource().hashCode();
+      }
+      if (hasNodeid()) {
+        hash = (37 * hash) + NODEID_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getNodeid());
+      }
+      if (hasTime()) {
+        hash = (37 * hash) + TIME_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getTime());
+      }
+      if (hasHost()) {
+        hash = (37 * hash) + HOST_FIELD_NUMBER;
+        hash = (53 * hash) + getHost().hashCode();
+      }
+      if (hasInterface()) {
+        hash = (37 * hash) + INTERFACE_FIELD_NUMBER;
+        hash = (53 * hash) + getInterface().hashCode();
+      }
+      if (hasSnmphost()) {
+        hash = (37 * hash) + SNMPHOST_FIELD_NUMBER;
+        hash = (53 * hash) + getSnmphost().hashCode();
+      }
+      if (hasService()) {
+        hash = (37 * hash) + SERVICE_FIELD_NUMBER;
+        hash = (53 * hash) + getService().hashCode();
+      }
+      if (getParmsCount() > 0) {
+        hash = (37 * hash) + PARMS_FIELD_NUMBER;
+        hash = (53 * hash) + getParmsList().hashCode();
+      }
+      if (hasDescr()) {
+        hash = (37 * hash) + DESCR_FIELD_NUMBER;
+        hash = (53 * hash) + getDescr().hashCode();
+      }
+      if (hasLogmsg()) {
+        hash = (37 * hash) + LOGMSG_FIELD_NUMBER;
+        hash = (53 * hash) + getLogmsg().hashCode();
+      }
+      if (hasSeverity()) {
+        hash = (37 * hash) + SEVERITY_FIELD_NUMBER;
+        hash = (53 * hash) + getSeverity().hashCode();
+      }
+      if (hasPathoutage()) {
+        hash = (37 * hash) + PATHOUTAGE_FIELD_NUMBER;
+        hash = (53 * hash) + getPathoutage().hashCode();
+      }
+      if (hasOperinstruct()) {
+        hash = (37 * hash) + OPERINSTRUCT_FIELD_NUMBER;
+        hash = (53 * hash) + getOperinstruct().hashCode();
+      }
+      if (getLoggroupCount() > 0) {
+        hash = (37 * hash) + LOGGROUP_FIELD_NUMBER;
+        hash = (53 * hash) + getLoggroupList().hashCode();
+      }
+      if (hasIfIndex()) {
+        hash = (37 * hash) + IF_INDEX_FIELD_NUMBER;
+        hash = (53 * hash) + getIfIndex();
+      }
+      if (hasIfAlias()) {
+        hash = (37 * hash) + IF_ALIAS_FIELD_NUMBER;
+        hash = (53 * hash) + getIfAlias().hashCode();
+      }
+      if (hasMouseovertext()) {
+        hash = (37 * hash) + MOUSEOVERTEXT_FIELD_NUMBER;
+        hash = (53 * hash) + getMouseovertext().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.opennms.features.events.sink.module.EventSinkProtos.Event prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code Event}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:Event)
+        org.opennms.features.events.sink.module.EventSinkProtos.EventOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Event_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Event_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.opennms.features.events.sink.module.EventSinkProtos.Event.class, org.opennms.features.events.sink.module.EventSinkProtos.Event.Builder.class);
+      }
+
+      // Construct using org.opennms.features.events.sink.module.EventSinkProtos.Event.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getParmsFieldBuilder();
+          getLogmsgFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        uuid_ = "";
+        dbid_ = 0;
+        distPoller_ = "";
+        creationTime_ = 0L;
+        masterStation_ = "";
+        uei_ = "";
+        source_ = "";
+        nodeid_ = 0L;
+        time_ = 0L;
+        host_ = "";
+        interface_ = com.google.protobuf.ByteString.EMPTY;
+        snmphost_ = "";
+        service_ = "";
+        if (parmsBuilder_ == null) {
+          parms_ = java.util.Collections.emptyList();
+        } else {
+          parms_ = null;
+          parmsBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00002000);
+        descr_ = "";
+        logmsg_ = null;
+        if (logmsgBuilder_ != null) {
+          logmsgBuilder_.dispose();
+          logmsgBuilder_ = null;
+        }
+        severity_ = "";
+        pathoutage_ = "";
+        operinstruct_ = "";
+        loggroup_ =
+            com.google.protobuf.LazyStringArrayList.emptyList();
+        ifIndex_ = 0;
+        ifAlias_ = "";
+        mouseovertext_ = "";
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Event_descriptor;
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Event getDefaultInstanceForType() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.Event.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Event build() {
+        org.opennms.features.events.sink.module.EventSinkProtos.Event result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Event buildPartial() {
+        org.opennms.features.events.sink.module.EventSinkProtos.Event result = new org.opennms.features.events.sink.module.EventSinkProtos.Event(this);
+        buildPartialRepeatedFields(result);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartialRepeatedFields(org.opennms.features.events.sink.module.EventSinkProtos.Event result) {
+        if (parmsBuilder_ == null) {
+          if (((bitField0_ & 0x00002000) != 0)) {
+            parms_ = java.util.Collections.unmodifiableList(parms_);
+            bitField0_ = (bitField0_ & ~0x00002000);
+          }
+          result.parms_ = parms_;
+        } else {
+          result.parms_ = parmsBuilder_.build();
+        }
+      }
+
+      private void buildPartial0(org.opennms.features.events.sink.module.EventSinkProtos.Event result) {
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          result.uuid_ = uuid_;
+          to_bitField0_ |= 0x00000001;
+        }
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          result.dbid_ = dbid_;
+          to_bitField0_ |= 0x00000002;
+        }
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          result.distPoller_ = distPoller_;
+          to_bitField0_ |= 0x00000004;
+        }
+        if (((from_bitField0_ & 0x00000008) != 0)) {
+          result.creationTime_ = creationTime_;
+          to_bitField0_ |= 0x00000008;
+        }
+        if (((from_bitField0_ & 0x00000010) != 0)) {
+          result.masterStation_ = masterStation_;
+          to_bitField0_ |= 0x00000010;
+        }
+        if (((from_bitField0_ & 0x00000020) != 0)) {
+          result.uei_ = uei_;
+          to_bitField0_ |= 0x00000020;
+        }
+        if (((from_bitField0_ & 0x00000040) != 0)) {
+          result.source_ = source_;
+          to_bitField0_ |= 0x00000040;
+        }
+        if (((from_bitField0_ & 0x00000080) != 0)) {
+          result.nodeid_ = nodeid_;
+          to_bitField0_ |= 0x00000080;
+        }
+        if (((from_bitField0_ & 0x00000100) != 0)) {
+          result.time_ = time_;
+          to_bitField0_ |= 0x00000100;
+        }
+        if (((from_bitField0_ & 0x00000200) != 0)) {
+          result.host_ = host_;
+          to_bitField0_ |= 0x00000200;
+        }
+        if (((from_bitField0_ & 0x00000400) != 0)) {
+          result.interface_ = interface_;
+          to_bitField0_ |= 0x00000400;
+        }
+        if (((from_bitField0_ & 0x00000800) != 0)) {
+          result.snmphost_ = snmphost_;
+          to_bitField0_ |= 0x00000800;
+        }
+        if (((from_bitField0_ & 0x00001000) != 0)) {
+          result.service_ = service_;
+          to_bitField0_ |= 0x00001000;
+        }
+        if (((from_bitField0_ & 0x00004000) != 0)) {
+          result.descr_ = descr_;
+          to_bitField0_ |= 0x00002000;
+        }
+        if (((from_bitField0_ & 0x00008000) != 0)) {
+          result.logmsg_ = logmsgBuilder_ == null
+              ? logmsg_
+              : logmsgBuilder_.build();
+          to_bitField0_ |= 0x00004000;
+        }
+        if (((from_bitField0_ & 0x00010000) != 0)) {
+          result.severity_ = severity_;
+          to_bitField0_ |= 0x00008000;
+        }
+        if (((from_bitField0_ & 0x00020000) != 0)) {
+          result.pathoutage_ = pathoutage_;
+          to_bitField0_ |= 0x00010000;
+        }
+        if (((from_bitField0_ & 0x00040000) != 0)) {
+          result.operinstruct_ = operinstruct_;
+          to_bitField0_ |= 0x00020000;
+        }
+        if (((from_bitField0_ & 0x00080000) != 0)) {
+          loggroup_.makeImmutable();
+          result.loggroup_ = loggroup_;
+        }
+        if (((from_bitField0_ & 0x00100000) != 0)) {
+          result.ifIndex_ = ifIndex_;
+          to_bitField0_ |= 0x00040000;
+        }
+        if (((from_bitField0_ & 0x00200000) != 0)) {
+          result.ifAlias_ = ifAlias_;
+          to_bitField0_ |= 0x00080000;
+        }
+        if (((from_bitField0_ & 0x00400000) != 0)) {
+          result.mouseovertext_ = mouseovertext_;
+          to_bitField0_ |= 0x00100000;
+        }
+        result.bitField0_ |= to_bitField0_;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.opennms.features.events.sink.module.EventSinkProtos.Event) {
+          return mergeFrom((org.opennms.features.events.sink.module.EventSinkProtos.Event)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.opennms.features.events.sink.module.EventSinkProtos.Event other) {
+        if (other == org.opennms.features.events.sink.module.EventSinkProtos.Event.getDefaultInstance()) return this;
+        if (other.hasUuid()) {
+          uuid_ = other.uuid_;
+          bitField0_ |= 0x00000001;
+          onChanged();
+        }
+        if (other.hasDbid()) {
+          setDbid(other.getDbid());
+        }
+        if (other.hasDistPoller()) {
+          distPoller_ = other.distPoller_;
+          bitField0_ |= 0x00000004;
+          onChanged();
+        }
+        if (other.hasCreationTime()) {
+          setCreationTime(other.getCreationTime());
+        }
+        if (other.hasMasterStation()) {
+          masterStation_ = other.masterStation_;
+          bitField0_ |= 0x00000010;
+          onChanged();
+        }
+        if (other.hasUei()) {
+          uei_ = other.uei_;
+          bitField0_ |= 0x00000020;
+          onChanged();
+        }
+        if (other.hasSource()) {
+          source_ = other.source_;
+          bitField0_ |= 0x00000040;
+          onChanged();
+        }
+        if (other.hasNodeid()) {
+          setNodeid(other.getNodeid());
+        }
+        if (other.hasTime()) {
+          setTime(other.getTime());
+        }
+        if (other.hasHost()) {
+          host_ = other.host_;
+          bitField0_ |= 0x00000200;
+          onChanged();
+        }
+        if (other.hasInterface()) {
+          setInterface(other.getInterface());
+        }
+        if (other.hasSnmphost()) {
+          snmphost_ = other.snmphost_;
+          bitField0_ |= 0x00000800;
+          onChanged();
+        }
+        if (other.hasService()) {
+          service_ = other.service_;
+          bitField0_ |= 0x00001000;
+          onChanged();
+        }
+        if (parmsBuilder_ == null) {
+          if (!other.parms_.isEmpty()) {
+            if (parms_.isEmpty()) {
+              parms_ = other.parms_;
+              bitField0_ = (bitField0_ & ~0x00002000);
+            } else {
+              ensureParmsIsMutable();
+              parms_.addAll(other.parms_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.parms_.isEmpty()) {
+            if (parmsBuilder_.isEmpty()) {
+              parmsBuilder_.dispose();
+              parmsBuilder_ = null;
+              parms_ = other.parms_;
+              bitField0_ = (bitField0_ & ~0x00002000);
+              parmsBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getParmsFieldBuilder() : null;
+            } else {
+              parmsBuilder_.addAllMessages(other.parms_);
+            }
+          }
+        }
+        if (other.hasDescr()) {
+          descr_ = other.descr_;
+          bitField0_ |= 0x00004000;
+          onChanged();
+        }
+        if (other.hasLogmsg()) {
+          mergeLogmsg(other.getLogmsg());
+        }
+        if (other.hasSeverity()) {
+          severity_ = other.severity_;
+          bitField0_ |= 0x00010000;
+          onChanged();
+        }
+        if (other.hasPathoutage()) {
+          pathoutage_ = other.pathoutage_;
+          bitField0_ |= 0x00020000;
+          onChanged();
+        }
+        if (other.hasOperinstruct()) {
+          operinstruct_ = other.operinstruct_;
+          bitField0_ |= 0x00040000;
+          onChanged();
+        }
+        if (!other.loggroup_.isEmpty()) {
+          if (loggroup_.isEmpty()) {
+            loggroup_ = other.loggroup_;
+            bitField0_ |= 0x00080000;
+          } else {
+            ensureLoggroupIsMutable();
+            loggroup_.addAll(other.loggroup_);
+          }
+          onChanged();
+        }
+        if (other.hasIfIndex()) {
+          setIfIndex(other.getIfIndex());
+        }
+        if (other.hasIfAlias()) {
+          ifAlias_ = other.ifAlias_;
+          bitField0_ |= 0x00200000;
+          onChanged();
+        }
+        if (other.hasMouseovertext()) {
+          mouseovertext_ = other.mouseovertext_;
+          bitField0_ |= 0x00400000;
+          onChanged();
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 10: {
+                uuid_ = input.readBytes();
+                bitField0_ |= 0x00000001;
+                break;
+              } // case 10
+              case 16: {
+                dbid_ = input.readInt32();
+                bitField0_ |= 0x00000002;
+                break;
+              } // case 16
+              case 26: {
+                distPoller_ = input.readBytes();
+                bitField0_ |= 0x00000004;
+                break;
+              } // case 26
+              case 32: {
+                creationTime_ = input.readInt64();
+                bitField0_ |= 0x00000008;
+                break;
+              } // case 32
+              case 42: {
+                masterStation_ = input.readBytes();
+                bitField0_ |= 0x00000010;
+                break;
+              } // case 42
+              case 50: {
+                uei_ = input.readBytes();
+                bitField0_ |= 0x00000020;
+                break;
+              } // case 50
+              case 58: {
+                source_ = input.readBytes();
+                bitField0_ |= 0x00000040;
+                break;
+              } // case 58
+              case 64: {
+                nodeid_ = input.readInt64();
+                bitField0_ |= 0x00000080;
+                break;
+              } // case 64
+              case 72: {
+                time_ = input.readInt64();
+                bitField0_ |= 0x00000100;
+                break;
+              } // case 72
+              case 82: {
+                host_ = input.readBytes();
+                bitField0_ |= 0x00000200;
+                break;
+              } // case 82
+              case 90: {
+                interface_ = input.readBytes();
+                bitField0_ |= 0x00000400;
+                break;
+              } // case 90
+              case 98: {
+                snmphost_ = input.readBytes();
+                bitField0_ |= 0x00000800;
+                break;
+              } // case 98
+              case 106: {
+                service_ = input.readBytes();
+                bitField0_ |= 0x00001000;
+                break;
+              } // case 106
+              case 114: {
+                org.opennms.features.events.sink.module.EventSinkProtos.Parm m =
+                    input.readMessage(
+                        org.opennms.features.events.sink.module.EventSinkProtos.Parm.PARSER,
+                        extensionRegistry);
+                if (parmsBuilder_ == null) {
+                  ensureParmsIsMutable();
+                  parms_.add(m);
+                } else {
+                  parmsBuilder_.addMessage(m);
+                }
+                break;
+              } // case 114
+              case 122: {
+                descr_ = input.readBytes();
+                bitField0_ |= 0x00004000;
+                break;
+              } // case 122
+              case 130: {
+                input.readMessage(
+                    getLogmsgFieldBuilder().getBuilder(),
+                    extensionRegistry);
+                bitField0_ |= 0x00008000;
+                break;
+              } // case 130
+              case 138: {
+                severity_ = input.readBytes();
+                bitField0_ |= 0x00010000;
+                break;
+              } // case 138
+              case 146: {
+                pathoutage_ = input.readBytes();
+                bitField0_ |= 0x00020000;
+                break;
+              } // case 146
+              case 154: {
+                operinstruct_ = input.readBytes();
+                bitField0_ |= 0x00040000;
+                break;
+              } // case 154
+              case 162: {
+                com.google.protobuf.ByteString bs = input.readBytes();
+                ensureLoggroupIsMutable();
+                loggroup_.add(bs);
+                break;
+              } // case 162
+              case 168: {
+                ifIndex_ = input.readInt32();
+                bitField0_ |= 0x00100000;
+                break;
+              } // case 168
+              case 178: {
+                ifAlias_ = input.readBytes();
+                bitField0_ |= 0x00200000;
+                break;
+              } // case 178
+              case 186: {
+                mouseovertext_ = input.readBytes();
+                bitField0_ |= 0x00400000;
+                break;
+              } // case 186
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object uuid_ = "";
+      /**
+       * <code>optional string uuid = 1;</code>
+       * @return Whether the uuid field is set.
+       */
+      public boolean hasUuid() {
+        return ((bitField0_ & 0x00000001) != 0);
+      }
+      /**
+       * <code>optional string uuid = 1;</code>
+       * @return The uuid.
+       */
+      public java.lang.String getUuid() {
+        java.lang.Object ref = uuid_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            uuid_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string uuid = 1;</code>
+       * @return The bytes for uuid.
+       */
+      public com.google.protobuf.ByteString
+          getUuidBytes() {
+        java.lang.Object ref = uuid_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          uuid_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string uuid = 1;</code>
+       * @param value The uuid to set.
+       * @return This builder for chaining.
+       */
+      public Builder setUuid(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        uuid_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string uuid = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearUuid() {
+        uuid_ = getDefaultInstance().getUuid();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string uuid = 1;</code>
+       * @param value The bytes for uuid to set.
+       * @return This builder for chaining.
+       */
+      public Builder setUuidBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        uuid_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+
+      private int dbid_ ;
+      /**
+       * <code>optional int32 dbid = 2;</code>
+       * @return Whether the dbid field is set.
+       */
+      @java.lang.Override
+      public boolean hasDbid() {
+        return ((bitField0_ & 0x00000002) != 0);
+      }
+      /**
+       * <code>optional int32 dbid = 2;</code>
+       * @return The dbid.
+       */
+      @java.lang.Override
+      public int getDbid() {
+        return dbid_;
+      }
+      /**
+       * <code>optional int32 dbid = 2;</code>
+       * @param value The dbid to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDbid(int value) {
+
+        dbid_ = value;
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 dbid = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearDbid() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        dbid_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object distPoller_ = "";
+      /**
+       * <code>optional string dist_poller = 3;</code>
+       * @return Whether the distPoller field is set.
+       */
+      public boolean hasDistPoller() {
+        return ((bitField0_ & 0x00000004) != 0);
+      }
+      /**
+       * <code>optional string dist_poller = 3;</code>
+       * @return The distPoller.
+       */
+      public java.lang.String getDistPoller() {
+        java.lang.Object ref = distPoller_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            distPoller_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string dist_poller = 3;</code>
+       * @return The bytes for distPoller.
+       */
+      public com.google.protobuf.ByteString
+          getDistPollerBytes() {
+        java.lang.Object ref = distPoller_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          distPoller_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string dist_poller = 3;</code>
+       * @param value The distPoller to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDistPoller(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        distPoller_ = value;
+        bitField0_ |= 0x00000004;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string dist_poller = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearDistPoller() {
+        distPoller_ = getDefaultInstance().getDistPoller();
+        bitField0_ = (bitField0_ & ~0x00000004);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string dist_poller = 3;</code>
+       * @param value The bytes for distPoller to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDistPollerBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        distPoller_ = value;
+        bitField0_ |= 0x00000004;
+        onChanged();
+        return this;
+      }
+
+      private long creationTime_ ;
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>optional int64 creation_time = 4;</code>
+       * @return Whether the creationTime field is set.
+       */
+      @java.lang.Override
+      public boolean hasCreationTime() {
+        return ((bitField0_ & 0x00000008) != 0);
+      }
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>optional int64 creation_time = 4;</code>
+       * @return The creationTime.
+       */
+      @java.lang.Override
+      public long getCreationTime() {
+        return creationTime_;
+      }
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>optional int64 creation_time = 4;</code>
+       * @param value The creationTime to set.
+       * @return This builder for chaining.
+       */
+      public Builder setCreationTime(long value) {
+
+        creationTime_ = value;
+        bitField0_ |= 0x00000008;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>optional int64 creation_time = 4;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearCreationTime() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        creationTime_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object masterStation_ = "";
+      /**
+       * <code>optional string master_station = 5;</code>
+       * @return Whether the masterStation field is set.
+       */
+      public boolean hasMasterStation() {
+        return ((bitField0_ & 0x00000010) != 0);
+      }
+      /**
+       * <code>optional string master_station = 5;</code>
+       * @return The masterStation.
+       */
+      public java.lang.String getMasterStation() {
+        java.lang.Object ref = masterStation_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            masterStation_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string master_station = 5;</code>
+       * @return The bytes for masterStation.
+       */
+      public com.google.protobuf.ByteString
+          getMasterStationBytes() {
+        java.lang.Object ref = masterStation_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          masterStation_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string master_station = 5;</code>
+       * @param value The masterStation to set.
+       * @return This builder for chaining.
+       */
+      public Builder setMasterStation(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        masterStation_ = value;
+        bitField0_ |= 0x00000010;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string master_station = 5;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearMasterStation() {
+        masterStation_ = getDefaultInstance().getMasterStation();
+        bitField0_ = (bitField0_ & ~0x00000010);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string master_station = 5;</code>
+       * @param value The bytes for masterStation to set.
+       * @return This builder for chaining.
+       */
+      public Builder setMasterStationBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        masterStation_ = value;
+        bitField0_ |= 0x00000010;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object uei_ = "";
+      /**
+       * <code>optional string uei = 6;</code>
+       * @return Whether the uei field is set.
+       */
+      public boolean hasUei() {
+        return ((bitField0_ & 0x00000020) != 0);
+      }
+      /**
+       * <code>optional string uei = 6;</code>
+       * @return The uei.
+       */
+      public java.lang.String getUei() {
+        java.lang.Object ref = uei_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            uei_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string uei = 6;</code>
+       * @return The bytes for uei.
+       */
+      public com.google.protobuf.ByteString
+          getUeiBytes() {
+        java.lang.Object ref = uei_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          uei_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string uei = 6;</code>
+       * @param value The uei to set.
+       * @return This builder for chaining.
+       */
+      public Builder setUei(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        uei_ = value;
+        bitField0_ |= 0x00000020;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string uei = 6;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearUei() {
+        uei_ = getDefaultInstance().getUei();
+        bitField0_ = (bitField0_ & ~0x00000020);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string uei = 6;</code>
+       * @param value The bytes for uei to set.
+       * @return This builder for chaining.
+       */
+      public Builder setUeiBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        uei_ = value;
+        bitField0_ |= 0x00000020;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object source_ = "";
+      /**
+       * <code>optional string source = 7;</code>
+       * @return Whether the source field is set.
+       */
+      public boolean hasSource() {
+        return ((bitField0_ & 0x00000040) != 0);
+      }
+      /**
+       * <code>optional string source = 7;</code>
+       * @return The source.
+       */
+      public java.lang.String getSource() {
+        java.lang.Object ref = source_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            source_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string source = 7;</code>
+       * @return The bytes for source.
+       */
+      public com.google.protobuf.ByteString
+          getSourceBytes() {
+        java.lang.Object ref = source_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          source_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string source = 7;</code>
+       * @param value The source to set.
+       * @return This builder for chaining.
+       */
+      public Builder setSource(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        source_ = value;
+        bitField0_ |= 0x00000040;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string source = 7;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearSource() {
+        source_ = getDefaultInstance().getSource();
+        bitField0_ = (bitField0_ & ~0x00000040);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string source = 7;</code>
+       * @param value The bytes for source to set.
+       * @return This builder for chaining.
+       */
+      public Builder setSourceBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        source_ = value;
+        bitField0_ |= 0x00000040;
+        onChanged();
+        return this;
+      }
+
+      private long nodeid_ ;
+      /**
+       * <code>optional int64 nodeid = 8;</code>
+       * @return Whether the nodeid field is set.
+       */
+      @java.lang.Override
+      public boolean hasNodeid() {
+        return ((bitField0_ & 0x00000080) != 0);
+      }
+      /**
+       * <code>optional int64 nodeid = 8;</code>
+       * @return The nodeid.
+       */
+      @java.lang.Override
+      public long getNodeid() {
+        return nodeid_;
+      }
+      /**
+       * <code>optional int64 nodeid = 8;</code>
+       * @param value The nodeid to set.
+       * @return This builder for chaining.
+       */
+      public Builder setNodeid(long value) {
+
+        nodeid_ = value;
+        bitField0_ |= 0x00000080;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int64 nodeid = 8;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearNodeid() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        nodeid_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long time_ ;
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>optional int64 time = 9;</code>
+       * @return Whether the time field is set.
+       */
+      @java.lang.Override
+      public boolean hasTime() {
+        return ((bitField0_ & 0x00000100) != 0);
+      }
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>optional int64 time = 9;</code>
+       * @return The time.
+       */
+      @java.lang.Override
+      public long getTime() {
+        return time_;
+      }
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>optional int64 time = 9;</code>
+       * @param value The time to set.
+       * @return This builder for chaining.
+       */
+      public Builder setTime(long value) {
+
+        time_ = value;
+        bitField0_ |= 0x00000100;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Milliseconds since the epoch
+       * </pre>
+       *
+       * <code>optional int64 time = 9;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearTime() {
+        bitField0_ = (bitField0_ & ~0x00000100);
+        time_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object host_ = "";
+      /**
+       * <code>optional string host = 10;</code>
+       * @return Whether the host field is set.
+       */
+      public boolean hasHost() {
+        return ((bitField0_ & 0x00000200) != 0);
+      }
+      /**
+       * <code>optional string host = 10;</code>
+       * @return The host.
+       */
+      public java.lang.String getHost() {
+        java.lang.Object ref = host_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            host_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string host = 10;</code>
+       * @return The bytes for host.
+       */
+      public com.google.protobuf.ByteString
+          getHostBytes() {
+        java.lang.Object ref = host_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          host_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string host = 10;</code>
+       * @param value The host to set.
+       * @return This builder for chaining.
+       */
+      public Builder setHost(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        host_ = value;
+        bitField0_ |= 0x00000200;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string host = 10;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearHost() {
+        host_ = getDefaultInstance().getHost();
+        bitField0_ = (bitField0_ & ~0x00000200);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string host = 10;</code>
+       * @param value The bytes for host to set.
+       * @return This builder for chaining.
+       */
+      public Builder setHostBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        host_ = value;
+        bitField0_ |= 0x00000200;
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.ByteString interface_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes interface = 11;</code>
+       * @return Whether the interface field is set.
+       */
+      @java.lang.Override
+      public boolean hasInterface() {
+        return ((bitField0_ & 0x00000400) != 0);
+      }
+      /**
+       * <code>optional bytes interface = 11;</code>
+       * @return The interface.
+       */
+      @java.lang.Override
+      public com.google.protobuf.ByteString getInterface() {
+        return interface_;
+      }
+      /**
+       * <code>optional bytes interface = 11;</code>
+       * @param value The interface to set.
+       * @return This builder for chaining.
+       */
+      public Builder setInterface(com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        interface_ = value;
+        bitField0_ |= 0x00000400;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bytes interface = 11;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearInterface() {
+        bitField0_ = (bitField0_ & ~0x00000400);
+        interface_ = getDefaultInstance().getInterface();
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object snmphost_ = "";
+      /**
+       * <code>optional string snmphost = 12;</code>
+       * @return Whether the snmphost field is set.
+       */
+      public boolean hasSnmphost() {
+        return ((bitField0_ & 0x00000800) != 0);
+      }
+      /**
+       * <code>optional string snmphost = 12;</code>
+       * @return The snmphost.
+       */
+      public java.lang.String getSnmphost() {
+        java.lang.Object ref = snmphost_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            snmphost_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string snmphost = 12;</code>
+       * @return The bytes for snmphost.
+       */
+      public com.google.protobuf.ByteString
+          getSnmphostBytes() {
+        java.lang.Object ref = snmphost_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          snmphost_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string snmphost = 12;</code>
+       * @param value The snmphost to set.
+       * @return This builder for chaining.
+       */
+      public Builder setSnmphost(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        snmphost_ = value;
+        bitField0_ |= 0x00000800;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string snmphost = 12;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearSnmphost() {
+        snmphost_ = getDefaultInstance().getSnmphost();
+        bitField0_ = (bitField0_ & ~0x00000800);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string snmphost = 12;</code>
+       * @param value The bytes for snmphost to set.
+       * @return This builder for chaining.
+       */
+      public Builder setSnmphostBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        snmphost_ = value;
+        bitField0_ |= 0x00000800;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object service_ = "";
+      /**
+       * <code>optional string service = 13;</code>
+       * @return Whether the service field is set.
+       */
+      public boolean hasService() {
+        return ((bitField0_ & 0x00001000) != 0);
+      }
+      /**
+       * <code>optional string service = 13;</code>
+       * @return The service.
+       */
+      public java.lang.String getService() {
+        java.lang.Object ref = service_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            service_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string service = 13;</code>
+       * @return The bytes for service.
+       */
+      public com.google.protobuf.ByteString
+          getServiceBytes() {
+        java.lang.Object ref = service_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          service_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string service = 13;</code>
+       * @param value The service to set.
+       * @return This builder for chaining.
+       */
+      public Builder setService(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        service_ = value;
+        bitField0_ |= 0x00001000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string service = 13;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearService() {
+        service_ = getDefaultInstance().getService();
+        bitField0_ = (bitField0_ & ~0x00001000);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string service = 13;</code>
+       * @param value The bytes for service to set.
+       * @return This builder for chaining.
+       */
+      public Builder setServiceBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        service_ = value;
+        bitField0_ |= 0x00001000;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Parm> parms_ =
+        java.util.Collections.emptyList();
+      private void ensureParmsIsMutable() {
+        if (!((bitField0_ & 0x00002000) != 0)) {
+          parms_ = new java.util.ArrayList<org.opennms.features.events.sink.module.EventSinkProtos.Parm>(parms_);
+          bitField0_ |= 0x00002000;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.opennms.features.events.sink.module.EventSinkProtos.Parm, org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder, org.opennms.features.events.sink.module.EventSinkProtos.ParmOrBuilder> parmsBuilder_;
+
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Parm> getParmsList() {
+        if (parmsBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(parms_);
+        } else {
+          return parmsBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public int getParmsCount() {
+        if (parmsBuilder_ == null) {
+          return parms_.size();
+        } else {
+          return parmsBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Parm getParms(int index) {
+        if (parmsBuilder_ == null) {
+          return parms_.get(index);
+        } else {
+          return parmsBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public Builder setParms(
+          int index, org.opennms.features.events.sink.module.EventSinkProtos.Parm value) {
+        if (parmsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureParmsIsMutable();
+          parms_.set(index, value);
+          onChanged();
+        } else {
+          parmsBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public Builder setParms(
+          int index, org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder builderForValue) {
+        if (parmsBuilder_ == null) {
+          ensureParmsIsMutable();
+          parms_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          parmsBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public Builder addParms(org.opennms.features.events.sink.module.EventSinkProtos.Parm value) {
+        if (parmsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureParmsIsMutable();
+          parms_.add(value);
+          onChanged();
+        } else {
+          parmsBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public Builder addParms(
+          int index, org.opennms.features.events.sink.module.EventSinkProtos.Parm value) {
+        if (parmsBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureParmsIsMutable();
+          parms_.add(index, value);
+          onChanged();
+        } else {
+          parmsBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public Builder addParms(
+          org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder builderForValue) {
+        if (parmsBuilder_ == null) {
+          ensureParmsIsMutable();
+          parms_.add(builderForValue.build());
+          onChanged();
+        } else {
+          parmsBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public Builder addParms(
+          int index, org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder builderForValue) {
+        if (parmsBuilder_ == null) {
+          ensureParmsIsMutable();
+          parms_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          parmsBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public Builder addAllParms(
+          java.lang.Iterable<? extends org.opennms.features.events.sink.module.EventSinkProtos.Parm> values) {
+        if (parmsBuilder_ == null) {
+          ensureParmsIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, parms_);
+          onChanged();
+        } else {
+          parmsBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public Builder clearParms() {
+        if (parmsBuilder_ == null) {
+          parms_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00002000);
+          onChanged();
+        } else {
+          parmsBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public Builder removeParms(int index) {
+        if (parmsBuilder_ == null) {
+          ensureParmsIsMutable();
+          parms_.remove(index);
+          onChanged();
+        } else {
+          parmsBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder getParmsBuilder(
+          int index) {
+        return getParmsFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.ParmOrBuilder getParmsOrBuilder(
+          int index) {
+        if (parmsBuilder_ == null) {
+          return parms_.get(index);  } else {
+          return parmsBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public java.util.List<? extends org.opennms.features.events.sink.module.EventSinkProtos.ParmOrBuilder> 
+           getParmsOrBuilderList() {
+        if (parmsBuilder_ != null) {
+          return parmsBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(parms_);
+        }
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder addParmsBuilder() {
+        return getParmsFieldBuilder().addBuilder(
+            org.opennms.features.events.sink.module.EventSinkProtos.Parm.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder addParmsBuilder(
+          int index) {
+        return getParmsFieldBuilder().addBuilder(
+            index, org.opennms.features.events.sink.module.EventSinkProtos.Parm.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .Parm parms = 14;</code>
+       */
+      public java.util.List<org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder> 
+           getParmsBuilderList() {
+        return getParmsFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          org.opennms.features.events.sink.module.EventSinkProtos.Parm, org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder, org.opennms.features.events.sink.module.EventSinkProtos.ParmOrBuilder> 
+          getParmsFieldBuilder() {
+        if (parmsBuilder_ == null) {
+          parmsBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              org.opennms.features.events.sink.module.EventSinkProtos.Parm, org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder, org.opennms.features.events.sink.module.EventSinkProtos.ParmOrBuilder>(
+                  parms_,
+                  ((bitField0_ & 0x00002000) != 0),
+                  getParentForChildren(),
+                  isClean());
+          parms_ = null;
+        }
+        return parmsBuilder_;
+      }
+
+      private java.lang.Object descr_ = "";
+      /**
+       * <code>optional string descr = 15;</code>
+       * @return Whether the descr field is set.
+       */
+      public boolean hasDescr() {
+        return ((bitField0_ & 0x00004000) != 0);
+      }
+      /**
+       * <code>optional string descr = 15;</code>
+       * @return The descr.
+       */
+      public java.lang.String getDescr() {
+        java.lang.Object ref = descr_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            descr_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string descr = 15;</code>
+       * @return The bytes for descr.
+       */
+      public com.google.protobuf.ByteString
+          getDescrBytes() {
+        java.lang.Object ref = descr_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          descr_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string descr = 15;</code>
+       * @param value The descr to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDescr(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        descr_ = value;
+        bitField0_ |= 0x00004000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string descr = 15;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearDescr() {
+        descr_ = getDefaultInstance().getDescr();
+        bitField0_ = (bitField0_ & ~0x00004000);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string descr = 15;</code>
+       * @param value The bytes for descr to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDescrBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        descr_ = value;
+        bitField0_ |= 0x00004000;
+        onChanged();
+        return this;
+      }
+
+      private org.opennms.features.events.sink.module.EventSinkProtos.Logmsg logmsg_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          org.opennms.features.events.sink.module.EventSinkProtos.Logmsg, org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.Builder, org.opennms.features.events.sink.module.EventSinkProtos.LogmsgOrBuilder> logmsgBuilder_;
+      /**
+       * <code>optional .Logmsg logmsg = 16;</code>
+       * @return Whether the logmsg field is set.
+       */
+      public boolean hasLogmsg() {
+        return ((bitField0_ & 0x00008000) != 0);
+      }
+      /**
+       * <code>optional .Logmsg logmsg = 16;</code>
+       * @return The logmsg.
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Logmsg getLogmsg() {
+        if (logmsgBuilder_ == null) {
+          return logmsg_ == null ? org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.getDefaultInstance() : logmsg_;
+        } else {
+          return logmsgBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .Logmsg logmsg = 16;</code>
+       */
+      public Builder setLogmsg(org.opennms.features.events.sink.module.EventSinkProtos.Logmsg value) {
+        if (logmsgBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          logmsg_ = value;
+        } else {
+          logmsgBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00008000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .Logmsg logmsg = 16;</code>
+       */
+      public Builder setLogmsg(
+          org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.Builder builderForValue) {
+        if (logmsgBuilder_ == null) {
+          logmsg_ = builderForValue.build();
+        } else {
+          logmsgBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00008000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .Logmsg logmsg = 16;</code>
+       */
+      public Builder mergeLogmsg(org.opennms.features.events.sink.module.EventSinkProtos.Logmsg value) {
+        if (logmsgBuilder_ == null) {
+          if (((bitField0_ & 0x00008000) != 0) &&
+            logmsg_ != null &&
+            logmsg_ != org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.getDefaultInstance()) {
+            getLogmsgBuilder().mergeFrom(value);
+          } else {
+            logmsg_ = value;
+          }
+        } else {
+          logmsgBuilder_.mergeFrom(value);
+        }
+        if (logmsg_ != null) {
+          bitField0_ |= 0x00008000;
+          onChanged();
+        }
+        return this;
+      }
+      /**
+       * <code>optional .Logmsg logmsg = 16;</code>
+       */
+      public Builder clearLogmsg() {
+        bitField0_ = (bitField0_ & ~0x00008000);
+        logmsg_ = null;
+        if (logmsgBuilder_ != null) {
+          logmsgBuilder_.dispose();
+          logmsgBuilder_ = null;
+        }
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .Logmsg logmsg = 16;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.Builder getLogmsgBuilder() {
+        bitField0_ |= 0x00008000;
+        onChanged();
+        return getLogmsgFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .Logmsg logmsg = 16;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.LogmsgOrBuilder getLogmsgOrBuilder() {
+        if (logmsgBuilder_ != null) {
+          return logmsgBuilder_.getMessageOrBuilder();
+        } else {
+          return logmsg_ == null ?
+              org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.getDefaultInstance() : logmsg_;
+        }
+      }
+      /**
+       * <code>optional .Logmsg logmsg = 16;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          org.opennms.features.events.sink.module.EventSinkProtos.Logmsg, org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.Builder, org.opennms.features.events.sink.module.EventSinkProtos.LogmsgOrBuilder> 
+          getLogmsgFieldBuilder() {
+        if (logmsgBuilder_ == null) {
+          logmsgBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              org.opennms.features.events.sink.module.EventSinkProtos.Logmsg, org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.Builder, org.opennms.features.events.sink.module.EventSinkProtos.LogmsgOrBuilder>(
+                  getLogmsg(),
+                  getParentForChildren(),
+                  isClean());
+          logmsg_ = null;
+        }
+        return logmsgBuilder_;
+      }
+
+      private java.lang.Object severity_ = "";
+      /**
+       * <code>optional string severity = 17;</code>
+       * @return Whether the severity field is set.
+       */
+      public boolean hasSeverity() {
+        return ((bitField0_ & 0x00010000) != 0);
+      }
+      /**
+       * <code>optional string severity = 17;</code>
+       * @return The severity.
+       */
+      public java.lang.String getSeverity() {
+        java.lang.Object ref = severity_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            severity_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string severity = 17;</code>
+       * @return The bytes for severity.
+       */
+      public com.google.protobuf.ByteString
+          getSeverityBytes() {
+        java.lang.Object ref = severity_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          severity_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string severity = 17;</code>
+       * @param value The severity to set.
+       * @return This builder for chaining.
+       */
+      public Builder setSeverity(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        severity_ = value;
+        bitField0_ |= 0x00010000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string severity = 17;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearSeverity() {
+        severity_ = getDefaultInstance().getSeverity();
+        bitField0_ = (bitField0_ & ~0x00010000);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string severity = 17;</code>
+       * @param value The bytes for severity to set.
+       * @return This builder for chaining.
+       */
+      public Builder setSeverityBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        severity_ = value;
+        bitField0_ |= 0x00010000;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object pathoutage_ = "";
+      /**
+       * <code>optional string pathoutage = 18;</code>
+       * @return Whether the pathoutage field is set.
+       */
+      public boolean hasPathoutage() {
+        return ((bitField0_ & 0x00020000) != 0);
+      }
+      /**
+       * <code>optional string pathoutage = 18;</code>
+       * @return The pathoutage.
+       */
+      public java.lang.String getPathoutage() {
+        java.lang.Object ref = pathoutage_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            pathoutage_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string pathoutage = 18;</code>
+       * @return The bytes for pathoutage.
+       */
+      public com.google.protobuf.ByteString
+          getPathoutageBytes() {
+        java.lang.Object ref = pathoutage_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          pathoutage_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string pathoutage = 18;</code>
+       * @param value The pathoutage to set.
+       * @return This builder for chaining.
+       */
+      public Builder setPathoutage(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        pathoutage_ = value;
+        bitField0_ |= 0x00020000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string pathoutage = 18;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearPathoutage() {
+        pathoutage_ = getDefaultInstance().getPathoutage();
+        bitField0_ = (bitField0_ & ~0x00020000);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string pathoutage = 18;</code>
+       * @param value The bytes for pathoutage to set.
+       * @return This builder for chaining.
+       */
+      public Builder setPathoutageBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        pathoutage_ = value;
+        bitField0_ |= 0x00020000;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object operinstruct_ = "";
+      /**
+       * <code>optional string operinstruct = 19;</code>
+       * @return Whether the operinstruct field is set.
+       */
+      public boolean hasOperinstruct() {
+        return ((bitField0_ & 0x00040000) != 0);
+      }
+      /**
+       * <code>optional string operinstruct = 19;</code>
+       * @return The operinstruct.
+       */
+      public java.lang.String getOperinstruct() {
+        java.lang.Object ref = operinstruct_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            operinstruct_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string operinstruct = 19;</code>
+       * @return The bytes for operinstruct.
+       */
+      public com.google.protobuf.ByteString
+          getOperinstructBytes() {
+        java.lang.Object ref = operinstruct_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          operinstruct_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string operinstruct = 19;</code>
+       * @param value The operinstruct to set.
+       * @return This builder for chaining.
+       */
+      public Builder setOperinstruct(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        operinstruct_ = value;
+        bitField0_ |= 0x00040000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string operinstruct = 19;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearOperinstruct() {
+        operinstruct_ = getDefaultInstance().getOperinstruct();
+        bitField0_ = (bitField0_ & ~0x00040000);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string operinstruct = 19;</code>
+       * @param value The bytes for operinstruct to set.
+       * @return This builder for chaining.
+       */
+      public Builder setOperinstructBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        operinstruct_ = value;
+        bitField0_ |= 0x00040000;
+        onChanged();
+        return this;
+      }
+
+      private com.google.protobuf.LazyStringArrayList loggroup_ =
+          com.google.protobuf.LazyStringArrayList.emptyList();
+      private void ensureLoggroupIsMutable() {
+        if (!loggroup_.isModifiable()) {
+          loggroup_ = new com.google.protobuf.LazyStringArrayList(loggroup_);
+        }
+        bitField0_ |= 0x00080000;
+      }
+      /**
+       * <code>repeated string loggroup = 20;</code>
+       * @return A list containing the loggroup.
+       */
+      public com.google.protobuf.ProtocolStringList
+          getLoggroupList() {
+        loggroup_.makeImmutable();
+        return loggroup_;
+      }
+      /**
+       * <code>repeated string loggroup = 20;</code>
+       * @return The count of loggroup.
+       */
+      public int getLoggroupCount() {
+        return loggroup_.size();
+      }
+      /**
+       * <code>repeated string loggroup = 20;</code>
+       * @param index The index of the element to return.
+       * @return The loggroup at the given index.
+       */
+      public java.lang.String getLoggroup(int index) {
+        return loggroup_.get(index);
+      }
+      /**
+       * <code>repeated string loggroup = 20;</code>
+       * @param index The index of the value to return.
+       * @return The bytes of the loggroup at the given index.
+       */
+      public com.google.protobuf.ByteString
+          getLoggroupBytes(int index) {
+        return loggroup_.getByteString(index);
+      }
+      /**
+       * <code>repeated string loggroup = 20;</code>
+       * @param index The index to set the value at.
+       * @param value The loggroup to set.
+       * @return This builder for chaining.
+       */
+      public Builder setLoggroup(
+          int index, java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        ensureLoggroupIsMutable();
+        loggroup_.set(index, value);
+        bitField0_ |= 0x00080000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string loggroup = 20;</code>
+       * @param value The loggroup to add.
+       * @return This builder for chaining.
+       */
+      public Builder addLoggroup(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        ensureLoggroupIsMutable();
+        loggroup_.add(value);
+        bitField0_ |= 0x00080000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string loggroup = 20;</code>
+       * @param values The loggroup to add.
+       * @return This builder for chaining.
+       */
+      public Builder addAllLoggroup(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureLoggroupIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, loggroup_);
+        bitField0_ |= 0x00080000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string loggroup = 20;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearLoggroup() {
+        loggroup_ =
+          com.google.protobuf.LazyStringArrayList.emptyList();
+        bitField0_ = (bitField0_ & ~0x00080000);;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated string loggroup = 20;</code>
+       * @param value The bytes of the loggroup to add.
+       * @return This builder for chaining.
+       */
+      public Builder addLoggroupBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        ensureLoggroupIsMutable();
+        loggroup_.add(value);
+        bitField0_ |= 0x00080000;
+        onChanged();
+        return this;
+      }
+
+      private int ifIndex_ ;
+      /**
+       * <code>optional int32 if_index = 21;</code>
+       * @return Whether the ifIndex field is set.
+       */
+      @java.lang.Override
+      public boolean hasIfIndex() {
+        return ((bitField0_ & 0x00100000) != 0);
+      }
+      /**
+       * <code>optional int32 if_index = 21;</code>
+       * @return The ifIndex.
+       */
+      @java.lang.Override
+      public int getIfIndex() {
+        return ifIndex_;
+      }
+      /**
+       * <code>optional int32 if_index = 21;</code>
+       * @param value The ifIndex to set.
+       * @return This builder for chaining.
+       */
+      public Builder setIfIndex(int value) {
+
+        ifIndex_ = value;
+        bitField0_ |= 0x00100000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional int32 if_index = 21;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearIfIndex() {
+        bitField0_ = (bitField0_ & ~0x00100000);
+        ifIndex_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object ifAlias_ = "";
+      /**
+       * <code>optional string if_alias = 22;</code>
+       * @return Whether the ifAlias field is set.
+       */
+      public boolean hasIfAlias() {
+        return ((bitField0_ & 0x00200000) != 0);
+      }
+      /**
+       * <code>optional string if_alias = 22;</code>
+       * @return The ifAlias.
+       */
+      public java.lang.String getIfAlias() {
+        java.lang.Object ref = ifAlias_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            ifAlias_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string if_alias = 22;</code>
+       * @return The bytes for ifAlias.
+       */
+      public com.google.protobuf.ByteString
+          getIfAliasBytes() {
+        java.lang.Object ref = ifAlias_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          ifAlias_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string if_alias = 22;</code>
+       * @param value The ifAlias to set.
+       * @return This builder for chaining.
+       */
+      public Builder setIfAlias(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        ifAlias_ = value;
+        bitField0_ |= 0x00200000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string if_alias = 22;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearIfAlias() {
+        ifAlias_ = getDefaultInstance().getIfAlias();
+        bitField0_ = (bitField0_ & ~0x00200000);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string if_alias = 22;</code>
+       * @param value The bytes for ifAlias to set.
+       * @return This builder for chaining.
+       */
+      public Builder setIfAliasBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        ifAlias_ = value;
+        bitField0_ |= 0x00200000;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object mouseovertext_ = "";
+      /**
+       * <code>optional string mouseovertext = 23;</code>
+       * @return Whether the mouseovertext field is set.
+       */
+      public boolean hasMouseovertext() {
+        return ((bitField0_ & 0x00400000) != 0);
+      }
+      /**
+       * <code>optional string mouseovertext = 23;</code>
+       * @return The mouseovertext.
+       */
+      public java.lang.String getMouseovertext() {
+        java.lang.Object ref = mouseovertext_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            mouseovertext_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string mouseovertext = 23;</code>
+       * @return The bytes for mouseovertext.
+       */
+      public com.google.protobuf.ByteString
+          getMouseovertextBytes() {
+        java.lang.Object ref = mouseovertext_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          mouseovertext_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string mouseovertext = 23;</code>
+       * @param value The mouseovertext to set.
+       * @return This builder for chaining.
+       */
+      public Builder setMouseovertext(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        mouseovertext_ = value;
+        bitField0_ |= 0x00400000;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string mouseovertext = 23;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearMouseovertext() {
+        mouseovertext_ = getDefaultInstance().getMouseovertext();
+        bitField0_ = (bitField0_ & ~0x00400000);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string mouseovertext = 23;</code>
+       * @param value The bytes for mouseovertext to set.
+       * @return This builder for chaining.
+       */
+      public Builder setMouseovertextBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        mouseovertext_ = value;
+        bitField0_ |= 0x00400000;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:Event)
+    }
+
+    // @@protoc_insertion_point(class_scope:Event)
+    private static final org.opennms.features.events.sink.module.EventSinkProtos.Event DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.opennms.features.events.sink.module.EventSinkProtos.Event();
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Event getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Event>
+        PARSER = new com.google.protobuf.AbstractParser<Event>() {
+      @java.lang.Override
+      public Event parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<Event> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Event> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.Event getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface ParmOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:Parm)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>optional string name = 1;</code>
+     * @return Whether the name field is set.
+     */
+    boolean hasName();
+    /**
+     * <code>optional string name = 1;</code>
+     * @return The name.
+     */
+    java.lang.String getName();
+    /**
+     * <code>optional string name = 1;</code>
+     * @return The bytes for name.
+     */
+    com.google.protobuf.ByteString
+        getNameBytes();
+
+    /**
+     * <code>optional .Value value = 2;</code>
+     * @return Whether the value field is set.
+     */
+    boolean hasValue();
+    /**
+     * <code>optional .Value value = 2;</code>
+     * @return The value.
+     */
+    org.opennms.features.events.sink.module.EventSinkProtos.Value getValue();
+    /**
+     * <code>optional .Value value = 2;</code>
+     */
+    org.opennms.features.events.sink.module.EventSinkProtos.ValueOrBuilder getValueOrBuilder();
+  }
+  /**
+   * Protobuf type {@code Parm}
+   */
+  public static final class Parm extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:Parm)
+      ParmOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use Parm.newBuilder() to construct.
+    private Parm(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private Parm() {
+      name_ = "";
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new Parm();
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Parm_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Parm_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.opennms.features.events.sink.module.EventSinkProtos.Parm.class, org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int NAME_FIELD_NUMBER = 1;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object name_ = "";
+    /**
+     * <code>optional string name = 1;</code>
+     * @return Whether the name field is set.
+     */
+    @java.lang.Override
+    public boolean hasName() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <code>optional string name = 1;</code>
+     * @return The name.
+     */
+    @java.lang.Override
+    public java.lang.String getName() {
+      java.lang.Object ref = name_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          name_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string name = 1;</code>
+     * @return The bytes for name.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getNameBytes() {
+      java.lang.Object ref = name_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        name_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int VALUE_FIELD_NUMBER = 2;
+    private org.opennms.features.events.sink.module.EventSinkProtos.Value value_;
+    /**
+     * <code>optional .Value value = 2;</code>
+     * @return Whether the value field is set.
+     */
+    @java.lang.Override
+    public boolean hasValue() {
+      return ((bitField0_ & 0x00000002) != 0);
+    }
+    /**
+     * <code>optional .Value value = 2;</code>
+     * @return The value.
+     */
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.Value getValue() {
+      return value_ == null ? org.opennms.features.events.sink.module.EventSinkProtos.Value.getDefaultInstance() : value_;
+    }
+    /**
+     * <code>optional .Value value = 2;</code>
+     */
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.ValueOrBuilder getValueOrBuilder() {
+      return value_ == null ? org.opennms.features.events.sink.module.EventSinkProtos.Value.getDefaultInstance() : value_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, name_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        output.writeMessage(2, getValue());
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, name_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(2, getValue());
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.opennms.features.events.sink.module.EventSinkProtos.Parm)) {
+        return super.equals(obj);
+      }
+      org.opennms.features.events.sink.module.EventSinkProtos.Parm other = (org.opennms.features.events.sink.module.EventSinkProtos.Parm) obj;
+
+      if (hasName() != other.hasName()) return false;
+      if (hasName()) {
+        if (!getName()
+            .equals(other.getName())) return false;
+      }
+      if (hasValue() != other.hasValue()) return false;
+      if (hasValue()) {
+        if (!getValue()
+            .equals(other.getValue())) return false;
+      }
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasName()) {
+        hash = (37 * hash) + NAME_FIELD_NUMBER;
+        hash = (53 * hash) + getName().hashCode();
+      }
+      if (hasValue()) {
+        hash = (37 * hash) + VALUE_FIELD_NUMBER;
+        hash = (53 * hash) + getValue().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.opennms.features.events.sink.module.EventSinkProtos.Parm prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code Parm}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:Parm)
+        org.opennms.features.events.sink.module.EventSinkProtos.ParmOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Parm_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Parm_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.opennms.features.events.sink.module.EventSinkProtos.Parm.class, org.opennms.features.events.sink.module.EventSinkProtos.Parm.Builder.class);
+      }
+
+      // Construct using org.opennms.features.events.sink.module.EventSinkProtos.Parm.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getValueFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        name_ = "";
+        value_ = null;
+        if (valueBuilder_ != null) {
+          valueBuilder_.dispose();
+          valueBuilder_ = null;
+        }
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Parm_descriptor;
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Parm getDefaultInstanceForType() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.Parm.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Parm build() {
+        org.opennms.features.events.sink.module.EventSinkProtos.Parm result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Parm buildPartial() {
+        org.opennms.features.events.sink.module.EventSinkProtos.Parm result = new org.opennms.features.events.sink.module.EventSinkProtos.Parm(this);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartial0(org.opennms.features.events.sink.module.EventSinkProtos.Parm result) {
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          result.name_ = name_;
+          to_bitField0_ |= 0x00000001;
+        }
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          result.value_ = valueBuilder_ == null
+              ? value_
+              : valueBuilder_.build();
+          to_bitField0_ |= 0x00000002;
+        }
+        result.bitField0_ |= to_bitField0_;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.opennms.features.events.sink.module.EventSinkProtos.Parm) {
+          return mergeFrom((org.opennms.features.events.sink.module.EventSinkProtos.Parm)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.opennms.features.events.sink.module.EventSinkProtos.Parm other) {
+        if (other == org.opennms.features.events.sink.module.EventSinkProtos.Parm.getDefaultInstance()) return this;
+        if (other.hasName()) {
+          name_ = other.name_;
+          bitField0_ |= 0x00000001;
+          onChanged();
+        }
+        if (other.hasValue()) {
+          mergeValue(other.getValue());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 10: {
+                name_ = input.readBytes();
+                bitField0_ |= 0x00000001;
+                break;
+              } // case 10
+              case 18: {
+                input.readMessage(
+                    getValueFieldBuilder().getBuilder(),
+                    extensionRegistry);
+                bitField0_ |= 0x00000002;
+                break;
+              } // case 18
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object name_ = "";
+      /**
+       * <code>optional string name = 1;</code>
+       * @return Whether the name field is set.
+       */
+      public boolean hasName() {
+        return ((bitField0_ & 0x00000001) != 0);
+      }
+      /**
+       * <code>optional string name = 1;</code>
+       * @return The name.
+       */
+      public java.lang.String getName() {
+        java.lang.Object ref = name_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            name_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string name = 1;</code>
+       * @return The bytes for name.
+       */
+      public com.google.protobuf.ByteString
+          getNameBytes() {
+        java.lang.Object ref = name_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          name_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string name = 1;</code>
+       * @param value The name to set.
+       * @return This builder for chaining.
+       */
+      public Builder setName(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        name_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string name = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearName() {
+        name_ = getDefaultInstance().getName();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string name = 1;</code>
+       * @param value The bytes for name to set.
+       * @return This builder for chaining.
+       */
+      public Builder setNameBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        name_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+
+      private org.opennms.features.events.sink.module.EventSinkProtos.Value value_;
+      private com.google.protobuf.SingleFieldBuilderV3<
+          org.opennms.features.events.sink.module.EventSinkProtos.Value, org.opennms.features.events.sink.module.EventSinkProtos.Value.Builder, org.opennms.features.events.sink.module.EventSinkProtos.ValueOrBuilder> valueBuilder_;
+      /**
+       * <code>optional .Value value = 2;</code>
+       * @return Whether the value field is set.
+       */
+      public boolean hasValue() {
+        return ((bitField0_ & 0x00000002) != 0);
+      }
+      /**
+       * <code>optional .Value value = 2;</code>
+       * @return The value.
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Value getValue() {
+        if (valueBuilder_ == null) {
+          return value_ == null ? org.opennms.features.events.sink.module.EventSinkProtos.Value.getDefaultInstance() : value_;
+        } else {
+          return valueBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .Value value = 2;</code>
+       */
+      public Builder setValue(org.opennms.features.events.sink.module.EventSinkProtos.Value value) {
+        if (valueBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          value_ = value;
+        } else {
+          valueBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .Value value = 2;</code>
+       */
+      public Builder setValue(
+          org.opennms.features.events.sink.module.EventSinkProtos.Value.Builder builderForValue) {
+        if (valueBuilder_ == null) {
+          value_ = builderForValue.build();
+        } else {
+          valueBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .Value value = 2;</code>
+       */
+      public Builder mergeValue(org.opennms.features.events.sink.module.EventSinkProtos.Value value) {
+        if (valueBuilder_ == null) {
+          if (((bitField0_ & 0x00000002) != 0) &&
+            value_ != null &&
+            value_ != org.opennms.features.events.sink.module.EventSinkProtos.Value.getDefaultInstance()) {
+            getValueBuilder().mergeFrom(value);
+          } else {
+            value_ = value;
+          }
+        } else {
+          valueBuilder_.mergeFrom(value);
+        }
+        if (value_ != null) {
+          bitField0_ |= 0x00000002;
+          onChanged();
+        }
+        return this;
+      }
+      /**
+       * <code>optional .Value value = 2;</code>
+       */
+      public Builder clearValue() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        value_ = null;
+        if (valueBuilder_ != null) {
+          valueBuilder_.dispose();
+          valueBuilder_ = null;
+        }
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .Value value = 2;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.Value.Builder getValueBuilder() {
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return getValueFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .Value value = 2;</code>
+       */
+      public org.opennms.features.events.sink.module.EventSinkProtos.ValueOrBuilder getValueOrBuilder() {
+        if (valueBuilder_ != null) {
+          return valueBuilder_.getMessageOrBuilder();
+        } else {
+          return value_ == null ?
+              org.opennms.features.events.sink.module.EventSinkProtos.Value.getDefaultInstance() : value_;
+        }
+      }
+      /**
+       * <code>optional .Value value = 2;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilderV3<
+          org.opennms.features.events.sink.module.EventSinkProtos.Value, org.opennms.features.events.sink.module.EventSinkProtos.Value.Builder, org.opennms.features.events.sink.module.EventSinkProtos.ValueOrBuilder> 
+          getValueFieldBuilder() {
+        if (valueBuilder_ == null) {
+          valueBuilder_ = new com.google.protobuf.SingleFieldBuilderV3<
+              org.opennms.features.events.sink.module.EventSinkProtos.Value, org.opennms.features.events.sink.module.EventSinkProtos.Value.Builder, org.opennms.features.events.sink.module.EventSinkProtos.ValueOrBuilder>(
+                  getValue(),
+                  getParentForChildren(),
+                  isClean());
+          value_ = null;
+        }
+        return valueBuilder_;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:Parm)
+    }
+
+    // @@protoc_insertion_point(class_scope:Parm)
+    private static final org.opennms.features.events.sink.module.EventSinkProtos.Parm DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.opennms.features.events.sink.module.EventSinkProtos.Parm();
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Parm getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Parm>
+        PARSER = new com.google.protobuf.AbstractParser<Parm>() {
+      @java.lang.Override
+      public Parm parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<Parm> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Parm> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.Parm getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface ValueOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:Value)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>optional string content = 1;</code>
+     * @return Whether the content field is set.
+     */
+    boolean hasContent();
+    /**
+     * <code>optional string content = 1;</code>
+     * @return The content.
+     */
+    java.lang.String getContent();
+    /**
+     * <code>optional string content = 1;</code>
+     * @return The bytes for content.
+     */
+    com.google.protobuf.ByteString
+        getContentBytes();
+
+    /**
+     * <code>optional string type = 2;</code>
+     * @return Whether the type field is set.
+     */
+    boolean hasType();
+    /**
+     * <code>optional string type = 2;</code>
+     * @return The type.
+     */
+    java.lang.String getType();
+    /**
+     * <code>optional string type = 2;</code>
+     * @return The bytes for type.
+     */
+    com.google.protobuf.ByteString
+        getTypeBytes();
+
+    /**
+     * <code>optional string encoding = 3;</code>
+     * @return Whether the encoding field is set.
+     */
+    boolean hasEncoding();
+    /**
+     * <code>optional string encoding = 3;</code>
+     * @return The encoding.
+     */
+    java.lang.String getEncoding();
+    /**
+     * <code>optional string encoding = 3;</code>
+     * @return The bytes for encoding.
+     */
+    com.google.protobuf.ByteString
+        getEncodingBytes();
+  }
+  /**
+   * Protobuf type {@code Value}
+   */
+  public static final class Value extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:Value)
+      ValueOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use Value.newBuilder() to construct.
+    private Value(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private Value() {
+      content_ = "";
+      type_ = "";
+      encoding_ = "";
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new Value();
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Value_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Value_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.opennms.features.events.sink.module.EventSinkProtos.Value.class, org.opennms.features.events.sink.module.EventSinkProtos.Value.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int CONTENT_FIELD_NUMBER = 1;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object content_ = "";
+    /**
+     * <code>optional string content = 1;</code>
+     * @return Whether the content field is set.
+     */
+    @java.lang.Override
+    public boolean hasContent() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <code>optional string content = 1;</code>
+     * @return The content.
+     */
+    @java.lang.Override
+    public java.lang.String getContent() {
+      java.lang.Object ref = content_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          content_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string content = 1;</code>
+     * @return The bytes for content.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getContentBytes() {
+      java.lang.Object ref = content_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        content_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int TYPE_FIELD_NUMBER = 2;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object type_ = "";
+    /**
+     * <code>optional string type = 2;</code>
+     * @return Whether the type field is set.
+     */
+    @java.lang.Override
+    public boolean hasType() {
+      return ((bitField0_ & 0x00000002) != 0);
+    }
+    /**
+     * <code>optional string type = 2;</code>
+     * @return The type.
+     */
+    @java.lang.Override
+    public java.lang.String getType() {
+      java.lang.Object ref = type_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          type_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string type = 2;</code>
+     * @return The bytes for type.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getTypeBytes() {
+      java.lang.Object ref = type_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        type_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int ENCODING_FIELD_NUMBER = 3;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object encoding_ = "";
+    /**
+     * <code>optional string encoding = 3;</code>
+     * @return Whether the encoding field is set.
+     */
+    @java.lang.Override
+    public boolean hasEncoding() {
+      return ((bitField0_ & 0x00000004) != 0);
+    }
+    /**
+     * <code>optional string encoding = 3;</code>
+     * @return The encoding.
+     */
+    @java.lang.Override
+    public java.lang.String getEncoding() {
+      java.lang.Object ref = encoding_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          encoding_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string encoding = 3;</code>
+     * @return The bytes for encoding.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getEncodingBytes() {
+      java.lang.Object ref = encoding_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        encoding_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, content_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, type_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, encoding_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, content_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, type_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, encoding_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.opennms.features.events.sink.module.EventSinkProtos.Value)) {
+        return super.equals(obj);
+      }
+      org.opennms.features.events.sink.module.EventSinkProtos.Value other = (org.opennms.features.events.sink.module.EventSinkProtos.Value) obj;
+
+      if (hasContent() != other.hasContent()) return false;
+      if (hasContent()) {
+        if (!getContent()
+            .equals(other.getContent())) return false;
+      }
+      if (hasType() != other.hasType()) return false;
+      if (hasType()) {
+        if (!getType()
+            .equals(other.getType())) return false;
+      }
+      if (hasEncoding() != other.hasEncoding()) return false;
+      if (hasEncoding()) {
+        if (!getEncoding()
+            .equals(other.getEncoding())) return false;
+      }
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasContent()) {
+        hash = (37 * hash) + CONTENT_FIELD_NUMBER;
+        hash = (53 * hash) + getContent().hashCode();
+      }
+      if (hasType()) {
+        hash = (37 * hash) + TYPE_FIELD_NUMBER;
+        hash = (53 * hash) + getType().hashCode();
+      }
+      if (hasEncoding()) {
+        hash = (37 * hash) + ENCODING_FIELD_NUMBER;
+        hash = (53 * hash) + getEncoding().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.opennms.features.events.sink.module.EventSinkProtos.Value prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code Value}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:Value)
+        org.opennms.features.events.sink.module.EventSinkProtos.ValueOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Value_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Value_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.opennms.features.events.sink.module.EventSinkProtos.Value.class, org.opennms.features.events.sink.module.EventSinkProtos.Value.Builder.class);
+      }
+
+      // Construct using org.opennms.features.events.sink.module.EventSinkProtos.Value.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        content_ = "";
+        type_ = "";
+        encoding_ = "";
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Value_descriptor;
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Value getDefaultInstanceForType() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.Value.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Value build() {
+        org.opennms.features.events.sink.module.EventSinkProtos.Value result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Value buildPartial() {
+        org.opennms.features.events.sink.module.EventSinkProtos.Value result = new org.opennms.features.events.sink.module.EventSinkProtos.Value(this);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartial0(org.opennms.features.events.sink.module.EventSinkProtos.Value result) {
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          result.content_ = content_;
+          to_bitField0_ |= 0x00000001;
+        }
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          result.type_ = type_;
+          to_bitField0_ |= 0x00000002;
+        }
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          result.encoding_ = encoding_;
+          to_bitField0_ |= 0x00000004;
+        }
+        result.bitField0_ |= to_bitField0_;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.opennms.features.events.sink.module.EventSinkProtos.Value) {
+          return mergeFrom((org.opennms.features.events.sink.module.EventSinkProtos.Value)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.opennms.features.events.sink.module.EventSinkProtos.Value other) {
+        if (other == org.opennms.features.events.sink.module.EventSinkProtos.Value.getDefaultInstance()) return this;
+        if (other.hasContent()) {
+          content_ = other.content_;
+          bitField0_ |= 0x00000001;
+          onChanged();
+        }
+        if (other.hasType()) {
+          type_ = other.type_;
+          bitField0_ |= 0x00000002;
+          onChanged();
+        }
+        if (other.hasEncoding()) {
+          encoding_ = other.encoding_;
+          bitField0_ |= 0x00000004;
+          onChanged();
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 10: {
+                content_ = input.readBytes();
+                bitField0_ |= 0x00000001;
+                break;
+              } // case 10
+              case 18: {
+                type_ = input.readBytes();
+                bitField0_ |= 0x00000002;
+                break;
+              } // case 18
+              case 26: {
+                encoding_ = input.readBytes();
+                bitField0_ |= 0x00000004;
+                break;
+              } // case 26
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object content_ = "";
+      /**
+       * <code>optional string content = 1;</code>
+       * @return Whether the content field is set.
+       */
+      public boolean hasContent() {
+        return ((bitField0_ & 0x00000001) != 0);
+      }
+      /**
+       * <code>optional string content = 1;</code>
+       * @return The content.
+       */
+      public java.lang.String getContent() {
+        java.lang.Object ref = content_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            content_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string content = 1;</code>
+       * @return The bytes for content.
+       */
+      public com.google.protobuf.ByteString
+          getContentBytes() {
+        java.lang.Object ref = content_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          content_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string content = 1;</code>
+       * @param value The content to set.
+       * @return This builder for chaining.
+       */
+      public Builder setContent(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        content_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string content = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearContent() {
+        content_ = getDefaultInstance().getContent();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string content = 1;</code>
+       * @param value The bytes for content to set.
+       * @return This builder for chaining.
+       */
+      public Builder setContentBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        content_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object type_ = "";
+      /**
+       * <code>optional string type = 2;</code>
+       * @return Whether the type field is set.
+       */
+      public boolean hasType() {
+        return ((bitField0_ & 0x00000002) != 0);
+      }
+      /**
+       * <code>optional string type = 2;</code>
+       * @return The type.
+       */
+      public java.lang.String getType() {
+        java.lang.Object ref = type_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            type_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string type = 2;</code>
+       * @return The bytes for type.
+       */
+      public com.google.protobuf.ByteString
+          getTypeBytes() {
+        java.lang.Object ref = type_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          type_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string type = 2;</code>
+       * @param value The type to set.
+       * @return This builder for chaining.
+       */
+      public Builder setType(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        type_ = value;
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string type = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearType() {
+        type_ = getDefaultInstance().getType();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string type = 2;</code>
+       * @param value The bytes for type to set.
+       * @return This builder for chaining.
+       */
+      public Builder setTypeBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        type_ = value;
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object encoding_ = "";
+      /**
+       * <code>optional string encoding = 3;</code>
+       * @return Whether the encoding field is set.
+       */
+      public boolean hasEncoding() {
+        return ((bitField0_ & 0x00000004) != 0);
+      }
+      /**
+       * <code>optional string encoding = 3;</code>
+       * @return The encoding.
+       */
+      public java.lang.String getEncoding() {
+        java.lang.Object ref = encoding_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            encoding_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string encoding = 3;</code>
+       * @return The bytes for encoding.
+       */
+      public com.google.protobuf.ByteString
+          getEncodingBytes() {
+        java.lang.Object ref = encoding_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          encoding_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string encoding = 3;</code>
+       * @param value The encoding to set.
+       * @return This builder for chaining.
+       */
+      public Builder setEncoding(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        encoding_ = value;
+        bitField0_ |= 0x00000004;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string encoding = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearEncoding() {
+        encoding_ = getDefaultInstance().getEncoding();
+        bitField0_ = (bitField0_ & ~0x00000004);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string encoding = 3;</code>
+       * @param value The bytes for encoding to set.
+       * @return This builder for chaining.
+       */
+      public Builder setEncodingBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        encoding_ = value;
+        bitField0_ |= 0x00000004;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:Value)
+    }
+
+    // @@protoc_insertion_point(class_scope:Value)
+    private static final org.opennms.features.events.sink.module.EventSinkProtos.Value DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.opennms.features.events.sink.module.EventSinkProtos.Value();
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Value getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Value>
+        PARSER = new com.google.protobuf.AbstractParser<Value>() {
+      @java.lang.Override
+      public Value parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<Value> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Value> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.Value getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface LogmsgOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:Logmsg)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>optional string content = 1;</code>
+     * @return Whether the content field is set.
+     */
+    boolean hasContent();
+    /**
+     * <code>optional string content = 1;</code>
+     * @return The content.
+     */
+    java.lang.String getContent();
+    /**
+     * <code>optional string content = 1;</code>
+     * @return The bytes for content.
+     */
+    com.google.protobuf.ByteString
+        getContentBytes();
+
+    /**
+     * <code>optional bool notify = 2;</code>
+     * @return Whether the notify field is set.
+     */
+    boolean hasNotify();
+    /**
+     * <code>optional bool notify = 2;</code>
+     * @return The notify.
+     */
+    boolean getNotify();
+
+    /**
+     * <code>optional string dest = 3;</code>
+     * @return Whether the dest field is set.
+     */
+    boolean hasDest();
+    /**
+     * <code>optional string dest = 3;</code>
+     * @return The dest.
+     */
+    java.lang.String getDest();
+    /**
+     * <code>optional string dest = 3;</code>
+     * @return The bytes for dest.
+     */
+    com.google.protobuf.ByteString
+        getDestBytes();
+  }
+  /**
+   * Protobuf type {@code Logmsg}
+   */
+  public static final class Logmsg extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:Logmsg)
+      LogmsgOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use Logmsg.newBuilder() to construct.
+    private Logmsg(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private Logmsg() {
+      content_ = "";
+      dest_ = "";
+    }
+
+    @java.lang.Override
+    @SuppressWarnings({"unused"})
+    protected java.lang.Object newInstance(
+        UnusedPrivateParameter unused) {
+      return new Logmsg();
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Logmsg_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Logmsg_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.class, org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int CONTENT_FIELD_NUMBER = 1;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object content_ = "";
+    /**
+     * <code>optional string content = 1;</code>
+     * @return Whether the content field is set.
+     */
+    @java.lang.Override
+    public boolean hasContent() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <code>optional string content = 1;</code>
+     * @return The content.
+     */
+    @java.lang.Override
+    public java.lang.String getContent() {
+      java.lang.Object ref = content_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          content_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string content = 1;</code>
+     * @return The bytes for content.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getContentBytes() {
+      java.lang.Object ref = content_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        content_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int NOTIFY_FIELD_NUMBER = 2;
+    private boolean notify_ = false;
+    /**
+     * <code>optional bool notify = 2;</code>
+     * @return Whether the notify field is set.
+     */
+    @java.lang.Override
+    public boolean hasNotify() {
+      return ((bitField0_ & 0x00000002) != 0);
+    }
+    /**
+     * <code>optional bool notify = 2;</code>
+     * @return The notify.
+     */
+    @java.lang.Override
+    public boolean getNotify() {
+      return notify_;
+    }
+
+    public static final int DEST_FIELD_NUMBER = 3;
+    @SuppressWarnings("serial")
+    private volatile java.lang.Object dest_ = "";
+    /**
+     * <code>optional string dest = 3;</code>
+     * @return Whether the dest field is set.
+     */
+    @java.lang.Override
+    public boolean hasDest() {
+      return ((bitField0_ & 0x00000004) != 0);
+    }
+    /**
+     * <code>optional string dest = 3;</code>
+     * @return The dest.
+     */
+    @java.lang.Override
+    public java.lang.String getDest() {
+      java.lang.Object ref = dest_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          dest_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string dest = 3;</code>
+     * @return The bytes for dest.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString
+        getDestBytes() {
+      java.lang.Object ref = dest_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        dest_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, content_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        output.writeBool(2, notify_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, dest_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, content_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(2, notify_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, dest_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof org.opennms.features.events.sink.module.EventSinkProtos.Logmsg)) {
+        return super.equals(obj);
+      }
+      org.opennms.features.events.sink.module.EventSinkProtos.Logmsg other = (org.opennms.features.events.sink.module.EventSinkProtos.Logmsg) obj;
+
+      if (hasContent() != other.hasContent()) return false;
+      if (hasContent()) {
+        if (!getContent()
+            .equals(other.getContent())) return false;
+      }
+      if (hasNotify() != other.hasNotify()) return false;
+      if (hasNotify()) {
+        if (getNotify()
+            != other.getNotify()) return false;
+      }
+      if (hasDest() != other.hasDest()) return false;
+      if (hasDest()) {
+        if (!getDest()
+            .equals(other.getDest())) return false;
+      }
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasContent()) {
+        hash = (37 * hash) + CONTENT_FIELD_NUMBER;
+        hash = (53 * hash) + getContent().hashCode();
+      }
+      if (hasNotify()) {
+        hash = (37 * hash) + NOTIFY_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+            getNotify());
+      }
+      if (hasDest()) {
+        hash = (37 * hash) + DEST_FIELD_NUMBER;
+        hash = (53 * hash) + getDest().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(org.opennms.features.events.sink.module.EventSinkProtos.Logmsg prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code Logmsg}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:Logmsg)
+        org.opennms.features.events.sink.module.EventSinkProtos.LogmsgOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Logmsg_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Logmsg_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.class, org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.Builder.class);
+      }
+
+      // Construct using org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        content_ = "";
+        notify_ = false;
+        dest_ = "";
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.internal_static_Logmsg_descriptor;
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Logmsg getDefaultInstanceForType() {
+        return org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Logmsg build() {
+        org.opennms.features.events.sink.module.EventSinkProtos.Logmsg result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public org.opennms.features.events.sink.module.EventSinkProtos.Logmsg buildPartial() {
+        org.opennms.features.events.sink.module.EventSinkProtos.Logmsg result = new org.opennms.features.events.sink.module.EventSinkProtos.Logmsg(this);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartial0(org.opennms.features.events.sink.module.EventSinkProtos.Logmsg result) {
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          result.content_ = content_;
+          to_bitField0_ |= 0x00000001;
+        }
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          result.notify_ = notify_;
+          to_bitField0_ |= 0x00000002;
+        }
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          result.dest_ = dest_;
+          to_bitField0_ |= 0x00000004;
+        }
+        result.bitField0_ |= to_bitField0_;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof org.opennms.features.events.sink.module.EventSinkProtos.Logmsg) {
+          return mergeFrom((org.opennms.features.events.sink.module.EventSinkProtos.Logmsg)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(org.opennms.features.events.sink.module.EventSinkProtos.Logmsg other) {
+        if (other == org.opennms.features.events.sink.module.EventSinkProtos.Logmsg.getDefaultInstance()) return this;
+        if (other.hasContent()) {
+          content_ = other.content_;
+          bitField0_ |= 0x00000001;
+          onChanged();
+        }
+        if (other.hasNotify()) {
+          setNotify(other.getNotify());
+        }
+        if (other.hasDest()) {
+          dest_ = other.dest_;
+          bitField0_ |= 0x00000004;
+          onChanged();
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 10: {
+                content_ = input.readBytes();
+                bitField0_ |= 0x00000001;
+                break;
+              } // case 10
+              case 16: {
+                notify_ = input.readBool();
+                bitField0_ |= 0x00000002;
+                break;
+              } // case 16
+              case 26: {
+                dest_ = input.readBytes();
+                bitField0_ |= 0x00000004;
+                break;
+              } // case 26
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object content_ = "";
+      /**
+       * <code>optional string content = 1;</code>
+       * @return Whether the content field is set.
+       */
+      public boolean hasContent() {
+        return ((bitField0_ & 0x00000001) != 0);
+      }
+      /**
+       * <code>optional string content = 1;</code>
+       * @return The content.
+       */
+      public java.lang.String getContent() {
+        java.lang.Object ref = content_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            content_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string content = 1;</code>
+       * @return The bytes for content.
+       */
+      public com.google.protobuf.ByteString
+          getContentBytes() {
+        java.lang.Object ref = content_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          content_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string content = 1;</code>
+       * @param value The content to set.
+       * @return This builder for chaining.
+       */
+      public Builder setContent(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        content_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string content = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearContent() {
+        content_ = getDefaultInstance().getContent();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string content = 1;</code>
+       * @param value The bytes for content to set.
+       * @return This builder for chaining.
+       */
+      public Builder setContentBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        content_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+
+      private boolean notify_ ;
+      /**
+       * <code>optional bool notify = 2;</code>
+       * @return Whether the notify field is set.
+       */
+      @java.lang.Override
+      public boolean hasNotify() {
+        return ((bitField0_ & 0x00000002) != 0);
+      }
+      /**
+       * <code>optional bool notify = 2;</code>
+       * @return The notify.
+       */
+      @java.lang.Override
+      public boolean getNotify() {
+        return notify_;
+      }
+      /**
+       * <code>optional bool notify = 2;</code>
+       * @param value The notify to set.
+       * @return This builder for chaining.
+       */
+      public Builder setNotify(boolean value) {
+
+        notify_ = value;
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bool notify = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearNotify() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        notify_ = false;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object dest_ = "";
+      /**
+       * <code>optional string dest = 3;</code>
+       * @return Whether the dest field is set.
+       */
+      public boolean hasDest() {
+        return ((bitField0_ & 0x00000004) != 0);
+      }
+      /**
+       * <code>optional string dest = 3;</code>
+       * @return The dest.
+       */
+      public java.lang.String getDest() {
+        java.lang.Object ref = dest_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            dest_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string dest = 3;</code>
+       * @return The bytes for dest.
+       */
+      public com.google.protobuf.ByteString
+          getDestBytes() {
+        java.lang.Object ref = dest_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          dest_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string dest = 3;</code>
+       * @param value The dest to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDest(
+          java.lang.String value) {
+        if (value == null) { throw new NullPointerException(); }
+        dest_ = value;
+        bitField0_ |= 0x00000004;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string dest = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearDest() {
+        dest_ = getDefaultInstance().getDest();
+        bitField0_ = (bitField0_ & ~0x00000004);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string dest = 3;</code>
+       * @param value The bytes for dest to set.
+       * @return This builder for chaining.
+       */
+      public Builder setDestBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) { throw new NullPointerException(); }
+        dest_ = value;
+        bitField0_ |= 0x00000004;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:Logmsg)
+    }
+
+    // @@protoc_insertion_point(class_scope:Logmsg)
+    private static final org.opennms.features.events.sink.module.EventSinkProtos.Logmsg DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new org.opennms.features.events.sink.module.EventSinkProtos.Logmsg();
+    }
+
+    public static org.opennms.features.events.sink.module.EventSinkProtos.Logmsg getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Logmsg>
+        PARSER = new com.google.protobuf.AbstractParser<Logmsg>() {
+      @java.lang.Override
+      public Logmsg parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<Logmsg> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<Logmsg> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public org.opennms.features.events.sink.module.EventSinkProtos.Logmsg getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_Log_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_Log_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_Event_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_Event_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_Parm_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_Parm_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_Value_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_Value_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_Logmsg_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_Logmsg_fieldAccessorTable;
+
+  public static com.google.protobuf.Descriptors.FileDescriptor
+      getDescriptor() {
+    return descriptor;
+  }
+  private static  com.google.protobuf.Descriptors.FileDescriptor
+      descriptor;
+  static {
+    java.lang.String[] descriptorData = {
+      "\n\020event-sink.proto\"\035\n\003Log\022\026\n\006events\030\001 \003(" +
+      "\0132\006.Event\"\255\003\n\005Event\022\014\n\004uuid\030\001 \001(\t\022\014\n\004dbi" +
+      "d\030\002 \001(\005\022\023\n\013dist_poller\030\003 \001(\t\022\025\n\rcreation" +
+      "_time\030\004 \001(\003\022\026\n\016master_station\030\005 \001(\t\022\013\n\003u" +
+      "ei\030\006 \001(\t\022\016\n\006source\030\007 \001(\t\022\016\n\006nodeid\030\010 \001(\003" +
+      "\022\014\n\004time\030\t \001(\003\022\014\n\004host\030\n \001(\t\022\021\n\tinterfac" +
+      "e\030\013 \001(\014\022\020\n\010snmphost\030\014 \001(\t\022\017\n\007service\030\r \001" +
+      "(\t\022\024\n\005parms\030\016 \003(\0132\005.Parm\022\r\n\005descr\030\017 \001(\t\022" +
+      "\027\n\006logmsg\030\020 \001(\0132\007.Logmsg\022\020\n\010severity\030\021 \001" +
+      "(\t\022\022\n\npathoutage\030\022 \001(\t\022\024\n\014operinstruct\030\023" +
+      " \001(\t\022\020\n\010loggroup\030\024 \003(\t\022\020\n\010if_index\030\025 \001(\005" +
+      "\022\020\n\010if_alias\030\026 \001(\t\022\025\n\rmouseovertext\030\027 \001(" +
+      "\t\"+\n\004Parm\022\014\n\004name\030\001 \001(\t\022\025\n\005value\030\002 \001(\0132\006" +
+      ".Value\"8\n\005Value\022\017\n\007content\030\001 \001(\t\022\014\n\004type" +
+      "\030\002 \001(\t\022\020\n\010encoding\030\003 \001(\t\"7\n\006Logmsg\022\017\n\007co" +
+      "ntent\030\001 \001(\t\022\016\n\006notify\030\002 \001(\010\022\014\n\004dest\030\003 \001(" +
+      "\tB:\n\'org.opennms.features.events.sink.mo" +
+      "duleB\017EventSinkProtos"
+    };
+    descriptor = com.google.protobuf.Descriptors.FileDescriptor
+      .internalBuildGeneratedFileFrom(descriptorData,
+        new com.google.protobuf.Descriptors.FileDescriptor[] {
+        });
+    internal_static_Log_descriptor =
+      getDescriptor().getMessageTypes().get(0);
+    internal_static_Log_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_Log_descriptor,
+        new java.lang.String[] { "Events", });
+    internal_static_Event_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_Event_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_Event_descriptor,
+        new java.lang.String[] { "Uuid", "Dbid", "DistPoller", "CreationTime", "MasterStation", "Uei", "Source", "Nodeid", "Time", "Host", "Interface", "Snmphost", "Service", "Parms", "Descr", "Logmsg", "Severity", "Pathoutage", "Operinstruct", "Loggroup", "IfIndex", "IfAlias", "Mouseovertext", });
+    internal_static_Parm_descriptor =
+      getDescriptor().getMessageTypes().get(2);
+    internal_static_Parm_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_Parm_descriptor,
+        new java.lang.String[] { "Name", "Value", });
+    internal_static_Value_descriptor =
+      getDescriptor().getMessageTypes().get(3);
+    internal_static_Value_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_Value_descriptor,
+        new java.lang.String[] { "Content", "Type", "Encoding", });
+    internal_static_Logmsg_descriptor =
+      getDescriptor().getMessageTypes().get(4);
+    internal_static_Logmsg_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_Logmsg_descriptor,
+        new java.lang.String[] { "Content", "Notify", "Dest", });
+  }
+
+  // @@protoc_insertion_point(outer_class_scope)
+}
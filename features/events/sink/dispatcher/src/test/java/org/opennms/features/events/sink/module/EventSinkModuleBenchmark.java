@@ -0,0 +1,120 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.features.events.sink.module;
+
+import java.net.InetAddress;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule.Codec;
+import org.opennms.netmgt.xml.event.Event;
+import org.opennms.netmgt.xml.event.Log;
+import org.opennms.netmgt.xml.event.Logmsg;
+import org.opennms.netmgt.xml.event.Parm;
+
+/**
+ * Use the Java Microbenchmarking Harness (JMH) to compare the cost of marshaling and unmarshaling
+ * event logs as XML and as protobuf.
+ * <p>
+ * The reported scores are per event. Run with the "-prof gc" option to compare the allocation rates.
+ */
+public class EventSinkModuleBenchmark {
+
+    private static final int EVENTS = 100;
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    @State(Scope.Thread)
+    public static class BState {
+
+        @Param({"XML", "PROTOBUF"})
+        public Codec codec;
+
+        private EventSinkModule module;
+
+        private Log log;
+
+        private byte[] bytes;
+
+        @Setup
+        public void setup() throws Exception {
+            this.module = new EventSinkModule(null);
+            this.module.setCodec(this.codec);
+
+            this.log = new Log();
+            for (int i = 0; i < EVENTS; i++) {
+                final Event event = new Event();
+                event.setUei("uei.opennms.org/nodes/nodeDown");
+                event.setSource("EventSinkModuleBenchmark");
+                event.setTime(new Date());
+                event.setNodeid((long) i);
+                event.setInterfaceAddress(InetAddress.getByName("192.168.0." + (i % 255)));
+                event.setService("ICMP");
+                event.setSeverity("Major");
+                event.addParm(new Parm("location", "Default"));
+                event.addParm(new Parm("foreignSource", "NODES"));
+                event.addParm(new Parm("foreignId", Integer.toString(i)));
+                final Logmsg logmsg = new Logmsg();
+                logmsg.setContent("Node " + i + " is down");
+                event.setLogmsg(logmsg);
+                this.log.addEvent(event);
+            }
+            this.bytes = this.module.marshal(this.log);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(EVENTS)
+    public byte[] marshal(final BState state) {
+        return state.module.marshal(state.log);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(EVENTS)
+    public Log unmarshal(final BState state) {
+        return state.module.unmarshal(state.bytes);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.features.events.sink.module;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetAddress;
+import java.util.Date;
+
+import org.junit.Test;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule.Codec;
+import org.opennms.netmgt.xml.event.Event;
+import org.opennms.netmgt.xml.event.Log;
+import org.opennms.netmgt.xml.event.Logmsg;
+import org.opennms.netmgt.xml.event.Mask;
+import org.opennms.netmgt.xml.event.Parm;
+
+public class EventSinkModuleTest {
+
+    private final EventSinkModule module = new EventSinkModule(null);
+
+    @Test
+    public void canMarshalAndUnmarshalWithBothCodecs() throws Exception {
+        final Log log = new Log();
+        log.addEvent(event("uei.opennms.org/internal/discovery/newSuspect"));
+        log.addEvent(event("uei.opennms.org/nodes/nodeDown"));
+
+        module.setCodec(Codec.XML);
+        final byte[] xml = module.marshal(log);
+        assertFalse(AbstractProtobufSinkModule.isProtobuf(xml));
+
+        module.setCodec(Codec.PROTOBUF);
+        final byte[] protobuf = module.marshal(log);
+        assertTrue(AbstractProtobufSinkModule.isProtobuf(protobuf));
+        assertTrue(protobuf.length < xml.length);
+
+        // Both are accepted regardless of the configured codec
+        final Log fromProtobuf = module.unmarshal(protobuf);
+        final Log fromXml = module.unmarshal(xml);
+        assertEquals(2, fromProtobuf.getEvents().getEventCount());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(log.getEvents().getEvent(i).toString(), fromProtobuf.getEvents().getEvent(i).toString());
+            assertEquals(log.getEvents().getEvent(i).getUei(), fromXml.getEvents().getEvent(i).getUei());
+        }
+
+        final Event single = module.unmarshalSingleMessage(module.marshalSingleMessage(log.getEvents().getEvent(1)));
+        assertEquals("uei.opennms.org/nodes/nodeDown", single.getUei());
+    }
+
+    @Test
+    public void fallsBackToXmlForUnsupportedElements() throws Exception {
+        final Event event = event("uei.opennms.org/nodes/nodeDown");
+        event.setMask(new Mask());
+        final Log log = new Log();
+        log.addEvent(event);
+
+        module.setCodec(Codec.PROTOBUF);
+        final byte[] bytes = module.marshal(log);
+        assertFalse(AbstractProtobufSinkModule.isProtobuf(bytes));
+        assertEquals(event.getUei(), module.unmarshal(bytes).getEvents().getEvent(0).getUei());
+    }
+
+    private static Event event(String uei) throws Exception {
+        final Event event = new Event();
+        event.setUei(uei);
+        event.setSource("EventSinkModuleTest");
+        event.setTime(new Date());
+        event.setNodeid(1L);
+        event.setInterfaceAddress(InetAddress.getByName("192.168.0.1"));
+        event.setService("ICMP");
+        event.setSeverity("Major");
+        event.addParm(new Parm("location", "Default"));
+        event.addParm(new Parm("foreignSource", "NODES"));
+        final Logmsg logmsg = new Logmsg();
+        logmsg.setContent("Node is down");
+        event.setLogmsg(logmsg);
+        return event;
+    }
+}
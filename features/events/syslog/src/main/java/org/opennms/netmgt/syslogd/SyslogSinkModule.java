@@ -22,21 +22,32 @@
 package org.opennms.netmgt.syslogd;
 
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Date;
 import java.util.Objects;
 
 import org.opennms.core.ipc.sink.api.AggregationPolicy;
 import org.opennms.core.ipc.sink.api.AsyncPolicy;
-import org.opennms.core.ipc.sink.xml.AbstractXmlSinkModule;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule;
+import org.opennms.core.xml.ByteBufferXmlAdapter;
 import org.opennms.netmgt.config.SyslogdConfig;
 import org.opennms.netmgt.dao.api.DistPollerDao;
 import org.opennms.netmgt.syslogd.api.SyslogConnection;
 import org.opennms.netmgt.syslogd.api.SyslogMessageDTO;
 import org.opennms.netmgt.syslogd.api.SyslogMessageLogDTO;
 
-public class SyslogSinkModule extends AbstractXmlSinkModule<SyslogConnection, SyslogMessageLogDTO> {
+import com.google.protobuf.Parser;
+import com.google.protobuf.UnsafeByteOperations;
+
+public class SyslogSinkModule extends AbstractProtobufSinkModule<SyslogConnection, SyslogMessageLogDTO, SyslogSinkProtos.SyslogMessageLog> {
 
     public static final String MODULE_ID = "Syslog";
 
+    // Estimated size of the timestamp and the framing of a message, used for the byte budget
+    private static final int ESTIMATED_MESSAGE_OVERHEAD = 64;
+
+    private static final ByteBufferXmlAdapter BYTE_BUFFER_ADAPTER = new ByteBufferXmlAdapter();
+
     private final SyslogdConfig config;
     private final DistPollerDao distPollerDao;
 
@@ -76,6 +87,13 @@ public class SyslogSinkModule extends AbstractXmlSinkModule<SyslogConnection, Sy
                 return syslogConnection.getSource();
             }
 
+            @Override
+            public int getSizeInBytes(SyslogConnection syslogConnection) {
+                final int size = syslogConnection.getBuffer().remaining();
+                // The XML codec encodes the message in base64
+                return getCodec() == Codec.PROTOBUF ? size + ESTIMATED_MESSAGE_OVERHEAD : size * 4 / 3 + ESTIMATED_MESSAGE_OVERHEAD;
+            }
+
             @Override
             public SyslogMessageLogDTO aggregate(SyslogMessageLogDTO accumulator, SyslogConnection connection) {
                 if (accumulator == null) {
@@ -121,6 +139,63 @@ public class SyslogSinkModule extends AbstractXmlSinkModule<SyslogConnection, Sy
         return new SyslogConnection(inetSocketAddress, syslogMessageDTO.getBytes());
     }
 
+    @Override
+    protected Parser<SyslogSinkProtos.SyslogMessageLog> getProtoParser() {
+        return SyslogSinkProtos.SyslogMessageLog.parser();
+    }
+
+    @Override
+    protected SyslogSinkProtos.SyslogMessageLog toProto(SyslogMessageLogDTO messageLog) {
+        final SyslogSinkProtos.SyslogMessageLog.Builder builder = SyslogSinkProtos.SyslogMessageLog.newBuilder()
+                .setSourcePort(messageLog.getSourcePort());
+        if (messageLog.getSourceAddress() != null) {
+            builder.setSourceAddress(toByteString(messageLog.getSourceAddress()));
+        }
+        if (messageLog.getSystemId() != null) {
+            builder.setSystemId(messageLog.getSystemId());
+        }
+        if (messageLog.getLocation() != null) {
+            builder.setLocation(messageLog.getLocation());
+        }
+        for (SyslogMessageDTO message : messageLog.getMessages()) {
+            final SyslogSinkProtos.SyslogMessage.Builder messageBuilder = builder.addMessagesBuilder();
+            if (message.getTimestamp() != null) {
+                messageBuilder.setTimestamp(message.getTimestamp().getTime());
+            }
+            if (message.getBytes() != null) {
+                // Same bytes as the XML representation, wrapped without copying
+                messageBuilder.setBytes(UnsafeByteOperations.unsafeWrap(BYTE_BUFFER_ADAPTER.marshal(message.getBytes())));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    protected SyslogMessageLogDTO fromProto(SyslogSinkProtos.SyslogMessageLog proto) {
+        final SyslogMessageLogDTO messageLog = new SyslogMessageLogDTO();
+        if (proto.hasSourceAddress()) {
+            messageLog.setSourceAddress(toInetAddress(proto.getSourceAddress()));
+        }
+        messageLog.setSourcePort(proto.getSourcePort());
+        if (proto.hasSystemId()) {
+            messageLog.setSystemId(proto.getSystemId());
+        }
+        if (proto.hasLocation()) {
+            messageLog.setLocation(proto.getLocation());
+        }
+        for (SyslogSinkProtos.SyslogMessage protoMessage : proto.getMessagesList()) {
+            final SyslogMessageDTO message = new SyslogMessageDTO();
+            if (protoMessage.hasTimestamp()) {
+                message.setTimestamp(new Date(protoMessage.getTimestamp()));
+            }
+            if (protoMessage.hasBytes()) {
+                message.setBytes(ByteBuffer.wrap(protoMessage.getBytes().toByteArray()));
+            }
+            messageLog.getMessages().add(message);
+        }
+        return messageLog;
+    }
+
     /**
      * Used for testing.
      */
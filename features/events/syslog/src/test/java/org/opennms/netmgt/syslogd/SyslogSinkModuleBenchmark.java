@@ -0,0 +1,112 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.syslogd;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule.Codec;
+import org.opennms.netmgt.config.SyslogdConfig;
+import org.opennms.netmgt.dao.mock.MockDistPollerDao;
+import org.opennms.netmgt.syslogd.api.SyslogConnection;
+import org.opennms.netmgt.syslogd.api.SyslogMessageLogDTO;
+
+/**
+ * Use the Java Microbenchmarking Harness (JMH) to compare the cost of marshaling and unmarshaling
+ * syslog message logs as XML and as protobuf.
+ * <p>
+ * The reported scores are per syslog message. Run with the "-prof gc" option to compare the allocation rates.
+ */
+public class SyslogSinkModuleBenchmark {
+
+    private static final int MESSAGES = 100;
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    @State(Scope.Thread)
+    public static class BState {
+
+        @Param({"XML", "PROTOBUF"})
+        public Codec codec;
+
+        private SyslogSinkModule module;
+
+        private SyslogMessageLogDTO messageLog;
+
+        private byte[] bytes;
+
+        @Setup
+        public void setup() throws Exception {
+            this.module = new SyslogSinkModule(Mockito.mock(SyslogdConfig.class), new MockDistPollerDao());
+            this.module.setCodec(this.codec);
+
+            final SyslogConnection[] connections = new SyslogConnection[MESSAGES];
+            for (int i = 0; i < MESSAGES; i++) {
+                final String message = "<31>main: 2010-08-19 localhost foo" + i + ": load test " + i + " on tty1";
+                connections[i] = new SyslogConnection(new InetSocketAddress(InetAddress.getByName("192.168.1.1"), 514),
+                        ByteBuffer.wrap(message.getBytes(StandardCharsets.US_ASCII)));
+            }
+            this.messageLog = this.module.toMessageLog(connections);
+            this.bytes = this.module.marshal(this.messageLog);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(MESSAGES)
+    public byte[] marshal(final BState state) {
+        return state.module.marshal(state.messageLog);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(MESSAGES)
+    public SyslogMessageLogDTO unmarshal(final BState state) {
+        return state.module.unmarshal(state.bytes);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.syslogd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule.Codec;
+import org.opennms.netmgt.config.SyslogdConfig;
+import org.opennms.netmgt.dao.mock.MockDistPollerDao;
+import org.opennms.netmgt.syslogd.api.SyslogConnection;
+import org.opennms.netmgt.syslogd.api.SyslogMessageLogDTO;
+
+public class SyslogSinkModuleTest {
+
+    private SyslogSinkModule module;
+
+    @Before
+    public void setUp() {
+        module = new SyslogSinkModule(Mockito.mock(SyslogdConfig.class), new MockDistPollerDao());
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(AbstractProtobufSinkModule.CODEC_SYS_PROP);
+        System.clearProperty(AbstractProtobufSinkModule.CODEC_SYS_PROP + "." + SyslogSinkModule.MODULE_ID);
+    }
+
+    @Test
+    public void canMarshalAndUnmarshalWithBothCodecs() throws Exception {
+        final SyslogMessageLogDTO messageLog = module.toMessageLog(
+                connection("<31>main: 2010-08-19 localhost foo0: load test 0 on tty1"),
+                connection("<31>main: 2010-08-19 localhost foo1: load test 1 on tty1"));
+
+        module.setCodec(Codec.XML);
+        final byte[] xml = module.marshal(messageLog);
+        assertFalse(AbstractProtobufSinkModule.isProtobuf(xml));
+
+        module.setCodec(Codec.PROTOBUF);
+        final byte[] protobuf = module.marshal(messageLog);
+        assertTrue(AbstractProtobufSinkModule.isProtobuf(protobuf));
+        assertTrue(protobuf.length < xml.length);
+
+        // Both are accepted regardless of the configured codec
+        final SyslogMessageLogDTO fromProtobuf = module.unmarshal(protobuf);
+        assertEquals(messageLog, fromProtobuf);
+        final SyslogMessageLogDTO fromXml = module.unmarshal(xml);
+        assertEquals(messageLog.getMessages().size(), fromXml.getMessages().size());
+        assertEquals(messageLog.getMessages().get(1).getBytes(), fromXml.getMessages().get(1).getBytes());
+    }
+
+    @Test
+    public void canUnmarshalSingleMessage() throws Exception {
+        module.setCodec(Codec.PROTOBUF);
+        final SyslogConnection connection = connection("<31>main: 2010-08-19 localhost foo0: load test 0 on tty1");
+        final SyslogConnection unmarshaled = module.unmarshalSingleMessage(module.marshalSingleMessage(connection));
+        assertEquals(connection.getSource(), unmarshaled.getSource());
+        assertEquals(connection.getBuffer(), unmarshaled.getBuffer());
+    }
+
+    @Test
+    public void canSelectCodecWithSystemProperties() {
+        assertEquals(Codec.XML, new SyslogSinkModule(Mockito.mock(SyslogdConfig.class), new MockDistPollerDao()).getCodec());
+
+        System.setProperty(AbstractProtobufSinkModule.CODEC_SYS_PROP, "protobuf");
+        assertEquals(Codec.PROTOBUF, new SyslogSinkModule(Mockito.mock(SyslogdConfig.class), new MockDistPollerDao()).getCodec());
+
+        System.setProperty(AbstractProtobufSinkModule.CODEC_SYS_PROP + "." + SyslogSinkModule.MODULE_ID, "xml");
+        assertEquals(Codec.XML, new SyslogSinkModule(Mockito.mock(SyslogdConfig.class), new MockDistPollerDao()).getCodec());
+    }
+
+    private static SyslogConnection connection(String message) throws Exception {
+        return new SyslogConnection(new InetSocketAddress(InetAddress.getByName("192.168.1.1"), 514),
+                ByteBuffer.wrap(message.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
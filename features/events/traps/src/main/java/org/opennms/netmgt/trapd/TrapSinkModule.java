@@ -26,9 +26,14 @@ import java.util.Objects;
 
 import org.opennms.core.ipc.sink.api.AggregationPolicy;
 import org.opennms.core.ipc.sink.api.AsyncPolicy;
-import org.opennms.core.ipc.sink.xml.AbstractXmlSinkModule;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule;
 import org.opennms.netmgt.config.TrapdConfig;
 import org.opennms.netmgt.model.OnmsDistPoller;
+import org.opennms.netmgt.snmp.SnmpInstId;
+import org.opennms.netmgt.snmp.SnmpObjId;
+import org.opennms.netmgt.snmp.SnmpResult;
+import org.opennms.netmgt.snmp.SnmpUtils;
+import org.opennms.netmgt.snmp.SnmpValue;
 import org.opennms.netmgt.snmp.TrapInformation;
 import org.opennms.netmgt.snmp.snmp4j.Snmp4JStrategy;
 import org.opennms.netmgt.snmp.snmp4j.Snmp4JTrapNotifier;
@@ -37,10 +42,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.snmp4j.PDU;
 
-public class TrapSinkModule extends AbstractXmlSinkModule<TrapInformationWrapper, TrapLogDTO> {
+import com.google.protobuf.Parser;
+import com.google.protobuf.UnsafeByteOperations;
+
+public class TrapSinkModule extends AbstractProtobufSinkModule<TrapInformationWrapper, TrapLogDTO, TrapSinkProtos.TrapLog> {
 
     private static final Logger LOG = LoggerFactory.getLogger(TrapSinkModule.class);
 
+    // Estimated sizes of a marshaled trap, used for the byte budget
+    private static final int ESTIMATED_TRAP_OVERHEAD = 256;
+    private static final int ESTIMATED_VARBIND_SIZE_XML = 256;
+    private static final int ESTIMATED_VARBIND_SIZE_PROTOBUF = 48;
+
     private final TrapdConfig config;
 
     private OnmsDistPoller distPoller;
@@ -79,6 +92,18 @@ public class TrapSinkModule extends AbstractXmlSinkModule<TrapInformationWrapper
                 return message.getTrapAddress();
             }
 
+            @Override
+            public int getSizeInBytes(TrapInformationWrapper message) {
+                final int varbindSize = getCodec() == Codec.PROTOBUF ? ESTIMATED_VARBIND_SIZE_PROTOBUF : ESTIMATED_VARBIND_SIZE_XML;
+                final TrapInformation trapInfo = message.getTrapInformation();
+                if (trapInfo != null) {
+                    return ESTIMATED_TRAP_OVERHEAD + trapInfo.getPduLength() * varbindSize;
+                }
+                final TrapDTO trapDTO = message.getTrapDTO();
+                final int rawMessageSize = trapDTO.getRawMessage() != null ? trapDTO.getRawMessage().length : 0;
+                return ESTIMATED_TRAP_OVERHEAD + rawMessageSize + trapDTO.getResults().size() * varbindSize;
+            }
+
             @Override
             public TrapLogDTO aggregate(TrapLogDTO accumulator, TrapInformationWrapper newMessage) {
                 final TrapInformation trapInfo = newMessage.getTrapInformation();
@@ -127,6 +152,150 @@ public class TrapSinkModule extends AbstractXmlSinkModule<TrapInformationWrapper
     }
 
 
+    @Override
+    protected Parser<TrapSinkProtos.TrapLog> getProtoParser() {
+        return TrapSinkProtos.TrapLog.parser();
+    }
+
+    @Override
+    protected TrapSinkProtos.TrapLog toProto(TrapLogDTO trapLog) {
+        final TrapSinkProtos.TrapLog.Builder builder = TrapSinkProtos.TrapLog.newBuilder();
+        if (trapLog.getSystemId() != null) {
+            builder.setSystemId(trapLog.getSystemId());
+        }
+        if (trapLog.getLocation() != null) {
+            builder.setLocation(trapLog.getLocation());
+        }
+        if (trapLog.getTrapAddress() != null) {
+            builder.setTrapAddress(toByteString(trapLog.getTrapAddress()));
+        }
+        for (TrapDTO trap : trapLog.getMessages()) {
+            toProto(trap, builder.addMessagesBuilder());
+        }
+        return builder.build();
+    }
+
+    private static void toProto(TrapDTO trap, TrapSinkProtos.Trap.Builder builder) {
+        if (trap.getAgentAddress() != null) {
+            builder.setAgentAddress(toByteString(trap.getAgentAddress()));
+        }
+        if (trap.getCommunity() != null) {
+            builder.setCommunity(trap.getCommunity());
+        }
+        if (trap.getVersion() != null) {
+            builder.setVersion(trap.getVersion());
+        }
+        builder.setTimestamp(trap.getTimestamp())
+                .setPduLength(trap.getPduLength())
+                .setCreationTime(trap.getCreationTime());
+        if (trap.getRawMessage() != null) {
+            builder.setRawMessage(UnsafeByteOperations.unsafeWrap(trap.getRawMessage()));
+        }
+        final TrapIdentityDTO identity = trap.getTrapIdentity();
+        if (identity != null) {
+            final TrapSinkProtos.TrapIdentity.Builder identityBuilder = builder.getTrapIdentityBuilder()
+                    .setGeneric(identity.getGeneric())
+                    .setSpecific(identity.getSpecific());
+            if (identity.getEnterpriseId() != null) {
+                identityBuilder.setEnterpriseId(identity.getEnterpriseId());
+            }
+            if (identity.getTrapOID() != null) {
+                identityBuilder.setTrapOid(identity.getTrapOID());
+            }
+        }
+        for (SnmpResult result : trap.getResults()) {
+            final TrapSinkProtos.SnmpResult.Builder resultBuilder = builder.addResultsBuilder();
+            if (result.getBase() != null) {
+                toProto(result.getBase(), resultBuilder.getBaseBuilder());
+            }
+            if (result.getInstance() != null) {
+                toProto(result.getInstance(), resultBuilder.getInstanceBuilder());
+            }
+            final SnmpValue value = result.getValue();
+            if (value != null) {
+                final TrapSinkProtos.SnmpValue.Builder valueBuilder = resultBuilder.getValueBuilder()
+                        .setType(value.getType());
+                if (value.getBytes() != null) {
+                    valueBuilder.setBytes(UnsafeByteOperations.unsafeWrap(value.getBytes()));
+                }
+            }
+        }
+    }
+
+    private static void toProto(SnmpObjId oid, TrapSinkProtos.Oid.Builder builder) {
+        for (int id : oid.getIds()) {
+            builder.addIds(id);
+        }
+    }
+
+    @Override
+    protected TrapLogDTO fromProto(TrapSinkProtos.TrapLog proto) {
+        final TrapLogDTO trapLog = new TrapLogDTO();
+        if (proto.hasSystemId()) {
+            trapLog.setSystemId(proto.getSystemId());
+        }
+        if (proto.hasLocation()) {
+            trapLog.setLocation(proto.getLocation());
+        }
+        if (proto.hasTrapAddress()) {
+            trapLog.setTrapAddress(toInetAddress(proto.getTrapAddress()));
+        }
+        for (TrapSinkProtos.Trap trap : proto.getMessagesList()) {
+            trapLog.addMessage(fromProto(trap));
+        }
+        return trapLog;
+    }
+
+    private static TrapDTO fromProto(TrapSinkProtos.Trap proto) {
+        final TrapDTO trap = new TrapDTO();
+        if (proto.hasAgentAddress()) {
+            trap.setAgentAddress(toInetAddress(proto.getAgentAddress()));
+        }
+        if (proto.hasCommunity()) {
+            trap.setCommunity(proto.getCommunity());
+        }
+        if (proto.hasVersion()) {
+            trap.setVersion(proto.getVersion());
+        }
+        trap.setTimestamp(proto.getTimestamp());
+        trap.setPduLength(proto.getPduLength());
+        trap.setCreationTime(proto.getCreationTime());
+        if (proto.hasRawMessage()) {
+            trap.setRawMessage(proto.getRawMessage().toByteArray());
+        }
+        if (proto.hasTrapIdentity()) {
+            final TrapSinkProtos.TrapIdentity protoIdentity = proto.getTrapIdentity();
+            final TrapIdentityDTO identity = new TrapIdentityDTO();
+            identity.setGeneric(protoIdentity.getGeneric());
+            identity.setSpecific(protoIdentity.getSpecific());
+            if (protoIdentity.hasEnterpriseId()) {
+                identity.setEnterpriseId(protoIdentity.getEnterpriseId());
+            }
+            if (protoIdentity.hasTrapOid()) {
+                identity.setTrapOID(protoIdentity.getTrapOid());
+            }
+            trap.setTrapIdentity(identity);
+        }
+        for (TrapSinkProtos.SnmpResult result : proto.getResultsList()) {
+            final SnmpObjId base = result.hasBase() ? SnmpObjId.get(toIds(result.getBase())) : null;
+            final SnmpInstId instance = result.hasInstance() ? new SnmpInstId(toIds(result.getInstance())) : null;
+            final SnmpValue value = result.hasValue()
+                    ? SnmpUtils.getValueFactory().getValue(result.getValue().getType(),
+                            result.getValue().hasBytes() ? result.getValue().getBytes().toByteArray() : null)
+                    : null;
+            trap.getResults().add(new SnmpResult(base, instance, value));
+        }
+        return trap;
+    }
+
+    private static int[] toIds(TrapSinkProtos.Oid oid) {
+        final int[] ids = new int[oid.getIdsCount()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = oid.getIds(i);
+        }
+        return ids;
+    }
+
     @Override
     public AsyncPolicy getAsyncPolicy() {
         return new AsyncPolicy() {
@@ -0,0 +1,122 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.trapd;
+
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule.Codec;
+import org.opennms.netmgt.model.OnmsDistPoller;
+import org.opennms.netmgt.snmp.SnmpObjId;
+import org.opennms.netmgt.snmp.SnmpResult;
+import org.opennms.netmgt.snmp.SnmpUtils;
+
+/**
+ * Use the Java Microbenchmarking Harness (JMH) to compare the cost of marshaling and unmarshaling
+ * trap logs as XML and as protobuf.
+ * <p>
+ * The reported scores are per trap. Run with the "-prof gc" option to compare the allocation rates.
+ */
+public class TrapSinkModuleBenchmark {
+
+    private static final int TRAPS = 100;
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    @State(Scope.Thread)
+    public static class BState {
+
+        @Param({"XML", "PROTOBUF"})
+        public Codec codec;
+
+        private TrapSinkModule module;
+
+        private TrapLogDTO trapLog;
+
+        private byte[] bytes;
+
+        @Setup
+        public void setup() throws Exception {
+            this.module = new TrapSinkModule(new TrapdConfigBean(), Mockito.mock(OnmsDistPoller.class));
+            this.module.setCodec(this.codec);
+
+            this.trapLog = new TrapLogDTO("00000000-0000-0000-0000-000000000000", "Default", InetAddress.getByName("10.0.0.1"));
+            for (int i = 0; i < TRAPS; i++) {
+                final TrapDTO trap = new TrapDTO();
+                trap.setAgentAddress(InetAddress.getByName("10.0.0.1"));
+                trap.setCommunity("public");
+                trap.setVersion("v2");
+                trap.setTimestamp(i * 100L);
+                trap.setPduLength(3);
+                trap.setCreationTime(System.currentTimeMillis());
+                final TrapIdentityDTO trapIdentity = new TrapIdentityDTO();
+                trapIdentity.setGeneric(6);
+                trapIdentity.setSpecific(i);
+                trapIdentity.setEnterpriseId(".1.3.6.1.4.1.5813");
+                trapIdentity.setTrapOID(".1.3.6.1.4.1.5813.0." + i);
+                trap.setTrapIdentity(trapIdentity);
+                trap.getResults().add(new SnmpResult(SnmpObjId.get(".1.3.6.1.2.1.1.3.0"), null, SnmpUtils.getValueFactory().getTimeTicks(i * 100L)));
+                trap.getResults().add(new SnmpResult(SnmpObjId.get(".1.3.6.1.6.3.1.1.4.1.0"), null, SnmpUtils.getValueFactory().getObjectId(SnmpObjId.get(trapIdentity.getTrapOID()))));
+                trap.getResults().add(new SnmpResult(SnmpObjId.get(".1.3.6.1.4.1.5813.20.1"), null, SnmpUtils.getValueFactory().getOctetString(("trap " + i).getBytes())));
+                this.trapLog.addMessage(trap);
+            }
+            this.bytes = this.module.marshal(this.trapLog);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(TRAPS)
+    public byte[] marshal(final BState state) {
+        return state.module.marshal(state.trapLog);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(TRAPS)
+    public TrapLogDTO unmarshal(final BState state) {
+        return state.module.unmarshal(state.bytes);
+    }
+}
@@ -21,13 +21,22 @@
  */
 package org.opennms.netmgt.trapd;
 
+import java.net.InetAddress;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.opennms.core.ipc.sink.api.Message;
 import org.opennms.core.ipc.sink.api.SinkModule;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule;
+import org.opennms.core.ipc.sink.xml.AbstractProtobufSinkModule.Codec;
 import org.opennms.netmgt.config.TrapdConfig;
 import org.opennms.netmgt.model.OnmsDistPoller;
+import org.opennms.netmgt.snmp.SnmpInstId;
+import org.opennms.netmgt.snmp.SnmpObjId;
+import org.opennms.netmgt.snmp.SnmpResult;
+import org.opennms.netmgt.snmp.SnmpUtils;
+import org.opennms.netmgt.snmp.SnmpValue;
 
 public class TrapSinkModuleTest {
 
@@ -50,4 +59,45 @@ public class TrapSinkModuleTest {
         Assert.assertNotEquals(module, mockModule);
         Assert.assertNotEquals(module.hashCode(), mockModule.hashCode());
     }
+
+    @Test
+    public void canMarshalAndUnmarshalWithBothCodecs() throws Exception {
+        final TrapSinkModule module = new TrapSinkModule(new TrapdConfigBean(), Mockito.mock(OnmsDistPoller.class));
+
+        final TrapLogDTO trapLog = new TrapLogDTO("00000000-0000-0000-0000-000000000000", "Default", InetAddress.getByName("10.0.0.1"));
+        final TrapDTO trap = new TrapDTO();
+        trap.setAgentAddress(InetAddress.getByName("10.0.0.2"));
+        trap.setCommunity("public");
+        trap.setVersion("v2");
+        trap.setTimestamp(5000);
+        trap.setPduLength(2);
+        trap.setCreationTime(System.currentTimeMillis());
+        final TrapIdentityDTO trapIdentity = new TrapIdentityDTO();
+        trapIdentity.setGeneric(6);
+        trapIdentity.setSpecific(1);
+        trapIdentity.setEnterpriseId(".1.3.6.1.4.1.5813");
+        trapIdentity.setTrapOID(".1.3.6.1.4.1.5813.0.1");
+        trap.setTrapIdentity(trapIdentity);
+        final SnmpValue value = SnmpUtils.getValueFactory().getOctetString("test".getBytes());
+        trap.getResults().add(new SnmpResult(SnmpObjId.get(".1.3.6.1.4.1.5813.20.1"), new SnmpInstId(0), value));
+        trap.getResults().add(new SnmpResult(SnmpObjId.get(".1.3.6.1.2.1.1.3"), null, SnmpUtils.getValueFactory().getTimeTicks(4294967295L)));
+        trapLog.addMessage(trap);
+
+        module.setCodec(Codec.PROTOBUF);
+        final byte[] protobuf = module.marshal(trapLog);
+        Assert.assertTrue(AbstractProtobufSinkModule.isProtobuf(protobuf));
+
+        module.setCodec(Codec.XML);
+        final byte[] xml = module.marshal(trapLog);
+        Assert.assertFalse(AbstractProtobufSinkModule.isProtobuf(xml));
+        Assert.assertTrue(protobuf.length < xml.length);
+
+        // Both are accepted regardless of the configured codec
+        Assert.assertEquals(trapLog, module.unmarshal(protobuf));
+        Assert.assertEquals(module.unmarshal(xml), module.unmarshal(protobuf));
+
+        final TrapInformationWrapper single = module.unmarshalSingleMessage(protobuf);
+        Assert.assertEquals(trap, single.getTrapDTO());
+        Assert.assertEquals(trapLog.getTrapAddress(), single.getTrapAddress());
+    }
 }
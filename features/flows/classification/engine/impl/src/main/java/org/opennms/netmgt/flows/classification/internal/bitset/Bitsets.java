@@ -0,0 +1,73 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.classification.internal.bitset;
+
+/**
+ * Helpers for bitsets represented as plain <code>long</code> arrays.
+ * <p>
+ * {@link java.util.BitSet} is avoided because the hot path needs to combine bitsets word by word without allocations.
+ */
+public final class Bitsets {
+
+    private Bitsets() {}
+
+    public static long[] create(final int bits) {
+        return new long[(bits + 63) >>> 6];
+    }
+
+    public static void set(final long[] bitset, final int bit) {
+        bitset[bit >>> 6] |= 1L << bit;
+    }
+
+    public static void clear(final long[] bitset, final int bit) {
+        bitset[bit >>> 6] &= ~(1L << bit);
+    }
+
+    public static int cardinality(final long[] bitset) {
+        int cardinality = 0;
+        for (final long word : bitset) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return the index of the first set bit at or after the given index or <code>-1</code> if there is none
+     */
+    public static int nextSetBit(final long[] bitset, final int from) {
+        int index = from >>> 6;
+        if (index >= bitset.length) {
+            return -1;
+        }
+
+        long word = bitset[index] & (-1L << from);
+        while (true) {
+            if (word != 0L) {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == bitset.length) {
+                return -1;
+            }
+            word = bitset[index];
+        }
+    }
+}
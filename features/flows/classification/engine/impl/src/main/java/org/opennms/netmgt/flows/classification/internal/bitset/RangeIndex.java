@@ -0,0 +1,186 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.classification.internal.bitset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Maps values of a single aspect of classification requests (protocol, port, or address) onto the rules that match
+ * these values.
+ * <p>
+ * All range boundaries of all rules are collected into a sorted array of points. The points split the value space into
+ * elementary slots: the points themselves and the open gaps between them. A segment tree is built over the slots and
+ * each rule range is stored in the O(log n) tree nodes that cover its slots. Looking up a value is a binary search for
+ * its slot followed by walking the path from that slot's leaf to the root. All rules found along the path match.
+ * <p>
+ * Rules that do not restrict the aspect at all are kept in a separate wildcard bitset.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public class RangeIndex<T extends Comparable<? super T>> {
+
+    private static final int[] NO_RULES = new int[0];
+
+    public static class Builder<T extends Comparable<? super T>> {
+        private final int ruleCount;
+        private final long[] wildcard;
+        private final List<Range<T>> ranges = new ArrayList<>();
+
+        public Builder(final int ruleCount) {
+            this.ruleCount = ruleCount;
+            this.wildcard = Bitsets.create(ruleCount);
+        }
+
+        /**
+         * Marks a rule to match all values of this aspect.
+         */
+        public Builder<T> wildcard(final int rule) {
+            Bitsets.set(this.wildcard, rule);
+            return this;
+        }
+
+        /**
+         * Marks a rule to match all values in the given range (inclusive).
+         */
+        public Builder<T> range(final int rule, final T begin, final T end) {
+            this.ranges.add(new Range<>(rule, begin, end));
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public RangeIndex<T> build() {
+            final Object[] points = this.ranges.stream()
+                    .flatMap(r -> Stream.of(r.begin, r.end))
+                    .sorted()
+                    .distinct()
+                    .toArray();
+
+            // points and the gaps before, between, and after them
+            final int slots = 2 * points.length + 1;
+            final int leaves = Integer.highestOneBit(slots) == slots ? slots : Integer.highestOneBit(slots) << 1;
+
+            final List<Integer>[] nodes = new List[2 * leaves];
+            for (final Range<T> range : this.ranges) {
+                // the slot of the i-th point is 2i+1
+                int l = leaves + 2 * Arrays.binarySearch(points, range.begin) + 1;
+                int r = leaves + 2 * Arrays.binarySearch(points, range.end) + 2;
+                while (l < r) {
+                    if ((l & 1) == 1) {
+                        add(nodes, l++, range.rule);
+                    }
+                    if ((r & 1) == 1) {
+                        add(nodes, --r, range.rule);
+                    }
+                    l >>>= 1;
+                    r >>>= 1;
+                }
+            }
+
+            final int[][] rules = new int[nodes.length][];
+            for (int i = 0; i < nodes.length; i++) {
+                rules[i] = nodes[i] == null
+                        ? NO_RULES
+                        : nodes[i].stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            return new RangeIndex<>(this.ruleCount, this.wildcard, points, leaves, rules);
+        }
+
+        private static void add(final List<Integer>[] nodes, final int node, final int rule) {
+            if (nodes[node] == null) {
+                nodes[node] = new ArrayList<>(2);
+            }
+            nodes[node].add(rule);
+        }
+    }
+
+    private static class Range<T> {
+        private final int rule;
+        private final T begin, end;
+
+        private Range(final int rule, final T begin, final T end) {
+            this.rule = rule;
+            this.begin = begin;
+            this.end = end;
+        }
+    }
+
+    private final long[] wildcard;
+    private final Object[] points;
+    private final int leaves;
+    private final int[][] nodes;
+
+    // true if all rules are wildcards for this aspect -> lookups can be skipped
+    private final boolean trivial;
+
+    private RangeIndex(final int ruleCount, final long[] wildcard, final Object[] points, final int leaves, final int[][] nodes) {
+        this.wildcard = wildcard;
+        this.points = points;
+        this.leaves = leaves;
+        this.nodes = nodes;
+        this.trivial = Bitsets.cardinality(wildcard) == ruleCount;
+    }
+
+    /**
+     * Clears all rules in the candidates bitset that do not match the given value.
+     *
+     * @param scratch a bitset of the same size as the candidates that is used as a temporary buffer
+     * @return <code>true</code> if any candidate is left
+     */
+    public boolean retain(final long[] candidates, final long[] scratch, final T value) {
+        if (this.trivial) {
+            return true;
+        }
+
+        Arrays.fill(scratch, 0L);
+        if (value != null) {
+            final int index = Arrays.binarySearch(this.points, value);
+            final int slot = index >= 0 ? 2 * index + 1 : -2 * (index + 1);
+            for (int node = this.leaves + slot; node > 0; node >>>= 1) {
+                for (final int rule : this.nodes[node]) {
+                    Bitsets.set(scratch, rule);
+                }
+            }
+        }
+
+        long any = 0L;
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] &= this.wildcard[i] | scratch[i];
+            any |= candidates[i];
+        }
+        return any != 0L;
+    }
+
+    /**
+     * The number of rule references stored in the tree nodes.
+     */
+    public int size() {
+        int size = 0;
+        for (final int[] rules : this.nodes) {
+            size += rules.length;
+        }
+        return size;
+    }
+}
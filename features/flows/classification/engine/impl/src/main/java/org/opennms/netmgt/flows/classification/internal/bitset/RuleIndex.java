@@ -0,0 +1,250 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.classification.internal.bitset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.opennms.core.network.IPPortRange;
+import org.opennms.netmgt.flows.classification.ClassificationRequest;
+import org.opennms.netmgt.flows.classification.FilterService;
+import org.opennms.netmgt.flows.classification.IpAddr;
+import org.opennms.netmgt.flows.classification.internal.decision.PreprocessedRule;
+import org.opennms.netmgt.flows.classification.internal.value.IpRange;
+import org.opennms.netmgt.flows.classification.internal.value.IpValue;
+import org.opennms.netmgt.flows.classification.internal.value.PortValue;
+
+/**
+ * A set of classification rules compiled into one {@link RangeIndex} per aspect of classification requests.
+ * <p>
+ * Rules are numbered by their priority, i.e. the rule with the lowest number has the highest priority. Classification
+ * starts with a bitset containing all rules and each index clears the rules that do not match the request. The
+ * remaining bits are visited in ascending order and the first rule that also passes its exporter filter determines
+ * the result. Like in the decision tree, a rule that considers more aspects is preferred over rules with the same
+ * priority.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public class RuleIndex {
+
+    public static final RuleIndex EMPTY = RuleIndex.of(Collections.emptyList(), null);
+
+    private static final Comparator<PreprocessedRule> PRIORITY = Comparator
+            .comparingInt((PreprocessedRule r) -> r.ruleDefinition.getGroupPosition())
+            .thenComparingInt(r -> r.ruleDefinition.getPosition());
+
+    public static RuleIndex of(final List<PreprocessedRule> preprocessedRules, final FilterService filterService) {
+        // the sort is stable -> rules and their reversed counterparts stay in the given order
+        final List<PreprocessedRule> rules = new ArrayList<>(preprocessedRules);
+        rules.sort(PRIORITY);
+
+        final int count = rules.size();
+        final RangeIndex.Builder<Integer> protocol = new RangeIndex.Builder<>(count);
+        final RangeIndex.Builder<Integer> srcPort = new RangeIndex.Builder<>(count);
+        final RangeIndex.Builder<Integer> dstPort = new RangeIndex.Builder<>(count);
+        final RangeIndex.Builder<IpAddr> srcAddr = new RangeIndex.Builder<>(count);
+        final RangeIndex.Builder<IpAddr> dstAddr = new RangeIndex.Builder<>(count);
+
+        final String[] names = new String[count];
+        final int[] groupPositions = new int[count];
+        final int[] positions = new int[count];
+        final int[] matchedAspects = new int[count];
+        final int[] filters = new int[count];
+        final Map<String, Integer> filterExpressions = new HashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            final PreprocessedRule rule = rules.get(i);
+
+            int aspects = 0;
+            if (rule.protocol != null) {
+                aspects++;
+                for (final Integer p : rule.protocol.getProtocols()) {
+                    protocol.range(i, p, p);
+                }
+            } else {
+                protocol.wildcard(i);
+            }
+            aspects += ports(srcPort, i, rule.srcPort);
+            aspects += ports(dstPort, i, rule.dstPort);
+            aspects += addresses(srcAddr, i, rule.srcAddr);
+            aspects += addresses(dstAddr, i, rule.dstAddr);
+
+            names[i] = rule.ruleDefinition.getName();
+            groupPositions[i] = rule.ruleDefinition.getGroupPosition();
+            positions[i] = rule.ruleDefinition.getPosition();
+            matchedAspects[i] = aspects;
+            filters[i] = rule.ruleDefinition.hasExportFilterDefinition()
+                    ? filterExpressions.computeIfAbsent(rule.ruleDefinition.getExporterFilter(), f -> filterExpressions.size())
+                    : -1;
+        }
+
+        final String[] expressions = new String[filterExpressions.size()];
+        filterExpressions.forEach((expression, index) -> expressions[index] = expression);
+
+        return new RuleIndex(count,
+                protocol.build(), srcPort.build(), dstPort.build(), srcAddr.build(), dstAddr.build(),
+                names, groupPositions, positions, matchedAspects,
+                filters, expressions, filterService);
+    }
+
+    private static int ports(final RangeIndex.Builder<Integer> builder, final int rule, final PortValue value) {
+        if (value == null) {
+            builder.wildcard(rule);
+            return 0;
+        }
+        for (final IPPortRange range : value.getPortRanges()) {
+            builder.range(rule, range.getBegin(), range.getEnd());
+        }
+        return 1;
+    }
+
+    private static int addresses(final RangeIndex.Builder<IpAddr> builder, final int rule, final IpValue value) {
+        if (value == null) {
+            builder.wildcard(rule);
+            return 0;
+        }
+        for (final IpRange range : value.getIpAddressRanges()) {
+            builder.range(rule, range.begin, range.end);
+        }
+        return 1;
+    }
+
+    private final int count;
+
+    private final RangeIndex<Integer> protocol;
+    private final RangeIndex<Integer> srcPort, dstPort;
+    private final RangeIndex<IpAddr> srcAddr, dstAddr;
+
+    private final String[] names;
+    private final int[] groupPositions, positions;
+    private final int[] matchedAspects;
+
+    // index into the filter expressions per rule or -1 if the rule has no exporter filter
+    private final int[] filters;
+    private final String[] filterExpressions;
+    private final FilterService filterService;
+
+    private RuleIndex(final int count,
+                      final RangeIndex<Integer> protocol,
+                      final RangeIndex<Integer> srcPort,
+                      final RangeIndex<Integer> dstPort,
+                      final RangeIndex<IpAddr> srcAddr,
+                      final RangeIndex<IpAddr> dstAddr,
+                      final String[] names,
+                      final int[] groupPositions,
+                      final int[] positions,
+                      final int[] matchedAspects,
+                      final int[] filters,
+                      final String[] filterExpressions,
+                      final FilterService filterService) {
+        this.count = count;
+        this.protocol = protocol;
+        this.srcPort = srcPort;
+        this.dstPort = dstPort;
+        this.srcAddr = srcAddr;
+        this.dstAddr = dstAddr;
+        this.names = names;
+        this.groupPositions = groupPositions;
+        this.positions = positions;
+        this.matchedAspects = matchedAspects;
+        this.filters = filters;
+        this.filterExpressions = filterExpressions;
+        this.filterService = filterExpressions.length > 0 ? Objects.requireNonNull(filterService) : filterService;
+    }
+
+    /**
+     * Classifies a flow.
+     *
+     * @return Returns <code>null</code> if the request does not match a rule
+     */
+    public String classify(final ClassificationRequest request) {
+        if (this.count == 0) {
+            return null;
+        }
+
+        final long[] candidates = Bitsets.create(this.count);
+        final long[] scratch = Bitsets.create(this.count);
+        Arrays.fill(candidates, -1L);
+        if ((this.count & 63) != 0) {
+            candidates[candidates.length - 1] = (1L << this.count) - 1;
+        }
+
+        if (!this.protocol.retain(candidates, scratch, request.getProtocol() != null ? request.getProtocol().getDecimal() : null)
+            || !this.srcPort.retain(candidates, scratch, request.getSrcPort())
+            || !this.dstPort.retain(candidates, scratch, request.getDstPort())
+            || !this.srcAddr.retain(candidates, scratch, request.getSrcAddress())
+            || !this.dstAddr.retain(candidates, scratch, request.getDstAddress())) {
+            return null;
+        }
+
+        // exporter filter results of this request: 0 = unknown, 1 = matches, 2 = does not match
+        byte[] filterResults = null;
+
+        int best = -1;
+        for (int rule = Bitsets.nextSetBit(candidates, 0); rule >= 0; rule = Bitsets.nextSetBit(candidates, rule + 1)) {
+            // all following rules have a lower priority
+            if (best >= 0 && (this.groupPositions[rule] != this.groupPositions[best] || this.positions[rule] != this.positions[best])) {
+                break;
+            }
+
+            final int filter = this.filters[rule];
+            if (filter >= 0) {
+                if (filterResults == null) {
+                    filterResults = new byte[this.filterExpressions.length];
+                }
+                if (filterResults[filter] == 0) {
+                    filterResults[filter] = this.filterService.matches(request.getExporterAddress(), this.filterExpressions[filter]) ? (byte) 1 : (byte) 2;
+                }
+                if (filterResults[filter] != 1) {
+                    continue;
+                }
+            }
+
+            // check if the new result is more specific
+            if (best < 0 || this.matchedAspects[rule] > this.matchedAspects[best]) {
+                best = rule;
+            }
+        }
+
+        return best >= 0 ? this.names[best] : null;
+    }
+
+    /**
+     * The number of compiled rules including reversed rules.
+     */
+    public int getRuleCount() {
+        return this.count;
+    }
+
+    /**
+     * The number of rule references stored in all range indexes.
+     */
+    public int getIndexSize() {
+        return this.protocol.size() + this.srcPort.size() + this.dstPort.size() + this.srcAddr.size() + this.dstAddr.size();
+    }
+}
@@ -22,6 +22,7 @@
 package org.opennms.netmgt.flows.classification.internal;
 
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 import org.openjdk.jmh.annotations.Benchmark;
@@ -44,11 +45,14 @@ import org.opennms.netmgt.flows.classification.persistence.api.GroupBuilder;
 import org.opennms.netmgt.flows.classification.persistence.api.Groups;
 import org.opennms.netmgt.flows.classification.persistence.api.Rule;
 
+import net.jqwik.api.Shrinkable;
+
 /**
  * Use the Java Microbenchmarking Harness (JMH) to measure classification performance.
  * <p>
  * Rule sets are loaded from csv files and classification is done with randomly generated flows based on the
- * protocols, ports, and addresses found in the loaded rule sets.
+ * protocols, ports, and addresses found in the loaded rule sets. Additionally, randomly generated rule sets of
+ * different sizes are used to compare how the classification engine implementations scale with the number of rules.
  */
 public class ClassificationEngineBenchmark {
 
@@ -60,6 +64,9 @@ public class ClassificationEngineBenchmark {
     // the benchmark is run for different rule sets
     private static final String EXAMPLE_RULES_RESOURCE = "/example-rules.csv";
     private static final String PRE_DEFINED_RULES_RESOURCE = "/pre-defined-rules.csv";
+    private static final String RANDOM_100_RULES = "100";
+    private static final String RANDOM_1K_RULES = "1000";
+    private static final String RANDOM_10K_RULES = "10000";
 
     public static void main(String[] args) throws Exception {
         org.openjdk.jmh.Main.main(args);
@@ -76,22 +83,41 @@ public class ClassificationEngineBenchmark {
         return rules;
     }
 
+    /**
+     * Loads the rules from a csv resource or generates the given number of random rules.
+     */
+    public static List<Rule> getRuleSet(String ruleSet) {
+        if (ruleSet.startsWith("/")) {
+            return getRules(ruleSet);
+        }
+        var count = Integer.parseInt(ruleSet);
+        return RandomClassificationEngineTest.rules(count, count, 17, 65535, 65535)
+                .generator(count)
+                .stream(new Random(123456l))
+                .map(Shrinkable::value)
+                .findFirst()
+                .get();
+    }
+
     @State(Scope.Benchmark)
     public static class BState {
 
         @Param({"0", "1"})
         public int index;
 
-        @Param({EXAMPLE_RULES_RESOURCE, PRE_DEFINED_RULES_RESOURCE})
+        @Param({EXAMPLE_RULES_RESOURCE, PRE_DEFINED_RULES_RESOURCE, RANDOM_100_RULES, RANDOM_1K_RULES, RANDOM_10K_RULES})
         public String ruleSet;
 
+        @Param({ClassificationEngineFactory.DECISION_TREE, ClassificationEngineFactory.BITSET})
+        public String engine;
+
         private ClassificationEngine classificationEngine;
         private List<ClassificationRequest> classificationRequests;
 
         @Setup
         public void setup() throws InterruptedException {
-            var rules = getRules(ruleSet);
-            classificationEngine = new DefaultClassificationEngine(() -> rules, org.mockito.Mockito.mock(FilterService.class));
+            var rules = getRuleSet(ruleSet);
+            classificationEngine = ClassificationEngineFactory.create(engine, () -> rules, org.mockito.Mockito.mock(FilterService.class), true);
             classificationRequests = RandomClassificationEngineTest.streamOfclassificationRequests(rules, 123456l).skip(index * BATCH_SIZE).limit(BATCH_SIZE).collect(Collectors.toList());
         }
 
@@ -36,6 +36,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.opennms.core.network.IPAddress;
 import org.opennms.core.network.IPAddressRange;
 import org.opennms.core.network.IPPortRange;
+import org.opennms.netmgt.flows.classification.ClassificationEngine;
 import org.opennms.netmgt.flows.classification.ClassificationRequest;
 import org.opennms.netmgt.flows.classification.FilterService;
 import org.opennms.netmgt.flows.classification.internal.decision.Classifier;
@@ -72,7 +73,7 @@ import net.jqwik.api.Tuple;
  * <p>
  * Random rule sets are generated and used to instantiate classification engines. Then randomized classification
  * requests are generated based on the rule sets. Classification is checked by comparing the outcome when classifying
- * by the decision tree or by a simple brute force algorithm.
+ * by the decision tree or the bitset index with the outcome of a simple brute force algorithm.
  */
 public class RandomClassificationEngineTest {
 
@@ -111,14 +112,24 @@ public class RandomClassificationEngineTest {
     public boolean test(
             @ForAll("rulesAndRequests") Tuple.Tuple2<List<Rule>, List<ClassificationRequest>> rulesAndRequests
     ) throws InterruptedException {
-        LOG.debug("construct decision tree");
+        return test(rulesAndRequests, new DefaultClassificationEngine(() -> rulesAndRequests.get1(), FILTER_SERVICE));
+    }
+
+    @Property
+    public boolean testBitset(
+            @ForAll("rulesAndRequests") Tuple.Tuple2<List<Rule>, List<ClassificationRequest>> rulesAndRequests
+    ) throws InterruptedException {
+        return test(rulesAndRequests, new BitsetClassificationEngine(() -> rulesAndRequests.get1(), FILTER_SERVICE));
+    }
+
+    private boolean test(Tuple.Tuple2<List<Rule>, List<ClassificationRequest>> rulesAndRequests, ClassificationEngine ce) {
+        LOG.debug("construct classification engine");
         if (LOG.isDebugEnabled()) {
             rulesAndRequests.get1().forEach(r -> {
                 var s = Stream.of(r.getName(), r.getProtocol(), r.getSrcAddress(), r.getSrcPort(), r.getDstAddress(), r.getDstPort(), "", String.valueOf(r.isOmnidirectional())).collect(Collectors.joining(";"));
                 System.out.println(s);
             });
         }
-        var ce = new DefaultClassificationEngine(() -> rulesAndRequests.get1(), FILTER_SERVICE);
 
         var classifiers = rulesAndRequests.get1().stream()
                 .flatMap(r -> r.isOmnidirectional() ? Stream.of(r, r.reversedRule()) : Stream.of(r))
@@ -0,0 +1,210 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.elastic;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Adapts the size and the concurrency of bulk requests to the observed performance of Elasticsearch.
+ *
+ * Both values follow an additive increase / multiplicative decrease scheme: every bulk which completes within the
+ * target latency grows the bulk size by a step and allows one more concurrent bulk. A bulk which is slower, had to be
+ * retried or failed halves both.
+ *
+ * Before sending a bulk, a caller must acquire a permit. Acquiring blocks as long as the concurrency limit is reached
+ * or the estimated size of all in-flight bulks would exceed the configured limit. This propagates backpressure to the
+ * threads handing flows to the repository instead of buffering them.
+ */
+public class AdaptiveBulkController {
+
+    private final int minBulkSize;
+    private final int maxBulkSize;
+    private final long targetLatencyNanos;
+    private final int maxConcurrency;
+    private final long maxInFlightBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = this.lock.newCondition();
+
+    private volatile int bulkSize;
+    private int concurrency;
+
+    private int inFlightBulks = 0;
+    private long inFlightBytes = 0;
+
+    // Running average of the serialized size of a document
+    private volatile double documentBytes = 1024;
+
+    private final Timer throttleTimer;
+
+    public AdaptiveBulkController(final MetricRegistry metricRegistry,
+                                  final int initialBulkSize,
+                                  final int minBulkSize,
+                                  final int maxBulkSize,
+                                  final long targetLatencyMs,
+                                  final int maxConcurrency,
+                                  final long maxInFlightBytes) {
+        if (minBulkSize < 1 || maxBulkSize < minBulkSize) {
+            throw new IllegalArgumentException("bulk size bounds must satisfy 1 <= min <= max");
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+
+        this.minBulkSize = minBulkSize;
+        this.maxBulkSize = maxBulkSize;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.maxConcurrency = maxConcurrency;
+        this.maxInFlightBytes = maxInFlightBytes;
+
+        this.bulkSize = Math.max(minBulkSize, Math.min(maxBulkSize, initialBulkSize));
+        this.concurrency = 1;
+
+        this.throttleTimer = metricRegistry.timer("bulkThrottle");
+        metricRegistry.register("adaptiveBulkSize", (Gauge<Integer>) this::getBulkSize);
+        metricRegistry.register("inFlightBulks", (Gauge<Integer>) this::getInFlightBulks);
+        metricRegistry.register("inFlightBytes", (Gauge<Long>) this::getInFlightBytes);
+        metricRegistry.register("bulkConcurrency", (Gauge<Integer>) this::getConcurrency);
+    }
+
+    /**
+     * A granted slot for sending a single bulk.
+     */
+    public final class Permit {
+        private final long bytes;
+        private final long started;
+
+        private Permit(final long bytes) {
+            this.bytes = bytes;
+            this.started = System.nanoTime();
+        }
+
+        /**
+         * Releases the permit and adapts the limits to the outcome of the bulk.
+         *
+         * @param congested <code>true</code> if the bulk was retried or failed
+         */
+        public void release(final boolean congested) {
+            AdaptiveBulkController.this.release(this, System.nanoTime() - this.started, congested);
+        }
+    }
+
+    /**
+     * Blocks until a bulk with the given number of documents can be sent.
+     */
+    public Permit acquire(final int documents) throws InterruptedException {
+        final long bytes = this.estimateBytes(documents);
+
+        this.lock.lock();
+        try {
+            if (!this.canSend(bytes)) {
+                try (final Timer.Context ctx = this.throttleTimer.time()) {
+                    do {
+                        this.available.await();
+                    } while (!this.canSend(bytes));
+                }
+            }
+
+            this.inFlightBulks += 1;
+            this.inFlightBytes += bytes;
+            return new Permit(bytes);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private boolean canSend(final long bytes) {
+        // A single bulk is always allowed, even if it exceeds the byte limit on its own
+        if (this.inFlightBulks == 0) {
+            return true;
+        }
+        return this.inFlightBulks < this.concurrency && this.inFlightBytes + bytes <= this.maxInFlightBytes;
+    }
+
+    private void release(final Permit permit, final long latencyNanos, final boolean congested) {
+        this.lock.lock();
+        try {
+            this.inFlightBulks -= 1;
+            this.inFlightBytes -= permit.bytes;
+
+            if (congested || latencyNanos > this.targetLatencyNanos) {
+                this.bulkSize = Math.max(this.minBulkSize, this.bulkSize / 2);
+                this.concurrency = Math.max(1, this.concurrency / 2);
+            } else {
+                this.bulkSize = Math.min(this.maxBulkSize, this.bulkSize + this.minBulkSize);
+                this.concurrency = Math.min(this.maxConcurrency, this.concurrency + 1);
+            }
+
+            this.available.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Feeds the serialized size of a sample document into the running average used to estimate bulk sizes.
+     */
+    public void sampleDocumentBytes(final int bytes) {
+        this.documentBytes = this.documentBytes * 0.9 + bytes * 0.1;
+    }
+
+    private long estimateBytes(final int documents) {
+        return (long) (documents * this.documentBytes);
+    }
+
+    public int getBulkSize() {
+        return this.bulkSize;
+    }
+
+    public int getConcurrency() {
+        this.lock.lock();
+        try {
+            return this.concurrency;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public int getInFlightBulks() {
+        this.lock.lock();
+        try {
+            return this.inFlightBulks;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public long getInFlightBytes() {
+        this.lock.lock();
+        try {
+            return this.inFlightBytes;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
@@ -51,6 +51,7 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.gson.Gson;
 
 import io.opentracing.Scope;
 import io.opentracing.Tracer;
@@ -66,6 +67,11 @@ public class ElasticFlowRepository implements FlowRepository {
 
     private static final String INDEX_NAME = "netflow";
 
+    private static final Gson GSON = new Gson();
+
+    // Approximate size of the action line preceding each document in a bulk request
+    private static final int BULK_ACTION_BYTES = 128;
+
     private final JestClientWithCircuitBreaker client;
 
     private final IndexStrategy indexStrategy;
@@ -86,10 +92,24 @@ public class ElasticFlowRepository implements FlowRepository {
 
     private final IndexSettings indexSettings;
 
+    private final MetricRegistry metricRegistry;
+
     private int bulkSize = 1000;
     private int bulkRetryCount = 5;
     private int bulkFlushMs = 500;
 
+    private boolean bulkAdaptive = false;
+    private int bulkMinSize = 100;
+    private int bulkMaxSize = 10000;
+    private long bulkTargetLatencyMs = 1000;
+    private int bulkMaxConcurrency = 4;
+    private long bulkMaxInFlightBytes = 64L * 1024 * 1024;
+
+    /**
+     * Controls bulk size and concurrency if adaptive bulk indexing is enabled, <code>null</code> otherwise.
+     */
+    private volatile AdaptiveBulkController bulkController;
+
     private class FlowBulk {
         private List<FlowDocument> documents = Lists.newArrayListWithCapacity(ElasticFlowRepository.this.bulkSize);
         private ReentrantLock lock = new ReentrantLock();
@@ -116,6 +136,7 @@ public class ElasticFlowRepository implements FlowRepository {
         this.identity = identity;
         this.tracerRegistry = tracerRegistry;
         this.indexSettings = Objects.requireNonNull(indexSettings);
+        this.metricRegistry = Objects.requireNonNull(metricRegistry);
 
         this.flowsPersistedMeter = metricRegistry.meter("flowsPersisted");
         this.logPersistingTimer = metricRegistry.timer("logPersisting");
@@ -187,7 +208,7 @@ public class ElasticFlowRepository implements FlowRepository {
         flowBulk.lock.lock();
         try {
             flows.stream().map(FlowDocument::from).forEach(flowBulk.documents::add);
-            if (flowBulk.documents.size() >= this.bulkSize) {
+            if (flowBulk.documents.size() >= this.getEffectiveBulkSize()) {
                 this.persistBulk(flowBulk.documents);
                 flowBulk.lastPersist = System.currentTimeMillis();
             }
@@ -196,7 +217,41 @@ public class ElasticFlowRepository implements FlowRepository {
         }
     }
 
+    private int getEffectiveBulkSize() {
+        final AdaptiveBulkController controller = this.bulkController;
+        return controller != null ? controller.getBulkSize() : this.bulkSize;
+    }
+
     private void persistBulk(final List<FlowDocument> bulk) throws FlowException {
+        final AdaptiveBulkController controller = this.bulkController;
+        if (controller == null || bulk.isEmpty()) {
+            this.doPersistBulk(bulk);
+            return;
+        }
+
+        controller.sampleDocumentBytes(GSON.toJson(bulk.get(0)).length() + BULK_ACTION_BYTES);
+
+        // Blocks the calling thread while too many bulks are in flight
+        final AdaptiveBulkController.Permit permit;
+        try {
+            permit = controller.acquire(bulk.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlowException("Interrupted while waiting to persist flows", e);
+        }
+
+        boolean congested = true;
+        try {
+            congested = this.doPersistBulk(bulk) > 0;
+        } finally {
+            permit.release(congested);
+        }
+    }
+
+    /**
+     * Persists the bulk and returns the number of retries required to do so.
+     */
+    private int doPersistBulk(final List<FlowDocument> bulk) throws FlowException {
         LOG.debug("Persisting {} flow documents.", bulk.size());
         final Tracer tracer = getTracer();
         try (final Timer.Context ctx = logPersistingTimer.time();
@@ -229,6 +284,8 @@ public class ElasticFlowRepository implements FlowRepository {
             flowsPersistedMeter.mark(bulk.size());
 
             bulk.clear();
+
+            return bulkRequest.getRetries();
         }
     }
 
@@ -245,6 +302,16 @@ public class ElasticFlowRepository implements FlowRepository {
             tracerRegistry.init(identity.getId());
         }
 
+        if (bulkAdaptive && bulkController == null) {
+            bulkController = new AdaptiveBulkController(metricRegistry,
+                    bulkSize,
+                    bulkMinSize,
+                    bulkMaxSize,
+                    bulkTargetLatencyMs,
+                    bulkMaxConcurrency,
+                    bulkMaxInFlightBytes);
+        }
+
         startTimer();
     }
 
@@ -288,4 +355,52 @@ public class ElasticFlowRepository implements FlowRepository {
         stopTimer();
         startTimer();
     }
+
+    public boolean isBulkAdaptive() {
+        return bulkAdaptive;
+    }
+
+    public void setBulkAdaptive(final boolean bulkAdaptive) {
+        this.bulkAdaptive = bulkAdaptive;
+    }
+
+    public int getBulkMinSize() {
+        return bulkMinSize;
+    }
+
+    public void setBulkMinSize(final int bulkMinSize) {
+        this.bulkMinSize = bulkMinSize;
+    }
+
+    public int getBulkMaxSize() {
+        return bulkMaxSize;
+    }
+
+    public void setBulkMaxSize(final int bulkMaxSize) {
+        this.bulkMaxSize = bulkMaxSize;
+    }
+
+    public long getBulkTargetLatencyMs() {
+        return bulkTargetLatencyMs;
+    }
+
+    public void setBulkTargetLatencyMs(final long bulkTargetLatencyMs) {
+        this.bulkTargetLatencyMs = bulkTargetLatencyMs;
+    }
+
+    public int getBulkMaxConcurrency() {
+        return bulkMaxConcurrency;
+    }
+
+    public void setBulkMaxConcurrency(final int bulkMaxConcurrency) {
+        this.bulkMaxConcurrency = bulkMaxConcurrency;
+    }
+
+    public long getBulkMaxInFlightBytes() {
+        return bulkMaxInFlightBytes;
+    }
+
+    public void setBulkMaxInFlightBytes(final long bulkMaxInFlightBytes) {
+        this.bulkMaxInFlightBytes = bulkMaxInFlightBytes;
+    }
 }
@@ -0,0 +1,201 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.elastic.agg;
+
+import org.opennms.netmgt.flows.elastic.NodeDocument;
+import org.opennms.netmgt.flows.processing.rollup.FlowRollup;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Document stored in the aggregated flow indices.
+ *
+ * Member variables are sorted by the value of the @SerializedName annotation.
+ */
+public class AggregatedFlowDocument {
+
+    /**
+     * End of the aggregated time range in milliseconds.
+     */
+    @SerializedName("@timestamp")
+    private long timestamp;
+
+    /**
+     * Aggregation type (TOTAL or TOPK).
+     */
+    @SerializedName("aggregation_type")
+    private String aggregationType;
+
+    /**
+     * Application name as determined by the classification engine.
+     */
+    @SerializedName("application")
+    private String application;
+
+    @SerializedName("bytes_egress")
+    private long bytesEgress;
+
+    @SerializedName("bytes_ingress")
+    private long bytesIngress;
+
+    @SerializedName("bytes_total")
+    private long bytesTotal;
+
+    /**
+     * Key used to group and identify conversations.
+     */
+    @SerializedName("conversation_key")
+    private String conversationKey;
+
+    /**
+     * The exporter node.
+     */
+    @SerializedName("exporter")
+    private NodeDocument exporter;
+
+    /**
+     * Fields the document is grouped by.
+     */
+    @SerializedName("grouped_by")
+    private String groupedBy;
+
+    /**
+     * Unique key of the group.
+     */
+    @SerializedName("grouped_by_key")
+    private String groupedByKey;
+
+    @SerializedName("host_address")
+    private String hostAddress;
+
+    @SerializedName("host_name")
+    private String hostName;
+
+    /**
+     * SNMP ifIndex of the exporter interface.
+     */
+    @SerializedName("if_index")
+    private Integer ifIndex;
+
+    /**
+     * End of the aggregated time range in milliseconds.
+     */
+    @SerializedName("range_end")
+    private long rangeEnd;
+
+    /**
+     * Start of the aggregated time range in milliseconds.
+     */
+    @SerializedName("range_start")
+    private long rangeStart;
+
+    /**
+     * Rank of TOPK entities.
+     */
+    @SerializedName("ranking")
+    private Integer ranking;
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    public String getAggregationType() {
+        return this.aggregationType;
+    }
+
+    public String getApplication() {
+        return this.application;
+    }
+
+    public long getBytesEgress() {
+        return this.bytesEgress;
+    }
+
+    public long getBytesIngress() {
+        return this.bytesIngress;
+    }
+
+    public long getBytesTotal() {
+        return this.bytesTotal;
+    }
+
+    public String getConversationKey() {
+        return this.conversationKey;
+    }
+
+    public NodeDocument getExporter() {
+        return this.exporter;
+    }
+
+    public String getGroupedBy() {
+        return this.groupedBy;
+    }
+
+    public String getGroupedByKey() {
+        return this.groupedByKey;
+    }
+
+    public String getHostAddress() {
+        return this.hostAddress;
+    }
+
+    public String getHostName() {
+        return this.hostName;
+    }
+
+    public Integer getIfIndex() {
+        return this.ifIndex;
+    }
+
+    public long getRangeEnd() {
+        return this.rangeEnd;
+    }
+
+    public long getRangeStart() {
+        return this.rangeStart;
+    }
+
+    public Integer getRanking() {
+        return this.ranking;
+    }
+
+    public static AggregatedFlowDocument from(final FlowRollup rollup) {
+        final AggregatedFlowDocument doc = new AggregatedFlowDocument();
+        doc.timestamp = rollup.rangeEnd.toEpochMilli();
+        doc.rangeStart = rollup.rangeStart.toEpochMilli();
+        doc.rangeEnd = rollup.rangeEnd.toEpochMilli();
+        doc.groupedBy = rollup.groupedBy.name();
+        doc.groupedByKey = rollup.groupedByKey;
+        doc.aggregationType = rollup.aggregationType.name();
+        doc.ranking = rollup.ranking;
+        doc.exporter = NodeDocument.from(rollup.exporter);
+        doc.ifIndex = rollup.ifIndex;
+        doc.application = rollup.application;
+        doc.hostAddress = rollup.hostAddress;
+        doc.hostName = rollup.hostName;
+        doc.conversationKey = rollup.conversationKey;
+        doc.bytesIngress = rollup.bytesIngress;
+        doc.bytesEgress = rollup.bytesEgress;
+        doc.bytesTotal = rollup.getBytesTotal();
+        return doc;
+    }
+}
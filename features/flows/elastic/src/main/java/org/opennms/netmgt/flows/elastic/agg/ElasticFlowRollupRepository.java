@@ -0,0 +1,159 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.elastic.agg;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.opennms.features.jest.client.ConnectionPoolShutdownException;
+import org.opennms.features.jest.client.JestClientWithCircuitBreaker;
+import org.opennms.features.jest.client.bulk.BulkException;
+import org.opennms.features.jest.client.bulk.BulkRequest;
+import org.opennms.features.jest.client.bulk.BulkWrapper;
+import org.opennms.features.jest.client.index.IndexStrategy;
+import org.opennms.features.jest.client.template.DefaultTemplateInitializer;
+import org.opennms.features.jest.client.template.IndexSettings;
+import org.opennms.integration.api.v1.flows.FlowException;
+import org.opennms.netmgt.flows.api.UnrecoverableFlowException;
+import org.opennms.netmgt.flows.processing.rollup.FlowRollup;
+import org.opennms.netmgt.flows.processing.rollup.FlowRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.collect.Lists;
+
+import io.searchbox.core.Bulk;
+import io.searchbox.core.Index;
+
+/**
+ * Persists the rollups produced by the flow pipeline to the aggregated flow indices.
+ */
+public class ElasticFlowRollupRepository implements FlowRollupRepository {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ElasticFlowRollupRepository.class);
+
+    private static final String INDEX_NAME = "netflow_agg";
+
+    private final JestClientWithCircuitBreaker client;
+
+    private final IndexStrategy indexStrategy;
+
+    private final IndexSettings indexSettings;
+
+    private final DefaultTemplateInitializer initializer;
+
+    /**
+     * Rollups/second throughput
+     */
+    private final Meter rollupsPersistedMeter;
+
+    /**
+     * Time taken to persist a bulk of rollups
+     */
+    private final Timer rollupPersistingTimer;
+
+    private int bulkSize = 1000;
+    private int bulkRetryCount = 5;
+
+    public ElasticFlowRollupRepository(final MetricRegistry metricRegistry,
+                                       final JestClientWithCircuitBreaker jestClient,
+                                       final IndexStrategy indexStrategy,
+                                       final IndexSettings indexSettings,
+                                       final DefaultTemplateInitializer initializer) {
+        this.client = Objects.requireNonNull(jestClient);
+        this.indexStrategy = Objects.requireNonNull(indexStrategy);
+        this.indexSettings = Objects.requireNonNull(indexSettings);
+        this.initializer = Objects.requireNonNull(initializer);
+
+        this.rollupsPersistedMeter = metricRegistry.meter("rollupsPersisted");
+        this.rollupPersistingTimer = metricRegistry.timer("rollupPersisting");
+    }
+
+    @Override
+    public void persist(final Collection<FlowRollup> rollups) throws FlowException {
+        try {
+            if (!this.initializer.isInitialized()) {
+                this.initializer.initialize();
+            }
+        } catch (final ConnectionPoolShutdownException ex) {
+            throw new UnrecoverableFlowException(ex.getMessage(), ex);
+        }
+
+        final List<AggregatedFlowDocument> documents = rollups.stream()
+                .map(AggregatedFlowDocument::from)
+                .collect(Collectors.toList());
+
+        for (final List<AggregatedFlowDocument> bulk : Lists.partition(documents, this.bulkSize)) {
+            this.persistBulk(bulk);
+        }
+    }
+
+    private void persistBulk(final List<AggregatedFlowDocument> bulk) throws FlowException {
+        LOG.debug("Persisting {} aggregated flow documents.", bulk.size());
+        try (final Timer.Context ctx = this.rollupPersistingTimer.time()) {
+            final BulkRequest<AggregatedFlowDocument> bulkRequest = new BulkRequest<>(this.client, bulk, (documents) -> {
+                final Bulk.Builder bulkBuilder = new Bulk.Builder();
+                for (final AggregatedFlowDocument document : documents) {
+                    final String index = this.indexStrategy.getIndex(this.indexSettings, INDEX_NAME, Instant.ofEpochMilli(document.getTimestamp()));
+                    bulkBuilder.addAction(new Index.Builder(document)
+                            .index(index)
+                            .build());
+                }
+                return new BulkWrapper(bulkBuilder);
+            }, this.bulkRetryCount);
+            try {
+                // the bulk request considers retries
+                bulkRequest.execute();
+            } catch (BulkException ex) {
+                LOG.error("Failed to persist {} aggregated flow documents: {}", bulk.size(), ex.getMessage(), ex);
+                throw new FlowException(ex.getMessage(), ex);
+            } catch (IOException ex) {
+                LOG.error("An error occurred while executing the given request: {}", ex.getMessage(), ex);
+                throw new FlowException(ex.getMessage(), ex);
+            }
+            this.rollupsPersistedMeter.mark(bulk.size());
+        }
+    }
+
+    public int getBulkSize() {
+        return this.bulkSize;
+    }
+
+    public void setBulkSize(final int bulkSize) {
+        this.bulkSize = bulkSize;
+    }
+
+    public int getBulkRetryCount() {
+        return this.bulkRetryCount;
+    }
+
+    public void setBulkRetryCount(final int bulkRetryCount) {
+        this.bulkRetryCount = bulkRetryCount;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.elastic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+public class AdaptiveBulkControllerTest {
+
+    private static AdaptiveBulkController controller(final int concurrency, final long inFlightBytes) {
+        return new AdaptiveBulkController(new MetricRegistry(), 1000, 100, 2000, 60000, concurrency, inFlightBytes);
+    }
+
+    @Test
+    public void growsAndShrinksBulkSize() throws Exception {
+        final AdaptiveBulkController controller = controller(4, Long.MAX_VALUE);
+        assertEquals(1000, controller.getBulkSize());
+
+        for (int i = 0; i < 20; i++) {
+            controller.acquire(controller.getBulkSize()).release(false);
+        }
+        assertEquals(2000, controller.getBulkSize());
+        assertEquals(4, controller.getConcurrency());
+
+        controller.acquire(controller.getBulkSize()).release(true);
+        assertEquals(1000, controller.getBulkSize());
+        assertEquals(2, controller.getConcurrency());
+
+        for (int i = 0; i < 10; i++) {
+            controller.acquire(controller.getBulkSize()).release(true);
+        }
+        assertEquals(100, controller.getBulkSize());
+        assertEquals(1, controller.getConcurrency());
+    }
+
+    @Test
+    public void blocksWhileConcurrencyLimitIsReached() throws Exception {
+        final AdaptiveBulkController controller = controller(1, Long.MAX_VALUE);
+
+        final AdaptiveBulkController.Permit first = controller.acquire(10);
+        assertEquals(1, controller.getInFlightBulks());
+
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final Thread thread = new Thread(() -> {
+            try {
+                controller.acquire(10).release(false);
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+
+        first.release(false);
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        thread.join();
+
+        assertEquals(0, controller.getInFlightBulks());
+        assertEquals(0, controller.getInFlightBytes());
+    }
+
+    @Test
+    public void admitsSingleBulkExceedingByteLimit() throws Exception {
+        final AdaptiveBulkController controller = controller(4, 1);
+
+        final AdaptiveBulkController.Permit permit = controller.acquire(1000);
+        assertEquals(1, controller.getInFlightBulks());
+        assertTrue(controller.getInFlightBytes() > 1);
+        permit.release(false);
+    }
+}
@@ -75,6 +75,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.transaction.support.TransactionTemplate;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Lists;
 
 
@@ -172,7 +173,8 @@ public class ThresholdingIT {
             }
         };
 
-        this.thresholding = new FlowThresholdingImpl(this.thresholdingService,
+        this.thresholding = new FlowThresholdingImpl(new MetricRegistry(),
+                                                 this.thresholdingService,
                                                  collectionAgentFactory,
                                                  this.persisterFactory,
                                                  this.databasePopulator.getIpInterfaceDao(),
@@ -327,6 +329,49 @@ public class ThresholdingIT {
         }
     }
 
+    @Test
+    public void testSampledFlows() throws Exception {
+        final List<EnrichedFlow> flows = createMockedFlows(2);
+        flows.get(0).setSamplingInterval(4.0);
+
+        this.thresholdSampled(flows, 1);
+
+        // Sampling by the exporter does not change the thresholded bytes
+        final FlowThresholdingImpl.IndexKey indexKey = new FlowThresholdingImpl.IndexKey(1, Flow.Direction.INGRESS);
+        for (final FlowThresholdingImpl.Session session : this.thresholding.getSessions()) {
+            assertEquals(2048L + 1024L, session.indexKeyMap.get(indexKey).get("APP2").get());
+        }
+    }
+
+    @Test
+    public void testLoadSampledFlows() throws Exception {
+        final List<EnrichedFlow> flows = createMockedFlows(2);
+        flows.get(0).setSamplingInterval(4.0);
+
+        this.thresholdSampled(flows, 8);
+
+        // Flows kept by load-based sampling with 1:8 account for the ones shed, regardless of the exporter sampling
+        final FlowThresholdingImpl.IndexKey indexKey = new FlowThresholdingImpl.IndexKey(1, Flow.Direction.INGRESS);
+        for (final FlowThresholdingImpl.Session session : this.thresholding.getSessions()) {
+            assertEquals(8 * (2048L + 1024L), session.indexKeyMap.get(indexKey).get("APP2").get());
+        }
+    }
+
+    private void thresholdSampled(final List<EnrichedFlow> flows, final int samplingFactor) {
+        this.transactionTemplate.execute((tx) -> {
+            try {
+                this.thresholding.threshold(flows,
+                                            ProcessingOptions.builder()
+                                                             .setApplicationThresholding(true)
+                                                             .build(),
+                                            samplingFactor);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return null;
+        });
+    }
+
     @Test
     public void testHousekeeping() throws Exception {
         this.thresholding.setIdleTimeoutMs(2000);
@@ -32,11 +32,23 @@ public class ProcessingOptions {
     public final boolean applicationThresholding;
     public final boolean applicationDataCollection;
 
+    /**
+     * Number of applications tracked per interface and direction. If zero, all applications are tracked exactly.
+     */
+    public final int applicationTopK;
+
+    /**
+     * Error bound of the application sketch relative to the total bytes of an exporter.
+     */
+    public final double applicationErrorBound;
+
     public final List<? extends PackageDefinition> packages;
 
     private ProcessingOptions(final Builder builder) {
         this.applicationThresholding = builder.applicationThresholding;
         this.applicationDataCollection = builder.applicationDataCollection;
+        this.applicationTopK = builder.applicationTopK;
+        this.applicationErrorBound = builder.applicationErrorBound;
         this.packages = builder.packages;
     }
 
@@ -44,6 +56,9 @@ public class ProcessingOptions {
         private boolean applicationThresholding;
         private boolean applicationDataCollection;
 
+        private int applicationTopK = 0;
+        private double applicationErrorBound = 0.001;
+
         private List<? extends PackageDefinition> packages = Lists.newArrayList();
 
         private Builder() {}
@@ -58,6 +73,16 @@ public class ProcessingOptions {
             return this;
         }
 
+        public Builder setApplicationTopK(final int applicationTopK) {
+            this.applicationTopK = applicationTopK;
+            return this;
+        }
+
+        public Builder setApplicationErrorBound(final double applicationErrorBound) {
+            this.applicationErrorBound = applicationErrorBound;
+            return this;
+        }
+
         public Builder setPackages(final List<? extends PackageDefinition> packages) {
             this.packages = packages;
             return this;
@@ -25,10 +25,15 @@ import java.net.InetAddress;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -36,6 +41,7 @@ import org.opennms.core.cache.Cache;
 import org.opennms.core.cache.CacheBuilder;
 import org.opennms.core.cache.CacheConfig;
 import org.opennms.core.cache.CacheConfigBuilder;
+import org.opennms.core.criteria.CriteriaBuilder;
 import org.opennms.core.mate.api.ContextKey;
 import org.opennms.core.utils.InetAddressUtils;
 import org.opennms.netmgt.dao.api.InterfaceToNodeCache;
@@ -134,65 +140,73 @@ public class DocumentEnricherImpl {
             return Collections.emptyList();
         }
 
-        return sessionUtils.withTransaction(() -> flows.stream().flatMap(flow -> {
-            final EnrichedFlow document = this.mangler.mangle(EnrichedFlow.from(flow));
-            if (document == null) {
-                return Stream.empty();
-            }
+        return sessionUtils.withTransaction(() -> {
+            // Resolve the node data of all addresses in the batch upfront
+            final Map<String, Optional<NodeInfo>> nodeInfos = resolveNodeInfos(source.getLocation(), Stream.concat(
+                    Stream.of(source.getSourceAddress()),
+                    flows.stream().flatMap(flow -> Stream.of(flow.getSrcAddr(), flow.getDstAddr()))));
+            final Map<String, Optional<NodeInfo>> exporterNodeInfos = new HashMap<>();
+
+            return flows.stream().flatMap(flow -> {
+                final EnrichedFlow document = this.mangler.mangle(EnrichedFlow.from(flow));
+                if (document == null) {
+                    return Stream.empty();
+                }
 
-            // Metadata from message
-            document.setHost(source.getSourceAddress());
-            document.setLocation(source.getLocation());
+                // Metadata from message
+                document.setHost(source.getSourceAddress());
+                document.setLocation(source.getLocation());
 
-            // Node data
-            getNodeInfoFromCache(source.getLocation(), source.getSourceAddress(), source.getContextKey(), flow.getNodeIdentifier()).ifPresent(document::setExporterNodeInfo);
-            if (flow.getDstAddr() != null) {
-                getNodeInfoFromCache(source.getLocation(), flow.getDstAddr(), null, null).ifPresent(document::setSrcNodeInfo);
-            }
-            if (flow.getSrcAddr() != null) {
-                getNodeInfoFromCache(source.getLocation(), flow.getSrcAddr(), null, null).ifPresent(document::setDstNodeInfo);
-            }
+                // Node data
+                exporterNodeInfos.computeIfAbsent(flow.getNodeIdentifier(), nodeIdentifier -> getExporterNodeInfo(source, nodeIdentifier, nodeInfos)).ifPresent(document::setExporterNodeInfo);
+                if (flow.getDstAddr() != null) {
+                    nodeInfos.get(flow.getDstAddr()).ifPresent(document::setSrcNodeInfo);
+                }
+                if (flow.getSrcAddr() != null) {
+                    nodeInfos.get(flow.getSrcAddr()).ifPresent(document::setDstNodeInfo);
+                }
 
-            // Locality
-            if (flow.getSrcAddr() != null) {
-                document.setSrcLocality(isPrivateAddress(flow.getSrcAddr()) ? EnrichedFlow.Locality.PRIVATE : EnrichedFlow.Locality.PUBLIC);
-            }
-            if (flow.getDstAddr() != null) {
-                document.setDstLocality(isPrivateAddress(flow.getDstAddr()) ? EnrichedFlow.Locality.PRIVATE : EnrichedFlow.Locality.PUBLIC);
-            }
+                // Locality
+                if (flow.getSrcAddr() != null) {
+                    document.setSrcLocality(isPrivateAddress(flow.getSrcAddr()) ? EnrichedFlow.Locality.PRIVATE : EnrichedFlow.Locality.PUBLIC);
+                }
+                if (flow.getDstAddr() != null) {
+                    document.setDstLocality(isPrivateAddress(flow.getDstAddr()) ? EnrichedFlow.Locality.PRIVATE : EnrichedFlow.Locality.PUBLIC);
+                }
 
-            if (EnrichedFlow.Locality.PUBLIC.equals(document.getDstLocality()) || EnrichedFlow.Locality.PUBLIC.equals(document.getSrcLocality())) {
-                document.setFlowLocality(EnrichedFlow.Locality.PUBLIC);
-            } else if (EnrichedFlow.Locality.PRIVATE.equals(document.getDstLocality()) || EnrichedFlow.Locality.PRIVATE.equals(document.getSrcLocality())) {
-                document.setFlowLocality(EnrichedFlow.Locality.PRIVATE);
-            }
+                if (EnrichedFlow.Locality.PUBLIC.equals(document.getDstLocality()) || EnrichedFlow.Locality.PUBLIC.equals(document.getSrcLocality())) {
+                    document.setFlowLocality(EnrichedFlow.Locality.PUBLIC);
+                } else if (EnrichedFlow.Locality.PRIVATE.equals(document.getDstLocality()) || EnrichedFlow.Locality.PRIVATE.equals(document.getSrcLocality())) {
+                    document.setFlowLocality(EnrichedFlow.Locality.PRIVATE);
+                }
 
-            final ClassificationRequest classificationRequest = createClassificationRequest(document);
+                final ClassificationRequest classificationRequest = createClassificationRequest(document);
 
-            // Check whether classification is possible
-            if (classificationRequest.isClassifiable()) {
-                // Apply Application mapping
-                document.setApplication(classificationEngine.classify(classificationRequest));
-            }
+                // Check whether classification is possible
+                if (classificationRequest.isClassifiable()) {
+                    // Apply Application mapping
+                    document.setApplication(classificationEngine.classify(classificationRequest));
+                }
 
-            // Fix skewed clock
-            // If received time and export time differ to much, correct all timestamps by the difference
-            if (this.clockSkewCorrectionThreshold > 0) {
-                final var skew = Duration.between(flow.getReceivedAt(), flow.getTimestamp());
-                if (skew.abs().toMillis() >= this.clockSkewCorrectionThreshold) {
-                    // The applied correction is the negative skew
-                    document.setClockCorrection(skew.negated());
-
-                    // Fix the skew on all timestamps of the flow
-                    document.setTimestamp(flow.getTimestamp().minus(skew));
-                    document.setFirstSwitched(flow.getFirstSwitched().minus(skew));
-                    document.setDeltaSwitched(flow.getDeltaSwitched().minus(skew));
-                    document.setLastSwitched(flow.getLastSwitched().minus(skew));
+                // Fix skewed clock
+                // If received time and export time differ to much, correct all timestamps by the difference
+                if (this.clockSkewCorrectionThreshold > 0) {
+                    final var skew = Duration.between(flow.getReceivedAt(), flow.getTimestamp());
+                    if (skew.abs().toMillis() >= this.clockSkewCorrectionThreshold) {
+                        // The applied correction is the negative skew
+                        document.setClockCorrection(skew.negated());
+
+                        // Fix the skew on all timestamps of the flow
+                        document.setTimestamp(flow.getTimestamp().minus(skew));
+                        document.setFirstSwitched(flow.getFirstSwitched().minus(skew));
+                        document.setDeltaSwitched(flow.getDeltaSwitched().minus(skew));
+                        document.setLastSwitched(flow.getLastSwitched().minus(skew));
+                    }
                 }
-            }
 
-            return Stream.of(document);
-        }).collect(Collectors.toList()));
+                return Stream.of(document);
+            }).collect(Collectors.toList());
+        });
     }
 
     private static boolean isPrivateAddress(String ipAddress) {
@@ -200,10 +214,10 @@ public class DocumentEnricherImpl {
         return inetAddress.isLoopbackAddress() || inetAddress.isLinkLocalAddress() || inetAddress.isSiteLocalAddress();
     }
 
-    private Optional<NodeInfo> getNodeInfoFromCache(final String location, final String ipAddress, final ContextKey contextKey, final String value) {
-        Optional<NodeInfo> nodeDocument = Optional.empty();
-        if (contextKey != null && !Strings.isNullOrEmpty(value)) {
-            final NodeMetadataKey metadataKey = new NodeMetadataKey(contextKey, value);
+    private Optional<NodeInfo> getExporterNodeInfo(final FlowSource source, final String nodeIdentifier, final Map<String, Optional<NodeInfo>> nodeInfos) {
+        if (source.getContextKey() != null && !Strings.isNullOrEmpty(nodeIdentifier)) {
+            final NodeMetadataKey metadataKey = new NodeMetadataKey(source.getContextKey(), nodeIdentifier);
+            final Optional<NodeInfo> nodeDocument;
             try {
                 nodeDocument = this.nodeMetadataCache.get(metadataKey);
             } catch (ExecutionException e) {
@@ -215,18 +229,61 @@ public class DocumentEnricherImpl {
             }
         }
 
-        final var entry = this.interfaceToNodeCache.getFirst(location, InetAddressUtils.addr(ipAddress));
-        if(entry.isPresent()) {
-            try {
-                return this.nodeInfoCache.get(entry.get());
-            } catch (ExecutionException e) {
-                LOG.error("Error while retrieving NodeDocument from NodeInfoCache: {}.", e.getMessage(), e);
-                throw new RuntimeException(e);
+        return nodeInfos.getOrDefault(source.getSourceAddress(), Optional.empty());
+    }
+
+    /**
+     * Resolves the node data for a set of addresses at once.
+     *
+     * Every distinct address is looked up in the interface cache only once and all nodes which are not already cached
+     * are loaded using a single query.
+     */
+    private Map<String, Optional<NodeInfo>> resolveNodeInfos(final String location, final Stream<String> addresses) {
+        final Map<String, InterfaceToNodeCache.Entry> entries = new HashMap<>();
+        final Map<InterfaceToNodeCache.Entry, Optional<NodeInfo>> resolved = new HashMap<>();
+        final Set<Integer> missingNodeIds = new HashSet<>();
+
+        final Map<String, Optional<NodeInfo>> result = new HashMap<>();
+        addresses.filter(Objects::nonNull).distinct().forEach(address -> {
+            final var entry = this.interfaceToNodeCache.getFirst(location, InetAddressUtils.addr(address));
+            if (entry.isEmpty()) {
+                result.put(address, Optional.empty());
+                return;
+            }
+
+            entries.put(address, entry.get());
+            if (!resolved.containsKey(entry.get())) {
+                final Optional<NodeInfo> cached = this.nodeInfoCache.getIfCached(entry.get());
+                if (cached != null) {
+                    resolved.put(entry.get(), cached);
+                } else {
+                    missingNodeIds.add(entry.get().nodeId);
+                }
+            }
+        });
+
+        if (!missingNodeIds.isEmpty()) {
+            final Map<Integer, OnmsNode> nodes;
+            try (Timer.Context ctx = this.nodeLoadTimer.time()) {
+                nodes = this.nodeDao.findMatching(new CriteriaBuilder(OnmsNode.class)
+                                .in("id", missingNodeIds)
+                                .toCriteria())
+                        .stream()
+                        .collect(Collectors.toMap(OnmsNode::getId, Function.identity()));
+            }
+
+            for (final InterfaceToNodeCache.Entry entry : entries.values()) {
+                if (!resolved.containsKey(entry)) {
+                    final Optional<NodeInfo> nodeInfo = mapOnmsNodeToNodeDocument(nodes.get(entry.nodeId), entry.interfaceId);
+                    this.nodeInfoCache.put(entry, nodeInfo);
+                    resolved.put(entry, nodeInfo);
+                }
             }
         }
-        return nodeDocument;
-    }
 
+        entries.forEach((address, entry) -> result.put(address, resolved.get(entry)));
+        return result;
+    }
 
     // Key class, which is used to cache NodeInfo for a given node metadata.
     private static class NodeMetadataKey {
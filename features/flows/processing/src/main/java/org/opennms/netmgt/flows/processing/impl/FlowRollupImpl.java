@@ -0,0 +1,542 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.impl;
+
+import static org.opennms.integration.api.v1.flows.Flow.Direction;
+
+import java.io.Closeable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.opennms.integration.api.v1.flows.Flow.NodeInfo;
+import org.opennms.integration.api.v1.flows.FlowException;
+import org.opennms.netmgt.flows.processing.enrichment.EnrichedFlow;
+import org.opennms.netmgt.flows.processing.rollup.FlowRollup;
+import org.opennms.netmgt.flows.processing.rollup.FlowRollupRepository;
+import org.opennms.netmgt.flows.processing.rollup.HeavyHitters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Rolls up enriched flows into tumbling windows per exporter interface.
+ *
+ * For each window and interface, the total traffic and the top applications, hosts and conversations are tracked. The
+ * entities are tracked using {@link HeavyHitters} sketches, so memory is bounded by the number of active interfaces.
+ * Flows spanning multiple windows are distributed proportionally to their duration.
+ *
+ * Windows are emitted to the bound {@link FlowRollupRepository}s once the allowed lateness has passed. Late flows
+ * within the allowed lateness are added to their still pending window. Flows arriving even later are dropped for the
+ * windows which have already been emitted, as their rankings can not be corrected anymore.
+ */
+public class FlowRollupImpl implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(FlowRollupImpl.class);
+
+    public static final String SERVICE_NAME = "Flow-Rollup";
+
+    // Application name used by the aggregated indices for flows without application
+    public static final String UNKNOWN_APPLICATION = "__unknown";
+
+    // Flows are not spread over more windows than this
+    private static final int MAX_WINDOWS_PER_FLOW = 60;
+
+    /**
+     * Number of flows rolled up
+     */
+    private final Meter flowsRolledUp;
+
+    /**
+     * Number of flows without exporter or interface information
+     */
+    private final Counter flowsSkipped;
+
+    /**
+     * Number of flows which arrived after their window was emitted
+     */
+    private final Counter flowsTooLate;
+
+    /**
+     * Number of rollups persisted, counted once per repository
+     */
+    private final Meter rollupsEmitted;
+
+    /**
+     * Number of failures while persisting rollups
+     */
+    private final Counter rollupErrors;
+
+    private final Set<FlowRollupRepository> repositories = Sets.newConcurrentHashSet();
+
+    private final ConcurrentMap<Long, Window> windows = Maps.newConcurrentMap();
+
+    // Windows ending at or before this have been emitted
+    private volatile long emittedBefore = Long.MIN_VALUE;
+
+    private boolean enabled = false;
+    private boolean persistRawFlows = true;
+
+    private final AtomicBoolean missingRepositoryReported = new AtomicBoolean(false);
+
+    private long windowMs = 60_000;
+    private long allowedLatenessMs = 60_000;
+
+    private int topN = 10;
+    private int capacity = 100;
+
+    private Timer timer;
+
+    public FlowRollupImpl(final MetricRegistry metricRegistry) {
+        this.flowsRolledUp = metricRegistry.meter("flowsRolledUp");
+        this.flowsSkipped = metricRegistry.counter("flowsSkippedByRollup");
+        this.flowsTooLate = metricRegistry.counter("flowsTooLateForRollup");
+        this.rollupsEmitted = metricRegistry.meter("rollupsEmitted");
+        this.rollupErrors = metricRegistry.counter("rollupErrors");
+
+        metricRegistry.register("rollupWindows", (Gauge<Integer>) this.windows::size);
+    }
+
+    public synchronized void start() {
+        if (!this.enabled || this.timer != null) {
+            return;
+        }
+
+        final long interval = Math.max(1, this.windowMs / 2);
+
+        this.timer = new Timer(SERVICE_NAME + "-Timer", true);
+        this.timer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                try {
+                    flush(System.currentTimeMillis() - allowedLatenessMs);
+                } catch (final Throwable ex) {
+                    LOG.error("Rollup timer bailed", ex);
+                }
+            }
+        }, interval, interval);
+        LOG.debug("Timer task scheduled (windowMs={}ms, allowedLatenessMs={}ms).", this.windowMs, this.allowedLatenessMs);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.timer != null) {
+            this.timer.cancel();
+            this.timer = null;
+        }
+
+        // Emit all pending windows
+        this.flush(Long.MAX_VALUE);
+    }
+
+    public void aggregate(final Collection<EnrichedFlow> flows) {
+        this.aggregate(flows, System.currentTimeMillis());
+    }
+
+    /**
+     * Rolls up the given flows, dropping the parts which fall into windows that were emitted before the given time.
+     */
+    public void aggregate(final Collection<EnrichedFlow> flows, final long now) {
+        // Windows ending before this have been emitted already - or are about to be
+        final long cutoff = now - this.allowedLatenessMs;
+
+        for (final EnrichedFlow flow : flows) {
+            final NodeInfo exporter = flow.getExporterNodeInfo();
+            final boolean egress = flow.getDirection() == Direction.EGRESS;
+            final Integer ifIndex = egress ? flow.getOutputSnmp() : flow.getInputSnmp();
+
+            if (exporter == null || ifIndex == null || flow.getBytes() == null) {
+                this.flowsSkipped.inc();
+                continue;
+            }
+
+            final long bytes = flow.getSamplingInterval() != null && flow.getSamplingInterval() > 0
+                    ? (long) (flow.getBytes() * flow.getSamplingInterval())
+                    : flow.getBytes();
+
+            final long end = (flow.getLastSwitched() != null ? flow.getLastSwitched() : flow.getTimestamp()).toEpochMilli();
+
+            final Instant first = flow.getDeltaSwitched() != null ? flow.getDeltaSwitched() : flow.getFirstSwitched();
+            long start = first != null ? Math.min(first.toEpochMilli(), end) : end;
+            start = Math.max(start, this.windowStart(end) - (MAX_WINDOWS_PER_FLOW - 1) * this.windowMs);
+
+            final long duration = end - start;
+
+            boolean late = false;
+            long remaining = bytes;
+            for (long window = this.windowStart(start); window <= end; window += this.windowMs) {
+                final long share;
+                if (window + this.windowMs > end) {
+                    // Last window gets the remainder to compensate rounding
+                    share = remaining;
+                } else {
+                    final long overlap = window + this.windowMs - Math.max(window, start);
+                    share = Math.min(remaining, Math.round((double) bytes * overlap / duration));
+                }
+                remaining -= share;
+
+                if (window + this.windowMs <= cutoff
+                        || !this.add(window, exporter, ifIndex, flow, egress ? 0 : share, egress ? share : 0)) {
+                    late = true;
+                }
+            }
+
+            if (late) {
+                this.flowsTooLate.inc();
+            }
+            this.flowsRolledUp.mark();
+        }
+    }
+
+    /**
+     * Adds the share of a flow to its window.
+     *
+     * @return false if the window has been emitted already, e.g. by a flush running concurrently to the batch
+     */
+    private boolean add(final long windowStart,
+                        final NodeInfo exporter,
+                        final int ifIndex,
+                        final EnrichedFlow flow,
+                        final long bytesIngress,
+                        final long bytesEgress) {
+        if (this.isEmitted(windowStart)) {
+            return false;
+        }
+
+        final InterfaceKey key = new InterfaceKey(exporter.getNodeId(), ifIndex);
+        final Window window = this.windows.computeIfAbsent(windowStart, Window::new);
+
+        window.lock.readLock().lock();
+        try {
+            // The window has been emitted in the meantime. As the watermark is raised before a window is removed,
+            // this also covers windows created again after the emitted one was removed.
+            if (window.closed || this.isEmitted(windowStart)) {
+                return false;
+            }
+
+            final InterfaceRollup rollup = window.interfaces.computeIfAbsent(key, k -> new InterfaceRollup(exporter, ifIndex));
+            synchronized (rollup) {
+                rollup.add(flow, bytesIngress, bytesEgress);
+            }
+            return true;
+        } finally {
+            window.lock.readLock().unlock();
+        }
+    }
+
+    private boolean isEmitted(final long windowStart) {
+        return windowStart + this.windowMs <= this.emittedBefore;
+    }
+
+    /**
+     * Emits all windows which ended before the given timestamp.
+     */
+    public synchronized void flush(final long before) {
+        if (before > this.emittedBefore) {
+            this.emittedBefore = before;
+        }
+
+        for (final Iterator<Map.Entry<Long, Window>> it = this.windows.entrySet().iterator(); it.hasNext(); ) {
+            final Window window = it.next().getValue();
+            if (window.start + this.windowMs > before) {
+                continue;
+            }
+
+            it.remove();
+
+            window.lock.writeLock().lock();
+            try {
+                window.closed = true;
+            } finally {
+                window.lock.writeLock().unlock();
+            }
+
+            this.emit(window);
+        }
+    }
+
+    private void emit(final Window window) {
+        final Instant rangeStart = Instant.ofEpochMilli(window.start);
+        final Instant rangeEnd = Instant.ofEpochMilli(window.start + this.windowMs);
+
+        final List<FlowRollup> rollups = new ArrayList<>();
+        for (final InterfaceRollup rollup : window.interfaces.values()) {
+            rollup.emit(rangeStart, rangeEnd, rollups);
+        }
+
+        if (rollups.isEmpty()) {
+            return;
+        }
+
+        for (final FlowRollupRepository repository : this.repositories) {
+            try {
+                repository.persist(rollups);
+                this.rollupsEmitted.mark(rollups.size());
+            } catch (final FlowException e) {
+                this.rollupErrors.inc();
+                LOG.error("Failed to persist {} rollups to {}", rollups.size(), repository, e);
+            }
+        }
+    }
+
+    private long windowStart(final long timestamp) {
+        return timestamp - Math.floorMod(timestamp, this.windowMs);
+    }
+
+    public void onBind(final FlowRollupRepository repository, final Map<?, ?> properties) {
+        if (repository != null) {
+            this.repositories.add(repository);
+            this.missingRepositoryReported.set(false);
+        }
+    }
+
+    public void onUnbind(final FlowRollupRepository repository, final Map<?, ?> properties) {
+        if (repository != null) {
+            this.repositories.remove(repository);
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isPersistRawFlows() {
+        return this.persistRawFlows;
+    }
+
+    public void setPersistRawFlows(final boolean persistRawFlows) {
+        this.persistRawFlows = persistRawFlows;
+    }
+
+    /**
+     * Returns whether persisting the raw flows can be skipped.
+     *
+     * The raw flows are persisted anyway as long as no repository is bound to persist the rollups to, as the flows
+     * would be lost otherwise.
+     */
+    public boolean isSkipRawFlows() {
+        if (this.persistRawFlows) {
+            return false;
+        }
+
+        if (this.repositories.isEmpty()) {
+            if (this.missingRepositoryReported.compareAndSet(false, true)) {
+                LOG.warn("Raw flows are disabled but no rollup repository is bound. Persisting raw flows until a rollup repository is available.");
+            }
+            return false;
+        }
+
+        return true;
+    }
+
+    public long getWindowMs() {
+        return this.windowMs;
+    }
+
+    public void setWindowMs(final long windowMs) {
+        if (windowMs <= 0) {
+            throw new IllegalArgumentException("windowMs must be positive");
+        }
+        this.windowMs = windowMs;
+    }
+
+    public long getAllowedLatenessMs() {
+        return this.allowedLatenessMs;
+    }
+
+    public void setAllowedLatenessMs(final long allowedLatenessMs) {
+        this.allowedLatenessMs = allowedLatenessMs;
+    }
+
+    public int getTopN() {
+        return this.topN;
+    }
+
+    public void setTopN(final int topN) {
+        this.topN = topN;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public void setCapacity(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    private static final class Window {
+        private final long start;
+
+        private final ConcurrentMap<InterfaceKey, InterfaceRollup> interfaces = Maps.newConcurrentMap();
+
+        // Guards closing the window against concurrent updates
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private boolean closed = false;
+
+        private Window(final long start) {
+            this.start = start;
+        }
+    }
+
+    private static final class InterfaceKey {
+        private final int nodeId;
+        private final int ifIndex;
+
+        private InterfaceKey(final int nodeId, final int ifIndex) {
+            this.nodeId = nodeId;
+            this.ifIndex = ifIndex;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof InterfaceKey)) {
+                return false;
+            }
+            final InterfaceKey that = (InterfaceKey) o;
+            return this.nodeId == that.nodeId &&
+                   this.ifIndex == that.ifIndex;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.nodeId, this.ifIndex);
+        }
+    }
+
+    private final class InterfaceRollup {
+        private final NodeInfo exporter;
+        private final int ifIndex;
+
+        private long bytesIngress;
+        private long bytesEgress;
+
+        private final HeavyHitters<String> applications;
+        private final HeavyHitters<String> hosts;
+        private final HeavyHitters<String> conversations;
+
+        private InterfaceRollup(final NodeInfo exporter, final int ifIndex) {
+            this.exporter = Objects.requireNonNull(exporter);
+            this.ifIndex = ifIndex;
+
+            this.applications = new HeavyHitters<>(FlowRollupImpl.this.capacity);
+            this.hosts = new HeavyHitters<>(FlowRollupImpl.this.capacity);
+            this.conversations = new HeavyHitters<>(FlowRollupImpl.this.capacity);
+        }
+
+        private void add(final EnrichedFlow flow, final long bytesIngress, final long bytesEgress) {
+            this.bytesIngress += bytesIngress;
+            this.bytesEgress += bytesEgress;
+
+            this.applications.add(flow.getApplication() != null ? flow.getApplication() : UNKNOWN_APPLICATION, bytesIngress, bytesEgress);
+
+            if (flow.getSrcAddr() != null) {
+                this.hosts.add(flow.getSrcAddr(), flow.getSrcAddrHostname().orElse(null), bytesIngress, bytesEgress);
+            }
+            if (flow.getDstAddr() != null) {
+                this.hosts.add(flow.getDstAddr(), flow.getDstAddrHostname().orElse(null), bytesIngress, bytesEgress);
+            }
+
+            final String conversationKey = flow.getConvoKey();
+            if (conversationKey != null) {
+                this.conversations.add(conversationKey, bytesIngress, bytesEgress);
+            }
+        }
+
+        private synchronized void emit(final Instant rangeStart, final Instant rangeEnd, final List<FlowRollup> rollups) {
+            final String key = this.exporterKey() + "-" + this.ifIndex;
+
+            rollups.add(FlowRollup.builder()
+                    .setRange(rangeStart, rangeEnd)
+                    .setGroupedBy(FlowRollup.GroupedBy.EXPORTER_INTERFACE, key)
+                    .setAggregationType(FlowRollup.AggregationType.TOTAL)
+                    .setInterface(this.exporter, this.ifIndex)
+                    .setBytes(this.bytesIngress, this.bytesEgress)
+                    .build());
+
+            int ranking = 0;
+            for (final HeavyHitters.Entry<String> entry : this.applications.top(FlowRollupImpl.this.topN)) {
+                rollups.add(this.topK(rangeStart, rangeEnd, FlowRollup.GroupedBy.EXPORTER_INTERFACE_APPLICATION, key, ranking++, entry)
+                        .setApplication(entry.getKey())
+                        .build());
+            }
+
+            ranking = 0;
+            for (final HeavyHitters.Entry<String> entry : this.hosts.top(FlowRollupImpl.this.topN)) {
+                rollups.add(this.topK(rangeStart, rangeEnd, FlowRollup.GroupedBy.EXPORTER_INTERFACE_HOST, key, ranking++, entry)
+                        .setHost(entry.getKey(), entry.getLabel())
+                        .build());
+            }
+
+            ranking = 0;
+            for (final HeavyHitters.Entry<String> entry : this.conversations.top(FlowRollupImpl.this.topN)) {
+                rollups.add(this.topK(rangeStart, rangeEnd, FlowRollup.GroupedBy.EXPORTER_INTERFACE_CONVERSATION, key, ranking++, entry)
+                        .setConversationKey(entry.getKey())
+                        .build());
+            }
+        }
+
+        private FlowRollup.Builder topK(final Instant rangeStart,
+                                        final Instant rangeEnd,
+                                        final FlowRollup.GroupedBy groupedBy,
+                                        final String key,
+                                        final int ranking,
+                                        final HeavyHitters.Entry<String> entry) {
+            return FlowRollup.builder()
+                    .setRange(rangeStart, rangeEnd)
+                    .setGroupedBy(groupedBy, key + "-" + entry.getKey())
+                    .setAggregationType(FlowRollup.AggregationType.TOPK)
+                    .setRanking(ranking)
+                    .setInterface(this.exporter, this.ifIndex)
+                    .setBytes(entry.getBytesIngress(), entry.getBytesEgress());
+        }
+
+        private String exporterKey() {
+            if (this.exporter.getForeignSource() != null && this.exporter.getForeignId() != null) {
+                return this.exporter.getForeignSource() + ":" + this.exporter.getForeignId();
+            }
+            return Integer.toString(this.exporter.getNodeId());
+        }
+    }
+}
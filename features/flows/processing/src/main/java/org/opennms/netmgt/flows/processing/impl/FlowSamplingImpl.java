@@ -0,0 +1,244 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.opennms.integration.api.v1.flows.Flow.Direction;
+import org.opennms.integration.api.v1.flows.Flow.SamplingAlgorithm;
+import org.opennms.netmgt.flows.api.Flow;
+import org.opennms.netmgt.flows.api.FlowSource;
+import org.opennms.netmgt.flows.processing.enrichment.EnrichedFlow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Samples flows if the pipeline falls behind.
+ *
+ * The processing lag is measured as the time between the Minion receiving a flow and handing it to the pipeline, so it
+ * covers the time the flows were queued in the Sink, e.g. in Kafka, where a backlog piles up during a flood. The clocks
+ * of the Minion and of this system may differ. The smallest delay seen from an exporter within the last 30 to 60
+ * minutes is therefore taken as the offset between the clocks plus the usual transport time, and only the delay beyond
+ * it counts as lag. A backlog persisting for longer than that is taken as normal. If the smoothed lag exceeds the
+ * threshold, only one out of N flows is processed,
+ * where N is the next power of two of the ratio between lag and threshold. The decision is made by hashing the
+ * exporter, the interface and the flow tuple, so all records of a conversation on an interface are either kept or
+ * dropped together.
+ *
+ * The sampling factor of kept flows is multiplied into their sampling interval, which is already used to scale up
+ * bytes and packets when the flows are aggregated or queried. This keeps the totals statistically correct without
+ * touching the counters, which would otherwise be scaled twice.
+ */
+public class FlowSamplingImpl {
+    private static final Logger LOG = LoggerFactory.getLogger(FlowSamplingImpl.class);
+
+    // Weight of a new lag measurement in the smoothed lag
+    private static final double LAG_ALPHA = 0.2;
+
+    // The offset of an exporter is the smallest delay seen within the current and the previous window
+    private static final long OFFSET_WINDOW_MS = TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * Number of flows dropped by sampling
+     */
+    private final Meter flowsSampledOut;
+
+    private boolean enabled = false;
+
+    private long lagThresholdMs = 5_000;
+    private int maxSamplingFactor = 1024;
+
+    // Updated concurrently by all processing threads - lost updates are irrelevant for a smoothed value
+    private volatile double lagMs = 0.0;
+    private volatile int samplingFactor = 1;
+
+    private final Map<String, ClockOffset> offsets = new ConcurrentHashMap<>();
+
+    public FlowSamplingImpl(final MetricRegistry metricRegistry) {
+        this.flowsSampledOut = metricRegistry.meter("flowsSampledOut");
+
+        metricRegistry.register("samplingFactor", (Gauge<Integer>) () -> this.samplingFactor);
+        metricRegistry.register("processingLag", (Gauge<Long>) () -> (long) this.lagMs);
+    }
+
+    /**
+     * Updates the processing lag from the given flows and returns the sampling factor to apply to them.
+     */
+    public int update(final List<Flow> flows, final FlowSource source, final long now) {
+        long received = Long.MAX_VALUE;
+        for (final Flow flow : flows) {
+            if (flow.getReceivedAt() != null) {
+                received = Math.min(received, flow.getReceivedAt().toEpochMilli());
+            }
+        }
+
+        if (received == Long.MAX_VALUE) {
+            return this.samplingFactor;
+        }
+
+        final long delay = now - received;
+        final long offset = this.offsets.computeIfAbsent(source.getLocation() + "/" + source.getSourceAddress(), key -> new ClockOffset(now))
+                .update(delay, now);
+
+        final double lag = this.lagMs * (1.0 - LAG_ALPHA) + Math.max(0, delay - offset) * LAG_ALPHA;
+        this.lagMs = lag;
+
+        final int factor = this.factorFor(lag);
+        if (factor != this.samplingFactor) {
+            LOG.info("Processing lag is {}ms. Changing flow sampling factor from {} to {}.", (long) lag, this.samplingFactor, factor);
+            this.samplingFactor = factor;
+        }
+
+        return factor;
+    }
+
+    private int factorFor(final double lag) {
+        if (lag <= this.lagThresholdMs) {
+            return 1;
+        }
+
+        final long ratio = (long) Math.ceil(lag / Math.max(1, this.lagThresholdMs));
+        if (ratio >= this.maxSamplingFactor) {
+            return Integer.highestOneBit(this.maxSamplingFactor);
+        }
+        return Integer.highestOneBit((int) ratio - 1) << 1;
+    }
+
+    /**
+     * Returns the flows selected by the given sampling factor.
+     */
+    public List<Flow> sample(final List<Flow> flows, final FlowSource source, final int factor) {
+        if (factor <= 1) {
+            return flows;
+        }
+
+        final int exporter = Objects.hashCode(source.getSourceAddress());
+        final int mask = factor - 1;
+
+        final List<Flow> sampled = new ArrayList<>(flows.size() / factor + 1);
+        for (final Flow flow : flows) {
+            if ((hash(exporter, flow) & mask) == 0) {
+                sampled.add(flow);
+            }
+        }
+
+        this.flowsSampledOut.mark(flows.size() - sampled.size());
+        return sampled;
+    }
+
+    /**
+     * Records the sampling factor in the sampling fields of the given flows.
+     */
+    public void rescale(final List<EnrichedFlow> flows, final int factor) {
+        if (factor <= 1) {
+            return;
+        }
+
+        for (final EnrichedFlow flow : flows) {
+            final Double interval = flow.getSamplingInterval();
+            flow.setSamplingInterval(interval != null && interval > 0 ? interval * factor : factor);
+
+            if (flow.getSamplingAlgorithm() == null || flow.getSamplingAlgorithm() == SamplingAlgorithm.Unassigned) {
+                flow.setSamplingAlgorithm(SamplingAlgorithm.HashBasedFiltering);
+            }
+        }
+    }
+
+    private static int hash(final int exporter, final Flow flow) {
+        int h = exporter;
+        h = 31 * h + Objects.hashCode(flow.getDirection() == Direction.EGRESS ? flow.getOutputSnmp() : flow.getInputSnmp());
+        h = 31 * h + Objects.hashCode(flow.getSrcAddr());
+        h = 31 * h + Objects.hashCode(flow.getDstAddr());
+        h = 31 * h + Objects.hashCode(flow.getSrcPort());
+        h = 31 * h + Objects.hashCode(flow.getDstPort());
+        h = 31 * h + Objects.hashCode(flow.getProtocol());
+
+        // Finalize the hash to spread the bits used for sampling (see MurmurHash3 fmix32)
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Windowed minimum of the delays seen from an exporter.
+     */
+    private static class ClockOffset {
+        private long windowStart;
+        private long current = Long.MAX_VALUE;
+        private long previous = Long.MAX_VALUE;
+
+        private ClockOffset(final long now) {
+            this.windowStart = now;
+        }
+
+        private synchronized long update(final long delay, final long now) {
+            if (now - this.windowStart >= OFFSET_WINDOW_MS) {
+                this.previous = this.current;
+                this.current = Long.MAX_VALUE;
+                this.windowStart = now;
+            }
+
+            this.current = Math.min(this.current, delay);
+            return Math.min(this.current, this.previous);
+        }
+    }
+
+    public int getSamplingFactor() {
+        return this.samplingFactor;
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getLagThresholdMs() {
+        return this.lagThresholdMs;
+    }
+
+    public void setLagThresholdMs(final long lagThresholdMs) {
+        this.lagThresholdMs = lagThresholdMs;
+    }
+
+    public int getMaxSamplingFactor() {
+        return this.maxSamplingFactor;
+    }
+
+    public void setMaxSamplingFactor(final int maxSamplingFactor) {
+        this.maxSamplingFactor = maxSamplingFactor;
+    }
+}
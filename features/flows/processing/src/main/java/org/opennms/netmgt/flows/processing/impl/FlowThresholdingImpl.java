@@ -63,6 +63,8 @@ import org.opennms.netmgt.flows.classification.FilterService;
 import org.opennms.netmgt.flows.classification.persistence.api.Rule;
 import org.opennms.netmgt.flows.processing.ProcessingOptions;
 import org.opennms.netmgt.flows.processing.enrichment.EnrichedFlow;
+import org.opennms.netmgt.flows.processing.thresholding.CountMinSketch;
+import org.opennms.netmgt.flows.processing.thresholding.TopK;
 import org.opennms.netmgt.model.OnmsIpInterface;
 import org.opennms.netmgt.model.OnmsSnmpInterface;
 import org.opennms.netmgt.rrd.RrdRepository;
@@ -73,6 +75,8 @@ import org.opennms.netmgt.threshd.api.ThresholdingSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -85,6 +89,9 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
     public static final String RESOURCE_TYPE_NAME = "flowApp";
     public static final String RESOURCE_GROUP = "application";
 
+    // Probability of an application sketch to exceed its error bound
+    public static final double SKETCH_DELTA = 0.01;
+
     private final ThresholdingService thresholdingService;
     private final CollectionAgentFactory collectionAgentFactory;
     private final PersisterFactory persisterFactory;
@@ -114,7 +121,8 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
 
     private ReentrantReadWriteLock classificationRuleListReadWriteLock = new ReentrantReadWriteLock();
 
-    public FlowThresholdingImpl(final ThresholdingService thresholdingService,
+    public FlowThresholdingImpl(final MetricRegistry metricRegistry,
+                                final ThresholdingService thresholdingService,
                                 final CollectionAgentFactory collectionAgentFactory,
                                 final PersisterFactory persisterFactory,
                                 final IpInterfaceDao ipInterfaceDao,
@@ -137,6 +145,14 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
         this.classificationRuleList = classificationRuleProvider.getRules();
         this.classificationEngine = Objects.requireNonNull(classificationEngine);
         this.classificationEngine.addClassificationRulesReloadedListener(this);
+
+        metricRegistry.register("thresholdingSessions", (Gauge<Integer>) this.sessions::size);
+        metricRegistry.register("thresholdingTrackedApplications", (Gauge<Long>) () -> this.sessions.values().stream()
+                .mapToLong(Session::getTrackedApplications)
+                .sum());
+        metricRegistry.register("thresholdingSketchBytes", (Gauge<Long>) () -> this.sessions.values().stream()
+                .mapToLong(Session::getSketchSizeInBytes)
+                .sum());
     }
 
     @Override
@@ -218,8 +234,8 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
             final OnmsIpInterface iface = this.ipInterfaceDao.get(exporterKey.interfaceId);
             final NodeLevelResource nodeResource = new NodeLevelResource(iface.getNodeId());
 
-            for (final Map.Entry<IndexKey, Map<String, AtomicLong>> indexEntry : session.indexKeyMap.entrySet()) {
-                for (final Map.Entry<String, AtomicLong> applicationEntry : indexEntry.getValue().entrySet()) {
+            for (final Map.Entry<IndexKey, Map<String, Long>> indexEntry : session.getCounters().entrySet()) {
+                for (final Map.Entry<String, Long> applicationEntry : indexEntry.getValue().entrySet()) {
                     try {
                         final String ifName = getIfNameForNodeIdAndIfIndex(session.collectionAgent.getNodeId(), indexEntry.getKey().iface);
 
@@ -237,7 +253,7 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
                                         indexEntry.getKey().direction == Direction.INGRESS
                                                 ? "bytesIn"
                                                 : "bytesOut",
-                                        applicationEntry.getValue().get())
+                                        applicationEntry.getValue())
                                 .withStringAttribute(appResource,
                                         RESOURCE_GROUP,
                                         "application",
@@ -250,7 +266,7 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
 
                         if (session.thresholding) {
                             LOG.trace("Checking thresholds for collection-set value={}, ifName={}, application={}, ds={}",
-                                    applicationEntry.getValue().get(),
+                                    applicationEntry.getValue(),
                                     ifName,
                                     applicationEntry.getKey(),
                                     indexEntry.getKey().direction == Direction.INGRESS ? "bytesIn" : "bytesOut");
@@ -260,7 +276,7 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
 
                         if (session.dataCollection) {
                             LOG.trace("Persisting data for collection-set value={}, ifName={}, application={}, ds={}",
-                                    applicationEntry.getValue().get(),
+                                    applicationEntry.getValue(),
                                     ifName,
                                     applicationEntry.getKey(),
                                     indexEntry.getKey().direction == Direction.INGRESS ? "bytesIn" : "bytesOut");
@@ -317,6 +333,16 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
 
     public void threshold(final List<EnrichedFlow> documents,
                           final ProcessingOptions options) throws ExecutionException, ThresholdInitializationException {
+        this.threshold(documents, options, 1);
+    }
+
+    /**
+     * Applies thresholding to flows which were kept by load-based sampling with the given factor. The bytes are scaled
+     * by this factor only, as thresholds are defined on the bytes reported by the exporters.
+     */
+    public void threshold(final List<EnrichedFlow> documents,
+                          final ProcessingOptions options,
+                          final int samplingFactor) throws ExecutionException, ThresholdInitializationException {
 
         if (!(options.applicationThresholding || options.applicationDataCollection)) {
             return;
@@ -360,12 +386,14 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
                                     systemIdHash,
                                     options.applicationThresholding,
                                     options.applicationDataCollection,
+                                    options.applicationTopK,
+                                    options.applicationErrorBound,
                                     packageDefinition,
                                     collectionAgent.getHostAddress(),
                                     getListOfApplicationsToPersist(collectionAgent.getHostAddress()));
                         }));
 
-                session.process(now, document);
+                session.process(now, document, samplingFactor);
             }
         }
     }
@@ -383,6 +411,11 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
 
         public final Map<IndexKey, Map<String, AtomicLong>> indexKeyMap = Maps.newConcurrentMap();
 
+        // Only used if the number of tracked applications is limited
+        private final int topK;
+        private final CountMinSketch sketch;
+        private final Map<IndexKey, TopK<String>> topApplications = Maps.newConcurrentMap();
+
         public final boolean thresholding;
         public final boolean dataCollection;
 
@@ -409,6 +442,8 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
                         final long systemIdHash,
                         final boolean thresholding,
                         final boolean dataCollection,
+                        final int topK,
+                        final double errorBound,
                         final PackageDefinition packageDefinition,
                         final String exporterIpAddress,
                         final Set<String> applicationsToPersist) {
@@ -417,6 +452,10 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
             this.collectionAgent = Objects.requireNonNull(collectionAgent);
             this.thresholding = thresholding;
             this.dataCollection = dataCollection;
+            this.topK = topK;
+            this.sketch = topK > 0
+                    ? CountMinSketch.forErrorBound(errorBound, SKETCH_DELTA)
+                    : null;
             this.packageDefinition = packageDefinition;
             this.exporterIpAddress = exporterIpAddress;
             updateApplicationList(applicationsToPersist);
@@ -431,6 +470,13 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
 
                 LOG.debug("Found {} matching applications for exporter {}", this.applications.size(), exporterIpAddress);
 
+                if (this.sketch != null) {
+                    for (final TopK<String> top : this.topApplications.values()) {
+                        top.retainAll(applications);
+                    }
+                    return;
+                }
+
                 for (final IndexKey indexKey : indexKeyMap.keySet()) {
                     final int beforeAdd = indexKeyMap.get(indexKey).size();
 
@@ -451,6 +497,22 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
         }
 
         private void addValue(final IndexKey indexKey, final String application, final long bytes) {
+            if (this.sketch != null) {
+                final Lock readLock = applicationsReadWriteLock.readLock();
+                readLock.lock();
+                try {
+                    if (!this.applications.contains(application)) {
+                        return;
+                    }
+                } finally {
+                    readLock.unlock();
+                }
+
+                final long estimate = this.sketch.add(hash(indexKey, application), bytes);
+                this.topApplications.computeIfAbsent(indexKey, k -> new TopK<>(this.topK)).offer(application, estimate);
+                return;
+            }
+
             if (!indexKeyMap.containsKey(indexKey)) {
                 final Lock readLock = applicationsReadWriteLock.readLock();
                 readLock.lock();
@@ -464,19 +526,22 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
             indexKeyMap.get(indexKey).get(application).addAndGet(bytes);
         }
 
-        public void process(final Instant now, final EnrichedFlow document) {
+        public void process(final Instant now, final EnrichedFlow document, final int samplingFactor) {
+            // Account for the flows shed by load-based sampling
+            final long bytes = document.getBytes() * samplingFactor;
+
             if (document.getInputSnmp() != null &&
                     document.getInputSnmp() != 0 &&
                     (document.getDirection() == Direction.INGRESS || document.getDirection() == Direction.UNKNOWN)) {
                 final IndexKey indexKey = new IndexKey(document.getInputSnmp(), Direction.INGRESS);
-                addValue(indexKey, document.getApplication(), document.getBytes());
+                addValue(indexKey, document.getApplication(), bytes);
             }
 
             if (document.getOutputSnmp() != null
                     && document.getOutputSnmp() != 0 &&
                     (document.getDirection() == Direction.EGRESS || document.getDirection() == Direction.UNKNOWN)) {
                 final IndexKey indexKey = new IndexKey(document.getOutputSnmp(), Direction.EGRESS);
-                addValue(indexKey, document.getApplication(), document.getBytes());
+                addValue(indexKey, document.getApplication(), bytes);
             }
 
             // Mark session as updated
@@ -487,11 +552,52 @@ public class FlowThresholdingImpl implements Closeable, ClassificationEngine.Cla
             return this.lastUpdate;
         }
 
+        /**
+         * Returns the byte counters of all tracked applications per interface and direction.
+         *
+         * If the number of tracked applications is limited, the counters are the sketch estimates of the top
+         * applications. These overestimate the real values by the configured error bound at most but never decrease.
+         */
+        public Map<IndexKey, Map<String, Long>> getCounters() {
+            final Map<IndexKey, Map<String, Long>> counters = Maps.newHashMap();
+            if (this.sketch != null) {
+                for (final Map.Entry<IndexKey, TopK<String>> e : this.topApplications.entrySet()) {
+                    final Map<String, Long> values = Maps.newHashMap();
+                    for (final String application : e.getValue().snapshot().keySet()) {
+                        values.put(application, this.sketch.estimate(hash(e.getKey(), application)));
+                    }
+                    counters.put(e.getKey(), values);
+                }
+            } else {
+                for (final Map.Entry<IndexKey, Map<String, AtomicLong>> e : this.indexKeyMap.entrySet()) {
+                    counters.put(e.getKey(), Maps.transformValues(e.getValue(), AtomicLong::get));
+                }
+            }
+            return counters;
+        }
+
+        public long getTrackedApplications() {
+            if (this.sketch != null) {
+                return this.topApplications.values().stream().mapToLong(TopK::size).sum();
+            } else {
+                return this.indexKeyMap.values().stream().mapToLong(Map::size).sum();
+            }
+        }
+
+        public long getSketchSizeInBytes() {
+            return this.sketch != null ? this.sketch.getSizeInBytes() : 0L;
+        }
+
+        private static long hash(final IndexKey indexKey, final String application) {
+            return CountMinSketch.hash(31L * (31L * application.hashCode() + indexKey.iface) + indexKey.direction.ordinal());
+        }
+
         @Override
         public String toString() {
             return "Session{" +
                     "thresholding=" + thresholding +
                     ", dataCollection=" + dataCollection +
+                    ", topK=" + topK +
                     ", lastUpdate=" + lastUpdate +
                     ", sequenceNumber=" + sequenceNumber +
                     ", exporterIpAddress=" + exporterIpAddress +
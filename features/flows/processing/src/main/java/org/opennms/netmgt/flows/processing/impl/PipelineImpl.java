@@ -50,6 +50,11 @@ public class PipelineImpl implements Pipeline {
 
     private static final Logger LOG = LoggerFactory.getLogger(PipelineImpl.class);
 
+    /**
+     * Time taken to sample the flows in a log
+     */
+    private final Timer logSamplingTimer;
+
     /**
      * Time taken to enrich the flows in a log
      */
@@ -65,6 +70,11 @@ public class PipelineImpl implements Pipeline {
      */
     private final Timer logMarkingTimer;
 
+    /**
+     * Time taken to roll up the flows in a log
+     */
+    private final Timer logRollupTimer;
+
     /**
      * Number of flows in a log
      */
@@ -77,33 +87,43 @@ public class PipelineImpl implements Pipeline {
 
     private final MetricRegistry metricRegistry;
 
+    private final FlowSamplingImpl sampling;
+
     private final DocumentEnricherImpl documentEnricher;
 
     private final InterfaceMarkerImpl interfaceMarker;
 
     private final FlowThresholdingImpl thresholding;
 
+    private final FlowRollupImpl rollup;
+
     private final Map<String, Persister> persisters = Maps.newConcurrentMap();
 
     public PipelineImpl(final MetricRegistry metricRegistry,
+                        final FlowSamplingImpl sampling,
                         final DocumentEnricherImpl documentEnricher,
                         final InterfaceMarkerImpl interfaceMarker,
-                        final FlowThresholdingImpl thresholding) {
+                        final FlowThresholdingImpl thresholding,
+                        final FlowRollupImpl rollup) {
+        this.sampling = Objects.requireNonNull(sampling);
         this.documentEnricher = Objects.requireNonNull(documentEnricher);
         this.interfaceMarker = Objects.requireNonNull(interfaceMarker);
         this.thresholding = Objects.requireNonNull(thresholding);
+        this.rollup = Objects.requireNonNull(rollup);
 
         this.emptyFlows = metricRegistry.counter("emptyFlows");
         this.flowsPerLog = metricRegistry.histogram("flowsPerLog");
 
+        this.logSamplingTimer = metricRegistry.timer("logSampling");
         this.logEnrichementTimer = metricRegistry.timer("logEnrichment");
         this.logMarkingTimer = metricRegistry.timer("logMarking");
         this.logThresholdingTimer = metricRegistry.timer("logThresholding");
+        this.logRollupTimer = metricRegistry.timer("logRollup");
 
         this.metricRegistry = Objects.requireNonNull(metricRegistry);
     }
 
-    public void process(final List<Flow> flows, final FlowSource source, final ProcessingOptions processingOptions) throws FlowException {
+    public void process(List<Flow> flows, final FlowSource source, final ProcessingOptions processingOptions) throws FlowException {
         // Track the number of flows per call
         this.flowsPerLog.update(flows.size());
         
@@ -113,6 +133,19 @@ public class PipelineImpl implements Pipeline {
             LOG.info("Received empty flows from {} @ {}. Nothing to do.", source.getSourceAddress(), source.getLocation());
             return;
         }
+
+        // Sample flows if processing falls behind
+        int samplingFactor = 1;
+        if (this.sampling.isEnabled()) {
+            try (final Timer.Context ctx = this.logSamplingTimer.time()) {
+                samplingFactor = this.sampling.update(flows, source, System.currentTimeMillis());
+                flows = this.sampling.sample(flows, source, samplingFactor);
+            }
+
+            if (flows.isEmpty()) {
+                return;
+            }
+        }
         
         // Enrich with model data
         LOG.debug("Enriching {} flow documents.", flows.size());
@@ -123,6 +156,9 @@ public class PipelineImpl implements Pipeline {
             throw new FlowException("Failed to enrich one or more flows.", e);
         }
 
+        // Account for the flows dropped by sampling
+        this.sampling.rescale(enrichedFlows, samplingFactor);
+
         // Mark nodes and interfaces as having associated flows
         try (final Timer.Context ctx = this.logMarkingTimer.time()) {
             this.interfaceMarker.mark(enrichedFlows);
@@ -130,11 +166,23 @@ public class PipelineImpl implements Pipeline {
 
         // Apply thresholding to flows
         try (final Timer.Context ctx = this.logThresholdingTimer.time()) {
-            this.thresholding.threshold(enrichedFlows, processingOptions);
+            this.thresholding.threshold(enrichedFlows, processingOptions, samplingFactor);
         } catch (ThresholdInitializationException | ExecutionException e) {
             throw new FlowException("Failed to threshold one or more flows.", e);
         }
 
+        // Roll up flows into aggregates
+        if (this.rollup.isEnabled()) {
+            try (final Timer.Context ctx = this.logRollupTimer.time()) {
+                this.rollup.aggregate(enrichedFlows);
+            }
+
+            // Skip persisting the raw flows if only the rollups are required
+            if (this.rollup.isSkipRawFlows()) {
+                return;
+            }
+        }
+
         // Push flows to persistence
         for (final var persister : this.persisters.entrySet()) {
             persister.getValue().persist(enrichedFlows);
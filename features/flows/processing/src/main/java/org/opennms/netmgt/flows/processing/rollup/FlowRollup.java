@@ -0,0 +1,187 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.rollup;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import org.opennms.integration.api.v1.flows.Flow.NodeInfo;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Traffic of an exporter interface aggregated over a time window.
+ *
+ * The rollups follow the model of the aggregated flow indices: a rollup is either the {@link AggregationType#TOTAL} of
+ * an interface or one of the {@link AggregationType#TOPK} entities (application, host or conversation) seen on it.
+ */
+public class FlowRollup {
+
+    public enum GroupedBy {
+        EXPORTER_INTERFACE,
+        EXPORTER_INTERFACE_APPLICATION,
+        EXPORTER_INTERFACE_HOST,
+        EXPORTER_INTERFACE_CONVERSATION,
+    }
+
+    public enum AggregationType {
+        TOTAL,
+        TOPK,
+    }
+
+    public final Instant rangeStart;
+    public final Instant rangeEnd;
+
+    public final GroupedBy groupedBy;
+    public final String groupedByKey;
+    public final AggregationType aggregationType;
+
+    /**
+     * Rank of the entity in the window or {@code null} for totals.
+     */
+    public final Integer ranking;
+
+    public final NodeInfo exporter;
+    public final int ifIndex;
+
+    public final String application;
+    public final String hostAddress;
+    public final String hostName;
+    public final String conversationKey;
+
+    public final long bytesIngress;
+    public final long bytesEgress;
+
+    private FlowRollup(final Builder builder) {
+        this.rangeStart = Objects.requireNonNull(builder.rangeStart);
+        this.rangeEnd = Objects.requireNonNull(builder.rangeEnd);
+        this.groupedBy = Objects.requireNonNull(builder.groupedBy);
+        this.groupedByKey = Objects.requireNonNull(builder.groupedByKey);
+        this.aggregationType = Objects.requireNonNull(builder.aggregationType);
+        this.ranking = builder.ranking;
+        this.exporter = Objects.requireNonNull(builder.exporter);
+        this.ifIndex = builder.ifIndex;
+        this.application = builder.application;
+        this.hostAddress = builder.hostAddress;
+        this.hostName = builder.hostName;
+        this.conversationKey = builder.conversationKey;
+        this.bytesIngress = builder.bytesIngress;
+        this.bytesEgress = builder.bytesEgress;
+    }
+
+    public long getBytesTotal() {
+        return this.bytesIngress + this.bytesEgress;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .omitNullValues()
+                .add("rangeStart", this.rangeStart)
+                .add("rangeEnd", this.rangeEnd)
+                .add("groupedBy", this.groupedBy)
+                .add("groupedByKey", this.groupedByKey)
+                .add("aggregationType", this.aggregationType)
+                .add("ranking", this.ranking)
+                .add("ifIndex", this.ifIndex)
+                .add("bytesIngress", this.bytesIngress)
+                .add("bytesEgress", this.bytesEgress)
+                .toString();
+    }
+
+    public static class Builder {
+        private Instant rangeStart;
+        private Instant rangeEnd;
+        private GroupedBy groupedBy;
+        private String groupedByKey;
+        private AggregationType aggregationType;
+        private Integer ranking;
+        private NodeInfo exporter;
+        private int ifIndex;
+        private String application;
+        private String hostAddress;
+        private String hostName;
+        private String conversationKey;
+        private long bytesIngress;
+        private long bytesEgress;
+
+        private Builder() {}
+
+        public Builder setRange(final Instant rangeStart, final Instant rangeEnd) {
+            this.rangeStart = rangeStart;
+            this.rangeEnd = rangeEnd;
+            return this;
+        }
+
+        public Builder setGroupedBy(final GroupedBy groupedBy, final String groupedByKey) {
+            this.groupedBy = groupedBy;
+            this.groupedByKey = groupedByKey;
+            return this;
+        }
+
+        public Builder setAggregationType(final AggregationType aggregationType) {
+            this.aggregationType = aggregationType;
+            return this;
+        }
+
+        public Builder setRanking(final Integer ranking) {
+            this.ranking = ranking;
+            return this;
+        }
+
+        public Builder setInterface(final NodeInfo exporter, final int ifIndex) {
+            this.exporter = exporter;
+            this.ifIndex = ifIndex;
+            return this;
+        }
+
+        public Builder setApplication(final String application) {
+            this.application = application;
+            return this;
+        }
+
+        public Builder setHost(final String hostAddress, final String hostName) {
+            this.hostAddress = hostAddress;
+            this.hostName = hostName;
+            return this;
+        }
+
+        public Builder setConversationKey(final String conversationKey) {
+            this.conversationKey = conversationKey;
+            return this;
+        }
+
+        public Builder setBytes(final long bytesIngress, final long bytesEgress) {
+            this.bytesIngress = bytesIngress;
+            this.bytesEgress = bytesEgress;
+            return this;
+        }
+
+        public FlowRollup build() {
+            return new FlowRollup(this);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+}
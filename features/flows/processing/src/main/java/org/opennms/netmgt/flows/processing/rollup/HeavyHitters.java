@@ -0,0 +1,198 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.rollup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Tracks the heaviest keys of a stream using the Space-Saving algorithm.
+ *
+ * At most {@code capacity} keys are tracked. If a new key arrives while the sketch is full, it replaces the tracked key
+ * with the lowest weight and inherits this weight as its error. Every key contributing more than
+ * {@code 1 / capacity} of the total weight is guaranteed to be tracked.
+ *
+ * The byte counters of a key only contain the bytes seen since the key is tracked. They are therefore a lower bound of
+ * the real values, whereas the weight used for ranking is an upper bound.
+ *
+ * Instances are not thread-safe.
+ */
+public class HeavyHitters<K> {
+
+    public static final class Entry<K> {
+        private final K key;
+        private final long error;
+
+        private String label;
+
+        private long weight;
+        private long bytesIngress;
+        private long bytesEgress;
+
+        // Position in the heap
+        private int index;
+
+        private Entry(final K key, final long error) {
+            this.key = Objects.requireNonNull(key);
+            this.error = error;
+            this.weight = error;
+        }
+
+        public K getKey() {
+            return this.key;
+        }
+
+        /**
+         * An optional label of the key, i.e. the hostname of an address.
+         */
+        public String getLabel() {
+            return this.label;
+        }
+
+        public long getWeight() {
+            return this.weight;
+        }
+
+        public long getError() {
+            return this.error;
+        }
+
+        public long getBytesIngress() {
+            return this.bytesIngress;
+        }
+
+        public long getBytesEgress() {
+            return this.bytesEgress;
+        }
+    }
+
+    private final Map<K, Entry<K>> entries;
+
+    // Min-heap of the tracked entries ordered by weight
+    private final Entry<K>[] heap;
+    private int size = 0;
+
+    @SuppressWarnings("unchecked")
+    public HeavyHitters(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        this.entries = Maps.newHashMapWithExpectedSize(capacity);
+        this.heap = new Entry[capacity];
+    }
+
+    public void add(final K key, final long bytesIngress, final long bytesEgress) {
+        this.add(key, null, bytesIngress, bytesEgress);
+    }
+
+    public void add(final K key, final String label, final long bytesIngress, final long bytesEgress) {
+        Entry<K> entry = this.entries.get(key);
+
+        if (entry == null) {
+            if (this.size < this.heap.length) {
+                entry = new Entry<>(key, 0);
+                entry.index = this.size;
+                this.heap[this.size++] = entry;
+            } else {
+                // Replace the entry with the lowest weight - the weight is inherited as error
+                final Entry<K> evicted = this.heap[0];
+                this.entries.remove(evicted.key);
+
+                entry = new Entry<>(key, evicted.weight);
+                entry.index = 0;
+                this.heap[0] = entry;
+            }
+
+            this.entries.put(key, entry);
+        }
+
+        if (label != null) {
+            entry.label = label;
+        }
+
+        entry.weight += bytesIngress + bytesEgress;
+        entry.bytesIngress += bytesIngress;
+        entry.bytesEgress += bytesEgress;
+
+        // The weight only grows - new entries may be lighter than their parents, existing ones heavier than their children
+        this.siftUp(entry.index);
+        this.siftDown(entry.index);
+    }
+
+    /**
+     * Returns the {@code n} heaviest entries ordered by descending weight.
+     */
+    public List<Entry<K>> top(final int n) {
+        final List<Entry<K>> entries = new ArrayList<>(this.entries.values());
+        entries.sort(Comparator.comparingLong((Entry<K> e) -> e.weight).reversed());
+        return entries.size() > n
+                ? entries.subList(0, n)
+                : entries;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private void siftUp(int index) {
+        final Entry<K> entry = this.heap[index];
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (this.heap[parent].weight <= entry.weight) {
+                break;
+            }
+            this.place(this.heap[parent], index);
+            index = parent;
+        }
+        this.place(entry, index);
+    }
+
+    private void siftDown(int index) {
+        final Entry<K> entry = this.heap[index];
+        while (true) {
+            int child = (index << 1) + 1;
+            if (child >= this.size) {
+                break;
+            }
+            if (child + 1 < this.size && this.heap[child + 1].weight < this.heap[child].weight) {
+                child++;
+            }
+            if (entry.weight <= this.heap[child].weight) {
+                break;
+            }
+            this.place(this.heap[child], index);
+            index = child;
+        }
+        this.place(entry, index);
+    }
+
+    private void place(final Entry<K> entry, final int index) {
+        this.heap[index] = entry;
+        entry.index = index;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.thresholding;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximates the weights of an unbounded set of keys in a fixed amount of memory.
+ *
+ * The sketch consists of {@code depth} rows of {@code width} counters. Each key is mapped to one counter per row and
+ * the estimate of a key is the minimum of its counters. Estimates never underestimate the real weight and exceed it
+ * by at most {@code epsilon} times the total weight added to the sketch with a probability of {@code 1 - delta}.
+ *
+ * Keys are passed in as pre-computed 64 bit hashes. Instances are thread-safe.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(final int width, final int depth) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("width must be positive");
+        }
+        if (depth <= 0) {
+            throw new IllegalArgumentException("depth must be positive");
+        }
+
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Creates a sketch which overestimates by at most {@code epsilon} times the total weight with a probability of
+     * {@code 1 - delta}.
+     */
+    public static CountMinSketch forErrorBound(final double epsilon, final double delta) {
+        if (epsilon <= 0.0 || epsilon >= 1.0) {
+            throw new IllegalArgumentException("epsilon must be in (0, 1)");
+        }
+        if (delta <= 0.0 || delta >= 1.0) {
+            throw new IllegalArgumentException("delta must be in (0, 1)");
+        }
+
+        return new CountMinSketch((int) Math.ceil(Math.E / epsilon),
+                                  (int) Math.ceil(Math.log(1.0 / delta)));
+    }
+
+    /**
+     * Adds the given weight to the key and returns the new estimate of its weight.
+     */
+    public long add(final long hash, final long weight) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < this.depth; row++) {
+            estimate = Math.min(estimate, this.counters.addAndGet(this.index(row, h1, h2), weight));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated weight of the key.
+     */
+    public long estimate(final long hash) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < this.depth; row++) {
+            estimate = Math.min(estimate, this.counters.get(this.index(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * The memory used by the counters of this sketch.
+     */
+    public long getSizeInBytes() {
+        return (long) this.width * this.depth * Long.BYTES;
+    }
+
+    /**
+     * Derives the counter of the given row using double hashing (Kirsch and Mitzenmacher).
+     */
+    private int index(final int row, final int h1, final int h2) {
+        final int combined = h1 + row * h2;
+        return row * this.width + ((combined & Integer.MAX_VALUE) % this.width);
+    }
+
+    /**
+     * Mixes the given value into a well distributed 64 bit hash (the finalizer of MurmurHash3).
+     */
+    public static long hash(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.thresholding;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * Keeps the {@code capacity} keys with the highest estimates offered so far.
+ *
+ * Estimates are expected to grow monotonically per key, as returned by {@link CountMinSketch#add(long, long)}. A key
+ * offered while the set is full replaces the tracked key with the lowest estimate if its own estimate is higher.
+ *
+ * Instances are thread-safe. Offering a key which does not make it into a full set does not acquire a lock.
+ */
+public class TopK<K> {
+
+    private final int capacity;
+
+    private final Map<K, Long> entries = Maps.newConcurrentMap();
+
+    // The lowest tracked estimate if the set is full - zero otherwise
+    private volatile long threshold = 0L;
+    private K minKey = null;
+
+    public TopK(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        this.capacity = capacity;
+    }
+
+    public void offer(final K key, final long estimate) {
+        if (estimate <= this.threshold && !this.entries.containsKey(key)) {
+            return;
+        }
+
+        synchronized (this) {
+            final Long current = this.entries.get(key);
+            if (current != null) {
+                if (estimate <= current) {
+                    return;
+                }
+                this.entries.put(key, estimate);
+                if (!key.equals(this.minKey)) {
+                    return;
+                }
+            } else if (this.entries.size() < this.capacity) {
+                this.entries.put(key, estimate);
+            } else {
+                if (estimate <= this.entries.get(this.minKey)) {
+                    return;
+                }
+                this.entries.remove(this.minKey);
+                this.entries.put(key, estimate);
+            }
+
+            this.updateThreshold();
+        }
+    }
+
+    /**
+     * Drops all tracked keys not contained in the given set.
+     */
+    public synchronized void retainAll(final Set<K> keys) {
+        if (this.entries.keySet().retainAll(keys)) {
+            this.updateThreshold();
+        }
+    }
+
+    /**
+     * Returns the tracked keys and their last offered estimates.
+     */
+    public Map<K, Long> snapshot() {
+        return ImmutableMap.copyOf(this.entries);
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    private void updateThreshold() {
+        K minKey = null;
+        long min = Long.MAX_VALUE;
+        for (final Map.Entry<K, Long> e : this.entries.entrySet()) {
+            if (e.getValue() < min) {
+                min = e.getValue();
+                minKey = e.getKey();
+            }
+        }
+
+        this.minKey = minKey;
+        this.threshold = this.entries.size() < this.capacity ? 0L : min;
+    }
+}
@@ -56,6 +56,7 @@ public class DocumentEnricherTest {
         final NodeDao nodeDao = factory.getNodeDao();
         final InterfaceToNodeCache interfaceToNodeCache = factory.getInterfaceToNodeCache();
         final AtomicInteger nodeDaoGetCounter = factory.getNodeDaoGetCounter();
+        final AtomicInteger nodeDaoFindMatchingCounter = factory.getNodeDaoFindMatchingCounter();
 
         interfaceToNodeCache.setNodeId("Default", InetAddressUtils.addr("10.0.0.1"), 1);
         interfaceToNodeCache.setNodeId("Default", InetAddressUtils.addr("10.0.0.2"), 2);
@@ -70,15 +71,17 @@ public class DocumentEnricherTest {
         documents.add(createFlowDocument("10.0.0.1", "10.0.0.3"));
         enricher.enrich(documents, new FlowSource("Default", "127.0.0.1", null));
 
-        // get is also called for each save, so we account for those as well
-        Assert.assertEquals(6, nodeDaoGetCounter.get());
+        // get is only called for each save, all nodes of the batch are loaded by a single query
+        Assert.assertEquals(3, nodeDaoGetCounter.get());
+        Assert.assertEquals(1, nodeDaoFindMatchingCounter.get());
 
         // Try to enrich flow documents to existing IpAddresses.
         documents.clear();
         documents.add(createFlowDocument("10.0.0.2", "10.0.0.3"));
         enricher.enrich(documents, new FlowSource("Default", "127.0.0.1", null));
         // Since above two addresses are cached, no extra calls to nodeDao.
-        Assert.assertEquals(6, nodeDaoGetCounter.get());
+        Assert.assertEquals(3, nodeDaoGetCounter.get());
+        Assert.assertEquals(1, nodeDaoFindMatchingCounter.get());
 
         // Add two more interfaces to the system.
         interfaceToNodeCache.setNodeId("Default", InetAddressUtils.addr("10.0.0.4"), 2);
@@ -86,7 +89,8 @@ public class DocumentEnricherTest {
         documents.add(createFlowDocument("10.0.0.4", "10.0.0.5"));
         enricher.enrich(documents, new FlowSource("Default", "127.0.0.1", null));
         // Since above two addresses are added to same nodes, no extra calls to nodeDao
-        Assert.assertEquals(6, nodeDaoGetCounter.get());
+        Assert.assertEquals(3, nodeDaoGetCounter.get());
+        Assert.assertEquals(1, nodeDaoFindMatchingCounter.get());
     }
 
     private static Flow createFlowDocument(String sourceIp, String destIp) {
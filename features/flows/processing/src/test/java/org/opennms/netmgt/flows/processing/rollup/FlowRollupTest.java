@@ -0,0 +1,285 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.rollup;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opennms.integration.api.v1.flows.Flow.Direction;
+import org.opennms.integration.api.v1.flows.FlowException;
+import org.opennms.netmgt.flows.processing.FlowBuilder;
+import org.opennms.netmgt.flows.processing.enrichment.EnrichedFlow;
+import org.opennms.netmgt.flows.processing.enrichment.NodeInfo;
+import org.opennms.netmgt.flows.processing.impl.FlowRollupImpl;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.Sets;
+
+public class FlowRollupTest {
+
+    private static final long WINDOW_MS = 60_000;
+
+    // Start of a window
+    private static final long T0 = 1_700_000_040_000L;
+
+    private static class RecordingRepository implements FlowRollupRepository {
+        private final List<FlowRollup> rollups = new CopyOnWriteArrayList<>();
+        private final CountDownLatch persisted = new CountDownLatch(1);
+
+        @Override
+        public void persist(final Collection<FlowRollup> rollups) {
+            this.rollups.addAll(rollups);
+            this.persisted.countDown();
+        }
+
+        private List<FlowRollup> totals() {
+            return this.rollups.stream()
+                    .filter(rollup -> rollup.aggregationType == FlowRollup.AggregationType.TOTAL)
+                    .sorted((a, b) -> a.rangeStart.compareTo(b.rangeStart))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private final RecordingRepository repository = new RecordingRepository();
+
+    private FlowRollupImpl rollup;
+
+    @Before
+    public void setUp() {
+        this.rollup = new FlowRollupImpl(this.metricRegistry);
+        this.rollup.setEnabled(true);
+        this.rollup.setWindowMs(WINDOW_MS);
+        this.rollup.setAllowedLatenessMs(WINDOW_MS);
+        this.rollup.onBind(this.repository, Collections.emptyMap());
+    }
+
+    @After
+    public void tearDown() {
+        this.rollup.close();
+    }
+
+    private static List<EnrichedFlow> flow(final long start, final long end, final long bytes) {
+        final NodeInfo exporter = new NodeInfo();
+        exporter.setNodeId(1);
+        exporter.setForeignSource("fs");
+        exporter.setForeignId("exporter");
+
+        return new FlowBuilder()
+                .withDirection(Direction.INGRESS)
+                .withSnmpInterfaceId(2)
+                .withFlow(Instant.ofEpochMilli(start), Instant.ofEpochMilli(end), "10.0.0.1", 1024, "10.0.1.1", 80, bytes)
+                .build().stream()
+                .map(flow -> {
+                    final EnrichedFlow enriched = EnrichedFlow.from(flow);
+                    enriched.setExporterNodeInfo(exporter);
+                    enriched.setApplication("http");
+                    return enriched;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> starts(final List<FlowRollup> rollups) {
+        return rollups.stream().map(rollup -> rollup.rangeStart.toEpochMilli()).collect(Collectors.toList());
+    }
+
+    private static List<Long> bytes(final List<FlowRollup> rollups) {
+        return rollups.stream().map(FlowRollup::getBytesTotal).collect(Collectors.toList());
+    }
+
+    @Test
+    public void splitsFlowsAtWindowBoundaries() {
+        // Spans half of the first window, all of the second one and a quarter of the third
+        this.rollup.aggregate(flow(T0 + 30_000, T0 + 2 * WINDOW_MS + 15_000, 1400), T0);
+        this.rollup.flush(Long.MAX_VALUE);
+
+        final List<FlowRollup> totals = this.repository.totals();
+        assertThat(starts(totals), contains(T0, T0 + WINDOW_MS, T0 + 2 * WINDOW_MS));
+        assertThat(bytes(totals), contains(400L, 800L, 200L));
+        assertThat(totals.get(0).rangeEnd.toEpochMilli(), equalTo(T0 + WINDOW_MS));
+        assertThat(totals.get(0).ifIndex, equalTo(2));
+        assertThat(totals.get(0).bytesIngress, equalTo(400L));
+        assertThat(totals.get(0).bytesEgress, equalTo(0L));
+    }
+
+    @Test
+    public void addsLateFlowsWithinAllowedLateness() {
+        this.rollup.aggregate(flow(T0, T0 + 10_000, 100), T0 + 10_000);
+
+        // Arrives after the window ended, but within the allowed lateness
+        final long now = T0 + WINDOW_MS + 30_000;
+        this.rollup.aggregate(flow(T0 + 20_000, T0 + 30_000, 50), now);
+
+        // The window is still pending
+        this.rollup.flush(now - WINDOW_MS);
+        assertThat(this.repository.rollups, is(empty()));
+
+        this.rollup.flush(T0 + 2 * WINDOW_MS);
+        assertThat(bytes(this.repository.totals()), contains(150L));
+        assertThat(this.metricRegistry.counter("flowsTooLateForRollup").getCount(), equalTo(0L));
+    }
+
+    @Test
+    public void dropsFlowsBeyondAllowedLateness() {
+        this.rollup.aggregate(flow(T0, T0 + 10_000, 100), T0 + 10_000);
+        this.rollup.flush(T0 + WINDOW_MS);
+        assertThat(bytes(this.repository.totals()), contains(100L));
+
+        // The first window was emitted already, only the share of the second one is kept
+        final long now = T0 + 2 * WINDOW_MS + 30_000;
+        this.rollup.aggregate(flow(T0 + 30_000, T0 + WINDOW_MS + 30_000, 200), now);
+        this.rollup.flush(Long.MAX_VALUE);
+
+        final List<FlowRollup> totals = this.repository.totals();
+        assertThat(starts(totals), contains(T0, T0 + WINDOW_MS));
+        assertThat(bytes(totals), contains(100L, 100L));
+        assertThat(this.metricRegistry.counter("flowsTooLateForRollup").getCount(), equalTo(1L));
+    }
+
+    @Test
+    public void dropsFlowsForWindowsFlushedDuringBatch() {
+        this.rollup.aggregate(flow(T0, T0 + 10_000, 100), T0 + 10_000);
+
+        // The batch took its cutoff before the window was flushed
+        final long now = T0 + WINDOW_MS + 10_000;
+        this.rollup.flush(T0 + WINDOW_MS);
+        this.rollup.aggregate(flow(T0 + 50_000, T0 + WINDOW_MS - 1, 50), now);
+        this.rollup.flush(Long.MAX_VALUE);
+
+        // The window is not emitted a second time
+        assertThat(starts(this.repository.totals()), contains(T0));
+        assertThat(bytes(this.repository.totals()), contains(100L));
+        assertThat(this.metricRegistry.counter("flowsTooLateForRollup").getCount(), equalTo(1L));
+    }
+
+    @Test
+    public void emitsWindowsOnceWhileFlushingConcurrently() throws Exception {
+        final int windows = 50;
+        final int flowsPerWindow = 20;
+        final AtomicInteger current = new AtomicInteger(0);
+        final AtomicBoolean done = new AtomicBoolean(false);
+
+        // Keeps flushing the window which is currently filled
+        final Thread flusher = new Thread(() -> {
+            while (!done.get()) {
+                this.rollup.flush(T0 + (current.get() + 1) * WINDOW_MS);
+            }
+        });
+        flusher.start();
+
+        for (int window = 0; window < windows; window++) {
+            current.set(window);
+            // Flows end right before the window does, so they are within the allowed lateness of their batch
+            final long end = T0 + (window + 1) * WINDOW_MS - 1;
+            for (int i = 0; i < flowsPerWindow; i++) {
+                this.rollup.aggregate(flow(end, end, 100), end);
+            }
+        }
+        done.set(true);
+        flusher.join();
+        this.rollup.flush(Long.MAX_VALUE);
+
+        // Each window is emitted at most once and every flow is either emitted or counted as too late
+        final List<Long> starts = starts(this.repository.totals());
+        assertThat(starts.size(), equalTo(Sets.newHashSet(starts).size()));
+        final long emitted = bytes(this.repository.totals()).stream().mapToLong(Long::longValue).sum();
+        final long tooLate = this.metricRegistry.counter("flowsTooLateForRollup").getCount();
+        assertThat(emitted + tooLate * 100, equalTo((long) windows * flowsPerWindow * 100));
+    }
+
+    @Test
+    public void flushesOnTimer() throws Exception {
+        this.rollup.setWindowMs(100);
+        this.rollup.setAllowedLatenessMs(0);
+        this.rollup.start();
+
+        final long now = System.currentTimeMillis();
+        this.rollup.aggregate(flow(now, now, 100), now);
+
+        assertThat(this.repository.persisted.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(bytes(this.repository.totals()), contains(100L));
+    }
+
+    @Test
+    public void flushesOnClose() {
+        this.rollup.start();
+
+        final long now = System.currentTimeMillis();
+        this.rollup.aggregate(flow(now, now, 100), now);
+        assertThat(this.repository.rollups, is(empty()));
+
+        this.rollup.close();
+        assertThat(bytes(this.repository.totals()), contains(100L));
+    }
+
+    @Test
+    public void countsOnlyPersistedRollups() {
+        this.rollup.onBind(rollups -> {
+            throw new FlowException("Failed");
+        }, Collections.emptyMap());
+
+        this.rollup.aggregate(flow(T0, T0, 100), T0);
+        this.rollup.flush(Long.MAX_VALUE);
+
+        // Only the rollups persisted by the working repository are counted
+        assertThat(bytes(this.repository.totals()), contains(100L));
+        assertThat(this.metricRegistry.meter("rollupsEmitted").getCount(), equalTo((long) this.repository.rollups.size()));
+        assertThat(this.metricRegistry.counter("rollupErrors").getCount(), equalTo(1L));
+    }
+
+    @Test
+    public void persistsRawFlowsWithoutRepository() {
+        final FlowRollupRepository other = new RecordingRepository();
+        this.rollup.onUnbind(this.repository, Collections.emptyMap());
+
+        // Raw flows are persisted if requested
+        assertThat(this.rollup.isSkipRawFlows(), is(false));
+
+        // ... and if the rollups can not be persisted
+        this.rollup.setPersistRawFlows(false);
+        assertThat(this.rollup.isSkipRawFlows(), is(false));
+
+        this.rollup.onBind(other, Collections.emptyMap());
+        assertThat(this.rollup.isSkipRawFlows(), is(true));
+
+        this.rollup.onUnbind(other, Collections.emptyMap());
+        assertThat(this.rollup.isSkipRawFlows(), is(false));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.rollup;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class HeavyHittersTest {
+
+    @Test
+    public void canTrackAllKeysBelowCapacity() {
+        final HeavyHitters<String> hitters = new HeavyHitters<>(4);
+        hitters.add("a", 10, 5);
+        hitters.add("b", 100, 0);
+        hitters.add("c", 1, 1);
+        hitters.add("a", "label", 0, 5);
+
+        assertThat(hitters.size(), equalTo(3));
+        assertThat(keys(hitters.top(10)), contains("b", "a", "c"));
+
+        final HeavyHitters.Entry<String> a = hitters.top(2).get(1);
+        assertThat(a.getBytesIngress(), equalTo(10L));
+        assertThat(a.getBytesEgress(), equalTo(10L));
+        assertThat(a.getError(), equalTo(0L));
+    }
+
+    @Test
+    public void canEvictLightestKey() {
+        final HeavyHitters<String> hitters = new HeavyHitters<>(2);
+        hitters.add("a", 100, 0);
+        hitters.add("b", 10, 0);
+        hitters.add("c", 5, 0);
+
+        // "c" replaces "b" and inherits its weight as error
+        assertThat(hitters.size(), equalTo(2));
+        assertThat(keys(hitters.top(2)), contains("a", "c"));
+
+        final HeavyHitters.Entry<String> c = hitters.top(2).get(1);
+        assertThat(c.getWeight(), equalTo(15L));
+        assertThat(c.getError(), equalTo(10L));
+        assertThat(c.getBytesIngress(), equalTo(5L));
+    }
+
+    @Test
+    public void canFindHeavyHittersInSkewedStream() {
+        final HeavyHitters<Integer> hitters = new HeavyHitters<>(10);
+        for (int i = 0; i < 10_000; i++) {
+            // Two heavy keys hidden in a long tail of light ones
+            hitters.add(i % 3 == 0 ? -1 : i % 3 == 1 ? -2 : i, 10, 0);
+        }
+
+        assertThat(keys(hitters.top(2)), contains(-1, -2));
+    }
+
+    private static <K> List<K> keys(final List<HeavyHitters.Entry<K>> entries) {
+        return entries.stream().map(HeavyHitters.Entry::getKey).collect(Collectors.toList());
+    }
+}
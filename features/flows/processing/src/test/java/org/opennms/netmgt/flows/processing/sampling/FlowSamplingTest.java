@@ -0,0 +1,188 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.sampling;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.opennms.integration.api.v1.flows.Flow.Direction;
+import org.opennms.integration.api.v1.flows.Flow.SamplingAlgorithm;
+import org.opennms.netmgt.flows.api.Flow;
+import org.opennms.netmgt.flows.api.FlowSource;
+import org.opennms.netmgt.flows.processing.FlowBuilder;
+import org.opennms.netmgt.flows.processing.TestFlow;
+import org.opennms.netmgt.flows.processing.enrichment.EnrichedFlow;
+import org.opennms.netmgt.flows.processing.impl.FlowSamplingImpl;
+
+import com.codahale.metrics.MetricRegistry;
+
+public class FlowSamplingTest {
+
+    private static final FlowSource SOURCE = new FlowSource("Default", "127.0.0.1", null);
+
+    private static List<Flow> flows(final int count, final Instant receivedAt) {
+        final FlowBuilder builder = new FlowBuilder().withDirection(Direction.INGRESS).withSnmpInterfaceId(1);
+        for (int i = 0; i < count; i++) {
+            builder.withFlow(receivedAt, receivedAt, "10.0.0." + (i % 250), 1024 + i, "10.0.1.1", 80, 100);
+        }
+        final List<Flow> flows = builder.build();
+        flows.forEach(flow -> ((TestFlow) flow).setReceivedAt(receivedAt));
+        return flows;
+    }
+
+    private static FlowSamplingImpl sampling() {
+        final FlowSamplingImpl sampling = new FlowSamplingImpl(new MetricRegistry());
+        sampling.setEnabled(true);
+        sampling.setLagThresholdMs(1000);
+        sampling.setMaxSamplingFactor(16);
+        return sampling;
+    }
+
+    @Test
+    public void doesNotSampleWithoutLag() {
+        final FlowSamplingImpl sampling = sampling();
+        final long now = System.currentTimeMillis();
+        final List<Flow> flows = flows(1000, Instant.ofEpochMilli(now));
+
+        final int factor = sampling.update(flows, SOURCE, now + 10);
+        assertThat(factor, equalTo(1));
+        assertThat(sampling.sample(flows, SOURCE, factor).size(), equalTo(1000));
+    }
+
+    @Test
+    public void samplesUnderLag() {
+        final FlowSamplingImpl sampling = sampling();
+        final long now = System.currentTimeMillis();
+        final List<Flow> flows = flows(10000, Instant.ofEpochMilli(now));
+
+        // Usual delay
+        assertThat(sampling.update(flows, SOURCE, now + 10), equalTo(1));
+
+        int factor = 1;
+        for (int i = 0; i < 50; i++) {
+            factor = sampling.update(flows, SOURCE, now + 6510);
+        }
+        assertThat(factor, equalTo(8));
+
+        final List<Flow> sampled = sampling.sample(flows, SOURCE, factor);
+        assertThat(sampled.size(), allOf(greaterThan(1000), lessThan(1500)));
+
+        // Sampling is deterministic
+        assertThat(sampling.sample(flows, SOURCE, factor), equalTo(sampled));
+
+        final List<EnrichedFlow> enriched = sampled.stream().map(EnrichedFlow::from).collect(Collectors.toList());
+        sampling.rescale(enriched, factor);
+        for (final EnrichedFlow flow : enriched) {
+            assertThat(flow.getSamplingInterval(), equalTo(8.0));
+            assertThat(flow.getSamplingAlgorithm(), equalTo(SamplingAlgorithm.HashBasedFiltering));
+        }
+
+        // Recovers once the lag is gone
+        for (int i = 0; i < 50; i++) {
+            factor = sampling.update(flows, SOURCE, now + 10);
+        }
+        assertThat(factor, equalTo(1));
+    }
+
+    @Test
+    public void limitsSamplingFactor() {
+        final FlowSamplingImpl sampling = sampling();
+        final long now = System.currentTimeMillis();
+        final List<Flow> flows = flows(10, Instant.ofEpochMilli(now));
+
+        sampling.update(flows, SOURCE, now);
+
+        int factor = 1;
+        for (int i = 0; i < 50; i++) {
+            factor = sampling.update(flows, SOURCE, now + 1_000_000);
+        }
+        assertThat(factor, equalTo(16));
+    }
+
+    @Test
+    public void compensatesClockOffset() {
+        final long now = System.currentTimeMillis();
+        for (final long offset : new long[]{-TimeUnit.HOURS.toMillis(1), TimeUnit.HOURS.toMillis(1)}) {
+            final FlowSamplingImpl sampling = sampling();
+
+            // The clock of the Minion is off by an hour
+            final List<Flow> flows = flows(10, Instant.ofEpochMilli(now + offset));
+
+            int factor = 1;
+            for (int i = 0; i < 50; i++) {
+                factor = sampling.update(flows, SOURCE, now + 10);
+            }
+            assertThat(factor, equalTo(1));
+
+            for (int i = 0; i < 50; i++) {
+                factor = sampling.update(flows, SOURCE, now + 6510);
+            }
+            assertThat(factor, equalTo(8));
+        }
+    }
+
+    @Test
+    public void adaptsToChangedDelay() {
+        final FlowSamplingImpl sampling = sampling();
+        final long now = System.currentTimeMillis();
+        final long window = TimeUnit.MINUTES.toMillis(31);
+
+        sampling.update(flows(10, Instant.ofEpochMilli(now)), SOURCE, now + 10);
+
+        // The smallest delay is remembered for up to two windows
+        final List<Flow> later = flows(10, Instant.ofEpochMilli(now + window));
+        int factor = 1;
+        for (int i = 0; i < 50; i++) {
+            factor = sampling.update(later, SOURCE, now + window + 6510);
+        }
+        assertThat(factor, equalTo(8));
+
+        // Afterwards, the new delay is taken as the usual one
+        final List<Flow> latest = flows(10, Instant.ofEpochMilli(now + 2 * window));
+        for (int i = 0; i < 50; i++) {
+            factor = sampling.update(latest, SOURCE, now + 2 * window + 6510);
+        }
+        assertThat(factor, equalTo(1));
+    }
+
+    @Test
+    public void ignoresFlowsWithoutReceiveTime() {
+        final FlowSamplingImpl sampling = sampling();
+        final long now = System.currentTimeMillis();
+        final List<Flow> flows = flows(10, Instant.ofEpochMilli(now));
+
+        sampling.update(flows, SOURCE, now);
+        for (int i = 0; i < 50; i++) {
+            sampling.update(flows, SOURCE, now + 1_000_000);
+        }
+        assertThat(sampling.update(flows(10, null), SOURCE, now), equalTo(16));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.thresholding;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.junit.Test;
+
+public class CountMinSketchTest {
+
+    @Test
+    public void canDeriveDimensionsFromErrorBound() {
+        final CountMinSketch sketch = CountMinSketch.forErrorBound(0.001, 0.01);
+        assertThat(sketch.getWidth(), equalTo(2719));
+        assertThat(sketch.getDepth(), equalTo(5));
+        assertThat(sketch.getSizeInBytes(), equalTo(2719L * 5 * Long.BYTES));
+    }
+
+    @Test
+    public void canEstimateWithinErrorBound() {
+        final double epsilon = 0.01;
+        final CountMinSketch sketch = CountMinSketch.forErrorBound(epsilon, 0.01);
+
+        final int keys = 10_000;
+        long total = 0;
+        for (int i = 0; i < keys; i++) {
+            // A skewed stream where key zero is the heaviest
+            final long weight = 1000 / (i + 1) + 1;
+            sketch.add(CountMinSketch.hash(i), weight);
+            total += weight;
+        }
+
+        for (int i = 0; i < keys; i++) {
+            final long weight = 1000 / (i + 1) + 1;
+            final long estimate = sketch.estimate(CountMinSketch.hash(i));
+            assertThat(estimate, greaterThanOrEqualTo(weight));
+            assertThat(estimate, lessThanOrEqualTo(weight + (long) Math.ceil(epsilon * total)));
+        }
+    }
+
+    @Test
+    public void canReturnEstimateOnAdd() {
+        final CountMinSketch sketch = new CountMinSketch(16, 3);
+        assertThat(sketch.add(CountMinSketch.hash(42), 10), equalTo(10L));
+        assertThat(sketch.add(CountMinSketch.hash(42), 5), equalTo(15L));
+        assertThat(sketch.estimate(CountMinSketch.hash(42)), equalTo(15L));
+    }
+}
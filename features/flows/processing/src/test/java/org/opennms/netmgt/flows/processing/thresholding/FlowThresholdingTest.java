@@ -0,0 +1,305 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.thresholding;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opennms.integration.api.v1.flows.Flow.Direction;
+import org.opennms.netmgt.collection.api.CollectionAttribute;
+import org.opennms.netmgt.collection.api.CollectionSet;
+import org.opennms.netmgt.collection.api.CollectionAgentFactory;
+import org.opennms.netmgt.collection.api.PersisterFactory;
+import org.opennms.netmgt.collection.dto.CollectionAgentDTO;
+import org.opennms.netmgt.collection.support.AbstractCollectionSetVisitor;
+import org.opennms.netmgt.dao.api.DistPollerDao;
+import org.opennms.netmgt.dao.api.IpInterfaceDao;
+import org.opennms.netmgt.dao.api.SnmpInterfaceDao;
+import org.opennms.netmgt.dao.mock.MockSessionUtils;
+import org.opennms.netmgt.filter.api.FilterDao;
+import org.opennms.netmgt.flows.classification.ClassificationEngine;
+import org.opennms.netmgt.flows.classification.FilterService;
+import org.opennms.netmgt.flows.classification.persistence.api.Rule;
+import org.opennms.netmgt.flows.classification.persistence.api.RuleBuilder;
+import org.opennms.netmgt.flows.processing.ProcessingOptions;
+import org.opennms.netmgt.flows.processing.enrichment.EnrichedFlow;
+import org.opennms.netmgt.flows.processing.enrichment.NodeInfo;
+import org.opennms.netmgt.flows.processing.impl.FlowThresholdingImpl;
+import org.opennms.netmgt.model.OnmsDistPoller;
+import org.opennms.netmgt.model.OnmsIpInterface;
+import org.opennms.netmgt.model.OnmsNode;
+import org.opennms.netmgt.threshd.api.ThresholdingService;
+import org.opennms.netmgt.threshd.api.ThresholdingSession;
+
+import com.codahale.metrics.MetricRegistry;
+
+public class FlowThresholdingTest {
+
+    private static final int EXPORTER_INTERFACE_ID = 1;
+    private static final int[] INTERFACES = { 1, 2, 3 };
+    private static final int APPLICATIONS = 20;
+    private static final int TOP_K = 3;
+    private static final int ROUNDS = 5;
+    private static final double ERROR_BOUND = 0.001;
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private final ThresholdingSession thresholdingSession = mock(ThresholdingSession.class);
+
+    private FlowThresholdingImpl thresholding;
+
+    @Before
+    public void setUp() throws Exception {
+        final OnmsNode node = new OnmsNode();
+        node.setId(1);
+        final OnmsIpInterface iface = new OnmsIpInterface(InetAddress.getLoopbackAddress(), node);
+        iface.setId(EXPORTER_INTERFACE_ID);
+
+        final IpInterfaceDao ipInterfaceDao = mock(IpInterfaceDao.class);
+        when(ipInterfaceDao.get(EXPORTER_INTERFACE_ID)).thenReturn(iface);
+
+        final CollectionAgentDTO collectionAgent = new CollectionAgentDTO();
+        collectionAgent.setNodeId(1);
+        collectionAgent.setAddress(InetAddress.getLoopbackAddress());
+        final CollectionAgentFactory collectionAgentFactory = mock(CollectionAgentFactory.class);
+        when(collectionAgentFactory.createCollectionAgent(any(OnmsIpInterface.class))).thenReturn(collectionAgent);
+
+        final ThresholdingService thresholdingService = mock(ThresholdingService.class);
+        when(thresholdingService.createSession(anyInt(), anyString(), anyString(), any())).thenReturn(this.thresholdingSession);
+
+        final DistPollerDao distPollerDao = mock(DistPollerDao.class);
+        when(distPollerDao.whoami()).thenReturn(new OnmsDistPoller("00000000-0000-0000-0000-000000000000"));
+
+        this.thresholding = new FlowThresholdingImpl(this.metricRegistry,
+                thresholdingService,
+                collectionAgentFactory,
+                mock(PersisterFactory.class),
+                ipInterfaceDao,
+                distPollerDao,
+                mock(SnmpInterfaceDao.class),
+                mock(FilterDao.class),
+                new MockSessionUtils(),
+                FilterService.NOOP,
+                () -> rules(IntStream.range(0, APPLICATIONS).mapToObj(FlowThresholdingTest::application).collect(Collectors.toList())),
+                mock(ClassificationEngine.class));
+    }
+
+    @After
+    public void tearDown() {
+        this.thresholding.close();
+    }
+
+    private static String application(final int application) {
+        return "APP" + application;
+    }
+
+    private static List<Rule> rules(final List<String> applications) {
+        return applications.stream()
+                .map(application -> new RuleBuilder().withName(application).withPosition(1).build())
+                .collect(Collectors.toList());
+    }
+
+    // The ranking of the applications differs per interface, the heaviest application has the largest gap to the next
+    private static long bytes(final int iface, final int application) {
+        final int rank = iface % 2 == 0 ? APPLICATIONS - application : application + 1;
+        return 100L * rank * rank;
+    }
+
+    private static long exactTotal(final int iface, final int application) {
+        return ROUNDS * bytes(iface, application);
+    }
+
+    private static Set<String> expectedTop(final int iface) {
+        return IntStream.range(0, APPLICATIONS).boxed()
+                .sorted((a, b) -> Long.compare(bytes(iface, b), bytes(iface, a)))
+                .limit(TOP_K)
+                .map(FlowThresholdingTest::application)
+                .collect(Collectors.toSet());
+    }
+
+    private static List<EnrichedFlow> flows() {
+        final NodeInfo exporter = new NodeInfo();
+        exporter.setNodeId(1);
+        exporter.setInterfaceId(EXPORTER_INTERFACE_ID);
+
+        // Interleave the applications and interfaces, so the top applications change while the flows arrive
+        final List<EnrichedFlow> flows = new ArrayList<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int application = 0; application < APPLICATIONS; application++) {
+                for (final int iface : INTERFACES) {
+                    final EnrichedFlow flow = new EnrichedFlow();
+                    flow.setExporterNodeInfo(exporter);
+                    flow.setApplication(application(application));
+                    flow.setDirection(Direction.INGRESS);
+                    flow.setInputSnmp(iface);
+                    flow.setBytes(bytes(iface, application));
+                    flows.add(flow);
+                }
+            }
+        }
+        return flows;
+    }
+
+    private FlowThresholdingImpl.Session session() {
+        assertThat(this.thresholding.getSessions().size(), equalTo(1));
+        return this.thresholding.getSessions().iterator().next();
+    }
+
+    private void threshold() throws Exception {
+        this.thresholding.threshold(flows(), ProcessingOptions.builder()
+                .setApplicationThresholding(true)
+                .setApplicationTopK(TOP_K)
+                .setApplicationErrorBound(ERROR_BOUND)
+                .build());
+    }
+
+    @Test
+    public void tracksTopApplicationsPerInterface() throws Exception {
+        this.threshold();
+
+        long total = 0;
+        for (final int iface : INTERFACES) {
+            for (int application = 0; application < APPLICATIONS; application++) {
+                total += exactTotal(iface, application);
+            }
+        }
+        final long maxError = (long) Math.ceil(ERROR_BOUND * total);
+
+        final Map<FlowThresholdingImpl.IndexKey, Map<String, Long>> counters = this.session().getCounters();
+        assertThat(counters.keySet(), containsInAnyOrder(
+                new FlowThresholdingImpl.IndexKey(1, Direction.INGRESS),
+                new FlowThresholdingImpl.IndexKey(2, Direction.INGRESS),
+                new FlowThresholdingImpl.IndexKey(3, Direction.INGRESS)));
+
+        for (final int iface : INTERFACES) {
+            final Map<String, Long> values = counters.get(new FlowThresholdingImpl.IndexKey(iface, Direction.INGRESS));
+            assertThat(values.keySet(), equalTo(expectedTop(iface)));
+
+            for (final Map.Entry<String, Long> value : values.entrySet()) {
+                final long exact = exactTotal(iface, Integer.parseInt(value.getKey().substring(3)));
+                assertThat(value.getValue(), greaterThanOrEqualTo(exact));
+                assertThat(value.getValue(), lessThanOrEqualTo(exact + maxError));
+            }
+        }
+
+        // Memory is bounded by the top applications and the sketch
+        assertThat(this.metricRegistry.getGauges().get("thresholdingTrackedApplications").getValue(), equalTo((long) INTERFACES.length * TOP_K));
+        assertThat(this.metricRegistry.getGauges().get("thresholdingSketchBytes").getValue(),
+                equalTo(CountMinSketch.forErrorBound(ERROR_BOUND, FlowThresholdingImpl.SKETCH_DELTA).getSizeInBytes()));
+    }
+
+    @Test
+    public void thresholdsOnlyTopApplications() throws Exception {
+        this.threshold();
+        this.thresholding.runTimerTask();
+
+        final ArgumentCaptor<CollectionSet> collectionSets = ArgumentCaptor.forClass(CollectionSet.class);
+        verify(this.thresholdingSession, atLeastOnce()).accept(collectionSets.capture());
+
+        final List<String> resources = new ArrayList<>();
+        for (final CollectionSet collectionSet : collectionSets.getAllValues()) {
+            final StringBuilder resource = new StringBuilder();
+            collectionSet.visit(new AbstractCollectionSetVisitor() {
+                @Override
+                public void visitAttribute(final CollectionAttribute attribute) {
+                    if ("ifName".equals(attribute.getName())) {
+                        resource.insert(0, attribute.getStringValue() + ":");
+                    } else if ("application".equals(attribute.getName())) {
+                        resource.append(attribute.getStringValue());
+                    }
+                }
+            });
+            resources.add(resource.toString());
+        }
+
+        final List<String> expected = new ArrayList<>();
+        for (final int iface : INTERFACES) {
+            expectedTop(iface).forEach(application -> expected.add(iface + ":" + application));
+        }
+        assertThat(resources, containsInAnyOrder(expected.toArray()));
+    }
+
+    @Test
+    public void dropsRemovedApplications() throws Exception {
+        this.threshold();
+
+        // The heaviest application of the odd interfaces is not classified anymore
+        final String removed = application(APPLICATIONS - 1);
+        this.thresholding.classificationRulesReloaded(rules(IntStream.range(0, APPLICATIONS - 1)
+                .mapToObj(FlowThresholdingTest::application)
+                .collect(Collectors.toList())));
+
+        final Map<FlowThresholdingImpl.IndexKey, Map<String, Long>> counters = this.session().getCounters();
+        for (final int iface : INTERFACES) {
+            final Set<String> expected = expectedTop(iface);
+            expected.remove(removed);
+            assertThat(counters.get(new FlowThresholdingImpl.IndexKey(iface, Direction.INGRESS)).keySet(), equalTo(expected));
+        }
+        assertThat(this.metricRegistry.getGauges().get("thresholdingTrackedApplications").getValue(), equalTo((long) INTERFACES.length * TOP_K - 2));
+
+        // The removed application is not thresholded anymore
+        this.thresholding.runTimerTask();
+
+        final ArgumentCaptor<CollectionSet> collectionSets = ArgumentCaptor.forClass(CollectionSet.class);
+        verify(this.thresholdingSession, atLeastOnce()).accept(collectionSets.capture());
+        assertThat(applications(collectionSets.getAllValues()), not(hasItem(removed)));
+    }
+
+    private static List<String> applications(final List<CollectionSet> collectionSets) {
+        final List<String> applications = new ArrayList<>();
+        for (final CollectionSet collectionSet : collectionSets) {
+            collectionSet.visit(new AbstractCollectionSetVisitor() {
+                @Override
+                public void visitAttribute(final CollectionAttribute attribute) {
+                    if ("application".equals(attribute.getName())) {
+                        applications.add(attribute.getStringValue());
+                    }
+                }
+            });
+        }
+        return applications;
+    }
+}
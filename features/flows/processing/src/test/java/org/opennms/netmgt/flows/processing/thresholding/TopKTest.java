@@ -0,0 +1,72 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.flows.processing.thresholding;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+public class TopKTest {
+
+    @Test
+    public void canKeepHighestEstimates() {
+        final TopK<String> top = new TopK<>(2);
+        top.offer("a", 10);
+        top.offer("b", 20);
+
+        // Too light to replace any tracked key
+        top.offer("c", 5);
+        assertThat(top.snapshot().keySet(), equalTo(ImmutableSet.of("a", "b")));
+
+        // Replaces "a" as the lightest key
+        top.offer("c", 15);
+        assertThat(top.snapshot().keySet(), equalTo(ImmutableSet.of("b", "c")));
+
+        // Growing estimates of tracked keys are updated, shrinking ones ignored
+        top.offer("c", 30);
+        top.offer("b", 1);
+        assertThat(top.snapshot(), hasEntry("c", 30L));
+        assertThat(top.snapshot(), hasEntry("b", 20L));
+
+        // "b" is the lightest key now
+        top.offer("a", 25);
+        assertThat(top.snapshot().keySet(), equalTo(ImmutableSet.of("a", "c")));
+    }
+
+    @Test
+    public void canRetainKeys() {
+        final TopK<String> top = new TopK<>(2);
+        top.offer("a", 10);
+        top.offer("b", 20);
+
+        top.retainAll(ImmutableSet.of("b"));
+        assertThat(top.size(), equalTo(1));
+
+        // The set is not full anymore and accepts any key
+        top.offer("c", 1);
+        assertThat(top.snapshot().keySet(), equalTo(ImmutableSet.of("b", "c")));
+    }
+}
@@ -140,6 +140,13 @@ public class BulkRequest<T> {
         LOG.info("An error occurred while executing the bulk request: {}.", errorMessage);
     }
 
+    /**
+     * Returns the number of retries which were required while executing this request.
+     */
+    public int getRetries() {
+        return retries;
+    }
+
     public static long getSleepTime(int retry) {
         int index = Math.min(retry, SLEEP_TIME.length - 1);
         return SLEEP_TIME[index];
@@ -0,0 +1,287 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.features.openconfig.telemetry;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opennms.core.grpc.common.GrpcClientBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * Shares gRPC channels between the OpenConfig clients.
+ *
+ * All channels run on a single, bounded Netty event loop group and deliver their
+ * callbacks on a single, bounded executor, so the number of threads no longer grows
+ * with the number of targets. Subscriptions to the same target share a channel and
+ * are multiplexed as separate HTTP/2 streams over the same connection. Channels are
+ * reference counted and closed when the last subscription releases them.
+ */
+public class OpenConfigChannelPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OpenConfigChannelPool.class);
+
+    private static final String USERNAME_FIELD = "username";
+    private static final String PASSWORD_FIELD = "password";
+
+    private final EventLoopGroup eventLoopGroup;
+    private final ExecutorService executor;
+    private final MetricRegistry metrics;
+
+    private final Map<Target, TargetChannel> channels = new HashMap<>();
+
+    /**
+     * Metrics are keyed by host and port, so targets that only differ by their credentials
+     * or TLS settings share the same metrics.
+     */
+    private final Map<String, TargetMetrics> targetMetrics = new HashMap<>();
+
+    public OpenConfigChannelPool(int eventLoopThreads, int executorThreads, MetricRegistry metrics) {
+        this.eventLoopGroup = new NioEventLoopGroup(eventLoopThreads, new ThreadFactoryBuilder()
+                .setNameFormat("openconfig-event-loop-%d")
+                .setDaemon(true)
+                .build());
+        this.executor = Executors.newFixedThreadPool(executorThreads, new ThreadFactoryBuilder()
+                .setNameFormat("openconfig-stream-%d")
+                .setDaemon(true)
+                .build());
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Returns the channel for the given target, creating it if required.
+     *
+     * Every call must be balanced with a call to {@link #release(TargetChannel)}.
+     */
+    public synchronized TargetChannel acquire(Target target) throws IOException {
+        TargetChannel channel = channels.get(target);
+        if (channel == null) {
+            final NettyChannelBuilder builder = GrpcClientBuilder.getChannelBuilder(target.host, target.port, target.tlsProperties)
+                    .eventLoopGroup(eventLoopGroup)
+                    .channelType(NioSocketChannel.class)
+                    .executor(executor);
+            if (target.username != null && target.password != null) {
+                final Metadata metadata = new Metadata();
+                metadata.put(Metadata.Key.of(USERNAME_FIELD, Metadata.ASCII_STRING_MARSHALLER), target.username);
+                metadata.put(Metadata.Key.of(PASSWORD_FIELD, Metadata.ASCII_STRING_MARSHALLER), target.password);
+                builder.intercept(new GrpcClientInterceptor(metadata));
+            }
+            channel = new TargetChannel(target, builder.build(), targetMetrics.computeIfAbsent(target.toString(), TargetMetrics::new));
+            channels.put(target, channel);
+            LOG.info("Opened gRPC channel to OpenConfig target {}", target);
+        }
+        channel.references++;
+        return channel;
+    }
+
+    /**
+     * Releases a channel previously returned by {@link #acquire(Target)}.
+     */
+    public synchronized void release(TargetChannel channel) {
+        if (--channel.references > 0 || channels.get(channel.target) != channel) {
+            return;
+        }
+        channels.remove(channel.target);
+        channel.close();
+        if (channel.channelMetrics.openChannels.isEmpty()) {
+            targetMetrics.remove(channel.channelMetrics.key);
+            channel.channelMetrics.remove();
+        }
+        LOG.info("Closed gRPC channel to OpenConfig target {}", channel.target);
+    }
+
+    public synchronized void close() {
+        channels.values().forEach(TargetChannel::close);
+        channels.clear();
+        targetMetrics.values().forEach(TargetMetrics::remove);
+        targetMetrics.clear();
+        executor.shutdown();
+        eventLoopGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * The connection parameters that identify a channel.
+     */
+    public static class Target {
+        private final String host;
+        private final int port;
+        private final Map<String, String> tlsProperties;
+        private final String username;
+        private final String password;
+
+        public Target(String host, int port, Map<String, String> tlsProperties, String username, String password) {
+            this.host = Objects.requireNonNull(host);
+            this.port = port;
+            this.tlsProperties = Objects.requireNonNull(tlsProperties);
+            this.username = username;
+            this.password = password;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Target that = (Target) o;
+            return port == that.port
+                    && Objects.equals(host, that.host)
+                    && Objects.equals(tlsProperties, that.tlsProperties)
+                    && Objects.equals(username, that.username)
+                    && Objects.equals(password, that.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, port, tlsProperties, username, password);
+        }
+
+        @Override
+        public String toString() {
+            return host + ":" + port;
+        }
+    }
+
+    /**
+     * A channel shared by all subscriptions to a target.
+     */
+    public class TargetChannel {
+        private final Target target;
+        private final ManagedChannel channel;
+        private final TargetMetrics channelMetrics;
+
+        private int references;
+
+        private TargetChannel(Target target, ManagedChannel channel, TargetMetrics channelMetrics) {
+            this.target = target;
+            this.channel = channel;
+            this.channelMetrics = channelMetrics;
+            channelMetrics.openChannels.add(channel);
+        }
+
+        public ManagedChannel getChannel() {
+            return channel;
+        }
+
+        public void onStreamStarted() {
+            channelMetrics.activeStreams.incrementAndGet();
+        }
+
+        public void onStreamEnded(boolean failed) {
+            channelMetrics.activeStreams.decrementAndGet();
+            if (failed) {
+                channelMetrics.streamFailures.mark();
+            }
+        }
+
+        public void onMessage(int size) {
+            channelMetrics.messages.mark();
+            channelMetrics.bytes.mark(size);
+            channelMetrics.lastMessageTime.set(System.currentTimeMillis());
+        }
+
+        @Override
+        public String toString() {
+            return target.toString();
+        }
+
+        private void close() {
+            channelMetrics.openChannels.remove(channel);
+            channel.shutdown();
+        }
+    }
+
+    /**
+     * The health metrics of all channels to a host and port.
+     *
+     * The gauges are registered once and read the channels which are currently open, so they
+     * never report the state of a channel which has been closed or replaced.
+     */
+    private class TargetMetrics {
+        private final String key;
+        private final String metricPrefix;
+
+        private final Meter messages;
+        private final Meter bytes;
+        private final Meter streamFailures;
+        private final AtomicInteger activeStreams = new AtomicInteger();
+        private final AtomicLong lastMessageTime = new AtomicLong();
+        private final Set<ManagedChannel> openChannels = new CopyOnWriteArraySet<>();
+
+        private TargetMetrics(String key) {
+            this.key = key;
+            this.metricPrefix = name("targets", key);
+
+            this.messages = metrics.meter(name(metricPrefix, "messages"));
+            this.bytes = metrics.meter(name(metricPrefix, "bytes"));
+            this.streamFailures = metrics.meter(name(metricPrefix, "streamFailures"));
+            metrics.register(name(metricPrefix, "activeStreams"), (Gauge<Integer>) activeStreams::get);
+            metrics.register(name(metricPrefix, "connectivityState"), (Gauge<String>) () -> getConnectivityState().name());
+            metrics.register(name(metricPrefix, "lastMessageAge"), (Gauge<Long>) () -> {
+                final long last = lastMessageTime.get();
+                return last > 0 ? System.currentTimeMillis() - last : -1L;
+            });
+        }
+
+        /**
+         * Reports {@link ConnectivityState#READY} if any of the channels is ready, or the state of
+         * one of them otherwise.
+         */
+        private ConnectivityState getConnectivityState() {
+            ConnectivityState state = ConnectivityState.SHUTDOWN;
+            for (ManagedChannel channel : openChannels) {
+                state = channel.getState(false);
+                if (state == ConnectivityState.READY) {
+                    break;
+                }
+            }
+            return state;
+        }
+
+        private void remove() {
+            metrics.removeMatching((metricName, metric) -> metricName.startsWith(metricPrefix + "."));
+        }
+    }
+}
@@ -24,16 +24,95 @@ package org.opennms.features.openconfig.telemetry;
 import java.net.InetAddress;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.opennms.features.openconfig.api.OpenConfigClient;
 import org.opennms.features.openconfig.api.OpenConfigClientFactory;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.jmx.JmxReporter;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Creates {@link OpenConfigClient}s that share a pool of channels and threads.
+ *
+ * Per-target stream health and message rates are exposed over JMX.
+ */
 public class OpenConfigClientFactoryImpl implements OpenConfigClientFactory {
 
+    private static final String JMX_DOMAIN = "org.opennms.features.openconfig.client";
+
+    private int eventLoopThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private int executorThreads = Math.min(8, Runtime.getRuntime().availableProcessors());
+    private int schedulerThreads = 1;
+    private long initialBackoff = TimeUnit.SECONDS.toMillis(5);
+    private int batchSize = 64;
+
+    private final MetricRegistry metrics = new MetricRegistry();
+    private JmxReporter reporter;
+    private OpenConfigChannelPool channelPool;
+    private ScheduledExecutorService scheduler;
+
+    public synchronized void init() {
+        Preconditions.checkArgument(batchSize > 0, "batchSize must be positive");
+        channelPool = new OpenConfigChannelPool(eventLoopThreads, executorThreads, metrics);
+        scheduler = Executors.newScheduledThreadPool(schedulerThreads, new ThreadFactoryBuilder()
+                .setNameFormat("openconfig-subscriber-%d")
+                .setDaemon(true)
+                .build());
+        reporter = JmxReporter.forRegistry(metrics)
+                .inDomain(JMX_DOMAIN)
+                .build();
+        reporter.start();
+    }
+
+    public synchronized void destroy() {
+        if (reporter != null) {
+            reporter.close();
+            reporter = null;
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (channelPool != null) {
+            channelPool.close();
+            channelPool = null;
+        }
+    }
 
     @Override
-    public OpenConfigClient create(InetAddress ipAddress, List<Map<String, String>> paramList)  {
-        return new OpenConfigClientImpl(ipAddress, paramList);
+    public synchronized OpenConfigClient create(InetAddress ipAddress, List<Map<String, String>> paramList)  {
+        if (channelPool == null) {
+            init();
+        }
+        return new OpenConfigClientImpl(ipAddress, paramList, channelPool, scheduler, initialBackoff, batchSize);
+    }
+
+    public MetricRegistry getMetrics() {
+        return metrics;
+    }
+
+    public void setEventLoopThreads(int eventLoopThreads) {
+        this.eventLoopThreads = eventLoopThreads;
+    }
+
+    public void setExecutorThreads(int executorThreads) {
+        this.executorThreads = executorThreads;
     }
 
+    public void setSchedulerThreads(int schedulerThreads) {
+        this.schedulerThreads = schedulerThreads;
+    }
+
+    public void setInitialBackoff(long initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
 }
@@ -24,11 +24,14 @@ package org.opennms.features.openconfig.telemetry;
 
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
-import io.grpc.ConnectivityState;
-import io.grpc.ManagedChannel;
-import io.grpc.Metadata;
+import com.google.common.io.ByteStreams;
+import io.grpc.CallOptions;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ClientResponseObserver;
 import io.grpc.stub.StreamObserver;
-import org.opennms.core.grpc.common.GrpcClientBuilder;
 import org.opennms.core.utils.InetAddressUtils;
 import org.opennms.core.utils.StringUtils;
 import org.opennms.features.openconfig.api.OpenConfigClient;
@@ -36,10 +39,12 @@ import org.opennms.features.openconfig.proto.gnmi.Gnmi;
 import org.opennms.features.openconfig.proto.gnmi.gNMIGrpc;
 import org.opennms.features.openconfig.proto.jti.OpenConfigTelemetryGrpc;
 import org.opennms.features.openconfig.proto.jti.Telemetry;
-import org.opennms.features.openconfig.proto.jti.Telemetry.OpenConfigData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -47,25 +52,23 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.logging.Handler;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import static io.grpc.ConnectivityState.READY;
-
 /**
  * OpenConfig Client makes a gRPC connection and subscribes to telemetry data for the paths specified.
- * When it fails to make a connection, it attempts to make a connection after given interval.
+ * When the subscription fails, it attempts to subscribe again after an exponentially increasing, randomized
+ * delay that is capped at the given interval, so that large numbers of targets don't reconnect in lockstep.
  * When retries are specified, it bails out after those many attempts.
- * If no retries or <=0 specified, it always attempts to connect after given interval.
+ * If no retries or <=0 specified, it always attempts to subscribe again.
+ *
+ * Clients don't own any threads or connections: the channel is shared with all other clients subscribing to the
+ * same target and retries are scheduled on a shared executor, see {@link OpenConfigChannelPool}.
  */
 public class OpenConfigClientImpl implements OpenConfigClient {
 
@@ -73,9 +76,6 @@ public class OpenConfigClientImpl implements OpenConfigClient {
     private static final Pattern STRINGS_IN_SQUARE_BRACKETS = Pattern.compile("\\[(.+?=.+?)\\]");
     // Path separator but exclude in square brackets.
     private static final Pattern PATH_SEPARATOR = Pattern.compile("\\/(?![^\\[]*])");
-    // Internal retries and timeout are used to make a connection and wait till channel is active.
-    private static final int DEFAULT_INTERNAL_RETRIES = 5;
-    private static final int DEFAULT_INTERNAL_TIMEOUT = 1000;
     private static final int DEFAULT_FREQUENCY = 300000; //5min
     private static final long DEFAULT_FREQUENCY_FOR_GNMI = 300 * 10^9; // 5mins in nano seconds
     private static final int DEFAULT_INTERVAL_IN_SEC = 300; //5min
@@ -91,21 +91,63 @@ public class OpenConfigClientImpl implements OpenConfigClient {
     private static final String DEFAULT_ORIGIN = "openconfig";
     private static final String USERNAME_FIELD = "username";
     private static final String PASSWORD_FIELD = "password";
-    private ManagedChannel channel;
+
+    /**
+     * Passes the responses through as they were received, leaving the decoding to the adapters.
+     */
+    private static final MethodDescriptor.Marshaller<byte[]> RAW_MARSHALLER = new MethodDescriptor.Marshaller<>() {
+        @Override
+        public InputStream stream(byte[] value) {
+            return new ByteArrayInputStream(value);
+        }
+
+        @Override
+        public byte[] parse(InputStream stream) {
+            try {
+                return ByteStreams.toByteArray(stream);
+            } catch (IOException e) {
+                throw Status.INTERNAL.withDescription("Failed to read response").withCause(e).asRuntimeException();
+            }
+        }
+    };
+
+    private static final MethodDescriptor<Telemetry.SubscriptionRequest, byte[]> JTI_SUBSCRIBE_METHOD =
+            OpenConfigTelemetryGrpc.getTelemetrySubscribeMethod()
+                    .toBuilder(OpenConfigTelemetryGrpc.getTelemetrySubscribeMethod().getRequestMarshaller(), RAW_MARSHALLER)
+                    .build();
+
+    private static final MethodDescriptor<Gnmi.SubscribeRequest, byte[]> GNMI_SUBSCRIBE_METHOD =
+            gNMIGrpc.getSubscribeMethod()
+                    .toBuilder(gNMIGrpc.getSubscribeMethod().getRequestMarshaller(), RAW_MARSHALLER)
+                    .build();
+
     private final InetAddress host;
+    private final OpenConfigChannelPool channelPool;
+    private final ScheduledExecutorService scheduler;
+    private final long initialBackoffMs;
+    private final int batchSize;
     private String hostName;
     private Integer port;
     private String mode;
-    private Integer interval;
-    private Integer retries;
+    private final int interval;
+    private final int retries;
     private List<Map<String,String>> paramList = new ArrayList<>();
-    private AtomicBoolean closed = new AtomicBoolean(false);
-    private AtomicBoolean scheduled = new AtomicBoolean(false);
-    private ExecutorService executor = Executors.newSingleThreadExecutor();
-    private ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
 
-    public OpenConfigClientImpl(InetAddress host, List<Map<String, String>> paramList) {
+    private OpenConfigClient.Handler handler;
+    private OpenConfigChannelPool.TargetChannel channel;
+    private ClientCallStreamObserver<?> activeStream;
+    private ScheduledFuture<?> pendingSubscription;
+    private int attempts;
+    private boolean closed;
+
+    public OpenConfigClientImpl(InetAddress host, List<Map<String, String>> paramList,
+                                OpenConfigChannelPool channelPool, ScheduledExecutorService scheduler,
+                                long initialBackoffMs, int batchSize) {
         this.host = Objects.requireNonNull(host);
+        this.channelPool = Objects.requireNonNull(channelPool);
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.initialBackoffMs = initialBackoffMs;
+        this.batchSize = batchSize;
         this.paramList.addAll(paramList);
         // Extract port and mode which are global.
         this.paramList.stream().filter(entry -> entry.containsKey(PORT) && entry.get(PORT) != null)
@@ -116,58 +158,55 @@ public class OpenConfigClientImpl implements OpenConfigClient {
         this.paramList.stream().filter(entry -> entry.containsKey(HOSTNAME) && entry.get(HOSTNAME) != null)
                 .findFirst().ifPresent(entry ->
                         this.hostName = entry.get(HOSTNAME));
+        this.interval = this.paramList.stream().filter(entry -> entry.get(INTERVAL) != null)
+                .findFirst().map(entry -> StringUtils.parseInt(entry.get(INTERVAL), DEFAULT_INTERVAL_IN_SEC))
+                .orElse(DEFAULT_INTERVAL_IN_SEC);
+        // When retries is null or <= 0, scheduling will happen indefinitely until it succeeds.
+        this.retries = this.paramList.stream().filter(entry -> entry.get(RETRIES) != null)
+                .findFirst().map(entry -> StringUtils.parseInt(entry.get(RETRIES), 0))
+                .orElse(0);
     }
 
     @Override
-    public void subscribe(OpenConfigClient.Handler handler) {
-        boolean succeeded = trySubscribing(handler);
-        if (!succeeded) {
-            close();
-            executor.execute(() -> scheduleSubscription(handler));
-        }
+    public synchronized void subscribe(OpenConfigClient.Handler handler) {
+        this.handler = Objects.requireNonNull(handler);
+        trySubscribing();
     }
 
-    private boolean trySubscribing(OpenConfigClient.Handler handler) {
+    private synchronized void trySubscribing() {
+        pendingSubscription = null;
+        if (closed) {
+            return;
+        }
         try {
-            Map<String, String> tlsFilePaths = new HashMap<>();
-            paramList.forEach(entry -> {
-                tlsFilePaths.putAll(entry.entrySet().stream()
-                        .filter(configuration -> configuration.getKey().contains("tls"))
-                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
-            });
-            String host = this.hostName != null ? this.hostName : this.host.getHostAddress();
-            var optionalUsername =
-                    this.paramList.stream().filter(entry -> entry.get(USERNAME_FIELD) != null).findFirst();
-            var optionalPassword =
-                    this.paramList.stream().filter(entry -> entry.get(PASSWORD_FIELD) != null).findFirst();
-            if (optionalUsername.isPresent() && optionalPassword.isPresent()) {
-                String username = optionalUsername.get().get(USERNAME_FIELD);
-                String password = optionalPassword.get().get(PASSWORD_FIELD);
-                Metadata metadata = new Metadata();
-                metadata.put(Metadata.Key.of(USERNAME_FIELD, Metadata.ASCII_STRING_MARSHALLER), username);
-                metadata.put(Metadata.Key.of(PASSWORD_FIELD, Metadata.ASCII_STRING_MARSHALLER), password);
-                var clientInterceptor = new GrpcClientInterceptor(metadata);
-                this.channel = GrpcClientBuilder.getChannelWithInterceptor(host, port, tlsFilePaths, clientInterceptor);
-            } else {
-                this.channel = GrpcClientBuilder.getChannel(host, port, tlsFilePaths);
-            }
-
-            if (READY.equals(retrieveChannelState())) {
-                subscribeToTelemetry(handler, host);
-                return true;
+            if (channel == null) {
+                channel = channelPool.acquire(getTarget());
             }
+            subscribeToTelemetry();
         } catch (Exception e) {
             LOG.warn("Exception while subscribing to OpenConfig Server at `{}` ", InetAddressUtils.str(host), e);
+            scheduleSubscription();
         }
-        return false;
     }
 
+    private OpenConfigChannelPool.Target getTarget() {
+        Map<String, String> tlsFilePaths = new HashMap<>();
+        paramList.forEach(entry -> {
+            tlsFilePaths.putAll(entry.entrySet().stream()
+                    .filter(configuration -> configuration.getKey().contains("tls"))
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        });
+        String host = this.hostName != null ? this.hostName : this.host.getHostAddress();
+        String username = this.paramList.stream().map(entry -> entry.get(USERNAME_FIELD)).filter(Objects::nonNull).findFirst().orElse(null);
+        String password = this.paramList.stream().map(entry -> entry.get(PASSWORD_FIELD)).filter(Objects::nonNull).findFirst().orElse(null);
+        return new OpenConfigChannelPool.Target(host, Objects.requireNonNull(port, "port is required"), tlsFilePaths, username, password);
+    }
 
-    private void subscribeToTelemetry(Handler handler, String host) {
+    private void subscribeToTelemetry() {
+        final StreamHandler streamHandler = new StreamHandler(channel);
 
         // Defaults to gnmi
         if (JTI_MODE.equalsIgnoreCase(mode)) {
-            OpenConfigTelemetryGrpc.OpenConfigTelemetryStub asyncStub = OpenConfigTelemetryGrpc.newStub(channel);
             Telemetry.SubscriptionRequest.Builder requestBuilder = Telemetry.SubscriptionRequest.newBuilder();
             paramList.forEach(entry -> {
                 Integer frequency = StringUtils.parseInt(entry.get(FREQUENCY), DEFAULT_FREQUENCY);
@@ -175,11 +214,9 @@ public class OpenConfigClientImpl implements OpenConfigClient {
                 List<String> paths = pathString != null ? Arrays.asList(pathString.split(",", -1)) : new ArrayList<>();
                 paths.forEach(path -> requestBuilder.addPathList(Telemetry.Path.newBuilder().setPath(path).setSampleFrequency(frequency).build()));
             });
-            asyncStub.telemetrySubscribe(requestBuilder.build(), new TelemetryDataHandler(this.host, port, handler));
-            LOG.info("Subscribed to OpenConfig telemetry stream at {}:{}", host, port);
+            ClientCalls.asyncServerStreamingCall(channel.getChannel().newCall(JTI_SUBSCRIBE_METHOD, CallOptions.DEFAULT),
+                    requestBuilder.build(), streamHandler.<Telemetry.SubscriptionRequest>forRequest());
         } else {
-
-            gNMIGrpc.gNMIStub gNMIStub = gNMIGrpc.newStub(channel);
             Gnmi.SubscribeRequest.Builder requestBuilder = Gnmi.SubscribeRequest.newBuilder();
             Gnmi.SubscriptionList.Builder subscriptionListBuilder = Gnmi.SubscriptionList.newBuilder();
             paramList.forEach(entry -> {
@@ -198,10 +235,11 @@ public class OpenConfigClientImpl implements OpenConfigClient {
                 });
             });
             requestBuilder.setSubscribe(subscriptionListBuilder.build());
-            StreamObserver<Gnmi.SubscribeRequest> requestStreamObserver = gNMIStub.subscribe(new GnmiDataHandler(handler, this.host, port));
+            StreamObserver<Gnmi.SubscribeRequest> requestStreamObserver = ClientCalls.asyncBidiStreamingCall(
+                    channel.getChannel().newCall(GNMI_SUBSCRIBE_METHOD, CallOptions.DEFAULT), streamHandler.<Gnmi.SubscribeRequest>forRequest());
             requestStreamObserver.onNext(requestBuilder.build());
-            LOG.info("Subscribed to OpenConfig telemetry stream at {}:{}", host, port);
         }
+        LOG.info("Subscribed to OpenConfig telemetry stream at {}", channel);
     }
 
     // Builds gnmi path based on https://github.com/openconfig/reference/blob/master/rpc/gnmi/gnmi-path-conventions.md
@@ -243,166 +281,135 @@ public class OpenConfigClientImpl implements OpenConfigClient {
     }
 
 
-    private void scheduleSubscription(OpenConfigClient.Handler handler) {
-        if (scheduled.get()) {
-            // Task is already scheduled.
+    private synchronized void scheduleSubscription() {
+        if (closed || pendingSubscription != null) {
+            // Closed or already scheduled.
             return;
         }
-        scheduled.set(true);
-        // Try at least once.
-        boolean succeeded = trySubscribing(handler);
-        if (succeeded) {
-            scheduled.set(false);
+        attempts++;
+        if (retries > 0 && attempts > retries) {
+            LOG.warn("Giving up on subscribing to OpenConfig Server at `{}` after {} attempts.", InetAddressUtils.str(host), retries);
             return;
         }
+        final long delay = getBackoff(attempts, initialBackoffMs, TimeUnit.SECONDS.toMillis(interval));
+        LOG.debug("Subscribing to OpenConfig Server at `{}` again in {}ms.", InetAddressUtils.str(host), delay);
+        pendingSubscription = scheduler.schedule(this::trySubscribing, delay, TimeUnit.MILLISECONDS);
+    }
 
-        // If it's not subscribed, schedule this to run after configured timeout
-        this.paramList.stream().filter(entry -> entry.containsKey(INTERVAL) && entry.get(INTERVAL) != null)
-                .findFirst().ifPresent(entry ->
-                this.interval = StringUtils.parseInt(entry.get(INTERVAL), DEFAULT_INTERVAL_IN_SEC));
-        // When retries is null or <= 0, scheduling will happen indefinitely until it succeeds.
-        this.paramList.stream().filter(entry -> entry.containsKey(RETRIES) && entry.get(RETRIES) != null)
-                .findFirst().ifPresent(entry ->
-                this.retries = StringUtils.parseInt(entry.get(RETRIES), DEFAULT_INTERNAL_RETRIES));
-
-        int retries = this.retries != null ? this.retries : DEFAULT_INTERNAL_RETRIES;
-        int interval = this.interval != null ? this.interval : DEFAULT_INTERVAL_IN_SEC;
-        while (!closed.get()) {
-            ScheduledFuture<Boolean> future = scheduledExecutor.schedule(() -> trySubscribing(handler), interval, TimeUnit.SECONDS);
-            try {
-                succeeded = future.get();
-                if (succeeded) {
-                    scheduled.set(false);
-                    break;
-                }
-            } catch (InterruptedException | ExecutionException e) {
-                LOG.warn("Exception while scheduling subscription at host `{}` ", InetAddressUtils.str(host), e);
-            }
-            if (retries > 0) {
-                retries--;
-                if (retries == 0) {
-                    scheduled.set(false);
-                    break;
-                }
-            }
-        }
+    /**
+     * Calculates the delay before the given attempt.
+     *
+     * The delay doubles with every attempt, up to the maximum, and is randomized between half and the full value
+     * to spread the reconnects of many targets that failed at the same time, i.e. after a network outage.
+     */
+    static long getBackoff(int attempt, long initialBackoffMs, long maxBackoffMs) {
+        final long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(Math.max(attempt - 1, 0), 30));
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
     }
 
     @Override
     public void shutdown() {
-        close();
-        closed.set(true);
-        if (scheduledExecutor != null) {
-            scheduledExecutor.shutdown();
+        final ClientCallStreamObserver<?> stream;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (pendingSubscription != null) {
+                pendingSubscription.cancel(false);
+                pendingSubscription = null;
+            }
+            stream = activeStream;
+            activeStream = null;
         }
-        if (executor != null) {
-            executor.shutdown();
+        if (stream != null) {
+            stream.cancel("Client shut down", null);
         }
-    }
-
-    private void close() {
-        if (channel != null) {
-            LOG.info("Closing the OpenConfig Client at {}", host);
-            channel.shutdown();
+        synchronized (this) {
+            if (channel != null) {
+                LOG.info("Closing the OpenConfig Client at {}", host);
+                if (stream != null) {
+                    channel.onStreamEnded(false);
+                }
+                channelPool.release(channel);
+                channel = null;
+            }
         }
     }
-    // Handles JTI Telemetry data
-    private class TelemetryDataHandler implements StreamObserver<OpenConfigData> {
-
-        private final OpenConfigClient.Handler handler;
-        private final InetAddress host;
-        private final Integer port;
-
-        private TelemetryDataHandler(InetAddress host, Integer port, Handler handler) {
-            this.host = host;
-            this.port = port;
-            this.handler = handler;
-        }
-
-        @Override
-        public void onNext(OpenConfigData value) {
-            handler.accept(host, port, value.toByteArray());
-        }
 
-        @Override
-        public void onError(Throwable t) {
-            LOG.error("Received error on stream for host {}", InetAddressUtils.str(host), t);
-            handler.onError(t.getMessage());
-            close();
-            executor.execute(() -> scheduleSubscription(handler));
-        }
-
-        @Override
-        public void onCompleted() {
-            LOG.info("Response stream closed for host {}", InetAddressUtils.str(host));
-            handler.onError("OpenConfig Server closed connection for host " + InetAddressUtils.str(host));
-            close();
-            executor.execute(() -> scheduleSubscription(handler));
-        }
+    private synchronized void onStreamStarted(ClientCallStreamObserver<?> stream, OpenConfigChannelPool.TargetChannel targetChannel) {
+        activeStream = stream;
+        targetChannel.onStreamStarted();
     }
 
-    // Handles Gnmi Telemetry data
-    private class GnmiDataHandler implements StreamObserver<Gnmi.SubscribeResponse> {
-
-        private final OpenConfigClient.Handler handler;
-        private final InetAddress host;
-        private final Integer port;
-
-        public GnmiDataHandler(Handler handler, InetAddress host, Integer port) {
-            this.handler = handler;
-            this.host = host;
-            this.port = port;
-        }
-
-        @Override
-        public void onNext(Gnmi.SubscribeResponse subscribeResponse) {
-            if(subscribeResponse != null) {
-                handler.accept(host, port, subscribeResponse.toByteArray());
-            }
+    private synchronized void onStreamEnded(ClientCallStreamObserver<?> stream, OpenConfigChannelPool.TargetChannel targetChannel, boolean failed) {
+        if (activeStream != stream) {
+            // Already accounted for by shutdown
+            return;
         }
+        activeStream = null;
+        targetChannel.onStreamEnded(failed);
+        scheduleSubscription();
+    }
 
-        @Override
-        public void onError(Throwable t) {
-            LOG.error("Received error on stream for host {}", InetAddressUtils.str(host), t);
-            handler.onError(t.getMessage());
-            close();
-            executor.execute(() -> scheduleSubscription(handler));
+    /**
+     * Forwards the responses of a single stream to the handler.
+     *
+     * Responses are requested from the transport in batches instead of one at a time. This keeps the number of
+     * messages buffered per stream bounded, so a slow consumer pushes back on the target through HTTP/2 flow
+     * control instead of piling up memory.
+     */
+    private class StreamHandler {
+        private final OpenConfigChannelPool.TargetChannel targetChannel;
+        private ClientCallStreamObserver<?> stream;
+        private boolean started;
+        private int pending;
+
+        private StreamHandler(OpenConfigChannelPool.TargetChannel targetChannel) {
+            this.targetChannel = targetChannel;
         }
 
-        @Override
-        public void onCompleted() {
-            LOG.info("Response stream closed for host {}", InetAddressUtils.str(host));
-            handler.onError("OpenConfig Server closed connection for host " + InetAddressUtils.str(host));
-            close();
-            executor.execute(() -> scheduleSubscription(handler));
-        }
-    }
+        private <ReqT> ClientResponseObserver<ReqT, byte[]> forRequest() {
+            return new ClientResponseObserver<ReqT, byte[]>() {
+                @Override
+                public void beforeStart(ClientCallStreamObserver<ReqT> requestStream) {
+                    stream = requestStream;
+                    requestStream.disableAutoRequestWithInitial(batchSize);
+                    pending = batchSize;
+                    // Called while subscribing, before the call is started
+                    onStreamStarted(requestStream, targetChannel);
+                }
 
+                @Override
+                public void onNext(byte[] value) {
+                    if (!started) {
+                        started = true;
+                        synchronized (OpenConfigClientImpl.this) {
+                            attempts = 0;
+                        }
+                    }
+                    targetChannel.onMessage(value.length);
+                    handler.accept(host, port, value);
+                    if (--pending == 0) {
+                        pending = batchSize;
+                        stream.request(batchSize);
+                    }
+                }
 
-    /*gRPC channel may not be in ready state instantly, this is internal wait to make a connection*/
-    private ConnectivityState retrieveChannelState() {
-        int retries = DEFAULT_INTERNAL_RETRIES;
-        ConnectivityState state = null;
-        while (retries > 0 && !closed.get()) {
-            state = channel.getState(true);
-            if (!state.equals(READY)) {
-                LOG.warn("OpenConfig Server at `{}` is not in ready state, current state {}, retrying..", InetAddressUtils.str(host), state);
-                waitBeforeRetrying(DEFAULT_INTERNAL_TIMEOUT);
-                retries--;
-            } else {
-                break;
-            }
-        }
-        return state;
-    }
+                @Override
+                public void onError(Throwable t) {
+                    LOG.error("Received error on stream for host {}", InetAddressUtils.str(host), t);
+                    handler.onError(t.getMessage());
+                    onStreamEnded(stream, targetChannel, true);
+                }
 
-    private void waitBeforeRetrying(long timeout) {
-        try {
-            Thread.sleep(timeout);
-        } catch (InterruptedException e) {
-            LOG.warn("Sleep was interrupted", e);
+                @Override
+                public void onCompleted() {
+                    LOG.info("Response stream closed for host {}", InetAddressUtils.str(host));
+                    handler.onError("OpenConfig Server closed connection for host " + InetAddressUtils.str(host));
+                    onStreamEnded(stream, targetChannel, false);
+                }
+            };
         }
     }
-
-
 }
@@ -0,0 +1,45 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.features.openconfig.telemetry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BackoffTest {
+
+    @Test
+    public void testBackoff() {
+        for (int i = 0; i < 100; i++) {
+            // Randomized between half and the full delay
+            long backoff = OpenConfigClientImpl.getBackoff(1, 5000, 300000);
+            Assert.assertTrue(backoff >= 2500 && backoff <= 5000);
+
+            // Doubles with every attempt
+            backoff = OpenConfigClientImpl.getBackoff(4, 5000, 300000);
+            Assert.assertTrue(backoff >= 20000 && backoff <= 40000);
+
+            // Capped at the maximum, even for large numbers of attempts
+            backoff = OpenConfigClientImpl.getBackoff(1000, 5000, 300000);
+            Assert.assertTrue(backoff >= 150000 && backoff <= 300000);
+        }
+    }
+}
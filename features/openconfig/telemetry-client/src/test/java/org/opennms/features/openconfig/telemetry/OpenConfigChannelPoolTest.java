@@ -0,0 +1,98 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.features.openconfig.telemetry;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+public class OpenConfigChannelPoolTest {
+
+    private static final String STATE_GAUGE = "targets.127.0.0.1:50051.connectivityState";
+
+    private final MetricRegistry metrics = new MetricRegistry();
+
+    private OpenConfigChannelPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new OpenConfigChannelPool(1, 1, metrics);
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void testMetricsFollowOpenChannels() throws Exception {
+        // Targets with the same address, but different credentials, get their own channels and share the metrics
+        final OpenConfigChannelPool.TargetChannel first = pool.acquire(getTarget("first"));
+        final OpenConfigChannelPool.TargetChannel second = pool.acquire(getTarget("second"));
+        Assert.assertNotSame(first.getChannel(), second.getChannel());
+        Assert.assertEquals("IDLE", getState());
+
+        // The gauges must not keep reporting the closed channel
+        pool.release(first);
+        Assert.assertTrue(first.getChannel().isShutdown());
+        Assert.assertEquals("IDLE", getState());
+
+        pool.release(second);
+        Assert.assertTrue(metrics.getMetrics().isEmpty());
+
+        // A recreated channel gets fresh gauges
+        final OpenConfigChannelPool.TargetChannel recreated = pool.acquire(getTarget("first"));
+        recreated.onStreamStarted();
+        Assert.assertEquals("IDLE", getState());
+        Assert.assertEquals(1, metrics.getGauges().get("targets.127.0.0.1:50051.activeStreams").getValue());
+        pool.release(recreated);
+        Assert.assertTrue(metrics.getMetrics().isEmpty());
+    }
+
+    @Test
+    public void testChannelIsShared() throws Exception {
+        final OpenConfigChannelPool.TargetChannel first = pool.acquire(getTarget("user"));
+        final OpenConfigChannelPool.TargetChannel second = pool.acquire(getTarget("user"));
+        Assert.assertSame(first, second);
+
+        pool.release(first);
+        Assert.assertFalse(first.getChannel().isShutdown());
+        pool.release(second);
+        Assert.assertTrue(first.getChannel().isShutdown());
+    }
+
+    private String getState() {
+        final Gauge<?> gauge = metrics.getGauges().get(STATE_GAUGE);
+        Assert.assertNotNull(gauge);
+        return (String) gauge.getValue();
+    }
+
+    private static OpenConfigChannelPool.Target getTarget(String username) {
+        return new OpenConfigChannelPool.Target("127.0.0.1", 50051, Collections.emptyMap(), username, "secret");
+    }
+}
@@ -77,4 +77,13 @@ public interface QueueDefinition {
      */
     Optional<Boolean> getUseRoutingKey();
 
+    /**
+     * Number of ordered lanes used to dispatch messages to each adapter.
+     * Messages are partitioned by exporter so that messages from the same
+     * exporter are always handled in order by the same lane.
+     *
+     * @return the number of dispatch lanes
+     */
+    Optional<Integer> getDispatchLanes();
+
 }
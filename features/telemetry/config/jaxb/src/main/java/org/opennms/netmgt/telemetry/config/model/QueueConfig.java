@@ -59,6 +59,9 @@ public class QueueConfig implements QueueDefinition {
     @XmlAttribute(name="use-routing-key")
     private Boolean useRoutingKey;
 
+    @XmlAttribute(name="dispatch-lanes")
+    private Integer dispatchLanes;
+
     @XmlElement(name="adapter")
     private List<AdapterConfig> adapters = new ArrayList<>();
 
@@ -116,6 +119,15 @@ public class QueueConfig implements QueueDefinition {
         this.useRoutingKey = useRoutingKey;
     }
 
+    @Override
+    public Optional<Integer> getDispatchLanes() {
+        return Optional.ofNullable(dispatchLanes);
+    }
+
+    public void setDispatchLanes(Integer dispatchLanes) {
+        this.dispatchLanes = dispatchLanes;
+    }
+
     public List<AdapterConfig> getAdapters() {
         return this.adapters;
     }
@@ -135,6 +147,7 @@ public class QueueConfig implements QueueDefinition {
                 Objects.equals(this.batchIntervalMs, that.batchIntervalMs) &&
                 Objects.equals(this.queueSize, that.queueSize) &&
                 Objects.equals(this.useRoutingKey, that.useRoutingKey) &&
+                Objects.equals(this.dispatchLanes, that.dispatchLanes) &&
                 Objects.equals(this.adapters, that.adapters);
     }
 
@@ -147,6 +160,7 @@ public class QueueConfig implements QueueDefinition {
                 this.batchIntervalMs,
                 this.queueSize,
                 this.useRoutingKey,
+                this.dispatchLanes,
                 this.adapters);
     }
 
@@ -159,6 +173,7 @@ public class QueueConfig implements QueueDefinition {
                 .add("batch-interval-ms", this.batchIntervalMs)
                 .add("queue-size", this.queueSize)
                 .add("use-routing-key", this.useRoutingKey)
+                .add("dispatch-lanes", this.dispatchLanes)
                 .addValue(this.adapters)
                 .toString();
     }
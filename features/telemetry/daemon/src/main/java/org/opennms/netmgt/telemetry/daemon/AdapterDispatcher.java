@@ -0,0 +1,179 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.daemon;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.opennms.core.logging.Logging;
+import org.opennms.netmgt.telemetry.api.adapter.Adapter;
+import org.opennms.netmgt.telemetry.common.ipc.TelemetryProtos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+/**
+ * Dispatches message logs to a single adapter.
+ *
+ * Without lanes, messages are handled on the calling thread. With lanes, messages are partitioned by exporter into
+ * a fixed number of bounded queues, each drained by its own worker thread. Messages from the same exporter always
+ * end up in the same lane and are therefore handled in order. When a lane is full, the calling thread blocks until
+ * there is room again, which pushes back onto the sink consumer.
+ */
+class AdapterDispatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(AdapterDispatcher.class);
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final Adapter adapter;
+
+    private final MetricRegistry metricRegistry;
+    private final String queueDepthMetricName;
+    private final String dispatchTimerMetricName;
+    private final Timer dispatchTimer;
+
+    private final Lane[] lanes;
+
+    private volatile boolean running = true;
+
+    AdapterDispatcher(final Adapter adapter,
+                      final String adapterName,
+                      final int numLanes,
+                      final int laneCapacity,
+                      final MetricRegistry metricRegistry) {
+        this.adapter = Objects.requireNonNull(adapter);
+        this.metricRegistry = Objects.requireNonNull(metricRegistry);
+
+        this.dispatchTimerMetricName = name("adapters", adapterName, "dispatchTime");
+        this.metricRegistry.remove(this.dispatchTimerMetricName);
+        this.dispatchTimer = this.metricRegistry.timer(this.dispatchTimerMetricName);
+
+        this.lanes = new Lane[Math.max(0, numLanes)];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new Lane(String.format("telemetry-dispatch-%s-%d", adapterName, i), laneCapacity);
+        }
+
+        if (this.lanes.length > 0) {
+            this.queueDepthMetricName = name("adapters", adapterName, "dispatchQueueDepth");
+            this.metricRegistry.remove(this.queueDepthMetricName);
+            this.metricRegistry.register(this.queueDepthMetricName, (Gauge<Integer>) this::getQueueDepth);
+        } else {
+            this.queueDepthMetricName = null;
+        }
+    }
+
+    void start() {
+        for (final Lane lane : this.lanes) {
+            lane.thread.start();
+        }
+    }
+
+    void dispatch(final TelemetryProtos.TelemetryMessageLog messageLog) {
+        if (this.lanes.length == 0) {
+            this.handle(messageLog);
+            return;
+        }
+
+        final Lane lane = this.lanes[Math.floorMod(Objects.hash(messageLog.getLocation(), messageLog.getSourceAddress()), this.lanes.length)];
+        try {
+            lane.queue.put(messageLog);
+        } catch (final InterruptedException e) {
+            LOG.warn("Interrupted while dispatching message log to adapter: {}. Dropping.", this.adapter);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops all lanes after the messages already queued have been handled.
+     */
+    void stop() {
+        this.running = false;
+        for (final Lane lane : this.lanes) {
+            try {
+                lane.thread.join();
+            } catch (final InterruptedException e) {
+                LOG.warn("Interrupted while waiting for dispatch lane {} to finish.", lane.thread.getName());
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (this.queueDepthMetricName != null) {
+            this.metricRegistry.remove(this.queueDepthMetricName);
+        }
+        this.metricRegistry.remove(this.dispatchTimerMetricName);
+    }
+
+    int getQueueDepth() {
+        int depth = 0;
+        for (final Lane lane : this.lanes) {
+            depth += lane.queue.size();
+        }
+        return depth;
+    }
+
+    private void handle(final TelemetryProtos.TelemetryMessageLog messageLog) {
+        try (Timer.Context ctx = this.dispatchTimer.time()) {
+            this.adapter.handleMessageLog(messageLog);
+        } catch (final RuntimeException e) {
+            LOG.warn("Adapter: {} failed to handle message log: {}. Skipping.", this.adapter, messageLog, e);
+        }
+    }
+
+    private class Lane implements Runnable {
+        private final BlockingQueue<TelemetryProtos.TelemetryMessageLog> queue;
+        private final Thread thread;
+
+        private Lane(final String name, final int capacity) {
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try (Logging.MDCCloseable mdc = Logging.withPrefixCloseable(Telemetryd.LOG_PREFIX)) {
+                while (running || !this.queue.isEmpty()) {
+                    final TelemetryProtos.TelemetryMessageLog messageLog;
+                    try {
+                        messageLog = this.queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    } catch (final InterruptedException e) {
+                        LOG.info("Dispatch lane {} was interrupted. Stopping.", this.thread.getName());
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+
+                    if (messageLog != null) {
+                        handle(messageLog);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -51,6 +51,8 @@ import com.google.common.collect.Sets;
 public class TelemetryMessageConsumer implements MessageConsumer<TelemetryMessage, TelemetryProtos.TelemetryMessageLog> {
     private final Logger LOG = LoggerFactory.getLogger(TelemetryMessageConsumer.class);
 
+    private static final int DEFAULT_QUEUE_SIZE = 10000;
+
     @Autowired
     private TelemetryRegistry telemetryRegistry;
 
@@ -61,6 +63,9 @@ public class TelemetryMessageConsumer implements MessageConsumer<TelemetryMessag
     // Actual adapters implementing the logic
     private final Set<Adapter> adapters = Sets.newHashSet();
 
+    // Dispatchers feeding the adapters, partitioned by exporter if lanes are configured
+    private final List<AdapterDispatcher> dispatchers = new ArrayList<>();
+
     public TelemetryMessageConsumer(QueueConfig queueConfig, TelemetrySinkModule sinkModule) throws Exception {
         this(queueConfig,
                 queueConfig.getAdapters(),
@@ -77,6 +82,9 @@ public class TelemetryMessageConsumer implements MessageConsumer<TelemetryMessag
 
     @PostConstruct
     public void init() throws Exception {
+        final int numLanes = queueDef.getDispatchLanes().orElse(0);
+        final int laneCapacity = numLanes > 0 ? queueDef.getQueueSize().orElse(DEFAULT_QUEUE_SIZE) / numLanes : 0;
+
         // Pre-emptively instantiate the adapters
         for (AdapterDefinition adapterDef : adapterDefs) {
             final Adapter adapter;
@@ -90,7 +98,10 @@ public class TelemetryMessageConsumer implements MessageConsumer<TelemetryMessag
                 throw new Exception("No adapter found for class: " + adapterDef.getClassName());
             }
             adapters.add(adapter);
+            dispatchers.add(new AdapterDispatcher(adapter, adapterDef.getFullName(), numLanes, laneCapacity, telemetryRegistry.getMetricRegistry()));
         }
+
+        dispatchers.forEach(AdapterDispatcher::start);
     }
 
     @Override
@@ -98,19 +109,18 @@ public class TelemetryMessageConsumer implements MessageConsumer<TelemetryMessag
         try (Logging.MDCCloseable mdc = Logging.withPrefixCloseable(Telemetryd.LOG_PREFIX)) {
             LOG.trace("Received message log: {}", messageLog);
             // Handle the message with all of the adapters
-            for (Adapter adapter : adapters) {
-                try {
-                    adapter.handleMessageLog(messageLog);
-                } catch (RuntimeException e) {
-                    LOG.warn("Adapter: {} failed to handle message log: {}. Skipping.", adapter, messageLog, e);
-                    continue;
-                }
+            for (AdapterDispatcher dispatcher : dispatchers) {
+                dispatcher.dispatch(messageLog);
             }
         }
     }
 
     @PreDestroy
     public void destroy() {
+        // Drain the lanes before tearing down the adapters
+        dispatchers.forEach(AdapterDispatcher::stop);
+        dispatchers.clear();
+
         adapters.forEach((adapter) -> adapter.destroy());
     }
 
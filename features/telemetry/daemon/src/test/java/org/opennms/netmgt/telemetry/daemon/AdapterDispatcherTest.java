@@ -0,0 +1,116 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.daemon;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.opennms.netmgt.telemetry.api.adapter.Adapter;
+import org.opennms.netmgt.telemetry.api.adapter.TelemetryMessageLog;
+import org.opennms.netmgt.telemetry.common.ipc.TelemetryProtos;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+public class AdapterDispatcherTest {
+
+    private static class RecordingAdapter implements Adapter {
+        private final Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+
+        @Override
+        public void handleMessageLog(final TelemetryMessageLog messageLog) {
+            received.computeIfAbsent(messageLog.getSourceAddress(), k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(messageLog.getSourcePort());
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    private static TelemetryProtos.TelemetryMessageLog messageLog(final String address, final int seq) {
+        return TelemetryProtos.TelemetryMessageLog.newBuilder()
+                .setLocation("Default")
+                .setSystemId("minion")
+                .setSourceAddress(address)
+                .setSourcePort(seq)
+                .build();
+    }
+
+    @Test
+    public void verifyPerExporterOrderingIsPreserved() {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final RecordingAdapter adapter = new RecordingAdapter();
+        final AdapterDispatcher dispatcher = new AdapterDispatcher(adapter, "Test-Adapter", 4, 16, metricRegistry);
+        dispatcher.start();
+
+        assertNotNull(metricRegistry.getGauges().get("adapters.Test-Adapter.dispatchQueueDepth"));
+        final Timer dispatchTimer = metricRegistry.getTimers().get("adapters.Test-Adapter.dispatchTime");
+        assertNotNull(dispatchTimer);
+
+        for (int seq = 0; seq < 1000; seq++) {
+            for (int exporter = 0; exporter < 10; exporter++) {
+                dispatcher.dispatch(messageLog("10.0.0." + exporter, seq));
+            }
+        }
+        dispatcher.stop();
+
+        final List<Integer> expected = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        assertEquals(10, adapter.received.size());
+        for (final List<Integer> sequence : adapter.received.values()) {
+            assertThat(sequence, contains(expected.toArray()));
+        }
+
+        assertEquals(10000, dispatchTimer.getCount());
+        assertNull(metricRegistry.getGauges().get("adapters.Test-Adapter.dispatchQueueDepth"));
+        assertNull(metricRegistry.getTimers().get("adapters.Test-Adapter.dispatchTime"));
+    }
+
+    @Test
+    public void verifyInlineDispatchWithoutLanes() {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final RecordingAdapter adapter = new RecordingAdapter();
+        final AdapterDispatcher dispatcher = new AdapterDispatcher(adapter, "Test-Adapter", 0, 0, metricRegistry);
+        dispatcher.start();
+
+        dispatcher.dispatch(messageLog("10.0.0.1", 1));
+
+        // Handled on the calling thread
+        assertThat(adapter.received.get("10.0.0.1"), contains(1));
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertNull(metricRegistry.getGauges().get("adapters.Test-Adapter.dispatchQueueDepth"));
+
+        dispatcher.stop();
+    }
+}
@@ -32,6 +32,7 @@ public class MapBasedQueueDef implements QueueDefinition {
     private final Optional<Integer> batchSize;
     private final Optional<Integer> batchInterval;
     private final Optional<Boolean> useRoutingKey;
+    private final Optional<Integer> dispatchLanes;
 
     public MapBasedQueueDef(final PropertyTree definition) {
         this.name = definition.getRequiredString("name");
@@ -40,6 +41,7 @@ public class MapBasedQueueDef implements QueueDefinition {
         this.batchSize = definition.getOptionalInteger("batch", "size");
         this.batchInterval = definition.getOptionalInteger("batch", "interval");
         this.useRoutingKey = definition.getOptionalBoolean("queue", "use-routing-key");
+        this.dispatchLanes = definition.getOptionalInteger("queue", "dispatch-lanes");
     }
 
     @Override
@@ -71,4 +73,9 @@ public class MapBasedQueueDef implements QueueDefinition {
     public Optional<Boolean> getUseRoutingKey() {
         return useRoutingKey;
     }
+
+    @Override
+    public Optional<Integer> getDispatchLanes() {
+        return dispatchLanes;
+    }
 }
@@ -23,6 +23,7 @@ package org.opennms.netmgt.telemetry.listeners;
 
 import java.net.InetSocketAddress;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -36,9 +37,11 @@ import org.opennms.netmgt.telemetry.api.receiver.Listener;
 import org.opennms.netmgt.telemetry.api.receiver.Parser;
 import org.opennms.netmgt.telemetry.listeners.utils.BufferUtils;
 import org.opennms.netmgt.telemetry.listeners.utils.NettyEventListener;
+import org.opennms.netmgt.telemetry.listeners.utils.UdpSocketStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -53,6 +56,10 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.FixedRecvByteBufAllocator;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.DatagramPacket;
@@ -71,21 +78,26 @@ public class UdpListener implements GracefulShutdownListener {
     private final String name;
     private final List<UdpParser> parsers;
 
+    private final MetricRegistry metrics;
+
     private final Meter packetsReceived;
 
     private EventLoopGroup bossGroup;
-    private ChannelFuture socketFuture;
+    private final List<ChannelFuture> socketFutures = new ArrayList<>();
 
     private String host = null;
     private int port = 50000;
     private int maxPacketSize = 8096;
 
+    private boolean epoll = false;
+    private int sockets = 0;
+
     private Future<String> stopFuture;
 
     public UdpListener(final String name, final List<UdpParser> parsers, final MetricRegistry metrics) {
         this.name = Objects.requireNonNull(name);
         this.parsers = Objects.requireNonNull(parsers);
-        Objects.requireNonNull(metrics);
+        this.metrics = Objects.requireNonNull(metrics);
 
         if (this.parsers.isEmpty()) {
             throw new IllegalArgumentException("At least 1 parsers must be defined");
@@ -100,6 +112,21 @@ public class UdpListener implements GracefulShutdownListener {
     }
 
     public void start() throws InterruptedException {
+        final InetSocketAddress address = this.host != null
+                ? SocketUtils.socketAddress(this.host, this.port)
+                : new InetSocketAddress(this.port);
+
+        if (this.epoll && Epoll.isAvailable()) {
+            this.startEpoll(address);
+        } else {
+            if (this.epoll) {
+                LOG.warn("Native epoll transport is not available for listener {}. Falling back to NIO.", this.name, Epoll.unavailabilityCause());
+            }
+            this.startNio(address);
+        }
+    }
+
+    private void startNio(final InetSocketAddress address) throws InterruptedException {
         // Netty defaults to 2 * num cores when the number of threads is set to 0
         this.bossGroup = new NioEventLoopGroup(0, new ThreadFactoryBuilder()
                 .setNameFormat("telemetryd-nio-" + name + "-%d")
@@ -107,19 +134,57 @@ public class UdpListener implements GracefulShutdownListener {
 
         this.parsers.forEach(parser -> parser.start(this.bossGroup));
 
-        final InetSocketAddress address = this.host != null
-                ? SocketUtils.socketAddress(this.host, this.port)
-                : new InetSocketAddress(this.port);
-
-        this.socketFuture = new Bootstrap()
+        this.socketFutures.add(new Bootstrap()
                 .group(this.bossGroup)
                 .channel(NioDatagramChannel.class)
                 .option(ChannelOption.SO_REUSEADDR, true)
                 .option(ChannelOption.SO_RCVBUF, Integer.MAX_VALUE)
                 .option(ChannelOption.RCVBUF_ALLOCATOR, new FixedRecvByteBufAllocator(this.maxPacketSize))
-                .handler(new DefaultChannelInitializer())
+                .handler(new DefaultChannelInitializer(null))
                 .bind(address)
-                .sync();
+                .sync());
+    }
+
+    private void startEpoll(final InetSocketAddress address) throws InterruptedException {
+        final int sockets = this.sockets > 0
+                ? this.sockets
+                : Runtime.getRuntime().availableProcessors();
+
+        // Use one event loop per socket so that each socket is served by its own thread
+        this.bossGroup = new EpollEventLoopGroup(sockets, new ThreadFactoryBuilder()
+                .setNameFormat("telemetryd-epoll-" + name + "-%d")
+                .build() );
+
+        this.parsers.forEach(parser -> parser.start(this.bossGroup));
+
+        LOG.info("Binding {} sockets using SO_REUSEPORT for listener {}", sockets, this.name);
+        for (int i = 0; i < sockets; i++) {
+            final ChannelFuture socketFuture = new Bootstrap()
+                    .group(this.bossGroup)
+                    .channel(EpollDatagramChannel.class)
+                    .option(ChannelOption.SO_REUSEADDR, true)
+                    .option(EpollChannelOption.SO_REUSEPORT, true)
+                    .option(ChannelOption.SO_RCVBUF, Integer.MAX_VALUE)
+                    .option(ChannelOption.RCVBUF_ALLOCATOR, new FixedRecvByteBufAllocator(this.maxPacketSize))
+                    .handler(new DefaultChannelInitializer(i))
+                    .bind(address)
+                    .sync();
+            this.socketFutures.add(socketFuture);
+
+            this.registerSocketDrops(i, (EpollDatagramChannel) socketFuture.channel());
+        }
+    }
+
+    private void registerSocketDrops(final int socket, final EpollDatagramChannel channel) {
+        final UdpSocketStats stats = UdpSocketStats.forFileDescriptor(channel.fd().intValue());
+        if (stats == null) {
+            LOG.debug("Unable to track drops for socket {} of listener {}", socket, this.name);
+            return;
+        }
+
+        final String metricName = MetricRegistry.name("listeners", this.name, "socket" + socket, "packetsDropped");
+        this.metrics.remove(metricName);
+        this.metrics.register(metricName, (Gauge<Long>) stats::getDrops);
     }
 
     public void stop() throws InterruptedException {
@@ -131,13 +196,17 @@ public class UdpListener implements GracefulShutdownListener {
             this.bossGroup.shutdownGracefully().addListener(bossListener);
         }
 
-        if (this.socketFuture != null) {
-            LOG.info("Closing channel...");
-            this.socketFuture.channel().close().sync();
-            if (this.socketFuture.channel().parent() != null) {
-                this.socketFuture.channel().parent().close().sync();
+        if (!this.socketFutures.isEmpty()) {
+            LOG.info("Closing channels...");
+            for (final ChannelFuture socketFuture : this.socketFutures) {
+                socketFuture.channel().close().sync();
+                if (socketFuture.channel().parent() != null) {
+                    socketFuture.channel().parent().close().sync();
+                }
             }
+            this.socketFutures.clear();
         }
+        this.metrics.removeMatching((metricName, metric) -> metricName.startsWith(MetricRegistry.name("listeners", this.name, "socket")));
 
         this.parsers.forEach(Parser::stop);
 
@@ -193,6 +262,22 @@ public class UdpListener implements GracefulShutdownListener {
         this.maxPacketSize = maxPacketSize;
     }
 
+    public boolean isEpoll() {
+        return epoll;
+    }
+
+    public void setEpoll(boolean epoll) {
+        this.epoll = epoll;
+    }
+
+    public int getSockets() {
+        return sockets;
+    }
+
+    public void setSockets(int sockets) {
+        this.sockets = sockets;
+    }
+
     @Override
     public String getName() {
         return name;
@@ -200,7 +285,7 @@ public class UdpListener implements GracefulShutdownListener {
 
     @Override
     public String getDescription() {
-        return String.format("UDP %s:%s",  this.host != null ? this.host : "*", this.port);
+        return String.format("UDP %s:%s%s",  this.host != null ? this.host : "*", this.port, this.socketFutures.size() > 1 ? " (" + this.socketFutures.size() + " sockets)" : "");
     }
 
     @Override
@@ -216,10 +301,16 @@ public class UdpListener implements GracefulShutdownListener {
 
     private class DefaultChannelInitializer extends ChannelInitializer<DatagramChannel> {
 
+        private final Integer socket;
+
+        private DefaultChannelInitializer(final Integer socket) {
+            this.socket = socket;
+        }
+
         @Override
         protected void initChannel(DatagramChannel ch) {
             // Accounting
-            ch.pipeline().addFirst(new AccountingHandler());
+            ch.pipeline().addFirst(new AccountingHandler(this.socket));
 
             if (parsers.size() == 1) {
                 final UdpParser parser = parsers.get(0);
@@ -253,9 +344,20 @@ public class UdpListener implements GracefulShutdownListener {
     }
 
     private class AccountingHandler extends ChannelInboundHandlerAdapter {
+        private final Meter socketPacketsReceived;
+
+        private AccountingHandler(final Integer socket) {
+            this.socketPacketsReceived = socket != null
+                    ? metrics.meter(MetricRegistry.name("listeners", name, "socket" + socket, "packetsReceived"))
+                    : null;
+        }
+
         @Override
         public  void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
             packetsReceived.mark();
+            if (this.socketPacketsReceived != null) {
+                this.socketPacketsReceived.mark();
+            }
             super.channelRead(ctx, msg);
         }
     }
@@ -0,0 +1,125 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.listeners.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the kernel receive statistics of a single UDP socket from procfs.
+ *
+ * The socket is identified by its file descriptor which is resolved to the socket inode using
+ * <code>/proc/self/fd</code>. The inode is then looked up in <code>/proc/net/udp</code> and
+ * <code>/proc/net/udp6</code> to read the number of datagrams dropped by the kernel.
+ */
+public final class UdpSocketStats {
+    private static final Logger LOG = LoggerFactory.getLogger(UdpSocketStats.class);
+
+    private static final Pattern SOCKET_INODE = Pattern.compile("^socket:\\[(\\d+)\\]$");
+
+    private static final List<Path> PROC_NET_UDP = List.of(Paths.get("/proc/net/udp"), Paths.get("/proc/net/udp6"));
+
+    // Column indices in /proc/net/udp
+    private static final int INODE_COLUMN = 9;
+    private static final int DROPS_COLUMN = 12;
+
+    private final String inode;
+
+    private UdpSocketStats(final String inode) {
+        this.inode = inode;
+    }
+
+    /**
+     * Creates the statistics reader for the socket behind the given file descriptor.
+     *
+     * @param fd the file descriptor of the socket
+     * @return the reader or <code>null</code> if the socket can not be resolved
+     */
+    public static UdpSocketStats forFileDescriptor(final int fd) {
+        try {
+            final String target = Files.readSymbolicLink(Paths.get("/proc/self/fd", Integer.toString(fd))).toString();
+            final Matcher matcher = SOCKET_INODE.matcher(target);
+            if (!matcher.matches()) {
+                LOG.debug("File descriptor {} does not refer to a socket: {}", fd, target);
+                return null;
+            }
+            return new UdpSocketStats(matcher.group(1));
+        } catch (final IOException | UnsupportedOperationException e) {
+            LOG.debug("Unable to resolve socket for file descriptor {}", fd, e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of datagrams dropped by the kernel for this socket, i.e. because the
+     * receive buffer was full.
+     *
+     * @return the number of drops or <code>-1</code> if the socket is not listed anymore
+     */
+    public long getDrops() {
+        for (final Path path : PROC_NET_UDP) {
+            if (!Files.isReadable(path)) {
+                continue;
+            }
+
+            try {
+                final long drops = getDrops(this.inode, Files.readAllLines(path, StandardCharsets.US_ASCII));
+                if (drops >= 0) {
+                    return drops;
+                }
+            } catch (final IOException | NumberFormatException e) {
+                LOG.debug("Unable to read socket statistics from {}", path, e);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of drops of the socket with the given inode from the lines of
+     * <code>/proc/net/udp</code> or <code>/proc/net/udp6</code>.
+     *
+     * @return the number of drops or <code>-1</code> if the socket is not listed
+     */
+    static long getDrops(final String inode, final List<String> lines) {
+        // Skip the header line
+        for (int i = 1; i < lines.size(); i++) {
+            final String[] columns = lines.get(i).trim().split("\\s+");
+            if (columns.length > DROPS_COLUMN && inode.equals(columns[INODE_COLUMN])) {
+                return Long.parseLong(columns[DROPS_COLUMN]);
+            }
+        }
+        return -1;
+    }
+
+    public String getInode() {
+        return this.inode;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.listeners;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.epoll.Epoll;
+
+public class UdpListenerTest {
+
+    private static final int NUM_SENDERS = 16;
+    private static final int NUM_PACKETS = 10;
+
+    private static class CountingParser implements UdpParser {
+        private final AtomicInteger packets = new AtomicInteger();
+
+        @Override
+        public CompletableFuture<?> parse(final ByteBuf buffer, final InetSocketAddress remoteAddress, final InetSocketAddress localAddress) {
+            this.packets.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public String getName() {
+            return "Counting";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Counting";
+        }
+
+        @Override
+        public Object dumpInternalState() {
+            return null;
+        }
+
+        @Override
+        public void start(final ScheduledExecutorService executorService) {
+        }
+
+        @Override
+        public void stop() {
+        }
+    }
+
+    private static int findAvailablePort() throws Exception {
+        try (DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // Sends from multiple source ports so that SO_REUSEPORT spreads the packets across the sockets
+    private static void sendPackets(final int port) throws Exception {
+        final byte[] bytes = new byte[] { 0x01, 0x02, 0x03, 0x04 };
+        for (int sender = 0; sender < NUM_SENDERS; sender++) {
+            try (DatagramSocket socket = new DatagramSocket()) {
+                for (int i = 0; i < NUM_PACKETS; i++) {
+                    socket.send(new DatagramPacket(bytes, bytes.length, InetAddress.getLoopbackAddress(), port));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void canReceivePackets() throws Exception {
+        final MetricRegistry metrics = new MetricRegistry();
+        final CountingParser parser = new CountingParser();
+        final UdpListener listener = new UdpListener("Test", Collections.singletonList(parser), metrics);
+        listener.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+        listener.setPort(findAvailablePort());
+        listener.start();
+        try {
+            assertEquals("UDP 127.0.0.1:" + listener.getPort(), listener.getDescription());
+
+            sendPackets(listener.getPort());
+
+            await().atMost(10, TimeUnit.SECONDS).until(parser.packets::get, is(NUM_SENDERS * NUM_PACKETS));
+            assertEquals(NUM_SENDERS * NUM_PACKETS, metrics.meter("listeners.Test.packetsReceived").getCount());
+            assertTrue(metrics.getMetrics().keySet().stream().noneMatch(name -> name.startsWith("listeners.Test.socket")));
+        } finally {
+            listener.stop();
+        }
+    }
+
+    @Test
+    public void canReceivePacketsOnReusedPortWithEpoll() throws Exception {
+        Assume.assumeTrue("Native epoll transport is not available", Epoll.isAvailable());
+
+        final MetricRegistry metrics = new MetricRegistry();
+        final CountingParser parser = new CountingParser();
+        final UdpListener listener = new UdpListener("Test", Collections.singletonList(parser), metrics);
+        listener.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+        listener.setPort(findAvailablePort());
+        listener.setEpoll(true);
+        listener.setSockets(4);
+        listener.start();
+        try {
+            assertEquals("UDP 127.0.0.1:" + listener.getPort() + " (4 sockets)", listener.getDescription());
+
+            sendPackets(listener.getPort());
+
+            await().atMost(10, TimeUnit.SECONDS).until(parser.packets::get, is(NUM_SENDERS * NUM_PACKETS));
+            assertEquals(NUM_SENDERS * NUM_PACKETS, metrics.meter("listeners.Test.packetsReceived").getCount());
+
+            // The packets of all sockets add up to the total
+            long packetsReceived = 0;
+            for (int socket = 0; socket < 4; socket++) {
+                packetsReceived += metrics.meter("listeners.Test.socket" + socket + ".packetsReceived").getCount();
+
+                final Gauge<?> packetsDropped = metrics.getGauges().get("listeners.Test.socket" + socket + ".packetsDropped");
+                assertNotNull(packetsDropped);
+                assertThat((Long) packetsDropped.getValue(), greaterThanOrEqualTo(0L));
+            }
+            assertEquals(NUM_SENDERS * NUM_PACKETS, packetsReceived);
+        } finally {
+            listener.stop();
+        }
+
+        assertTrue(metrics.getMetrics().keySet().stream().noneMatch(name -> name.startsWith("listeners.Test.socket")));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.listeners.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class UdpSocketStatsTest {
+
+    private static final List<String> PROC_NET_UDP = Arrays.asList(
+            "   sl  local_address rem_address   st tx_queue rx_queue tr tm->when retrnsmt   uid  timeout inode ref pointer drops",
+            "  229: 00000000:2742 00000000:0000 07 00000000:00000000 00:00000000 00000000     0        0 14863 2 0000000000000000 0",
+            "  229: 00000000:2742 00000000:0000 07 00000000:00034000 00:00000000 00000000   995        0 14864 2 0000000000000000 42",
+            " 1012: 0100007F:0035 00000000:0000 07 00000000:00000000 00:00000000 00000000     0        0 148630 2 0000000000000000 1234567");
+
+    private static final List<String> PROC_NET_UDP6 = Arrays.asList(
+            "  sl  local_address                         remote_address                        st tx_queue rx_queue tr tm->when retrnsmt   uid  timeout inode ref pointer drops",
+            "  229: 00000000000000000000000000000000:2742 00000000000000000000000000000000:0000 07 00000000:00000000 00:00000000 00000000   995        0 14865 2 0000000000000000 7");
+
+    @Test
+    public void canReadDropsOfSocket() {
+        assertEquals(0L, UdpSocketStats.getDrops("14863", PROC_NET_UDP));
+        assertEquals(42L, UdpSocketStats.getDrops("14864", PROC_NET_UDP));
+        assertEquals(1234567L, UdpSocketStats.getDrops("148630", PROC_NET_UDP));
+        assertEquals(7L, UdpSocketStats.getDrops("14865", PROC_NET_UDP6));
+    }
+
+    @Test
+    public void doesNotMatchPartialInodes() {
+        assertEquals(-1L, UdpSocketStats.getDrops("1486", PROC_NET_UDP));
+        assertEquals(-1L, UdpSocketStats.getDrops("14865", PROC_NET_UDP));
+    }
+
+    @Test
+    public void ignoresHeaderAndTruncatedLines() {
+        assertEquals(-1L, UdpSocketStats.getDrops("inode", PROC_NET_UDP));
+        assertEquals(-1L, UdpSocketStats.getDrops("14863", Arrays.asList(
+                PROC_NET_UDP.get(0),
+                "  229: 00000000:2742 00000000:0000 07 00000000:00000000 00:00000000 00000000     0        0 14863 2")));
+        assertEquals(-1L, UdpSocketStats.getDrops("14863", Collections.emptyList()));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsMalformedDrops() {
+        UdpSocketStats.getDrops("14863", Arrays.asList(
+                PROC_NET_UDP.get(0),
+                "  229: 00000000:2742 00000000:0000 07 00000000:00000000 00:00000000 00000000     0        0 14863 2 0000000000000000 x"));
+    }
+}
@@ -125,11 +125,25 @@ public abstract class AbstractCollectionAdapter extends AbstractAdapter {
     public abstract Stream<CollectionSetWithAgent> handleCollectionMessage(TelemetryMessageLogEntry message, TelemetryMessageLog messageLog);
 
     public final void handleMessage(TelemetryMessageLogEntry message, TelemetryMessageLog messageLog) {
-        handleCollectionMessage(message, messageLog).forEach(result -> {
+        persist(handleCollectionMessage(message, messageLog), message);
+    }
+
+    /**
+     * Persists and thresholds the given collection sets.
+     *
+     * Used by adapters which build collection sets outside of {@link #handleCollectionMessage}.
+     *
+     * @param collectionSets
+     *            collection sets to persist
+     * @param source
+     *            what the collection sets were built from, used for logging
+     */
+    protected final void persist(Stream<CollectionSetWithAgent> collectionSets, Object source) {
+        collectionSets.forEach(result -> {
             // Locate the matching package definition
             final PackageDefinition pkg = getPackageFor(adapterConfig, result.getAgent());
             if (pkg == null) {
-                LOG.warn("No matching package found for message: {}. Dropping.", message);
+                LOG.warn("No matching package found for message: {}. Dropping.", source);
                 return;
             }
 
@@ -142,7 +156,7 @@ public abstract class AbstractCollectionAdapter extends AbstractAdapter {
 
             // Persist!
             final CollectionSet collectionSet = result.getCollectionSet();
-            LOG.trace("Persisting collection set: {} for message: {}", collectionSet, message);
+            LOG.trace("Persisting collection set: {} for message: {}", collectionSet, source);
             final Persister persister = persisterFactory.createPersister(EMPTY_SERVICE_PARAMETERS, repository);
             collectionSet.visit(persister);
 
@@ -21,20 +21,30 @@
  */
 package org.opennms.netmgt.telemetry.protocols.collection;
 
+import static com.codahale.metrics.MetricRegistry.name;
+
 import java.io.File;
 import java.io.IOException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import javax.script.ScriptException;
 
 import org.opennms.core.fileutils.FileUpdateCallback;
 import org.opennms.core.fileutils.FileUpdateWatcher;
+import org.opennms.netmgt.collection.api.CollectionAgent;
+import org.opennms.netmgt.collection.api.CollectionSet;
 import org.opennms.netmgt.telemetry.config.api.AdapterDefinition;
+import org.opennms.netmgt.telemetry.protocols.collection.mapping.ProtobufCollectionSetBuilder;
 import org.osgi.framework.BundleContext;
 
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Strings;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.Message;
 
 public abstract class AbstractScriptedCollectionAdapter extends AbstractCollectionAdapter {
 
@@ -42,94 +52,166 @@ public abstract class AbstractScriptedCollectionAdapter extends AbstractCollecti
 
     private String script;
 
+    private FileUpdateWatcher mappingUpdateWatcher;
+
+    private String mapping;
+
     /*
-     * Since ScriptCollectionSetBuilder is not thread safe , loading of script
-     * is handled in ThreadLocal.
+     * The script is compiled once and the resulting builder is shared by all
+     * threads. When the script file changes, the updated script is compiled
+     * and swapped in atomically. Messages already being handled finish with
+     * the builder they started with.
      */
-    private final ThreadLocal<ScriptedCollectionSetBuilder> scriptedCollectionSetBuilders = new ThreadLocal<ScriptedCollectionSetBuilder>() {
-        @Override
-        protected ScriptedCollectionSetBuilder initialValue() {
-            try {
-                return loadCollectionBuilder(bundleContext, script);
-            } catch (Exception e) {
-                LOG.error("Failed to create builder for script '{}'.", script, e);
-                return null;
-            }
-        }
-    };
+    private final AtomicReference<ScriptedCollectionSetBuilder> collectionBuilder = new AtomicReference<>();
 
     /*
-     * Flag to reload script if script didn't compile in earlier invocation,
-     * need to be ThreadLocal as script itself loads in ThreadLocal.
+     * Declarative mapping used instead of the script if configured. Is
+     * compiled and swapped the same way as the script.
      */
-    private ThreadLocal<Boolean> scriptCompiled = new ThreadLocal<Boolean>() {
-        @Override
-        protected Boolean initialValue() {
-            return true;
-        }
+    private final AtomicReference<ProtobufCollectionSetBuilder> mappingBuilder = new AtomicReference<>();
 
-    };
+    /**
+     * Time taken to evaluate the script or mapping for a single message
+     */
+    private final Timer scriptExecutionTimer;
 
-    /*
-     * This map is needed since loading of script happens in a ThreadLocal and
-     * status of script update needs to be propagated to each thread. This map
-     * collects ScriptedCollectionSetBuilder and set it's value as false
-     * initially. Whenever script updates and callback reload() gets called, all
-     * values will be set to true to trigger reload of script in corresponding
-     * thread, see getCollectionBuilder().
+    /**
+     * Number of times the script or mapping was (re-)compiled
      */
-    private Map<ScriptedCollectionSetBuilder, Boolean> scriptUpdateMap = new ConcurrentHashMap<>();
+    private final Meter scriptCompilations;
 
     public AbstractScriptedCollectionAdapter(final AdapterDefinition adapterConfig,
                                              final MetricRegistry metricRegistry) {
         super(adapterConfig, metricRegistry);
+
+        this.scriptExecutionTimer = metricRegistry.timer(name("adapters", adapterConfig.getFullName(), "scriptExecution"));
+        this.scriptCompilations = metricRegistry.meter(name("adapters", adapterConfig.getFullName(), "scriptCompilations"));
     }
 
     /*
-     * This method checks and reloads script if there is an update else returns
-     * existing builder
+     * Returns the shared builder, compiling the script on first use or if an
+     * earlier compilation failed.
      */
     protected ScriptedCollectionSetBuilder getCollectionBuilder() {
-        ScriptedCollectionSetBuilder builder = scriptedCollectionSetBuilders.get();
-        // Reload script if reload() happened or earlier invocation of script didn't compile
-        if ((builder != null && scriptUpdateMap.get(builder)) || !scriptCompiled.get()) {
-            scriptedCollectionSetBuilders.remove();
-            builder = scriptedCollectionSetBuilders.get();
+        final ScriptedCollectionSetBuilder builder = collectionBuilder.get();
+        if (builder != null) {
+            return builder;
         }
-        if (builder == null) {
-            // script didn't compile, set flag to false
-            scriptCompiled.set(false);
-            return null;
-        } else if (!scriptCompiled.get()) {
-            scriptCompiled.set(true);
+
+        synchronized (collectionBuilder) {
+            if (collectionBuilder.get() == null) {
+                try {
+                    collectionBuilder.set(loadCollectionBuilder(bundleContext, script));
+                } catch (Exception e) {
+                    LOG.error("Failed to create builder for script '{}'.", script, e);
+                }
+            }
+            return collectionBuilder.get();
         }
-        return builder;
     }
 
     private ScriptedCollectionSetBuilder loadCollectionBuilder(BundleContext bundleContext, String script)
             throws IOException, ScriptException {
-        ScriptedCollectionSetBuilder builder;
+        final ScriptedCollectionSetBuilder builder;
         if (bundleContext != null) {
             builder = new ScriptedCollectionSetBuilder(new File(script), bundleContext);
-            scriptUpdateMap.put(builder, false);
-            return builder;
         } else {
             builder = new ScriptedCollectionSetBuilder(new File(script));
-            scriptUpdateMap.put(builder, false);
+        }
+        if (!builder.isThreadSafe()) {
+            LOG.warn("Script engine for '{}' is not thread safe. Script evaluations will be serialized.", script);
+        }
+        builder.setExecutionTimer(scriptExecutionTimer);
+        scriptCompilations.mark();
+        return builder;
+    }
+
+    /**
+     * The type of the messages passed to {@link #buildCollectionSet(CollectionAgent, Message, Long)}.
+     *
+     * Adapters handling protobuf messages must override this to support declarative mappings.
+     *
+     * @return the message type or null, if mappings are not supported
+     */
+    protected Descriptors.Descriptor getMappingMessageType() {
+        return null;
+    }
+
+    /**
+     * @return the registry used to resolve extensions referenced by mappings
+     */
+    protected ExtensionRegistry getMappingExtensionRegistry() {
+        return ExtensionRegistry.getEmptyRegistry();
+    }
+
+    /*
+     * Returns the shared mapping builder, compiling the mapping on first use or
+     * if an earlier compilation failed.
+     */
+    protected ProtobufCollectionSetBuilder getMappingBuilder() {
+        final ProtobufCollectionSetBuilder builder = mappingBuilder.get();
+        if (builder != null) {
             return builder;
         }
+
+        synchronized (mappingBuilder) {
+            if (mappingBuilder.get() == null) {
+                try {
+                    mappingBuilder.set(loadMappingBuilder(mapping));
+                } catch (Exception e) {
+                    LOG.error("Failed to create builder for mapping '{}'.", mapping, e);
+                }
+            }
+            return mappingBuilder.get();
+        }
     }
 
-    private ScriptedCollectionSetBuilder checkScript(BundleContext bundleContext, String script)
-            throws IOException, ScriptException {
-        if (bundleContext != null) {
-            return new ScriptedCollectionSetBuilder(new File(script), bundleContext);
-        } else {
-            return new ScriptedCollectionSetBuilder(new File(script));
+    private ProtobufCollectionSetBuilder loadMappingBuilder(String mapping) {
+        final Descriptors.Descriptor messageType = getMappingMessageType();
+        if (messageType == null) {
+            throw new IllegalStateException("Adapter " + getClass().getSimpleName() + " does not support mappings.");
+        }
+        final ProtobufCollectionSetBuilder builder = new ProtobufCollectionSetBuilder(new File(mapping), messageType, getMappingExtensionRegistry());
+        scriptCompilations.mark();
+        return builder;
+    }
+
+    /**
+     * Builds the collection set for the given message, either using the
+     * mapping, if one is configured, or the script.
+     */
+    protected Stream<CollectionSetWithAgent> buildCollectionSet(CollectionAgent agent, Message message, Long timestamp) {
+        if (!Strings.isNullOrEmpty(mapping)) {
+            final ProtobufCollectionSetBuilder builder = getMappingBuilder();
+            if (builder == null) {
+                LOG.error("Error compiling mapping '{}'. See logs for details.", mapping);
+                return Stream.empty();
+            }
+            try (Timer.Context ctx = scriptExecutionTimer.time()) {
+                final CollectionSet collectionSet = builder.build(agent, message, timestamp);
+                return Stream.of(new CollectionSetWithAgent(agent, collectionSet));
+            }
+        }
+
+        final ScriptedCollectionSetBuilder builder = getCollectionBuilder();
+        if (builder == null) {
+            LOG.error("Error compiling script '{}'. See logs for details.", script);
+            return Stream.empty();
+        }
+        try {
+            final CollectionSet collectionSet = builder.build(agent, message, timestamp);
+            return Stream.of(new CollectionSetWithAgent(agent, collectionSet));
+        } catch (final ScriptException e) {
+            LOG.warn("Error while running script: {}: {}", script, e);
+            return Stream.empty();
         }
     }
 
     private void setFileUpdateCallback(String script) {
+        if (scriptUpdateWatcher != null) {
+            scriptUpdateWatcher.destroy();
+            scriptUpdateWatcher = null;
+        }
         if (!Strings.isNullOrEmpty(script)) {
             try {
                 scriptUpdateWatcher = new FileUpdateWatcher(script, reloadScript());
@@ -139,6 +221,27 @@ public abstract class AbstractScriptedCollectionAdapter extends AbstractCollecti
         }
     }
 
+    private void setMappingUpdateCallback(String mapping) {
+        if (mappingUpdateWatcher != null) {
+            mappingUpdateWatcher.destroy();
+            mappingUpdateWatcher = null;
+        }
+        if (!Strings.isNullOrEmpty(mapping)) {
+            try {
+                mappingUpdateWatcher = new FileUpdateWatcher(mapping, () -> {
+                    try {
+                        mappingBuilder.set(loadMappingBuilder(mapping));
+                        LOG.debug("Updated mapping compiled");
+                    } catch (Exception e) {
+                        LOG.error("Updated mapping failed to build, using existing mapping '{}'.", mapping, e);
+                    }
+                });
+            } catch (Exception e) {
+                LOG.info("Mapping reload Utils is not registered", e);
+            }
+        }
+    }
+
     private FileUpdateCallback reloadScript() {
 
         return new FileUpdateCallback() {
@@ -146,10 +249,9 @@ public abstract class AbstractScriptedCollectionAdapter extends AbstractCollecti
             @Override
             public void reload() {
                 try {
-                    checkScript(bundleContext, script);
+                    final ScriptedCollectionSetBuilder builder = loadCollectionBuilder(bundleContext, script);
+                    collectionBuilder.set(builder);
                     LOG.debug("Updated script compiled");
-                    // Set all the values in Map to true to trigger reload of script in all threads
-                    scriptUpdateMap.replaceAll((builder, Boolean) -> true);
                 } catch (Exception e) {
                     LOG.error("Updated script failed to build, using existing script'{}'.", script, e);
                 }
@@ -164,13 +266,27 @@ public abstract class AbstractScriptedCollectionAdapter extends AbstractCollecti
 
     public void setScript(String script) {
         this.script = script;
+        this.collectionBuilder.set(null);
         setFileUpdateCallback(script);
     }
 
+    public String getMapping() {
+        return mapping;
+    }
+
+    public void setMapping(String mapping) {
+        this.mapping = mapping;
+        this.mappingBuilder.set(null);
+        setMappingUpdateCallback(mapping);
+    }
+
     @Override
     public void destroy() {
         if (scriptUpdateWatcher != null) {
             scriptUpdateWatcher.destroy();
         }
+        if (mappingUpdateWatcher != null) {
+            mappingUpdateWatcher.destroy();
+        }
     }
 }
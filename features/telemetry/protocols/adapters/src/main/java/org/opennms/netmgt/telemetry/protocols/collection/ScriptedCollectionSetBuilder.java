@@ -21,6 +21,7 @@
  */
 package org.opennms.netmgt.telemetry.protocols.collection;
 
+import com.codahale.metrics.Timer;
 import com.google.common.io.Files;
 
 import org.opennms.features.osgi.script.OSGiScriptEngineManager;
@@ -40,6 +41,8 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Uses an external script, executed via JSR-223, to generate a
@@ -50,7 +53,15 @@ import java.util.Map;
  */
 public class ScriptedCollectionSetBuilder {
 
-    private CompiledScript compiledScript;
+    private final CompiledScript compiledScript;
+
+    /**
+     * Serializes evaluations for engines that do not declare themselves as thread safe.
+     * Is null if the script can be evaluated concurrently.
+     */
+    private final Lock evalLock;
+
+    private Timer executionTimer;
 
     public ScriptedCollectionSetBuilder(File script) throws IOException, ScriptException {
         this(script, new ScriptEngineManager());
@@ -79,13 +90,34 @@ public class ScriptedCollectionSetBuilder {
         try (FileReader reader = new FileReader(script)) {
             compiledScript = compilable.compile(reader);
         }
+
+        // Engines must return null for the THREADING parameter if they are not thread safe. Groovy reports
+        // MULTITHREADED and creates a new script instance for every evaluation, so the compiled script can be shared.
+        evalLock = engine.getFactory().getParameter("THREADING") == null ? new ReentrantLock() : null;
+    }
+
+    /**
+     * Sets the timer used to record the time spent evaluating the script.
+     *
+     * @param executionTimer the timer to update on every build
+     */
+    public void setExecutionTimer(final Timer executionTimer) {
+        this.executionTimer = executionTimer;
+    }
+
+    /**
+     * @return true if the script can be evaluated concurrently from multiple threads
+     */
+    public boolean isThreadSafe() {
+        return evalLock == null;
     }
 
     /**
      * Builds a collection set from the given message.
      *
-     * WARNING: This method is not necessarily thread safe. This depends on the
-     * script, and the script engine that is being used.
+     * This method is thread safe. Every invocation evaluates the script with
+     * its own bindings, and evaluations are serialized if the script engine
+     * does not support concurrent use.
      *
      * @param agent
      *            the agent associated with the collection set
@@ -101,6 +133,30 @@ public class ScriptedCollectionSetBuilder {
         if (timestamp != null && timestamp > 0) {
             builder.withTimestamp(new Date(timestamp));
         }
+        populate(builder, agent, message, props);
+        return builder.build();
+    }
+
+    /**
+     * Evaluates the script against the given message, letting it add its
+     * resources and attributes to an existing builder.
+     *
+     * This allows callers to accumulate the results of several messages into a
+     * single collection set. Has the same thread safety guarantees as
+     * {@link #build(CollectionAgent, Object, Long, Map)}, but the given builder
+     * must not be shared between threads.
+     *
+     * @param builder
+     *            the builder passed to the script
+     * @param agent
+     *            the agent associated with the collection set
+     * @param message
+     *            the messaged passed to script containing the metrics
+     * @param props
+     *            additional global properties to pass into the script
+     * @throws ScriptException
+     */
+    public void populate(CollectionSetBuilder builder, CollectionAgent agent, Object message, Map<String,Object> props) throws ScriptException {
         final SimpleBindings globals = new SimpleBindings();
         globals.put("agent", agent);
         globals.put("builder", builder);
@@ -112,8 +168,20 @@ public class ScriptedCollectionSetBuilder {
             }
         }
 
-        compiledScript.eval(globals);
-        return builder.build();
+        final Timer.Context ctx = executionTimer != null ? executionTimer.time() : null;
+        if (evalLock != null) {
+            evalLock.lock();
+        }
+        try {
+            compiledScript.eval(globals);
+        } finally {
+            if (evalLock != null) {
+                evalLock.unlock();
+            }
+            if (ctx != null) {
+                ctx.stop();
+            }
+        }
     }
 
     public CollectionSet build(CollectionAgent agent, Object message, Long timestamp) throws ScriptException {
@@ -0,0 +1,124 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.collection.mapping;
+
+import java.util.Objects;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Maps the value selected by a path to an attribute.
+ *
+ * The attribute name is either fixed or taken from the values selected by the name path.
+ */
+@XmlRootElement(name="attribute")
+@XmlAccessorType(XmlAccessType.NONE)
+public class AttributeMapping {
+
+    @XmlAttribute(name="name")
+    private String name;
+
+    @XmlAttribute(name="name-path")
+    private String namePath;
+
+    @XmlAttribute(name="path", required=true)
+    private String path;
+
+    @XmlAttribute(name="type")
+    private String type;
+
+    @XmlAttribute(name="group")
+    private String group;
+
+    public String getName() {
+        return this.name;
+    }
+
+    public void setName(final String name) {
+        this.name = name;
+    }
+
+    public String getNamePath() {
+        return this.namePath;
+    }
+
+    public void setNamePath(final String namePath) {
+        this.namePath = namePath;
+    }
+
+    public String getPath() {
+        return this.path;
+    }
+
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    public String getType() {
+        return this.type;
+    }
+
+    public void setType(final String type) {
+        this.type = type;
+    }
+
+    public String getGroup() {
+        return this.group;
+    }
+
+    public void setGroup(final String group) {
+        this.group = group;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final AttributeMapping that = (AttributeMapping) o;
+        return Objects.equals(this.name, that.name) &&
+                Objects.equals(this.namePath, that.namePath) &&
+                Objects.equals(this.path, that.path) &&
+                Objects.equals(this.type, that.type) &&
+                Objects.equals(this.group, that.group);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.name, this.namePath, this.path, this.type, this.group);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("name", this.name)
+                .add("name-path", this.namePath)
+                .add("path", this.path)
+                .add("type", this.type)
+                .add("group", this.group)
+                .toString();
+    }
+}
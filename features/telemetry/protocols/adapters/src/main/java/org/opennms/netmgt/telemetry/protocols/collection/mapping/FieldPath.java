@@ -0,0 +1,396 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.collection.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.google.common.primitives.UnsignedLong;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.Message;
+
+/**
+ * A path into a protobuf message, resolved against the message descriptors once and evaluated without any reflection
+ * on the generated classes.
+ *
+ * A path is a dot separated list of segments:
+ * <ul>
+ *     <li>{@code name} selects the field or the set member of the oneof with the given name. Repeated fields yield
+ *     all of their elements and fields with presence yield nothing if they are not set.</li>
+ *     <li>{@code [full.name]} selects the extension with the given full name.</li>
+ *     <li>{@code name*} yields the current message and all messages reachable by following the field repeatedly.</li>
+ *     <li>{@code name(field=value)} only yields the messages whose field has the given value.</li>
+ *     <li>{@code name{key}} yields the value stored under the given key in a map field.</li>
+ * </ul>
+ * Paths starting with a {@code /} are evaluated against the root message instead of the current one.
+ */
+public class FieldPath {
+
+    private final String path;
+    private final boolean absolute;
+    private final List<Segment> segments;
+    private final Descriptors.Descriptor resultType;
+
+    private FieldPath(final String path,
+                      final boolean absolute,
+                      final List<Segment> segments,
+                      final Descriptors.Descriptor resultType) {
+        this.path = path;
+        this.absolute = absolute;
+        this.segments = segments;
+        this.resultType = resultType;
+    }
+
+    /**
+     * Resolves the given path.
+     *
+     * @param path the path to resolve
+     * @param rootType the type of the root message
+     * @param currentType the type of the message relative paths are evaluated against
+     * @param extensionRegistry the registry used to look up extensions
+     * @return the resolved path
+     * @throws IllegalArgumentException if the path is malformed or does not match the message types
+     */
+    public static FieldPath parse(final String path,
+                                  final Descriptors.Descriptor rootType,
+                                  final Descriptors.Descriptor currentType,
+                                  final ExtensionRegistry extensionRegistry) {
+        Objects.requireNonNull(path);
+        final boolean absolute = path.startsWith("/");
+
+        final List<Segment> segments = new ArrayList<>();
+        Descriptors.Descriptor type = absolute ? rootType : currentType;
+
+        int pos = absolute ? 1 : 0;
+        while (pos < path.length()) {
+            if (type == null) {
+                throw new IllegalArgumentException("Path '" + path + "' continues after a scalar value at position " + pos);
+            }
+
+            final Segment segment;
+            if (path.charAt(pos) == '[') {
+                final int end = indexOf(path, ']', pos);
+                final String name = path.substring(pos + 1, end);
+                final ExtensionRegistry.ExtensionInfo extension = extensionRegistry.findImmutableExtensionByName(name);
+                if (extension == null) {
+                    throw new IllegalArgumentException("Unknown extension '" + name + "' in path '" + path + "'");
+                }
+                if (extension.descriptor.getContainingType() != type) {
+                    throw new IllegalArgumentException("Extension '" + name + "' does not extend " + type.getFullName() + " in path '" + path + "'");
+                }
+                segment = new FieldSegment(extension.descriptor, false, null, null, null);
+                pos = end + 1;
+
+            } else {
+                int end = pos;
+                while (end < path.length() && (Character.isLetterOrDigit(path.charAt(end)) || path.charAt(end) == '_')) {
+                    end++;
+                }
+                final String name = path.substring(pos, end);
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Expected field name in path '" + path + "' at position " + pos);
+                }
+                pos = end;
+
+                boolean recursive = false;
+                if (pos < path.length() && path.charAt(pos) == '*') {
+                    recursive = true;
+                    pos++;
+                }
+
+                String filterName = null;
+                String filterValue = null;
+                if (pos < path.length() && path.charAt(pos) == '(') {
+                    end = indexOf(path, ')', pos);
+                    final String filter = path.substring(pos + 1, end);
+                    final int eq = filter.indexOf('=');
+                    if (eq < 1) {
+                        throw new IllegalArgumentException("Expected 'field=value' filter in path '" + path + "' at position " + pos);
+                    }
+                    filterName = filter.substring(0, eq);
+                    filterValue = filter.substring(eq + 1);
+                    pos = end + 1;
+                }
+
+                String mapKey = null;
+                if (pos < path.length() && path.charAt(pos) == '{') {
+                    end = indexOf(path, '}', pos);
+                    mapKey = path.substring(pos + 1, end);
+                    pos = end + 1;
+                }
+
+                final Descriptors.FieldDescriptor field = type.findFieldByName(name);
+                if (field != null) {
+                    segment = fieldSegment(path, type, field, recursive, filterName, filterValue, mapKey);
+                } else {
+                    final String typeName = type.getFullName();
+                    final Descriptors.OneofDescriptor oneof = type.getOneofs().stream()
+                            .filter(o -> o.getName().equals(name))
+                            .findFirst()
+                            .orElseThrow(() -> new IllegalArgumentException("Unknown field '" + name + "' of " + typeName + " in path '" + path + "'"));
+                    if (recursive || filterName != null || mapKey != null) {
+                        throw new IllegalArgumentException("Oneof '" + name + "' cannot be recursed, filtered or keyed in path '" + path + "'");
+                    }
+                    segment = new OneofSegment(oneof);
+                }
+            }
+
+            segments.add(segment);
+            type = segment.resultType();
+
+            if (pos < path.length()) {
+                if (path.charAt(pos) != '.') {
+                    throw new IllegalArgumentException("Expected '.' in path '" + path + "' at position " + pos);
+                }
+                pos++;
+            }
+        }
+
+        return new FieldPath(path, absolute, segments, type);
+    }
+
+    private static Segment fieldSegment(final String path,
+                                        final Descriptors.Descriptor type,
+                                        final Descriptors.FieldDescriptor field,
+                                        final boolean recursive,
+                                        final String filterName,
+                                        final String filterValue,
+                                        final String mapKey) {
+        if (mapKey != null) {
+            if (!field.isMapField()) {
+                throw new IllegalArgumentException("Field '" + field.getName() + "' is not a map in path '" + path + "'");
+            }
+            if (recursive || filterName != null) {
+                throw new IllegalArgumentException("Map '" + field.getName() + "' cannot be recursed or filtered in path '" + path + "'");
+            }
+            return new FieldSegment(field, false, null, null, mapKey);
+        }
+
+        if (recursive && (field.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE || field.getMessageType() != type)) {
+            throw new IllegalArgumentException("Field '" + field.getName() + "' must be of type " + type.getFullName() + " to be recursed in path '" + path + "'");
+        }
+
+        Descriptors.FieldDescriptor filterField = null;
+        if (filterName != null) {
+            if (field.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+                throw new IllegalArgumentException("Field '" + field.getName() + "' must be a message to be filtered in path '" + path + "'");
+            }
+            filterField = field.getMessageType().findFieldByName(filterName);
+            if (filterField == null || filterField.isRepeated() || filterField.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+                throw new IllegalArgumentException("Filter field '" + filterName + "' must be a scalar field of " + field.getMessageType().getFullName() + " in path '" + path + "'");
+            }
+        }
+
+        return new FieldSegment(field, recursive, filterField, filterValue, null);
+    }
+
+    private static int indexOf(final String path, final char c, final int from) {
+        final int idx = path.indexOf(c, from);
+        if (idx < 0) {
+            throw new IllegalArgumentException("Missing '" + c + "' in path '" + path + "' after position " + from);
+        }
+        return idx;
+    }
+
+    /**
+     * @return the message type the path resolves to or null, if the path resolves to scalar values
+     */
+    public Descriptors.Descriptor getResultType() {
+        return this.resultType;
+    }
+
+    /**
+     * Evaluates the path and passes all resulting values to the given consumer.
+     *
+     * Messages are passed as {@link Message}, enum values by name, unsigned 64-bit integers as {@link UnsignedLong},
+     * unsigned 32-bit integers as {@link Long} and bytes as UTF-8 string. All other values are passed as returned by
+     * protobuf.
+     */
+    public void evaluate(final Message root, final Message current, final Consumer<Object> consumer) {
+        this.evaluate(0, this.absolute ? root : current, consumer);
+    }
+
+    private void evaluate(final int index, final Object value, final Consumer<Object> consumer) {
+        if (index == this.segments.size()) {
+            consumer.accept(value);
+            return;
+        }
+        this.segments.get(index).apply((Message) value, v -> this.evaluate(index + 1, v, consumer));
+    }
+
+    /**
+     * @return all values resulting from evaluating the path
+     */
+    public List<Object> values(final Message root, final Message current) {
+        final List<Object> values = new ArrayList<>(1);
+        this.evaluate(root, current, values::add);
+        return values;
+    }
+
+    /**
+     * @return the first value resulting from evaluating the path or null, if there is none
+     */
+    public Object first(final Message root, final Message current) {
+        final List<Object> values = this.values(root, current);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * @return all values resulting from evaluating the path joined by a slash or null, if there are none
+     */
+    public String join(final Message root, final Message current) {
+        final List<Object> values = this.values(root, current);
+        if (values.isEmpty()) {
+            return null;
+        }
+        if (values.size() == 1) {
+            return String.valueOf(values.get(0));
+        }
+        return values.stream().map(String::valueOf).collect(Collectors.joining("/"));
+    }
+
+    @Override
+    public String toString() {
+        return this.path;
+    }
+
+    private static Object normalize(final Descriptors.FieldDescriptor field, final Object value) {
+        switch (field.getType()) {
+            case UINT64:
+            case FIXED64:
+                return UnsignedLong.fromLongBits((Long) value);
+            case UINT32:
+            case FIXED32:
+                return Integer.toUnsignedLong((Integer) value);
+            case ENUM:
+                return ((Descriptors.EnumValueDescriptor) value).getName();
+            case BYTES:
+                return ((ByteString) value).toStringUtf8();
+            default:
+                return value;
+        }
+    }
+
+    private interface Segment {
+        void apply(Message message, Consumer<Object> consumer);
+
+        Descriptors.Descriptor resultType();
+    }
+
+    private static class FieldSegment implements Segment {
+        private final Descriptors.FieldDescriptor field;
+        private final boolean recursive;
+        private final Descriptors.FieldDescriptor filterField;
+        private final String filterValue;
+        private final String mapKey;
+
+        private FieldSegment(final Descriptors.FieldDescriptor field,
+                             final boolean recursive,
+                             final Descriptors.FieldDescriptor filterField,
+                             final String filterValue,
+                             final String mapKey) {
+            this.field = field;
+            this.recursive = recursive;
+            this.filterField = filterField;
+            this.filterValue = filterValue;
+            this.mapKey = mapKey;
+        }
+
+        @Override
+        public void apply(final Message message, final Consumer<Object> consumer) {
+            if (this.recursive) {
+                this.emit(message, consumer);
+                this.children(message, child -> this.apply((Message) child, consumer));
+            } else {
+                this.children(message, child -> this.emit(child, consumer));
+            }
+        }
+
+        private void children(final Message message, final Consumer<Object> consumer) {
+            if (this.field.isRepeated()) {
+                final int count = message.getRepeatedFieldCount(this.field);
+                for (int i = 0; i < count; i++) {
+                    consumer.accept(message.getRepeatedField(this.field, i));
+                }
+            } else if (!this.field.hasPresence() || message.hasField(this.field)) {
+                consumer.accept(message.getField(this.field));
+            }
+        }
+
+        private void emit(final Object value, final Consumer<Object> consumer) {
+            if (this.mapKey != null) {
+                final Message entry = (Message) value;
+                final Descriptors.Descriptor entryType = entry.getDescriptorForType();
+                if (this.mapKey.equals(String.valueOf(normalize(entryType.findFieldByNumber(1), entry.getField(entryType.findFieldByNumber(1)))))) {
+                    final Descriptors.FieldDescriptor valueField = entryType.findFieldByNumber(2);
+                    consumer.accept(normalize(valueField, entry.getField(valueField)));
+                }
+                return;
+            }
+
+            if (this.filterField != null) {
+                final Message element = (Message) value;
+                if (!this.filterValue.equals(String.valueOf(normalize(this.filterField, element.getField(this.filterField))))) {
+                    return;
+                }
+            }
+
+            consumer.accept(normalize(this.field, value));
+        }
+
+        @Override
+        public Descriptors.Descriptor resultType() {
+            if (this.mapKey != null) {
+                final Descriptors.FieldDescriptor valueField = this.field.getMessageType().findFieldByNumber(2);
+                return valueField.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE ? valueField.getMessageType() : null;
+            }
+            return this.field.getJavaType() == Descriptors.FieldDescriptor.JavaType.MESSAGE ? this.field.getMessageType() : null;
+        }
+    }
+
+    private static class OneofSegment implements Segment {
+        private final Descriptors.OneofDescriptor oneof;
+
+        private OneofSegment(final Descriptors.OneofDescriptor oneof) {
+            this.oneof = oneof;
+        }
+
+        @Override
+        public void apply(final Message message, final Consumer<Object> consumer) {
+            final Descriptors.FieldDescriptor field = message.getOneofFieldDescriptor(this.oneof);
+            if (field != null) {
+                consumer.accept(normalize(field, message.getField(field)));
+            }
+        }
+
+        @Override
+        public Descriptors.Descriptor resultType() {
+            // The type depends on the member being set, so values can not be traversed any further
+            return null;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.collection.mapping;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import org.opennms.core.utils.RrdLabelUtils;
+import org.opennms.core.xml.JaxbUtils;
+import org.opennms.netmgt.collection.api.AttributeType;
+import org.opennms.netmgt.collection.api.CollectionAgent;
+import org.opennms.netmgt.collection.api.CollectionSet;
+import org.opennms.netmgt.collection.support.builder.CollectionSetBuilder;
+import org.opennms.netmgt.collection.support.builder.DeferredGenericTypeResource;
+import org.opennms.netmgt.collection.support.builder.InterfaceLevelResource;
+import org.opennms.netmgt.collection.support.builder.NodeLevelResource;
+import org.opennms.netmgt.collection.support.builder.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.Message;
+
+/**
+ * Uses a declarative {@link ProtobufMapping} to generate a {@link CollectionSet}
+ * from a protobuf message using the {@link CollectionSetBuilder}.
+ *
+ * All paths of the mapping are resolved against the message descriptors when
+ * the builder is created, so building a collection set only walks the message.
+ * The builder is stateless and thread safe.
+ */
+public class ProtobufCollectionSetBuilder {
+    private static final Logger LOG = LoggerFactory.getLogger(ProtobufCollectionSetBuilder.class);
+
+    private final Descriptors.Descriptor messageType;
+
+    private final FieldPath sequenceNumberPath;
+
+    private final List<CompiledResource> resources = new ArrayList<>();
+
+    public ProtobufCollectionSetBuilder(final File mapping,
+                                        final Descriptors.Descriptor messageType,
+                                        final ExtensionRegistry extensionRegistry) {
+        this(load(mapping), messageType, extensionRegistry);
+    }
+
+    public ProtobufCollectionSetBuilder(final ProtobufMapping mapping,
+                                        final Descriptors.Descriptor messageType,
+                                        final ExtensionRegistry extensionRegistry) {
+        this.messageType = Objects.requireNonNull(messageType);
+        Objects.requireNonNull(extensionRegistry);
+
+        this.sequenceNumberPath = mapping.getSequenceNumberPath() != null
+                ? scalar(FieldPath.parse(mapping.getSequenceNumberPath(), messageType, messageType, extensionRegistry))
+                : null;
+
+        for (final ResourceMapping resource : mapping.getResources()) {
+            this.resources.add(new CompiledResource(resource, messageType, extensionRegistry));
+        }
+    }
+
+    private static ProtobufMapping load(final File mapping) {
+        if (!mapping.canRead()) {
+            throw new IllegalStateException("Cannot read mapping at '" + mapping + "'.");
+        }
+        return JaxbUtils.unmarshal(ProtobufMapping.class, mapping);
+    }
+
+    private static FieldPath scalar(final FieldPath path) {
+        if (path.getResultType() != null) {
+            throw new IllegalArgumentException("Path '" + path + "' must select a value, but selects " + path.getResultType().getFullName());
+        }
+        return path;
+    }
+
+    /**
+     * Builds a collection set from the given message.
+     *
+     * @param agent
+     *            the agent associated with the collection set
+     * @param message
+     *            the message containing the metrics
+     * @param timestamp
+     *            the timestamp of the collection set or null
+     * @return a collection set
+     */
+    public CollectionSet build(final CollectionAgent agent, final Message message, final Long timestamp) {
+        if (message.getDescriptorForType() != this.messageType) {
+            throw new IllegalArgumentException("Mapping for " + this.messageType.getFullName() + " can not be applied to " + message.getDescriptorForType().getFullName());
+        }
+
+        final CollectionSetBuilder builder = new CollectionSetBuilder(agent);
+        if (timestamp != null && timestamp > 0) {
+            builder.withTimestamp(new Date(timestamp));
+        }
+
+        if (this.sequenceNumberPath != null) {
+            final Number sequenceNumber = toNumber(this.sequenceNumberPath.first(message, message));
+            if (sequenceNumber != null) {
+                builder.withSequenceNumber(sequenceNumber.longValue());
+            }
+        }
+
+        final NodeLevelResource nodeResource = new NodeLevelResource(agent.getNodeId());
+        for (final CompiledResource resource : this.resources) {
+            resource.build(builder, agent, nodeResource, message);
+        }
+
+        return builder.build();
+    }
+
+    private static Number toNumber(final Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        try {
+            return Double.valueOf(value.toString());
+        } catch (final NumberFormatException e) {
+            LOG.debug("Ignoring non-numeric value: {}", value);
+            return null;
+        }
+    }
+
+    private static class CompiledResource {
+        private final String type;
+        private final String group;
+        private final boolean rrdLabel;
+        private final FieldPath path;
+        private final FieldPath instancePath;
+        private final FieldPath whenPath;
+        private final Pattern whenValue;
+        private final List<CompiledAttribute> attributes = new ArrayList<>();
+
+        private CompiledResource(final ResourceMapping mapping,
+                                 final Descriptors.Descriptor rootType,
+                                 final ExtensionRegistry extensionRegistry) {
+            this.type = Objects.requireNonNull(mapping.getType(), "resource type is required");
+            this.group = Objects.requireNonNull(mapping.getGroup(), "resource group is required");
+            this.rrdLabel = mapping.isRrdLabel();
+
+            final Descriptors.Descriptor type;
+            if (Strings.isNullOrEmpty(mapping.getPath())) {
+                this.path = null;
+                type = rootType;
+            } else {
+                this.path = FieldPath.parse(mapping.getPath(), rootType, rootType, extensionRegistry);
+                if (this.path.getResultType() == null) {
+                    throw new IllegalArgumentException("Resource path '" + this.path + "' must select messages");
+                }
+                type = this.path.getResultType();
+            }
+
+            this.instancePath = mapping.getInstancePath() != null
+                    ? scalar(FieldPath.parse(mapping.getInstancePath(), rootType, type, extensionRegistry))
+                    : null;
+            if (this.instancePath == null && !ResourceMapping.NODE_TYPE.equals(this.type) && !ResourceMapping.INTERFACE_TYPE.equals(this.type)) {
+                throw new IllegalArgumentException("Resources of type '" + this.type + "' require an instance path");
+            }
+
+            if (mapping.getWhenPath() != null) {
+                this.whenPath = scalar(FieldPath.parse(mapping.getWhenPath(), rootType, type, extensionRegistry));
+                this.whenValue = Pattern.compile(Objects.requireNonNull(mapping.getWhenValue(), "when-value is required with when-path"));
+            } else {
+                this.whenPath = null;
+                this.whenValue = null;
+            }
+
+            for (final AttributeMapping attribute : mapping.getAttributes()) {
+                this.attributes.add(new CompiledAttribute(attribute, this.group, rootType, type, extensionRegistry));
+            }
+        }
+
+        private void build(final CollectionSetBuilder builder,
+                           final CollectionAgent agent,
+                           final NodeLevelResource nodeResource,
+                           final Message root) {
+            if (this.path == null) {
+                this.buildFor(builder, agent, nodeResource, root, root);
+            } else {
+                this.path.evaluate(root, root, element -> this.buildFor(builder, agent, nodeResource, root, (Message) element));
+            }
+        }
+
+        private void buildFor(final CollectionSetBuilder builder,
+                              final CollectionAgent agent,
+                              final NodeLevelResource nodeResource,
+                              final Message root,
+                              final Message element) {
+            if (this.whenPath != null) {
+                final String value = this.whenPath.join(root, element);
+                if (value == null || !this.whenValue.matcher(value).matches()) {
+                    return;
+                }
+            }
+
+            final Resource resource;
+            if (ResourceMapping.NODE_TYPE.equals(this.type)) {
+                resource = nodeResource;
+            } else {
+                final String instance = this.instancePath != null ? this.instancePath.join(root, element) : null;
+                if (ResourceMapping.INTERFACE_TYPE.equals(this.type)) {
+                    final String label;
+                    if (instance == null) {
+                        label = agent.getHostAddress();
+                    } else if (this.rrdLabel) {
+                        label = RrdLabelUtils.computeLabelForRRD(instance, null, null);
+                    } else {
+                        label = instance;
+                    }
+                    resource = new InterfaceLevelResource(nodeResource, label);
+                } else if (instance != null) {
+                    resource = new DeferredGenericTypeResource(nodeResource, this.type, instance);
+                } else {
+                    LOG.debug("No instance found for resource of type {} using path: {}", this.type, this.instancePath);
+                    return;
+                }
+            }
+
+            for (final CompiledAttribute attribute : this.attributes) {
+                attribute.build(builder, resource, root, element);
+            }
+        }
+    }
+
+    private static class CompiledAttribute {
+        private final String name;
+        private final FieldPath namePath;
+        private final FieldPath path;
+        private final AttributeType type;
+        private final String group;
+
+        private CompiledAttribute(final AttributeMapping mapping,
+                                  final String defaultGroup,
+                                  final Descriptors.Descriptor rootType,
+                                  final Descriptors.Descriptor type,
+                                  final ExtensionRegistry extensionRegistry) {
+            if (mapping.getName() == null && mapping.getNamePath() == null) {
+                throw new IllegalArgumentException("Attribute requires either a name or a name path: " + mapping);
+            }
+            this.name = mapping.getName();
+            this.namePath = mapping.getNamePath() != null
+                    ? scalar(FieldPath.parse(mapping.getNamePath(), rootType, type, extensionRegistry))
+                    : null;
+            this.path = scalar(FieldPath.parse(Objects.requireNonNull(mapping.getPath(), "attribute path is required"), rootType, type, extensionRegistry));
+            this.type = mapping.getType() != null
+                    ? Objects.requireNonNull(AttributeType.parse(mapping.getType()), "Unknown attribute type: " + mapping.getType())
+                    : AttributeType.GAUGE;
+            this.group = mapping.getGroup() != null ? mapping.getGroup() : defaultGroup;
+        }
+
+        private void build(final CollectionSetBuilder builder,
+                           final Resource resource,
+                           final Message root,
+                           final Message element) {
+            final String name = this.name != null ? this.name : this.namePath.join(root, element);
+            if (name == null) {
+                return;
+            }
+
+            final Object value = this.path.first(root, element);
+            if (value == null) {
+                return;
+            }
+
+            if (this.type.isNumeric()) {
+                final Number number = toNumber(value);
+                if (number != null) {
+                    builder.withNumericAttribute(resource, this.group, name, number, this.type);
+                }
+            } else {
+                builder.withStringAttribute(resource, this.group, name, value.toString());
+            }
+        }
+    }
+}
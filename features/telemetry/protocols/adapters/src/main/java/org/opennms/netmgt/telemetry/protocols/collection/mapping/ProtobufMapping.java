@@ -0,0 +1,88 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.collection.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Declarative mapping from a protobuf message to a collection set.
+ *
+ * See {@link FieldPath} for the syntax of the paths used in the mapping.
+ */
+@XmlRootElement(name="protobuf-mapping")
+@XmlAccessorType(XmlAccessType.NONE)
+public class ProtobufMapping {
+
+    @XmlAttribute(name="sequence-number-path")
+    private String sequenceNumberPath;
+
+    @XmlElement(name="resource")
+    private List<ResourceMapping> resources = new ArrayList<>();
+
+    public String getSequenceNumberPath() {
+        return this.sequenceNumberPath;
+    }
+
+    public void setSequenceNumberPath(final String sequenceNumberPath) {
+        this.sequenceNumberPath = sequenceNumberPath;
+    }
+
+    public List<ResourceMapping> getResources() {
+        return this.resources;
+    }
+
+    public void setResources(final List<ResourceMapping> resources) {
+        this.resources = resources;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final ProtobufMapping that = (ProtobufMapping) o;
+        return Objects.equals(this.sequenceNumberPath, that.sequenceNumberPath) &&
+                Objects.equals(this.resources, that.resources);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.sequenceNumberPath, this.resources);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("sequence-number-path", this.sequenceNumberPath)
+                .addValue(this.resources)
+                .toString();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.collection.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Maps the messages selected by a path to resources of the given type.
+ *
+ * The type is either {@code node}, {@code interface} or the name of a generic resource type.
+ * Interface instances can be converted to labels as used for SNMP interfaces by setting {@code rrd-label}.
+ */
+@XmlRootElement(name="resource")
+@XmlAccessorType(XmlAccessType.NONE)
+public class ResourceMapping {
+    public static final String NODE_TYPE = "node";
+    public static final String INTERFACE_TYPE = "interface";
+
+    @XmlAttribute(name="path")
+    private String path;
+
+    @XmlAttribute(name="type", required=true)
+    private String type;
+
+    @XmlAttribute(name="instance-path")
+    private String instancePath;
+
+    @XmlAttribute(name="rrd-label")
+    private Boolean rrdLabel;
+
+    @XmlAttribute(name="group", required=true)
+    private String group;
+
+    @XmlAttribute(name="when-path")
+    private String whenPath;
+
+    @XmlAttribute(name="when-value")
+    private String whenValue;
+
+    @XmlElement(name="attribute")
+    private List<AttributeMapping> attributes = new ArrayList<>();
+
+    public String getPath() {
+        return this.path;
+    }
+
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    public String getType() {
+        return this.type;
+    }
+
+    public void setType(final String type) {
+        this.type = type;
+    }
+
+    public String getInstancePath() {
+        return this.instancePath;
+    }
+
+    public void setInstancePath(final String instancePath) {
+        this.instancePath = instancePath;
+    }
+
+    public boolean isRrdLabel() {
+        return this.rrdLabel != null && this.rrdLabel;
+    }
+
+    public void setRrdLabel(final Boolean rrdLabel) {
+        this.rrdLabel = rrdLabel;
+    }
+
+    public String getGroup() {
+        return this.group;
+    }
+
+    public void setGroup(final String group) {
+        this.group = group;
+    }
+
+    public String getWhenPath() {
+        return this.whenPath;
+    }
+
+    public void setWhenPath(final String whenPath) {
+        this.whenPath = whenPath;
+    }
+
+    public String getWhenValue() {
+        return this.whenValue;
+    }
+
+    public void setWhenValue(final String whenValue) {
+        this.whenValue = whenValue;
+    }
+
+    public List<AttributeMapping> getAttributes() {
+        return this.attributes;
+    }
+
+    public void setAttributes(final List<AttributeMapping> attributes) {
+        this.attributes = attributes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final ResourceMapping that = (ResourceMapping) o;
+        return Objects.equals(this.path, that.path) &&
+                Objects.equals(this.type, that.type) &&
+                Objects.equals(this.instancePath, that.instancePath) &&
+                Objects.equals(this.rrdLabel, that.rrdLabel) &&
+                Objects.equals(this.group, that.group) &&
+                Objects.equals(this.whenPath, that.whenPath) &&
+                Objects.equals(this.whenValue, that.whenValue) &&
+                Objects.equals(this.attributes, that.attributes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.path, this.type, this.instancePath, this.rrdLabel, this.group, this.whenPath, this.whenValue, this.attributes);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("path", this.path)
+                .add("type", this.type)
+                .add("instance-path", this.instancePath)
+                .add("rrd-label", this.rrdLabel)
+                .add("group", this.group)
+                .add("when-path", this.whenPath)
+                .add("when-value", this.whenValue)
+                .addValue(this.attributes)
+                .toString();
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.collection;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.opennms.netmgt.collection.api.CollectionAgent;
+import org.opennms.netmgt.telemetry.api.adapter.TelemetryMessageLog;
+import org.opennms.netmgt.telemetry.api.adapter.TelemetryMessageLogEntry;
+import org.opennms.netmgt.telemetry.config.api.AdapterDefinition;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.protobuf.Empty;
+
+public class AbstractScriptedCollectionAdapterTest {
+
+    private static final String ADAPTER_NAME = "Test-Adapter";
+
+    private static final int THREADS = 4;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final CollectionAgent agent = Mockito.mock(CollectionAgent.class);
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+
+    private File script;
+
+    private TestAdapter adapter;
+
+    @Before
+    public void setUp() throws IOException {
+        script = new File(tempFolder.newFolder("scripts"), "script.groovy");
+        writeScript(versionScript("v1"));
+
+        final AdapterDefinition adapterConfig = Mockito.mock(AdapterDefinition.class);
+        Mockito.when(adapterConfig.getFullName()).thenReturn(ADAPTER_NAME);
+        adapter = new TestAdapter(adapterConfig, metricRegistry);
+        adapter.setScript(script.getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() {
+        adapter.destroy();
+    }
+
+    /**
+     * Verifies that threads racing for the builder share a single compilation.
+     */
+    @Test(timeout = 30000)
+    public void compilesScriptOnceForConcurrentCallers() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<ScriptedCollectionSetBuilder>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit((Callable<ScriptedCollectionSetBuilder>) () -> {
+                    start.await();
+                    return adapter.getCollectionBuilder();
+                }));
+            }
+            start.countDown();
+
+            final ScriptedCollectionSetBuilder builder = futures.get(0).get();
+            assertThat(builder, notNullValue());
+            for (Future<ScriptedCollectionSetBuilder> future : futures) {
+                assertThat(future.get(), sameInstance(builder));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(getScriptCompilations(), equalTo(1L));
+    }
+
+    @Test(timeout = 30000)
+    public void swapsBuilderOnReload() throws Exception {
+        final ScriptedCollectionSetBuilder original = adapter.getCollectionBuilder();
+        assertThat(runScript(original), contains("v1"));
+        assertThat(getScriptCompilations(), equalTo(1L));
+
+        writeScript(versionScript("v2"));
+
+        await().atMost(Duration.ofSeconds(20)).until(() -> adapter.getCollectionBuilder() != original);
+        assertThat(runScript(adapter.getCollectionBuilder()), contains("v2"));
+        assertThat(getScriptCompilations(), equalTo(2L));
+
+        // Builders handed out before the reload keep using the old script
+        assertThat(runScript(original), contains("v1"));
+    }
+
+    @Test(timeout = 30000)
+    public void keepsBuilderIfReloadFails() throws Exception {
+        final ScriptedCollectionSetBuilder original = adapter.getCollectionBuilder();
+
+        writeScript("this is not { groovy");
+
+        await().during(Duration.ofSeconds(2)).atMost(Duration.ofSeconds(5))
+                .until(() -> adapter.getCollectionBuilder() == original);
+        assertThat(runScript(adapter.getCollectionBuilder()), contains("v1"));
+        assertThat(getScriptCompilations(), equalTo(1L));
+
+        // A later, valid, update is still picked up
+        writeScript(versionScript("v3"));
+
+        await().atMost(Duration.ofSeconds(20)).until(() -> adapter.getCollectionBuilder() != original);
+        assertThat(runScript(adapter.getCollectionBuilder()), contains("v3"));
+        assertThat(getScriptCompilations(), equalTo(2L));
+    }
+
+    @Test
+    public void recordsScriptExecution() {
+        final List<CollectionSetWithAgent> results = adapter.buildCollectionSet(agent, Empty.getDefaultInstance(), null)
+                .collect(Collectors.toList());
+
+        assertThat(results.size(), equalTo(1));
+        assertThat(results.get(0).getAgent(), sameInstance(agent));
+        assertThat(metricRegistry.timer(name("adapters", ADAPTER_NAME, "scriptExecution")).getCount(), equalTo(1L));
+        assertThat(getScriptCompilations(), equalTo(1L));
+    }
+
+    @Test
+    public void retriesCompilationAfterFailure() throws Exception {
+        adapter.destroy();
+        writeScript("this is not { groovy");
+        adapter.setScript(script.getAbsolutePath());
+
+        assertThat(adapter.buildCollectionSet(agent, Empty.getDefaultInstance(), null).count(), equalTo(0L));
+        assertThat(getScriptCompilations(), equalTo(0L));
+
+        // Stop watching, so only the adapter itself can compile the fixed script
+        adapter.destroy();
+        writeScript(versionScript("v1"));
+
+        assertThat(adapter.getCollectionBuilder(), notNullValue());
+        assertThat(getScriptCompilations(), equalTo(1L));
+    }
+
+    private static String versionScript(final String version) {
+        return "if (msg instanceof List) { msg.add('" + version + "') }";
+    }
+
+    private long getScriptCompilations() {
+        return metricRegistry.meter(name("adapters", ADAPTER_NAME, "scriptCompilations")).getCount();
+    }
+
+    private List<String> runScript(final ScriptedCollectionSetBuilder builder) throws Exception {
+        final List<String> versions = new ArrayList<>();
+        builder.build(agent, versions, null);
+        return versions;
+    }
+
+    /*
+     * Replaces the script in a single step, so the watcher never sees a
+     * partially written file.
+     */
+    private void writeScript(final String content) throws IOException {
+        final File temp = tempFolder.newFile();
+        Files.write(temp.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        Files.move(temp.toPath(), script.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static class TestAdapter extends AbstractScriptedCollectionAdapter {
+        private TestAdapter(final AdapterDefinition adapterConfig, final MetricRegistry metricRegistry) {
+            super(adapterConfig, metricRegistry);
+        }
+
+        @Override
+        public Stream<CollectionSetWithAgent> handleCollectionMessage(final TelemetryMessageLogEntry message,
+                                                                      final TelemetryMessageLog messageLog) {
+            return Stream.empty();
+        }
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.collection;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.opennms.netmgt.collection.api.CollectionAgent;
+
+import com.codahale.metrics.Timer;
+
+public class ScriptedCollectionSetBuilderTest {
+
+    private static final int THREADS = 4;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final CollectionAgent agent = Mockito.mock(CollectionAgent.class);
+
+    private File script;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws IOException {
+        script = tempFolder.newFile("script.fake");
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verifies that a builder for a thread safe engine evaluates the script
+     * concurrently, and that every evaluation sees its own message.
+     */
+    @Test(timeout = 30000)
+    public void canBuildConcurrently() throws Exception {
+        final CountDownLatch inEval = new CountDownLatch(THREADS);
+        final Set<Object> messages = ConcurrentHashMap.newKeySet();
+        final ScriptedCollectionSetBuilder builder = new ScriptedCollectionSetBuilder(script, managerFor("MULTITHREADED", ctx -> {
+            messages.add(ctx.getAttribute("msg"));
+            inEval.countDown();
+            try {
+                // Only completes if all threads are evaluating the script at the same time
+                if (!inEval.await(10, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Evaluations were not run concurrently.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(builder.isThreadSafe(), is(true));
+
+        buildConcurrently(builder);
+
+        assertThat(messages, containsInAnyOrder(IntStream.range(0, THREADS).boxed().toArray()));
+    }
+
+    /**
+     * Verifies that evaluations are serialized if the engine does not declare
+     * itself as thread safe.
+     */
+    @Test(timeout = 30000)
+    public void serializesEvaluationWithoutThreading() throws Exception {
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final Set<Object> messages = ConcurrentHashMap.newKeySet();
+        final ScriptedCollectionSetBuilder builder = new ScriptedCollectionSetBuilder(script, managerFor(null, ctx -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            messages.add(ctx.getAttribute("msg"));
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+        }));
+        assertThat(builder.isThreadSafe(), is(false));
+
+        buildConcurrently(builder);
+
+        assertThat(maxActive.get(), equalTo(1));
+        assertThat(messages, containsInAnyOrder(IntStream.range(0, THREADS).boxed().toArray()));
+    }
+
+    @Test
+    public void recordsExecutionTime() throws Exception {
+        final Timer timer = new Timer();
+        final ScriptedCollectionSetBuilder builder = new ScriptedCollectionSetBuilder(script, managerFor("MULTITHREADED", ctx -> {}));
+        builder.setExecutionTimer(timer);
+
+        builder.build(agent, "a", null);
+        builder.build(agent, "b", null);
+
+        assertThat(timer.getCount(), equalTo(2L));
+    }
+
+    @Test
+    public void recordsExecutionTimeOnFailure() throws Exception {
+        final Timer timer = new Timer();
+        final ScriptedCollectionSetBuilder builder = new ScriptedCollectionSetBuilder(script, managerFor(null, ctx -> {
+            throw new IllegalArgumentException("Failed!");
+        }));
+        builder.setExecutionTimer(timer);
+
+        try {
+            builder.build(agent, "a", null);
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        assertThat(timer.getCount(), equalTo(1L));
+
+        // The lock must have been released
+        final Future<?> future = executor.submit(() -> {
+            try {
+                builder.build(agent, "b", null);
+            } catch (IllegalArgumentException | ScriptException e) {
+                // expected
+            }
+        });
+        future.get(10, TimeUnit.SECONDS);
+        assertThat(timer.getCount(), equalTo(2L));
+    }
+
+    private void buildConcurrently(final ScriptedCollectionSetBuilder builder) throws Exception {
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            final int message = i;
+            futures.add(executor.submit(() -> {
+                builder.build(agent, message, null);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static ScriptEngineManager managerFor(final String threading, final Consumer<ScriptContext> eval) {
+        final ScriptEngineManager manager = new ScriptEngineManager();
+        manager.registerEngineExtension("fake", new FakeScriptEngineFactory(threading, eval));
+        return manager;
+    }
+
+    /**
+     * Compiles any script to a {@link CompiledScript} which calls back into
+     * the test on evaluation.
+     */
+    private static class FakeScriptEngine extends AbstractScriptEngine implements Compilable {
+        private final FakeScriptEngineFactory factory;
+
+        private FakeScriptEngine(final FakeScriptEngineFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public CompiledScript compile(final Reader script) {
+            return new CompiledScript() {
+                @Override
+                public Object eval(final ScriptContext context) {
+                    factory.eval.accept(context);
+                    return null;
+                }
+
+                @Override
+                public ScriptEngine getEngine() {
+                    return FakeScriptEngine.this;
+                }
+            };
+        }
+
+        @Override
+        public CompiledScript compile(final String script) {
+            return compile((Reader) null);
+        }
+
+        @Override
+        public Object eval(final String script, final ScriptContext context) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object eval(final Reader reader, final ScriptContext context) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Bindings createBindings() {
+            return new SimpleBindings();
+        }
+
+        @Override
+        public ScriptEngineFactory getFactory() {
+            return factory;
+        }
+    }
+
+    private static class FakeScriptEngineFactory implements ScriptEngineFactory {
+        private final String threading;
+        private final Consumer<ScriptContext> eval;
+
+        private FakeScriptEngineFactory(final String threading, final Consumer<ScriptContext> eval) {
+            this.threading = threading;
+            this.eval = eval;
+        }
+
+        @Override
+        public Object getParameter(final String key) {
+            if ("THREADING".equals(key)) {
+                return threading;
+            }
+            return null;
+        }
+
+        @Override
+        public ScriptEngine getScriptEngine() {
+            return new FakeScriptEngine(this);
+        }
+
+        @Override
+        public String getEngineName() {
+            return "fake";
+        }
+
+        @Override
+        public String getEngineVersion() {
+            return "1.0";
+        }
+
+        @Override
+        public List<String> getExtensions() {
+            return Collections.singletonList("fake");
+        }
+
+        @Override
+        public List<String> getMimeTypes() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<String> getNames() {
+            return Collections.singletonList("fake");
+        }
+
+        @Override
+        public String getLanguageName() {
+            return "fake";
+        }
+
+        @Override
+        public String getLanguageVersion() {
+            return "1.0";
+        }
+
+        @Override
+        public String getMethodCallSyntax(final String obj, final String m, final String... args) {
+            return null;
+        }
+
+        @Override
+        public String getOutputStatement(final String toDisplay) {
+            return null;
+        }
+
+        @Override
+        public String getProgram(final String... statements) {
+            return null;
+        }
+    }
+}
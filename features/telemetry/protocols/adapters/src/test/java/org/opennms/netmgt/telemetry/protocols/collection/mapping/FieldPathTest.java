@@ -0,0 +1,177 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.collection.mapping;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.Test;
+
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+public class FieldPathTest {
+
+    private static final Descriptors.Descriptor FILE = DescriptorProtos.FileDescriptorProto.getDescriptor();
+
+    private static final DescriptorProtos.FileDescriptorProto MESSAGE = DescriptorProtos.FileDescriptorProto.newBuilder()
+            .setName("test.proto")
+            .setSyntax("proto2")
+            .addMessageType(DescriptorProtos.DescriptorProto.newBuilder()
+                    .setName("A")
+                    .addField(field("id", 1, DescriptorProtos.FieldDescriptorProto.Type.TYPE_UINT64))
+                    .addField(field("name", 2, DescriptorProtos.FieldDescriptorProto.Type.TYPE_STRING))
+                    .addNestedType(DescriptorProtos.DescriptorProto.newBuilder()
+                            .setName("A1")
+                            .addNestedType(DescriptorProtos.DescriptorProto.newBuilder().setName("A1a"))))
+            .addMessageType(DescriptorProtos.DescriptorProto.newBuilder()
+                    .setName("B")
+                    .addField(field("value", 1, DescriptorProtos.FieldDescriptorProto.Type.TYPE_DOUBLE)))
+            .build();
+
+    private static DescriptorProtos.FieldDescriptorProto field(final String name, final int number, final DescriptorProtos.FieldDescriptorProto.Type type) {
+        return DescriptorProtos.FieldDescriptorProto.newBuilder()
+                .setName(name)
+                .setNumber(number)
+                .setType(type)
+                .build();
+    }
+
+    private static FieldPath parse(final String path) {
+        return FieldPath.parse(path, FILE, FILE, ExtensionRegistry.getEmptyRegistry());
+    }
+
+    @Test
+    public void canSelectScalars() {
+        final FieldPath path = parse("name");
+        assertThat(path.getResultType(), is(nullValue()));
+        assertThat(path.values(MESSAGE, MESSAGE), contains("test.proto"));
+    }
+
+    @Test
+    public void yieldsAllElementsOfRepeatedFields() {
+        final FieldPath path = parse("message_type.field.name");
+        assertThat(path.values(MESSAGE, MESSAGE), contains("id", "name", "value"));
+        assertThat(path.first(MESSAGE, MESSAGE), equalTo("id"));
+        assertThat(path.join(MESSAGE, MESSAGE), equalTo("id/name/value"));
+
+        assertThat(parse("message_type.field.number").values(MESSAGE, MESSAGE), contains(1, 2, 1));
+    }
+
+    @Test
+    public void yieldsNothingForMissingFields() {
+        // Unset scalar with presence
+        final FieldPath path = parse("package");
+        assertThat(path.values(MESSAGE, MESSAGE), is(empty()));
+        assertThat(path.first(MESSAGE, MESSAGE), is(nullValue()));
+        assertThat(path.join(MESSAGE, MESSAGE), is(nullValue()));
+
+        // Unset message
+        assertThat(parse("options.java_package").values(MESSAGE, MESSAGE), is(empty()));
+
+        // Empty repeated field
+        assertThat(parse("service.name").values(MESSAGE, MESSAGE), is(empty()));
+
+        // Unset field of some of the elements
+        assertThat(parse("message_type.field.type_name").values(MESSAGE, MESSAGE), is(empty()));
+    }
+
+    @Test
+    public void normalizesEnums() {
+        assertThat(parse("message_type.field.type").values(MESSAGE, MESSAGE), contains("TYPE_UINT64", "TYPE_STRING", "TYPE_DOUBLE"));
+    }
+
+    @Test
+    public void canRecurse() {
+        assertThat(parse("message_type.nested_type*.name").values(MESSAGE, MESSAGE), contains("A", "A1", "A1a", "B"));
+    }
+
+    @Test
+    public void canFilter() {
+        assertThat(parse("message_type(name=B).field.name").values(MESSAGE, MESSAGE), contains("value"));
+        assertThat(parse("message_type.field(type=TYPE_STRING).name").values(MESSAGE, MESSAGE), contains("name"));
+        assertThat(parse("message_type(name=C).field.name").values(MESSAGE, MESSAGE), is(empty()));
+    }
+
+    @Test
+    public void canEvaluateAbsolutePaths() {
+        final DescriptorProtos.DescriptorProto current = MESSAGE.getMessageType(1);
+        final FieldPath path = FieldPath.parse("/name", FILE, DescriptorProtos.DescriptorProto.getDescriptor(), ExtensionRegistry.getEmptyRegistry());
+        assertThat(path.values(MESSAGE, current), contains("test.proto"));
+
+        final FieldPath relative = FieldPath.parse("name", FILE, DescriptorProtos.DescriptorProto.getDescriptor(), ExtensionRegistry.getEmptyRegistry());
+        assertThat(relative.values(MESSAGE, current), contains("B"));
+    }
+
+    @Test
+    public void canSelectMapValuesAndOneofs() {
+        final Struct struct = Struct.newBuilder()
+                .putFields("number", Value.newBuilder().setNumberValue(42.0).build())
+                .putFields("string", Value.newBuilder().setStringValue("up").build())
+                .putFields("list", Value.newBuilder().setListValue(ListValue.newBuilder()
+                        .addValues(Value.newBuilder().setNumberValue(1.0))
+                        .addValues(Value.newBuilder().setStringValue("two"))
+                        .addValues(Value.newBuilder().setNumberValue(3.0))).build())
+                .build();
+        final Descriptors.Descriptor type = Struct.getDescriptor();
+
+        assertThat(FieldPath.parse("fields{number}.kind", type, type, ExtensionRegistry.getEmptyRegistry()).values(struct, struct), contains(42.0));
+        assertThat(FieldPath.parse("fields{string}.kind", type, type, ExtensionRegistry.getEmptyRegistry()).values(struct, struct), contains("up"));
+
+        // Only the set member of a oneof yields a value
+        assertThat(FieldPath.parse("fields{string}.number_value", type, type, ExtensionRegistry.getEmptyRegistry()).values(struct, struct), is(empty()));
+        assertThat(FieldPath.parse("fields{list}.list_value.values.number_value", type, type, ExtensionRegistry.getEmptyRegistry()).values(struct, struct), contains(1.0, 3.0));
+
+        // Missing keys yield nothing
+        assertThat(FieldPath.parse("fields{missing}.kind", type, type, ExtensionRegistry.getEmptyRegistry()).values(struct, struct), is(empty()));
+    }
+
+    @Test
+    public void rejectsUnknownFields() {
+        assertRejected("nope");
+        assertRejected("message_type.nope");
+        assertRejected("message_type.field.name.nope");
+        assertRejected("[unknown.extension]");
+        assertRejected("message_type(nope=A).name");
+        assertRejected("message_type{key}.name");
+        assertRejected("message_type.field*.name");
+        assertRejected("message_type..name");
+        assertRejected("message_type(name=A.name");
+    }
+
+    private static void assertRejected(final String path) {
+        try {
+            parse(path);
+        } catch (final IllegalArgumentException e) {
+            return;
+        }
+        throw new AssertionError("Path '" + path + "' was not rejected");
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.collection.mapping;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.opennms.netmgt.collection.api.CollectionAttribute;
+import org.opennms.netmgt.collection.api.CollectionResource;
+import org.opennms.netmgt.collection.api.CollectionSet;
+import org.opennms.netmgt.collection.dto.CollectionAgentDTO;
+import org.opennms.netmgt.collection.support.AbstractCollectionSetVisitor;
+
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.ExtensionRegistry;
+
+public class ProtobufCollectionSetBuilderTest {
+
+    private static final DescriptorProtos.FileDescriptorProto MESSAGE = DescriptorProtos.FileDescriptorProto.newBuilder()
+            .setName("test.proto")
+            .setSyntax("proto3")
+            .addMessageType(DescriptorProtos.DescriptorProto.newBuilder()
+                    .setName("A")
+                    .addField(DescriptorProtos.FieldDescriptorProto.newBuilder().setName("id").setNumber(1).setJsonName("ID"))
+                    .addField(DescriptorProtos.FieldDescriptorProto.newBuilder().setName("name").setNumber(2)))
+            .addMessageType(DescriptorProtos.DescriptorProto.newBuilder()
+                    .setName("B")
+                    .addField(DescriptorProtos.FieldDescriptorProto.newBuilder().setName("value").setNumber(3)))
+            // Message without name and therefore without instance
+            .addMessageType(DescriptorProtos.DescriptorProto.newBuilder()
+                    .addField(DescriptorProtos.FieldDescriptorProto.newBuilder().setName("other").setNumber(4)))
+            .build();
+
+    private final CollectionAgentDTO agent = new CollectionAgentDTO();
+
+    public ProtobufCollectionSetBuilderTest() {
+        this.agent.setNodeId(1);
+        this.agent.setAddress(InetAddress.getLoopbackAddress());
+    }
+
+    private static ResourceMapping resource(final String path, final String type, final String instancePath, final AttributeMapping... attributes) {
+        final ResourceMapping resource = new ResourceMapping();
+        resource.setPath(path);
+        resource.setType(type);
+        resource.setInstancePath(instancePath);
+        resource.setGroup("test");
+        resource.setAttributes(new ArrayList<>(Arrays.asList(attributes)));
+        return resource;
+    }
+
+    private static AttributeMapping attribute(final String name, final String path, final String type) {
+        final AttributeMapping attribute = new AttributeMapping();
+        attribute.setName(name);
+        attribute.setPath(path);
+        attribute.setType(type);
+        return attribute;
+    }
+
+    private static ProtobufCollectionSetBuilder builder(final ResourceMapping... resources) {
+        final ProtobufMapping mapping = new ProtobufMapping();
+        mapping.setResources(new ArrayList<>(Arrays.asList(resources)));
+        return new ProtobufCollectionSetBuilder(mapping, DescriptorProtos.FileDescriptorProto.getDescriptor(), ExtensionRegistry.getEmptyRegistry());
+    }
+
+    @Test
+    public void createsResourcePerRepeatedElement() {
+        final ProtobufCollectionSetBuilder builder = builder(
+                resource("message_type", "message", "name",
+                        attribute("firstField", "field.number", "gauge"),
+                        attribute("firstJsonName", "field.json_name", "string")));
+
+        // The element without a name has no instance and is skipped, the first value of repeated fields is used
+        assertThat(describe(builder.build(this.agent, MESSAGE, null)), contains(
+                "message[A] test/firstField GAUGE=1.0",
+                "message[A] test/firstJsonName STRING=ID",
+                "message[B] test/firstField GAUGE=3.0"));
+    }
+
+    @Test
+    public void skipsMissingValues() {
+        final ProtobufCollectionSetBuilder builder = builder(
+                resource(null, "node", null,
+                        attribute("package", "package", "string"),
+                        attribute("javaPackage", "options.java_package", "string"),
+                        attribute("firstService", "service.name", "string")));
+
+        assertThat(describe(builder.build(this.agent, MESSAGE, null)), is(empty()));
+    }
+
+    @Test
+    public void canNameAttributesByRepeatedValues() {
+        final AttributeMapping attribute = new AttributeMapping();
+        attribute.setNamePath("field.name");
+        attribute.setPath("field.number");
+        final ProtobufCollectionSetBuilder builder = builder(resource("message_type", "interface", "name", attribute));
+
+        assertThat(describe(builder.build(this.agent, MESSAGE, null)), contains(
+                "if[A] test/id/name GAUGE=1.0",
+                "if[B] test/value GAUGE=3.0",
+                // Interfaces without instance use the address of the agent
+                "if[127.0.0.1] test/other GAUGE=4.0"));
+    }
+
+    @Test
+    public void appliesConditions() {
+        final ResourceMapping proto3 = resource(null, "node", null, attribute("messages", "message_type.name", "string"));
+        proto3.setWhenPath("syntax");
+        proto3.setWhenValue("proto3");
+        final ResourceMapping proto2 = resource(null, "node", null, attribute("messages", "message_type.name", "string"));
+        proto2.setWhenPath("syntax");
+        proto2.setWhenValue("proto2");
+        // Absolute paths are evaluated against the whole message
+        final ResourceMapping all = resource("message_type", "message", "name", attribute("value", "field.number", "counter"));
+        all.setWhenPath("/message_type.name");
+        all.setWhenValue("A/B");
+        // Relative paths are evaluated against the selected element
+        final ResourceMapping b = resource("message_type", "filtered", "name", attribute("value", "field.number", "gauge"));
+        b.setWhenPath("name");
+        b.setWhenValue("B");
+
+        assertThat(describe(builder(proto3, proto2, all, b).build(this.agent, MESSAGE, null)), contains(
+                "node[node] test/messages STRING=A",
+                "message[A] test/value COUNTER=1.0",
+                "message[B] test/value COUNTER=3.0",
+                "filtered[B] test/value GAUGE=3.0"));
+    }
+
+    @Test
+    public void rejectsUnknownFieldPaths() {
+        assertRejected(resource("nope", "message", "name"));
+        assertRejected(resource("message_type", "message", "nope"));
+        assertRejected(resource("message_type", "message", "name", attribute("value", "field.nope", "gauge")));
+        assertRejected(resource("message_type", "message", "name", attribute("value", "[unknown.extension]", "gauge")));
+    }
+
+    @Test
+    public void rejectsPathsOfWrongKind() {
+        // Resource paths must select messages, attribute and instance paths must select values
+        assertRejected(resource("name", "message", "name"));
+        assertRejected(resource("message_type", "message", "field"));
+        assertRejected(resource("message_type", "message", "name", attribute("value", "field", "gauge")));
+
+        // Generic resources require an instance
+        assertRejected(resource("message_type", "message", null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMessagesOfOtherTypes() {
+        builder(resource(null, "node", null)).build(this.agent, MESSAGE.getMessageType(0), null);
+    }
+
+    private static void assertRejected(final ResourceMapping resource) {
+        try {
+            builder(resource);
+        } catch (final IllegalArgumentException e) {
+            return;
+        }
+        throw new AssertionError("Mapping " + resource + " was not rejected");
+    }
+
+    private static List<String> describe(final CollectionSet collectionSet) {
+        final List<String> attributes = new ArrayList<>();
+        collectionSet.visit(new AbstractCollectionSetVisitor() {
+            private CollectionResource resource;
+
+            @Override
+            public void visitResource(final CollectionResource resource) {
+                this.resource = resource;
+            }
+
+            @Override
+            public void visitAttribute(final CollectionAttribute attribute) {
+                attributes.add(String.format("%s[%s] %s/%s %s=%s",
+                        this.resource.getResourceTypeName(), this.resource.getInstance(),
+                        attribute.getAttributeType().getGroupType().getName(), attribute.getName(), attribute.getType(),
+                        attribute.getType().isNumeric() ? attribute.getNumericValue().doubleValue() : attribute.getStringValue()));
+            }
+        });
+        return attributes;
+    }
+}
@@ -26,10 +26,17 @@ import static java.lang.Boolean.TRUE;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -44,6 +51,7 @@ import org.opennms.netmgt.telemetry.protocols.bmp.adapter.openbmp.proto.records.
 import org.opennms.netmgt.telemetry.protocols.bmp.adapter.openbmp.proto.records.Peer;
 import org.opennms.netmgt.telemetry.protocols.bmp.adapter.openbmp.proto.records.Router;
 import org.opennms.netmgt.telemetry.protocols.bmp.adapter.openbmp.proto.records.UnicastPrefix;
+import org.opennms.netmgt.telemetry.protocols.bmp.adapter.rib.BmpRib;
 import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpAsnPathAnalysis;
 import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpAsnPathAnalysisDao;
 import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpBaseAttribute;
@@ -68,6 +76,7 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.SetMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.swrve.ratelimitedlogger.RateLimitedLog;
 
 public class BmpMessagePersister implements BmpMessageHandler {
@@ -108,8 +117,71 @@ public class BmpMessagePersister implements BmpMessageHandler {
 
     private SetMultimap<String, BmpPeer> peerMultimap = HashMultimap.create();
 
+    private BmpRib bmpRib = new BmpRib();
+
+    private int ribFlushBatchSize = 5000;
+
+    private long ribFlushInterval = TimeUnit.SECONDS.toMillis(5);
+
+    private long ribRefreshInterval = TimeUnit.MINUTES.toMillis(15);
+
+    private int maxPendingRibLogs = 100000;
+
+    // Kept while flushing fails - beyond maxPendingRibLogs, the oldest logs are dropped
+    private final Deque<BmpIpRibLog> pendingRibLogs = new ArrayDeque<>();
+
+    private long droppedRibLogs;
+
+    private long lastRibFlush = System.currentTimeMillis();
+
+    private ScheduledExecutorService ribFlushExecutor;
+
+    public void init() {
+        ribFlushExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("BmpRibFlush-%d")
+                .build());
+        ribFlushExecutor.scheduleWithFixedDelay(this::flush, ribFlushInterval, ribFlushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public void destroy() {
+        if (ribFlushExecutor != null) {
+            ribFlushExecutor.shutdown();
+        }
+        flush();
+    }
+
+    /**
+     * Writes back all pending changes of the in-memory RIB together with the pending RIB logs.
+     *
+     * This uses a transaction of its own. If writing fails, the whole flush is rolled back and the changes and logs
+     * are kept for the next flush.
+     */
+    public synchronized void flush() {
+        lastRibFlush = System.currentTimeMillis();
+        try {
+            // The RIB only marks the prefixes as persisted once the transaction including the logs has succeeded
+            final boolean written = bmpRib.flush(lastRibFlush - ribRefreshInterval, this::writeRib);
+            if (!written && !pendingRibLogs.isEmpty()) {
+                writeRib(Collections.emptyList());
+            }
+            pendingRibLogs.clear();
+        } catch (Exception e) {
+            RATE_LIMITED_LOGGER.error("Exception while persisting BMP RIB. Retrying with the next flush.", e);
+        }
+    }
+
+    private void writeRib(List<BmpUnicastPrefix> prefixes) {
+        sessionUtils.withTransaction(() -> {
+            bmpUnicastPrefixDao.saveInBatches(prefixes, ribFlushBatchSize);
+            bmpIpRibLogDao.saveInBatches(new ArrayList<>(pendingRibLogs), ribFlushBatchSize);
+        });
+    }
+
     @Override
     public synchronized void handle(Message message, Context context) {
+        // Prefixes are pruned by their persisted timestamps, so write back the RIBs of these peers first
+        final Set<String> unflushedPeers = message.getType() == Type.PEER ? flushPeerRibs(message) : Collections.emptySet();
+
         sessionUtils.withTransaction(() -> {
             switch (message.getType()) {
                 case COLLECTOR:
@@ -153,17 +225,26 @@ public class BmpMessagePersister implements BmpMessageHandler {
                     break;
                 case PEER:
                     List<BmpPeer> bmpPeers = buildBmpPeers(message);
-                    // Only retain unicast prefixes that are updated after current peer UP/down message.
                     bmpPeers.forEach(peer -> {
-                        Set<BmpUnicastPrefix> unicastPrefixes = peer.getBmpUnicastPrefixes().stream().filter(bmpUnicastPrefix ->
-                                bmpUnicastPrefix.getTimestamp().getTime() > peer.getTimestamp().getTime()
-                        ).collect(Collectors.toSet());
-                        peer.setBmpUnicastPrefixes(unicastPrefixes);
+                        // The persisted timestamps of peers with unwritten RIB changes are stale, so their prefixes
+                        // are kept along with their RIB until the changes have been written by a later flush
+                        final boolean ribFlushed = !unflushedPeers.contains(peer.getHashId());
+                        if (ribFlushed) {
+                            // Only retain unicast prefixes that are updated after current peer UP/down message.
+                            Set<BmpUnicastPrefix> unicastPrefixes = peer.getBmpUnicastPrefixes().stream().filter(bmpUnicastPrefix ->
+                                    bmpUnicastPrefix.getTimestamp().getTime() > peer.getTimestamp().getTime()
+                            ).collect(Collectors.toSet());
+                            peer.setBmpUnicastPrefixes(unicastPrefixes);
+                        }
                         try {
                             bmpPeerDao.saveOrUpdate(peer);
                         } catch (Exception e) {
                             LOG.error("Exception while persisting BMP peer {}", peer, e);
                         }
+                        if (ribFlushed) {
+                            // Reloaded from the remaining prefixes on the next update
+                            bmpRib.evictPeerRib(peer.getHashId());
+                        }
                     });
                     break;
                 case BASE_ATTRIBUTE:
@@ -187,40 +268,85 @@ public class BmpMessagePersister implements BmpMessageHandler {
                     });
                     break;
                 case UNICAST_PREFIX:
-                    List<BmpUnicastPrefix> bmpUnicastPrefixes = buildBmpUnicastPrefix(message);
-                    bmpUnicastPrefixes.forEach(unicastPrefix -> {
-                        try {
-                            updateStats(unicastPrefix, context.location);
-                            bmpUnicastPrefixDao.saveOrUpdate(unicastPrefix);
-                        } catch (Exception e) {
-                            LOG.error("Exception while persisting BMP unicast prefix {}", unicastPrefix, e);
+                    final long now = System.currentTimeMillis();
+                    message.getRecords().forEach(record -> {
+                        if (record.getType().equals(Type.UNICAST_PREFIX)) {
+                            updateRib((UnicastPrefix) record, now);
                         }
                     });
                     break;
             }
         });
+
+        // Flushed outside of the transaction above, as the flush needs a transaction of its own
+        if (message.getType() == Type.UNICAST_PREFIX
+                && (bmpRib.getDirtyCount() + pendingRibLogs.size() >= ribFlushBatchSize || System.currentTimeMillis() - lastRibFlush >= ribFlushInterval)) {
+            flush();
+        }
     }
 
 
-    private void updateStats(BmpUnicastPrefix unicastPrefix, String location) {
-        // Update counts if this is new prefix update or
-        // if previous withdrawn state is different or it's an update with different base attributes
-        if (unicastPrefix.getId() == null ||
-                (unicastPrefix.isWithDrawn() != unicastPrefix.isPrevWithDrawnState() ||
-                        (!unicastPrefix.isWithDrawn() && !unicastPrefix.getBaseAttrHashId().equals(unicastPrefix.getPrevBaseAttrHashId())))) {
-
-            String peerHashId = unicastPrefix.getBmpPeer().getHashId();
-            BmpIpRibLog bmpIpRibLog = new BmpIpRibLog();
-            bmpIpRibLog.setPeerHashId(peerHashId);
-            bmpIpRibLog.setBaseAttrHashId(unicastPrefix.getBaseAttrHashId());
-            bmpIpRibLog.setPrefix(unicastPrefix.getPrefix());
-            bmpIpRibLog.setPrefixLen(unicastPrefix.getPrefixLen());
-            bmpIpRibLog.setOriginAs(unicastPrefix.getOriginAs());
-            bmpIpRibLog.setTimestamp(new Date());
-            bmpIpRibLog.setWithDrawn(unicastPrefix.isWithDrawn());
-            bmpIpRibLogDao.saveOrUpdate(bmpIpRibLog);
+    private void updateRib(UnicastPrefix unicastPrefix, long now) {
+        try {
+            BmpRib.PeerRib peerRib = bmpRib.getPeerRib(unicastPrefix.peerHash);
+            if (peerRib == null) {
+                BmpPeer bmpPeer = bmpPeerDao.findByPeerHashId(unicastPrefix.peerHash);
+                if (bmpPeer == null) {
+                    RATE_LIMITED_LOGGER.warn("Peer entity with hashId '{}', IpAddress = {} doesn't exist yet",
+                            unicastPrefix.peerHash, unicastPrefix.peerIp);
+                    return;
+                }
+                peerRib = bmpRib.loadPeerRib(bmpPeer.getHashId(), bmpPeer.getBmpUnicastPrefixes());
+            }
+            // Log if this is new prefix update or
+            // if previous withdrawn state is different or it's an update with different base attributes
+            if (bmpRib.update(peerRib, unicastPrefix, now)) {
+                BmpIpRibLog bmpIpRibLog = new BmpIpRibLog();
+                bmpIpRibLog.setPeerHashId(unicastPrefix.peerHash);
+                bmpIpRibLog.setBaseAttrHashId(unicastPrefix.baseAttrHash);
+                bmpIpRibLog.setPrefix(InetAddressUtils.str(unicastPrefix.prefix));
+                bmpIpRibLog.setPrefixLen(unicastPrefix.length);
+                bmpIpRibLog.setOriginAs(unicastPrefix.originAs);
+                bmpIpRibLog.setTimestamp(new Date(now));
+                bmpIpRibLog.setWithDrawn(!unicastPrefix.action.equals(UnicastPrefix.Action.ADD));
+                if (pendingRibLogs.size() >= maxPendingRibLogs) {
+                    pendingRibLogs.removeFirst();
+                    droppedRibLogs++;
+                    RATE_LIMITED_LOGGER.warn("Too many unwritten RIB logs. Dropped {} so far.", droppedRibLogs);
+                }
+                pendingRibLogs.addLast(bmpIpRibLog);
+            }
+        } catch (Exception e) {
+            LOG.error("Exception while applying Unicast prefix with prefix {} to RIB",
+                    InetAddressUtils.str(unicastPrefix.prefix), e);
         }
+    }
 
+    /**
+     * Writes back the RIBs of all peers in the given message.
+     *
+     * @return the hash IDs of the peers whose RIB could not be written
+     */
+    private Set<String> flushPeerRibs(Message message) {
+        final Set<String> unflushedPeers = new HashSet<>();
+        message.getRecords().forEach(record -> {
+            if (record.getType().equals(Type.PEER)) {
+                final String peerHashId = ((Peer) record).hash;
+                try {
+                    flushPeerRib(peerHashId);
+                } catch (Exception e) {
+                    LOG.error("Exception while persisting BMP unicast prefixes of peer {}. Retrying with the next flush.", peerHashId, e);
+                    unflushedPeers.add(peerHashId);
+                }
+            }
+        });
+        return unflushedPeers;
+    }
+
+    private void flushPeerRib(String peerHashId) {
+        // The RIB only marks the prefixes as persisted once the transaction has succeeded
+        bmpRib.flushPeerRib(peerHashId, prefixes -> sessionUtils.withTransaction(() ->
+                bmpUnicastPrefixDao.saveInBatches(prefixes, ribFlushBatchSize)));
     }
 
 
@@ -386,54 +512,6 @@ public class BmpMessagePersister implements BmpMessageHandler {
         return bmpBaseAttributes;
     }
 
-    private List<BmpUnicastPrefix> buildBmpUnicastPrefix(Message message) {
-
-        List<BmpUnicastPrefix> bmpUnicastPrefixes = new ArrayList<>();
-        message.getRecords().forEach(record -> {
-            if (record.getType().equals(Type.UNICAST_PREFIX)) {
-                BmpPeer bmpPeer;
-                UnicastPrefix unicastPrefix = (UnicastPrefix) record;
-                try {
-                    BmpUnicastPrefix bmpUnicastPrefix = bmpUnicastPrefixDao.findByHashId(unicastPrefix.hash);
-                    if (bmpUnicastPrefix == null) {
-                        bmpUnicastPrefix = new BmpUnicastPrefix();
-                        bmpUnicastPrefix.setFirstAddedTimestamp(Date.from(unicastPrefix.timestamp));
-                        bmpPeer = bmpPeerDao.findByPeerHashId(unicastPrefix.peerHash);
-                    } else {
-                        bmpUnicastPrefix.setPrevBaseAttrHashId(bmpUnicastPrefix.getBaseAttrHashId());
-                        bmpUnicastPrefix.setPrevWithDrawnState(bmpUnicastPrefix.isWithDrawn());
-                        bmpPeer = bmpUnicastPrefix.getBmpPeer();
-                    }
-                    if (bmpPeer == null) {
-                        RATE_LIMITED_LOGGER.warn("Peer entity with hashId '{}', IpAddress = {} doesn't exist yet",
-                                unicastPrefix.peerHash, unicastPrefix.peerIp);
-                        return;
-                    }
-                    bmpUnicastPrefix.setBmpPeer(bmpPeer);
-                    bmpUnicastPrefix.setHashId(unicastPrefix.hash);
-                    bmpUnicastPrefix.setBaseAttrHashId(unicastPrefix.baseAttrHash);
-                    bmpUnicastPrefix.setIpv4(unicastPrefix.ipv4);
-                    bmpUnicastPrefix.setOriginAs(unicastPrefix.originAs);
-                    bmpUnicastPrefix.setPrefix(InetAddressUtils.str(unicastPrefix.prefix));
-                    bmpUnicastPrefix.setPrefixLen(unicastPrefix.length);
-                    bmpUnicastPrefix.setTimestamp(Date.from(unicastPrefix.timestamp));
-                    boolean withDrawn = !unicastPrefix.action.equals(UnicastPrefix.Action.ADD);
-                    bmpUnicastPrefix.setWithDrawn(withDrawn);
-                    bmpUnicastPrefix.setPathId(unicastPrefix.pathId);
-                    bmpUnicastPrefix.setLabels(unicastPrefix.labels);
-                    bmpUnicastPrefix.setPrePolicy(unicastPrefix.prePolicy);
-                    bmpUnicastPrefix.setAdjRibIn(unicastPrefix.adjIn);
-                    bmpUnicastPrefixes.add(bmpUnicastPrefix);
-                } catch (Exception e) {
-                    LOG.error("Exception while mapping Unicast prefix with prefix {} to UnicastPrefix entity",
-                            InetAddressUtils.str(unicastPrefix.prefix), e);
-                }
-            }
-        });
-        return bmpUnicastPrefixes;
-    }
-
-
     List<BmpAsnPathAnalysis> buildBmpAsnPath(String asnPath) {
 
         List<BmpAsnPathAnalysis> bmpAsnPathAnalyses = new ArrayList<>();
@@ -562,6 +640,34 @@ public class BmpMessagePersister implements BmpMessageHandler {
         this.bmpIpRibLogDao = bmpIpRibLogDao;
     }
 
+    public BmpRib getBmpRib() {
+        return bmpRib;
+    }
+
+    public void setBmpRib(BmpRib bmpRib) {
+        this.bmpRib = bmpRib;
+    }
+
+    public void setRibFlushBatchSize(int ribFlushBatchSize) {
+        this.ribFlushBatchSize = ribFlushBatchSize;
+    }
+
+    public void setRibFlushInterval(long ribFlushInterval) {
+        this.ribFlushInterval = ribFlushInterval;
+    }
+
+    public void setRibRefreshInterval(long ribRefreshInterval) {
+        this.ribRefreshInterval = ribRefreshInterval;
+    }
+
+    public void setMaxPendingRibLogs(int maxPendingRibLogs) {
+        this.maxPendingRibLogs = maxPendingRibLogs;
+    }
+
+    public synchronized long getDroppedRibLogCount() {
+        return droppedRibLogs;
+    }
+
     public SessionUtils getSessionUtils() {
         return sessionUtils;
     }
@@ -0,0 +1,526 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.bmp.adapter.rib;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.opennms.core.utils.InetAddressUtils;
+import org.opennms.netmgt.telemetry.protocols.bmp.adapter.openbmp.proto.records.UnicastPrefix;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpPeer;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpRibStatistics;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpUnicastPrefix;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.StatsByAsn;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.StatsByPeer;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.StatsByPrefix;
+
+/**
+ * In-memory copy of the unicast prefixes of all peers.
+ *
+ * The RIB mirrors the {@code bmp_ip_ribs} table so that incoming prefixes can be compared against their previous
+ * state without querying the database. Only entries whose state changed are written back by {@link #flush}. Entries
+ * which only received a newer timestamp are written back once their persisted timestamp is older than requested.
+ *
+ * Attribute sets are shared between all entries referencing the same base attributes. Update and withdraw counters
+ * are maintained incrementally and exposed as {@link BmpRibStatistics}. As only a consumer of these statistics empties
+ * the counters, counting stops if they have not been drained for {@link #COUNTER_RETENTION_MS}.
+ */
+public class BmpRib implements BmpRibStatistics {
+
+    private static final long COUNTER_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    // Three times the period of the stats aggregator
+    private static final long COUNTER_RETENTION_MS = TimeUnit.MINUTES.toMillis(15);
+
+    public static class PeerRib {
+        private final String peerHashId;
+
+        // Carries the peer hash ID for the written entities - the peer itself is never updated through the RIB
+        private final BmpPeer peerRef;
+
+        private final PrefixTrie<RibEntry> v4 = new PrefixTrie<>();
+        private final PrefixTrie<RibEntry> v6 = new PrefixTrie<>();
+
+        private final Set<RibEntry> pending = new LinkedHashSet<>();
+
+        private PeerRib(final String peerHashId) {
+            this.peerHashId = peerHashId;
+            this.peerRef = new BmpPeer();
+            this.peerRef.setHashId(peerHashId);
+        }
+
+        private PrefixTrie<RibEntry> trie(final byte[] address) {
+            return address.length == 4 ? this.v4 : this.v6;
+        }
+
+        private void forEach(final Consumer<RibEntry> consumer) {
+            final Consumer<RibEntry> chain = head -> {
+                for (RibEntry entry = head; entry != null; entry = entry.next) {
+                    consumer.accept(entry);
+                }
+            };
+            this.v4.forEach(chain);
+            this.v6.forEach(chain);
+        }
+
+        public String getPeerHashId() {
+            return this.peerHashId;
+        }
+
+        public int size() {
+            final int[] size = new int[1];
+            this.forEach(entry -> size[0]++);
+            return size[0];
+        }
+    }
+
+    private static class AttributeSet {
+        private final String baseAttrHashId;
+        private final Long originAs;
+
+        private int references;
+
+        private AttributeSet(final String baseAttrHashId, final Long originAs) {
+            this.baseAttrHashId = baseAttrHashId;
+            this.originAs = originAs;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AttributeSet)) {
+                return false;
+            }
+            final AttributeSet that = (AttributeSet) o;
+            return Objects.equals(this.baseAttrHashId, that.baseAttrHashId) &&
+                    Objects.equals(this.originAs, that.originAs);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.baseAttrHashId, this.originAs);
+        }
+    }
+
+    private static class RibEntry {
+        // Entries with the same prefix but different path IDs or labels are chained
+        private RibEntry next;
+
+        private final String hashId;
+        private final String prefix;
+        private final int prefixLen;
+        private final long firstAdded;
+
+        private Long id;
+        private AttributeSet attributes;
+        private boolean ipv4;
+        private boolean withdrawn;
+        private Long pathId;
+        private String labels;
+        private boolean prePolicy;
+        private boolean adjRibIn;
+        private long timestamp;
+
+        private long persistedTimestamp;
+        private boolean dirty;
+
+        private RibEntry(final String hashId, final String prefix, final int prefixLen, final long firstAdded) {
+            this.hashId = hashId;
+            this.prefix = prefix;
+            this.prefixLen = prefixLen;
+            this.firstAdded = firstAdded;
+        }
+    }
+
+    private static class IntervalCounters<K> {
+        private final TreeMap<Long, Map<K, long[]>> intervals = new TreeMap<>();
+
+        // Time of the last drain, or when the RIB was put into use
+        private long drainedAt;
+
+        private void resume(final long now) {
+            this.drainedAt = now;
+        }
+
+        private void count(final long time, final K key, final boolean withdrawn) {
+            if (time - this.drainedAt > COUNTER_RETENTION_MS) {
+                // Nobody drains the counters, e.g. on Sentinel or without the stats feature
+                this.intervals.clear();
+                return;
+            }
+
+            final long[] counts = this.intervals.computeIfAbsent(time - time % COUNTER_INTERVAL_MS, interval -> new HashMap<>())
+                    .computeIfAbsent(key, k -> new long[2]);
+            counts[withdrawn ? 1 : 0]++;
+        }
+
+        private <T> List<T> drain(final long now, final StatsFactory<K, T> factory) {
+            this.drainedAt = now;
+
+            final Map<Long, Map<K, long[]>> completed = this.intervals.headMap(now - now % COUNTER_INTERVAL_MS, false);
+            final List<T> stats = new ArrayList<>();
+            completed.forEach((interval, counters) -> counters.forEach((key, counts) ->
+                    stats.add(factory.create(new Date(interval), key, BigInteger.valueOf(counts[1]), BigInteger.valueOf(counts[0])))));
+            completed.clear();
+            return stats;
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatsFactory<K, T> {
+        T create(Date interval, K key, BigInteger withdraws, BigInteger updates);
+    }
+
+    private static class AsnKey {
+        private final String peerHashId;
+        private final Long originAs;
+
+        private AsnKey(final String peerHashId, final Long originAs) {
+            this.peerHashId = peerHashId;
+            this.originAs = originAs;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AsnKey)) {
+                return false;
+            }
+            final AsnKey that = (AsnKey) o;
+            return Objects.equals(this.peerHashId, that.peerHashId) &&
+                    Objects.equals(this.originAs, that.originAs);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.peerHashId, this.originAs);
+        }
+    }
+
+    private static class PrefixKey {
+        private final String peerHashId;
+        private final String prefix;
+        private final int prefixLen;
+
+        private PrefixKey(final String peerHashId, final String prefix, final int prefixLen) {
+            this.peerHashId = peerHashId;
+            this.prefix = prefix;
+            this.prefixLen = prefixLen;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PrefixKey)) {
+                return false;
+            }
+            final PrefixKey that = (PrefixKey) o;
+            return this.prefixLen == that.prefixLen &&
+                    Objects.equals(this.peerHashId, that.peerHashId) &&
+                    Objects.equals(this.prefix, that.prefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.peerHashId, this.prefix, this.prefixLen);
+        }
+    }
+
+    private final Map<String, PeerRib> peers = new HashMap<>();
+
+    private final Map<AttributeSet, AttributeSet> attributeSets = new HashMap<>();
+
+    private final IntervalCounters<String> statsByPeer = new IntervalCounters<>();
+    private final IntervalCounters<AsnKey> statsByAsn = new IntervalCounters<>();
+    private final IntervalCounters<PrefixKey> statsByPrefix = new IntervalCounters<>();
+
+    private int dirtyCount;
+
+    private boolean inUse;
+
+    public synchronized PeerRib getPeerRib(final String peerHashId) {
+        return this.peers.get(peerHashId);
+    }
+
+    /**
+     * Creates the RIB of a peer from its persisted prefixes.
+     */
+    public synchronized PeerRib loadPeerRib(final String peerHashId, final Collection<BmpUnicastPrefix> prefixes) {
+        this.evictPeerRib(peerHashId);
+
+        final PeerRib rib = new PeerRib(peerHashId);
+        for (final BmpUnicastPrefix prefix : prefixes) {
+            final byte[] address = InetAddressUtils.addr(prefix.getPrefix()).getAddress();
+            final RibEntry entry = new RibEntry(prefix.getHashId(), prefix.getPrefix(), prefix.getPrefixLen(),
+                    prefix.getFirstAddedTimestamp().getTime());
+            entry.id = prefix.getId();
+            entry.attributes = this.acquire(prefix.getBaseAttrHashId(), prefix.getOriginAs());
+            entry.ipv4 = prefix.isIpv4();
+            entry.withdrawn = prefix.isWithDrawn();
+            entry.pathId = prefix.getPathId();
+            entry.labels = prefix.getLabels();
+            entry.prePolicy = prefix.isPrePolicy();
+            entry.adjRibIn = prefix.isAdjRibIn();
+            entry.timestamp = prefix.getTimestamp().getTime();
+            entry.persistedTimestamp = entry.timestamp;
+
+            link(rib.trie(address), address, entry);
+        }
+
+        this.peers.put(peerHashId, rib);
+        if (!this.inUse) {
+            // Give the consumers of the statistics the time to drain the counters for the first time
+            final long now = System.currentTimeMillis();
+            this.statsByPeer.resume(now);
+            this.statsByAsn.resume(now);
+            this.statsByPrefix.resume(now);
+            this.inUse = true;
+        }
+        return rib;
+    }
+
+    /**
+     * Drops the RIB of a peer including all pending changes.
+     */
+    public synchronized void evictPeerRib(final String peerHashId) {
+        final PeerRib rib = this.peers.remove(peerHashId);
+        if (rib == null) {
+            return;
+        }
+        rib.forEach(entry -> {
+            this.release(entry.attributes);
+            if (entry.dirty) {
+                this.dirtyCount--;
+            }
+        });
+    }
+
+    /**
+     * Applies a unicast prefix to the RIB of its peer.
+     *
+     * @return {@code true} if the prefix is new, changed its withdrawn state or, if not withdrawn, its attributes
+     */
+    public synchronized boolean update(final PeerRib rib, final UnicastPrefix prefix, final long now) {
+        final byte[] address = prefix.prefix.getAddress();
+        final PrefixTrie<RibEntry> trie = rib.trie(address);
+        final boolean withdrawn = !prefix.action.equals(UnicastPrefix.Action.ADD);
+
+        RibEntry entry = find(trie.get(address, prefix.length), prefix.hash);
+        final boolean created = entry == null;
+        final boolean changed;
+        if (created) {
+            entry = new RibEntry(prefix.hash, InetAddressUtils.str(prefix.prefix), prefix.length, prefix.timestamp.toEpochMilli());
+            entry.attributes = this.acquire(prefix.baseAttrHash, prefix.originAs);
+            link(trie, address, entry);
+            changed = true;
+        } else {
+            changed = entry.withdrawn != withdrawn ||
+                    (!withdrawn && !Objects.equals(entry.attributes.baseAttrHashId, prefix.baseAttrHash));
+        }
+
+        final boolean attributesChanged = !Objects.equals(entry.attributes.baseAttrHashId, prefix.baseAttrHash) ||
+                !Objects.equals(entry.attributes.originAs, prefix.originAs);
+        final boolean modified = changed || attributesChanged ||
+                entry.ipv4 != prefix.ipv4 ||
+                !Objects.equals(entry.pathId, prefix.pathId) ||
+                !Objects.equals(entry.labels, prefix.labels) ||
+                entry.prePolicy != prefix.prePolicy ||
+                entry.adjRibIn != prefix.adjIn;
+
+        if (attributesChanged) {
+            final AttributeSet previous = entry.attributes;
+            entry.attributes = this.acquire(prefix.baseAttrHash, prefix.originAs);
+            this.release(previous);
+        }
+        entry.ipv4 = prefix.ipv4;
+        entry.withdrawn = withdrawn;
+        entry.pathId = prefix.pathId;
+        entry.labels = prefix.labels;
+        entry.prePolicy = prefix.prePolicy;
+        entry.adjRibIn = prefix.adjIn;
+        entry.timestamp = prefix.timestamp.toEpochMilli();
+
+        if (modified && !entry.dirty) {
+            entry.dirty = true;
+            this.dirtyCount++;
+        }
+        rib.pending.add(entry);
+
+        if (changed) {
+            this.statsByPeer.count(now, rib.peerHashId, withdrawn);
+            this.statsByAsn.count(now, new AsnKey(rib.peerHashId, prefix.originAs), withdrawn);
+            this.statsByPrefix.count(now, new PrefixKey(rib.peerHashId, entry.prefix, entry.prefixLen), withdrawn);
+        }
+        return changed;
+    }
+
+    /**
+     * Writes back all changed entries and all entries which have been persisted before the given time.
+     *
+     * The entries are only marked as persisted if the writer succeeds. Otherwise, they are written again by the next
+     * flush.
+     *
+     * @return <code>true</code> if there was anything to write
+     */
+    public synchronized boolean flush(final long refreshBefore, final Consumer<List<BmpUnicastPrefix>> writer) {
+        return this.flush(this.peers.values(), refreshBefore, writer);
+    }
+
+    /**
+     * Writes back all pending entries of a single peer.
+     */
+    public synchronized void flushPeerRib(final String peerHashId, final Consumer<List<BmpUnicastPrefix>> writer) {
+        final PeerRib rib = this.peers.get(peerHashId);
+        if (rib != null) {
+            this.flush(Collections.singletonList(rib), Long.MAX_VALUE, writer);
+        }
+    }
+
+    private boolean flush(final Collection<PeerRib> ribs, final long refreshBefore, final Consumer<List<BmpUnicastPrefix>> writer) {
+        final List<PeerRib> owners = new ArrayList<>();
+        final List<RibEntry> entries = new ArrayList<>();
+        final List<BmpUnicastPrefix> prefixes = new ArrayList<>();
+        for (final PeerRib rib : ribs) {
+            for (final RibEntry entry : rib.pending) {
+                if (entry.dirty || entry.persistedTimestamp < refreshBefore) {
+                    owners.add(rib);
+                    entries.add(entry);
+                    prefixes.add(toPrefix(rib, entry));
+                }
+            }
+        }
+        if (prefixes.isEmpty()) {
+            return false;
+        }
+
+        writer.accept(prefixes);
+
+        for (int i = 0; i < entries.size(); i++) {
+            final RibEntry entry = entries.get(i);
+            entry.id = prefixes.get(i).getId();
+            entry.persistedTimestamp = entry.timestamp;
+            if (entry.dirty) {
+                entry.dirty = false;
+                this.dirtyCount--;
+            }
+            owners.get(i).pending.remove(entry);
+        }
+        return true;
+    }
+
+    public synchronized int getDirtyCount() {
+        return this.dirtyCount;
+    }
+
+    public synchronized int getAttributeSetCount() {
+        return this.attributeSets.size();
+    }
+
+    @Override
+    public synchronized boolean isInUse() {
+        return this.inUse;
+    }
+
+    @Override
+    public synchronized List<StatsByPeer> drainStatsByPeer() {
+        return this.statsByPeer.drain(System.currentTimeMillis(), (interval, peerHashId, withdraws, updates) ->
+                new StatsByPeer(interval, peerHashId, withdraws, updates));
+    }
+
+    @Override
+    public synchronized List<StatsByAsn> drainStatsByAsn() {
+        return this.statsByAsn.drain(System.currentTimeMillis(), (interval, key, withdraws, updates) ->
+                new StatsByAsn(interval, key.peerHashId, key.originAs != null ? BigInteger.valueOf(key.originAs) : null, withdraws, updates));
+    }
+
+    @Override
+    public synchronized List<StatsByPrefix> drainStatsByPrefix() {
+        return this.statsByPrefix.drain(System.currentTimeMillis(), (interval, key, withdraws, updates) ->
+                new StatsByPrefix(interval, key.peerHashId, key.prefix, key.prefixLen, withdraws, updates));
+    }
+
+    private AttributeSet acquire(final String baseAttrHashId, final Long originAs) {
+        final AttributeSet attributes = this.attributeSets.computeIfAbsent(new AttributeSet(baseAttrHashId, originAs), Function.identity());
+        attributes.references++;
+        return attributes;
+    }
+
+    private void release(final AttributeSet attributes) {
+        if (--attributes.references == 0) {
+            this.attributeSets.remove(attributes);
+        }
+    }
+
+    private static RibEntry find(RibEntry entry, final String hashId) {
+        while (entry != null && !entry.hashId.equals(hashId)) {
+            entry = entry.next;
+        }
+        return entry;
+    }
+
+    private static void link(final PrefixTrie<RibEntry> trie, final byte[] address, final RibEntry entry) {
+        final RibEntry head = trie.computeIfAbsent(address, entry.prefixLen, () -> entry);
+        if (head != entry) {
+            entry.next = head.next;
+            head.next = entry;
+        }
+    }
+
+    private static BmpUnicastPrefix toPrefix(final PeerRib rib, final RibEntry entry) {
+        final BmpUnicastPrefix prefix = new BmpUnicastPrefix();
+        prefix.setId(entry.id);
+        prefix.setHashId(entry.hashId);
+        prefix.setBmpPeer(rib.peerRef);
+        prefix.setBaseAttrHashId(entry.attributes.baseAttrHashId);
+        prefix.setOriginAs(entry.attributes.originAs);
+        prefix.setIpv4(entry.ipv4);
+        prefix.setPrefix(entry.prefix);
+        prefix.setPrefixLen(entry.prefixLen);
+        prefix.setTimestamp(new Date(entry.timestamp));
+        prefix.setFirstAddedTimestamp(new Date(entry.firstAdded));
+        prefix.setWithDrawn(entry.withdrawn);
+        prefix.setPathId(entry.pathId);
+        prefix.setLabels(entry.labels);
+        prefix.setPrePolicy(entry.prePolicy);
+        prefix.setAdjRibIn(entry.adjRibIn);
+        return prefix;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.bmp.adapter.rib;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A path-compressed binary trie mapping IP prefixes to values.
+ *
+ * Only nodes for stored prefixes and for the branching points between them are allocated, so a full
+ * routing table costs roughly two nodes per prefix.
+ */
+public class PrefixTrie<V> {
+
+    private static class Node<V> {
+        private final byte[] address;
+        private final int length;
+
+        @SuppressWarnings("unchecked")
+        private final Node<V>[] children = new Node[2];
+
+        private V value;
+
+        private Node(final byte[] address, final int length) {
+            this.address = address;
+            this.length = length;
+        }
+    }
+
+    private final Node<V> root = new Node<>(new byte[0], 0);
+
+    private int size;
+
+    public V get(final byte[] address, final int length) {
+        Node<V> node = this.root;
+        while (node != null) {
+            if (node.length > length || commonLength(address, node.address, node.length) < node.length) {
+                return null;
+            }
+            if (node.length == length) {
+                return node.value;
+            }
+            node = node.children[bit(address, node.length)];
+        }
+        return null;
+    }
+
+    public V computeIfAbsent(final byte[] address, final int length, final Supplier<V> supplier) {
+        Objects.requireNonNull(address);
+        if (length < 0 || length > address.length * 8) {
+            throw new IllegalArgumentException("Invalid prefix length: " + length);
+        }
+
+        Node<V> node = this.root;
+        while (true) {
+            if (node.length == length) {
+                if (node.value == null) {
+                    node.value = supplier.get();
+                    this.size++;
+                }
+                return node.value;
+            }
+
+            final int bit = bit(address, node.length);
+            final Node<V> child = node.children[bit];
+            if (child == null) {
+                return this.attach(node, bit, address, length, supplier);
+            }
+
+            final int common = commonLength(address, child.address, Math.min(length, child.length));
+            if (common == child.length) {
+                node = child;
+                continue;
+            }
+
+            // The new prefix diverges from the child or ends above it - insert a branching node
+            final Node<V> branch = new Node<>(child.address, common);
+            branch.children[bit(child.address, common)] = child;
+            node.children[bit] = branch;
+
+            if (common == length) {
+                branch.value = supplier.get();
+                this.size++;
+                return branch.value;
+            }
+            return this.attach(branch, bit(address, common), address, length, supplier);
+        }
+    }
+
+    private V attach(final Node<V> parent, final int bit, final byte[] address, final int length, final Supplier<V> supplier) {
+        final Node<V> leaf = new Node<>(address.clone(), length);
+        leaf.value = supplier.get();
+        parent.children[bit] = leaf;
+        this.size++;
+        return leaf.value;
+    }
+
+    public void forEach(final Consumer<V> consumer) {
+        forEach(this.root, consumer);
+    }
+
+    private static <V> void forEach(final Node<V> node, final Consumer<V> consumer) {
+        if (node == null) {
+            return;
+        }
+        if (node.value != null) {
+            consumer.accept(node.value);
+        }
+        forEach(node.children[0], consumer);
+        forEach(node.children[1], consumer);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private static int bit(final byte[] address, final int index) {
+        return (address[index >>> 3] >>> (7 - (index & 7))) & 1;
+    }
+
+    private static int commonLength(final byte[] a, final byte[] b, final int limit) {
+        int i = 0;
+        while (i < limit) {
+            final int diff = (a[i >>> 3] ^ b[i >>> 3]) & 0xff;
+            if (diff == 0) {
+                i = (i & ~7) + 8;
+                continue;
+            }
+            // Bits before i in this byte are already known to match
+            return Math.min(limit, (i & ~7) + Integer.numberOfLeadingZeros(diff) - 24);
+        }
+        return limit;
+    }
+}
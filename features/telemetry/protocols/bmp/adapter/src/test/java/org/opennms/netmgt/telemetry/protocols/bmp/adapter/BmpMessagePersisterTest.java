@@ -0,0 +1,199 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.bmp.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opennms.core.utils.InetAddressUtils;
+import org.opennms.netmgt.dao.api.SessionUtils;
+import org.opennms.netmgt.telemetry.protocols.bmp.adapter.openbmp.Context;
+import org.opennms.netmgt.telemetry.protocols.bmp.adapter.openbmp.proto.Message;
+import org.opennms.netmgt.telemetry.protocols.bmp.adapter.openbmp.proto.Type;
+import org.opennms.netmgt.telemetry.protocols.bmp.adapter.openbmp.proto.records.Peer;
+import org.opennms.netmgt.telemetry.protocols.bmp.adapter.openbmp.proto.records.UnicastPrefix;
+import org.opennms.netmgt.telemetry.protocols.bmp.adapter.rib.BmpRib;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpIpRibLog;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpIpRibLogDao;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpPeer;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpPeerDao;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpRouter;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpUnicastPrefix;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpUnicastPrefixDao;
+
+import com.google.common.collect.ImmutableList;
+
+public class BmpMessagePersisterTest {
+
+    private static final String COLLECTOR = "91e3a7ff9f5676ed6ae6fcd8a6b455ec";
+
+    private static final String PEER = "61e5a7ff9f5433ed6ae6fcd9a2b432gf";
+
+    private final BmpPeerDao bmpPeerDao = mock(BmpPeerDao.class);
+
+    private final BmpUnicastPrefixDao bmpUnicastPrefixDao = mock(BmpUnicastPrefixDao.class);
+
+    private final BmpIpRibLogDao bmpIpRibLogDao = mock(BmpIpRibLogDao.class);
+
+    private final BmpRib bmpRib = new BmpRib();
+
+    private final Context context = mock(Context.class);
+
+    private BmpMessagePersister persister;
+
+    private BmpPeer peerEntity;
+
+    private BmpUnicastPrefix stalePrefix;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        final SessionUtils sessionUtils = mock(SessionUtils.class);
+        when(sessionUtils.withTransaction(any(Supplier.class))).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        doCallRealMethod().when(sessionUtils).withTransaction(any(Runnable.class));
+
+        final Instant lastUpdate = Instant.now().minus(1, ChronoUnit.HOURS);
+        stalePrefix = new BmpUnicastPrefix();
+        stalePrefix.setId(1L);
+        stalePrefix.setHashId("73e12a7ff8f5673es6ae6fcd9a3b345uy");
+        stalePrefix.setPrefix("10.1.0.0");
+        stalePrefix.setPrefixLen(16);
+        stalePrefix.setBaseAttrHashId("23212a7ff9f5433ed6ae6fcd9a2b432gf");
+        stalePrefix.setOriginAs(701L);
+        stalePrefix.setIpv4(true);
+        stalePrefix.setTimestamp(Date.from(lastUpdate));
+        stalePrefix.setFirstAddedTimestamp(Date.from(lastUpdate));
+
+        peerEntity = new BmpPeer();
+        peerEntity.setHashId(PEER);
+        peerEntity.setBmpRouter(new BmpRouter());
+        peerEntity.setTimestamp(Date.from(lastUpdate));
+        peerEntity.getBmpUnicastPrefixes().add(stalePrefix);
+        when(bmpPeerDao.findByPeerHashId(anyString())).thenReturn(peerEntity);
+
+        persister = new BmpMessagePersister();
+        persister.setSessionUtils(sessionUtils);
+        persister.setBmpPeerDao(bmpPeerDao);
+        persister.setBmpUnicastPrefixDao(bmpUnicastPrefixDao);
+        persister.setBmpIpRibLogDao(bmpIpRibLogDao);
+        persister.setBmpRib(bmpRib);
+        persister.setRibFlushInterval(TimeUnit.HOURS.toMillis(1));
+    }
+
+    @Test
+    public void testPeerIsNotPrunedIfRibFlushFails() {
+        persister.handle(new Message(COLLECTOR, Type.UNICAST_PREFIX, ImmutableList.of(getUnicastPrefix())), context);
+        assertNotNull(bmpRib.getPeerRib(PEER));
+        assertEquals(1, bmpRib.getDirtyCount());
+
+        // Writing the RIB fails, so neither the persisted prefixes nor the RIB may be dropped
+        doThrow(new IllegalStateException("Failed")).when(bmpUnicastPrefixDao).saveInBatches(anyList(), anyInt());
+        persister.handle(new Message(COLLECTOR, Type.PEER, ImmutableList.of(getPeer())), context);
+        verify(bmpPeerDao).saveOrUpdate(peerEntity);
+        assertTrue(peerEntity.getBmpUnicastPrefixes().contains(stalePrefix));
+        assertNotNull(bmpRib.getPeerRib(PEER));
+        assertEquals(1, bmpRib.getDirtyCount());
+
+        // Retried with the next peer message
+        doNothing().when(bmpUnicastPrefixDao).saveInBatches(anyList(), anyInt());
+        persister.handle(new Message(COLLECTOR, Type.PEER, ImmutableList.of(getPeer())), context);
+        verify(bmpUnicastPrefixDao, times(2)).saveInBatches(anyList(), anyInt());
+        assertTrue(peerEntity.getBmpUnicastPrefixes().isEmpty());
+        assertNull(bmpRib.getPeerRib(PEER));
+        assertEquals(0, bmpRib.getDirtyCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPendingRibLogsAreBounded() {
+        persister.setMaxPendingRibLogs(2);
+
+        // Writing keeps failing, so the logs pile up
+        doThrow(new IllegalStateException("Failed")).when(bmpIpRibLogDao).saveInBatches(anyList(), anyInt());
+        for (int i = 0; i < 3; i++) {
+            final UnicastPrefix unicastPrefix = getUnicastPrefix();
+            unicastPrefix.hash = "hash" + i;
+            unicastPrefix.prefix = InetAddressUtils.addr("10." + i + ".0.0");
+            unicastPrefix.length = 16;
+            persister.handle(new Message(COLLECTOR, Type.UNICAST_PREFIX, ImmutableList.of(unicastPrefix)), context);
+            persister.flush();
+        }
+        assertEquals(1, persister.getDroppedRibLogCount());
+
+        // Only the latest logs are kept
+        doNothing().when(bmpIpRibLogDao).saveInBatches(anyList(), anyInt());
+        final ArgumentCaptor<List<BmpIpRibLog>> logs = ArgumentCaptor.forClass(List.class);
+        persister.flush();
+        verify(bmpIpRibLogDao, times(4)).saveInBatches(logs.capture(), anyInt());
+        assertEquals(ImmutableList.of("10.1.0.0", "10.2.0.0"), logs.getValue().stream()
+                .map(BmpIpRibLog::getPrefix)
+                .collect(Collectors.toList()));
+    }
+
+    private static Peer getPeer() {
+        final Peer peer = new Peer();
+        peer.action = Peer.Action.UP;
+        peer.hash = PEER;
+        peer.routerHash = "81e4a7ff8f5673ed6ae6fcd9a3b452bg";
+        peer.remoteIp = InetAddressUtils.addr("10.23.12.32");
+        peer.timestamp = Instant.now();
+        return peer;
+    }
+
+    private static UnicastPrefix getUnicastPrefix() {
+        final UnicastPrefix unicastPrefix = new UnicastPrefix();
+        unicastPrefix.action = UnicastPrefix.Action.ADD;
+        unicastPrefix.hash = "83e12a7ff8f5673es6ae6fcd9a3b345uy";
+        unicastPrefix.peerHash = PEER;
+        unicastPrefix.baseAttrHash = "23212a7ff9f5433ed6ae6fcd9a2b432gf";
+        unicastPrefix.ipv4 = true;
+        unicastPrefix.originAs = 701L;
+        unicastPrefix.prefix = InetAddressUtils.addr("10.0.0.0");
+        unicastPrefix.length = 8;
+        unicastPrefix.timestamp = Instant.now();
+        return unicastPrefix;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.bmp.adapter.rib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.opennms.core.utils.InetAddressUtils;
+import org.opennms.netmgt.telemetry.protocols.bmp.adapter.openbmp.proto.records.UnicastPrefix;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpUnicastPrefix;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.StatsByPeer;
+
+public class BmpRibTest {
+
+    private static final String PEER = "61e5a7ff9f5433ed6ae6fcd9a2b432gf";
+
+    @Test
+    public void testPrefixTrie() {
+        final PrefixTrie<String> trie = new PrefixTrie<>();
+        final byte[] a = InetAddressUtils.addr("10.0.0.0").getAddress();
+        final byte[] b = InetAddressUtils.addr("10.1.0.0").getAddress();
+        final byte[] c = InetAddressUtils.addr("192.168.0.0").getAddress();
+
+        assertEquals("a16", trie.computeIfAbsent(a, 16, () -> "a16"));
+        assertEquals("b16", trie.computeIfAbsent(b, 16, () -> "b16"));
+        assertEquals("a8", trie.computeIfAbsent(a, 8, () -> "a8"));
+        assertEquals("c24", trie.computeIfAbsent(c, 24, () -> "c24"));
+        assertEquals("a16", trie.computeIfAbsent(a, 16, () -> "other"));
+
+        assertEquals(4, trie.size());
+        assertEquals("a8", trie.get(a, 8));
+        assertEquals("a16", trie.get(a, 16));
+        assertEquals("b16", trie.get(b, 16));
+        assertEquals("c24", trie.get(c, 24));
+        assertNull(trie.get(a, 15));
+        assertNull(trie.get(b, 12));
+        assertNull(trie.get(c, 16));
+
+        final List<String> values = new ArrayList<>();
+        trie.forEach(values::add);
+        assertEquals(4, values.size());
+    }
+
+    @Test
+    public void testOnlyChangedEntriesAreFlushed() {
+        final BmpRib rib = new BmpRib();
+        assertFalse(rib.isInUse());
+        final BmpRib.PeerRib peerRib = rib.loadPeerRib(PEER, Collections.emptyList());
+        final AtomicLong ids = new AtomicLong();
+        final List<BmpUnicastPrefix> written = new ArrayList<>();
+
+        assertTrue(rib.update(peerRib, prefix("hash1", "10.0.0.0", 8, "attr1", UnicastPrefix.Action.ADD), 0L));
+        assertTrue(rib.update(peerRib, prefix("hash2", "10.0.0.0", 8, "attr1", UnicastPrefix.Action.ADD), 0L));
+        assertEquals(2, rib.getDirtyCount());
+        assertEquals(1, rib.getAttributeSetCount());
+
+        rib.flush(0L, prefixes -> {
+            prefixes.forEach(p -> p.setId(ids.incrementAndGet()));
+            written.addAll(prefixes);
+        });
+        assertEquals(2, written.size());
+        assertEquals(0, rib.getDirtyCount());
+
+        // Same state with a newer timestamp is not written until the entry is due for refresh
+        written.clear();
+        assertFalse(rib.update(peerRib, prefix("hash1", "10.0.0.0", 8, "attr1", UnicastPrefix.Action.ADD), 0L));
+        rib.flush(0L, written::addAll);
+        assertTrue(written.isEmpty());
+        rib.flush(Long.MAX_VALUE, written::addAll);
+        assertEquals(1, written.size());
+        assertEquals(Long.valueOf(1L), written.get(0).getId());
+
+        // Withdraw and attribute changes are written and counted
+        written.clear();
+        assertTrue(rib.update(peerRib, prefix("hash1", "10.0.0.0", 8, "attr1", UnicastPrefix.Action.DELETE), 0L));
+        assertTrue(rib.update(peerRib, prefix("hash2", "10.0.0.0", 8, "attr2", UnicastPrefix.Action.ADD), 0L));
+        assertEquals(2, rib.getAttributeSetCount());
+        rib.flush(0L, written::addAll);
+        assertEquals(2, written.size());
+        assertTrue(written.get(0).isWithDrawn());
+        assertEquals("attr2", written.get(1).getBaseAttrHashId());
+
+        final List<StatsByPeer> stats = rib.drainStatsByPeer();
+        assertEquals(1, stats.size());
+        assertEquals(Long.valueOf(3L), stats.get(0).getUpdates());
+        assertEquals(Long.valueOf(1L), stats.get(0).getWithdraws());
+        assertTrue(rib.drainStatsByPeer().isEmpty());
+
+        rib.evictPeerRib(PEER);
+        assertNull(rib.getPeerRib(PEER));
+        assertEquals(0, rib.getAttributeSetCount());
+        assertTrue(rib.isInUse());
+    }
+
+    @Test
+    public void testCountersAreOnlyKeptWhileDrained() {
+        final BmpRib rib = new BmpRib();
+        final BmpRib.PeerRib peerRib = rib.loadPeerRib(PEER, Collections.emptyList());
+        final long later = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(20);
+
+        // Nobody drained the counters in time, so they are no longer maintained
+        assertTrue(rib.update(peerRib, prefix("hash1", "10.0.0.0", 8, "attr1", UnicastPrefix.Action.ADD), later));
+        assertTrue(rib.drainStatsByPeer().isEmpty());
+
+        // Counting resumes with the drain
+        assertTrue(rib.update(peerRib, prefix("hash1", "10.0.0.0", 8, "attr1", UnicastPrefix.Action.DELETE), 0L));
+        final List<StatsByPeer> stats = rib.drainStatsByPeer();
+        assertEquals(1, stats.size());
+        assertEquals(Long.valueOf(1L), stats.get(0).getWithdraws());
+    }
+
+    @Test
+    public void testFailedFlushIsRetried() {
+        final BmpRib rib = new BmpRib();
+        final BmpRib.PeerRib peerRib = rib.loadPeerRib(PEER, Collections.emptyList());
+        final List<BmpUnicastPrefix> written = new ArrayList<>();
+
+        assertTrue(rib.update(peerRib, prefix("hash1", "10.0.0.0", 8, "attr1", UnicastPrefix.Action.ADD), 0L));
+        assertEquals(1, rib.getDirtyCount());
+
+        try {
+            rib.flush(0L, prefixes -> {
+                throw new IllegalStateException("Failed");
+            });
+        } catch (final IllegalStateException e) {
+            // Expected
+        }
+        assertEquals(1, rib.getDirtyCount());
+
+        assertTrue(rib.flush(0L, written::addAll));
+        assertEquals(1, written.size());
+        assertEquals(0, rib.getDirtyCount());
+        assertFalse(rib.flush(0L, written::addAll));
+    }
+
+    private static UnicastPrefix prefix(final String hash, final String address, final int length, final String attributes, final UnicastPrefix.Action action) {
+        final UnicastPrefix prefix = new UnicastPrefix();
+        prefix.action = action;
+        prefix.hash = hash;
+        prefix.peerHash = PEER;
+        prefix.baseAttrHash = attributes;
+        prefix.ipv4 = true;
+        prefix.originAs = 701L;
+        prefix.prefix = InetAddressUtils.addr(address);
+        prefix.length = length;
+        prefix.timestamp = Instant.now();
+        return prefix;
+    }
+}
@@ -32,4 +32,9 @@ public interface BmpIpRibLogDao extends OnmsDao<BmpIpRibLog, Long> {
     List<StatsByAsn> getStatsByAsnForInterval(String interval);
 
     List<StatsByPrefix> getStatsByPrefixForInterval(String interval);
+
+    /**
+     * Inserts the given log entries using JDBC batches of the given size.
+     */
+    void saveInBatches(List<BmpIpRibLog> logs, int batchSize);
 }
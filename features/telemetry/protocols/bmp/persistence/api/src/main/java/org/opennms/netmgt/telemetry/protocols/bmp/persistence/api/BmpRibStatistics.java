@@ -0,0 +1,53 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.bmp.persistence.api;
+
+import java.util.List;
+
+/**
+ * Incrementally maintained counters of an in-memory RIB, as an alternative
+ * to rolling up {@link BmpIpRibLog} rows in SQL.
+ */
+public interface BmpRibStatistics {
+
+    /**
+     * Whether the RIB is in use, i.e. the persisting adapter runs in the same
+     * container and has loaded peers. The counters of a RIB which is not in use
+     * are empty and must not replace the rollups.
+     */
+    boolean isInUse();
+
+    /**
+     * Returns and resets the update and withdraw counts per peer for all completed intervals.
+     */
+    List<StatsByPeer> drainStatsByPeer();
+
+    /**
+     * Returns and resets the update and withdraw counts per peer and origin AS for all completed intervals.
+     */
+    List<StatsByAsn> drainStatsByAsn();
+
+    /**
+     * Returns and resets the update and withdraw counts per peer and prefix for all completed intervals.
+     */
+    List<StatsByPrefix> drainStatsByPrefix();
+}
@@ -36,4 +36,10 @@ public interface BmpUnicastPrefixDao extends OnmsDao<BmpUnicastPrefix, Long> {
     List<PrefixByAS> getPrefixesGroupedByAS();
 
     List<StatsPeerRib> getPeerRibCountsByPeer();
+
+    /**
+     * Inserts new and updates existing prefixes using JDBC batches of the given size.
+     * New prefixes get their identifier assigned.
+     */
+    void saveInBatches(List<BmpUnicastPrefix> prefixes, int batchSize);
 }
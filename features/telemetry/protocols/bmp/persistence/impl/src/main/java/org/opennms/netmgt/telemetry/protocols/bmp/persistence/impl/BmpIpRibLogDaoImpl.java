@@ -22,6 +22,7 @@
 package org.opennms.netmgt.telemetry.protocols.bmp.persistence.impl;
 
 import java.math.BigInteger;
+import java.sql.PreparedStatement;
 import java.util.Date;
 import java.util.List;
 
@@ -34,6 +35,10 @@ import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.StatsByPeer;
 import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.StatsByPrefix;
 
 public class BmpIpRibLogDaoImpl extends AbstractDaoHibernate<BmpIpRibLog, Long> implements BmpIpRibLogDao {
+
+    private static final String INSERT_SQL = "INSERT INTO bmp_ip_rib_log (id, peer_hash_id, base_attr_hash_id, last_updated, prefix, prefix_len, origin_as, is_withdrawn) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     public BmpIpRibLogDaoImpl() {
         super(BmpIpRibLog.class);
     }
@@ -136,4 +141,35 @@ public class BmpIpRibLogDaoImpl extends AbstractDaoHibernate<BmpIpRibLog, Long>
 
         return statsByPrefixList;
     }
+
+    @Override
+    public void saveInBatches(List<BmpIpRibLog> logs, int batchSize) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        getHibernateTemplate().execute(session -> {
+            session.doWork(connection -> {
+                final long[] ids = JdbcBatches.allocateIds(connection, "bmpipriblognxtid", logs.size());
+                try (PreparedStatement stmt = connection.prepareStatement(INSERT_SQL)) {
+                    int pending = 0;
+                    for (BmpIpRibLog log : logs) {
+                        stmt.setLong(1, ids[pending]);
+                        stmt.setString(2, log.getPeerHashId());
+                        stmt.setString(3, log.getBaseAttrHashId());
+                        JdbcBatches.setTimestamp(stmt, 4, log.getTimestamp());
+                        stmt.setString(5, log.getPrefix());
+                        stmt.setInt(6, log.getPrefixLen());
+                        JdbcBatches.setLong(stmt, 7, log.getOriginAs());
+                        stmt.setBoolean(8, log.isWithDrawn());
+                        JdbcBatches.addBatch(stmt, batchSize, ++pending);
+                    }
+                    stmt.executeBatch();
+                }
+                for (int i = 0; i < ids.length; i++) {
+                    logs.get(i).setId(ids[i]);
+                }
+            });
+            return null;
+        });
+    }
 }
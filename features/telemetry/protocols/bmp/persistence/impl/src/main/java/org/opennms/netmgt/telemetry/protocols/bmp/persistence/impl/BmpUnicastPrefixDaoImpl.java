@@ -22,6 +22,8 @@
 package org.opennms.netmgt.telemetry.protocols.bmp.persistence.impl;
 
 import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -40,6 +42,14 @@ import com.google.common.base.Strings;
 
 public class BmpUnicastPrefixDaoImpl extends AbstractDaoHibernate<BmpUnicastPrefix, Long> implements BmpUnicastPrefixDao {
 
+    private static final String INSERT_SQL = "INSERT INTO bmp_ip_ribs (id, hash_id, peer_hash_id, base_attr_hash_id, is_ipv4, origin_as, prefix, prefix_len, " +
+            "last_updated, first_added_timestamp, is_withdrawn, prefix_bits, path_id, labels, is_pre_policy, is_adj_ribin) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE bmp_ip_ribs SET base_attr_hash_id = ?, is_ipv4 = ?, origin_as = ?, prefix = ?, prefix_len = ?, " +
+            "last_updated = ?, is_withdrawn = ?, prefix_bits = ?, path_id = ?, labels = ?, is_pre_policy = ?, is_adj_ribin = ? " +
+            "WHERE id = ?";
+
     public BmpUnicastPrefixDaoImpl() {
         super(BmpUnicastPrefix.class);
     }
@@ -102,4 +112,72 @@ public class BmpUnicastPrefixDaoImpl extends AbstractDaoHibernate<BmpUnicastPref
             }
         }).list());
     }
+
+    @Override
+    public void saveInBatches(List<BmpUnicastPrefix> prefixes, int batchSize) {
+        if (prefixes.isEmpty()) {
+            return;
+        }
+        final List<BmpUnicastPrefix> inserts = new ArrayList<>();
+        final List<BmpUnicastPrefix> updates = new ArrayList<>();
+        for (BmpUnicastPrefix prefix : prefixes) {
+            (prefix.getId() == null ? inserts : updates).add(prefix);
+        }
+        getHibernateTemplate().execute(session -> {
+            session.doWork(connection -> {
+                if (!inserts.isEmpty()) {
+                    final long[] ids = JdbcBatches.allocateIds(connection, "bmpunicastnxtid", inserts.size());
+                    try (PreparedStatement stmt = connection.prepareStatement(INSERT_SQL)) {
+                        int pending = 0;
+                        for (BmpUnicastPrefix prefix : inserts) {
+                            stmt.setLong(1, ids[pending]);
+                            stmt.setString(2, prefix.getHashId());
+                            stmt.setString(3, prefix.getBmpPeer().getHashId());
+                            stmt.setString(4, prefix.getBaseAttrHashId());
+                            stmt.setBoolean(5, prefix.isIpv4());
+                            JdbcBatches.setLong(stmt, 6, prefix.getOriginAs());
+                            stmt.setString(7, prefix.getPrefix());
+                            stmt.setInt(8, prefix.getPrefixLen());
+                            JdbcBatches.setTimestamp(stmt, 9, prefix.getTimestamp());
+                            JdbcBatches.setTimestamp(stmt, 10, prefix.getFirstAddedTimestamp());
+                            stmt.setBoolean(11, prefix.isWithDrawn());
+                            stmt.setString(12, prefix.getPrefixBits());
+                            JdbcBatches.setLong(stmt, 13, prefix.getPathId());
+                            stmt.setString(14, prefix.getLabels());
+                            stmt.setBoolean(15, prefix.isPrePolicy());
+                            stmt.setBoolean(16, prefix.isAdjRibIn());
+                            JdbcBatches.addBatch(stmt, batchSize, ++pending);
+                        }
+                        stmt.executeBatch();
+                    }
+                    for (int i = 0; i < ids.length; i++) {
+                        inserts.get(i).setId(ids[i]);
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    try (PreparedStatement stmt = connection.prepareStatement(UPDATE_SQL)) {
+                        int pending = 0;
+                        for (BmpUnicastPrefix prefix : updates) {
+                            stmt.setString(1, prefix.getBaseAttrHashId());
+                            stmt.setBoolean(2, prefix.isIpv4());
+                            JdbcBatches.setLong(stmt, 3, prefix.getOriginAs());
+                            stmt.setString(4, prefix.getPrefix());
+                            stmt.setInt(5, prefix.getPrefixLen());
+                            JdbcBatches.setTimestamp(stmt, 6, prefix.getTimestamp());
+                            stmt.setBoolean(7, prefix.isWithDrawn());
+                            stmt.setString(8, prefix.getPrefixBits());
+                            JdbcBatches.setLong(stmt, 9, prefix.getPathId());
+                            stmt.setString(10, prefix.getLabels());
+                            stmt.setBoolean(11, prefix.isPrePolicy());
+                            stmt.setBoolean(12, prefix.isAdjRibIn());
+                            stmt.setLong(13, prefix.getId());
+                            JdbcBatches.addBatch(stmt, batchSize, ++pending);
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+            });
+            return null;
+        });
+    }
 }
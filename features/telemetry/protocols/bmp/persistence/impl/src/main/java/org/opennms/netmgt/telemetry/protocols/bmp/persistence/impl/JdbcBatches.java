@@ -0,0 +1,83 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.bmp.persistence.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
+
+/**
+ * Helpers for writing entities with plain JDBC batches instead of one Hibernate statement per entity.
+ */
+final class JdbcBatches {
+
+    /**
+     * Hibernate maps the entities' {@code @SequenceGenerator} to a hi/lo generator using the default
+     * allocation size as block size. Identifiers allocated here use the same scheme so both can coexist.
+     */
+    static final int ID_BLOCK_SIZE = 50;
+
+    private JdbcBatches() {
+    }
+
+    static long[] allocateIds(final Connection connection, final String sequence, final int count) throws SQLException {
+        final long[] ids = new long[count];
+        int n = 0;
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT nextval('" + sequence + "') FROM generate_series(1, ?)")) {
+            while (n < count) {
+                stmt.setInt(1, (count - n + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        final long hi = rs.getLong(1) * ID_BLOCK_SIZE;
+                        for (int lo = hi == 0 ? 1 : 0; lo < ID_BLOCK_SIZE && n < count; lo++) {
+                            ids[n++] = hi + lo;
+                        }
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    static void addBatch(final PreparedStatement stmt, final int batchSize, final int pending) throws SQLException {
+        stmt.addBatch();
+        if (pending % batchSize == 0) {
+            stmt.executeBatch();
+        }
+    }
+
+    static void setLong(final PreparedStatement stmt, final int index, final Long value) throws SQLException {
+        if (value == null) {
+            stmt.setNull(index, Types.BIGINT);
+        } else {
+            stmt.setLong(index, value);
+        }
+    }
+
+    static void setTimestamp(final PreparedStatement stmt, final int index, final Date value) throws SQLException {
+        stmt.setTimestamp(index, value != null ? new Timestamp(value.getTime()) : null);
+    }
+}
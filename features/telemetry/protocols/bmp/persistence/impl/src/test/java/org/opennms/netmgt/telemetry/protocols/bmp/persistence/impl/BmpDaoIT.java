@@ -26,6 +26,7 @@ import static org.junit.Assert.assertThat;
 
 import java.math.BigInteger;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -215,6 +216,41 @@ public class BmpDaoIT {
         assertEquals(1L, statsPeerRibs.get(0).getV4prefixes().longValue());
     }
 
+    @Test
+    public void testSaveUnicastPrefixesInBatches() {
+
+        Date lastUpdated = new Date();
+        String collectorHashId = "91e3a7ff9f5676ed6ae6fcd8a6b455ec";
+        bmpCollectorDao.save(buildBmpCollector(collectorHashId, lastUpdated));
+        BmpRouter bmpRouter = buildBmpRouter(lastUpdated);
+        bmpRouter.setCollectorHashId(collectorHashId);
+        bmpRouterDao.saveOrUpdate(bmpRouter);
+        BmpPeer bmpPeer = buildBmpPeer(lastUpdated);
+        bmpPeer.setBmpRouter(bmpRouter);
+        bmpPeerDao.saveOrUpdate(bmpPeer);
+
+        List<BmpUnicastPrefix> prefixes = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            BmpUnicastPrefix bmpUnicastPrefix = buildBmpUnicastPrefix(lastUpdated);
+            bmpUnicastPrefix.setHashId("83e12a7ff8f5673es6ae6fcd9a3b345u" + i);
+            bmpUnicastPrefix.setPrefix("10.0." + i + ".0");
+            bmpUnicastPrefix.setPrefixLen(24);
+            bmpUnicastPrefix.setBmpPeer(bmpPeer);
+            prefixes.add(bmpUnicastPrefix);
+        }
+        bmpUnicastPrefixDao.saveInBatches(prefixes, 3);
+        prefixes.forEach(prefix -> Assert.assertNotNull(prefix.getId()));
+        assertEquals(7, bmpUnicastPrefixDao.countAll());
+
+        // Existing prefixes are updated by ID
+        prefixes.get(0).setWithDrawn(true);
+        bmpUnicastPrefixDao.saveInBatches(prefixes.subList(0, 1), 3);
+        bmpUnicastPrefixDao.flush();
+        bmpUnicastPrefixDao.clear();
+        assertEquals(7, bmpUnicastPrefixDao.countAll());
+        Assert.assertTrue(bmpUnicastPrefixDao.findByHashId("83e12a7ff8f5673es6ae6fcd9a3b345u0").isWithDrawn());
+    }
+
     @Test
     public void testRpkiValidator() {
 
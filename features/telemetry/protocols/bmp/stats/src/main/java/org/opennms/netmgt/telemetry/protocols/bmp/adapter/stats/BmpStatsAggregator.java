@@ -21,17 +21,22 @@
  */
 package org.opennms.netmgt.telemetry.protocols.bmp.adapter.stats;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.opennms.netmgt.dao.api.SessionUtils;
 import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpAsnInfoDao;
 import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpGlobalIpRib;
 import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpGlobalIpRibDao;
 import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpIpRibLogDao;
+import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpRibStatistics;
 import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpRouteInfo;
 import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpRouteInfoDao;
 import org.opennms.netmgt.telemetry.protocols.bmp.persistence.api.BmpRpkiInfo;
@@ -62,6 +67,10 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Stats Aggregation happen completely on OpenNMS.
+ *
+ * Update and withdraw counters are taken from the in-memory RIB of the persisting adapter if it runs in the same
+ * container and handles peers. Otherwise, i.e. when the adapter runs on Sentinel, they are rolled up from the database.
+ * The prefix counts per peer are always taken from the database.
  */
 public class BmpStatsAggregator {
 
@@ -109,6 +118,8 @@ public class BmpStatsAggregator {
     @Autowired
     private SessionUtils sessionUtils;
 
+    private List<BmpRibStatistics> bmpRibStatistics = Collections.emptyList();
+
     public void init() {
         scheduledExecutorService.scheduleAtFixedRate(this::updatePeerStats, 0, 5, TimeUnit.MINUTES);
         scheduledExecutorService.scheduleAtFixedRate(this::updateStatsByAsn, 0, 5, TimeUnit.MINUTES);
@@ -122,6 +133,19 @@ public class BmpStatsAggregator {
         scheduledExecutorService.shutdown();
     }
 
+    private <T> List<T> fromRib(Function<BmpRibStatistics, List<T>> counters, Supplier<List<T>> rollup) {
+        // The RIB is published wherever the adapter bundle is installed, but only holds counters if it is fed
+        final List<BmpRibStatistics> ribs = bmpRibStatistics.stream()
+                .filter(BmpRibStatistics::isInUse)
+                .collect(Collectors.toList());
+        if (ribs.isEmpty()) {
+            return rollup.get();
+        }
+        return ribs.stream()
+                .flatMap(statistics -> counters.apply(statistics).stream())
+                .collect(Collectors.toList());
+    }
+
     private void updateGlobalRibsAndAsnInfo() {
         LOG.debug("Updating GlobalRibs ++");
         setShouldDeleteForExisting();
@@ -238,7 +262,7 @@ public class BmpStatsAggregator {
     private void updatePeerStats() {
 
         LOG.debug("Updating StatsByPeer ++");
-        List<StatsByPeer> statsByPeer = bmpIpRibLogDao.getStatsByPeerForInterval("'5 min'");
+        List<StatsByPeer> statsByPeer = fromRib(BmpRibStatistics::drainStatsByPeer, () -> bmpIpRibLogDao.getStatsByPeerForInterval("'5 min'"));
         LOG.debug("Retrieved {} StatsByPeer elements", statsByPeer.size());
 
         statsByPeer.forEach(stat -> {
@@ -270,7 +294,7 @@ public class BmpStatsAggregator {
 
     private void updateStatsByAsn() {
         LOG.debug("Updating StatsByAsn ++");
-        List<StatsByAsn> statsByAsnList = bmpIpRibLogDao.getStatsByAsnForInterval("'5 min'");
+        List<StatsByAsn> statsByAsnList = fromRib(BmpRibStatistics::drainStatsByAsn, () -> bmpIpRibLogDao.getStatsByAsnForInterval("'5 min'"));
         LOG.debug("Retrieved {} StatsByAsn elements", statsByAsnList.size());
 
         statsByAsnList.forEach(stat -> {
@@ -300,7 +324,7 @@ public class BmpStatsAggregator {
 
     private void updateStatsByPrefix() {
         LOG.debug("Updating StatsByPrefix ++");
-        List<StatsByPrefix> statsByPrefixList = bmpIpRibLogDao.getStatsByPrefixForInterval("'5 min'");
+        List<StatsByPrefix> statsByPrefixList = fromRib(BmpRibStatistics::drainStatsByPrefix, () -> bmpIpRibLogDao.getStatsByPrefixForInterval("'5 min'"));
         LOG.debug("Retrieved {} StatsByPrefix elements", statsByPrefixList.size());
 
         statsByPrefixList.forEach(stat -> {
@@ -462,4 +486,8 @@ public class BmpStatsAggregator {
     public void setSessionUtils(SessionUtils sessionUtils) {
         this.sessionUtils = sessionUtils;
     }
+
+    public void setBmpRibStatistics(List<BmpRibStatistics> bmpRibStatistics) {
+        this.bmpRibStatistics = bmpRibStatistics;
+    }
 }
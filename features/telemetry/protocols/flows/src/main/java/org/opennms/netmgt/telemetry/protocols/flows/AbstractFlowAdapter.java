@@ -77,6 +77,8 @@ public abstract class AbstractFlowAdapter<P> implements Adapter {
 
     private boolean applicationThresholding;
     private boolean applicationDataCollection;
+    private int applicationTopK = 0;
+    private double applicationErrorBound = 0.001;
 
     private final List<? extends PackageDefinition> packages;
 
@@ -132,6 +134,8 @@ public abstract class AbstractFlowAdapter<P> implements Adapter {
             this.pipeline.process(flows, source, ProcessingOptions.builder()
                                                                   .setApplicationThresholding(this.applicationThresholding)
                                                                   .setApplicationDataCollection(this.applicationDataCollection)
+                                                                  .setApplicationTopK(this.applicationTopK)
+                                                                  .setApplicationErrorBound(this.applicationErrorBound)
                                                                   .setPackages(this.packages)
                                                                   .build());
         } catch (DetailedFlowException ex) {
@@ -187,4 +191,20 @@ public abstract class AbstractFlowAdapter<P> implements Adapter {
     public void setApplicationDataCollection(final boolean applicationDataCollection) {
         this.applicationDataCollection = applicationDataCollection;
     }
+
+    public int getApplicationTopK() {
+        return this.applicationTopK;
+    }
+
+    public void setApplicationTopK(final int applicationTopK) {
+        this.applicationTopK = applicationTopK;
+    }
+
+    public double getApplicationErrorBound() {
+        return this.applicationErrorBound;
+    }
+
+    public void setApplicationErrorBound(final double applicationErrorBound) {
+        this.applicationErrorBound = applicationErrorBound;
+    }
 }
@@ -24,10 +24,14 @@ package org.opennms.netmgt.telemetry.protocols.graphite.adapter;
 import com.codahale.metrics.MetricRegistry;
 import java.net.InetAddress;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import javax.script.ScriptException;
 import org.opennms.core.utils.InetAddressUtils;
@@ -38,6 +42,7 @@ import org.opennms.netmgt.collection.api.CollectionAgentFactory;
 import org.opennms.netmgt.collection.api.CollectionSet;
 import org.opennms.netmgt.collection.dto.CollectionAgentDTO;
 import org.opennms.netmgt.collection.dto.CollectionSetDTO;
+import org.opennms.netmgt.collection.support.builder.CollectionSetBuilder;
 import org.opennms.netmgt.dao.api.InterfaceToNodeCache;
 import org.opennms.netmgt.dao.api.NodeDao;
 import org.opennms.netmgt.telemetry.api.adapter.TelemetryMessageLog;
@@ -48,19 +53,37 @@ import org.opennms.netmgt.telemetry.protocols.collection.CollectionSetWithAgent;
 import org.opennms.netmgt.telemetry.protocols.collection.ScriptedCollectionSetBuilder;
 
 public class GraphiteAdapter extends AbstractScriptedCollectionAdapter {
+    public static final String PROTOCOL_AUTO = "auto";
+    public static final String PROTOCOL_PLAINTEXT = "plaintext";
+    public static final String PROTOCOL_PICKLE = "pickle";
+
+    // Batches of nodes which did not send any metrics for this long are persisted
+    private static final long BATCH_IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
+
     private CollectionAgentFactory collectionAgentFactory;
     private InterfaceToNodeCache interfaceToNodeCache;
     private NodeDao nodeDao;
 
+    private String protocol = PROTOCOL_AUTO;
+    private boolean batch = false;
+    private long batchWindow = 0;
+
+    private final GraphiteBatches batches = new GraphiteBatches(BATCH_IDLE_TIMEOUT_MS);
+    private volatile ScheduledExecutorService batchFlusher;
+
     public GraphiteAdapter(final AdapterDefinition adapterConfig, final MetricRegistry metricRegistry) {
         super(adapterConfig, metricRegistry);
     }
 
     @Override
     public Stream<CollectionSetWithAgent> handleCollectionMessage(final TelemetryMessageLogEntry message, final TelemetryMessageLog messageLog) {
-        final String messageText = new String(message.getByteArray());
-        LOG.trace("plaintext message: {}", messageText);
-        final String[] lines = messageText.split("\n");
+        final List<GraphiteMetric> metrics;
+        try {
+            metrics = decode(message.getByteArray());
+        } catch (final IllegalArgumentException e) {
+            LOG.warn("Dropping message, unable to decode graphite {} message.", this.protocol, e);
+            return Stream.empty();
+        }
 
         CollectionAgent agent = null;
         try {
@@ -86,54 +109,184 @@ public class GraphiteAdapter extends AbstractScriptedCollectionAdapter {
             return Stream.empty();
         }
 
+        if (this.batch) {
+            return buildBatches(builder, agent, metrics);
+        }
+
         final List<CollectionSetWithAgent> collectionSets = new ArrayList<>();
 
-        for (final String line : lines) {
-            final String[] entry = line.split(" ", 3);
-            if (entry.length != 3) {
-                LOG.warn("Unparseable graphite plaintext message: {}", line);
-            } else {
-                try {
-                    final GraphiteMetric metric = new GraphiteMetric(entry[0], entry[1], Long.valueOf(entry[2], 10));
-
-                    // Pass in this agentList. If script adds a CollectionAgent to this list, we use it instead of the
-                    // one created above. Can be used to change the node that this CollectionSet is associated with
-                    // Also pass in a CollectionAgentFactory and NodeDao which may be used by the script to
-                    // create a modified CollectionAgent
-                    var agentList = new ArrayList<CollectionAgent>();
-                    var props = new HashMap<String, Object>();
-                    props.put("agentList", agentList);
-                    props.put("collectionAgentFactory", collectionAgentFactory);
-                    props.put("nodeDao", nodeDao);
-
-                    final CollectionSet collectionSet = builder.build(agent, metric, metric.getTimestamp(), props);
-
-                    CollectionAgent agentToUse = agentList.isEmpty() ? agent : agentList.get(0);
-
-                    if (!agentList.isEmpty()) {
-                        LOG.trace("Graphite: node modified by script, nodeId now: {}", agentToUse.getNodeId());
-
-                        // Need to use underlying object type instead of CollectionSet as
-                        // CollectionSet does not allow modification of the CollectionAgent
-                        if (collectionSet instanceof SnmpCollectionSet &&
-                            agentToUse instanceof SnmpCollectionAgent) {
-                            ((SnmpCollectionSet) collectionSet).setCollectionAgent((SnmpCollectionAgent) agentToUse);
-                        } else if (collectionSet instanceof CollectionSetDTO) {
-                            CollectionAgentDTO agentDto = new CollectionAgentDTO(agentToUse);
-                            ((CollectionSetDTO) collectionSet).setCollectionAgent(agentDto);
-                        }
-                    }
+        for (final GraphiteMetric metric : metrics) {
+            try {
+                // Pass in this agentList. If script adds a CollectionAgent to this list, we use it instead of the
+                // one created above. Can be used to change the node that this CollectionSet is associated with
+                // Also pass in a CollectionAgentFactory and NodeDao which may be used by the script to
+                // create a modified CollectionAgent
+                var agentList = new ArrayList<CollectionAgent>();
+                var props = createProperties(agentList);
+
+                final CollectionSet collectionSet = builder.build(agent, metric, metric.getTimestamp(), props);
+
+                CollectionAgent agentToUse = agentList.isEmpty() ? agent : agentList.get(0);
 
-                    collectionSets.add(new CollectionSetWithAgent(agentToUse, collectionSet));
-                } catch (final NumberFormatException | ScriptException e) {
-                    LOG.warn("Dropping metric, unable to create collection set: {}", Arrays.asList(entry), e);
+                if (!agentList.isEmpty()) {
+                    LOG.trace("Graphite: node modified by script, nodeId now: {}", agentToUse.getNodeId());
+
+                    // Need to use underlying object type instead of CollectionSet as
+                    // CollectionSet does not allow modification of the CollectionAgent
+                    if (collectionSet instanceof SnmpCollectionSet &&
+                        agentToUse instanceof SnmpCollectionAgent) {
+                        ((SnmpCollectionSet) collectionSet).setCollectionAgent((SnmpCollectionAgent) agentToUse);
+                    } else if (collectionSet instanceof CollectionSetDTO) {
+                        CollectionAgentDTO agentDto = new CollectionAgentDTO(agentToUse);
+                        ((CollectionSetDTO) collectionSet).setCollectionAgent(agentDto);
+                    }
                 }
+
+                collectionSets.add(new CollectionSetWithAgent(agentToUse, collectionSet));
+            } catch (final NumberFormatException | ScriptException e) {
+                LOG.warn("Dropping metric, unable to create collection set: {}", metric, e);
             }
         }
 
         return collectionSets.stream();
     }
 
+    /**
+     * Adds the metrics to the pending batch of their node and time window, and returns the collection sets of the
+     * batches completed by this.
+     */
+    private Stream<CollectionSetWithAgent> buildBatches(final ScriptedCollectionSetBuilder builder, final CollectionAgent agent, final List<GraphiteMetric> metrics) {
+        this.startBatchFlusher();
+
+        final long now = System.currentTimeMillis();
+        final List<CollectionSetWithAgent> completed = new ArrayList<>();
+        for (final GraphiteMetric metric : metrics) {
+            try {
+                var agentList = new ArrayList<CollectionAgent>();
+                var props = createProperties(agentList);
+
+                // Let the script work on a scratch builder, as we only know the node the metric belongs to once the
+                // script has run
+                final CollectionSetBuilder metricBuilder = new CollectionSetBuilder(agent);
+                builder.populate(metricBuilder, agent, metric, props);
+
+                final CollectionAgent agentToUse = agentList.isEmpty() ? agent : agentList.get(0);
+                final long window = this.batchWindow > 0
+                        ? metric.getTimestamp() - Math.floorMod(metric.getTimestamp(), this.batchWindow)
+                        : metric.getTimestamp();
+
+                completed.addAll(this.batches.add(agentToUse, window, metricBuilder, now));
+            } catch (final NumberFormatException | ScriptException e) {
+                LOG.warn("Dropping metric, unable to create collection set: {}", metric, e);
+            }
+        }
+
+        LOG.trace("Graphite: batched {} metrics, completing {} collection sets", metrics.size(), completed.size());
+        return completed.stream();
+    }
+
+    private void startBatchFlusher() {
+        if (this.batchFlusher != null) {
+            return;
+        }
+
+        synchronized (this) {
+            if (this.batchFlusher == null) {
+                final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final Thread thread = new Thread(runnable, "graphite-batch-flusher-" + this.adapterConfig.getName());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                flusher.scheduleWithFixedDelay(this::flushIdleBatches, BATCH_IDLE_TIMEOUT_MS / 2, BATCH_IDLE_TIMEOUT_MS / 2, TimeUnit.MILLISECONDS);
+                this.batchFlusher = flusher;
+            }
+        }
+    }
+
+    private void flushIdleBatches() {
+        try {
+            this.persist(this.batches.completeIdle(System.currentTimeMillis()).stream(), "idle graphite batches");
+        } catch (final RuntimeException e) {
+            LOG.warn("Failed to persist idle graphite batches.", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (this.batchFlusher != null) {
+            this.batchFlusher.shutdown();
+        }
+        this.persist(this.batches.completeAll().stream(), "pending graphite batches");
+
+        super.destroy();
+    }
+
+    private Map<String, Object> createProperties(final List<CollectionAgent> agentList) {
+        final Map<String, Object> props = new HashMap<>();
+        props.put("agentList", agentList);
+        props.put("collectionAgentFactory", collectionAgentFactory);
+        props.put("nodeDao", nodeDao);
+        return props;
+    }
+
+    private List<GraphiteMetric> decode(final byte[] bytes) {
+        final List<GraphiteMetric> metrics = new ArrayList<>();
+        final boolean pickle;
+        switch (this.protocol) {
+            case PROTOCOL_PLAINTEXT:
+                pickle = false;
+                break;
+            case PROTOCOL_PICKLE:
+                pickle = true;
+                break;
+            default:
+                pickle = GraphitePickleDecoder.isPickle(bytes);
+        }
+
+        if (pickle) {
+            GraphitePickleDecoder.decode(bytes, metrics::add);
+        } else {
+            GraphitePlaintextDecoder.decode(bytes, metrics::add);
+        }
+        LOG.trace("Decoded {} metrics from {} message", metrics.size(), pickle ? PROTOCOL_PICKLE : PROTOCOL_PLAINTEXT);
+        return metrics;
+    }
+
+    public String getProtocol() {
+        return this.protocol;
+    }
+
+    public void setProtocol(final String protocol) {
+        switch (Objects.requireNonNull(protocol)) {
+            case PROTOCOL_AUTO:
+            case PROTOCOL_PLAINTEXT:
+            case PROTOCOL_PICKLE:
+                this.protocol = protocol;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported graphite protocol: " + protocol);
+        }
+    }
+
+    public boolean isBatch() {
+        return this.batch;
+    }
+
+    public void setBatch(final boolean batch) {
+        this.batch = batch;
+    }
+
+    public long getBatchWindow() {
+        return this.batchWindow;
+    }
+
+    public void setBatchWindow(final long batchWindow) {
+        if (batchWindow < 0) {
+            throw new IllegalArgumentException("batchWindow must not be negative");
+        }
+        this.batchWindow = batchWindow;
+    }
+
     public void setCollectionAgentFactory(final CollectionAgentFactory collectionAgentFactory) {
         this.collectionAgentFactory = collectionAgentFactory;
     }
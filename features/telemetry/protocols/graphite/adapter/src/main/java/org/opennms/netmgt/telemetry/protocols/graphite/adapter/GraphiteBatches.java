@@ -0,0 +1,123 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.graphite.adapter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.opennms.netmgt.collection.api.CollectionAgent;
+import org.opennms.netmgt.collection.support.builder.CollectionSetBuilder;
+import org.opennms.netmgt.telemetry.protocols.collection.CollectionSetWithAgent;
+
+/**
+ * Collects the attributes of the metrics of each node and time window across messages.
+ *
+ * Graphite senders spread the metrics of an interval over many messages, so a window is only complete once the node
+ * sends metrics of a later window, or nothing at all for the idle timeout. Metrics arriving for a window which has
+ * already been completed end up in a collection set of their own.
+ */
+final class GraphiteBatches {
+
+    private final long idleTimeoutMs;
+
+    // Nodes are never removed, so a node is not lost while metrics are added to it
+    private final Map<Integer, NodeBatches> nodes = new ConcurrentHashMap<>();
+
+    GraphiteBatches(final long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    /**
+     * Adds the attributes of a metric to the batch of its node and window.
+     *
+     * @return the collection sets of all windows of the node completed by this
+     */
+    List<CollectionSetWithAgent> add(final CollectionAgent agent, final long window, final CollectionSetBuilder attributes, final long now) {
+        return this.nodes.computeIfAbsent(agent.getNodeId(), nodeId -> new NodeBatches())
+                .add(agent, window, attributes, now);
+    }
+
+    /**
+     * Completes all windows of the nodes which did not send anything for the idle timeout.
+     */
+    List<CollectionSetWithAgent> completeIdle(final long now) {
+        final List<CollectionSetWithAgent> completed = new ArrayList<>();
+        for (final NodeBatches node : this.nodes.values()) {
+            node.completeIdle(now - this.idleTimeoutMs, completed);
+        }
+        return completed;
+    }
+
+    /**
+     * Completes all windows.
+     */
+    List<CollectionSetWithAgent> completeAll() {
+        return this.completeIdle(Long.MAX_VALUE);
+    }
+
+    private static final class NodeBatches {
+        private final TreeMap<Long, Batch> windows = new TreeMap<>();
+        private long updatedAt;
+
+        private synchronized List<CollectionSetWithAgent> add(final CollectionAgent agent, final long window, final CollectionSetBuilder attributes, final long now) {
+            this.windows.computeIfAbsent(window, w -> new Batch(agent, w)).builder.withAttributesFrom(attributes);
+            this.updatedAt = now;
+
+            // The node moved on to the latest window, so all earlier ones are complete
+            final List<CollectionSetWithAgent> completed = new ArrayList<>();
+            complete(this.windows.headMap(this.windows.lastKey(), false), completed);
+            return completed;
+        }
+
+        private synchronized void completeIdle(final long idleBefore, final List<CollectionSetWithAgent> completed) {
+            if (this.updatedAt < idleBefore) {
+                complete(this.windows, completed);
+            }
+        }
+
+        private static void complete(final Map<Long, Batch> windows, final List<CollectionSetWithAgent> completed) {
+            for (final Batch batch : windows.values()) {
+                if (batch.builder.getNumAttributes() > 0) {
+                    completed.add(new CollectionSetWithAgent(batch.agent, batch.builder.build()));
+                }
+            }
+            windows.clear();
+        }
+    }
+
+    private static final class Batch {
+        private final CollectionAgent agent;
+        private final CollectionSetBuilder builder;
+
+        private Batch(final CollectionAgent agent, final long timestamp) {
+            this.agent = agent;
+            this.builder = new CollectionSetBuilder(agent);
+            if (timestamp > 0) {
+                this.builder.withTimestamp(new Date(timestamp));
+            }
+        }
+    }
+}
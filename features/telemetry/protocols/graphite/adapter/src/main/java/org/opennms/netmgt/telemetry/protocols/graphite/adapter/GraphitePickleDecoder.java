@@ -0,0 +1,480 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.graphite.adapter;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Decodes metrics sent using the Graphite pickle protocol.
+ *
+ * A pickle message is a list of {@code (path, (timestamp, value))} tuples,
+ * serialized with Python's pickle module and preceded by a 4-byte big-endian
+ * length header. Multiple messages may be concatenated in a single buffer.
+ *
+ * Only the subset of opcodes required to represent lists, tuples, strings and
+ * numbers is supported. Opcodes that would instantiate arbitrary objects, such
+ * as {@code GLOBAL} or {@code REDUCE}, are rejected.
+ */
+public final class GraphitePickleDecoder {
+
+    private static final int HEADER_LENGTH = 4;
+
+    private static final byte PROTO = (byte) 0x80;
+
+    private GraphitePickleDecoder() {
+    }
+
+    /**
+     * Heuristically checks whether the given buffer contains a pickle message.
+     *
+     * @param buffer the received message
+     * @return true if the buffer starts with a length header that matches a pickled payload
+     */
+    public static boolean isPickle(final byte[] buffer) {
+        if (buffer.length > HEADER_LENGTH) {
+            final long length = readLength(buffer, 0);
+            if (length > 0 && length <= buffer.length - HEADER_LENGTH) {
+                final byte first = buffer[HEADER_LENGTH];
+                return first == PROTO || first == '(' || first == ']' || first == 'l';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decodes all length-prefixed pickle messages contained in the given buffer.
+     *
+     * @param buffer the received message
+     * @param consumer receives every decoded metric, in order
+     * @return the number of metrics decoded
+     * @throws IllegalArgumentException if the buffer is truncated or not a valid pickle message
+     */
+    public static int decode(final byte[] buffer, final Consumer<GraphiteMetric> consumer) {
+        int count = 0;
+        int offset = 0;
+        while (offset < buffer.length) {
+            if (buffer.length - offset < HEADER_LENGTH) {
+                throw new IllegalArgumentException("Truncated pickle header at offset " + offset);
+            }
+            final long length = readLength(buffer, offset);
+            offset += HEADER_LENGTH;
+            if (length > buffer.length - offset) {
+                throw new IllegalArgumentException("Truncated pickle payload at offset " + offset + ": expected " + length + " bytes");
+            }
+            count += decodePayload(buffer, offset, (int) length, consumer);
+            offset += (int) length;
+        }
+        return count;
+    }
+
+    /**
+     * Decodes a single pickle payload, without the length header.
+     */
+    public static int decodePayload(final byte[] buffer, final int offset, final int length, final Consumer<GraphiteMetric> consumer) {
+        final Object value = new Unpickler(buffer, offset, offset + length).load();
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Expected a list of metrics, got: " + describe(value));
+        }
+
+        int count = 0;
+        for (final Object entry : (List<?>) value) {
+            consumer.accept(toMetric(entry));
+            count++;
+        }
+        return count;
+    }
+
+    private static GraphiteMetric toMetric(final Object entry) {
+        if (entry instanceof List && ((List<?>) entry).size() == 2) {
+            final Object path = ((List<?>) entry).get(0);
+            final Object datapoint = ((List<?>) entry).get(1);
+            if (path instanceof String && datapoint instanceof List && ((List<?>) datapoint).size() == 2) {
+                final Object timestamp = ((List<?>) datapoint).get(0);
+                final Object value = ((List<?>) datapoint).get(1);
+                if (timestamp instanceof Number && value instanceof Number) {
+                    return new GraphiteMetric((String) path, formatValue((Number) value), ((Number) timestamp).longValue());
+                }
+            }
+        }
+        throw new IllegalArgumentException("Expected a (path, (timestamp, value)) tuple, got: " + describe(entry));
+    }
+
+    /**
+     * Renders integral values without a fraction so they can still be consumed with {@link GraphiteMetric#longValue()}.
+     */
+    private static String formatValue(final Number value) {
+        if (value instanceof Double) {
+            final double d = value.doubleValue();
+            if (d == Math.rint(d) && Math.abs(d) < 0x1p63) {
+                return Long.toString((long) d);
+            }
+        }
+        return value.toString();
+    }
+
+    private static long readLength(final byte[] buffer, final int offset) {
+        return ((buffer[offset] & 0xFFL) << 24)
+                | ((buffer[offset + 1] & 0xFFL) << 16)
+                | ((buffer[offset + 2] & 0xFFL) << 8)
+                | (buffer[offset + 3] & 0xFFL);
+    }
+
+    private static String describe(final Object value) {
+        return value == null ? "None" : value.getClass().getSimpleName() + " " + value;
+    }
+
+    /**
+     * A minimal pickle virtual machine.
+     *
+     * Tuples and lists are both represented as {@link List}s, byte strings are
+     * decoded as UTF-8.
+     */
+    private static final class Unpickler {
+        private static final Object MARK = new Object();
+
+        private final byte[] buffer;
+        private final int end;
+        private int position;
+
+        private final List<Object> stack = new ArrayList<>();
+        private final List<Integer> marks = new ArrayList<>();
+        private final Map<Integer, Object> memo = new HashMap<>();
+
+        private Unpickler(final byte[] buffer, final int offset, final int end) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.end = end;
+        }
+
+        private Object load() {
+            while (true) {
+                final int opcode = readUnsignedByte();
+                switch (opcode) {
+                    case 0x80: // PROTO
+                        readUnsignedByte();
+                        break;
+                    case 0x95: // FRAME
+                        skip(8);
+                        break;
+                    case '.': // STOP
+                        if (stack.size() != 1) {
+                            throw new IllegalArgumentException("Invalid stack size on STOP: " + stack.size());
+                        }
+                        return stack.get(0);
+
+                    case '(': // MARK
+                        marks.add(stack.size());
+                        break;
+                    case '0': // POP
+                        pop();
+                        break;
+                    case '1': // POP_MARK
+                        popMark();
+                        break;
+                    case '2': // DUP
+                        push(peek());
+                        break;
+
+                    case 'N': // NONE
+                        push(null);
+                        break;
+                    case 0x88: // NEWTRUE
+                        push(Boolean.TRUE);
+                        break;
+                    case 0x89: // NEWFALSE
+                        push(Boolean.FALSE);
+                        break;
+
+                    case 'I': { // INT
+                        final String line = readLine();
+                        if ("00".equals(line)) {
+                            push(Boolean.FALSE);
+                        } else if ("01".equals(line)) {
+                            push(Boolean.TRUE);
+                        } else {
+                            push(narrow(new BigInteger(line)));
+                        }
+                        break;
+                    }
+                    case 'L': { // LONG
+                        final String line = readLine();
+                        push(narrow(new BigInteger(line.endsWith("L") ? line.substring(0, line.length() - 1) : line)));
+                        break;
+                    }
+                    case 'J': // BININT
+                        push((long) readIntLE(4));
+                        break;
+                    case 'K': // BININT1
+                        push((long) readUnsignedByte());
+                        break;
+                    case 'M': // BININT2
+                        push((long) (readUnsignedByte() | readUnsignedByte() << 8));
+                        break;
+                    case 0x8a: // LONG1
+                        push(readLong(readUnsignedByte()));
+                        break;
+                    case 0x8b: // LONG4
+                        push(readLong(checkedLength(readIntLE(4))));
+                        break;
+                    case 'F': // FLOAT
+                        push(Double.valueOf(readLine()));
+                        break;
+                    case 'G': // BINFLOAT
+                        push(Double.longBitsToDouble(readLongBE()));
+                        break;
+
+                    case 'S': // STRING
+                        push(unquote(readLine()));
+                        break;
+                    case 'V': // UNICODE
+                        push(readLine());
+                        break;
+                    case 'T': // BINSTRING
+                    case 'B': // BINBYTES
+                    case 'X': // BINUNICODE
+                        push(readString(checkedLength(readIntLE(4))));
+                        break;
+                    case 'U': // SHORT_BINSTRING
+                    case 'C': // SHORT_BINBYTES
+                    case 0x8c: // SHORT_BINUNICODE
+                        push(readString(readUnsignedByte()));
+                        break;
+                    case 0x8d: // BINUNICODE8
+                    case 0x8e: // BINBYTES8
+                        push(readString(checkedLength(readLongLE())));
+                        break;
+
+                    case ']': // EMPTY_LIST
+                        push(new ArrayList<>());
+                        break;
+                    case 'l': // LIST
+                        push(new ArrayList<>(popMark()));
+                        break;
+                    case 'a': { // APPEND
+                        final Object value = pop();
+                        asList(peek()).add(value);
+                        break;
+                    }
+                    case 'e': { // APPENDS
+                        final List<Object> values = popMark();
+                        asList(peek()).addAll(values);
+                        break;
+                    }
+                    case ')': // EMPTY_TUPLE
+                        push(Arrays.asList());
+                        break;
+                    case 't': // TUPLE
+                        push(Arrays.asList(popMark().toArray()));
+                        break;
+                    case 0x85: // TUPLE1
+                        push(Arrays.asList(pop()));
+                        break;
+                    case 0x86: { // TUPLE2
+                        final Object second = pop();
+                        final Object first = pop();
+                        push(Arrays.asList(first, second));
+                        break;
+                    }
+                    case 0x87: { // TUPLE3
+                        final Object third = pop();
+                        final Object second = pop();
+                        final Object first = pop();
+                        push(Arrays.asList(first, second, third));
+                        break;
+                    }
+
+                    case 'p': // PUT
+                        memo.put(Integer.valueOf(readLine()), peek());
+                        break;
+                    case 'q': // BINPUT
+                        memo.put(readUnsignedByte(), peek());
+                        break;
+                    case 'r': // LONG_BINPUT
+                        memo.put(readIntLE(4), peek());
+                        break;
+                    case 0x94: // MEMOIZE
+                        memo.put(memo.size(), peek());
+                        break;
+                    case 'g': // GET
+                        push(recall(Integer.valueOf(readLine())));
+                        break;
+                    case 'h': // BINGET
+                        push(recall(readUnsignedByte()));
+                        break;
+                    case 'j': // LONG_BINGET
+                        push(recall(readIntLE(4)));
+                        break;
+
+                    default:
+                        throw new IllegalArgumentException(String.format("Unsupported pickle opcode 0x%02x at offset %d", opcode, position - 1));
+                }
+            }
+        }
+
+        private void push(final Object value) {
+            stack.add(value);
+        }
+
+        private Object pop() {
+            if (stack.isEmpty() || (!marks.isEmpty() && marks.get(marks.size() - 1) == stack.size())) {
+                throw new IllegalArgumentException("Stack underflow at offset " + position);
+            }
+            return stack.remove(stack.size() - 1);
+        }
+
+        private Object peek() {
+            if (stack.isEmpty()) {
+                throw new IllegalArgumentException("Stack underflow at offset " + position);
+            }
+            return stack.get(stack.size() - 1);
+        }
+
+        private List<Object> popMark() {
+            if (marks.isEmpty()) {
+                throw new IllegalArgumentException("Missing mark at offset " + position);
+            }
+            final int mark = marks.remove(marks.size() - 1);
+            final List<Object> items = new ArrayList<>(stack.subList(mark, stack.size()));
+            stack.subList(mark, stack.size()).clear();
+            return items;
+        }
+
+        private Object recall(final int key) {
+            if (!memo.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown memo key " + key + " at offset " + position);
+            }
+            return memo.get(key);
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<Object> asList(final Object value) {
+            if (!(value instanceof ArrayList)) {
+                throw new IllegalArgumentException("Expected a list at offset " + position + ", got: " + describe(value));
+            }
+            return (List<Object>) value;
+        }
+
+        private void ensure(final long count) {
+            if (count > end - position) {
+                throw new IllegalArgumentException("Truncated pickle payload at offset " + position);
+            }
+        }
+
+        private void skip(final int count) {
+            ensure(count);
+            position += count;
+        }
+
+        private int readUnsignedByte() {
+            ensure(1);
+            return buffer[position++] & 0xFF;
+        }
+
+        private int readIntLE(final int count) {
+            ensure(count);
+            int result = 0;
+            for (int i = 0; i < count; i++) {
+                result |= (buffer[position++] & 0xFF) << (8 * i);
+            }
+            return result;
+        }
+
+        private long readLongLE() {
+            ensure(8);
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result |= (buffer[position++] & 0xFFL) << (8 * i);
+            }
+            return result;
+        }
+
+        private long readLongBE() {
+            ensure(8);
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result = (result << 8) | (buffer[position++] & 0xFFL);
+            }
+            return result;
+        }
+
+        private int checkedLength(final long length) {
+            if (length < 0) {
+                throw new IllegalArgumentException("Negative length at offset " + position);
+            }
+            ensure(length);
+            return (int) length;
+        }
+
+        private Number readLong(final int count) {
+            ensure(count);
+            if (count == 0) {
+                return 0L;
+            }
+            // Two's complement, little-endian
+            final byte[] bigEndian = new byte[count];
+            for (int i = 0; i < count; i++) {
+                bigEndian[count - 1 - i] = buffer[position + i];
+            }
+            position += count;
+            return narrow(new BigInteger(bigEndian));
+        }
+
+        private String readString(final int count) {
+            ensure(count);
+            final String value = new String(buffer, position, count, StandardCharsets.UTF_8);
+            position += count;
+            return value;
+        }
+
+        private String readLine() {
+            final int start = position;
+            while (position < end && buffer[position] != '\n') {
+                position++;
+            }
+            if (position == end) {
+                throw new IllegalArgumentException("Unterminated line at offset " + start);
+            }
+            return new String(buffer, start, position++ - start, StandardCharsets.UTF_8);
+        }
+
+        private static Number narrow(final BigInteger value) {
+            return value.bitLength() < 64 ? (Number) value.longValue() : value;
+        }
+
+        private static String unquote(final String value) {
+            if (value.length() >= 2) {
+                final char quote = value.charAt(0);
+                if ((quote == '\'' || quote == '"') && value.charAt(value.length() - 1) == quote) {
+                    return value.substring(1, value.length() - 1);
+                }
+            }
+            throw new IllegalArgumentException("Invalid quoted string: " + value);
+        }
+    }
+}
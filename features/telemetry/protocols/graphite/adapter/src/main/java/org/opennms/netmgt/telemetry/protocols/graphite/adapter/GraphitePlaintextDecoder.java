@@ -0,0 +1,177 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.graphite.adapter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decodes metrics sent using the Graphite plaintext protocol.
+ *
+ * Every line has the form {@code <path> <value> <timestamp>}. Lines are
+ * scanned in place on the received buffer: the message is never copied or
+ * split and the timestamp is parsed directly from the bytes, so the only
+ * allocations left are the path and value of the resulting metric.
+ */
+public final class GraphitePlaintextDecoder {
+    private static final Logger LOG = LoggerFactory.getLogger(GraphitePlaintextDecoder.class);
+
+    private GraphitePlaintextDecoder() {
+    }
+
+    /**
+     * Decodes all lines in the given buffer.
+     *
+     * Unparseable lines are logged and skipped.
+     *
+     * @param buffer the received message
+     * @param consumer receives every decoded metric, in order
+     * @return the number of metrics decoded
+     */
+    public static int decode(final byte[] buffer, final Consumer<GraphiteMetric> consumer) {
+        return decode(buffer, 0, buffer.length, consumer);
+    }
+
+    public static int decode(final byte[] buffer, final int offset, final int length, final Consumer<GraphiteMetric> consumer) {
+        final int end = offset + length;
+        int count = 0;
+
+        int lineStart = offset;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && buffer[lineEnd] != '\n') {
+                lineEnd++;
+            }
+
+            final GraphiteMetric metric = decodeLine(buffer, lineStart, lineEnd);
+            if (metric != null) {
+                consumer.accept(metric);
+                count++;
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        return count;
+    }
+
+    private static GraphiteMetric decodeLine(final byte[] buffer, final int start, int end) {
+        // Tolerate CRLF line endings
+        if (end > start && buffer[end - 1] == '\r') {
+            end--;
+        }
+
+        // Locate the three whitespace separated fields
+        final int pathStart = skipWhitespace(buffer, start, end);
+        if (pathStart == end) {
+            // Blank line
+            return null;
+        }
+        final int pathEnd = skipField(buffer, pathStart, end);
+        final int valueStart = skipWhitespace(buffer, pathEnd, end);
+        final int valueEnd = skipField(buffer, valueStart, end);
+        final int timestampStart = skipWhitespace(buffer, valueEnd, end);
+        final int timestampEnd = skipField(buffer, timestampStart, end);
+
+        if (valueStart == valueEnd || timestampStart == timestampEnd || skipWhitespace(buffer, timestampEnd, end) != end) {
+            LOG.warn("Unparseable graphite plaintext message: {}", new String(buffer, start, end - start, StandardCharsets.UTF_8));
+            return null;
+        }
+
+        final long timestamp;
+        try {
+            timestamp = parseLong(buffer, timestampStart, timestampEnd);
+        } catch (final NumberFormatException e) {
+            LOG.warn("Dropping metric, invalid timestamp: {}", new String(buffer, start, end - start, StandardCharsets.UTF_8));
+            return null;
+        }
+
+        return new GraphiteMetric(new String(buffer, pathStart, pathEnd - pathStart, StandardCharsets.UTF_8),
+                new String(buffer, valueStart, valueEnd - valueStart, StandardCharsets.US_ASCII),
+                timestamp);
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static int skipWhitespace(final byte[] buffer, int index, final int end) {
+        while (index < end && isWhitespace(buffer[index])) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipField(final byte[] buffer, int index, final int end) {
+        while (index < end && !isWhitespace(buffer[index])) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Parses a signed decimal number without going through a String.
+     *
+     * Some clients send fractional timestamps - the fraction is truncated.
+     */
+    static long parseLong(final byte[] buffer, final int start, final int end) {
+        int index = start;
+        boolean negative = false;
+        if (buffer[index] == '-') {
+            negative = true;
+            index++;
+        } else if (buffer[index] == '+') {
+            index++;
+        }
+
+        final int digitsStart = index;
+        long result = 0;
+        for (; index < end; index++) {
+            final byte b = buffer[index];
+            if (b == '.') {
+                // Only digits may follow the decimal point
+                for (int i = index + 1; i < end; i++) {
+                    if (buffer[i] < '0' || buffer[i] > '9') {
+                        throw new NumberFormatException("Invalid digit");
+                    }
+                }
+                break;
+            }
+            if (b < '0' || b > '9') {
+                throw new NumberFormatException("Invalid digit");
+            }
+            if (result > (Long.MAX_VALUE - (b - '0')) / 10) {
+                throw new NumberFormatException("Overflow");
+            }
+            result = result * 10 + (b - '0');
+        }
+
+        if (index == digitsStart) {
+            throw new NumberFormatException("No digits");
+        }
+
+        return negative ? -result : result;
+    }
+}
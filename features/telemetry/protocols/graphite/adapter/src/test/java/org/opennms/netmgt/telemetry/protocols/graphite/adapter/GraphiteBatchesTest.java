@@ -0,0 +1,118 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.graphite.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.opennms.netmgt.collection.api.CollectionAgent;
+import org.opennms.netmgt.collection.api.CollectionAttribute;
+import org.opennms.netmgt.collection.dto.CollectionAgentDTO;
+import org.opennms.netmgt.collection.support.AbstractCollectionSetVisitor;
+import org.opennms.netmgt.collection.support.builder.CollectionSetBuilder;
+import org.opennms.netmgt.collection.support.builder.NodeLevelResource;
+import org.opennms.netmgt.telemetry.protocols.collection.CollectionSetWithAgent;
+
+public class GraphiteBatchesTest {
+
+    private static final long IDLE_TIMEOUT_MS = 60_000;
+
+    private static CollectionAgent agent(final int nodeId) {
+        final CollectionAgentDTO agent = new CollectionAgentDTO();
+        agent.setNodeId(nodeId);
+        return agent;
+    }
+
+    private static CollectionSetBuilder metric(final CollectionAgent agent, final String name) {
+        return new CollectionSetBuilder(agent).withGauge(new NodeLevelResource(agent.getNodeId()), "graphite", name, 1);
+    }
+
+    private static int countAttributes(final CollectionSetWithAgent result) {
+        final int[] count = new int[1];
+        result.getCollectionSet().visit(new AbstractCollectionSetVisitor() {
+            @Override
+            public void visitAttribute(final CollectionAttribute attribute) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    @Test
+    public void combinesMetricsOfWindowAcrossMessages() {
+        final GraphiteBatches batches = new GraphiteBatches(IDLE_TIMEOUT_MS);
+        final CollectionAgent agent = agent(1);
+
+        // Metrics of one interval arrive in separate messages
+        assertTrue(batches.add(agent, 1000, metric(agent, "a"), 0).isEmpty());
+        assertTrue(batches.add(agent, 1000, metric(agent, "b"), 10).isEmpty());
+        assertTrue(batches.add(agent, 1000, metric(agent, "c"), 20).isEmpty());
+
+        // The next interval completes the previous one
+        final List<CollectionSetWithAgent> completed = batches.add(agent, 1010, metric(agent, "a"), 30);
+        assertEquals(1, completed.size());
+        assertEquals(3, countAttributes(completed.get(0)));
+        assertEquals(1000, completed.get(0).getCollectionSet().getCollectionTimestamp().getTime());
+
+        // Late metrics of a completed window are not held back
+        final List<CollectionSetWithAgent> late = batches.add(agent, 1000, metric(agent, "d"), 40);
+        assertEquals(1, late.size());
+        assertEquals(1, countAttributes(late.get(0)));
+    }
+
+    @Test
+    public void keepsNodesApart() {
+        final GraphiteBatches batches = new GraphiteBatches(IDLE_TIMEOUT_MS);
+        final CollectionAgent node1 = agent(1);
+        final CollectionAgent node2 = agent(2);
+
+        assertTrue(batches.add(node1, 1000, metric(node1, "a"), 0).isEmpty());
+        assertTrue(batches.add(node2, 1010, metric(node2, "a"), 0).isEmpty());
+        assertTrue(batches.add(node2, 1010, metric(node2, "b"), 0).isEmpty());
+
+        final List<CollectionSetWithAgent> completed = batches.completeAll();
+        assertEquals(2, completed.size());
+        for (final CollectionSetWithAgent result : completed) {
+            assertEquals(result.getAgent().getNodeId() == 1 ? 1 : 2, countAttributes(result));
+        }
+        assertTrue(batches.completeAll().isEmpty());
+    }
+
+    @Test
+    public void completesIdleNodes() {
+        final GraphiteBatches batches = new GraphiteBatches(IDLE_TIMEOUT_MS);
+        final CollectionAgent node1 = agent(1);
+        final CollectionAgent node2 = agent(2);
+
+        batches.add(node1, 1000, metric(node1, "a"), 0);
+        batches.add(node2, 1000, metric(node2, "a"), IDLE_TIMEOUT_MS);
+
+        assertTrue(batches.completeIdle(IDLE_TIMEOUT_MS).isEmpty());
+
+        final List<CollectionSetWithAgent> completed = batches.completeIdle(IDLE_TIMEOUT_MS + 1);
+        assertEquals(1, completed.size());
+        assertEquals(1, completed.get(0).getAgent().getNodeId());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.graphite.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class GraphiteDecoderTest {
+
+    @Test
+    public void canDecodePlaintext() {
+        final byte[] message = ("eth0.ifInOctets 1234 1700000000\n"
+                + "eth0.ifOutOctets\t56.5  1700000000.25\r\n"
+                + "\n"
+                + "not-a-metric\n"
+                + "eth0.ifSpeed 1000 bogus\n"
+                + "eth0.ifMtu 1500 1700000000").getBytes(StandardCharsets.UTF_8);
+
+        final List<GraphiteMetric> metrics = new ArrayList<>();
+        assertEquals(3, GraphitePlaintextDecoder.decode(message, metrics::add));
+        assertEquals(Arrays.asList(
+                new GraphiteMetric("eth0.ifInOctets", "1234", 1700000000L),
+                new GraphiteMetric("eth0.ifOutOctets", "56.5", 1700000000L),
+                new GraphiteMetric("eth0.ifMtu", "1500", 1700000000L)), metrics);
+        assertFalse(GraphitePickleDecoder.isPickle(message));
+    }
+
+    @Test
+    public void canDecodePickleProtocol2() {
+        // pickle.dumps([('eth0.ifInOctets', (1700000000, 1234)), ('eth0.ifOutOctets', (1700000000, 56.5))], protocol=2)
+        final byte[] message = withHeader(new int[] {
+                128, 2, 93, 113, 0, 40, 88, 15, 0, 0, 0, 101, 116, 104, 48, 46, 105, 102, 73, 110, 79, 99, 116, 101,
+                116, 115, 113, 1, 74, 0, 241, 83, 101, 77, 210, 4, 134, 113, 2, 134, 113, 3, 88, 16, 0, 0, 0, 101,
+                116, 104, 48, 46, 105, 102, 79, 117, 116, 79, 99, 116, 101, 116, 115, 113, 4, 74, 0, 241, 83, 101,
+                71, 64, 76, 64, 0, 0, 0, 0, 0, 134, 113, 5, 134, 113, 6, 101, 46});
+
+        assertTrue(GraphitePickleDecoder.isPickle(message));
+
+        final List<GraphiteMetric> metrics = new ArrayList<>();
+        assertEquals(2, GraphitePickleDecoder.decode(message, metrics::add));
+        assertEquals(Arrays.asList(
+                new GraphiteMetric("eth0.ifInOctets", "1234", 1700000000L),
+                new GraphiteMetric("eth0.ifOutOctets", "56.5", 1700000000L)), metrics);
+    }
+
+    @Test
+    public void canDecodeConcatenatedPickleProtocol0() {
+        // pickle.dumps([('eth0.ifInOctets', (1700000000, 1234))], protocol=0)
+        final byte[] payload = "(lp0\n(Veth0.ifInOctets\np1\n(I1700000000\nI1234\ntp2\ntp3\na.".getBytes(StandardCharsets.US_ASCII);
+        final byte[] single = withHeader(payload);
+        final byte[] message = ByteBuffer.allocate(single.length * 2).put(single).put(single).array();
+
+        assertTrue(GraphitePickleDecoder.isPickle(message));
+
+        final List<GraphiteMetric> metrics = new ArrayList<>();
+        assertEquals(2, GraphitePickleDecoder.decode(message, metrics::add));
+        assertEquals(Arrays.asList(
+                new GraphiteMetric("eth0.ifInOctets", "1234", 1700000000L),
+                new GraphiteMetric("eth0.ifInOctets", "1234", 1700000000L)), metrics);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsObjectConstruction() {
+        // pickle.dumps(os.system, protocol=0)
+        GraphitePickleDecoder.decode(withHeader("cposix\nsystem\np0\n.".getBytes(StandardCharsets.US_ASCII)), metric -> {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTruncatedPickle() {
+        final byte[] payload = "(lp0\n(Veth0.ifInOctets\np1\n".getBytes(StandardCharsets.US_ASCII);
+        GraphitePickleDecoder.decode(withHeader(payload), metric -> {});
+    }
+
+    private static byte[] withHeader(final int[] payload) {
+        final byte[] bytes = new byte[payload.length];
+        for (int i = 0; i < payload.length; i++) {
+            bytes[i] = (byte) payload[i];
+        }
+        return withHeader(bytes);
+    }
+
+    private static byte[] withHeader(final byte[] payload) {
+        return ByteBuffer.allocate(4 + payload.length).putInt(payload.length).put(payload).array();
+    }
+}
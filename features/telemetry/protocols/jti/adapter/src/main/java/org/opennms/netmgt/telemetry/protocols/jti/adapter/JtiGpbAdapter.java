@@ -26,11 +26,8 @@ import java.net.UnknownHostException;
 import java.util.Optional;
 import java.util.stream.Stream;
 
-import javax.script.ScriptException;
-
 import org.opennms.netmgt.collection.api.CollectionAgent;
 import org.opennms.netmgt.collection.api.CollectionAgentFactory;
-import org.opennms.netmgt.collection.api.CollectionSet;
 import org.opennms.netmgt.dao.api.InterfaceToNodeCache;
 import org.opennms.netmgt.dao.api.NodeDao;
 import org.opennms.netmgt.model.OnmsIpInterface;
@@ -40,7 +37,6 @@ import org.opennms.netmgt.telemetry.api.adapter.TelemetryMessageLogEntry;
 import org.opennms.netmgt.telemetry.config.api.AdapterDefinition;
 import org.opennms.netmgt.telemetry.protocols.collection.AbstractScriptedCollectionAdapter;
 import org.opennms.netmgt.telemetry.protocols.collection.CollectionSetWithAgent;
-import org.opennms.netmgt.telemetry.protocols.collection.ScriptedCollectionSetBuilder;
 import org.opennms.netmgt.telemetry.protocols.jti.adapter.proto.CpuMemoryUtilizationOuterClass;
 import org.opennms.netmgt.telemetry.protocols.jti.adapter.proto.FirewallOuterClass;
 import org.opennms.netmgt.telemetry.protocols.jti.adapter.proto.LogicalPortOuterClass;
@@ -56,6 +52,7 @@ import org.springframework.transaction.support.TransactionOperations;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Iterables;
+import com.google.protobuf.Descriptors;
 import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.InvalidProtocolBufferException;
 
@@ -63,7 +60,7 @@ import com.google.protobuf.InvalidProtocolBufferException;
  * An adapter for handling Junos Telemetry Interface packets.
  *
  * Messages are decoded using the corresponding classes generated by the Google
- * Protobuf definitions and forwarded to a script for further processing.
+ * Protobuf definitions and forwarded to a script or mapping for further processing.
  *
  * @author jwhite
  */
@@ -140,20 +137,17 @@ public class JtiGpbAdapter extends AbstractScriptedCollectionAdapter {
             return Stream.empty();
         }
 
-        final ScriptedCollectionSetBuilder builder = getCollectionBuilder();
-        if (builder == null) {
-            LOG.error("Error compiling script '{}'. See logs for details.", this.getScript());
-            return Stream.empty();
-        }
+        return buildCollectionSet(agent, jtiMsg, jtiMsg.getTimestamp());
+    }
 
-        try {
-            final CollectionSet collectionSet = builder.build(agent, jtiMsg, jtiMsg.getTimestamp());
-            return Stream.of(new CollectionSetWithAgent(agent, collectionSet));
+    @Override
+    protected Descriptors.Descriptor getMappingMessageType() {
+        return TelemetryTop.TelemetryStream.getDescriptor();
+    }
 
-        } catch (final ScriptException e) {
-            LOG.warn("Error while running script: {}: {}", getScript(), e);
-            return Stream.empty();
-        }
+    @Override
+    protected ExtensionRegistry getMappingExtensionRegistry() {
+        return s_registry;
     }
 
     public void setCollectionAgentFactory(CollectionAgentFactory collectionAgentFactory) {
@@ -0,0 +1,99 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.jti.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.opennms.netmgt.collection.api.CollectionAttribute;
+import org.opennms.netmgt.collection.api.CollectionResource;
+import org.opennms.netmgt.collection.api.CollectionSet;
+import org.opennms.netmgt.collection.dto.CollectionAgentDTO;
+import org.opennms.netmgt.collection.support.AbstractCollectionSetVisitor;
+import org.opennms.netmgt.telemetry.protocols.collection.ScriptedCollectionSetBuilder;
+import org.opennms.netmgt.telemetry.protocols.collection.mapping.ProtobufCollectionSetBuilder;
+import org.opennms.netmgt.telemetry.protocols.jti.adapter.proto.Port;
+import org.opennms.netmgt.telemetry.protocols.jti.adapter.proto.TelemetryTop;
+
+import com.google.common.io.Resources;
+import com.google.protobuf.ExtensionRegistry;
+
+/**
+ * Verifies that the shipped mapping and the shipped script generate the same collection sets.
+ */
+public class JtiMappingTest {
+
+    private static final File ADAPTERS_DIR = new File("../../../../../opennms-base-assembly/src/main/filtered/etc/telemetryd-adapters");
+
+    @Test
+    public void verifyMappingMatchesScript() throws Exception {
+        final ExtensionRegistry registry = ExtensionRegistry.newInstance();
+        Port.registerAllExtensions(registry);
+        TelemetryTop.registerAllExtensions(registry);
+
+        final TelemetryTop.TelemetryStream jtiMsg = TelemetryTop.TelemetryStream.parseFrom(
+                Resources.toByteArray(Resources.getResource("jti_15.1F4_ifd_ae_40000.raw")), registry);
+
+        final CollectionAgentDTO agent = new CollectionAgentDTO();
+        agent.setNodeId(1);
+        agent.setAddress(InetAddress.getLoopbackAddress());
+
+        final CollectionSet scripted = new ScriptedCollectionSetBuilder(new File(ADAPTERS_DIR, "junos-telemetry-interface.groovy"))
+                .build(agent, jtiMsg, jtiMsg.getTimestamp());
+        final CollectionSet mapped = new ProtobufCollectionSetBuilder(new File(ADAPTERS_DIR, "junos-telemetry-interface.xml"),
+                TelemetryTop.TelemetryStream.getDescriptor(), registry)
+                .build(agent, jtiMsg, jtiMsg.getTimestamp());
+
+        final List<String> attributes = describe(scripted);
+        assertFalse(attributes.isEmpty());
+        assertEquals(attributes, describe(mapped));
+        assertEquals(scripted.getSequenceNumber(), mapped.getSequenceNumber());
+        assertEquals(scripted, mapped);
+    }
+
+    private static List<String> describe(final CollectionSet collectionSet) {
+        final List<String> attributes = new ArrayList<>();
+        collectionSet.visit(new AbstractCollectionSetVisitor() {
+            private CollectionResource resource;
+
+            @Override
+            public void visitResource(final CollectionResource resource) {
+                this.resource = resource;
+            }
+
+            @Override
+            public void visitAttribute(final CollectionAttribute attribute) {
+                attributes.add(String.format("%s[%s] %s/%s %s=%s",
+                        this.resource.getResourceTypeName(), this.resource.getInstance(),
+                        attribute.getAttributeType().getGroupType().getName(), attribute.getName(), attribute.getType(),
+                        attribute.getType().isNumeric() ? attribute.getNumericValue().doubleValue() : attribute.getStringValue()));
+            }
+        });
+        return attributes;
+    }
+}
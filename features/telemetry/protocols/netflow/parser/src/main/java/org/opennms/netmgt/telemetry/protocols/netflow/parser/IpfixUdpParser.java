@@ -35,12 +35,15 @@ import org.opennms.netmgt.events.api.EventForwarder;
 import org.opennms.netmgt.telemetry.listeners.Dispatchable;
 import org.opennms.netmgt.telemetry.api.receiver.TelemetryMessage;
 import org.opennms.netmgt.telemetry.listeners.UdpParser;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DirectParser;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DirectRecordProvider;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.RecordProvider;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.Value;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ipfix.proto.Header;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ipfix.proto.Packet;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Session;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.UdpSessionManager;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.IpFixDirectMessageBuilder;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.IpFixMessageBuilder;
 
 import com.codahale.metrics.MetricRegistry;
@@ -49,10 +52,12 @@ import com.google.common.base.Objects;
 
 import io.netty.buffer.ByteBuf;
 
-public class IpfixUdpParser extends UdpParserBase implements UdpParser, Dispatchable {
+public class IpfixUdpParser extends UdpParserBase implements UdpParser, Dispatchable, DirectParser {
 
     private final IpFixMessageBuilder messageBuilder = new IpFixMessageBuilder();
 
+    private final IpFixDirectMessageBuilder directMessageBuilder = new IpFixDirectMessageBuilder(this.messageBuilder);
+
     public IpfixUdpParser(final String name,
                           final AsyncDispatcher<TelemetryMessage> dispatcher,
                           final EventForwarder eventForwarder,
@@ -66,6 +71,11 @@ public class IpfixUdpParser extends UdpParserBase implements UdpParser, Dispatch
         return this.messageBuilder;
     }
 
+    @Override
+    public IpFixDirectMessageBuilder getDirectMessageBuilder() {
+        return this.directMessageBuilder;
+    }
+
     @Override
     protected RecordProvider parse(final Session session,
                                    final ByteBuf buffer) throws Exception {
@@ -77,6 +87,17 @@ public class IpfixUdpParser extends UdpParserBase implements UdpParser, Dispatch
         return packet;
     }
 
+    @Override
+    public DirectRecordProvider parseDirect(final Session session,
+                                            final ByteBuf buffer) throws Exception {
+        final Header header = new Header(slice(buffer, Header.SIZE));
+        final Packet packet = new Packet(session, header, slice(buffer, header.payloadLength()), true);
+
+        detectClockSkew(header.exportTime * 1000L, session.getRemoteAddress());
+
+        return packet;
+    }
+
     @Override
     public boolean handles(final ByteBuf buffer) {
         return uint16(buffer) == Header.VERSION;
@@ -36,12 +36,15 @@ import org.opennms.netmgt.events.api.EventForwarder;
 import org.opennms.netmgt.telemetry.listeners.Dispatchable;
 import org.opennms.netmgt.telemetry.api.receiver.TelemetryMessage;
 import org.opennms.netmgt.telemetry.listeners.UdpParser;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DirectParser;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DirectRecordProvider;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.RecordProvider;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.Value;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.netflow9.proto.Header;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.netflow9.proto.Packet;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Session;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.UdpSessionManager;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.Netflow9DirectMessageBuilder;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.Netflow9MessageBuilder;
 
 import com.codahale.metrics.MetricRegistry;
@@ -50,10 +53,12 @@ import com.google.common.base.Objects;
 
 import io.netty.buffer.ByteBuf;
 
-public class Netflow9UdpParser extends UdpParserBase implements UdpParser, Dispatchable {
+public class Netflow9UdpParser extends UdpParserBase implements UdpParser, Dispatchable, DirectParser {
 
     private final Netflow9MessageBuilder messageBuilder = new Netflow9MessageBuilder();
 
+    private final Netflow9DirectMessageBuilder directMessageBuilder = new Netflow9DirectMessageBuilder(this.messageBuilder);
+
     public Netflow9UdpParser(final String name,
                              final AsyncDispatcher<TelemetryMessage> dispatcher,
                              final EventForwarder eventForwarder,
@@ -67,6 +72,11 @@ public class Netflow9UdpParser extends UdpParserBase implements UdpParser, Dispa
         return this.messageBuilder;
     }
 
+    @Override
+    public Netflow9DirectMessageBuilder getDirectMessageBuilder() {
+        return this.directMessageBuilder;
+    }
+
     @Override
     protected RecordProvider parse(Session session, ByteBuf buffer) throws Exception {
         final Header header = new Header(slice(buffer, Header.SIZE));
@@ -77,6 +87,17 @@ public class Netflow9UdpParser extends UdpParserBase implements UdpParser, Dispa
         return packet;
     }
 
+    @Override
+    public DirectRecordProvider parseDirect(final Session session,
+                                            final ByteBuf buffer) throws Exception {
+        final Header header = new Header(slice(buffer, Header.SIZE));
+        final Packet packet = new Packet(session, header, buffer, true);
+
+        detectClockSkew(header.unixSecs * 1000L, session.getRemoteAddress());
+
+        return packet;
+    }
+
     @Override
     public boolean handles(final ByteBuf buffer) {
         return uint16(buffer) == Header.VERSION;
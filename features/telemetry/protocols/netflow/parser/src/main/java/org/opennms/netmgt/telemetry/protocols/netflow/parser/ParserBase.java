@@ -25,6 +25,7 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
@@ -46,6 +47,9 @@ import org.opennms.netmgt.events.api.EventForwarder;
 import org.opennms.netmgt.model.events.EventBuilder;
 import org.opennms.netmgt.telemetry.api.receiver.Parser;
 import org.opennms.netmgt.telemetry.api.receiver.TelemetryMessage;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DirectMessageBuilder;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DirectRecordProvider;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordBuffer;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.RecordProvider;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.SequenceNumberTracker;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Session;
@@ -84,6 +88,8 @@ public abstract class ParserBase implements Parser {
 
     private final ThreadLocal<Boolean> isParserThread = new ThreadLocal<>();
 
+    private final ThreadLocal<RecordBuffer> recordBuffer = new ThreadLocal<>();
+
     private final Protocol protocol;
 
     private final String name;
@@ -262,11 +268,7 @@ public abstract class ParserBase implements Parser {
     }
 
     protected CompletableFuture<?> transmit(final RecordProvider packet, final Session session, final InetSocketAddress remoteAddress) {
-        // Verify that flows sequences are in order
-        if (!session.verifySequenceNumber(packet.getObservationDomainId(), packet.getSequenceNumber())) {
-            SEQUENCE_ERRORS_LOGGER.warn("Error in flow sequence detected: from {}", session.getRemoteAddress());
-            this.sequenceErrors.inc();
-        }
+        this.verifySequenceNumber(session, packet.getObservationDomainId(), packet.getSequenceNumber());
 
         final RecordEnricher recordEnricher = new RecordEnricher(dnsResolver, getDnsLookupsEnabled());
 
@@ -299,29 +301,7 @@ public abstract class ParserBase implements Parser {
                         }
 
                         // Check if the flow is valid (and maybe correct it)
-                        final List<String> corrections = this.correctFlow(flowMessage);
-                        if (!corrections.isEmpty()) {
-                            this.invalidFlows.mark();
-
-                            if (illegalFlowEventLimiters.getUnchecked(session.getRemoteAddress()).tryAcquire()) {
-                                eventForwarder.sendNow(new EventBuilder()
-                                        .setUei(ILLEGAL_FLOW_EVENT_UEI)
-                                        .setTime(new Date())
-                                        .setSource(getName())
-                                        .setInterface(session.getRemoteAddress())
-                                        .setDistPoller(identity.getId())
-                                        .addParam("monitoringSystemId", identity.getId())
-                                        .addParam("monitoringSystemLocation", identity.getLocation())
-                                        .setParam("cause", Joiner.on('\n').join(corrections))
-                                        .setParam("protocol", protocol.name())
-                                        .setParam("illegalFlowEventRate", (int) getIllegalFlowEventRate())
-                                        .getEvent());
-
-                                for (final String correction : corrections) {
-                                    LOG.warn("Illegal flow detected from exporter {}: \n{}", session.getRemoteAddress().getAddress(), correction);
-                                }
-                            }
-                        }
+                        this.validateFlow(flowMessage, session);
 
                         // Build the message to dispatch
                         return new TelemetryMessage(remoteAddress, ByteBuffer.wrap(flowMessage.build().toByteArray()));
@@ -348,6 +328,86 @@ public abstract class ParserBase implements Parser {
         });
     }
 
+    /**
+     * Transmits the records of a packet which has been decoded in direct mode.
+     *
+     * The records are decoded and serialized on the calling thread as the record buffer is reused for all records.
+     * Therefore, no enrichment is applied to these records.
+     */
+    protected CompletableFuture<?> transmitDirect(final DirectRecordProvider packet, final DirectMessageBuilder messageBuilder, final Session session, final InetSocketAddress remoteAddress) throws InvalidPacketException {
+        this.verifySequenceNumber(session, packet.getObservationDomainId(), packet.getSequenceNumber());
+
+        RecordBuffer recordBuffer = this.recordBuffer.get();
+        if (recordBuffer == null) {
+            recordBuffer = new RecordBuffer(messageBuilder.getLayout());
+            this.recordBuffer.set(recordBuffer);
+        }
+
+        final List<CompletableFuture<?>> futures = new ArrayList<>();
+        packet.decodeRecords(recordBuffer, record -> {
+            this.recordsReceived.mark();
+            this.recordsScheduled.mark();
+
+            final FlowMessage.Builder flowMessage = messageBuilder.buildMessage(record);
+
+            // Check if the flow is valid (and maybe correct it)
+            this.validateFlow(flowMessage, session);
+
+            final TelemetryMessage msg = new TelemetryMessage(remoteAddress, ByteBuffer.wrap(flowMessage.build().toByteArray()));
+
+            // Dispatch
+            this.recordsDispatched.mark();
+            futures.add(this.dispatcher.send(msg).whenComplete((b, exx) -> {
+                if (exx != null) {
+                    this.recordDispatchErrors.inc();
+                } else {
+                    this.recordsCompleted.mark();
+                }
+            }));
+        });
+
+        // Return a future which is completed when all records are finished dispatching (i.e. written to Kafka)
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).whenComplete((any, exx) -> {
+            if (exx != null) {
+                LOG.warn("One or more of the records were not successfully dispatched.", exx);
+            }
+        });
+    }
+
+    private void verifySequenceNumber(final Session session, final long observationDomainId, final long sequenceNumber) {
+        // Verify that flows sequences are in order
+        if (!session.verifySequenceNumber(observationDomainId, sequenceNumber)) {
+            SEQUENCE_ERRORS_LOGGER.warn("Error in flow sequence detected: from {}", session.getRemoteAddress());
+            this.sequenceErrors.inc();
+        }
+    }
+
+    private void validateFlow(final FlowMessage.Builder flowMessage, final Session session) {
+        final List<String> corrections = this.correctFlow(flowMessage);
+        if (!corrections.isEmpty()) {
+            this.invalidFlows.mark();
+
+            if (illegalFlowEventLimiters.getUnchecked(session.getRemoteAddress()).tryAcquire()) {
+                eventForwarder.sendNow(new EventBuilder()
+                        .setUei(ILLEGAL_FLOW_EVENT_UEI)
+                        .setTime(new Date())
+                        .setSource(getName())
+                        .setInterface(session.getRemoteAddress())
+                        .setDistPoller(identity.getId())
+                        .addParam("monitoringSystemId", identity.getId())
+                        .addParam("monitoringSystemLocation", identity.getLocation())
+                        .setParam("cause", Joiner.on('\n').join(corrections))
+                        .setParam("protocol", protocol.name())
+                        .setParam("illegalFlowEventRate", (int) getIllegalFlowEventRate())
+                        .getEvent());
+
+                for (final String correction : corrections) {
+                    LOG.warn("Illegal flow detected from exporter {}: \n{}", session.getRemoteAddress().getAddress(), correction);
+                }
+            }
+        }
+    }
+
     protected void detectClockSkew(final long packetTimestampMs, final InetAddress remoteAddress) {
         if (getMaxClockSkew() > 0) {
             long deltaMs = Math.abs(packetTimestampMs - System.currentTimeMillis());
@@ -34,10 +34,13 @@ import org.opennms.netmgt.dnsresolver.api.DnsResolver;
 import org.opennms.netmgt.events.api.EventForwarder;
 import org.opennms.netmgt.telemetry.api.receiver.TelemetryMessage;
 import org.opennms.netmgt.telemetry.listeners.UdpParser;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DirectParser;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.RecordProvider;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Session;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.UdpSessionManager;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.MessageBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
@@ -47,6 +50,8 @@ import com.codahale.metrics.MetricRegistry;
 import io.netty.buffer.ByteBuf;
 
 public abstract class UdpParserBase extends ParserBase implements UdpParser {
+    private static final Logger LOG = LoggerFactory.getLogger(UdpParserBase.class);
+
     public final static long HOUSEKEEPING_INTERVAL = 60000;
 
     private final Meter packetsReceived;
@@ -57,6 +62,9 @@ public abstract class UdpParserBase extends ParserBase implements UdpParser {
     private ScheduledFuture<?> housekeepingFuture;
     private Duration templateTimeout = Duration.ofMinutes(30);
 
+    private boolean directDecoding = false;
+    private boolean useDirectDecoding = false;
+
     public UdpParserBase(final Protocol protocol,
                          final String name,
                          final AsyncDispatcher<TelemetryMessage> dispatcher,
@@ -74,6 +82,24 @@ public abstract class UdpParserBase extends ParserBase implements UdpParser {
         if (!metricRegistry.getGauges().keySet().contains(sessionCountGauge)) {
             metricRegistry.register(sessionCountGauge, (Gauge<Integer>) () -> (this.sessionManager != null) ? this.sessionManager.count() : null);
         }
+
+        for (int i = 0; i < UdpSessionManager.SHARDS; i++) {
+            final int shard = i;
+            final String sessionShardGauge = MetricRegistry.name("parsers",  name, "sessionShards", Integer.toString(shard));
+            if (!metricRegistry.getGauges().keySet().contains(sessionShardGauge)) {
+                metricRegistry.register(sessionShardGauge, (Gauge<Integer>) () -> (this.sessionManager != null) ? this.sessionManager.getShardSize(shard) : null);
+            }
+        }
+
+        final String expiredTemplatesGauge = MetricRegistry.name("parsers",  name, "expiredTemplates");
+        if (!metricRegistry.getGauges().keySet().contains(expiredTemplatesGauge)) {
+            metricRegistry.register(expiredTemplatesGauge, (Gauge<Long>) () -> (this.sessionManager != null) ? this.sessionManager.getExpiredTemplates() : null);
+        }
+
+        final String expiredDomainsGauge = MetricRegistry.name("parsers",  name, "expiredDomains");
+        if (!metricRegistry.getGauges().keySet().contains(expiredDomainsGauge)) {
+            metricRegistry.register(expiredDomainsGauge, (Gauge<Long>) () -> (this.sessionManager != null) ? this.sessionManager.getExpiredDomains() : null);
+        }
     }
 
     protected abstract RecordProvider parse(final Session session, final ByteBuf buffer) throws Exception;
@@ -89,6 +115,10 @@ public abstract class UdpParserBase extends ParserBase implements UdpParser {
         final Session session = this.sessionManager.getSession(sessionKey);
 
         try {
+            if (this.useDirectDecoding) {
+                final DirectParser directParser = (DirectParser) this;
+                return this.transmitDirect(directParser.parseDirect(session, buffer), directParser.getDirectMessageBuilder(), session, remoteAddress);
+            }
             return this.transmit(this.parse(session, buffer), session, remoteAddress);
         } catch (Exception e) {
             this.sessionManager.drop(sessionKey);
@@ -100,6 +130,18 @@ public abstract class UdpParserBase extends ParserBase implements UdpParser {
     @Override
     public void start(final ScheduledExecutorService executorService) {
         super.start(executorService);
+
+        this.useDirectDecoding = false;
+        if (this.directDecoding) {
+            if (!(this instanceof DirectParser)) {
+                LOG.warn("Direct decoding is not supported by parser {}. Falling back to regular decoding.", this.getName());
+            } else if (this.getDnsLookupsEnabled()) {
+                LOG.warn("Direct decoding requires DNS lookups to be disabled for parser {}. Falling back to regular decoding.", this.getName());
+            } else {
+                this.useDirectDecoding = true;
+            }
+        }
+
         this.sessionManager = new UdpSessionManager(this.templateTimeout, this::sequenceNumberTracker);
         this.housekeepingFuture = executorService.scheduleAtFixedRate(this.sessionManager::doHousekeeping,
                 HOUSEKEEPING_INTERVAL,
@@ -121,6 +163,14 @@ public abstract class UdpParserBase extends ParserBase implements UdpParser {
         this.templateTimeout = templateTimeout;
     }
 
+    public boolean getDirectDecoding() {
+        return this.directDecoding;
+    }
+
+    public void setDirectDecoding(final boolean directDecoding) {
+        this.directDecoding = directDecoding;
+    }
+
     @Override
     public Object dumpInternalState() {
         return this.sessionManager.dumpInternalState();
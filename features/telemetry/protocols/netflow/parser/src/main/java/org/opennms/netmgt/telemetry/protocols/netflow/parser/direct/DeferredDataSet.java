@@ -0,0 +1,59 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.netflow.parser.direct;
+
+import java.util.Objects;
+
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Session;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Template;
+
+import com.google.common.base.MoreObjects;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A data set which has been validated against its template but whose records are decoded lazily.
+ */
+public final class DeferredDataSet {
+    public final Template template;
+    public final Session.Resolver resolver;
+    public final ByteBuf buffer;
+    public final int recordCount;
+
+    public DeferredDataSet(final Template template,
+                           final Session.Resolver resolver,
+                           final ByteBuf buffer,
+                           final int recordCount) {
+        this.template = Objects.requireNonNull(template);
+        this.resolver = Objects.requireNonNull(resolver);
+        this.buffer = Objects.requireNonNull(buffer);
+        this.recordCount = recordCount;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("templateId", this.template.id)
+                .add("recordCount", this.recordCount)
+                .toString();
+    }
+}
@@ -19,30 +19,19 @@
  * language governing permissions and limitations under the
  * License.
  */
-package org.opennms.core.ipc.grpc.client;
+package org.opennms.netmgt.telemetry.protocols.netflow.parser.direct;
 
-import org.opennms.core.ipc.grpc.common.Empty;
-
-import io.grpc.stub.StreamObserver;
+import org.opennms.netmgt.telemetry.protocols.netflow.transport.FlowMessage;
 
 /**
- * This is wrapper to get handle from the asyncStub for the SinkMessage.
- * Would be not used anywhere.
+ * Builds flow messages from records decoded into a {@link RecordBuffer}.
  */
-public class EmptyMessageReceiver implements StreamObserver<Empty> {
-
-    @Override
-    public void onNext(Empty empty) {
-
-    }
-
-    @Override
-    public void onError(Throwable throwable) {
-
-    }
+public interface DirectMessageBuilder {
 
-    @Override
-    public void onCompleted() {
+    /**
+     * Returns the layout of the record buffers consumed by this builder.
+     */
+    RecordLayout getLayout();
 
-    }
+    FlowMessage.Builder buildMessage(final RecordBuffer record);
 }
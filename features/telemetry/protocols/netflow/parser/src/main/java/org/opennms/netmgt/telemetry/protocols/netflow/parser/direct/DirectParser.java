@@ -0,0 +1,44 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.netflow.parser.direct;
+
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Session;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Implemented by parsers which support the direct decoding mode.
+ */
+public interface DirectParser {
+
+    /**
+     * Returns the builder used to create messages from directly decoded records.
+     */
+    DirectMessageBuilder getDirectMessageBuilder();
+
+    /**
+     * Parses the packet in direct mode.
+     *
+     * Data records of the packet are not parsed into values but decoded on demand into a reused record buffer.
+     */
+    DirectRecordProvider parseDirect(final Session session, final ByteBuf buffer) throws Exception;
+}
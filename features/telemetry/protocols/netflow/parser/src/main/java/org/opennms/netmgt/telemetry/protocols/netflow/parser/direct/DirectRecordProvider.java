@@ -0,0 +1,55 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.netflow.parser.direct;
+
+import java.util.function.Consumer;
+
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.InvalidPacketException;
+
+/**
+ * Provides the data records of a packet by decoding them directly into a reusable {@link RecordBuffer}.
+ */
+public interface DirectRecordProvider {
+
+    /** Returns the observation domain ID as specified by the underlying packet used to generate these records.
+     *
+     * @return the observation domain ID or <code>0</code> if there is no such concept available.
+     */
+    long getObservationDomainId();
+
+    /** Returns the sequence number as provided by the underlying packet used to generate these records.
+     *
+     * @return the sequence number
+     */
+    long getSequenceNumber();
+
+    /**
+     * Decodes all data records of the packet one after another.
+     *
+     * The buffer is cleared and re-populated for each record before it is passed to the consumer. Therefore, the
+     * consumer must not keep a reference to the buffer after returning.
+     *
+     * @param record the buffer to decode the records into
+     * @param consumer called once for each decoded record
+     */
+    void decodeRecords(final RecordBuffer record, final Consumer<RecordBuffer> consumer) throws InvalidPacketException;
+}
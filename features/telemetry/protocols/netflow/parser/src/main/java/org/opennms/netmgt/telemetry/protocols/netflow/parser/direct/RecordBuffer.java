@@ -0,0 +1,227 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.netflow.parser.direct;
+
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.values.DateTimeValue.SECONDS_TO_EPOCH;
+
+import java.net.InetAddress;
+import java.util.Objects;
+
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.Value;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.values.DateTimeValue;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.values.IPv4AddressValue;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.values.IPv6AddressValue;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.values.UnsignedValue;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A reusable, primitive-backed container for the values of a single flow record.
+ *
+ * Field values are read straight from the packet buffer into the slots defined by the {@link RecordLayout} without
+ * creating intermediate {@link Value} objects. Timestamps are stored as milliseconds since epoch and addresses as
+ * raw bytes.
+ *
+ * Instances are not thread-safe and are meant to be reused for all records decoded by a single thread.
+ */
+public final class RecordBuffer {
+    private static final int ADDRESS_SIZE = 16;
+
+    private final RecordLayout layout;
+
+    private final long[] values;
+    private final boolean[] present;
+
+    private final byte[] addresses;
+    private final byte[] addressLengths;
+
+    private final int[] touched;
+    private int touchedCount = 0;
+
+    private final StringBuilder text = new StringBuilder(39);
+
+    public RecordBuffer(final RecordLayout layout) {
+        this.layout = Objects.requireNonNull(layout);
+
+        this.values = new long[layout.size()];
+        this.present = new boolean[layout.size()];
+        this.addresses = new byte[layout.size() * ADDRESS_SIZE];
+        this.addressLengths = new byte[layout.size()];
+        this.touched = new int[layout.size()];
+    }
+
+    public RecordLayout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Resets all slots which have been populated since the last call.
+     */
+    public void clear() {
+        for (int i = 0; i < this.touchedCount; i++) {
+            this.present[this.touched[i]] = false;
+        }
+        this.touchedCount = 0;
+    }
+
+    public boolean isPresent(final int index) {
+        return this.present[index];
+    }
+
+    public long get(final int index) {
+        return this.values[index];
+    }
+
+    public void set(final int index, final long value) {
+        this.mark(index);
+        this.values[index] = value;
+    }
+
+    /**
+     * Decodes the field value at the given position of the buffer into the slot.
+     *
+     * The reader index of the buffer is not modified.
+     */
+    public void decode(final RecordLayout.Slot slot, final ByteBuf buffer, final int offset, final int length) {
+        switch (slot.kind) {
+            case UNSIGNED:
+                this.set(slot.index, unsigned(buffer, offset, length));
+                break;
+
+            case IPV4_ADDRESS:
+            case IPV6_ADDRESS:
+                this.mark(slot.index);
+                buffer.getBytes(offset, this.addresses, slot.index * ADDRESS_SIZE, length);
+                this.addressLengths[slot.index] = (byte) length;
+                break;
+
+            case DATE_TIME_SECONDS:
+                this.set(slot.index, buffer.getUnsignedInt(offset) * 1000L);
+                break;
+
+            case DATE_TIME_MILLISECONDS:
+                this.set(slot.index, buffer.getLong(offset));
+                break;
+
+            case DATE_TIME_MICROSECONDS:
+                this.set(slot.index, ntpToMillis(buffer.getUnsignedInt(offset), buffer.getUnsignedInt(offset + 4) & (0xFFFFFFFF << 11)));
+                break;
+
+            case DATE_TIME_NANOSECONDS:
+                this.set(slot.index, ntpToMillis(buffer.getUnsignedInt(offset), buffer.getUnsignedInt(offset + 4)));
+                break;
+
+            default:
+                throw new IllegalStateException("Unknown slot kind: " + slot.kind);
+        }
+    }
+
+    /**
+     * Populates the slot from an already parsed value.
+     *
+     * This is used for values which are not part of the record itself, like the values of matching options.
+     */
+    public void apply(final RecordLayout.Slot slot, final Value<?> value) {
+        switch (slot.kind) {
+            case UNSIGNED:
+                if (value instanceof UnsignedValue) {
+                    this.set(slot.index, ((UnsignedValue) value).getValue().longValue());
+                }
+                break;
+
+            case IPV4_ADDRESS:
+            case IPV6_ADDRESS:
+                if (value instanceof IPv4AddressValue || value instanceof IPv6AddressValue) {
+                    final byte[] address = ((InetAddress) value.getValue()).getAddress();
+                    this.mark(slot.index);
+                    System.arraycopy(address, 0, this.addresses, slot.index * ADDRESS_SIZE, address.length);
+                    this.addressLengths[slot.index] = (byte) address.length;
+                }
+                break;
+
+            default:
+                if (value instanceof DateTimeValue) {
+                    this.set(slot.index, ((DateTimeValue) value).getValue().toEpochMilli());
+                }
+                break;
+        }
+    }
+
+    /**
+     * Returns the textual representation of the address in the slot.
+     *
+     * The format matches {@link InetAddress#getHostAddress()}.
+     */
+    public String getAddress(final int index) {
+        final int offset = index * ADDRESS_SIZE;
+        final int length = this.addressLengths[index];
+
+        this.text.setLength(0);
+        if (length == 4) {
+            for (int i = 0; i < 4; i++) {
+                if (i > 0) {
+                    this.text.append('.');
+                }
+                this.text.append(this.addresses[offset + i] & 0xFF);
+            }
+        } else {
+            for (int i = 0; i < 16; i += 2) {
+                if (i > 0) {
+                    this.text.append(':');
+                }
+                this.text.append(Integer.toHexString(((this.addresses[offset + i] & 0xFF) << 8) | (this.addresses[offset + i + 1] & 0xFF)));
+            }
+        }
+        return this.text.toString();
+    }
+
+    private void mark(final int index) {
+        if (!this.present[index]) {
+            this.present[index] = true;
+            this.touched[this.touchedCount++] = index;
+        }
+    }
+
+    private static long unsigned(final ByteBuf buffer, final int offset, final int length) {
+        switch (length) {
+            case 1:
+                return buffer.getUnsignedByte(offset);
+            case 2:
+                return buffer.getUnsignedShort(offset);
+            case 4:
+                return buffer.getUnsignedInt(offset);
+            case 8:
+                return buffer.getLong(offset);
+            default:
+                // Reduced size encoding
+                long value = 0;
+                for (int i = 0; i < length; i++) {
+                    value = (value << 8) | buffer.getUnsignedByte(offset + i);
+                }
+                return value;
+        }
+    }
+
+    private static long ntpToMillis(final long seconds, final long fraction) {
+        return (seconds - SECONDS_TO_EPOCH) * 1000L + (fraction * 1_000_000_000L / (1L << 32)) / 1_000_000L;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.netflow.parser.direct;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Describes the slots of a {@link RecordBuffer}.
+ *
+ * Each slot is identified by the name of the information element it is populated from and has a fixed kind which
+ * defines how the raw field value is decoded. Fields which are not part of the layout are skipped while decoding.
+ */
+public final class RecordLayout {
+
+    public enum Kind {
+        UNSIGNED,
+        IPV4_ADDRESS,
+        IPV6_ADDRESS,
+        DATE_TIME_SECONDS,
+        DATE_TIME_MILLISECONDS,
+        DATE_TIME_MICROSECONDS,
+        DATE_TIME_NANOSECONDS,
+    }
+
+    public static final class Slot {
+        public final int index;
+        public final String name;
+        public final Kind kind;
+
+        private Slot(final int index, final String name, final Kind kind) {
+            this.index = index;
+            this.name = Objects.requireNonNull(name);
+            this.kind = Objects.requireNonNull(kind);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("index", this.index)
+                    .add("name", this.name)
+                    .add("kind", this.kind)
+                    .toString();
+        }
+    }
+
+    private final Map<String, Slot> slots;
+
+    private RecordLayout(final Map<String, Slot> slots) {
+        this.slots = Objects.requireNonNull(slots);
+    }
+
+    /**
+     * Returns the slot populated by the information element with the given name.
+     *
+     * @param name the name of the information element
+     * @return the slot or <code>null</code> if the element is not part of this layout
+     */
+    public Slot lookup(final String name) {
+        return this.slots.get(name);
+    }
+
+    public int size() {
+        return this.slots.size();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private final Map<String, Slot> slots = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a slot to the layout.
+         *
+         * @return the index of the added slot
+         */
+        public int add(final String name, final Kind kind) {
+            if (this.slots.containsKey(name)) {
+                throw new IllegalArgumentException("Duplicate slot: " + name);
+            }
+
+            final Slot slot = new Slot(this.slots.size(), name, kind);
+            this.slots.put(name, slot);
+            return slot.index;
+        }
+
+        public RecordLayout build() {
+            return new RecordLayout(new HashMap<>(this.slots));
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.netflow.parser.direct;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Field;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Template;
+
+import com.google.common.base.MoreObjects;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A decoder specialized for a single template and record layout.
+ *
+ * The decoder resolves the slot of each field once. For templates without variable sized fields, it additionally
+ * pre-computes the offsets of all fields populating a slot, so records can be decoded without walking the template.
+ */
+public final class TemplateDecoder {
+    // Field length marking variable sized fields as defined by IPFIX
+    public static final int VARIABLE_SIZED = 0xFFFF;
+
+    private final Template template;
+    private final RecordLayout layout;
+
+    private final String[] names;
+    private final RecordLayout.Slot[] slots;
+    private final int[] lengths;
+
+    // Only populated for fixed length templates
+    private final int fixedLength;
+    private final RecordLayout.Slot[] fixedSlots;
+    private final int[] fixedOffsets;
+    private final int[] fixedLengths;
+
+    private TemplateDecoder(final Template template,
+                            final RecordLayout layout,
+                            final Function<Field, String> names) {
+        this.template = Objects.requireNonNull(template);
+        this.layout = Objects.requireNonNull(layout);
+
+        final List<Field> fields = template.fields;
+
+        this.names = new String[fields.size()];
+        this.slots = new RecordLayout.Slot[fields.size()];
+        this.lengths = new int[fields.size()];
+
+        int fixedLength = 0;
+        int populated = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            final Field field = fields.get(i);
+
+            this.names[i] = names.apply(field);
+            this.slots[i] = this.names[i] != null ? layout.lookup(this.names[i]) : null;
+            this.lengths[i] = field.length();
+
+            if (this.lengths[i] == VARIABLE_SIZED) {
+                fixedLength = -1;
+            } else if (fixedLength >= 0) {
+                fixedLength += this.lengths[i];
+            }
+
+            if (this.slots[i] != null) {
+                populated++;
+            }
+        }
+
+        this.fixedLength = fixedLength;
+
+        if (this.fixedLength >= 0) {
+            this.fixedSlots = new RecordLayout.Slot[populated];
+            this.fixedOffsets = new int[populated];
+            this.fixedLengths = new int[populated];
+
+            int offset = 0;
+            for (int i = 0, j = 0; i < this.slots.length; i++) {
+                if (this.slots[i] != null) {
+                    this.fixedSlots[j] = this.slots[i];
+                    this.fixedOffsets[j] = offset;
+                    this.fixedLengths[j] = this.lengths[i];
+                    j++;
+                }
+                offset += this.lengths[i];
+            }
+        } else {
+            this.fixedSlots = null;
+            this.fixedOffsets = null;
+            this.fixedLengths = null;
+        }
+    }
+
+    /**
+     * Compiles a decoder for the given template.
+     *
+     * @param template the template to compile
+     * @param layout the layout of the record buffers to decode into
+     * @param names resolves the information element name of a template field or <code>null</code> if there is none
+     */
+    public static TemplateDecoder compile(final Template template,
+                                          final RecordLayout layout,
+                                          final Function<Field, String> names) {
+        return new TemplateDecoder(template, layout, names);
+    }
+
+    public Template getTemplate() {
+        return this.template;
+    }
+
+    public RecordLayout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Returns whether this decoder has been compiled for the given template and layout.
+     */
+    public boolean matches(final Template template, final RecordLayout layout) {
+        return this.template == template && this.layout == layout;
+    }
+
+    public int size() {
+        return this.slots.length;
+    }
+
+    public String getName(final int index) {
+        return this.names[index];
+    }
+
+    public RecordLayout.Slot getSlot(final int index) {
+        return this.slots[index];
+    }
+
+    /**
+     * Returns the declared length of the field which is {@link #VARIABLE_SIZED} for variable sized fields.
+     */
+    public int getLength(final int index) {
+        return this.lengths[index];
+    }
+
+    public boolean isFixedLength() {
+        return this.fixedLength >= 0;
+    }
+
+    /**
+     * Returns the length of each record or <code>-1</code> if the template contains variable sized fields.
+     */
+    public int getFixedLength() {
+        return this.fixedLength;
+    }
+
+    /**
+     * Decodes a record of a fixed length template starting at the given offset.
+     *
+     * Only fields populating a slot of the layout are touched. The reader index of the buffer is not modified.
+     *
+     * @return the offset of the next record
+     */
+    public int decode(final RecordBuffer record, final ByteBuf buffer, final int offset) {
+        if (this.fixedLength < 0) {
+            throw new IllegalStateException("Template contains variable sized fields");
+        }
+
+        for (int i = 0; i < this.fixedSlots.length; i++) {
+            record.decode(this.fixedSlots[i], buffer, offset + this.fixedOffsets[i], this.fixedLengths[i]);
+        }
+
+        return offset + this.fixedLength;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("templateId", this.template.id)
+                .add("fields", this.slots.length)
+                .add("fixedLength", this.fixedLength)
+                .toString();
+    }
+}
@@ -23,18 +23,28 @@ package org.opennms.netmgt.telemetry.protocols.netflow.parser.ipfix.proto;
 
 import static org.opennms.netmgt.telemetry.listeners.utils.BufferUtils.slice;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.InvalidPacketException;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.MissingTemplateException;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DeferredDataSet;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DirectRecordProvider;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordBuffer;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.TemplateDecoder;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.RecordProvider;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.Value;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.values.UnsignedValue;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Field;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Session;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Template;
 import org.slf4j.Logger;
@@ -47,9 +57,13 @@ import com.google.common.collect.Iterators;
 
 import io.netty.buffer.ByteBuf;
 
-public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
+public final class Packet implements Iterable<FlowSet<?>>, RecordProvider, DirectRecordProvider {
     private static final Logger LOG = LoggerFactory.getLogger(Packet.class);
 
+    private static final Function<Field, String> FIELD_NAMES = field -> field instanceof FieldSpecifier
+            ? ((FieldSpecifier) field).getName()
+            : null;
+
     /*
      +----------------------------------------------------+
      | Message Header                                     |
@@ -70,14 +84,25 @@ public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
     public final List<OptionsTemplateSet> optionTemplateSets;
     public final List<DataSet> dataSets;
 
+    // Data sets which are decoded on demand in direct mode
+    public final List<DeferredDataSet> deferredDataSets;
+
     public Packet(final Session session,
                   final Header header,
                   final ByteBuf buffer) throws InvalidPacketException {
+        this(session, header, buffer, false);
+    }
+
+    public Packet(final Session session,
+                  final Header header,
+                  final ByteBuf buffer,
+                  final boolean direct) throws InvalidPacketException {
         this.header = Objects.requireNonNull(header);
 
         final List<TemplateSet> templateSets = new LinkedList();
         final List<OptionsTemplateSet> optionTemplateSets = new LinkedList();
         final List<DataSet> dataSets = new LinkedList();
+        final List<DeferredDataSet> deferredDataSets = new LinkedList();
 
         while (buffer.isReadable()) {
             final ByteBuf headerBuffer = slice(buffer, FlowSetHeader.SIZE);
@@ -143,6 +168,21 @@ public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
                 case DATA_SET: {
                     final Session.Resolver resolver = session.getResolver(header.observationDomainId);
 
+                    if (direct) {
+                        final DeferredDataSet deferredDataSet;
+                        try {
+                            deferredDataSet = defer(setHeader, resolver, payloadBuffer);
+                        } catch (final MissingTemplateException ex) {
+                            LOG.debug("Skipping data-set due to missing template: {}", ex.getMessage());
+                            break;
+                        }
+
+                        if (deferredDataSet != null) {
+                            deferredDataSets.add(deferredDataSet);
+                            break;
+                        }
+                    }
+
                     final DataSet dataSet;
                     try {
                         dataSet = new DataSet(this, setHeader, resolver, payloadBuffer);
@@ -171,6 +211,56 @@ public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
         this.templateSets = Collections.unmodifiableList(templateSets);
         this.optionTemplateSets = Collections.unmodifiableList(optionTemplateSets);
         this.dataSets = Collections.unmodifiableList(dataSets);
+        this.deferredDataSets = Collections.unmodifiableList(deferredDataSets);
+    }
+
+    private static DeferredDataSet defer(final FlowSetHeader setHeader,
+                                         final Session.Resolver resolver,
+                                         final ByteBuf buffer) throws InvalidPacketException, MissingTemplateException {
+        final Template template = resolver.lookupTemplate(setHeader.setId);
+        if (template.type != Template.Type.TEMPLATE) {
+            // Options are required to be parsed as they are stored in the session
+            return null;
+        }
+
+        // For variable length fields we assume at least the length value (1 byte) to be present
+        final int minimumRecordLength = template.stream()
+                .mapToInt(f -> f.length() != DataRecord.VARIABLE_SIZED ? f.length() : 1).sum();
+
+        // Walk the records to find the number of records in the set
+        int recordCount = 0;
+        int offset = buffer.readerIndex();
+        while (buffer.writerIndex() - offset >= minimumRecordLength) {
+            for (final Field field : template.fields) {
+                offset += fieldLength(field, buffer, offset);
+            }
+            if (offset > buffer.writerIndex()) {
+                throw new InvalidPacketException(buffer, "Record exceeds set boundary");
+            }
+            recordCount++;
+        }
+
+        if (recordCount == 0) {
+            throw new InvalidPacketException(buffer, "Empty set");
+        }
+
+        return new DeferredDataSet(template, resolver, buffer, recordCount);
+    }
+
+    /**
+     * Returns the number of bytes occupied by the field at the given offset including the length prefix of variable
+     * sized fields.
+     */
+    private static int fieldLength(final Field field, final ByteBuf buffer, final int offset) {
+        if (field.length() != DataRecord.VARIABLE_SIZED) {
+            return field.length();
+        }
+
+        final int length = buffer.getUnsignedByte(offset);
+        if (length == DataRecord.VARIABLE_SIZED_EXTENDED) {
+            return 3 + buffer.getUnsignedShort(offset + 1);
+        }
+        return 1 + length;
     }
 
     @Override
@@ -199,6 +289,151 @@ public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
                 ));
     }
 
+    @Override
+    public void decodeRecords(final RecordBuffer record, final Consumer<RecordBuffer> consumer) throws InvalidPacketException {
+        final RecordLayout layout = record.getLayout();
+
+        // Options data sets are only stored in the session and never emitted as records, just like the regular path
+        final int recordCount = this.deferredDataSets.stream()
+                .mapToInt(s -> s.recordCount)
+                .sum() + this.dataSets.stream()
+                .mapToInt(s -> s.records.size())
+                .sum();
+
+        final RecordLayout.Slot[] headerSlots = new RecordLayout.Slot[] {
+                layout.lookup("@recordCount"),
+                layout.lookup("@sequenceNumber"),
+                layout.lookup("@exportTime"),
+                layout.lookup("@observationDomainId")
+        };
+        final long[] headerValues = new long[] {
+                recordCount,
+                this.header.sequenceNumber,
+                this.header.exportTime,
+                this.header.observationDomainId
+        };
+
+        for (final DeferredDataSet dataSet : this.deferredDataSets) {
+            final List<Field> fields = dataSet.template.fields;
+            final Set<String> scopeNames = dataSet.resolver.getScopeNames();
+            final TemplateDecoder decoder = dataSet.resolver.lookupDecoder(dataSet.template, layout, FIELD_NAMES);
+
+            // Scopes depend on the options known to the session and can therefore not be part of the compiled decoder
+            final boolean[] scoped = new boolean[decoder.size()];
+            boolean hasScopes = false;
+            for (int i = 0; i < scoped.length; i++) {
+                scoped[i] = decoder.getName(i) != null && scopeNames.contains(decoder.getName(i));
+                hasScopes |= scoped[i];
+            }
+
+            // Records of fixed length templates without scopes can be decoded by the pre-computed field offsets
+            final boolean fixed = decoder.isFixedLength() && !hasScopes;
+
+            // Without any scope fields in the records, the options are the same for all records of the set
+            final List<Value<?>> sharedOptions = hasScopes ? null : dataSet.resolver.lookupOptions(Collections.emptyList());
+
+            int offset = dataSet.buffer.readerIndex();
+            for (int r = 0; r < dataSet.recordCount; r++) {
+                record.clear();
+
+                setHeaderValues(record, headerSlots, headerValues);
+
+                final List<Value<?>> scopeValues = hasScopes ? new ArrayList<>() : null;
+
+                if (fixed) {
+                    offset = decoder.decode(record, dataSet.buffer, offset);
+                } else {
+                    for (int i = 0; i < scoped.length; i++) {
+                        final Field field = fields.get(i);
+                        final RecordLayout.Slot slot = decoder.getSlot(i);
+
+                        int length = decoder.getLength(i);
+                        if (length == DataRecord.VARIABLE_SIZED) {
+                            length = dataSet.buffer.getUnsignedByte(offset++);
+                            if (length == DataRecord.VARIABLE_SIZED_EXTENDED) {
+                                length = dataSet.buffer.getUnsignedShort(offset);
+                                offset += 2;
+                            }
+
+                            // Variable sized encoding of fixed size types is rare - use the generic parser for these
+                            if (slot != null || scoped[i]) {
+                                final Value<?> value = parse(field, dataSet, offset, length);
+                                if (slot != null) {
+                                    record.apply(slot, value);
+                                }
+                                if (scoped[i]) {
+                                    scopeValues.add(value);
+                                }
+                            }
+
+                        } else {
+                            if (slot != null) {
+                                record.decode(slot, dataSet.buffer, offset, length);
+                            }
+                            if (scoped[i]) {
+                                scopeValues.add(parse(field, dataSet, offset, length));
+                            }
+                        }
+
+                        offset += length;
+                    }
+                }
+
+                // Options are appended to the record and take precedence over the fields
+                for (final Value<?> value : hasScopes ? dataSet.resolver.lookupOptions(scopeValues) : sharedOptions) {
+                    final RecordLayout.Slot slot = layout.lookup(value.getName());
+                    if (slot != null) {
+                        record.apply(slot, value);
+                    }
+                }
+
+                consumer.accept(record);
+            }
+        }
+
+        // Data sets which have not been deferred are decoded from their parsed values
+        for (final DataSet dataSet : this.dataSets) {
+            for (final DataRecord dataRecord : dataSet.records) {
+                record.clear();
+
+                setHeaderValues(record, headerSlots, headerValues);
+
+                applyValues(record, dataRecord.fields);
+                applyValues(record, dataRecord.options);
+
+                consumer.accept(record);
+            }
+        }
+    }
+
+    private static void setHeaderValues(final RecordBuffer record, final RecordLayout.Slot[] slots, final long[] values) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                record.set(slots[i].index, values[i]);
+            }
+        }
+    }
+
+    private static void applyValues(final RecordBuffer record, final List<Value<?>> values) {
+        for (final Value<?> value : values) {
+            final RecordLayout.Slot slot = record.getLayout().lookup(value.getName());
+            if (slot != null) {
+                record.apply(slot, value);
+            }
+        }
+    }
+
+    private static Value<?> parse(final Field field,
+                                  final DeferredDataSet dataSet,
+                                  final int offset,
+                                  final int length) throws InvalidPacketException {
+        try {
+            return field.parse(dataSet.resolver, dataSet.buffer.slice(offset, length));
+        } catch (final MissingTemplateException ex) {
+            throw new InvalidPacketException(dataSet.buffer, "Missing template", ex);
+        }
+    }
+
     @Override
     public long getObservationDomainId() {
         return this.header.observationDomainId;
@@ -216,6 +451,7 @@ public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
                 .add("templateSets", this.templateSets)
                 .add("optionTemplateSets", this.optionTemplateSets)
                 .add("dataTemplateSets", this.dataSets)
+                .add("deferredDataSets", this.deferredDataSets)
                 .toString();
     }
 }
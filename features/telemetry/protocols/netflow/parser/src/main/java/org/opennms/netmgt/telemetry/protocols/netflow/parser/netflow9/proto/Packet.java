@@ -23,18 +23,27 @@ package org.opennms.netmgt.telemetry.protocols.netflow.parser.netflow9.proto;
 
 import static org.opennms.netmgt.telemetry.listeners.utils.BufferUtils.slice;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.InvalidPacketException;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.MissingTemplateException;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DeferredDataSet;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DirectRecordProvider;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordBuffer;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.TemplateDecoder;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.RecordProvider;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.Value;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.values.UnsignedValue;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Field;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Session;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Template;
 import org.slf4j.Logger;
@@ -47,9 +56,13 @@ import com.google.common.collect.Iterators;
 
 import io.netty.buffer.ByteBuf;
 
-public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
+public final class Packet implements Iterable<FlowSet<?>>, RecordProvider, DirectRecordProvider {
     private static final Logger LOG = LoggerFactory.getLogger(Packet.class);
 
+    private static final Function<Field, String> FIELD_NAMES = field -> field instanceof FieldSpecifier
+            ? ((FieldSpecifier) field).informationElement.getName()
+            : null;
+
     /*
      +--------+-------------------------------------------+
      |        | +----------+ +---------+ +----------+     |
@@ -66,14 +79,25 @@ public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
     public final List<OptionsTemplateSet> optionTemplateSets;
     public final List<DataSet> dataSets;
 
+    // Data sets which are decoded on demand in direct mode
+    public final List<DeferredDataSet> deferredDataSets;
+
     public Packet(final Session session,
                   final Header header,
                   final ByteBuf buffer) throws InvalidPacketException {
+        this(session, header, buffer, false);
+    }
+
+    public Packet(final Session session,
+                  final Header header,
+                  final ByteBuf buffer,
+                  final boolean direct) throws InvalidPacketException {
         this.header = Objects.requireNonNull(header);
 
         final List<TemplateSet> templateSets = new LinkedList<>();
         final List<OptionsTemplateSet> optionTemplateSets = new LinkedList<>();
         final List<DataSet> dataSets = new LinkedList<>();
+        final List<DeferredDataSet> deferredDataSets = new LinkedList<>();
         while (buffer.isReadable()) {
             // We ignore header.counter here, because different exporters interpret it as flowset count or record count
 
@@ -127,6 +151,21 @@ public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
                 case DATA_FLOWSET: {
                     final Session.Resolver resolver = session.getResolver(header.sourceId);
 
+                    if (direct) {
+                        final DeferredDataSet deferredDataSet;
+                        try {
+                            deferredDataSet = defer(setHeader, resolver, payloadBuffer);
+                        } catch (final MissingTemplateException ex) {
+                            LOG.debug("Skipping data-set due to missing template: {}", ex.getMessage());
+                            break;
+                        }
+
+                        if (deferredDataSet != null) {
+                            deferredDataSets.add(deferredDataSet);
+                            break;
+                        }
+                    }
+
                     final DataSet dataSet;
                     try {
                         dataSet = new DataSet(this, setHeader, resolver, payloadBuffer);
@@ -155,6 +194,27 @@ public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
         this.templateSets = Collections.unmodifiableList(templateSets);
         this.optionTemplateSets = Collections.unmodifiableList(optionTemplateSets);
         this.dataSets = Collections.unmodifiableList(dataSets);
+        this.deferredDataSets = Collections.unmodifiableList(deferredDataSets);
+    }
+
+    private static DeferredDataSet defer(final FlowSetHeader setHeader,
+                                         final Session.Resolver resolver,
+                                         final ByteBuf buffer) throws InvalidPacketException, MissingTemplateException {
+        final Template template = resolver.lookupTemplate(setHeader.setId);
+        if (template.type != Template.Type.TEMPLATE) {
+            // Options are required to be parsed as they are stored in the session
+            return null;
+        }
+
+        final int recordLength = template.stream()
+                .mapToInt(f -> f.length()).sum();
+
+        final int recordCount = recordLength > 0 ? buffer.readableBytes() / recordLength : 0;
+        if (recordCount == 0) {
+            throw new InvalidPacketException(buffer, "Empty set");
+        }
+
+        return new DeferredDataSet(template, resolver, buffer, recordCount);
     }
 
     @Override
@@ -184,6 +244,94 @@ public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
                 ));
     }
 
+    @Override
+    public void decodeRecords(final RecordBuffer record, final Consumer<RecordBuffer> consumer) {
+        final RecordLayout layout = record.getLayout();
+
+        // Options data sets are only stored in the session and never emitted as records, just like the regular path
+        final int recordCount = this.deferredDataSets.stream()
+                .mapToInt(s -> s.recordCount)
+                .sum() + this.dataSets.stream()
+                .mapToInt(s -> s.records.size())
+                .sum();
+
+        final RecordLayout.Slot[] headerSlots = new RecordLayout.Slot[] {
+                layout.lookup("@recordCount"),
+                layout.lookup("@sequenceNumber"),
+                layout.lookup("@sysUpTime"),
+                layout.lookup("@unixSecs"),
+                layout.lookup("@sourceId")
+        };
+        final long[] headerValues = new long[] {
+                recordCount,
+                this.header.sequenceNumber,
+                this.header.sysUpTime,
+                this.header.unixSecs,
+                this.header.sourceId
+        };
+
+        for (final DeferredDataSet dataSet : this.deferredDataSets) {
+            final TemplateDecoder decoder = dataSet.resolver.lookupDecoder(dataSet.template, layout, FIELD_NAMES);
+
+            final List<RecordLayout.Slot> optionSlots = new ArrayList<>();
+            final List<Value<?>> optionValues = new ArrayList<>();
+            for (final Value<?> value : dataSet.resolver.lookupOptions(ScopeFieldSpecifier.buildScopeValues(this.header.sourceId, dataSet.template.id))) {
+                final RecordLayout.Slot slot = layout.lookup(value.getName());
+                if (slot != null) {
+                    optionSlots.add(slot);
+                    optionValues.add(value);
+                }
+            }
+
+            int offset = dataSet.buffer.readerIndex();
+            for (int r = 0; r < dataSet.recordCount; r++) {
+                record.clear();
+
+                setHeaderValues(record, headerSlots, headerValues);
+
+                offset = decoder.decode(record, dataSet.buffer, offset);
+
+                // Options are appended to the record and take precedence over the fields
+                for (int i = 0; i < optionSlots.size(); i++) {
+                    record.apply(optionSlots.get(i), optionValues.get(i));
+                }
+
+                consumer.accept(record);
+            }
+        }
+
+        // Data sets which have not been deferred are decoded from their parsed values
+        for (final DataSet dataSet : this.dataSets) {
+            for (final DataRecord dataRecord : dataSet.records) {
+                record.clear();
+
+                setHeaderValues(record, headerSlots, headerValues);
+
+                applyValues(record, dataRecord.fields);
+                applyValues(record, dataRecord.options);
+
+                consumer.accept(record);
+            }
+        }
+    }
+
+    private static void setHeaderValues(final RecordBuffer record, final RecordLayout.Slot[] slots, final long[] values) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) {
+                record.set(slots[i].index, values[i]);
+            }
+        }
+    }
+
+    private static void applyValues(final RecordBuffer record, final List<Value<?>> values) {
+        for (final Value<?> value : values) {
+            final RecordLayout.Slot slot = record.getLayout().lookup(value.getName());
+            if (slot != null) {
+                record.apply(slot, value);
+            }
+        }
+    }
+
     @Override
     public long getObservationDomainId() {
         return this.header.sourceId;
@@ -201,6 +349,7 @@ public final class Packet implements Iterable<FlowSet<?>>, RecordProvider {
                 .add("templateSets", this.templateSets)
                 .add("optionTemplateSets", this.optionTemplateSets)
                 .add("dataTemplateSets", this.dataSets)
+                .add("deferredDataSets", this.deferredDataSets)
                 .toString();
     }
 }
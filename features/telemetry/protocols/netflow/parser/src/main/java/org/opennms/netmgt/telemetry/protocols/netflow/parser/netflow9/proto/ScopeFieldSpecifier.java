@@ -120,10 +120,14 @@ public final class ScopeFieldSpecifier implements Field, Scope {
     }
 
     public static List<Value<?>> buildScopeValues(final DataRecord record) {
+        return buildScopeValues(record.set.packet.header.sourceId, record.set.template.id);
+    }
+
+    public static List<Value<?>> buildScopeValues(final long sourceId, final int templateId) {
         final ImmutableList.Builder<Value<?>> values = ImmutableList.builder();
 
-        values.add(new UnsignedValue(ScopeFieldSpecifier.SCOPE_SYSTEM, record.set.packet.header.sourceId));
-        values.add(new UnsignedValue(ScopeFieldSpecifier.SCOPE_TEMPLATE, record.set.template.id));
+        values.add(new UnsignedValue(ScopeFieldSpecifier.SCOPE_SYSTEM, sourceId));
+        values.add(new UnsignedValue(ScopeFieldSpecifier.SCOPE_TEMPLATE, templateId));
 
         return values.build();
     }
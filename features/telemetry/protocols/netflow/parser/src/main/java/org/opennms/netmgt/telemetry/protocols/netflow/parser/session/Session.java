@@ -24,8 +24,12 @@ package org.opennms.netmgt.telemetry.protocols.netflow.parser.session;
 import java.net.InetAddress;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.MissingTemplateException;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.TemplateDecoder;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.Value;
 
 public interface Session {
@@ -33,6 +37,20 @@ public interface Session {
     interface Resolver {
         Template lookupTemplate(final int templateId) throws MissingTemplateException;
         List<Value<?>> lookupOptions(final List<Value<?>> values);
+
+        /**
+         * Returns the names of all scope fields used by the known option templates.
+         *
+         * Only values with one of these names can influence the result of {@link #lookupOptions(List)}.
+         */
+        Set<String> getScopeNames();
+
+        /**
+         * Returns a decoder compiled for the given template.
+         *
+         * The decoder may be cached by the session until the template is replaced, withdrawn or expires.
+         */
+        TemplateDecoder lookupDecoder(final Template template, final RecordLayout layout, final Function<Field, String> names);
     }
 
     void addTemplate(final long observationDomainId, final Template template);
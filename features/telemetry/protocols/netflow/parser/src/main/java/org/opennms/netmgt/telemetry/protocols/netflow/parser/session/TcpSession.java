@@ -32,12 +32,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.opennms.core.utils.InetAddressUtils;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.MissingTemplateException;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.TemplateDecoder;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.Value;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.state.ExporterState;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.state.OptionState;
@@ -93,6 +96,37 @@ public class TcpSession implements Session {
 
             return new ArrayList<>(options.values());
         }
+
+        @Override
+        public TemplateDecoder lookupDecoder(final Template template, final RecordLayout layout, final Function<Field, String> names) {
+            final TemplateKey key = new TemplateKey(this.observationDomainId, template.id);
+            if (TcpSession.this.templates.get(key) != template) {
+                return TemplateDecoder.compile(template, layout, names);
+            }
+
+            final TemplateDecoder decoder = TcpSession.this.decoders.get(key);
+            if (decoder != null && decoder.matches(template, layout)) {
+                return decoder;
+            }
+
+            final TemplateDecoder compiled = TemplateDecoder.compile(template, layout, names);
+            TcpSession.this.decoders.put(key, compiled);
+            return compiled;
+        }
+
+        @Override
+        public Set<String> getScopeNames() {
+            final Set<String> scopeNames = new HashSet<>();
+            for (final TemplateKey key : TcpSession.this.options.keySet()) {
+                if (key.observationDomainId == this.observationDomainId) {
+                    final Template template = TcpSession.this.templates.get(key);
+                    if (template != null) {
+                        scopeNames.addAll(template.scopeNames);
+                    }
+                }
+            }
+            return scopeNames;
+        }
     }
 
     private final static class TemplateKey {
@@ -124,6 +158,7 @@ public class TcpSession implements Session {
 
     private final InetAddress remoteAddress;
     private final Map<TemplateKey, Template> templates = Maps.newHashMap();
+    private final Map<TemplateKey, TemplateDecoder> decoders = Maps.newHashMap();
     private final Map<TemplateKey, Map<Set<Value<?>>, List<Value<?>>>> options = Maps.newHashMap();
     private final Map<Long, SequenceNumberTracker> sequenceNumbers = Maps.newHashMap();
 
@@ -136,17 +171,22 @@ public class TcpSession implements Session {
 
     @Override
     public void addTemplate(final long observationDomainId, final Template template) {
-        this.templates.put(new TemplateKey(observationDomainId, template.id), template);
+        final TemplateKey key = new TemplateKey(observationDomainId, template.id);
+        this.templates.put(key, template);
+        this.decoders.remove(key);
     }
 
     @Override
     public void removeTemplate(final long observationDomainId, final int templateId) {
-        this.templates.remove(new TemplateKey(observationDomainId, templateId));
+        final TemplateKey key = new TemplateKey(observationDomainId, templateId);
+        this.templates.remove(key);
+        this.decoders.remove(key);
     }
 
     @Override
     public void removeAllTemplate(final long observationDomainId, final Template.Type type) {
         this.templates.entrySet().removeIf(e -> e.getKey().observationDomainId == observationDomainId && e.getValue().type == type);
+        this.decoders.keySet().retainAll(this.templates.keySet());
     }
 
     @Override
@@ -25,212 +25,581 @@ import java.net.InetAddress;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.MissingTemplateException;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.TemplateDecoder;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.Value;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.state.ExporterState;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.state.OptionState;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.state.ParserState;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.state.TemplateState;
 
-import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 
+/**
+ * Keeps the templates, options and sequence number trackers of all exporters sending flows via UDP.
+ *
+ * The state is sharded by exporter. Each shard holds the exporters hashed to it and a timing wheel used to expire
+ * templates and idle observation domains. The templates of an observation domain are kept in copy-on-write maps, so
+ * lookups while parsing do neither lock nor allocate. Housekeeping only visits the domains due in the passed wheel
+ * slots instead of scanning all templates.
+ */
 public class UdpSessionManager {
-    final ConcurrentMap<TemplateKey, TimeWrapper<TemplateOptions>> templates = Maps.newConcurrentMap();
-    private final Map<DomainKey, SequenceNumberTracker> sequenceNumbers = Maps.newConcurrentMap();
+    // Number of shards - must be a power of two
+    public static final int SHARDS = 16;
+
+    // Number of slots of the expiry wheel in each shard - must be a power of two
+    private static final int WHEEL_SLOTS = 64;
+
+    private final Shard[] shards;
     private final Duration timeout;
+    private final long timeoutMillis;
     private final Supplier<SequenceNumberTracker> sequenceNumberTracker;
 
+    // Duration of a wheel slot in milliseconds - the wheel spans the whole timeout
+    private final long tick;
+
+    // The last tick processed by housekeeping
+    private long lastTick;
+
+    private final LongAdder expiredTemplates = new LongAdder();
+    private final LongAdder expiredDomains = new LongAdder();
+
     public UdpSessionManager(final Duration timeout, final Supplier<SequenceNumberTracker> sequenceNumberTracker) {
         this.timeout = timeout;
+        this.timeoutMillis = timeout.toMillis();
         this.sequenceNumberTracker = Objects.requireNonNull(sequenceNumberTracker);
-    }
 
-    public void doHousekeeping() {
-        final Instant timeout = Instant.now().minus(this.timeout);
-        this.removeTemplateIf(e -> e.getValue().time.isBefore(timeout));
+        this.tick = Math.max(1, this.timeoutMillis / WHEEL_SLOTS);
+        this.lastTick = System.currentTimeMillis() / this.tick - 1;
+
+        this.shards = new Shard[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            this.shards[i] = new Shard();
+        }
     }
 
-    private void removeTemplateIf(final Predicate<Map.Entry<TemplateKey, TimeWrapper<TemplateOptions>>> predicate) {
-        UdpSessionManager.this.templates.entrySet().removeIf(predicate);
+    public synchronized void doHousekeeping() {
+        final Instant now = Instant.now();
+        final long nowTick = now.toEpochMilli() / this.tick;
+
+        // Process all slots passed since the last run but each slot at most once
+        final long from = Math.max(this.lastTick + 1, nowTick - WHEEL_SLOTS + 1);
+        for (final Shard shard : this.shards) {
+            for (long t = from; t <= nowTick; t++) {
+                shard.expire((int) (t & (WHEEL_SLOTS - 1)), now);
+            }
+        }
+
+        // The current slot can still receive entries due in this tick - visit it again on the next run
+        this.lastTick = nowTick - 1;
     }
 
     public Session getSession(final SessionKey sessionKey) {
-        return new UdpSession(sessionKey);
+        return new UdpSession(this.shard(sessionKey), sessionKey);
     }
 
     public void drop(final SessionKey sessionKey) {
-        removeTemplateIf(e -> Objects.equals(e.getKey().observationDomainId.sessionKey, sessionKey));
+        final Shard shard = this.shard(sessionKey);
+
+        final Exporter exporter = shard.exporters.remove(sessionKey);
+        if (exporter != null) {
+            exporter.remove();
+        }
     }
 
     public int count() {
-        return this.templates.size();
+        int count = 0;
+        for (final Shard shard : this.shards) {
+            count += shard.templates.get();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of exporters in the given shard.
+     */
+    public int getShardSize(final int shard) {
+        return this.shards[shard].exporters.size();
+    }
+
+    /**
+     * Returns the number of templates expired by housekeeping.
+     */
+    public long getExpiredTemplates() {
+        return this.expiredTemplates.sum();
+    }
+
+    /**
+     * Returns the number of idle observation domains removed by housekeeping.
+     */
+    public long getExpiredDomains() {
+        return this.expiredDomains.sum();
+    }
+
+    TimeWrapper<TemplateOptions> getTemplate(final SessionKey sessionKey, final long observationDomainId, final int templateId) {
+        final Exporter exporter = this.shard(sessionKey).exporters.get(sessionKey);
+        if (exporter == null) {
+            return null;
+        }
+
+        final Domain domain = exporter.domains.get(observationDomainId);
+        if (domain == null) {
+            return null;
+        }
+
+        return domain.templates.get(templateId);
     }
 
     public Object dumpInternalState() {
         final ParserState.Builder parser = ParserState.builder();
 
-        final Map<DomainKey, List<Map.Entry<TemplateKey, TimeWrapper<TemplateOptions>>>> sessions = this.templates.entrySet().stream()
-                .collect(Collectors.groupingBy(e -> e.getKey().observationDomainId));
+        for (final Shard shard : this.shards) {
+            for (final Exporter exporter : shard.exporters.values()) {
+                final IdMap<Domain> domains = exporter.domains;
+                for (int i = 0; i < domains.size(); i++) {
+                    final Domain domain = domains.value(i);
+
+                    final IdMap<TimeWrapper<TemplateOptions>> templates = domain.templates;
+                    if (templates.isEmpty()) {
+                        continue;
+                    }
+
+                    final String key = String.format("%s#%s",
+                            exporter.sessionKey.getDescription(),
+                            domain.observationDomainId);
 
-        for (final var entry : sessions.entrySet()) {
-            final String key = String.format("%s#%s",
-                    entry.getKey().sessionKey.getDescription(),
-                    entry.getKey().observationDomainId);
+                    final ExporterState.Builder state = ExporterState.builder(key);
 
-            final ExporterState.Builder exporter = ExporterState.builder(key);
+                    for (int j = 0; j < templates.size(); j++) {
+                        final int templateId = (int) templates.id(j);
+                        final TimeWrapper<TemplateOptions> template = templates.value(j);
 
-            entry.getValue().forEach(e -> {
-                exporter.withTemplate(TemplateState.builder(e.getKey().templateId).withInsertionTime(e.getValue().time));
-                e.getValue().wrapped.options.forEach((selectors, values) ->
-                        exporter.withOptions(OptionState.builder(e.getKey().templateId)
-                                .withInsertionTime(values.time)
-                                .withSelectors(selectors)
-                                .withValues(values.wrapped)));
-            });
+                        state.withTemplate(TemplateState.builder(templateId).withInsertionTime(template.time));
+                        template.wrapped.options.forEach((selectors, values) ->
+                                state.withOptions(OptionState.builder(templateId)
+                                        .withInsertionTime(values.time)
+                                        .withSelectors(selectors)
+                                        .withValues(values.wrapped)));
+                    }
 
-            parser.withExporter(exporter);
+                    parser.withExporter(state);
+                }
+            }
         }
 
         return parser.build();
     }
 
+    private Shard shard(final SessionKey sessionKey) {
+        final int hash = sessionKey.hashCode();
+        return this.shards[(hash ^ (hash >>> 16)) & (SHARDS - 1)];
+    }
+
     public interface SessionKey {
         String getDescription();
 
         InetAddress getRemoteAddress();
     }
 
-    private final static class DomainKey {
-        public final SessionKey sessionKey;
-        public final long observationDomainId;
+    public final static class TimeWrapper<T> {
+        public final Instant time;
+        public final T wrapped;
 
-        private DomainKey(final SessionKey sessionKey,
-                          final long observationDomainId) {
-            this.sessionKey = Objects.requireNonNull(sessionKey);
-            this.observationDomainId = observationDomainId;
+        private TimeWrapper(final T wrapped) {
+            this.time = Instant.now();
+            this.wrapped = wrapped;
         }
+    }
 
-        @Override
-        public boolean equals(final Object o) {
-            if (this == o) {
-                return true;
+    public static class TemplateOptions {
+        public final Template template;
+        public final Map<Set<Value<?>>, TimeWrapper<List<Value<?>>>> options;
+
+        // Compiled on first use - as this is bound to the template, it is dropped together with it
+        private volatile TemplateDecoder decoder;
+
+        public TemplateOptions(final Template template) {
+            this.template = Objects.requireNonNull(template);
+            this.options = Maps.newConcurrentMap();
+        }
+
+        public TemplateOptions(final Template template, Map<Set<Value<?>>, TimeWrapper<List<Value<?>>>> options) {
+            this.template = Objects.requireNonNull(template);
+            this.options = Objects.requireNonNull(options);
+        }
+    }
+
+    /**
+     * An immutable map from numeric IDs to values.
+     *
+     * The IDs are kept in a sorted array which allows lookups without boxing the ID. As exporters use only a handful
+     * of observation domains and templates, copying the arrays on modification is cheap.
+     */
+    private static final class IdMap<V> {
+        private static final IdMap<?> EMPTY = new IdMap<>(new long[0], new Object[0]);
+
+        private final long[] ids;
+        private final Object[] values;
+
+        private IdMap(final long[] ids, final Object[] values) {
+            this.ids = ids;
+            this.values = values;
+        }
+
+        @SuppressWarnings("unchecked")
+        public static <V> IdMap<V> empty() {
+            return (IdMap<V>) EMPTY;
+        }
+
+        @SuppressWarnings("unchecked")
+        public V get(final long id) {
+            final int index = Arrays.binarySearch(this.ids, id);
+            return index >= 0 ? (V) this.values[index] : null;
+        }
+
+        public IdMap<V> with(final long id, final V value) {
+            final int index = Arrays.binarySearch(this.ids, id);
+            if (index >= 0) {
+                final Object[] values = this.values.clone();
+                values[index] = value;
+                return new IdMap<>(this.ids, values);
+            }
+
+            final int insert = -index - 1;
+
+            final long[] ids = new long[this.ids.length + 1];
+            System.arraycopy(this.ids, 0, ids, 0, insert);
+            System.arraycopy(this.ids, insert, ids, insert + 1, this.ids.length - insert);
+            ids[insert] = id;
+
+            final Object[] values = new Object[this.values.length + 1];
+            System.arraycopy(this.values, 0, values, 0, insert);
+            System.arraycopy(this.values, insert, values, insert + 1, this.values.length - insert);
+            values[insert] = value;
+
+            return new IdMap<>(ids, values);
+        }
+
+        public IdMap<V> without(final long id) {
+            final int index = Arrays.binarySearch(this.ids, id);
+            if (index < 0) {
+                return this;
+            }
+            return this.filter((i, v) -> i != id);
+        }
+
+        public IdMap<V> filter(final IdPredicate<V> predicate) {
+            final long[] ids = new long[this.ids.length];
+            final Object[] values = new Object[this.values.length];
+
+            int size = 0;
+            for (int i = 0; i < this.ids.length; i++) {
+                if (predicate.test(this.ids[i], this.value(i))) {
+                    ids[size] = this.ids[i];
+                    values[size] = this.values[i];
+                    size++;
+                }
             }
-            if (!(o instanceof DomainKey)) {
-                return false;
+
+            if (size == this.ids.length) {
+                return this;
             }
 
-            final DomainKey that = (DomainKey) o;
-            return Objects.equals(this.observationDomainId, that.observationDomainId) &&
-                   Objects.equals(this.sessionKey, that.sessionKey);
+            return new IdMap<>(Arrays.copyOf(ids, size), Arrays.copyOf(values, size));
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(this.sessionKey, this.observationDomainId);
+        public int size() {
+            return this.ids.length;
         }
-    }
 
-    final static class TemplateKey {
-        public final DomainKey observationDomainId;
-        public final int templateId;
+        public boolean isEmpty() {
+            return this.ids.length == 0;
+        }
 
-        TemplateKey(final SessionKey sessionKey,
-                    final long observationDomainId,
-                    final int templateId) {
-            this.observationDomainId = new DomainKey(sessionKey, observationDomainId);
-            this.templateId = templateId;
+        public long id(final int index) {
+            return this.ids[index];
         }
 
-        @Override
-        public boolean equals(final Object o) {
-            if (this == o) {
-                return true;
+        @SuppressWarnings("unchecked")
+        public V value(final int index) {
+            return (V) this.values[index];
+        }
+    }
+
+    @FunctionalInterface
+    private interface IdPredicate<V> {
+        boolean test(final long id, final V value);
+    }
+
+    private final class Shard {
+        private final ConcurrentMap<SessionKey, Exporter> exporters = Maps.newConcurrentMap();
+
+        // Number of templates of all exporters in this shard
+        private final AtomicInteger templates = new AtomicInteger();
+
+        // Domains are placed in the slot of the next point in time they could expire
+        @SuppressWarnings("unchecked")
+        private final Queue<Domain>[] wheel = new Queue[WHEEL_SLOTS];
+
+        private Shard() {
+            for (int i = 0; i < WHEEL_SLOTS; i++) {
+                this.wheel[i] = new ConcurrentLinkedQueue<>();
             }
-            if (!(o instanceof TemplateKey)) {
-                return false;
+        }
+
+        private Exporter attach(final SessionKey sessionKey) {
+            final Exporter exporter = this.exporters.get(sessionKey);
+            if (exporter != null) {
+                return exporter;
             }
+            return this.exporters.computeIfAbsent(sessionKey, k -> new Exporter(this, k));
+        }
 
-            final TemplateKey that = (TemplateKey) o;
-            return Objects.equals(this.observationDomainId, that.observationDomainId) &&
-                    Objects.equals(this.templateId, that.templateId);
+        private void schedule(final Domain domain, final long deadline) {
+            domain.deadline = deadline;
+            this.wheel[(int) ((deadline / UdpSessionManager.this.tick) & (WHEEL_SLOTS - 1))].add(domain);
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(this.observationDomainId, this.templateId);
+        private void expire(final int slot, final Instant now) {
+            // Drain the slot first as domains can be re-scheduled into the same slot
+            final List<Domain> domains = new ArrayList<>();
+            for (Domain domain; (domain = this.wheel[slot].poll()) != null; ) {
+                domains.add(domain);
+            }
+
+            for (final Domain domain : domains) {
+                if (domain.deadline > now.toEpochMilli()) {
+                    // Due in a later round of the wheel
+                    this.schedule(domain, domain.deadline);
+                } else {
+                    domain.exporter.expire(domain, now);
+                }
+            }
         }
     }
 
-    public final static class TimeWrapper<T> {
-        public final Instant time;
-        public final T wrapped;
+    private final class Exporter {
+        private final Shard shard;
+        private final SessionKey sessionKey;
 
-        private TimeWrapper(final T wrapped) {
-            this.time = Instant.now();
-            this.wrapped = wrapped;
+        // Replaced on modification while holding the lock of the exporter
+        private volatile IdMap<Domain> domains = IdMap.empty();
+
+        private volatile boolean removed = false;
+
+        private Exporter(final Shard shard, final SessionKey sessionKey) {
+            this.shard = Objects.requireNonNull(shard);
+            this.sessionKey = Objects.requireNonNull(sessionKey);
+        }
+
+        // Must be called while holding the lock of the exporter
+        private Domain attach(final long observationDomainId) {
+            Domain domain = this.domains.get(observationDomainId);
+            if (domain == null) {
+                domain = new Domain(this, observationDomainId);
+                this.domains = this.domains.with(observationDomainId, domain);
+                this.shard.schedule(domain, domain.lastSeen + UdpSessionManager.this.timeoutMillis);
+            }
+            return domain;
+        }
+
+        private synchronized void expire(final Domain domain, final Instant now) {
+            if (domain.removed) {
+                return;
+            }
+
+            final Instant timeout = now.minus(UdpSessionManager.this.timeout);
+            final int expired = domain.removeTemplates((id, template) -> template.time.isBefore(timeout));
+            UdpSessionManager.this.expiredTemplates.add(expired);
+
+            final long nowMillis = now.toEpochMilli();
+
+            final IdMap<TimeWrapper<TemplateOptions>> templates = domain.templates;
+            if (templates.isEmpty()) {
+                if (domain.lastSeen + UdpSessionManager.this.timeoutMillis < nowMillis) {
+                    domain.removed = true;
+                    this.domains = this.domains.without(domain.observationDomainId);
+                    UdpSessionManager.this.expiredDomains.increment();
+
+                    if (this.domains.isEmpty()) {
+                        this.removed = true;
+                        this.shard.exporters.remove(this.sessionKey, this);
+                    }
+                } else {
+                    this.shard.schedule(domain, domain.lastSeen + UdpSessionManager.this.timeoutMillis);
+                }
+                return;
+            }
+
+            long deadline = Long.MAX_VALUE;
+            for (int i = 0; i < templates.size(); i++) {
+                deadline = Math.min(deadline, templates.value(i).time.toEpochMilli() + UdpSessionManager.this.timeoutMillis);
+            }
+            this.shard.schedule(domain, Math.max(deadline, nowMillis));
+        }
+
+        private synchronized void remove() {
+            this.removed = true;
+
+            final IdMap<Domain> domains = this.domains;
+            for (int i = 0; i < domains.size(); i++) {
+                final Domain domain = domains.value(i);
+                domain.removed = true;
+                this.shard.templates.addAndGet(-domain.templates.size());
+            }
         }
     }
 
-    public static class TemplateOptions {
-        public final Template template;
-        public final Map<Set<Value<?>>, TimeWrapper<List<Value<?>>>> options;
+    private final class Domain {
+        private final Exporter exporter;
+        private final long observationDomainId;
 
-        public TemplateOptions(final Template template) {
-            this.template = Objects.requireNonNull(template);
-            this.options = Maps.newConcurrentMap();
+        private final SequenceNumberTracker sequenceNumbers;
+
+        // Replaced on modification while holding the lock of the exporter
+        private volatile IdMap<TimeWrapper<TemplateOptions>> templates = IdMap.empty();
+
+        private volatile long lastSeen;
+
+        // Only accessed while scheduling
+        private long deadline;
+
+        private boolean removed = false;
+
+        private Domain(final Exporter exporter, final long observationDomainId) {
+            this.exporter = Objects.requireNonNull(exporter);
+            this.observationDomainId = observationDomainId;
+            this.sequenceNumbers = UdpSessionManager.this.sequenceNumberTracker.get();
+            this.lastSeen = System.currentTimeMillis();
         }
 
-        public TemplateOptions(final Template template, Map<Set<Value<?>>, TimeWrapper<List<Value<?>>>> options) {
-            this.template = Objects.requireNonNull(template);
-            this.options = Objects.requireNonNull(options);
+        // Must be called while holding the lock of the exporter
+        private void putTemplate(final Template template) {
+            final TimeWrapper<TemplateOptions> wrapper = this.templates.get(template.id);
+
+            final TemplateOptions newTemplateOptions;
+            if (wrapper == null) {
+                newTemplateOptions = new TemplateOptions(template);
+                this.exporter.shard.templates.incrementAndGet();
+            } else {
+                // preserve the old option values
+                newTemplateOptions = new TemplateOptions(template, wrapper.wrapped.options);
+            }
+
+            this.templates = this.templates.with(template.id, new TimeWrapper<>(newTemplateOptions));
+        }
+
+        // Must be called while holding the lock of the exporter
+        private int removeTemplates(final IdPredicate<TimeWrapper<TemplateOptions>> predicate) {
+            final IdMap<TimeWrapper<TemplateOptions>> templates = this.templates.filter((id, template) -> !predicate.test(id, template));
+            final int removed = this.templates.size() - templates.size();
+
+            this.templates = templates;
+            this.exporter.shard.templates.addAndGet(-removed);
+
+            return removed;
         }
     }
 
     private final class UdpSession implements Session {
+        private final Shard shard;
         private final SessionKey sessionKey;
 
-        public UdpSession(final SessionKey sessionKey) {
+        // Resolved on first use
+        private Exporter exporter;
+
+        public UdpSession(final Shard shard, final SessionKey sessionKey) {
+            this.shard = Objects.requireNonNull(shard);
             this.sessionKey = Objects.requireNonNull(sessionKey);
         }
 
+        private Domain lookup(final long observationDomainId) {
+            if (this.exporter == null || this.exporter.removed) {
+                this.exporter = this.shard.exporters.get(this.sessionKey);
+                if (this.exporter == null) {
+                    return null;
+                }
+            }
+            return this.exporter.domains.get(observationDomainId);
+        }
+
+        private Domain attach(final long observationDomainId) {
+            while (true) {
+                final Domain domain = this.lookup(observationDomainId);
+                if (domain != null) {
+                    return domain;
+                }
+
+                final Exporter exporter = this.shard.attach(this.sessionKey);
+                synchronized (exporter) {
+                    // The exporter may have been expired or dropped in the meantime
+                    if (!exporter.removed) {
+                        this.exporter = exporter;
+                        return exporter.attach(observationDomainId);
+                    }
+                }
+            }
+        }
+
+        private void update(final long observationDomainId, final Consumer<Domain> update) {
+            while (true) {
+                final Domain domain = this.attach(observationDomainId);
+                synchronized (domain.exporter) {
+                    // The domain may have been expired or dropped in the meantime
+                    if (!domain.removed) {
+                        update.accept(domain);
+                        return;
+                    }
+                }
+            }
+        }
+
         @Override
         public void addTemplate(final long observationDomainId, final Template template) {
-            final TemplateKey key = new TemplateKey(this.sessionKey, observationDomainId, template.id);
-            UdpSessionManager.this.templates.compute(key, (k, wrapper) -> {
-                TemplateOptions newTemplateOptions;
-                if (wrapper == null) {
-                    newTemplateOptions = new TemplateOptions(template);
-                } else {
-                    // preserve the old option values
-                    newTemplateOptions = new TemplateOptions(template, wrapper.wrapped.options);
-                }
-                return new TimeWrapper<>(newTemplateOptions);
-            });
+            this.update(observationDomainId, domain -> domain.putTemplate(template));
         }
 
         @Override
         public void removeTemplate(final long observationDomainId, final int templateId) {
-            final TemplateKey key = new TemplateKey(this.sessionKey, observationDomainId, templateId);
-            UdpSessionManager.this.templates.remove(key);
+            final Domain domain = this.lookup(observationDomainId);
+            if (domain != null) {
+                synchronized (domain.exporter) {
+                    if (!domain.removed) {
+                        domain.removeTemplates((id, template) -> id == templateId);
+                    }
+                }
+            }
         }
 
         @Override
         public void removeAllTemplate(final long observationDomainId, final Template.Type type) {
-            final DomainKey domainKey = new DomainKey(this.sessionKey, observationDomainId);
-            UdpSessionManager.this.removeTemplateIf(e -> domainKey.equals(e.getKey().observationDomainId) && e.getValue().wrapped.template.type == type);
+            final Domain domain = this.lookup(observationDomainId);
+            if (domain != null) {
+                synchronized (domain.exporter) {
+                    if (!domain.removed) {
+                        domain.removeTemplates((id, template) -> template.wrapped.template.type == type);
+                    }
+                }
+            }
         }
 
         @Override
@@ -238,8 +607,7 @@ public class UdpSessionManager {
                                final int templateId,
                                final Collection<Value<?>> scopes,
                                final List<Value<?>> values) {
-            final TemplateKey key = new TemplateKey(this.sessionKey, observationDomainId, templateId);
-            UdpSessionManager.this.templates.get(key).wrapped.options.put(new HashSet<>(scopes), new TimeWrapper<>(values));
+            this.lookup(observationDomainId).templates.get(templateId).wrapped.options.put(new HashSet<>(scopes), new TimeWrapper<>(values));
         }
 
         @Override
@@ -254,9 +622,9 @@ public class UdpSessionManager {
 
         @Override
         public boolean verifySequenceNumber(final long observationDomainId, final long sequenceNumber) {
-            final DomainKey key = new DomainKey(this.sessionKey, observationDomainId);
-            final SequenceNumberTracker tracker = UdpSessionManager.this.sequenceNumbers.computeIfAbsent(key, (k) -> UdpSessionManager.this.sequenceNumberTracker.get());
-            return tracker.verify(sequenceNumber);
+            final Domain domain = this.attach(observationDomainId);
+            domain.lastSeen = System.currentTimeMillis();
+            return domain.sequenceNumbers.verify(sequenceNumber);
         }
 
         private final class Resolver implements Session.Resolver {
@@ -266,13 +634,14 @@ public class UdpSessionManager {
                 this.observationDomainId = observationDomainId;
             }
 
-            private TemplateKey key(final int templateId) {
-                return new TemplateKey(UdpSession.this.sessionKey, this.observationDomainId, templateId);
+            private IdMap<TimeWrapper<TemplateOptions>> templates() {
+                final Domain domain = UdpSession.this.lookup(this.observationDomainId);
+                return domain != null ? domain.templates : IdMap.empty();
             }
 
             @Override
             public Template lookupTemplate(final int templateId) throws MissingTemplateException {
-                final TimeWrapper<TemplateOptions> templateOptions = UdpSessionManager.this.templates.get(key(templateId));
+                final TimeWrapper<TemplateOptions> templateOptions = this.templates().get(templateId);
                 if (templateOptions != null) {
                     return templateOptions.wrapped.template;
                 } else {
@@ -286,11 +655,10 @@ public class UdpSessionManager {
 
                 final Set<String> scoped = values.stream().map(Value::getName).collect(Collectors.toSet());
 
-                for (final var e : Iterables.filter(UdpSessionManager.this.templates.entrySet(),
-                        e -> Objects.equals(e.getKey().observationDomainId.sessionKey, UdpSession.this.sessionKey) &&
-                                Objects.equals(e.getKey().observationDomainId.observationDomainId, this.observationDomainId))) {
-
-                    final Template template = e.getValue().wrapped.template;
+                final IdMap<TimeWrapper<TemplateOptions>> templates = this.templates();
+                for (int i = 0; i < templates.size(); i++) {
+                    final TemplateOptions templateOptions = templates.value(i).wrapped;
+                    final Template template = templateOptions.template;
 
                     if (scoped.containsAll(template.scopeNames)) {
                         // Found option template where scoped fields is subset of actual data fields
@@ -298,7 +666,7 @@ public class UdpSessionManager {
                                 .filter(s -> template.scopeNames.contains(s.getName()))
                                 .collect(Collectors.toSet());
 
-                        final TimeWrapper<List<Value<?>>> optionValues = e.getValue().wrapped.options.get(scopeValues);
+                        final TimeWrapper<List<Value<?>>> optionValues = templateOptions.options.get(scopeValues);
                         if (optionValues != null) {
                             for (final Value<?> value : optionValues.wrapped) {
                                 options.put(value.getName(), value);
@@ -309,6 +677,33 @@ public class UdpSessionManager {
 
                 return new ArrayList<>(options.values());
             }
+
+            @Override
+            public TemplateDecoder lookupDecoder(final Template template, final RecordLayout layout, final Function<Field, String> names) {
+                final TimeWrapper<TemplateOptions> templateOptions = this.templates().get(template.id);
+                if (templateOptions == null || templateOptions.wrapped.template != template) {
+                    // The template has been replaced or withdrawn in the meantime - don't cache a decoder for it
+                    return TemplateDecoder.compile(template, layout, names);
+                }
+
+                TemplateDecoder decoder = templateOptions.wrapped.decoder;
+                if (decoder == null || !decoder.matches(template, layout)) {
+                    decoder = TemplateDecoder.compile(template, layout, names);
+                    templateOptions.wrapped.decoder = decoder;
+                }
+                return decoder;
+            }
+
+            @Override
+            public Set<String> getScopeNames() {
+                final Set<String> scopeNames = new HashSet<>();
+
+                final IdMap<TimeWrapper<TemplateOptions>> templates = this.templates();
+                for (int i = 0; i < templates.size(); i++) {
+                    scopeNames.addAll(templates.value(i).wrapped.template.scopeNames);
+                }
+                return scopeNames;
+            }
         }
     }
 }
@@ -0,0 +1,459 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.netflow.parser.transport;
+
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout.Kind.DATE_TIME_MICROSECONDS;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout.Kind.DATE_TIME_MILLISECONDS;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout.Kind.DATE_TIME_NANOSECONDS;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout.Kind.DATE_TIME_SECONDS;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout.Kind.IPV4_ADDRESS;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout.Kind.IPV6_ADDRESS;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout.Kind.UNSIGNED;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.MessageUtils.getUInt64Value;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.MessageUtils.setDoubleValue;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.MessageUtils.setIntValue;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.MessageUtils.setLongValue;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.Netflow9DirectMessageBuilder.first;
+
+import java.util.Objects;
+
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DirectMessageBuilder;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordBuffer;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout;
+import org.opennms.netmgt.telemetry.protocols.netflow.transport.Direction;
+import org.opennms.netmgt.telemetry.protocols.netflow.transport.FlowMessage;
+import org.opennms.netmgt.telemetry.protocols.netflow.transport.NetflowVersion;
+import org.opennms.netmgt.telemetry.protocols.netflow.transport.SamplingAlgorithm;
+
+import com.google.common.primitives.UnsignedLong;
+
+/**
+ * Builds IPFIX flow messages from directly decoded records.
+ *
+ * This mirrors {@link IpFixMessageBuilder} and shares its fallback configuration. DNS enrichment is not supported.
+ */
+public class IpFixDirectMessageBuilder implements DirectMessageBuilder {
+
+    public static final RecordLayout LAYOUT;
+
+    private static final int EXPORT_TIME;
+    private static final int RECORD_COUNT;
+    private static final int SEQUENCE_NUMBER;
+    private static final int OBSERVATION_DOMAIN_ID;
+    private static final int OCTET_DELTA_COUNT;
+    private static final int POST_OCTET_DELTA_COUNT;
+    private static final int LAYER2_OCTET_DELTA_COUNT;
+    private static final int POST_LAYER2_OCTET_DELTA_COUNT;
+    private static final int TRANSPORT_OCTET_DELTA_COUNT;
+    private static final int FLOW_DIRECTION;
+    private static final int DESTINATION_IPV6_ADDRESS;
+    private static final int DESTINATION_IPV4_ADDRESS;
+    private static final int BGP_DESTINATION_AS_NUMBER;
+    private static final int DESTINATION_IPV6_PREFIX_LENGTH;
+    private static final int DESTINATION_IPV4_PREFIX_LENGTH;
+    private static final int DESTINATION_TRANSPORT_PORT;
+    private static final int ENGINE_ID;
+    private static final int ENGINE_TYPE;
+    private static final int INGRESS_INTERFACE;
+    private static final int IP_VERSION;
+    private static final int EGRESS_INTERFACE;
+    private static final int PROTOCOL_IDENTIFIER;
+    private static final int TCP_CONTROL_BITS;
+    private static final int IP_CLASS_OF_SERVICE;
+    private static final int FLOW_START_SECONDS;
+    private static final int FLOW_START_MILLISECONDS;
+    private static final int FLOW_START_MICROSECONDS;
+    private static final int FLOW_START_NANOSECONDS;
+    private static final int FLOW_START_DELTA_MICROSECONDS;
+    private static final int FLOW_START_SYS_UP_TIME;
+    private static final int SYSTEM_INIT_TIME_MILLISECONDS;
+    private static final int FLOW_END_SECONDS;
+    private static final int FLOW_END_MILLISECONDS;
+    private static final int FLOW_END_MICROSECONDS;
+    private static final int FLOW_END_NANOSECONDS;
+    private static final int FLOW_END_DELTA_MICROSECONDS;
+    private static final int FLOW_END_SYS_UP_TIME;
+    private static final int IP_NEXT_HOP_IPV6_ADDRESS;
+    private static final int IP_NEXT_HOP_IPV4_ADDRESS;
+    private static final int BGP_NEXT_HOP_IPV6_ADDRESS;
+    private static final int BGP_NEXT_HOP_IPV4_ADDRESS;
+    private static final int PACKET_DELTA_COUNT;
+    private static final int POST_PACKET_DELTA_COUNT;
+    private static final int TRANSPORT_PACKET_DELTA_COUNT;
+    private static final int SAMPLING_ALGORITHM;
+    private static final int SAMPLER_MODE;
+    private static final int SELECTOR_ALGORITHM;
+    private static final int SAMPLING_INTERVAL;
+    private static final int SAMPLER_RANDOM_INTERVAL;
+    private static final int SAMPLING_FLOW_INTERVAL;
+    private static final int SAMPLING_FLOW_SPACING;
+    private static final int FLOW_SAMPLING_TIME_INTERVAL;
+    private static final int FLOW_SAMPLING_TIME_SPACING;
+    private static final int SAMPLING_SIZE;
+    private static final int SAMPLING_POPULATION;
+    private static final int HASH_SELECTED_RANGE_MIN;
+    private static final int HASH_SELECTED_RANGE_MAX;
+    private static final int HASH_OUTPUT_RANGE_MIN;
+    private static final int HASH_OUTPUT_RANGE_MAX;
+    private static final int SOURCE_IPV6_ADDRESS;
+    private static final int SOURCE_IPV4_ADDRESS;
+    private static final int SOURCE_IPV6_PREFIX_LENGTH;
+    private static final int SOURCE_IPV4_PREFIX_LENGTH;
+    private static final int SOURCE_TRANSPORT_PORT;
+    private static final int VLAN_ID;
+    private static final int POST_VLAN_ID;
+    private static final int DOT1Q_VLAN_ID;
+    private static final int DOT1Q_CUSTOMER_VLAN_ID;
+    private static final int POST_DOT1Q_VLAN_ID;
+    private static final int POST_DOT1Q_CUSTOMER_VLAN_ID;
+    private static final int FLOW_ACTIVE_TIMEOUT;
+    private static final int FLOW_INACTIVE_TIMEOUT;
+    private static final int INGRESS_PHYSICAL_INTERFACE;
+    private static final int EGRESS_PHYSICAL_INTERFACE;
+
+    static {
+        // The names must match the ones used by IpFixMessageBuilder
+        final RecordLayout.Builder layout = RecordLayout.builder();
+        EXPORT_TIME = layout.add("@exportTime", UNSIGNED);
+        RECORD_COUNT = layout.add("@recordCount", UNSIGNED);
+        SEQUENCE_NUMBER = layout.add("@sequenceNumber", UNSIGNED);
+        OBSERVATION_DOMAIN_ID = layout.add("@observationDomainId", UNSIGNED);
+        OCTET_DELTA_COUNT = layout.add("octetDeltaCount", UNSIGNED);
+        POST_OCTET_DELTA_COUNT = layout.add("postOctetDeltaCount", UNSIGNED);
+        LAYER2_OCTET_DELTA_COUNT = layout.add("layer2OctetDeltaCount", UNSIGNED);
+        POST_LAYER2_OCTET_DELTA_COUNT = layout.add("postLayer2OctetDeltaCount", UNSIGNED);
+        TRANSPORT_OCTET_DELTA_COUNT = layout.add("transportOctetDeltaCount", UNSIGNED);
+        FLOW_DIRECTION = layout.add("flowDirection", UNSIGNED);
+        DESTINATION_IPV6_ADDRESS = layout.add("destinationIPv6Address", IPV6_ADDRESS);
+        DESTINATION_IPV4_ADDRESS = layout.add("destinationIPv4Address", IPV4_ADDRESS);
+        BGP_DESTINATION_AS_NUMBER = layout.add("bgpDestinationAsNumber", UNSIGNED);
+        DESTINATION_IPV6_PREFIX_LENGTH = layout.add("destinationIPv6PrefixLength", UNSIGNED);
+        DESTINATION_IPV4_PREFIX_LENGTH = layout.add("destinationIPv4PrefixLength", UNSIGNED);
+        DESTINATION_TRANSPORT_PORT = layout.add("destinationTransportPort", UNSIGNED);
+        ENGINE_ID = layout.add("engineId", UNSIGNED);
+        ENGINE_TYPE = layout.add("engineType", UNSIGNED);
+        INGRESS_INTERFACE = layout.add("ingressInterface", UNSIGNED);
+        IP_VERSION = layout.add("ipVersion", UNSIGNED);
+        EGRESS_INTERFACE = layout.add("egressInterface", UNSIGNED);
+        PROTOCOL_IDENTIFIER = layout.add("protocolIdentifier", UNSIGNED);
+        TCP_CONTROL_BITS = layout.add("tcpControlBits", UNSIGNED);
+        IP_CLASS_OF_SERVICE = layout.add("ipClassOfService", UNSIGNED);
+        FLOW_START_SECONDS = layout.add("flowStartSeconds", DATE_TIME_SECONDS);
+        FLOW_START_MILLISECONDS = layout.add("flowStartMilliseconds", DATE_TIME_MILLISECONDS);
+        FLOW_START_MICROSECONDS = layout.add("flowStartMicroseconds", DATE_TIME_MICROSECONDS);
+        FLOW_START_NANOSECONDS = layout.add("flowStartNanoseconds", DATE_TIME_NANOSECONDS);
+        FLOW_START_DELTA_MICROSECONDS = layout.add("flowStartDeltaMicroseconds", UNSIGNED);
+        FLOW_START_SYS_UP_TIME = layout.add("flowStartSysUpTime", UNSIGNED);
+        SYSTEM_INIT_TIME_MILLISECONDS = layout.add("systemInitTimeMilliseconds", DATE_TIME_MILLISECONDS);
+        FLOW_END_SECONDS = layout.add("flowEndSeconds", DATE_TIME_SECONDS);
+        FLOW_END_MILLISECONDS = layout.add("flowEndMilliseconds", DATE_TIME_MILLISECONDS);
+        FLOW_END_MICROSECONDS = layout.add("flowEndMicroseconds", DATE_TIME_MICROSECONDS);
+        FLOW_END_NANOSECONDS = layout.add("flowEndNanoseconds", DATE_TIME_NANOSECONDS);
+        FLOW_END_DELTA_MICROSECONDS = layout.add("flowEndDeltaMicroseconds", UNSIGNED);
+        FLOW_END_SYS_UP_TIME = layout.add("flowEndSysUpTime", UNSIGNED);
+        IP_NEXT_HOP_IPV6_ADDRESS = layout.add("ipNextHopIPv6Address", IPV6_ADDRESS);
+        IP_NEXT_HOP_IPV4_ADDRESS = layout.add("ipNextHopIPv4Address", IPV4_ADDRESS);
+        BGP_NEXT_HOP_IPV6_ADDRESS = layout.add("bgpNextHopIPv6Address", IPV6_ADDRESS);
+        BGP_NEXT_HOP_IPV4_ADDRESS = layout.add("bgpNextHopIPv4Address", IPV4_ADDRESS);
+        PACKET_DELTA_COUNT = layout.add("packetDeltaCount", UNSIGNED);
+        POST_PACKET_DELTA_COUNT = layout.add("postPacketDeltaCount", UNSIGNED);
+        TRANSPORT_PACKET_DELTA_COUNT = layout.add("transportPacketDeltaCount", UNSIGNED);
+        SAMPLING_ALGORITHM = layout.add("samplingAlgorithm", UNSIGNED);
+        SAMPLER_MODE = layout.add("samplerMode", UNSIGNED);
+        SELECTOR_ALGORITHM = layout.add("selectorAlgorithm", UNSIGNED);
+        SAMPLING_INTERVAL = layout.add("samplingInterval", UNSIGNED);
+        SAMPLER_RANDOM_INTERVAL = layout.add("samplerRandomInterval", UNSIGNED);
+        SAMPLING_FLOW_INTERVAL = layout.add("samplingFlowInterval", UNSIGNED);
+        SAMPLING_FLOW_SPACING = layout.add("samplingFlowSpacing", UNSIGNED);
+        FLOW_SAMPLING_TIME_INTERVAL = layout.add("flowSamplingTimeInterval", UNSIGNED);
+        FLOW_SAMPLING_TIME_SPACING = layout.add("flowSamplingTimeSpacing", UNSIGNED);
+        SAMPLING_SIZE = layout.add("samplingSize", UNSIGNED);
+        SAMPLING_POPULATION = layout.add("samplingPopulation", UNSIGNED);
+        HASH_SELECTED_RANGE_MIN = layout.add("hashSelectedRangeMin", UNSIGNED);
+        HASH_SELECTED_RANGE_MAX = layout.add("hashSelectedRangeMax", UNSIGNED);
+        HASH_OUTPUT_RANGE_MIN = layout.add("hashOutputRangeMin", UNSIGNED);
+        HASH_OUTPUT_RANGE_MAX = layout.add("hashOutputRangeMax", UNSIGNED);
+        SOURCE_IPV6_ADDRESS = layout.add("sourceIPv6Address", IPV6_ADDRESS);
+        SOURCE_IPV4_ADDRESS = layout.add("sourceIPv4Address", IPV4_ADDRESS);
+        SOURCE_IPV6_PREFIX_LENGTH = layout.add("sourceIPv6PrefixLength", UNSIGNED);
+        SOURCE_IPV4_PREFIX_LENGTH = layout.add("sourceIPv4PrefixLength", UNSIGNED);
+        SOURCE_TRANSPORT_PORT = layout.add("sourceTransportPort", UNSIGNED);
+        VLAN_ID = layout.add("vlanId", UNSIGNED);
+        POST_VLAN_ID = layout.add("postVlanId", UNSIGNED);
+        DOT1Q_VLAN_ID = layout.add("dot1qVlanId", UNSIGNED);
+        DOT1Q_CUSTOMER_VLAN_ID = layout.add("dot1qCustomerVlanId", UNSIGNED);
+        POST_DOT1Q_VLAN_ID = layout.add("postDot1qVlanId", UNSIGNED);
+        POST_DOT1Q_CUSTOMER_VLAN_ID = layout.add("postDot1qCustomerVlanId", UNSIGNED);
+        FLOW_ACTIVE_TIMEOUT = layout.add("flowActiveTimeout", UNSIGNED);
+        FLOW_INACTIVE_TIMEOUT = layout.add("flowInactiveTimeout", UNSIGNED);
+        INGRESS_PHYSICAL_INTERFACE = layout.add("ingressPhysicalInterface", UNSIGNED);
+        EGRESS_PHYSICAL_INTERFACE = layout.add("egressPhysicalInterface", UNSIGNED);
+        LAYOUT = layout.build();
+    }
+
+    private final IpFixMessageBuilder config;
+
+    public IpFixDirectMessageBuilder(final IpFixMessageBuilder config) {
+        this.config = Objects.requireNonNull(config);
+    }
+
+    @Override
+    public RecordLayout getLayout() {
+        return LAYOUT;
+    }
+
+    @Override
+    public FlowMessage.Builder buildMessage(final RecordBuffer record) {
+        final FlowMessage.Builder builder = FlowMessage.newBuilder();
+
+        builder.setDirection(record.isPresent(FLOW_DIRECTION) ? getDirection(record.get(FLOW_DIRECTION)) : Direction.UNKNOWN);
+
+        if (record.isPresent(BGP_DESTINATION_AS_NUMBER)) {
+            builder.setDstAs(setLongValue(record.get(BGP_DESTINATION_AS_NUMBER)));
+        }
+        if (record.isPresent(DESTINATION_TRANSPORT_PORT)) {
+            builder.setDstPort(setIntValue((int) record.get(DESTINATION_TRANSPORT_PORT)));
+        }
+        if (record.isPresent(ENGINE_ID)) {
+            builder.setEngineId(setIntValue((int) record.get(ENGINE_ID)));
+        }
+        if (record.isPresent(ENGINE_TYPE)) {
+            builder.setEngineType(setIntValue((int) record.get(ENGINE_TYPE)));
+        }
+        if (record.isPresent(RECORD_COUNT)) {
+            builder.setNumFlowRecords(setIntValue((int) record.get(RECORD_COUNT)));
+        }
+        if (record.isPresent(SEQUENCE_NUMBER)) {
+            builder.setFlowSeqNum(setLongValue(record.get(SEQUENCE_NUMBER)));
+        }
+        if (record.isPresent(IP_VERSION)) {
+            builder.setIpProtocolVersion(setIntValue((int) record.get(IP_VERSION)));
+        }
+        if (record.isPresent(PROTOCOL_IDENTIFIER)) {
+            builder.setProtocol(setIntValue((int) record.get(PROTOCOL_IDENTIFIER)));
+        }
+        if (record.isPresent(TCP_CONTROL_BITS)) {
+            builder.setTcpFlags(setIntValue((int) record.get(TCP_CONTROL_BITS)));
+        }
+        if (record.isPresent(IP_CLASS_OF_SERVICE)) {
+            builder.setTos(setIntValue((int) record.get(IP_CLASS_OF_SERVICE)));
+        }
+        if (record.isPresent(OBSERVATION_DOMAIN_ID)) {
+            builder.setNodeIdentifier(String.valueOf(record.get(OBSERVATION_DOMAIN_ID)));
+        }
+        if (record.isPresent(SOURCE_TRANSPORT_PORT)) {
+            builder.setSrcPort(setIntValue((int) record.get(SOURCE_TRANSPORT_PORT)));
+        }
+
+        // Set input interface
+        final int inputInterface = first(record, INGRESS_PHYSICAL_INTERFACE, INGRESS_INTERFACE);
+        if (inputInterface >= 0) {
+            builder.setInputSnmpIfindex(setIntValue((int) record.get(inputInterface)));
+        }
+
+        // Set output interface
+        final int outputInterface = first(record, EGRESS_PHYSICAL_INTERFACE, EGRESS_INTERFACE);
+        if (outputInterface >= 0) {
+            builder.setOutputSnmpIfindex(setIntValue((int) record.get(outputInterface)));
+        }
+
+        final int bytes = first(record, OCTET_DELTA_COUNT, POST_OCTET_DELTA_COUNT, LAYER2_OCTET_DELTA_COUNT, POST_LAYER2_OCTET_DELTA_COUNT, TRANSPORT_OCTET_DELTA_COUNT);
+        if (bytes >= 0) {
+            builder.setNumBytes(setLongValue(record.get(bytes)));
+        }
+
+        final int dstAddress = first(record, DESTINATION_IPV6_ADDRESS, DESTINATION_IPV4_ADDRESS);
+        if (dstAddress >= 0) {
+            builder.setDstAddress(record.getAddress(dstAddress));
+        }
+
+        final int dstPrefixLength = first(record, DESTINATION_IPV6_PREFIX_LENGTH, DESTINATION_IPV4_PREFIX_LENGTH);
+        if (dstPrefixLength >= 0) {
+            builder.setDstMaskLen(setIntValue((int) record.get(dstPrefixLength)));
+        }
+
+        final int nextHop = first(record, IP_NEXT_HOP_IPV6_ADDRESS, IP_NEXT_HOP_IPV4_ADDRESS, BGP_NEXT_HOP_IPV6_ADDRESS, BGP_NEXT_HOP_IPV4_ADDRESS);
+        if (nextHop >= 0) {
+            builder.setNextHopAddress(record.getAddress(nextHop));
+        }
+
+        final int srcAddress = first(record, SOURCE_IPV6_ADDRESS, SOURCE_IPV4_ADDRESS);
+        if (srcAddress >= 0) {
+            builder.setSrcAddress(record.getAddress(srcAddress));
+        }
+
+        final int srcPrefixLength = first(record, SOURCE_IPV6_PREFIX_LENGTH, SOURCE_IPV4_PREFIX_LENGTH);
+        if (srcPrefixLength >= 0) {
+            builder.setSrcMaskLen(setIntValue((int) record.get(srcPrefixLength)));
+        }
+
+        final int vlan = first(record, VLAN_ID, POST_VLAN_ID, DOT1Q_VLAN_ID, DOT1Q_CUSTOMER_VLAN_ID, POST_DOT1Q_VLAN_ID, POST_DOT1Q_CUSTOMER_VLAN_ID);
+        if (vlan >= 0) {
+            builder.setVlan(setIntValue((int) record.get(vlan)));
+        }
+
+        final long timeStamp = record.isPresent(EXPORT_TIME) ? record.get(EXPORT_TIME) * 1000 : 0;
+        builder.setTimestamp(timeStamp);
+
+        // Set first switched
+        final int flowStartAbsolute = first(record, FLOW_START_SECONDS, FLOW_START_MILLISECONDS, FLOW_START_MICROSECONDS, FLOW_START_NANOSECONDS);
+        if (flowStartAbsolute >= 0) {
+            builder.setFirstSwitched(setLongValue(record.get(flowStartAbsolute)));
+        } else if (record.isPresent(FLOW_START_DELTA_MICROSECONDS)) {
+            builder.setFirstSwitched(setLongValue(record.get(FLOW_START_DELTA_MICROSECONDS) + timeStamp));
+        } else if (record.isPresent(FLOW_START_SYS_UP_TIME) && record.isPresent(SYSTEM_INIT_TIME_MILLISECONDS)) {
+            builder.setFirstSwitched(setLongValue(record.get(FLOW_START_SYS_UP_TIME) + record.get(SYSTEM_INIT_TIME_MILLISECONDS)));
+        }
+
+        // Set last switched
+        final int flowEndAbsolute = first(record, FLOW_END_SECONDS, FLOW_END_MILLISECONDS, FLOW_END_MICROSECONDS, FLOW_END_NANOSECONDS);
+        if (flowEndAbsolute >= 0) {
+            builder.setLastSwitched(setLongValue(record.get(flowEndAbsolute)));
+        } else if (record.isPresent(FLOW_END_DELTA_MICROSECONDS)) {
+            builder.setLastSwitched(setLongValue(record.get(FLOW_END_DELTA_MICROSECONDS) + timeStamp));
+        } else if (record.isPresent(FLOW_END_SYS_UP_TIME) && record.isPresent(SYSTEM_INIT_TIME_MILLISECONDS)) {
+            builder.setLastSwitched(setLongValue(record.get(FLOW_END_SYS_UP_TIME) + record.get(SYSTEM_INIT_TIME_MILLISECONDS)));
+        }
+
+        final int packets = first(record, PACKET_DELTA_COUNT, POST_PACKET_DELTA_COUNT, TRANSPORT_PACKET_DELTA_COUNT);
+        if (packets >= 0) {
+            builder.setNumPackets(setLongValue(record.get(packets)));
+        }
+
+        SamplingAlgorithm sampling = SamplingAlgorithm.UNASSIGNED;
+        final int deprecatedSamplingAlgorithm = first(record, SAMPLING_ALGORITHM, SAMPLER_MODE);
+        if (deprecatedSamplingAlgorithm >= 0) {
+            if ((int) record.get(deprecatedSamplingAlgorithm) == 1) {
+                sampling = SamplingAlgorithm.SYSTEMATIC_COUNT_BASED_SAMPLING;
+            }
+            if ((int) record.get(deprecatedSamplingAlgorithm) == 2) {
+                sampling = SamplingAlgorithm.RANDOM_N_OUT_OF_N_SAMPLING;
+            }
+        }
+
+        final boolean hasSelectorAlgorithm = record.isPresent(SELECTOR_ALGORITHM);
+        final int selectorAlgorithm = hasSelectorAlgorithm ? (int) record.get(SELECTOR_ALGORITHM) : 0;
+        if (hasSelectorAlgorithm) {
+            sampling = getSelectorSamplingAlgorithm(selectorAlgorithm, sampling);
+        }
+        builder.setSamplingAlgorithm(sampling);
+
+        // The configured fallback takes precedence over the random interval, as it does for the legacy builder
+        if (record.isPresent(SAMPLING_INTERVAL)) {
+            builder.setSamplingInterval(setDoubleValue(record.get(SAMPLING_INTERVAL)));
+        } else if (this.config.getFlowSamplingIntervalFallback() != null) {
+            builder.setSamplingInterval(setDoubleValue(this.config.getFlowSamplingIntervalFallback()));
+        } else if (record.isPresent(SAMPLER_RANDOM_INTERVAL)) {
+            builder.setSamplingInterval(setDoubleValue(record.get(SAMPLER_RANDOM_INTERVAL)));
+        } else if (hasSelectorAlgorithm) {
+            if (selectorAlgorithm != 0) {
+                builder.setSamplingInterval(setDoubleValue(getSelectorSamplingInterval(record, selectorAlgorithm)));
+            }
+        } else {
+            builder.setSamplingInterval(setDoubleValue(1.0));
+        }
+
+        // Build delta switched
+        final Long flowActiveTimeout = record.isPresent(FLOW_ACTIVE_TIMEOUT) ? Long.valueOf(record.get(FLOW_ACTIVE_TIMEOUT)) : this.config.getFlowActiveTimeoutFallback();
+        final Long flowInactiveTimeout = record.isPresent(FLOW_INACTIVE_TIMEOUT) ? Long.valueOf(record.get(FLOW_INACTIVE_TIMEOUT)) : this.config.getFlowInactiveTimeoutFallback();
+
+        final Timeout timeout = new Timeout(flowActiveTimeout, flowInactiveTimeout);
+        timeout.setFirstSwitched(builder.hasFirstSwitched() ? builder.getFirstSwitched().getValue() : null);
+        timeout.setLastSwitched(builder.hasLastSwitched() ? builder.getLastSwitched().getValue() : null);
+        timeout.setNumBytes(builder.getNumBytes().getValue());
+        timeout.setNumPackets(builder.getNumPackets().getValue());
+        getUInt64Value(timeout.getDeltaSwitched()).ifPresent(builder::setDeltaSwitched);
+
+        builder.setNetflowVersion(NetflowVersion.IPFIX);
+        return builder;
+    }
+
+    private static Direction getDirection(final long value) {
+        switch ((int) value) {
+            case 0:
+                return Direction.INGRESS;
+            case 1:
+                return Direction.EGRESS;
+            default:
+                return Direction.UNKNOWN;
+        }
+    }
+
+    private static SamplingAlgorithm getSelectorSamplingAlgorithm(final int selectorAlgorithm, final SamplingAlgorithm fallback) {
+        switch (selectorAlgorithm) {
+            case 0:
+                return SamplingAlgorithm.UNASSIGNED;
+            case 1:
+                return SamplingAlgorithm.SYSTEMATIC_COUNT_BASED_SAMPLING;
+            case 2:
+                return SamplingAlgorithm.SYSTEMATIC_TIME_BASED_SAMPLING;
+            case 3:
+                return SamplingAlgorithm.RANDOM_N_OUT_OF_N_SAMPLING;
+            case 4:
+                return SamplingAlgorithm.UNIFORM_PROBABILISTIC_SAMPLING;
+            case 5:
+                return SamplingAlgorithm.PROPERTY_MATCH_FILTERING;
+            case 6:
+            case 7:
+            case 8:
+                return SamplingAlgorithm.HASH_BASED_FILTERING;
+            case 9:
+                return SamplingAlgorithm.FLOW_STATE_DEPENDENT_INTERMEDIATE_FLOW_SELECTION_PROCESS;
+            default:
+                return fallback;
+        }
+    }
+
+    private static double getSelectorSamplingInterval(final RecordBuffer record, final int selectorAlgorithm) {
+        switch (selectorAlgorithm) {
+            case 1: {
+                final double interval = record.isPresent(SAMPLING_FLOW_INTERVAL) ? record.get(SAMPLING_FLOW_INTERVAL) : 1.0;
+                final double spacing = record.isPresent(SAMPLING_FLOW_SPACING) ? record.get(SAMPLING_FLOW_SPACING) : 0.0;
+                return interval + spacing / interval;
+            }
+            case 2: {
+                final double interval = record.isPresent(FLOW_SAMPLING_TIME_INTERVAL) ? record.get(FLOW_SAMPLING_TIME_INTERVAL) : 1.0;
+                final double spacing = record.isPresent(FLOW_SAMPLING_TIME_SPACING) ? record.get(FLOW_SAMPLING_TIME_SPACING) : 0.0;
+                return interval + spacing / spacing;
+            }
+            case 3: {
+                final double size = record.isPresent(SAMPLING_SIZE) ? record.get(SAMPLING_SIZE) : 1.0;
+                final double population = record.isPresent(SAMPLING_POPULATION) ? record.get(SAMPLING_POPULATION) : 1.0;
+                return population / size;
+            }
+            case 4:
+                // The probability is a float which is not captured by the record buffer
+                return 1.0;
+            case 5:
+            case 6:
+            case 7: {
+                final UnsignedLong selectedRangeMin = record.isPresent(HASH_SELECTED_RANGE_MIN) ? UnsignedLong.fromLongBits(record.get(HASH_SELECTED_RANGE_MIN)) : UnsignedLong.ZERO;
+                final UnsignedLong selectedRangeMax = record.isPresent(HASH_SELECTED_RANGE_MAX) ? UnsignedLong.fromLongBits(record.get(HASH_SELECTED_RANGE_MAX)) : UnsignedLong.MAX_VALUE;
+                final UnsignedLong outputRangeMin = record.isPresent(HASH_OUTPUT_RANGE_MIN) ? UnsignedLong.fromLongBits(record.get(HASH_OUTPUT_RANGE_MIN)) : UnsignedLong.ZERO;
+                final UnsignedLong outputRangeMax = record.isPresent(HASH_OUTPUT_RANGE_MAX) ? UnsignedLong.fromLongBits(record.get(HASH_OUTPUT_RANGE_MAX)) : UnsignedLong.MAX_VALUE;
+                return (outputRangeMax.minus(outputRangeMin)).dividedBy(selectedRangeMax.minus(selectedRangeMin)).doubleValue();
+            }
+            default:
+                return Double.NaN;
+        }
+    }
+}
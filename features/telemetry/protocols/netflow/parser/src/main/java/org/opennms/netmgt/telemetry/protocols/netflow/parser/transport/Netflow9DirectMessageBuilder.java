@@ -0,0 +1,337 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.netflow.parser.transport;
+
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout.Kind.IPV4_ADDRESS;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout.Kind.IPV6_ADDRESS;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout.Kind.UNSIGNED;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.MessageUtils.getUInt64Value;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.MessageUtils.setDoubleValue;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.MessageUtils.setIntValue;
+import static org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.MessageUtils.setLongValue;
+
+import java.util.Objects;
+
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.DirectMessageBuilder;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordBuffer;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout;
+import org.opennms.netmgt.telemetry.protocols.netflow.transport.Direction;
+import org.opennms.netmgt.telemetry.protocols.netflow.transport.FlowMessage;
+import org.opennms.netmgt.telemetry.protocols.netflow.transport.NetflowVersion;
+import org.opennms.netmgt.telemetry.protocols.netflow.transport.SamplingAlgorithm;
+
+/**
+ * Builds Netflow v9 flow messages from directly decoded records.
+ *
+ * This mirrors {@link Netflow9MessageBuilder} and shares its fallback configuration. DNS enrichment is not supported.
+ */
+@SuppressWarnings("java:S109")
+public class Netflow9DirectMessageBuilder implements DirectMessageBuilder {
+
+    public static final RecordLayout LAYOUT;
+
+    private static final int RECORD_COUNT;
+    private static final int SEQUENCE_NUMBER;
+    private static final int SOURCE_ID;
+    private static final int SYS_UP_TIME;
+    private static final int UNIX_SECS;
+    private static final int IN_BYTES;
+    private static final int DIRECTION;
+    private static final int IPV4_DST_ADDR;
+    private static final int IPV6_DST_ADDR;
+    private static final int DST_AS;
+    private static final int IPV6_DST_MASK;
+    private static final int DST_MASK;
+    private static final int L4_DST_PORT;
+    private static final int ENGINE_ID;
+    private static final int ENGINE_TYPE;
+    private static final int FIRST_SWITCHED;
+    private static final int LAST_SWITCHED;
+    private static final int INPUT_SNMP;
+    private static final int IP_PROTOCOL_VERSION;
+    private static final int OUTPUT_SNMP;
+    private static final int IPV6_NEXT_HOP;
+    private static final int IPV4_NEXT_HOP;
+    private static final int BGP_IPV6_NEXT_HOP;
+    private static final int BGP_IPV4_NEXT_HOP;
+    private static final int IN_PKTS;
+    private static final int PROTOCOL;
+    private static final int SAMPLING_ALGORITHM;
+    private static final int SAMPLING_INTERVAL;
+    private static final int IPV6_SRC_ADDR;
+    private static final int IPV4_SRC_ADDR;
+    private static final int IPV6_SRC_MASK;
+    private static final int SRC_MASK;
+    private static final int SRC_AS;
+    private static final int L4_SRC_PORT;
+    private static final int TCP_FLAGS;
+    private static final int TOS;
+    private static final int SRC_VLAN;
+    private static final int DST_VLAN;
+    private static final int FLOW_ACTIVE_TIMEOUT;
+    private static final int FLOW_INACTIVE_TIMEOUT;
+    private static final int FLOW_START_MILLISECONDS;
+    private static final int FLOW_END_MILLISECONDS;
+    private static final int INGRESS_PHYSICAL_INTERFACE;
+    private static final int EGRESS_PHYSICAL_INTERFACE;
+
+    static {
+        // The names must match the ones used by Netflow9MessageBuilder
+        final RecordLayout.Builder layout = RecordLayout.builder();
+        RECORD_COUNT = layout.add("@recordCount", UNSIGNED);
+        SEQUENCE_NUMBER = layout.add("@sequenceNumber", UNSIGNED);
+        SOURCE_ID = layout.add("@sourceId", UNSIGNED);
+        SYS_UP_TIME = layout.add("@sysUpTime", UNSIGNED);
+        UNIX_SECS = layout.add("@unixSecs", UNSIGNED);
+        IN_BYTES = layout.add("IN_BYTES", UNSIGNED);
+        DIRECTION = layout.add("DIRECTION", UNSIGNED);
+        IPV4_DST_ADDR = layout.add("IPV4_DST_ADDR", IPV4_ADDRESS);
+        IPV6_DST_ADDR = layout.add("IPV6_DST_ADDR", IPV6_ADDRESS);
+        DST_AS = layout.add("DST_AS", UNSIGNED);
+        IPV6_DST_MASK = layout.add("IPV6_DST_MASK", UNSIGNED);
+        DST_MASK = layout.add("DST_MASK", UNSIGNED);
+        L4_DST_PORT = layout.add("L4_DST_PORT", UNSIGNED);
+        ENGINE_ID = layout.add("ENGINE_ID", UNSIGNED);
+        ENGINE_TYPE = layout.add("ENGINE_TYPE", UNSIGNED);
+        FIRST_SWITCHED = layout.add("FIRST_SWITCHED", UNSIGNED);
+        LAST_SWITCHED = layout.add("LAST_SWITCHED", UNSIGNED);
+        INPUT_SNMP = layout.add("INPUT_SNMP", UNSIGNED);
+        IP_PROTOCOL_VERSION = layout.add("IP_PROTOCOL_VERSION", UNSIGNED);
+        OUTPUT_SNMP = layout.add("OUTPUT_SNMP", UNSIGNED);
+        IPV6_NEXT_HOP = layout.add("IPV6_NEXT_HOP", IPV6_ADDRESS);
+        IPV4_NEXT_HOP = layout.add("IPV4_NEXT_HOP", IPV4_ADDRESS);
+        BGP_IPV6_NEXT_HOP = layout.add("BPG_IPV6_NEXT_HOP", IPV6_ADDRESS);
+        BGP_IPV4_NEXT_HOP = layout.add("BPG_IPV4_NEXT_HOP", IPV4_ADDRESS);
+        IN_PKTS = layout.add("IN_PKTS", UNSIGNED);
+        PROTOCOL = layout.add("PROTOCOL", UNSIGNED);
+        SAMPLING_ALGORITHM = layout.add("SAMPLING_ALGORITHM", UNSIGNED);
+        SAMPLING_INTERVAL = layout.add("SAMPLING_INTERVAL", UNSIGNED);
+        IPV6_SRC_ADDR = layout.add("IPV6_SRC_ADDR", IPV6_ADDRESS);
+        IPV4_SRC_ADDR = layout.add("IPV4_SRC_ADDR", IPV4_ADDRESS);
+        IPV6_SRC_MASK = layout.add("IPV6_SRC_MASK", UNSIGNED);
+        SRC_MASK = layout.add("SRC_MASK", UNSIGNED);
+        SRC_AS = layout.add("SRC_AS", UNSIGNED);
+        L4_SRC_PORT = layout.add("L4_SRC_PORT", UNSIGNED);
+        TCP_FLAGS = layout.add("TCP_FLAGS", UNSIGNED);
+        TOS = layout.add("TOS", UNSIGNED);
+        SRC_VLAN = layout.add("SRC_VLAN", UNSIGNED);
+        DST_VLAN = layout.add("DST_VLAN", UNSIGNED);
+        FLOW_ACTIVE_TIMEOUT = layout.add("FLOW_ACTIVE_TIMEOUT", UNSIGNED);
+        FLOW_INACTIVE_TIMEOUT = layout.add("FLOW_INACTIVE_TIMEOUT", UNSIGNED);
+        FLOW_START_MILLISECONDS = layout.add("flowStartMilliseconds", UNSIGNED);
+        FLOW_END_MILLISECONDS = layout.add("flowEndMilliseconds", UNSIGNED);
+        INGRESS_PHYSICAL_INTERFACE = layout.add("ingressPhysicalInterface", UNSIGNED);
+        EGRESS_PHYSICAL_INTERFACE = layout.add("egressPhysicalInterface", UNSIGNED);
+        LAYOUT = layout.build();
+    }
+
+    private final Netflow9MessageBuilder config;
+
+    public Netflow9DirectMessageBuilder(final Netflow9MessageBuilder config) {
+        this.config = Objects.requireNonNull(config);
+    }
+
+    @Override
+    public RecordLayout getLayout() {
+        return LAYOUT;
+    }
+
+    @Override
+    public FlowMessage.Builder buildMessage(final RecordBuffer record) {
+        final FlowMessage.Builder builder = FlowMessage.newBuilder();
+
+        if (this.config.getFlowSamplingIntervalFallback() != null) {
+            builder.setSamplingInterval(setDoubleValue(this.config.getFlowSamplingIntervalFallback()));
+        }
+
+        // Header
+        if (record.isPresent(RECORD_COUNT)) {
+            builder.setNumFlowRecords(setIntValue((int) record.get(RECORD_COUNT)));
+        }
+        if (record.isPresent(SEQUENCE_NUMBER)) {
+            builder.setFlowSeqNum(setLongValue(record.get(SEQUENCE_NUMBER)));
+        }
+        if (record.isPresent(SOURCE_ID)) {
+            builder.setNodeIdentifier(String.valueOf(record.get(SOURCE_ID)));
+        }
+
+        if (record.isPresent(IN_BYTES)) {
+            builder.setNumBytes(setLongValue(record.get(IN_BYTES)));
+        }
+        builder.setDirection(record.isPresent(DIRECTION) ? getDirection(record.get(DIRECTION)) : Direction.UNKNOWN);
+        if (record.isPresent(DST_AS)) {
+            builder.setDstAs(setLongValue(record.get(DST_AS)));
+        }
+        if (record.isPresent(L4_DST_PORT)) {
+            builder.setDstPort(setIntValue((int) record.get(L4_DST_PORT)));
+        }
+        if (record.isPresent(ENGINE_ID)) {
+            builder.setEngineId(setIntValue((int) record.get(ENGINE_ID)));
+        }
+        if (record.isPresent(ENGINE_TYPE)) {
+            builder.setEngineType(setIntValue((int) record.get(ENGINE_TYPE)));
+        }
+        if (record.isPresent(IP_PROTOCOL_VERSION)) {
+            builder.setIpProtocolVersion(setIntValue((int) record.get(IP_PROTOCOL_VERSION)));
+        }
+        if (record.isPresent(IN_PKTS)) {
+            builder.setNumPackets(setLongValue(record.get(IN_PKTS)));
+        }
+        if (record.isPresent(PROTOCOL)) {
+            builder.setProtocol(setIntValue((int) record.get(PROTOCOL)));
+        }
+        if (record.isPresent(SAMPLING_ALGORITHM)) {
+            builder.setSamplingAlgorithm(getSamplingAlgorithm(record.get(SAMPLING_ALGORITHM)));
+        }
+        if (record.isPresent(SAMPLING_INTERVAL)) {
+            builder.setSamplingInterval(setDoubleValue(record.get(SAMPLING_INTERVAL)));
+        }
+        if (record.isPresent(SRC_AS)) {
+            builder.setSrcAs(setLongValue(record.get(SRC_AS)));
+        }
+        if (record.isPresent(L4_SRC_PORT)) {
+            builder.setSrcPort(setIntValue((int) record.get(L4_SRC_PORT)));
+        }
+        if (record.isPresent(TCP_FLAGS)) {
+            builder.setTcpFlags(setIntValue((int) record.get(TCP_FLAGS)));
+        }
+        if (record.isPresent(TOS)) {
+            builder.setTos(setIntValue((int) record.get(TOS)));
+        }
+
+        final long sysUpTime = record.isPresent(SYS_UP_TIME) ? record.get(SYS_UP_TIME) : 0L;
+        final long unixSecs = record.isPresent(UNIX_SECS) ? record.get(UNIX_SECS) : 0L;
+
+        final long timeStampInMsecs = unixSecs * 1000;
+        builder.setTimestamp(timeStampInMsecs);
+
+        final long bootTime = timeStampInMsecs - sysUpTime;
+
+        if (record.isPresent(FIRST_SWITCHED)) {
+            builder.setFirstSwitched(setLongValue(record.get(FIRST_SWITCHED) + bootTime));
+        } else if (record.isPresent(FLOW_START_MILLISECONDS)) {
+            // Some Cisco platforms also support absolute timestamps in NetFlow v9 (like defined in IPFIX). See NMS-13006
+            builder.setFirstSwitched(setLongValue(record.get(FLOW_START_MILLISECONDS)));
+        }
+        if (record.isPresent(LAST_SWITCHED)) {
+            builder.setLastSwitched(setLongValue(record.get(LAST_SWITCHED) + bootTime));
+        } else if (record.isPresent(FLOW_END_MILLISECONDS)) {
+            // Some Cisco platforms also support absolute timestamps in NetFlow v9 (like defined in IPFIX). See NMS-13006
+            builder.setLastSwitched(setLongValue(record.get(FLOW_END_MILLISECONDS)));
+        }
+
+        // Set input interface
+        final int inputInterface = first(record, INGRESS_PHYSICAL_INTERFACE, INPUT_SNMP);
+        if (inputInterface >= 0) {
+            builder.setInputSnmpIfindex(setIntValue((int) record.get(inputInterface)));
+        }
+
+        // Set output interface
+        final int outputInterface = first(record, EGRESS_PHYSICAL_INTERFACE, OUTPUT_SNMP);
+        if (outputInterface >= 0) {
+            builder.setOutputSnmpIfindex(setIntValue((int) record.get(outputInterface)));
+        }
+
+        // Set destination address
+        final int dstAddress = first(record, IPV6_DST_ADDR, IPV4_DST_ADDR);
+        if (dstAddress >= 0) {
+            builder.setDstAddress(record.getAddress(dstAddress));
+        }
+
+        // dst mask
+        final int dstMask = first(record, IPV6_DST_MASK, DST_MASK);
+        if (dstMask >= 0) {
+            builder.setDstMaskLen(setIntValue((int) record.get(dstMask)));
+        }
+
+        // Set source address
+        final int srcAddress = first(record, IPV6_SRC_ADDR, IPV4_SRC_ADDR);
+        if (srcAddress >= 0) {
+            builder.setSrcAddress(record.getAddress(srcAddress));
+        }
+
+        // src mask
+        final int srcMask = first(record, IPV6_SRC_MASK, SRC_MASK);
+        if (srcMask >= 0) {
+            builder.setSrcMaskLen(setIntValue((int) record.get(srcMask)));
+        }
+
+        // Set next hop address
+        final int nextHop = first(record, IPV6_NEXT_HOP, IPV4_NEXT_HOP, BGP_IPV6_NEXT_HOP, BGP_IPV4_NEXT_HOP);
+        if (nextHop >= 0) {
+            builder.setNextHopAddress(record.getAddress(nextHop));
+        }
+
+        // set vlan
+        final int vlan = first(record, SRC_VLAN, DST_VLAN);
+        if (vlan >= 0) {
+            builder.setVlan(setIntValue((int) record.get(vlan)));
+        }
+
+        final Long flowActiveTimeout = record.isPresent(FLOW_ACTIVE_TIMEOUT) ? Long.valueOf(record.get(FLOW_ACTIVE_TIMEOUT)) : this.config.getFlowActiveTimeoutFallback();
+        final Long flowInactiveTimeout = record.isPresent(FLOW_INACTIVE_TIMEOUT) ? Long.valueOf(record.get(FLOW_INACTIVE_TIMEOUT)) : this.config.getFlowInactiveTimeoutFallback();
+
+        final Timeout timeout = new Timeout(flowActiveTimeout, flowInactiveTimeout);
+        timeout.setFirstSwitched(builder.hasFirstSwitched() ? builder.getFirstSwitched().getValue() : null);
+        timeout.setLastSwitched(builder.hasLastSwitched() ? builder.getLastSwitched().getValue() : null);
+        timeout.setNumBytes(builder.getNumBytes().getValue());
+        timeout.setNumPackets(builder.getNumPackets().getValue());
+        getUInt64Value(timeout.getDeltaSwitched()).ifPresent(builder::setDeltaSwitched);
+
+        builder.setNetflowVersion(NetflowVersion.V9);
+        return builder;
+    }
+
+    /**
+     * Returns the first of the given slots which is populated in the record or <code>-1</code> if none is.
+     */
+    static int first(final RecordBuffer record, final int... indices) {
+        for (final int index : indices) {
+            if (record.isPresent(index)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static Direction getDirection(final long value) {
+        switch ((int) value) {
+            case 0:
+                return Direction.INGRESS;
+            case 1:
+                return Direction.EGRESS;
+            default:
+                return Direction.UNKNOWN;
+        }
+    }
+
+    private static SamplingAlgorithm getSamplingAlgorithm(final long value) {
+        switch ((int) value) {
+            case 1:
+                return SamplingAlgorithm.SYSTEMATIC_COUNT_BASED_SAMPLING;
+            case 2:
+                return SamplingAlgorithm.RANDOM_N_OUT_OF_N_SAMPLING;
+            default:
+                return SamplingAlgorithm.UNASSIGNED;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.netflow.parser.ipfix;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.opennms.netmgt.telemetry.listeners.utils.BufferUtils.slice;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.RecordEnrichment;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordBuffer;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.ipfix.proto.Header;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.ipfix.proto.Packet;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.SequenceNumberTracker;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.Session;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.session.TcpSession;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.IpFixDirectMessageBuilder;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.transport.IpFixMessageBuilder;
+import org.opennms.netmgt.telemetry.protocols.netflow.transport.FlowMessage;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Verifies that the direct decoding mode creates the same messages as the regular decoding.
+ */
+public class DirectDecodingTest {
+    private final static Path FOLDER = Paths.get("src/test/resources/flows");
+
+    private final static RecordEnrichment NO_ENRICHMENT = address -> Optional.empty();
+
+    @Test
+    public void verifyMessages() throws Exception {
+        final List<List<String>> files = Arrays.asList(
+                Arrays.asList("ipfix.dat"),
+                Arrays.asList("ipfix_test_openbsd_pflow_tpl.dat", "ipfix_test_openbsd_pflow_data.dat"),
+                Arrays.asList("ipfix_test_mikrotik_tpl.dat", "ipfix_test_mikrotik_data258.dat", "ipfix_test_mikrotik_data259.dat"),
+                Arrays.asList("ipfix_test_vmware_vds_tpl.dat", "ipfix_test_vmware_vds_data264.dat", "ipfix_test_vmware_vds_data266.dat", "ipfix_test_vmware_vds_data266_267.dat"),
+                Arrays.asList("ipfix_test_barracuda_tpl.dat", "ipfix_test_barracuda_data256.dat"),
+                Arrays.asList("ipfix_test_yaf_tpls_option_tpl.dat", "ipfix_test_yaf_tpl45841.dat", "ipfix_test_yaf_data45841.dat", "ipfix_test_yaf_data45873.dat", "ipfix_test_yaf_data53248.dat"));
+
+        final IpFixMessageBuilder messageBuilder = new IpFixMessageBuilder();
+        final IpFixDirectMessageBuilder directMessageBuilder = new IpFixDirectMessageBuilder(messageBuilder);
+
+        int count = 0;
+        for (final List<String> set : files) {
+            final Session session = new TcpSession(InetAddress.getLoopbackAddress(), () -> new SequenceNumberTracker(32));
+            final Session directSession = new TcpSession(InetAddress.getLoopbackAddress(), () -> new SequenceNumberTracker(32));
+
+            final List<FlowMessage> expected = new ArrayList<>();
+            final List<FlowMessage> actual = new ArrayList<>();
+
+            for (final String file : set) {
+                final ByteBuf buf = read(file);
+                final ByteBuf directBuf = buf.duplicate();
+
+                do {
+                    final Header header = new Header(slice(buf, Header.SIZE));
+                    final Packet packet = new Packet(session, header, slice(buf, header.payloadLength()));
+                    expected.addAll(packet.getRecords()
+                            .map(record -> messageBuilder.buildMessage(record, NO_ENRICHMENT).build())
+                            .collect(Collectors.toList()));
+
+                    final Header directHeader = new Header(slice(directBuf, Header.SIZE));
+                    final Packet directPacket = new Packet(directSession, directHeader, slice(directBuf, directHeader.payloadLength()), true);
+                    directPacket.decodeRecords(new RecordBuffer(directMessageBuilder.getLayout()), record -> actual.add(directMessageBuilder.buildMessage(record).build()));
+                } while (buf.isReadable());
+            }
+
+            assertThat(actual, equalTo(expected));
+            count += actual.size();
+        }
+
+        assertThat(count, greaterThan(0));
+    }
+
+    private static ByteBuf read(final String file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(FOLDER.resolve(file))) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            channel.read(buffer);
+            buffer.flip();
+            return Unpooled.wrappedBuffer(buffer);
+        }
+    }
+}
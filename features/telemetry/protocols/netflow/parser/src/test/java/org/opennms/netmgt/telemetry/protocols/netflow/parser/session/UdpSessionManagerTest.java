@@ -28,6 +28,8 @@ import org.opennms.netmgt.telemetry.protocols.netflow.parser.InvalidPacketExcept
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.IpfixUdpParser;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.MissingTemplateException;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.Netflow9UdpParser;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.RecordLayout;
+import org.opennms.netmgt.telemetry.protocols.netflow.parser.direct.TemplateDecoder;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.Value;
 import org.opennms.netmgt.telemetry.protocols.netflow.parser.ie.values.StringValue;
 
@@ -37,10 +39,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
-import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public class UdpSessionManagerTest {
@@ -186,13 +190,112 @@ public class UdpSessionManagerTest {
 
         session.addOptions(observationId1, templateId1, scopesValue, fieldsValue);
 
-        assertThat(udpSessionManager.templates.keySet(), hasItem(new UdpSessionManager.TemplateKey(sessionKey, observationId1, template.id)));
-        assertThat(udpSessionManager.templates.get(new UdpSessionManager.TemplateKey(sessionKey, observationId1, template.id)).wrapped.options.entrySet(), not(empty()));
+        assertThat(udpSessionManager.getTemplate(sessionKey, observationId1, template.id), notNullValue());
+        assertThat(udpSessionManager.getTemplate(sessionKey, observationId1, template.id).wrapped.options.entrySet(), not(empty()));
 
         udpSessionManager.doHousekeeping();
 
-        assertThat(udpSessionManager.templates.keySet(), not(hasItem(new UdpSessionManager.TemplateKey(sessionKey, observationId1, template.id))));
-        assertThat(udpSessionManager.templates.get(new UdpSessionManager.TemplateKey(sessionKey, observationId1, template.id)), nullValue());
+        assertThat(udpSessionManager.getTemplate(sessionKey, observationId1, template.id), nullValue());
+        assertThat(udpSessionManager.count(), is(0));
+        assertThat(udpSessionManager.getExpiredTemplates(), is(1L));
+    }
+
+    @Test
+    public void idleDomainExpiryTest() throws Exception {
+        final UdpSessionManager.SessionKey sessionKey1 = new Netflow9UdpParser.SessionKey(remoteAddress1.getAddress(), localAddress1);
+        final UdpSessionManager.SessionKey sessionKey2 = new Netflow9UdpParser.SessionKey(remoteAddress3.getAddress(), localAddress1);
+
+        final UdpSessionManager udpSessionManager = new UdpSessionManager(Duration.ofMinutes(0), () -> new SequenceNumberTracker(32));
+
+        final Template template = Template.builder(templateId1, Template.Type.TEMPLATE).withFields(new ArrayList<>()).build();
+
+        final Session session1 = udpSessionManager.getSession(sessionKey1);
+        session1.verifySequenceNumber(observationId1, 1);
+        session1.addTemplate(observationId1, template);
+
+        final Session session2 = udpSessionManager.getSession(sessionKey2);
+        session2.verifySequenceNumber(observationId1, 1);
+        session2.verifySequenceNumber(observationId2, 1);
+
+        assertThat(udpSessionManager.count(), is(1));
+        assertThat(shardSizes(udpSessionManager), is(2));
+
+        Thread.sleep(10);
+        udpSessionManager.doHousekeeping();
+
+        assertThat(udpSessionManager.count(), is(0));
+        assertThat(shardSizes(udpSessionManager), is(0));
+        assertThat(udpSessionManager.getExpiredTemplates(), is(1L));
+        assertThat(udpSessionManager.getExpiredDomains(), is(3L));
+
+        // Sessions holding on to expired state must re-attach
+        session1.addTemplate(observationId1, template);
+        assertThat(udpSessionManager.getTemplate(sessionKey1, observationId1, templateId1), notNullValue());
+        assertThat(shardSizes(udpSessionManager), is(1));
+
+        udpSessionManager.drop(sessionKey1);
+        assertThat(udpSessionManager.getTemplate(sessionKey1, observationId1, templateId1), nullValue());
+        assertThat(udpSessionManager.count(), is(0));
+        assertThat(shardSizes(udpSessionManager), is(0));
+    }
+
+    private static int shardSizes(final UdpSessionManager udpSessionManager) {
+        int size = 0;
+        for (int i = 0; i < UdpSessionManager.SHARDS; i++) {
+            size += udpSessionManager.getShardSize(i);
+        }
+        return size;
+    }
+
+    @Test
+    public void decoderCachingTest() {
+        final UdpSessionManager.SessionKey sessionKey = new Netflow9UdpParser.SessionKey(remoteAddress1.getAddress(), localAddress1);
+
+        final UdpSessionManager udpSessionManager = new UdpSessionManager(Duration.ofMinutes(30), () -> new SequenceNumberTracker(32));
+        final Session session = udpSessionManager.getSession(sessionKey);
+
+        final RecordLayout layout = RecordLayout.builder().build();
+
+        final List<Field> fields = new ArrayList<>();
+        fields.add(field("field1", null));
+        fields.add(field("field2", null));
+
+        final Template template1 = Template.builder(templateId1, Template.Type.TEMPLATE).withFields(fields).build();
+        session.addTemplate(observationId1, template1);
+
+        // The decoder is compiled once and re-used afterwards
+        final TemplateDecoder decoder1 = session.getResolver(observationId1).lookupDecoder(template1, layout, f -> null);
+        assertThat(session.getResolver(observationId1).lookupDecoder(template1, layout, f -> null), sameInstance(decoder1));
+
+        // A different layout requires a different decoder
+        final RecordLayout otherLayout = RecordLayout.builder().build();
+        assertThat(session.getResolver(observationId1).lookupDecoder(template1, otherLayout, f -> null), not(sameInstance(decoder1)));
+
+        // Replacing the template drops the decoder
+        final Template template2 = Template.builder(templateId1, Template.Type.TEMPLATE).withFields(fields).build();
+        session.addTemplate(observationId1, template2);
+
+        final TemplateDecoder decoder2 = session.getResolver(observationId1).lookupDecoder(template2, layout, f -> null);
+        assertThat(decoder2, not(sameInstance(decoder1)));
+        assertThat(decoder2.getTemplate(), sameInstance(template2));
+        assertThat(session.getResolver(observationId1).lookupDecoder(template2, layout, f -> null), sameInstance(decoder2));
+
+        // Withdrawing the template drops the decoder
+        session.removeTemplate(observationId1, templateId1);
+        assertThat(udpSessionManager.getTemplate(sessionKey, observationId1, templateId1), nullValue());
+
+        session.addTemplate(observationId1, template2);
+        final TemplateDecoder decoder3 = session.getResolver(observationId1).lookupDecoder(template2, layout, f -> null);
+        assertThat(decoder3, not(sameInstance(decoder2)));
+
+        // Expiring the template drops the decoder
+        final UdpSessionManager expiringSessionManager = new UdpSessionManager(Duration.ofMinutes(0), () -> new SequenceNumberTracker(32));
+        final Session expiringSession = expiringSessionManager.getSession(sessionKey);
+        expiringSession.addTemplate(observationId1, template1);
+        expiringSession.getResolver(observationId1).lookupDecoder(template1, layout, f -> null);
+
+        expiringSessionManager.doHousekeeping();
+        assertThat(expiringSessionManager.getTemplate(sessionKey, observationId1, templateId1), nullValue());
     }
 
     @Test
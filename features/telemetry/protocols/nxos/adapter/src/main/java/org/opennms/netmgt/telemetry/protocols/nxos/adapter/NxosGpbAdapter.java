@@ -27,11 +27,8 @@ import java.nio.ByteBuffer;
 import java.util.Optional;
 import java.util.stream.Stream;
 
-import javax.script.ScriptException;
-
 import org.opennms.netmgt.collection.api.CollectionAgent;
 import org.opennms.netmgt.collection.api.CollectionAgentFactory;
-import org.opennms.netmgt.collection.api.CollectionSet;
 import org.opennms.netmgt.dao.api.InterfaceToNodeCache;
 import org.opennms.netmgt.dao.api.NodeDao;
 import org.opennms.netmgt.model.OnmsIpInterface;
@@ -41,7 +38,6 @@ import org.opennms.netmgt.telemetry.api.adapter.TelemetryMessageLogEntry;
 import org.opennms.netmgt.telemetry.config.api.AdapterDefinition;
 import org.opennms.netmgt.telemetry.protocols.collection.AbstractScriptedCollectionAdapter;
 import org.opennms.netmgt.telemetry.protocols.collection.CollectionSetWithAgent;
-import org.opennms.netmgt.telemetry.protocols.collection.ScriptedCollectionSetBuilder;
 import org.opennms.netmgt.telemetry.protocols.nxos.adapter.proto.TelemetryBis;
 import org.opennms.netmgt.telemetry.protocols.nxos.adapter.proto.TelemetryBis.Telemetry;
 import org.slf4j.Logger;
@@ -53,6 +49,7 @@ import org.springframework.transaction.support.TransactionOperations;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Iterables;
+import com.google.protobuf.Descriptors;
 import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.InvalidProtocolBufferException;
 
@@ -130,20 +127,17 @@ public class NxosGpbAdapter extends AbstractScriptedCollectionAdapter {
             return Stream.empty();
         }
 
-        final ScriptedCollectionSetBuilder builder = getCollectionBuilder();
-        if (builder == null) {
-            LOG.error("Error compiling script '{}'. See logs for details.", this.getScript());
-            return Stream.empty();
-        }
+        return buildCollectionSet(agent, msg, msg.getMsgTimestamp());
+    }
 
-        try {
-            final CollectionSet collectionSet = builder.build(agent, msg, msg.getMsgTimestamp());
-            return Stream.of(new CollectionSetWithAgent(agent, collectionSet));
+    @Override
+    protected Descriptors.Descriptor getMappingMessageType() {
+        return TelemetryBis.Telemetry.getDescriptor();
+    }
 
-        } catch (final ScriptException e) {
-            LOG.warn("Error while running script: {}: {}", getScript(), e);
-            return Stream.empty();
-        }
+    @Override
+    protected ExtensionRegistry getMappingExtensionRegistry() {
+        return s_registry;
     }
 
     private Telemetry tryParsingTelemetryMessage(byte[] bs) throws InvalidProtocolBufferException {
@@ -0,0 +1,98 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.features.telemetry.protocols.nxos.adapter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.opennms.netmgt.collection.api.CollectionAttribute;
+import org.opennms.netmgt.collection.api.CollectionResource;
+import org.opennms.netmgt.collection.api.CollectionSet;
+import org.opennms.netmgt.collection.dto.CollectionAgentDTO;
+import org.opennms.netmgt.collection.support.AbstractCollectionSetVisitor;
+import org.opennms.netmgt.telemetry.protocols.collection.ScriptedCollectionSetBuilder;
+import org.opennms.netmgt.telemetry.protocols.collection.mapping.ProtobufCollectionSetBuilder;
+import org.opennms.netmgt.telemetry.protocols.nxos.adapter.proto.TelemetryBis;
+
+import com.google.common.io.Resources;
+import com.google.protobuf.ExtensionRegistry;
+
+/**
+ * Verifies that the shipped mapping and the NX-API part of the shipped script generate the same collection sets.
+ */
+public class NxosMappingTest {
+
+    private static final File ADAPTERS_DIR = new File("../../../../../opennms-base-assembly/src/main/filtered/etc/telemetryd-adapters");
+
+    @Test
+    public void verifyMappingMatchesScript() throws Exception {
+        final ExtensionRegistry registry = ExtensionRegistry.newInstance();
+        TelemetryBis.registerAllExtensions(registry);
+
+        // Output of "show system resources" including the CPU usage table
+        final byte[] nxosMsgBytes = Resources.toByteArray(Resources.getResource("nxos-proto-buf.raw"));
+        final TelemetryBis.Telemetry telemetryMsg = TelemetryBis.Telemetry.parseFrom(
+                ByteBuffer.wrap(nxosMsgBytes, 6, nxosMsgBytes.length - 6), registry);
+
+        final CollectionAgentDTO agent = new CollectionAgentDTO();
+        agent.setNodeId(1);
+        agent.setAddress(InetAddress.getLoopbackAddress());
+
+        final CollectionSet scripted = new ScriptedCollectionSetBuilder(new File(ADAPTERS_DIR, "cisco-nxos-telemetry-interface.groovy"))
+                .build(agent, telemetryMsg, telemetryMsg.getMsgTimestamp());
+        final CollectionSet mapped = new ProtobufCollectionSetBuilder(new File(ADAPTERS_DIR, "cisco-nxos-telemetry-interface.xml"),
+                TelemetryBis.Telemetry.getDescriptor(), registry)
+                .build(agent, telemetryMsg, telemetryMsg.getMsgTimestamp());
+
+        final List<String> attributes = describe(scripted);
+        assertEquals(8, attributes.size());
+        assertEquals(attributes, describe(mapped));
+        assertEquals(scripted, mapped);
+    }
+
+    private static List<String> describe(final CollectionSet collectionSet) {
+        final List<String> attributes = new ArrayList<>();
+        collectionSet.visit(new AbstractCollectionSetVisitor() {
+            private CollectionResource resource;
+
+            @Override
+            public void visitResource(final CollectionResource resource) {
+                this.resource = resource;
+            }
+
+            @Override
+            public void visitAttribute(final CollectionAttribute attribute) {
+                attributes.add(String.format("%s[%s] %s/%s %s=%s",
+                        this.resource.getResourceTypeName(), this.resource.getInstance(),
+                        attribute.getAttributeType().getGroupType().getName(), attribute.getName(), attribute.getType(),
+                        attribute.getType().isNumeric() ? attribute.getNumericValue().doubleValue() : attribute.getStringValue()));
+            }
+        });
+        return attributes;
+    }
+}
@@ -24,12 +24,12 @@ package org.opennms.netmgt.telemetry.protocols.openconfig.adapter;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Strings;
 import com.google.common.collect.Iterables;
+import com.google.protobuf.Descriptors;
 import com.google.protobuf.InvalidProtocolBufferException;
 import org.opennms.features.openconfig.proto.gnmi.Gnmi;
 import org.opennms.features.openconfig.proto.jti.Telemetry;
 import org.opennms.netmgt.collection.api.CollectionAgent;
 import org.opennms.netmgt.collection.api.CollectionAgentFactory;
-import org.opennms.netmgt.collection.api.CollectionSet;
 import org.opennms.netmgt.dao.api.InterfaceToNodeCache;
 import org.opennms.netmgt.dao.api.NodeDao;
 import org.opennms.netmgt.model.OnmsIpInterface;
@@ -39,12 +39,10 @@ import org.opennms.netmgt.telemetry.api.adapter.TelemetryMessageLogEntry;
 import org.opennms.netmgt.telemetry.config.api.AdapterDefinition;
 import org.opennms.netmgt.telemetry.protocols.collection.AbstractScriptedCollectionAdapter;
 import org.opennms.netmgt.telemetry.protocols.collection.CollectionSetWithAgent;
-import org.opennms.netmgt.telemetry.protocols.collection.ScriptedCollectionSetBuilder;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionOperations;
 
-import javax.script.ScriptException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.Optional;
@@ -153,18 +151,10 @@ public class OpenConfigAdapter extends AbstractScriptedCollectionAdapter {
         return agent;
     }
 
-    private Stream<CollectionSetWithAgent> buildCollectionSet(CollectionAgent collectionAgent, Object response, long timeStamp) {
-        final ScriptedCollectionSetBuilder builder = getCollectionBuilder();
-        if (builder == null) {
-            LOG.error("Error compiling script '{}'. See logs for details.", this.getScript());
-            return Stream.empty();
-        }
-        try {
-            final CollectionSet collectionSet = builder.build(collectionAgent, response, timeStamp);
-            return Stream.of(new CollectionSetWithAgent(collectionAgent, collectionSet));
-        } catch (final ScriptException e) {
-            LOG.warn("Error while running script: {}: {}", getScript(), e);
-            return Stream.empty();
-        }
+    @Override
+    protected Descriptors.Descriptor getMappingMessageType() {
+        return JTI_MODE.equalsIgnoreCase(mode)
+                ? Telemetry.OpenConfigData.getDescriptor()
+                : Gnmi.SubscribeResponse.getDescriptor();
     }
 }
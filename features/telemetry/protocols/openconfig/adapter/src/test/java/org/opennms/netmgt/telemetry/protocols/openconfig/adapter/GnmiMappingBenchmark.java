@@ -0,0 +1,115 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.openconfig.adapter;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opennms.features.openconfig.proto.gnmi.Gnmi;
+import org.opennms.netmgt.collection.api.CollectionAgent;
+import org.opennms.netmgt.collection.api.CollectionSet;
+import org.opennms.netmgt.telemetry.protocols.collection.ScriptedCollectionSetBuilder;
+import org.opennms.netmgt.telemetry.protocols.collection.mapping.ProtobufCollectionSetBuilder;
+
+import com.google.protobuf.ExtensionRegistry;
+
+/**
+ * Use the Java Microbenchmarking Harness (JMH) to compare building collection sets from gNMI responses using the
+ * Groovy script with building them using the equivalent declarative mapping.
+ */
+public class GnmiMappingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BState {
+
+        @Param({"1", "16", "128"})
+        public int updates;
+
+        private CollectionAgent agent;
+        private Gnmi.SubscribeResponse response;
+
+        private ScriptedCollectionSetBuilder scriptBuilder;
+        private ProtobufCollectionSetBuilder mappingBuilder;
+
+        @Setup
+        public void setup() throws Exception {
+            this.agent = Mockito.mock(CollectionAgent.class);
+            Mockito.when(this.agent.getNodeId()).thenReturn(1);
+
+            this.scriptBuilder = new ScriptedCollectionSetBuilder(new File(GnmiMappingBenchmark.class.getResource("/openconfig-gnmi-telemetry.groovy").getPath()));
+            this.mappingBuilder = new ProtobufCollectionSetBuilder(new File(GnmiMappingBenchmark.class.getResource("/openconfig-gnmi-telemetry.xml").getPath()),
+                                                                   Gnmi.SubscribeResponse.getDescriptor(),
+                                                                   ExtensionRegistry.getEmptyRegistry());
+
+            final Gnmi.Notification.Builder notification = Gnmi.Notification.newBuilder()
+                    .setTimestamp(System.currentTimeMillis())
+                    .setPrefix(Gnmi.Path.newBuilder()
+                            .addElem(Gnmi.PathElem.newBuilder().setName("interfaces"))
+                            .addElem(Gnmi.PathElem.newBuilder().setName("interface").putKey("name", "eth1/0/1")));
+            for (int i = 0; i < this.updates; i++) {
+                notification.addUpdate(Gnmi.Update.newBuilder()
+                        .setPath(Gnmi.Path.newBuilder()
+                                .addElem(Gnmi.PathElem.newBuilder().setName("state"))
+                                .addElem(Gnmi.PathElem.newBuilder().setName("counters"))
+                                .addElem(Gnmi.PathElem.newBuilder().setName("counter-" + i)))
+                        .setVal(Gnmi.TypedValue.newBuilder().setUintVal(1000L * i)));
+            }
+            this.response = Gnmi.SubscribeResponse.newBuilder().setUpdate(notification).build();
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public CollectionSet script(final BState state) throws Exception {
+        return state.scriptBuilder.build(state.agent, state.response, state.response.getUpdate().getTimestamp());
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public CollectionSet mapping(final BState state) {
+        return state.mappingBuilder.build(state.agent, state.response, state.response.getUpdate().getTimestamp());
+    }
+}
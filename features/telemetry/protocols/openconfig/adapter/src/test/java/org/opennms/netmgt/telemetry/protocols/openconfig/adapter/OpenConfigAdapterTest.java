@@ -21,6 +21,7 @@
  */
 package org.opennms.netmgt.telemetry.protocols.openconfig.adapter;
 
+import com.google.protobuf.ExtensionRegistry;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.MatcherAssert;
 import org.junit.Test;
@@ -29,14 +30,20 @@ import org.opennms.features.openconfig.proto.gnmi.Gnmi;
 import org.opennms.netmgt.collection.api.CollectionAgent;
 import org.opennms.netmgt.collection.api.CollectionAttribute;
 import org.opennms.netmgt.collection.api.CollectionResource;
+import org.opennms.netmgt.collection.api.CollectionSet;
+import org.opennms.netmgt.collection.dto.CollectionAgentDTO;
 import org.opennms.netmgt.collection.support.AbstractCollectionSetVisitor;
 import org.opennms.netmgt.collection.support.builder.CollectionSetBuilder;
 import org.opennms.netmgt.telemetry.protocols.collection.ScriptedCollectionSetBuilder;
+import org.opennms.netmgt.telemetry.protocols.collection.mapping.ProtobufCollectionSetBuilder;
 
 import javax.script.ScriptException;
 import java.io.File;
 import java.io.IOException;
+import java.net.InetAddress;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 public class OpenConfigAdapterTest {
 
@@ -64,6 +71,69 @@ public class OpenConfigAdapterTest {
         MatcherAssert.assertThat(mockPersister.getValue(), CoreMatchers.is(ATTRIBUTE_VALUE));
     }
 
+    @Test
+    public void testMappingForGnmi() {
+        var collectionAgent = Mockito.mock(CollectionAgent.class);
+
+        var url = this.getClass().getResource("/openconfig-gnmi-telemetry.xml");
+        if(url == null) {
+            throw  new IllegalArgumentException("Invalid file path");
+        }
+        var file = new File(url.getPath());
+        var mappingBuilder = new ProtobufCollectionSetBuilder(file, Gnmi.SubscribeResponse.getDescriptor(), ExtensionRegistry.getEmptyRegistry());
+        var collectionSet = mappingBuilder.build(collectionAgent, generateGnmiMessage(), Instant.now().toEpochMilli());
+        var mockPersister = new MockPersister();
+        collectionSet.visit(mockPersister);
+        MatcherAssert.assertThat(mockPersister.getInterfaceLabel(), CoreMatchers.is(INSTANCE_NAME));
+        MatcherAssert.assertThat(mockPersister.getAttributeName(), CoreMatchers.is("ipv4/state/counters/" + ATTRIBUTE_NAME));
+        MatcherAssert.assertThat(mockPersister.getValue().longValue(), CoreMatchers.is(ATTRIBUTE_VALUE));
+    }
+
+    @Test
+    public void testShippedMappingMatchesScriptForGnmi() throws ScriptException, IOException {
+        var collectionAgent = new CollectionAgentDTO();
+        collectionAgent.setNodeId(1);
+        collectionAgent.setAddress(InetAddress.getLoopbackAddress());
+
+        var adaptersDir = new File("../../../../../opennms-base-assembly/src/main/filtered/etc/telemetryd-adapters");
+        var scriptBuilder = new ScriptedCollectionSetBuilder(new File(adaptersDir, "openconfig-gnmi-telemetry.groovy"));
+        var mappingBuilder = new ProtobufCollectionSetBuilder(new File(adaptersDir, "openconfig-gnmi-telemetry.xml"),
+                Gnmi.SubscribeResponse.getDescriptor(), ExtensionRegistry.getEmptyRegistry());
+
+        // Interface in the prefix, interface missing and updates with values other than unsigned integers
+        for (var message : List.of(generateGnmiMessage(), generateCustomGnmiMessage(), generateMixedGnmiMessage())) {
+            var timestamp = message.getUpdate().getTimestamp();
+            var scripted = scriptBuilder.build(collectionAgent, message, timestamp);
+            var mapped = mappingBuilder.build(collectionAgent, message, timestamp);
+
+            var attributes = describe(scripted);
+            MatcherAssert.assertThat(attributes.isEmpty(), CoreMatchers.is(false));
+            MatcherAssert.assertThat(describe(mapped), CoreMatchers.is(attributes));
+            MatcherAssert.assertThat(mapped, CoreMatchers.is(scripted));
+        }
+    }
+
+    private static List<String> describe(CollectionSet collectionSet) {
+        var attributes = new ArrayList<String>();
+        collectionSet.visit(new AbstractCollectionSetVisitor() {
+            private CollectionResource resource;
+
+            @Override
+            public void visitResource(CollectionResource resource) {
+                this.resource = resource;
+            }
+
+            @Override
+            public void visitAttribute(CollectionAttribute attribute) {
+                attributes.add(String.format("%s[%s] %s/%s %s=%s",
+                        resource.getResourceTypeName(), resource.getInstance(),
+                        attribute.getAttributeType().getGroupType().getName(), attribute.getName(), attribute.getType(),
+                        attribute.getType().isNumeric() ? attribute.getNumericValue().doubleValue() : attribute.getStringValue()));
+            }
+        });
+        return attributes;
+    }
+
     private Gnmi.SubscribeResponse generateGnmiMessage() {
         Gnmi.SubscribeResponse.Builder builder = Gnmi.SubscribeResponse.newBuilder();
         Gnmi.Update.Builder updateBuilder = Gnmi.Update.newBuilder();
@@ -93,6 +163,29 @@ public class OpenConfigAdapterTest {
                     .build()).build();
     }
 
+    private Gnmi.SubscribeResponse generateMixedGnmiMessage() {
+        Gnmi.Path.Builder prefixBuilder = Gnmi.Path.newBuilder()
+                .addElem(Gnmi.PathElem.newBuilder().setName("interfaces").build())
+                .addElem(Gnmi.PathElem.newBuilder().setName("interface").putKey("name", INSTANCE_NAME).build());
+        return Gnmi.SubscribeResponse.newBuilder().setUpdate(Gnmi.Notification.newBuilder().setTimestamp(System.currentTimeMillis())
+                .setPrefix(prefixBuilder.build())
+                .addUpdate(Gnmi.Update.newBuilder()
+                        .setPath(Gnmi.Path.newBuilder().addElem(Gnmi.PathElem.newBuilder().setName("state").build())
+                                .addElem(Gnmi.PathElem.newBuilder().setName("oper-status").build()).build())
+                        .setVal(Gnmi.TypedValue.newBuilder().setStringVal("UP").build()).build())
+                .addUpdate(Gnmi.Update.newBuilder()
+                        .setPath(Gnmi.Path.newBuilder().addElem(Gnmi.PathElem.newBuilder().setName("state").build())
+                                .addElem(Gnmi.PathElem.newBuilder().setName("counters").build())
+                                .addElem(Gnmi.PathElem.newBuilder().setName("in-octets").build()).build())
+                        .setVal(Gnmi.TypedValue.newBuilder().setUintVal(5000).build()).build())
+                .addUpdate(Gnmi.Update.newBuilder()
+                        .setPath(Gnmi.Path.newBuilder().addElem(Gnmi.PathElem.newBuilder().setName("state").build())
+                                .addElem(Gnmi.PathElem.newBuilder().setName("counters").build())
+                                .addElem(Gnmi.PathElem.newBuilder().setName("out-octets").build()).build())
+                        .setVal(Gnmi.TypedValue.newBuilder().setUintVal(6000).build()).build())
+                .build()).build();
+    }
+
     private class MockPersister extends AbstractCollectionSetVisitor {
 
         private String interfaceLabel;
@@ -75,6 +75,8 @@ public class OpenConfigConnector implements Connector {
 
     @Override
     public void close() {
-        openConfigClient.shutdown();
+        if (openConfigClient != null) {
+            openConfigClient.shutdown();
+        }
     }
 }
@@ -24,11 +24,14 @@ package org.opennms.features.telemetry.protocols.openconfig;
 import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
 
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -41,17 +44,20 @@ import org.junit.Test;
 import org.opennms.features.openconfig.api.OpenConfigClient;
 import org.opennms.features.openconfig.proto.gnmi.Gnmi;
 import org.opennms.features.openconfig.proto.jti.Telemetry;
-import org.opennms.features.openconfig.telemetry.OpenConfigClientImpl;
+import org.opennms.features.openconfig.telemetry.OpenConfigClientFactoryImpl;
 import org.opennms.netmgt.telemetry.config.model.Parameter;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Strings;
 import com.google.protobuf.InvalidProtocolBufferException;
 
 public class OpenConfigClientIT {
 
-    private final List<Telemetry.OpenConfigData> jtiData = new ArrayList<>();
-    private final List<Gnmi.SubscribeResponse> gnmiData = new ArrayList<>();
+    private final List<Telemetry.OpenConfigData> jtiData = Collections.synchronizedList(new ArrayList<>());
+    private final List<Gnmi.SubscribeResponse> gnmiData = Collections.synchronizedList(new ArrayList<>());
     private OpenConfigTestServer server;
+    private OpenConfigClientFactoryImpl clientFactory;
     private int port;
 
     @Before
@@ -59,6 +65,9 @@ public class OpenConfigClientIT {
         this.port = OpenConfigTestServer.getAvailablePort(new AtomicInteger(50052), 51000);
         server = new OpenConfigTestServer(port);
         server.start();
+        clientFactory = new OpenConfigClientFactoryImpl();
+        clientFactory.setInitialBackoff(1000);
+        clientFactory.init();
     }
 
     @Test
@@ -66,7 +75,7 @@ public class OpenConfigClientIT {
 
         List<Map<String, String>> params = getParams(true);
         InetAddress host = InetAddress.getLocalHost();
-        OpenConfigClientImpl openConfigClient = new OpenConfigClientImpl(host, params);
+        OpenConfigClient openConfigClient = clientFactory.create(host, params);
         openConfigClient.subscribe(new DataHandler(true));
         // Wait till at least 2 data streams received.
         await().atMost(15, TimeUnit.SECONDS).until(jtiData::size, is(greaterThan(1)));
@@ -78,7 +87,7 @@ public class OpenConfigClientIT {
 
         List<Map<String, String>> params = getParams(false);
         InetAddress host = InetAddress.getLocalHost();
-        OpenConfigClientImpl openConfigClient = new OpenConfigClientImpl(host, params);
+        OpenConfigClient openConfigClient = clientFactory.create(host, params);
         openConfigClient.subscribe(new DataHandler(false));
         // Wait till at least 2 data streams received.
         await().atMost(15, TimeUnit.SECONDS).until(gnmiData::size, is(greaterThan(1)));
@@ -91,7 +100,7 @@ public class OpenConfigClientIT {
         List<Map<String, String>> params = getParams(true);
         InetAddress host = InetAddress.getLocalHost();
         server.setErrorStream();
-        OpenConfigClientImpl openConfigClient = new OpenConfigClientImpl(host, params);
+        OpenConfigClient openConfigClient = clientFactory.create(host, params);
         openConfigClient.subscribe(new DataHandler(true));
         // Wait till at least 2 data streams received.
         await().atMost(15, TimeUnit.SECONDS).until(jtiData::size, is(greaterThan(1)));
@@ -103,6 +112,29 @@ public class OpenConfigClientIT {
         await().atMost(15, TimeUnit.SECONDS).until(jtiData::size, is(greaterThan(1)));
     }
 
+    @Test
+    public void testOpenConfigSharedChannel() throws Exception {
+        List<Map<String, String>> params = getParams(false);
+        InetAddress host = InetAddress.getLocalHost();
+        OpenConfigClient first = clientFactory.create(host, params);
+        OpenConfigClient second = clientFactory.create(host, params);
+        first.subscribe(new DataHandler(false));
+        second.subscribe(new DataHandler(false));
+        // Wait till at least 2 data streams received on each subscription.
+        await().atMost(15, TimeUnit.SECONDS).until(gnmiData::size, is(greaterThan(3)));
+
+        // Both subscriptions are multiplexed over the same channel
+        final String target = MetricRegistry.name("targets", host.getHostAddress() + ":" + port);
+        final Gauge<?> activeStreams = clientFactory.getMetrics().getGauges().get(MetricRegistry.name(target, "activeStreams"));
+        assertEquals(2, activeStreams.getValue());
+        assertThat(clientFactory.getMetrics().meter(MetricRegistry.name(target, "messages")).getCount(), is(greaterThan(3L)));
+
+        first.shutdown();
+        assertEquals(1, activeStreams.getValue());
+        second.shutdown();
+        assertEquals(false, clientFactory.getMetrics().getGauges().containsKey(MetricRegistry.name(target, "activeStreams")));
+    }
+
     private List<Map<String, String>> getParams(boolean jti) {
         List<Map<String, String>> params = new ArrayList<>();
         List<Parameter> parameterList = new ArrayList<>();
@@ -167,6 +199,7 @@ public class OpenConfigClientIT {
 
     @After
     public void shutdown() {
+        clientFactory.destroy();
         server.stop();
     }
 
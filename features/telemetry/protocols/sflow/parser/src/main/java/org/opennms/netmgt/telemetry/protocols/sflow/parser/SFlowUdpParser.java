@@ -68,6 +68,8 @@ public class SFlowUdpParser implements UdpParser, Dispatchable {
     private int threads = DEFAULT_NUM_THREADS;
 	
     private boolean dnsLookupsEnabled = true;
+
+    private boolean streamingDecodeEnabled = false;
 	
     private ExecutorService executor;
 
@@ -102,6 +104,10 @@ public class SFlowUdpParser implements UdpParser, Dispatchable {
     public CompletableFuture<?> parse(final ByteBuf buffer,
                                       final InetSocketAddress remoteAddress,
                                       final InetSocketAddress localAddress) throws Exception {
+        if (this.streamingDecodeEnabled && !this.dnsLookupsEnabled) {
+            return this.parseStreaming(buffer, remoteAddress);
+        }
+
         final SampleDatagram packet = new SampleDatagram(buffer);
 
         LOG.trace("Got packet: {}", packet);
@@ -159,6 +165,39 @@ public class SFlowUdpParser implements UdpParser, Dispatchable {
         return future;
     }
 
+    /**
+     * Writes the datagram directly to the message without building the datagram tree. This requires no enrichment to
+     * take place, so it is only used if DNS lookups are disabled.
+     */
+    private CompletableFuture<?> parseStreaming(final ByteBuf buffer,
+                                                final InetSocketAddress remoteAddress) throws Exception {
+        final BasicOutputBuffer output = new BasicOutputBuffer();
+        try (final BsonBinaryWriter bsonWriter = new BsonBinaryWriter(output)) {
+            bsonWriter.writeStartDocument();
+
+            bsonWriter.writeName("time");
+            bsonWriter.writeInt64(System.currentTimeMillis());
+
+            bsonWriter.writeName("data");
+            StreamingSampleDatagramWriter.write(buffer, bsonWriter);
+
+            bsonWriter.writeEndDocument();
+        }
+
+        final TelemetryMessage msg = new TelemetryMessage(remoteAddress, output.getByteBuffers().get(0).asNIO());
+
+        // Dispatch from one of our executor threads to put back-pressure on the listener if we can't keep up
+        final CompletableFuture<AsyncDispatcher.DispatchStatus> future = new CompletableFuture<>();
+        executor.execute(() -> dispatcher.send(msg).whenComplete((any, ex) -> {
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            } else {
+                future.complete(any);
+            }
+        }));
+        return future;
+    }
+
     public boolean getDnsLookupsEnabled() {
         return dnsLookupsEnabled;
     }
@@ -167,6 +206,14 @@ public class SFlowUdpParser implements UdpParser, Dispatchable {
         this.dnsLookupsEnabled = dnsLookupsEnabled;
     }
 
+    public boolean getStreamingDecodeEnabled() {
+        return streamingDecodeEnabled;
+    }
+
+    public void setStreamingDecodeEnabled(boolean streamingDecodeEnabled) {
+        this.streamingDecodeEnabled = streamingDecodeEnabled;
+    }
+
     @Override
     public String getName() {
         return name;
@@ -0,0 +1,393 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.sflow.parser;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Optional;
+
+import org.bson.BsonBinary;
+import org.bson.BsonWriter;
+import org.opennms.netmgt.telemetry.listeners.utils.BufferUtils;
+import org.opennms.netmgt.telemetry.protocols.sflow.parser.proto.flows.CounterRecord;
+import org.opennms.netmgt.telemetry.protocols.sflow.parser.proto.flows.DatagramVersion;
+import org.opennms.netmgt.telemetry.protocols.sflow.parser.proto.flows.FlowRecord;
+import org.opennms.netmgt.telemetry.protocols.sflow.parser.proto.flows.HeaderProtocol;
+import org.opennms.netmgt.telemetry.protocols.sflow.parser.proto.headers.HeaderFields;
+
+import com.google.common.base.Throwables;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Writes a sample datagram to BSON while decoding it from the XDR buffer.
+ *
+ * The result is identical to decoding the datagram into a
+ * {@link org.opennms.netmgt.telemetry.protocols.sflow.parser.proto.flows.SampleDatagram} and writing it using
+ * {@code packet.version.datagram.writeBson(...)}, but the datagram, samples and most frequent flow records are never
+ * materialized. Flow and counter records without a streaming implementation are decoded one at a time using their
+ * regular classes.
+ *
+ * As no addresses are collected upfront, no hostnames are written.
+ */
+public final class StreamingSampleDatagramWriter {
+
+    private static final SampleDatagramEnrichment NO_ENRICHMENT = address -> Optional.empty();
+
+    // Format IDs of enterprise 0 are cached to avoid formatting them for each record
+    private static final String[] FORMAT_IDS = new String[1 << 13];
+
+    private StreamingSampleDatagramWriter() {
+    }
+
+    /**
+     * Decodes a single datagram from the buffer and writes its content to the writer.
+     */
+    public static void write(final ByteBuf buffer, final BsonWriter bsonWriter) throws InvalidPacketException {
+        // Only version 5 exists - others are rejected while parsing the version
+        DatagramVersion.from(buffer);
+
+        bsonWriter.writeStartDocument();
+        bsonWriter.writeName("agent_address");
+        writeAddress(buffer, bsonWriter);
+        bsonWriter.writeInt64("sub_agent_id", BufferUtils.uint32(buffer));
+        bsonWriter.writeInt64("sequence_number", BufferUtils.uint32(buffer));
+        bsonWriter.writeInt64("uptime", BufferUtils.uint32(buffer));
+
+        // Reused for all sampled headers of the datagram
+        final HeaderFields fields = new HeaderFields();
+
+        bsonWriter.writeStartArray("samples");
+        final long samples = BufferUtils.uint32(buffer);
+        for (long i = 0; i < samples; i++) {
+            writeSampleRecord(buffer, bsonWriter, fields);
+        }
+        bsonWriter.writeEndArray();
+        bsonWriter.writeEndDocument();
+    }
+
+    private static void writeSampleRecord(final ByteBuf buffer, final BsonWriter bsonWriter, final HeaderFields fields) throws InvalidPacketException {
+        final int dataFormat = (int) BufferUtils.uint32(buffer);
+        final int enterprise = enterprise(dataFormat);
+        final int format = format(dataFormat);
+        final int length = opaqueLength(buffer);
+        final int end = buffer.readerIndex() + length;
+
+        bsonWriter.writeStartDocument();
+        bsonWriter.writeString("format", formatId(enterprise, format));
+
+        if (enterprise == 0 && format >= 1 && format <= 4) {
+            bsonWriter.writeName("data");
+            bsonWriter.writeStartDocument();
+            bsonWriter.writeInt64("sequence_number", BufferUtils.uint32(buffer));
+
+            final boolean expanded = format == 3 || format == 4;
+            bsonWriter.writeName("source_id");
+            if (expanded) {
+                bsonWriter.writeStartDocument();
+                bsonWriter.writeInt64("source_id_type", BufferUtils.uint32(buffer));
+                bsonWriter.writeInt64("source_id_index", BufferUtils.uint32(buffer));
+                bsonWriter.writeEndDocument();
+            } else {
+                bsonWriter.writeInt64(BufferUtils.uint32(buffer));
+            }
+
+            if (format == 1 || format == 3) {
+                writeFlowSample(buffer, bsonWriter, fields, expanded);
+            } else {
+                writeCountersSample(buffer, bsonWriter);
+            }
+
+            bsonWriter.writeEndDocument();
+        }
+
+        bsonWriter.writeEndDocument();
+
+        closeOpaque(buffer, end, length);
+    }
+
+    private static void writeFlowSample(final ByteBuf buffer, final BsonWriter bsonWriter, final HeaderFields fields, final boolean expanded) throws InvalidPacketException {
+        bsonWriter.writeInt64("sampling_rate", BufferUtils.uint32(buffer));
+        bsonWriter.writeInt64("sample_pool", BufferUtils.uint32(buffer));
+        bsonWriter.writeInt64("drops", BufferUtils.uint32(buffer));
+
+        bsonWriter.writeName("input");
+        writeInterface(buffer, bsonWriter, expanded);
+        bsonWriter.writeName("output");
+        writeInterface(buffer, bsonWriter, expanded);
+
+        bsonWriter.writeStartDocument("flows");
+        final long records = BufferUtils.uint32(buffer);
+        for (long i = 0; i < records; i++) {
+            final int start = buffer.readerIndex();
+
+            final int dataFormat = (int) BufferUtils.uint32(buffer);
+            final int enterprise = enterprise(dataFormat);
+            final int format = format(dataFormat);
+
+            bsonWriter.writeName(formatId(enterprise, format));
+
+            if (enterprise == 0 && (format == 1 || format == 3 || format == 4)) {
+                final int length = opaqueLength(buffer);
+                final int end = buffer.readerIndex() + length;
+                switch (format) {
+                    case 1:
+                        writeSampledHeader(buffer, bsonWriter, fields);
+                        break;
+                    case 3:
+                        writeSampledIp(buffer, bsonWriter, 4);
+                        break;
+                    case 4:
+                        writeSampledIp(buffer, bsonWriter, 16);
+                        break;
+                }
+                closeOpaque(buffer, end, length);
+            } else {
+                buffer.readerIndex(start);
+                new FlowRecord(buffer).writeBson(bsonWriter, NO_ENRICHMENT);
+            }
+        }
+        bsonWriter.writeEndDocument();
+    }
+
+    private static void writeCountersSample(final ByteBuf buffer, final BsonWriter bsonWriter) throws InvalidPacketException {
+        bsonWriter.writeStartDocument("counters");
+        final long records = BufferUtils.uint32(buffer);
+        for (long i = 0; i < records; i++) {
+            final CounterRecord counterRecord = new CounterRecord(buffer);
+            bsonWriter.writeName(counterRecord.dataFormat.toId());
+            counterRecord.writeBson(bsonWriter, NO_ENRICHMENT);
+        }
+        bsonWriter.writeEndDocument();
+    }
+
+    private static void writeInterface(final ByteBuf buffer, final BsonWriter bsonWriter, final boolean expanded) {
+        if (expanded) {
+            bsonWriter.writeStartDocument();
+            bsonWriter.writeInt64("format", BufferUtils.uint32(buffer));
+            bsonWriter.writeInt64("value", BufferUtils.uint32(buffer));
+            bsonWriter.writeEndDocument();
+        } else {
+            bsonWriter.writeInt64(BufferUtils.uint32(buffer));
+        }
+    }
+
+    private static void writeSampledHeader(final ByteBuf buffer, final BsonWriter bsonWriter, final HeaderFields fields) throws InvalidPacketException {
+        final HeaderProtocol protocol = HeaderProtocol.from(buffer);
+
+        bsonWriter.writeStartDocument();
+        bsonWriter.writeName("protocol");
+        protocol.writeBson(bsonWriter);
+        bsonWriter.writeInt64("frame_length", BufferUtils.uint32(buffer));
+        bsonWriter.writeInt64("stripped", BufferUtils.uint32(buffer));
+
+        final int length = opaqueLength(buffer);
+        final int end = buffer.readerIndex() + length;
+        switch (protocol) {
+            case ETHERNET_ISO88023:
+                writeEthernetHeader(buffer, bsonWriter, fields, end);
+                break;
+            case IPv4:
+                fields.readInet4(buffer);
+                bsonWriter.writeName("ipv4");
+                writeIpHeader(bsonWriter, fields, 4);
+                break;
+            case IPv6:
+                fields.readInet6(buffer);
+                bsonWriter.writeName("ipv6");
+                writeIpHeader(bsonWriter, fields, 16);
+                break;
+            default:
+                bsonWriter.writeBinaryData("raw", new BsonBinary(BufferUtils.bytes(buffer, end - buffer.readerIndex())));
+        }
+        closeOpaque(buffer, end, length);
+
+        bsonWriter.writeEndDocument();
+    }
+
+    private static void writeEthernetHeader(final ByteBuf buffer, final BsonWriter bsonWriter, final HeaderFields fields, final int end) throws InvalidPacketException {
+        final int type = fields.readEthernet(buffer);
+
+        bsonWriter.writeStartDocument("ethernet");
+        if (fields.vlan != HeaderFields.NO_VLAN) {
+            bsonWriter.writeInt64("vlan", fields.vlan);
+        }
+        bsonWriter.writeEndDocument();
+
+        switch (type) {
+            case HeaderFields.ETHER_TYPE_IPV4:
+                fields.readInet4(buffer);
+                bsonWriter.writeName("ipv4");
+                writeIpHeader(bsonWriter, fields, 4);
+                break;
+            case HeaderFields.ETHER_TYPE_IPV6:
+                fields.readInet6(buffer);
+                bsonWriter.writeName("ipv6");
+                writeIpHeader(bsonWriter, fields, 16);
+                break;
+            default:
+                checkBounds(buffer, end);
+                bsonWriter.writeBinaryData("raw", new BsonBinary(BufferUtils.bytes(buffer, end - buffer.readerIndex())));
+        }
+    }
+
+    private static void writeIpHeader(final BsonWriter bsonWriter, final HeaderFields fields, final int addressLength) {
+        bsonWriter.writeStartDocument();
+        bsonWriter.writeInt32("tos", fields.tos);
+        bsonWriter.writeInt32("length", fields.totalLength);
+        bsonWriter.writeInt32("protocol", fields.protocol);
+
+        bsonWriter.writeStartDocument("src_ip");
+        bsonWriter.writeString("address", addressLength == 4 ? inet4Address(fields.srcAddress) : inet6Address(fields.srcAddress));
+        bsonWriter.writeEndDocument();
+        bsonWriter.writeStartDocument("dst_ip");
+        bsonWriter.writeString("address", addressLength == 4 ? inet4Address(fields.dstAddress) : inet6Address(fields.dstAddress));
+        bsonWriter.writeEndDocument();
+
+        if (fields.hasPorts) {
+            bsonWriter.writeInt32("src_port", fields.srcPort);
+            bsonWriter.writeInt32("dst_port", fields.dstPort);
+        }
+        if (fields.hasTcpFlags) {
+            bsonWriter.writeInt32("tcp_flags", fields.tcpFlags);
+        }
+        bsonWriter.writeEndDocument();
+    }
+
+    private static void writeSampledIp(final ByteBuf buffer, final BsonWriter bsonWriter, final int addressLength) {
+        bsonWriter.writeStartDocument();
+        bsonWriter.writeInt32("length", (int) BufferUtils.uint32(buffer));
+        bsonWriter.writeInt32("protocol", (int) BufferUtils.uint32(buffer));
+        bsonWriter.writeStartDocument("src_ip");
+        bsonWriter.writeString("address", addressLength == 4 ? inet4Address(buffer) : inet6Address(buffer));
+        bsonWriter.writeEndDocument();
+        bsonWriter.writeStartDocument("dst_ip");
+        bsonWriter.writeString("address", addressLength == 4 ? inet4Address(buffer) : inet6Address(buffer));
+        bsonWriter.writeEndDocument();
+        bsonWriter.writeInt32("src_port", (int) BufferUtils.uint32(buffer));
+        bsonWriter.writeInt32("dst_port", (int) BufferUtils.uint32(buffer));
+        bsonWriter.writeInt32("tcp_flags", (int) BufferUtils.uint32(buffer));
+        bsonWriter.writeInt32("tos", (int) BufferUtils.uint32(buffer));
+        bsonWriter.writeEndDocument();
+    }
+
+    private static void writeAddress(final ByteBuf buffer, final BsonWriter bsonWriter) throws InvalidPacketException {
+        final int type = (int) BufferUtils.uint32(buffer);
+
+        bsonWriter.writeStartDocument();
+        switch (type) {
+            case 1:
+                bsonWriter.writeStartDocument("ipv4");
+                bsonWriter.writeString("address", inet4Address(buffer));
+                bsonWriter.writeEndDocument();
+                break;
+            case 2:
+                bsonWriter.writeStartDocument("ipv6");
+                bsonWriter.writeString("address", inet6Address(buffer));
+                bsonWriter.writeEndDocument();
+                break;
+            case 0:
+                throw new IllegalStateException();
+            default:
+                throw new InvalidPacketException(buffer, "Unknown value: {}", type);
+        }
+        bsonWriter.writeEndDocument();
+    }
+
+    private static String inet4Address(final ByteBuf buffer) {
+        final StringBuilder result = new StringBuilder(15);
+        result.append(BufferUtils.uint8(buffer)).append('.')
+                .append(BufferUtils.uint8(buffer)).append('.')
+                .append(BufferUtils.uint8(buffer)).append('.')
+                .append(BufferUtils.uint8(buffer));
+        return result.toString();
+    }
+
+    private static String inet4Address(final byte[] address) {
+        final StringBuilder result = new StringBuilder(15);
+        result.append(address[0] & 0xff).append('.')
+                .append(address[1] & 0xff).append('.')
+                .append(address[2] & 0xff).append('.')
+                .append(address[3] & 0xff);
+        return result.toString();
+    }
+
+    private static String inet6Address(final ByteBuf buffer) {
+        return inet6Address(BufferUtils.bytes(buffer, 16));
+    }
+
+    private static String inet6Address(final byte[] address) {
+        try {
+            return InetAddress.getByAddress(address).getHostAddress();
+        } catch (final UnknownHostException e) {
+            // This only happens if byte array length is != 16
+            throw Throwables.propagate(e);
+        }
+    }
+
+    /**
+     * Reads the length of an opaque and ensures its content is available.
+     */
+    private static int opaqueLength(final ByteBuf buffer) throws InvalidPacketException {
+        final long length = BufferUtils.uint32(buffer);
+        if (length > buffer.readableBytes()) {
+            throw new InvalidPacketException(buffer, "Opaque exceeds buffer: %d", length);
+        }
+        return (int) length;
+    }
+
+    /**
+     * Moves the buffer past the end of an opaque and its padding.
+     */
+    private static void closeOpaque(final ByteBuf buffer, final int end, final int length) throws InvalidPacketException {
+        checkBounds(buffer, end);
+        buffer.readerIndex(end);
+        // Skip over optional padding
+        BufferUtils.skip(buffer, (4 - (length % 4)) % 4);
+    }
+
+    private static void checkBounds(final ByteBuf buffer, final int end) throws InvalidPacketException {
+        if (buffer.readerIndex() > end) {
+            throw new InvalidPacketException(buffer, "Read beyond end of opaque");
+        }
+    }
+
+    private static int enterprise(final int dataFormat) {
+        return dataFormat >> 12 & (2 << 20) - 1;
+    }
+
+    private static int format(final int dataFormat) {
+        return dataFormat & (2 << 12) - 1;
+    }
+
+    private static String formatId(final int enterprise, final int format) {
+        if (enterprise != 0) {
+            return String.format("%s:%s", enterprise, format);
+        }
+
+        String id = FORMAT_IDS[format];
+        if (id == null) {
+            id = FORMAT_IDS[format] = "0:" + format;
+        }
+        return id;
+    }
+}
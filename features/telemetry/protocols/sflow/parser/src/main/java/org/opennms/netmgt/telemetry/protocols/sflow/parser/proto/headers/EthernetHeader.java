@@ -38,28 +38,22 @@ public class EthernetHeader {
     public final byte[] rawHeader;
 
     public EthernetHeader(final ByteBuf buffer) throws InvalidPacketException {
-        BufferUtils.skip(buffer, 6); // dstMAC
-        BufferUtils.skip(buffer, 6); // srcMAC
-
-        int type = BufferUtils.uint16(buffer);
-        if (type == 0x8100) {
-            // 802.1Q (VLAN-Tagging)
-            this.vlan = BufferUtils.uint16(buffer) & 0x0fff;
-            type = BufferUtils.uint16(buffer);
-        } else {
-            this.vlan = null;
-        }
+        final HeaderFields fields = new HeaderFields();
+        final int type = fields.readEthernet(buffer);
+        this.vlan = fields.vlan != HeaderFields.NO_VLAN ? fields.vlan : null;
 
         switch (type) {
-            case 0x0800: // IPv4
-                this.inet4Header = new Inet4Header(buffer);
+            case HeaderFields.ETHER_TYPE_IPV4:
+                fields.readInet4(buffer);
+                this.inet4Header = new Inet4Header(fields);
                 this.inet6Header = null;
                 this.rawHeader = null;
                 break;
 
-            case 0x86DD: // IPv6
+            case HeaderFields.ETHER_TYPE_IPV6:
+                fields.readInet6(buffer);
                 this.inet4Header = null;
-                this.inet6Header = new Inet6Header(buffer);
+                this.inet6Header = new Inet6Header(fields);
                 this.rawHeader = null;
                 break;
 
@@ -0,0 +1,161 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.sflow.parser.proto.headers;
+
+import org.opennms.netmgt.telemetry.listeners.utils.BufferUtils;
+import org.opennms.netmgt.telemetry.protocols.sflow.parser.InvalidPacketException;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Decodes the fields of sampled ethernet, IPv4 and IPv6 headers.
+ *
+ * The header classes and the {@link org.opennms.netmgt.telemetry.protocols.sflow.parser.StreamingSampleDatagramWriter}
+ * both decode headers using these readers. The fields are stored in this holder, which can be reused for each header,
+ * so the streaming path does not allocate per header.
+ */
+public final class HeaderFields {
+
+    public static final int NO_VLAN = -1;
+
+    public static final int ETHER_TYPE_IPV4 = 0x0800;
+    public static final int ETHER_TYPE_IPV6 = 0x86DD;
+
+    private static final int ETHER_TYPE_VLAN = 0x8100;
+
+    public int vlan;
+
+    public int tos;
+    public int totalLength;
+    public int protocol;
+
+    // Only the first 4 bytes are used for IPv4
+    public final byte[] srcAddress = new byte[16];
+    public final byte[] dstAddress = new byte[16];
+
+    public boolean hasPorts;
+    public int srcPort;
+    public int dstPort;
+
+    public boolean hasTcpFlags;
+    public int tcpFlags;
+
+    /**
+     * Reads an ethernet header up to its payload.
+     *
+     * @return the ether type of the payload
+     */
+    public int readEthernet(final ByteBuf buffer) {
+        BufferUtils.skip(buffer, 6); // dstMAC
+        BufferUtils.skip(buffer, 6); // srcMAC
+
+        int type = BufferUtils.uint16(buffer);
+        if (type == ETHER_TYPE_VLAN) {
+            // 802.1Q (VLAN-Tagging)
+            this.vlan = BufferUtils.uint16(buffer) & 0x0fff;
+            type = BufferUtils.uint16(buffer);
+        } else {
+            this.vlan = NO_VLAN;
+        }
+        return type;
+    }
+
+    /**
+     * Reads an IPv4 header and the ports of its payload.
+     */
+    public void readInet4(final ByteBuf buffer) throws InvalidPacketException {
+        final int version_ihl = BufferUtils.uint8(buffer);
+        if (version_ihl >> 4 != 0x04) {
+            // First four bits must be 0x04
+            throw new InvalidPacketException(buffer, "Expected IPv4 Header");
+        }
+
+        final int ihl = (version_ihl & ((1 << 4) - 1)) * 4;
+
+        this.tos = BufferUtils.uint8(buffer);
+        this.totalLength = BufferUtils.uint16(buffer);
+        BufferUtils.skip(buffer, 2); // Identifier
+        BufferUtils.skip(buffer, 2); // Flags and fragment offset
+        BufferUtils.skip(buffer, 1); // TTL
+        this.protocol = BufferUtils.uint8(buffer);
+        BufferUtils.skip(buffer, 2); // Checksum
+
+        buffer.readBytes(this.srcAddress, 0, 4);
+        buffer.readBytes(this.dstAddress, 0, 4);
+
+        BufferUtils.skip(buffer, ihl - 20); // Padding / Options
+
+        this.readTransport(buffer);
+    }
+
+    /**
+     * Reads an IPv6 header and the ports of its payload.
+     */
+    public void readInet6(final ByteBuf buffer) throws InvalidPacketException {
+        final long version_tc_fl = BufferUtils.uint32(buffer);
+        if (version_tc_fl >> 28 != 0x06) {
+            // First four bits must be 0x06
+            throw new InvalidPacketException(buffer, "Expected IPv6 Header");
+        }
+
+        this.tos = (int) ((version_tc_fl >> 20) & ((1 << 8) -1));
+        this.totalLength = BufferUtils.uint16(buffer) + 40;
+        this.protocol = BufferUtils.uint8(buffer);
+        BufferUtils.skip(buffer, 1); // Hop limit
+
+        buffer.readBytes(this.srcAddress, 0, 16);
+        buffer.readBytes(this.dstAddress, 0, 16);
+
+        this.readTransport(buffer);
+    }
+
+    private void readTransport(final ByteBuf buffer) {
+        this.hasPorts = true;
+        this.hasTcpFlags = false;
+
+        // Almost all protocols have their port fields directly following the IP header
+        switch (this.protocol) {
+            case 6: // TCP
+                this.srcPort = BufferUtils.uint16(buffer);
+                this.dstPort = BufferUtils.uint16(buffer);
+                BufferUtils.skip(buffer, 8); // SeqNum and AckNum
+                this.tcpFlags = BufferUtils.uint16(buffer) & ((1 << 9) - 1);
+                this.hasTcpFlags = true;
+                break;
+
+            case 17: // UDP
+            case 132: // SCTP
+                this.srcPort = BufferUtils.uint16(buffer);
+                this.dstPort = BufferUtils.uint16(buffer);
+                break;
+
+            case 1: // ICMP
+            case 58: // ICMP6
+                this.srcPort = 0;
+                this.dstPort = BufferUtils.uint16(buffer);
+                break;
+
+            default:
+                this.hasPorts = false;
+        }
+    }
+}
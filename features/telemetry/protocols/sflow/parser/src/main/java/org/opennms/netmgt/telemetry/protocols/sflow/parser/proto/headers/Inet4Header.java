@@ -23,9 +23,9 @@ package org.opennms.netmgt.telemetry.protocols.sflow.parser.proto.headers;
 
 import java.net.Inet4Address;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 
 import org.bson.BsonWriter;
-import org.opennms.netmgt.telemetry.listeners.utils.BufferUtils;
 import org.opennms.netmgt.telemetry.protocols.sflow.parser.SampleDatagramEnrichment;
 import org.opennms.netmgt.telemetry.protocols.sflow.parser.InvalidPacketException;
 import org.opennms.netmgt.telemetry.protocols.sflow.parser.SampleDatagramVisitor;
@@ -49,60 +49,31 @@ public class Inet4Header {
     public final Integer tcpFlags;
 
     public Inet4Header(final ByteBuf buffer) throws InvalidPacketException {
-        final int version_ihl = BufferUtils.uint8(buffer);
-        if (version_ihl >> 4 != 0x04) {
-            // First four bits must be 0x04
-            throw new InvalidPacketException(buffer, "Expected IPv4 Header");
-        }
-
-        final int ihl = (version_ihl & ((1 << 4) - 1)) * 4;
+        this(read(buffer));
+    }
 
-        this.tos = BufferUtils.uint8(buffer);
-        this.totalLength = BufferUtils.uint16(buffer);
-        BufferUtils.skip(buffer, 2); // Identifier
-        BufferUtils.skip(buffer, 2); // Flags and fragment offset
-        BufferUtils.skip(buffer, 1); // TTL
-        this.protocol = BufferUtils.uint8(buffer);
-        BufferUtils.skip(buffer, 2); // Checksum
+    Inet4Header(final HeaderFields fields) {
+        this.tos = fields.tos;
+        this.totalLength = fields.totalLength;
+        this.protocol = fields.protocol;
 
         try {
-            this.srcAddress = (Inet4Address) Inet4Address.getByAddress(BufferUtils.bytes(buffer, 4));
-            this.dstAddress = (Inet4Address) Inet4Address.getByAddress(BufferUtils.bytes(buffer, 4));
+            this.srcAddress = (Inet4Address) Inet4Address.getByAddress(Arrays.copyOf(fields.srcAddress, 4));
+            this.dstAddress = (Inet4Address) Inet4Address.getByAddress(Arrays.copyOf(fields.dstAddress, 4));
         } catch (final UnknownHostException e) {
             // This only happens if byte array length is != 4
             throw Throwables.propagate(e);
         }
 
-        BufferUtils.skip(buffer, ihl - 20); // Padding / Options
-
-        // Almost all protocols have their port fields directly following the IP header
-        switch (this.protocol) {
-            case 6: // TCP
-                this.srcPort = BufferUtils.uint16(buffer);
-                this.dstPort = BufferUtils.uint16(buffer);
-                BufferUtils.skip(buffer, 8); // SeqNum and AckNum
-                this.tcpFlags = BufferUtils.uint16(buffer) & ((1 << 9) - 1);
-                break;
-
-            case 17: // UDP
-            case 132: // SCTP
-                this.srcPort = BufferUtils.uint16(buffer);
-                this.dstPort = BufferUtils.uint16(buffer);
-                this.tcpFlags = null;
-                break;
-
-            case 1: // ICMP
-            case 58: // ICMP6
-                this.srcPort = 0;
-                this.dstPort = BufferUtils.uint16(buffer);
-                this.tcpFlags = null;
-                break;
-
-            default:
-                this.srcPort = null;
-                this.dstPort = null;
-                this.tcpFlags = null;
-        }
+        this.srcPort = fields.hasPorts ? fields.srcPort : null;
+        this.dstPort = fields.hasPorts ? fields.dstPort : null;
+        this.tcpFlags = fields.hasTcpFlags ? fields.tcpFlags : null;
+    }
+
+    private static HeaderFields read(final ByteBuf buffer) throws InvalidPacketException {
+        final HeaderFields fields = new HeaderFields();
+        fields.readInet4(buffer);
+        return fields;
     }
 
     public Inet4Header(final int tos, final int totalLength, final int protocol, final Inet4Address srcAddress, final Inet4Address dstAddress, final Integer srcPort, final Integer dstPort, final Integer tcpFlags) {
@@ -23,9 +23,9 @@ package org.opennms.netmgt.telemetry.protocols.sflow.parser.proto.headers;
 
 import java.net.Inet6Address;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 
 import org.bson.BsonWriter;
-import org.opennms.netmgt.telemetry.listeners.utils.BufferUtils;
 import org.opennms.netmgt.telemetry.protocols.sflow.parser.SampleDatagramEnrichment;
 import org.opennms.netmgt.telemetry.protocols.sflow.parser.InvalidPacketException;
 import org.opennms.netmgt.telemetry.protocols.sflow.parser.SampleDatagramVisitor;
@@ -49,53 +49,31 @@ public class Inet6Header {
     public final Integer tcpFlags;
 
     public Inet6Header(final ByteBuf buffer) throws InvalidPacketException {
-        final long version_tc_fl = BufferUtils.uint32(buffer);
-        if (version_tc_fl >> 28 != 0x06) {
-            // First four bits must be 0x06
-            throw new InvalidPacketException(buffer, "Expected IPv6 Header");
-        }
+        this(read(buffer));
+    }
 
-        this.tos = (int) ((version_tc_fl >> 20) & ((1 << 8) -1));
-        this.totalLength = BufferUtils.uint16(buffer) + 40;
-        this.protocol = BufferUtils.uint8(buffer);
-        BufferUtils.skip(buffer, 1); // Hop limit
+    Inet6Header(final HeaderFields fields) {
+        this.tos = fields.tos;
+        this.totalLength = fields.totalLength;
+        this.protocol = fields.protocol;
 
         try {
-            this.srcAddress = (Inet6Address) Inet6Address.getByAddress(BufferUtils.bytes(buffer, 16));
-            this.dstAddress = (Inet6Address) Inet6Address.getByAddress(BufferUtils.bytes(buffer, 16));
+            this.srcAddress = (Inet6Address) Inet6Address.getByAddress(Arrays.copyOf(fields.srcAddress, 16));
+            this.dstAddress = (Inet6Address) Inet6Address.getByAddress(Arrays.copyOf(fields.dstAddress, 16));
         } catch (final UnknownHostException e) {
             // This only happens if byte array length is != 16
             throw Throwables.propagate(e);
         }
 
-        // Almost all protocols have their port fields directly following the IP header
-        switch (this.protocol) {
-            case 6: // TCP
-                this.srcPort = BufferUtils.uint16(buffer);
-                this.dstPort = BufferUtils.uint16(buffer);
-                BufferUtils.skip(buffer, 8); // SeqNum and AckNum
-                this.tcpFlags = BufferUtils.uint16(buffer) & ((1 << 9) - 1);
-                break;
-
-            case 17: // UDP
-            case 132: // SCTP
-                this.srcPort = BufferUtils.uint16(buffer);
-                this.dstPort = BufferUtils.uint16(buffer);
-                this.tcpFlags = null;
-                break;
-
-            case 1: // ICMP
-            case 58: // ICMP6
-                this.srcPort = 0;
-                this.dstPort = BufferUtils.uint16(buffer);
-                this.tcpFlags = null;
-                break;
-
-            default:
-                this.srcPort = null;
-                this.dstPort = null;
-                this.tcpFlags = null;
-        }
+        this.srcPort = fields.hasPorts ? fields.srcPort : null;
+        this.dstPort = fields.hasPorts ? fields.dstPort : null;
+        this.tcpFlags = fields.hasTcpFlags ? fields.tcpFlags : null;
+    }
+
+    private static HeaderFields read(final ByteBuf buffer) throws InvalidPacketException {
+        final HeaderFields fields = new HeaderFields();
+        fields.readInet6(buffer);
+        return fields;
     }
 
     public Inet6Header(final int tos, final int totalLength, final int protocol, final Inet6Address srcAddress, final Inet6Address dstAddress, final Integer srcPort, final Integer dstPort, final Integer tcpFlags) {
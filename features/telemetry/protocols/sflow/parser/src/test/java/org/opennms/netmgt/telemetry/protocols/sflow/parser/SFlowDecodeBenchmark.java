@@ -0,0 +1,127 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.sflow.parser;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonBinaryWriter;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opennms.netmgt.telemetry.protocols.sflow.parser.proto.flows.SampleDatagram;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Use the Java Microbenchmarking Harness (JMH) to compare decoding captured sFlow datagrams into the datagram tree and
+ * writing it to BSON with writing them to BSON while decoding.
+ * <p>
+ * Run with the "-prof gc" option to compare the allocation rates.
+ */
+public class SFlowDecodeBenchmark {
+    private final static Path FOLDER = Paths.get("src/test/resources/flows");
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    @State(Scope.Benchmark)
+    public static class BState {
+
+        @Param({"sflow1.dat", "sflow2.dat", "sflow3.dat", "sflow4.dat"})
+        public String file;
+
+        // Start offsets of the datagrams in the capture
+        private final List<Integer> offsets = new ArrayList<>();
+
+        private byte[] data;
+
+        @Setup
+        public void setup() throws Exception {
+            this.data = Files.readAllBytes(FOLDER.resolve(this.file));
+
+            final ByteBuf buffer = Unpooled.wrappedBuffer(this.data);
+            do {
+                this.offsets.add(buffer.readerIndex());
+                new SampleDatagram(buffer);
+            } while (buffer.isReadable());
+        }
+
+        private ByteBuf datagram(final int i) {
+            return Unpooled.wrappedBuffer(this.data, this.offsets.get(i), this.data.length - this.offsets.get(i));
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int tree(final BState state) throws Exception {
+        int size = 0;
+        for (int i = 0; i < state.offsets.size(); i++) {
+            final SampleDatagram packet = new SampleDatagram(state.datagram(i));
+
+            final BasicOutputBuffer output = new BasicOutputBuffer();
+            try (final BsonBinaryWriter bsonWriter = new BsonBinaryWriter(output)) {
+                packet.version.datagram.writeBson(bsonWriter, address -> Optional.empty());
+            }
+            size += output.getSize();
+        }
+        return size;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int streaming(final BState state) throws Exception {
+        int size = 0;
+        for (int i = 0; i < state.offsets.size(); i++) {
+            final BasicOutputBuffer output = new BasicOutputBuffer();
+            try (final BsonBinaryWriter bsonWriter = new BsonBinaryWriter(output)) {
+                StreamingSampleDatagramWriter.write(state.datagram(i), bsonWriter);
+            }
+            size += output.getSize();
+        }
+        return size;
+    }
+}
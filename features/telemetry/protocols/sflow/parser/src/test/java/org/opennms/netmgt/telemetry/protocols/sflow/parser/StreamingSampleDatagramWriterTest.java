@@ -0,0 +1,89 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.telemetry.protocols.sflow.parser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.bson.BsonBinaryWriter;
+import org.bson.io.BasicOutputBuffer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.opennms.netmgt.telemetry.protocols.sflow.parser.proto.flows.SampleDatagram;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Verifies the streaming writer produces the same documents as writing the decoded datagram tree.
+ */
+@RunWith(Parameterized.class)
+public class StreamingSampleDatagramWriterTest {
+    private final static Path FOLDER = Paths.get("src/test/resources/flows");
+
+    @Parameterized.Parameters(name = "file: {0}")
+    public static Iterable<String> data() throws IOException {
+        return Arrays.<String>asList("sflow1.dat", "sflow2.dat", "sflow3.dat", "sflow4.dat");
+    }
+
+    private final String file;
+
+    public StreamingSampleDatagramWriterTest(final String file) {
+        this.file = file;
+    }
+
+    @Test
+    public void testFiles() throws Exception {
+        try (final FileChannel channel = FileChannel.open(FOLDER.resolve(this.file))) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            channel.read(buffer);
+            buffer.flip();
+
+            final ByteBuf treeBuf = Unpooled.wrappedBuffer(buffer.duplicate());
+            final ByteBuf streamBuf = Unpooled.wrappedBuffer(buffer.duplicate());
+
+            do {
+                final BasicOutputBuffer treeOutput = new BasicOutputBuffer();
+                try (final BsonBinaryWriter bsonWriter = new BsonBinaryWriter(treeOutput)) {
+                    new SampleDatagram(treeBuf).version.datagram.writeBson(bsonWriter, address -> Optional.empty());
+                }
+
+                final BasicOutputBuffer streamOutput = new BasicOutputBuffer();
+                try (final BsonBinaryWriter bsonWriter = new BsonBinaryWriter(streamOutput)) {
+                    StreamingSampleDatagramWriter.write(streamBuf, bsonWriter);
+                }
+
+                assertArrayEquals(treeOutput.toByteArray(), streamOutput.toByteArray());
+                assertEquals(treeBuf.readerIndex(), streamBuf.readerIndex());
+            } while (treeBuf.isReadable());
+        }
+    }
+}
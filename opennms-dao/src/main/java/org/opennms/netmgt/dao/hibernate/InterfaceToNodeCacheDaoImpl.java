@@ -24,34 +24,25 @@ package org.opennms.netmgt.dao.hibernate;
 import static org.opennms.core.utils.InetAddressUtils.str;
 
 import java.net.InetAddress;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Timer;
 import java.util.TimerTask;
-import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
 import org.opennms.core.criteria.CriteriaBuilder;
-import org.opennms.core.utils.LocationUtils;
 import org.opennms.netmgt.dao.api.AbstractInterfaceToNodeCache;
 import org.opennms.netmgt.dao.api.InterfaceToNodeCache;
 import org.opennms.netmgt.dao.api.IpInterfaceDao;
 import org.opennms.netmgt.dao.api.NodeDao;
 import org.opennms.netmgt.model.OnmsIpInterface;
 import org.opennms.netmgt.model.OnmsNode;
-import org.opennms.netmgt.model.PrimaryType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -59,10 +50,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import com.google.common.collect.ComparisonChain;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Multimaps;
-import com.google.common.collect.SortedSetMultimap;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
@@ -84,114 +71,6 @@ public class InterfaceToNodeCacheDaoImpl extends AbstractInterfaceToNodeCache im
     private final ExecutorService executorService = Executors.newSingleThreadExecutor(threadFactory);
     private final CountDownLatch initialNodeSyncDone = new CountDownLatch(1);
 
-    private static class Key {
-        private final String location;
-        private final InetAddress ipAddress;
-
-        public Key(String location, InetAddress ipAddress) {
-            // Use the default location when location is null
-            this.location = LocationUtils.getEffectiveLocationName(location);
-            this.ipAddress = Objects.requireNonNull(ipAddress);
-        }
-
-        public InetAddress getIpAddress() {
-            return ipAddress;
-        }
-
-        public String getLocation() {
-            return location;
-        }
-
-        @Override
-        public boolean equals(final Object obj) {
-            if (obj == null) {
-                return false;
-            }
-            if (obj == this) {
-                return true;
-            }
-            if (obj.getClass() != getClass()) {
-                return false;
-            }
-            final Key that = (Key) obj;
-            return Objects.equals(this.ipAddress, that.ipAddress)
-                    && Objects.equals(this.location, that.location);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(this.ipAddress, this.location);
-        }
-
-        @Override
-        public String toString() {
-            return String.format("Key[location='%s', ipAddress='%s']", this.location, this.ipAddress);
-        }
-    }
-
-    private static class Value implements Comparable<Value> {
-        private final int nodeId;
-        private final int interfaceId;
-        private final PrimaryType type;
-
-
-        private Value(final int nodeId,
-                      final int interfaceId,
-                      final PrimaryType type) {
-            this.nodeId = nodeId;
-            this.interfaceId = interfaceId;
-            this.type = type;
-        }
-
-        public int getNodeId() {
-            return this.nodeId;
-        }
-
-        public int getInterfaceId() {
-            return this.interfaceId;
-        }
-
-        public PrimaryType getType() {
-            return this.type;
-        }
-
-        @Override
-        public boolean equals(final Object obj) {
-            if (obj == null) {
-                return false;
-            }
-            if (obj == this) {
-                return true;
-            }
-            if (obj.getClass() != getClass()) {
-                return false;
-            }
-            final Value that = (Value) obj;
-            return Objects.equals(this.nodeId, that.nodeId)
-                    && Objects.equals(this.interfaceId, that.interfaceId)
-                    && Objects.equals(this.type, that.type);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(this.nodeId, this.type.getCharCode());
-        }
-
-        @Override
-        public String toString() {
-            return String.format("Value[nodeId='%s', interfaceId='%s', type='%s']", this.nodeId, this.interfaceId, this.type);
-        }
-
-        @Override
-        public int compareTo(final Value that) {
-            return ComparisonChain.start()
-                    .compare(this.type, that.type)
-                    .compare(this.nodeId, that.nodeId)
-                    .compare(this.interfaceId, that.interfaceId)
-                    .result();
-        }
-    }
-
     @Autowired
     private NodeDao m_nodeDao;
 
@@ -201,8 +80,9 @@ public class InterfaceToNodeCacheDaoImpl extends AbstractInterfaceToNodeCache im
     @Autowired
     private TransactionOperations transactionOperations;
 
-    private final ReadWriteLock m_lock = new ReentrantReadWriteLock();
-    private SortedSetMultimap<Key, Value> m_managedAddresses = Multimaps.newSortedSetMultimap(Maps.newHashMap(), TreeSet::new);
+    // Readers use the current snapshot without locking, writers are serialized and publish modified copies
+    private final Object m_writeLock = new Object();
+    private volatile InterfaceToNodeSnapshot m_managedAddresses = InterfaceToNodeSnapshot.EMPTY;
 
     private final Timer refreshTimer = new Timer(getClass().getSimpleName());
 
@@ -293,7 +173,7 @@ public class InterfaceToNodeCacheDaoImpl extends AbstractInterfaceToNodeCache im
          * if something goes wrong with the DB we won't lose whatever was already
          * in there
          */
-        final SortedSetMultimap<Key, Value> newAlreadyDiscovered = Multimaps.newSortedSetMultimap(Maps.newHashMap(), TreeSet::new);
+        final InterfaceToNodeSnapshot.Builder newAlreadyDiscovered = InterfaceToNodeSnapshot.builder();
 
         // Fetch all non-deleted nodes
         final CriteriaBuilder builder = new CriteriaBuilder(OnmsNode.class);
@@ -307,18 +187,16 @@ public class InterfaceToNodeCacheDaoImpl extends AbstractInterfaceToNodeCache im
                     continue;
                 }
                 LOG.debug("Adding entry: {}:{} -> {}", node.getLocation().getLocationName(), iface.getIpAddress(), node.getId());
-                newAlreadyDiscovered.put(new Key(node.getLocation().getLocationName(), iface.getIpAddress()), new Value(node.getId(), iface.getId(), iface.getIsSnmpPrimary()));
+                newAlreadyDiscovered.put(node.getLocation().getLocationName(), iface.getIpAddress(), new InterfaceToNodeSnapshot.Value(node.getId(), iface.getId(), iface.getIsSnmpPrimary()));
             }
         }
 
-        try {
-            m_lock.writeLock().lock();
-            m_managedAddresses = newAlreadyDiscovered;
-        } finally {
-            m_lock.writeLock().unlock();
+        final InterfaceToNodeSnapshot snapshot = newAlreadyDiscovered.build();
+        synchronized (m_writeLock) {
+            m_managedAddresses = snapshot;
         }
 
-        LOG.info("dataSourceSync: initialized list of managed IP addresses with {} members", m_managedAddresses.size());
+        LOG.info("dataSourceSync: initialized list of managed IP addresses with {} members", snapshot.size());
     }
 
     @Override
@@ -327,13 +205,7 @@ public class InterfaceToNodeCacheDaoImpl extends AbstractInterfaceToNodeCache im
             return Optional.empty();
         }
         waitForInitialNodeSync();
-        m_lock.readLock().lock();
-        try {
-            var values = m_managedAddresses.get(new Key(location, ipAddr));
-            return values.isEmpty() ? Optional.empty() : Optional.of(new Entry(values.first().nodeId, values.first().interfaceId));
-        } finally {
-            m_lock.readLock().unlock();
-        }
+        return m_managedAddresses.getFirst(location, ipAddr);
     }
 
     private void waitForInitialNodeSync() {
@@ -365,11 +237,10 @@ public class InterfaceToNodeCacheDaoImpl extends AbstractInterfaceToNodeCache im
 
         LOG.debug("setNodeId: adding IP address to cache: {}:{} -> {}", location, str(addr), nodeid);
 
-        m_lock.writeLock().lock();
-        try {
-            return m_managedAddresses.put(new Key(location, addr), new Value(nodeid, iface.getId(), iface.getIsSnmpPrimary()));
-        } finally {
-            m_lock.writeLock().unlock();
+        synchronized (m_writeLock) {
+            final InterfaceToNodeSnapshot current = m_managedAddresses;
+            m_managedAddresses = current.put(location, addr, new InterfaceToNodeSnapshot.Value(nodeid, iface.getId(), iface.getIsSnmpPrimary()));
+            return m_managedAddresses != current;
         }
     }
 
@@ -388,51 +259,34 @@ public class InterfaceToNodeCacheDaoImpl extends AbstractInterfaceToNodeCache im
 
         LOG.debug("removeNodeId: removing IP address from cache: {}:{}", location, str(address));
 
-        m_lock.writeLock().lock();
-        try {
-            final Key key = new Key(location, address);
-            return m_managedAddresses.get(key).removeIf(e -> e.nodeId == nodeId);
-        } finally {
-            m_lock.writeLock().unlock();
+        synchronized (m_writeLock) {
+            final InterfaceToNodeSnapshot current = m_managedAddresses;
+            m_managedAddresses = current.remove(location, address, nodeId);
+            return m_managedAddresses != current;
         }
     }
 
     @Override
     public int size() {
         waitForInitialNodeSync();
-        m_lock.readLock().lock();
-        try {
-            return m_managedAddresses.size();
-        } finally {
-            m_lock.readLock().unlock();
-        }
+        return m_managedAddresses.size();
     }
 
     @Override
     public void clear() {
-        m_lock.writeLock().lock();
-        try {
-            m_managedAddresses.clear();
-        } finally {
-            m_lock.writeLock().unlock();
+        synchronized (m_writeLock) {
+            m_managedAddresses = InterfaceToNodeSnapshot.EMPTY;
         }
     }
 
     @Override
     public void removeInterfacesForNode(int nodeId) {
-        m_lock.writeLock().lock();
-        try {
-            List<Map.Entry<Key, Value>> keyValues = m_managedAddresses.entries().stream()
-                    .filter(keyValueEntry -> keyValueEntry.getValue().getNodeId() == nodeId)
-                    .collect(Collectors.toList());
-            keyValues.forEach(keyValue -> {
-                boolean succeeded = m_managedAddresses.remove(keyValue.getKey(), keyValue.getValue());
-                if (succeeded) {
-                    LOG.debug("removeInterfacesForNode: removed IP address from cache: {}", str(keyValue.getKey().getIpAddress()));
-                }
-            });
-        } finally {
-            m_lock.writeLock().unlock();
+        synchronized (m_writeLock) {
+            final InterfaceToNodeSnapshot current = m_managedAddresses;
+            m_managedAddresses = current.removeNode(nodeId);
+            if (m_managedAddresses != current) {
+                LOG.debug("removeInterfacesForNode: removed {} IP addresses of node {} from cache", current.size() - m_managedAddresses.size(), nodeId);
+            }
         }
     }
 }
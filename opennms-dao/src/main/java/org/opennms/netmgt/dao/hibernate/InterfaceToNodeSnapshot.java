@@ -0,0 +1,510 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.dao.hibernate;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import org.opennms.core.utils.LocationUtils;
+import org.opennms.netmgt.dao.api.InterfaceToNodeCache.Entry;
+import org.opennms.netmgt.model.PrimaryType;
+
+import com.google.common.collect.ComparisonChain;
+
+/**
+ * An immutable mapping of (location, IP address) pairs to the interfaces having this address.
+ *
+ * Each location holds one hash table per address family. Addresses are stored as primitive keys in open addressing
+ * tables, so lookups neither lock nor allocate. The tables are split into segments by hash, which allows to derive a
+ * modified snapshot by copying only the affected segment.
+ */
+final class InterfaceToNodeSnapshot {
+
+    static final InterfaceToNodeSnapshot EMPTY = new InterfaceToNodeSnapshot(new HashMap<>(), 0);
+
+    static final class Value implements Comparable<Value> {
+        final int nodeId;
+        final int interfaceId;
+        final PrimaryType type;
+
+        Value(final int nodeId,
+              final int interfaceId,
+              final PrimaryType type) {
+            this.nodeId = nodeId;
+            this.interfaceId = interfaceId;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == null) {
+                return false;
+            }
+            if (obj == this) {
+                return true;
+            }
+            if (obj.getClass() != getClass()) {
+                return false;
+            }
+            final Value that = (Value) obj;
+            return Objects.equals(this.nodeId, that.nodeId)
+                    && Objects.equals(this.interfaceId, that.interfaceId)
+                    && Objects.equals(this.type, that.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.nodeId, this.type.getCharCode());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Value[nodeId='%s', interfaceId='%s', type='%s']", this.nodeId, this.interfaceId, this.type);
+        }
+
+        @Override
+        public int compareTo(final Value that) {
+            return ComparisonChain.start()
+                    .compare(this.type, that.type)
+                    .compare(this.nodeId, that.nodeId)
+                    .compare(this.interfaceId, that.interfaceId)
+                    .result();
+        }
+    }
+
+    /**
+     * Collects entries to build a snapshot at once.
+     */
+    static final class Builder {
+        private final Map<String, Map<Address, TreeSet<Value>>> entries = new HashMap<>();
+
+        Builder put(final String location, final InetAddress ipAddress, final Value value) {
+            this.entries.computeIfAbsent(LocationUtils.getEffectiveLocationName(location), l -> new HashMap<>())
+                    .computeIfAbsent(Address.of(ipAddress), a -> new TreeSet<>())
+                    .add(value);
+            return this;
+        }
+
+        InterfaceToNodeSnapshot build() {
+            final Map<String, Table[]> locations = new HashMap<>();
+            int size = 0;
+            for (final Map.Entry<String, Map<Address, TreeSet<Value>>> location : this.entries.entrySet()) {
+                final List<List<Address>> keys = new ArrayList<>(FAMILIES);
+                final List<List<Slot>> slots = new ArrayList<>(FAMILIES);
+                for (int family = 0; family < FAMILIES; family++) {
+                    keys.add(new ArrayList<>());
+                    slots.add(new ArrayList<>());
+                }
+
+                for (final Map.Entry<Address, TreeSet<Value>> e : location.getValue().entrySet()) {
+                    keys.get(e.getKey().family).add(e.getKey());
+                    slots.get(e.getKey().family).add(new Slot(e.getValue().toArray(new Value[0])));
+                    size += e.getValue().size();
+                }
+
+                final Table[] tables = new Table[FAMILIES];
+                for (int family = 0; family < FAMILIES; family++) {
+                    tables[family] = Table.of(keys.get(family), slots.get(family));
+                }
+                locations.put(location.getKey(), tables);
+            }
+            return new InterfaceToNodeSnapshot(locations, size);
+        }
+    }
+
+    private static final int FAMILY_IPV4 = 0;
+    private static final int FAMILY_IPV6 = 1;
+    private static final int FAMILIES = 2;
+
+    // Effective location name -> tables by address family
+    private final Map<String, Table[]> locations;
+
+    // The number of values in all tables
+    private final int size;
+
+    private InterfaceToNodeSnapshot(final Map<String, Table[]> locations, final int size) {
+        this.locations = locations;
+        this.size = size;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    Optional<Entry> getFirst(final String location, final InetAddress ipAddress) {
+        final Table[] tables = this.locations.get(LocationUtils.getEffectiveLocationName(location));
+        if (tables == null) {
+            return Optional.empty();
+        }
+
+        final byte[] bytes = ipAddress.getAddress();
+        final Slot slot = bytes.length == 4
+                ? tables[FAMILY_IPV4].get(0L, Address.ipv4(bytes))
+                : tables[FAMILY_IPV6].get(Address.high(bytes), Address.low(bytes));
+        return slot != null ? slot.first : Optional.empty();
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a snapshot with the given value added or this snapshot if the value already exists.
+     */
+    InterfaceToNodeSnapshot put(final String location, final InetAddress ipAddress, final Value value) {
+        final String effectiveLocation = LocationUtils.getEffectiveLocationName(location);
+        final Address address = Address.of(ipAddress);
+
+        final Table[] tables = this.locations.get(effectiveLocation);
+        final Table table = tables != null ? tables[address.family] : Table.EMPTY;
+
+        final Slot slot = table.get(address.high, address.low);
+        if (slot != null && Arrays.asList(slot.values).contains(value)) {
+            return this;
+        }
+
+        final TreeSet<Value> values = new TreeSet<>();
+        if (slot != null) {
+            values.addAll(Arrays.asList(slot.values));
+        }
+        values.add(value);
+
+        return this.with(effectiveLocation, address.family, table.with(address, new Slot(values.toArray(new Value[0]))), 1);
+    }
+
+    /**
+     * Returns a snapshot without the values of the given node for the given address or this snapshot if there are none.
+     */
+    InterfaceToNodeSnapshot remove(final String location, final InetAddress ipAddress, final int nodeId) {
+        final String effectiveLocation = LocationUtils.getEffectiveLocationName(location);
+        final Address address = Address.of(ipAddress);
+
+        final Table[] tables = this.locations.get(effectiveLocation);
+        if (tables == null) {
+            return this;
+        }
+
+        final Table table = tables[address.family];
+        final Slot slot = table.get(address.high, address.low);
+        if (slot == null) {
+            return this;
+        }
+
+        final Slot remaining = slot.without(nodeId);
+        if (remaining == slot) {
+            return this;
+        }
+
+        return this.with(effectiveLocation, address.family, table.with(address, remaining), (remaining != null ? remaining.values.length : 0) - slot.values.length);
+    }
+
+    /**
+     * Returns a snapshot without any values of the given node.
+     */
+    InterfaceToNodeSnapshot removeNode(final int nodeId) {
+        InterfaceToNodeSnapshot snapshot = this;
+        for (final Map.Entry<String, Table[]> location : this.locations.entrySet()) {
+            for (int family = 0; family < FAMILIES; family++) {
+                final Table table = location.getValue()[family];
+                final List<Address> addresses = new ArrayList<>();
+                final List<Slot> remainings = new ArrayList<>();
+                int removed = 0;
+
+                for (final Segment segment : table.segments) {
+                    for (int i = 0; i < segment.slots.length; i++) {
+                        final Slot slot = segment.slots[i];
+                        if (slot == null) {
+                            continue;
+                        }
+                        final Slot remaining = slot.without(nodeId);
+                        if (remaining != slot) {
+                            addresses.add(new Address(family, segment.highs[i], segment.lows[i]));
+                            remainings.add(remaining);
+                            removed += slot.values.length - (remaining != null ? remaining.values.length : 0);
+                        }
+                    }
+                }
+
+                if (!addresses.isEmpty()) {
+                    Table modified = table;
+                    for (int i = 0; i < addresses.size(); i++) {
+                        modified = modified.with(addresses.get(i), remainings.get(i));
+                    }
+                    snapshot = snapshot.with(location.getKey(), family, modified, -removed);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private InterfaceToNodeSnapshot with(final String location, final int family, final Table table, final int sizeDelta) {
+        final Map<String, Table[]> locations = new HashMap<>(this.locations);
+        final Table[] tables = locations.containsKey(location)
+                ? locations.get(location).clone()
+                : new Table[] { Table.EMPTY, Table.EMPTY };
+        tables[family] = table;
+        locations.put(location, tables);
+        return new InterfaceToNodeSnapshot(locations, this.size + sizeDelta);
+    }
+
+    /**
+     * The sorted values of an address and the precomputed lookup result.
+     */
+    private static final class Slot {
+        private final Value[] values;
+        private final Optional<Entry> first;
+
+        private Slot(final Value[] values) {
+            this.values = values;
+            this.first = Optional.of(new Entry(values[0].nodeId, values[0].interfaceId));
+        }
+
+        /**
+         * @return this slot if no value belongs to the node, a slot with the remaining values or null if none remains
+         */
+        private Slot without(final int nodeId) {
+            final Value[] remaining = Arrays.stream(this.values)
+                    .filter(v -> v.nodeId != nodeId)
+                    .toArray(Value[]::new);
+            if (remaining.length == this.values.length) {
+                return this;
+            }
+            return remaining.length > 0 ? new Slot(remaining) : null;
+        }
+    }
+
+    /**
+     * An address as a pair of longs. IPv4 addresses only use the lower long.
+     */
+    private static final class Address {
+        private final int family;
+        private final long high;
+        private final long low;
+
+        private Address(final int family, final long high, final long low) {
+            this.family = family;
+            this.high = high;
+            this.low = low;
+        }
+
+        private static Address of(final InetAddress ipAddress) {
+            final byte[] bytes = Objects.requireNonNull(ipAddress).getAddress();
+            return bytes.length == 4
+                    ? new Address(FAMILY_IPV4, 0L, ipv4(bytes))
+                    : new Address(FAMILY_IPV6, high(bytes), low(bytes));
+        }
+
+        private static long ipv4(final byte[] bytes) {
+            return toLong(bytes, 0, 4);
+        }
+
+        private static long high(final byte[] bytes) {
+            return toLong(bytes, 0, 8);
+        }
+
+        private static long low(final byte[] bytes) {
+            return toLong(bytes, 8, 16);
+        }
+
+        private static long toLong(final byte[] bytes, final int from, final int to) {
+            long value = 0L;
+            for (int i = from; i < to; i++) {
+                value = (value << 8) | (bytes[i] & 0xFFL);
+            }
+            return value;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Address)) {
+                return false;
+            }
+            final Address that = (Address) obj;
+            return this.family == that.family && this.high == that.high && this.low == that.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash(this.high, this.low);
+        }
+    }
+
+    private static int hash(final long high, final long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * A hash table of the addresses of one family split into segments by the upper bits of the hash.
+     */
+    private static final class Table {
+        private static final int SEGMENT_BITS = 6;
+        private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+        private static final Table EMPTY;
+        static {
+            final Segment[] segments = new Segment[SEGMENTS];
+            Arrays.fill(segments, Segment.EMPTY);
+            EMPTY = new Table(segments);
+        }
+
+        private final Segment[] segments;
+
+        private Table(final Segment[] segments) {
+            this.segments = segments;
+        }
+
+        private static Table of(final List<Address> addresses, final List<Slot> slots) {
+            if (addresses.isEmpty()) {
+                return EMPTY;
+            }
+
+            final List<List<Integer>> members = new ArrayList<>(SEGMENTS);
+            for (int i = 0; i < SEGMENTS; i++) {
+                members.add(new ArrayList<>());
+            }
+            for (int i = 0; i < addresses.size(); i++) {
+                members.get(segment(addresses.get(i).hashCode())).add(i);
+            }
+
+            final Segment[] segments = new Segment[SEGMENTS];
+            for (int s = 0; s < SEGMENTS; s++) {
+                final List<Integer> indices = members.get(s);
+                final long[] highs = new long[indices.size()];
+                final long[] lows = new long[indices.size()];
+                final Slot[] values = new Slot[indices.size()];
+                for (int i = 0; i < indices.size(); i++) {
+                    highs[i] = addresses.get(indices.get(i)).high;
+                    lows[i] = addresses.get(indices.get(i)).low;
+                    values[i] = slots.get(indices.get(i));
+                }
+                segments[s] = Segment.of(highs, lows, values, indices.size());
+            }
+            return new Table(segments);
+        }
+
+        private static int segment(final int hash) {
+            return hash >>> (Integer.SIZE - SEGMENT_BITS);
+        }
+
+        private Slot get(final long high, final long low) {
+            final int hash = hash(high, low);
+            return this.segments[segment(hash)].get(high, low, hash);
+        }
+
+        /**
+         * Returns a table with the slot of the given address replaced, or removed if the slot is null.
+         */
+        private Table with(final Address address, final Slot slot) {
+            final int hash = address.hashCode();
+            final Segment[] segments = this.segments.clone();
+            segments[segment(hash)] = segments[segment(hash)].with(address.high, address.low, slot);
+            return new Table(segments);
+        }
+    }
+
+    /**
+     * An open addressing hash table with linear probing. Segments are never modified but rebuilt on changes.
+     */
+    private static final class Segment {
+        private static final Segment EMPTY = new Segment(new long[1], new long[1], new Slot[1]);
+
+        private final long[] highs;
+        private final long[] lows;
+        private final Slot[] slots;
+        private final int mask;
+
+        private Segment(final long[] highs, final long[] lows, final Slot[] slots) {
+            this.highs = highs;
+            this.lows = lows;
+            this.slots = slots;
+            this.mask = slots.length - 1;
+        }
+
+        private static Segment of(final long[] highs, final long[] lows, final Slot[] slots, final int count) {
+            if (count == 0) {
+                return EMPTY;
+            }
+
+            // Keep the load factor at or below 0.5
+            final int capacity = Integer.highestOneBit(count * 4 - 1);
+            final Segment segment = new Segment(new long[capacity], new long[capacity], new Slot[capacity]);
+            for (int i = 0; i < count; i++) {
+                int index = hash(highs[i], lows[i]) & segment.mask;
+                while (segment.slots[index] != null) {
+                    index = (index + 1) & segment.mask;
+                }
+                segment.highs[index] = highs[i];
+                segment.lows[index] = lows[i];
+                segment.slots[index] = slots[i];
+            }
+            return segment;
+        }
+
+        private Slot get(final long high, final long low, final int hash) {
+            for (int index = hash & this.mask; ; index = (index + 1) & this.mask) {
+                final Slot slot = this.slots[index];
+                if (slot == null) {
+                    return null;
+                }
+                if (this.highs[index] == high && this.lows[index] == low) {
+                    return slot;
+                }
+            }
+        }
+
+        private Segment with(final long high, final long low, final Slot slot) {
+            final long[] highs = new long[this.slots.length + 1];
+            final long[] lows = new long[this.slots.length + 1];
+            final Slot[] slots = new Slot[this.slots.length + 1];
+            int count = 0;
+            for (int i = 0; i < this.slots.length; i++) {
+                if (this.slots[i] != null && !(this.highs[i] == high && this.lows[i] == low)) {
+                    highs[count] = this.highs[i];
+                    lows[count] = this.lows[i];
+                    slots[count] = this.slots[i];
+                    count++;
+                }
+            }
+            if (slot != null) {
+                highs[count] = high;
+                lows[count] = low;
+                slots[count] = slot;
+                count++;
+            }
+            return of(highs, lows, slots, count);
+        }
+    }
+}
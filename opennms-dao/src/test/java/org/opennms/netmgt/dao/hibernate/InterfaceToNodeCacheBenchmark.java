@@ -0,0 +1,118 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.dao.hibernate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opennms.netmgt.model.PrimaryType;
+
+/**
+ * Use the Java Microbenchmarking Harness (JMH) to measure lookups in the interface to node cache while the cache is
+ * resynchronized concurrently.
+ * <p>
+ * The "lookup" threads look up random addresses of a populated snapshot. The "resync" thread continuously builds a
+ * complete new snapshot and publishes it, like {@link InterfaceToNodeCacheDaoImpl#dataSourceSync()} does.
+ */
+public class InterfaceToNodeCacheBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    @State(Scope.Group)
+    public static class BState {
+
+        @Param({"10000", "100000"})
+        public int interfaces;
+
+        private InetAddress[] addresses;
+
+        private volatile InterfaceToNodeSnapshot snapshot;
+
+        @Setup
+        public void setup() throws UnknownHostException {
+            final Random random = new Random(123456L);
+            addresses = new InetAddress[interfaces];
+            for (int i = 0; i < interfaces; i++) {
+                final byte[] bytes = new byte[i % 10 == 0 ? 16 : 4];
+                random.nextBytes(bytes);
+                addresses[i] = InetAddress.getByAddress(bytes);
+            }
+            snapshot = resync();
+        }
+
+        private InterfaceToNodeSnapshot resync() {
+            final InterfaceToNodeSnapshot.Builder builder = InterfaceToNodeSnapshot.builder();
+            for (int i = 0; i < addresses.length; i++) {
+                builder.put(null, addresses[i], new InterfaceToNodeSnapshot.Value(i / 4, i, PrimaryType.PRIMARY));
+            }
+            return builder.build();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TState {
+        private final Random random = new Random();
+    }
+
+    @Benchmark
+    @Group("resync")
+    @GroupThreads(3)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(value = 1)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void lookup(BState state, TState thread, Blackhole blackhole) {
+        final InetAddress address = state.addresses[thread.random.nextInt(state.addresses.length)];
+        blackhole.consume(state.snapshot.getFirst(null, address));
+    }
+
+    @Benchmark
+    @Group("resync")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(value = 1)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public void resync(BState state) {
+        state.snapshot = state.resync();
+    }
+}
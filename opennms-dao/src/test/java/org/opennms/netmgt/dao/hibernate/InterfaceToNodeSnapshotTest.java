@@ -0,0 +1,86 @@
+/*
+ * Licensed to The OpenNMS Group, Inc (TOG) under one or more
+ * contributor license agreements.  See the LICENSE.md file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * TOG licenses this file to You under the GNU Affero General
+ * Public License Version 3 (the "License") or (at your option)
+ * any later version.  You may not use this file except in
+ * compliance with the License.  You may obtain a copy of the
+ * License at:
+ *
+ *      https://www.gnu.org/licenses/agpl-3.0.txt
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied.  See the License for the specific
+ * language governing permissions and limitations under the
+ * License.
+ */
+package org.opennms.netmgt.dao.hibernate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.opennms.core.utils.InetAddressUtils.addr;
+
+import java.util.Optional;
+
+import org.junit.Test;
+import org.opennms.netmgt.dao.api.InterfaceToNodeCache;
+import org.opennms.netmgt.model.PrimaryType;
+
+public class InterfaceToNodeSnapshotTest {
+
+    @Test
+    public void canLookupBuiltEntries() {
+        final InterfaceToNodeSnapshot snapshot = InterfaceToNodeSnapshot.builder()
+                .put(null, addr("10.0.0.1"), new InterfaceToNodeSnapshot.Value(1, 11, PrimaryType.NOT_ELIGIBLE))
+                .put(null, addr("10.0.0.1"), new InterfaceToNodeSnapshot.Value(2, 21, PrimaryType.PRIMARY))
+                .put("Remote", addr("10.0.0.1"), new InterfaceToNodeSnapshot.Value(3, 31, PrimaryType.PRIMARY))
+                .put("Default", addr("fe80::1"), new InterfaceToNodeSnapshot.Value(4, 41, PrimaryType.SECONDARY))
+                .build();
+
+        assertThat(snapshot.size(), equalTo(4));
+
+        // Values are ordered by their primary type and null is the default location
+        assertThat(snapshot.getFirst(null, addr("10.0.0.1")), equalTo(Optional.of(new InterfaceToNodeCache.Entry(1, 11))));
+        assertThat(snapshot.getFirst("Default", addr("10.0.0.1")), equalTo(Optional.of(new InterfaceToNodeCache.Entry(1, 11))));
+        assertThat(snapshot.getFirst("Remote", addr("10.0.0.1")), equalTo(Optional.of(new InterfaceToNodeCache.Entry(3, 31))));
+        assertThat(snapshot.getFirst(null, addr("fe80::1")), equalTo(Optional.of(new InterfaceToNodeCache.Entry(4, 41))));
+
+        assertThat(snapshot.getFirst(null, addr("10.0.0.2")), equalTo(Optional.empty()));
+        assertThat(snapshot.getFirst("Unknown", addr("10.0.0.1")), equalTo(Optional.empty()));
+    }
+
+    @Test
+    public void canApplyDeltas() {
+        final InterfaceToNodeSnapshot empty = InterfaceToNodeSnapshot.EMPTY;
+
+        final InterfaceToNodeSnapshot one = empty.put(null, addr("192.168.0.1"), new InterfaceToNodeSnapshot.Value(1, 11, PrimaryType.PRIMARY));
+        assertThat(one.size(), equalTo(1));
+        assertThat(empty.size(), equalTo(0));
+        assertThat(empty.getFirst(null, addr("192.168.0.1")), equalTo(Optional.empty()));
+
+        // Adding an existing value does not modify the snapshot
+        assertThat(one.put(null, addr("192.168.0.1"), new InterfaceToNodeSnapshot.Value(1, 11, PrimaryType.PRIMARY)), sameInstance(one));
+
+        final InterfaceToNodeSnapshot two = one.put(null, addr("192.168.0.2"), new InterfaceToNodeSnapshot.Value(1, 12, PrimaryType.SECONDARY))
+                .put(null, addr("192.168.0.1"), new InterfaceToNodeSnapshot.Value(2, 21, PrimaryType.SECONDARY));
+        assertThat(two.size(), equalTo(3));
+
+        // Removing values of an unknown node does not modify the snapshot
+        assertThat(two.remove(null, addr("192.168.0.1"), 3), sameInstance(two));
+
+        final InterfaceToNodeSnapshot removed = two.remove(null, addr("192.168.0.1"), 1);
+        assertThat(removed.size(), equalTo(2));
+        assertThat(removed.getFirst(null, addr("192.168.0.1")), equalTo(Optional.of(new InterfaceToNodeCache.Entry(2, 21))));
+
+        final InterfaceToNodeSnapshot withoutNode = two.removeNode(1);
+        assertThat(withoutNode.size(), equalTo(1));
+        assertThat(withoutNode.getFirst(null, addr("192.168.0.1")), equalTo(Optional.of(new InterfaceToNodeCache.Entry(2, 21))));
+        assertThat(withoutNode.getFirst(null, addr("192.168.0.2")), equalTo(Optional.empty()));
+    }
+}
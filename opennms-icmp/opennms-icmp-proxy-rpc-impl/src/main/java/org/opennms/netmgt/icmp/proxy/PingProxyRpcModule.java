@@ -21,6 +21,7 @@
  */
 package org.opennms.netmgt.icmp.proxy;
 
+import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
 
 import org.opennms.core.rpc.xml.AbstractXmlRpcModule;
@@ -70,4 +71,10 @@ public class PingProxyRpcModule extends AbstractXmlRpcModule<PingRequestDTO, Pin
     public PingResponseDTO createResponseWithException(Throwable ex) {
         return new PingResponseDTO(ex);
     }
+
+    @Override
+    public Object getCoalescingKey(PingRequestDTO request) {
+        return Arrays.asList(request.getLocation(), request.getSystemId(), request.getInetAddress(),
+                request.getRetries(), request.getTimeout(), request.getPacketSize());
+    }
 }